@@ -56,5 +56,7 @@ public class SessionConfig {
 
   public static final String SQL_DIALECT = "tree";
 
+  public static final String DEFAULT_RESULT_FORMAT = "tsblock";
+
   private SessionConfig() {}
 }
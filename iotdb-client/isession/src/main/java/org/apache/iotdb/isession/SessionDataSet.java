@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.isession;
 
+import org.apache.iotdb.rpc.ArrowColumnarBatch;
 import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.IoTDBRpcDataSet;
 import org.apache.iotdb.rpc.RpcUtils;
@@ -220,6 +221,22 @@ public class SessionDataSet implements ISessionDataSet {
     return constructRowRecordFromValueArray();
   }
 
+  /**
+   * Returns the next batch of rows in columnar form, or null if the result set is exhausted. This
+   * avoids the per row conversion of {@link #next()} and is most efficient when the session is
+   * built with the {@code arrow} result format. Do not mix it with {@link #next()} or {@link
+   * #iterator()} on the same data set.
+   */
+  public ArrowColumnarBatch nextColumnarBatch()
+      throws StatementExecutionException, IoTDBConnectionException {
+    return ioTDBRpcDataSet.nextColumnarBatch();
+  }
+
+  /** Returns the column index of the given column in batches returned by nextColumnarBatch. */
+  public int getColumnarBatchIndex(String columnName) {
+    return ioTDBRpcDataSet.getColumnarBatchIndex(columnName);
+  }
+
   public void closeOperationHandle() throws StatementExecutionException, IoTDBConnectionException {
     try {
       ioTDBRpcDataSet.close();
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.apache.iotdb.rpc.ArrowTsBlockSerde.BUFFER_COUNT_PER_COLUMN;
+import static org.apache.iotdb.rpc.ArrowTsBlockSerde.COLUMN_METADATA_SIZE;
+import static org.apache.iotdb.rpc.ArrowTsBlockSerde.CONTINUATION_MARKER;
+import static org.apache.iotdb.rpc.ArrowTsBlockSerde.FORMAT_VERSION;
+import static org.apache.iotdb.rpc.ArrowTsBlockSerde.METADATA_HEADER_SIZE;
+import static org.apache.iotdb.rpc.ArrowTsBlockSerde.OFFSETS_BUFFER;
+import static org.apache.iotdb.rpc.ArrowTsBlockSerde.PREFIX_SIZE;
+import static org.apache.iotdb.rpc.ArrowTsBlockSerde.VALIDITY_BUFFER;
+import static org.apache.iotdb.rpc.ArrowTsBlockSerde.VALUES_BUFFER;
+
+/**
+ * Read-only view over one record batch produced by {@link ArrowTsBlockSerde}. No value is copied
+ * when the batch is created: accessors read straight from the received buffer, and the raw Arrow
+ * buffers of every column can be obtained as slices for bulk processing. Column 0 is the time
+ * column, value columns start from 1.
+ */
+public class ArrowColumnarBatch {
+
+  private final ByteBuffer buffer;
+  private final int rowCount;
+  private final TSDataType[] dataTypes;
+  private final int[] nullCounts;
+  // absolute position and length of the validity, offsets and values buffers of each column
+  private final int[][] bufferPositions;
+  private final int[][] bufferLengths;
+
+  public ArrowColumnarBatch(ByteBuffer buffer) {
+    this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    if (this.buffer.getInt(0) != CONTINUATION_MARKER) {
+      throw new IllegalArgumentException("Buffer is not a columnar record batch");
+    }
+    int metadataLength = this.buffer.getInt(Integer.BYTES);
+    short version = this.buffer.getShort(PREFIX_SIZE);
+    if (version != FORMAT_VERSION) {
+      throw new IllegalArgumentException(
+          String.format("Unsupported columnar record batch version: %d", version));
+    }
+    int columnCount = this.buffer.getShort(PREFIX_SIZE + Short.BYTES);
+    this.rowCount = (int) this.buffer.getLong(PREFIX_SIZE + Long.BYTES);
+    this.dataTypes = new TSDataType[columnCount];
+    this.nullCounts = new int[columnCount];
+    this.bufferPositions = new int[columnCount][BUFFER_COUNT_PER_COLUMN];
+    this.bufferLengths = new int[columnCount][BUFFER_COUNT_PER_COLUMN];
+
+    int bodyStart = PREFIX_SIZE + metadataLength;
+    int position = PREFIX_SIZE + METADATA_HEADER_SIZE;
+    for (int i = 0; i < columnCount; i++) {
+      dataTypes[i] = TSDataType.deserialize(this.buffer.get(position));
+      nullCounts[i] = this.buffer.getInt(position + Integer.BYTES);
+      int bufferMetadataPosition = position + Long.BYTES;
+      for (int j = 0; j < BUFFER_COUNT_PER_COLUMN; j++) {
+        bufferPositions[i][j] =
+            bodyStart + (int) this.buffer.getLong(bufferMetadataPosition + j * 2 * Long.BYTES);
+        bufferLengths[i][j] =
+            (int) this.buffer.getLong(bufferMetadataPosition + (j * 2 + 1) * Long.BYTES);
+      }
+      position += COLUMN_METADATA_SIZE;
+    }
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /** Number of columns including the time column. */
+  public int getColumnCount() {
+    return dataTypes.length;
+  }
+
+  public TSDataType getDataType(int column) {
+    return dataTypes[column];
+  }
+
+  public int getNullCount(int column) {
+    return nullCounts[column];
+  }
+
+  public boolean isNull(int column, int row) {
+    if (nullCounts[column] == 0) {
+      return false;
+    }
+    byte bits = buffer.get(bufferPositions[column][VALIDITY_BUFFER] + (row >>> 3));
+    return (bits & (1 << (row & 7))) == 0;
+  }
+
+  public long getTime(int row) {
+    return getLong(0, row);
+  }
+
+  public boolean getBoolean(int column, int row) {
+    byte bits = buffer.get(bufferPositions[column][VALUES_BUFFER] + (row >>> 3));
+    return (bits & (1 << (row & 7))) != 0;
+  }
+
+  public int getInt(int column, int row) {
+    return buffer.getInt(bufferPositions[column][VALUES_BUFFER] + row * Integer.BYTES);
+  }
+
+  public long getLong(int column, int row) {
+    return buffer.getLong(bufferPositions[column][VALUES_BUFFER] + row * Long.BYTES);
+  }
+
+  public float getFloat(int column, int row) {
+    return buffer.getFloat(bufferPositions[column][VALUES_BUFFER] + row * Float.BYTES);
+  }
+
+  public double getDouble(int column, int row) {
+    return buffer.getDouble(bufferPositions[column][VALUES_BUFFER] + row * Double.BYTES);
+  }
+
+  public Binary getBinary(int column, int row) {
+    int offsetsPosition = bufferPositions[column][OFFSETS_BUFFER];
+    int start = buffer.getInt(offsetsPosition + row * Integer.BYTES);
+    int end = buffer.getInt(offsetsPosition + (row + 1) * Integer.BYTES);
+    int valuesPosition = bufferPositions[column][VALUES_BUFFER];
+    return ArrowTsBlockSerde.newBinary(buffer, valuesPosition + start, valuesPosition + end);
+  }
+
+  /** Arrow validity bitmap of the column, empty if the column contains no null. */
+  public ByteBuffer getValidityBuffer(int column) {
+    return slice(column, VALIDITY_BUFFER);
+  }
+
+  /** Arrow int32 offsets buffer of a TEXT, STRING or BLOB column, empty for other types. */
+  public ByteBuffer getOffsetsBuffer(int column) {
+    return slice(column, OFFSETS_BUFFER);
+  }
+
+  /** Arrow values buffer of the column. */
+  public ByteBuffer getValuesBuffer(int column) {
+    return slice(column, VALUES_BUFFER);
+  }
+
+  private ByteBuffer slice(int column, int bufferIndex) {
+    ByteBuffer duplicate = buffer.asReadOnlyBuffer();
+    duplicate.position(bufferPositions[column][bufferIndex]);
+    duplicate.limit(bufferPositions[column][bufferIndex] + bufferLengths[column][bufferIndex]);
+    return duplicate.slice().order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.tsfile.utils.Binary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializes a {@link TsBlock} into a columnar record batch whose buffers follow the Apache Arrow
+ * columnar format, so that clients can read the columns in place instead of materializing rows.
+ *
+ * <p>Layout (all integers little-endian, every buffer starts on an 8-byte boundary):
+ *
+ * <pre>
+ * int32  continuation marker (0xFFFFFFFF, same as an Arrow IPC encapsulated message)
+ * int32  metadata length (multiple of 8)
+ * metadata:
+ *   int16  format version
+ *   int16  column count (the time column is column 0)
+ *   int32  reserved
+ *   int64  row count
+ *   per column:
+ *     int8   TSDataType
+ *     int8   whether the column has a validity bitmap
+ *     int16  reserved
+ *     int32  null count
+ *     3 x (int64 offset, int64 length)   validity, offsets and values buffers, relative to body
+ * body:
+ *   validity bitmap  LSB bit order, 1 = valid (Arrow validity bitmap)
+ *   offsets          int32[rowCount + 1], only for TEXT, STRING and BLOB (Arrow Utf8/Binary)
+ *   values           bit-packed for BOOLEAN, fixed width for numeric types, bytes for binaries
+ * </pre>
+ *
+ * <p>The metadata block is a compact replacement of the Arrow flatbuffer schema, so the buffers can
+ * be handed to Arrow readers with a thin adapter while the client keeps no extra dependency.
+ */
+public class ArrowTsBlockSerde {
+
+  public static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+
+  public static final short FORMAT_VERSION = 1;
+
+  static final int ALIGNMENT = 8;
+
+  static final int PREFIX_SIZE = 2 * Integer.BYTES;
+
+  static final int METADATA_HEADER_SIZE = 16;
+
+  static final int BUFFER_COUNT_PER_COLUMN = 3;
+
+  static final int COLUMN_METADATA_SIZE = 8 + BUFFER_COUNT_PER_COLUMN * 2 * Long.BYTES;
+
+  static final int VALIDITY_BUFFER = 0;
+
+  static final int OFFSETS_BUFFER = 1;
+
+  static final int VALUES_BUFFER = 2;
+
+  private ArrowTsBlockSerde() {
+    // util class
+  }
+
+  /**
+   * Whether the buffer holds a record batch produced by {@link #serialize(TsBlock)}. A buffer
+   * produced by {@link org.apache.tsfile.read.common.block.column.TsBlockSerde} starts with a
+   * non-negative value column count, so it can never be mistaken for the continuation marker.
+   */
+  public static boolean isArrowFormat(ByteBuffer buffer) {
+    // the marker reads the same in both byte orders, so the order of the buffer is left untouched
+    return buffer.remaining() >= PREFIX_SIZE
+        && buffer.getInt(buffer.position()) == CONTINUATION_MARKER;
+  }
+
+  public static ByteBuffer serialize(TsBlock tsBlock) {
+    int rowCount = tsBlock.getPositionCount();
+    int columnCount = tsBlock.getValueColumnCount() + 1;
+    Column[] columns = new Column[columnCount];
+    columns[0] = tsBlock.getTimeColumn();
+    for (int i = 1; i < columnCount; i++) {
+      columns[i] = tsBlock.getColumn(i - 1);
+    }
+
+    int metadataLength = align(METADATA_HEADER_SIZE + columnCount * COLUMN_METADATA_SIZE);
+    long[][] bufferLengths = new long[columnCount][BUFFER_COUNT_PER_COLUMN];
+    int[] nullCounts = new int[columnCount];
+    long bodyLength = 0;
+    for (int i = 0; i < columnCount; i++) {
+      Column column = columns[i];
+      TSDataType dataType = i == 0 ? TSDataType.INT64 : column.getDataType();
+      nullCounts[i] = i == 0 ? 0 : countNulls(column, rowCount);
+      bufferLengths[i][VALIDITY_BUFFER] = nullCounts[i] == 0 ? 0 : bitmapLength(rowCount);
+      if (isVariableWidth(dataType)) {
+        bufferLengths[i][OFFSETS_BUFFER] = (long) (rowCount + 1) * Integer.BYTES;
+        bufferLengths[i][VALUES_BUFFER] = binaryLength(column, rowCount);
+      } else if (dataType == TSDataType.BOOLEAN) {
+        bufferLengths[i][VALUES_BUFFER] = bitmapLength(rowCount);
+      } else {
+        bufferLengths[i][VALUES_BUFFER] = (long) rowCount * fixedWidth(dataType);
+      }
+      for (long length : bufferLengths[i]) {
+        bodyLength += align(length);
+      }
+    }
+
+    long totalLength = PREFIX_SIZE + metadataLength + bodyLength;
+    if (totalLength > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          String.format("TsBlock is too large to be serialized, size: %d", totalLength));
+    }
+    ByteBuffer buffer = ByteBuffer.allocate((int) totalLength).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(CONTINUATION_MARKER);
+    buffer.putInt(metadataLength);
+
+    int bodyStart = PREFIX_SIZE + metadataLength;
+    buffer.putShort(FORMAT_VERSION);
+    buffer.putShort((short) columnCount);
+    buffer.putInt(0);
+    buffer.putLong(rowCount);
+    long bodyOffset = 0;
+    for (int i = 0; i < columnCount; i++) {
+      TSDataType dataType = i == 0 ? TSDataType.INT64 : columns[i].getDataType();
+      buffer.put(dataType.serialize());
+      buffer.put(nullCounts[i] == 0 ? (byte) 0 : (byte) 1);
+      buffer.putShort((short) 0);
+      buffer.putInt(nullCounts[i]);
+      for (long length : bufferLengths[i]) {
+        buffer.putLong(bodyOffset);
+        buffer.putLong(length);
+        bodyOffset += align(length);
+      }
+    }
+
+    int position = bodyStart;
+    for (int i = 0; i < columnCount; i++) {
+      TSDataType dataType = i == 0 ? TSDataType.INT64 : columns[i].getDataType();
+      if (bufferLengths[i][VALIDITY_BUFFER] > 0) {
+        writeValidity(buffer, position, columns[i], rowCount);
+      }
+      position += (int) align(bufferLengths[i][VALIDITY_BUFFER]);
+      if (isVariableWidth(dataType)) {
+        int valuesPosition = position + (int) align(bufferLengths[i][OFFSETS_BUFFER]);
+        writeBinaries(buffer, position, valuesPosition, columns[i], rowCount);
+      } else {
+        writeFixedWidth(
+            buffer,
+            position + (int) align(bufferLengths[i][OFFSETS_BUFFER]),
+            columns[i],
+            dataType,
+            rowCount);
+      }
+      position += (int) align(bufferLengths[i][OFFSETS_BUFFER]);
+      position += (int) align(bufferLengths[i][VALUES_BUFFER]);
+    }
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Materializes a record batch back into a {@link TsBlock}. Only used by the row-based result set
+   * APIs; columnar consumers should use {@link ArrowColumnarBatch} directly.
+   */
+  public static TsBlock deserialize(ByteBuffer buffer) {
+    return toTsBlock(new ArrowColumnarBatch(buffer));
+  }
+
+  public static TsBlock toTsBlock(ArrowColumnarBatch batch) {
+    int rowCount = batch.getRowCount();
+    List<TSDataType> valueTypes = new ArrayList<>(batch.getColumnCount() - 1);
+    for (int i = 1; i < batch.getColumnCount(); i++) {
+      valueTypes.add(batch.getDataType(i));
+    }
+    TsBlockBuilder builder = new TsBlockBuilder(rowCount, valueTypes);
+    TimeColumnBuilder timeColumnBuilder = builder.getTimeColumnBuilder();
+    for (int row = 0; row < rowCount; row++) {
+      timeColumnBuilder.writeLong(batch.getLong(0, row));
+    }
+    for (int i = 1; i < batch.getColumnCount(); i++) {
+      ColumnBuilder columnBuilder = builder.getColumnBuilder(i - 1);
+      TSDataType dataType = batch.getDataType(i);
+      for (int row = 0; row < rowCount; row++) {
+        if (batch.isNull(i, row)) {
+          columnBuilder.appendNull();
+          continue;
+        }
+        switch (dataType) {
+          case BOOLEAN:
+            columnBuilder.writeBoolean(batch.getBoolean(i, row));
+            break;
+          case INT32:
+          case DATE:
+            columnBuilder.writeInt(batch.getInt(i, row));
+            break;
+          case INT64:
+          case TIMESTAMP:
+            columnBuilder.writeLong(batch.getLong(i, row));
+            break;
+          case FLOAT:
+            columnBuilder.writeFloat(batch.getFloat(i, row));
+            break;
+          case DOUBLE:
+            columnBuilder.writeDouble(batch.getDouble(i, row));
+            break;
+          case TEXT:
+          case STRING:
+          case BLOB:
+            columnBuilder.writeBinary(batch.getBinary(i, row));
+            break;
+          default:
+            throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+        }
+      }
+    }
+    builder.declarePositions(rowCount);
+    return builder.build();
+  }
+
+  static boolean isVariableWidth(TSDataType dataType) {
+    return dataType == TSDataType.TEXT
+        || dataType == TSDataType.STRING
+        || dataType == TSDataType.BLOB;
+  }
+
+  static int fixedWidth(TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+      case DATE:
+      case FLOAT:
+        return 4;
+      case INT64:
+      case TIMESTAMP:
+      case DOUBLE:
+        return 8;
+      default:
+        throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+    }
+  }
+
+  static long align(long length) {
+    return (length + ALIGNMENT - 1) & -ALIGNMENT;
+  }
+
+  private static int align(int length) {
+    return (int) align((long) length);
+  }
+
+  private static long bitmapLength(int rowCount) {
+    return (rowCount + 7) >>> 3;
+  }
+
+  private static int countNulls(Column column, int rowCount) {
+    if (!column.mayHaveNull()) {
+      return 0;
+    }
+    int nullCount = 0;
+    for (int row = 0; row < rowCount; row++) {
+      if (column.isNull(row)) {
+        nullCount++;
+      }
+    }
+    return nullCount;
+  }
+
+  private static long binaryLength(Column column, int rowCount) {
+    long length = 0;
+    for (int row = 0; row < rowCount; row++) {
+      if (!column.isNull(row)) {
+        length += column.getBinary(row).getLength();
+      }
+    }
+    return length;
+  }
+
+  private static void writeValidity(ByteBuffer buffer, int position, Column column, int rowCount) {
+    for (int row = 0; row < rowCount; row++) {
+      if (!column.isNull(row)) {
+        int index = position + (row >>> 3);
+        buffer.put(index, (byte) (buffer.get(index) | (1 << (row & 7))));
+      }
+    }
+  }
+
+  private static void writeBinaries(
+      ByteBuffer buffer, int offsetsPosition, int valuesPosition, Column column, int rowCount) {
+    ByteBuffer values = buffer.duplicate();
+    values.position(valuesPosition);
+    int offset = 0;
+    buffer.putInt(offsetsPosition, 0);
+    for (int row = 0; row < rowCount; row++) {
+      if (!column.isNull(row)) {
+        byte[] bytes = column.getBinary(row).getValues();
+        values.put(bytes);
+        offset += bytes.length;
+      }
+      buffer.putInt(offsetsPosition + (row + 1) * Integer.BYTES, offset);
+    }
+  }
+
+  private static void writeFixedWidth(
+      ByteBuffer buffer, int position, Column column, TSDataType dataType, int rowCount) {
+    // null slots are left zeroed, their content is undefined in the Arrow format
+    switch (dataType) {
+      case BOOLEAN:
+        for (int row = 0; row < rowCount; row++) {
+          if (!column.isNull(row) && column.getBoolean(row)) {
+            int index = position + (row >>> 3);
+            buffer.put(index, (byte) (buffer.get(index) | (1 << (row & 7))));
+          }
+        }
+        break;
+      case INT32:
+      case DATE:
+        for (int row = 0; row < rowCount; row++) {
+          if (!column.isNull(row)) {
+            buffer.putInt(position + row * Integer.BYTES, column.getInt(row));
+          }
+        }
+        break;
+      case INT64:
+      case TIMESTAMP:
+        for (int row = 0; row < rowCount; row++) {
+          if (!column.isNull(row)) {
+            buffer.putLong(position + row * Long.BYTES, column.getLong(row));
+          }
+        }
+        break;
+      case FLOAT:
+        for (int row = 0; row < rowCount; row++) {
+          if (!column.isNull(row)) {
+            buffer.putFloat(position + row * Float.BYTES, column.getFloat(row));
+          }
+        }
+        break;
+      case DOUBLE:
+        for (int row = 0; row < rowCount; row++) {
+          if (!column.isNull(row)) {
+            buffer.putDouble(position + row * Double.BYTES, column.getDouble(row));
+          }
+        }
+        break;
+      default:
+        throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+    }
+  }
+
+  static Binary newBinary(ByteBuffer values, int start, int end) {
+    byte[] bytes = new byte[end - start];
+    ByteBuffer duplicate = values.duplicate();
+    duplicate.position(start);
+    duplicate.get(bytes);
+    return new Binary(bytes);
+  }
+}
@@ -300,11 +300,47 @@ public class IoTDBRpcDataSet {
     lastReadWasNull = false;
     ByteBuffer byteBuffer = queryResult.get(queryResultIndex);
     queryResultIndex++;
-    curTsBlock = SERDE.deserialize(byteBuffer);
+    curTsBlock =
+        ArrowTsBlockSerde.isArrowFormat(byteBuffer)
+            ? ArrowTsBlockSerde.deserialize(byteBuffer)
+            : SERDE.deserialize(byteBuffer);
     tsBlockIndex = -1;
     tsBlockSize = curTsBlock.getPositionCount();
   }
 
+  /**
+   * Returns the next batch of the result set in columnar form, fetching from the server when the
+   * cached batches are consumed, or null if there is no more data. The batch is read in place when
+   * the session asked for {@link RpcUtils#ARROW_RESULT_FORMAT}, otherwise it is converted from the
+   * TsBlock. Must not be mixed with {@link #next()} on the same data set.
+   */
+  public ArrowColumnarBatch nextColumnarBatch()
+      throws StatementExecutionException, IoTDBConnectionException {
+    if (!hasCachedByteBuffer() && !(moreData && fetchResults() && hasCachedByteBuffer())) {
+      try {
+        close();
+        return null;
+      } catch (TException e) {
+        throw new IoTDBConnectionException(
+            "Cannot close dataset, because of network connection: {} ", e);
+      }
+    }
+    ByteBuffer byteBuffer = queryResult.get(queryResultIndex);
+    queryResultIndex++;
+    if (!ArrowTsBlockSerde.isArrowFormat(byteBuffer)) {
+      byteBuffer = ArrowTsBlockSerde.serialize(SERDE.deserialize(byteBuffer));
+    }
+    return new ArrowColumnarBatch(byteBuffer);
+  }
+
+  /**
+   * Returns the index in {@link ArrowColumnarBatch} of the column, 0 is the time column of tree
+   * model.
+   */
+  public int getColumnarBatchIndex(String columnName) {
+    return getTsBlockColumnIndexForColumnName(columnName) + 1;
+  }
+
   public boolean isNull(int columnIndex) throws StatementExecutionException {
     return isNull(getTsBlockColumnIndexForColumnIndex(columnIndex), tsBlockIndex);
   }
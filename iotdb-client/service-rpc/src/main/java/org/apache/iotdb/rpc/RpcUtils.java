@@ -74,6 +74,15 @@ public class RpcUtils {
 
   public static final String NANOSECOND = "ns";
 
+  /** Session configuration key that selects how query results are serialized by the server. */
+  public static final String RESULT_FORMAT = "result_format";
+
+  /** Results are serialized TsBlocks, decoded into rows by the client. */
+  public static final String TS_BLOCK_RESULT_FORMAT = "tsblock";
+
+  /** Results are columnar record batches, see {@link ArrowTsBlockSerde}. */
+  public static final String ARROW_RESULT_FORMAT = "arrow";
+
   private RpcUtils() {
     // util class
   }
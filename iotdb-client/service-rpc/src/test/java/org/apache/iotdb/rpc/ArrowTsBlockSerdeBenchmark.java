@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.Field;
+import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Large export benchmark of the client side result decoding. Compares the row based path of
+ * SessionDataSet (deserialize TsBlock, build one RowRecord per row) with reading the columnar
+ * record batches in place.
+ */
+public class ArrowTsBlockSerdeBenchmark {
+
+  private static int numOfColumn = 10;
+  private static int rowsPerBlock = 1000;
+  private static int numOfBlock = 10_000;
+
+  public static void main(String[] args) throws IOException {
+    List<TSDataType> dataTypes = Collections.nCopies(numOfColumn, TSDataType.DOUBLE);
+    TsBlockBuilder builder = new TsBlockBuilder(rowsPerBlock, dataTypes);
+    for (int row = 0; row < rowsPerBlock; row++) {
+      builder.getTimeColumnBuilder().writeLong(row);
+      for (int i = 0; i < numOfColumn; i++) {
+        builder.getColumnBuilder(i).writeDouble(row * (i + 1));
+      }
+      builder.declarePosition();
+    }
+    TsBlock tsBlock = builder.build();
+    TsBlockSerde serde = new TsBlockSerde();
+    ByteBuffer tsBlockBuffer = serde.serialize(tsBlock);
+    ByteBuffer arrowBuffer = ArrowTsBlockSerde.serialize(tsBlock);
+
+    long startTime = System.currentTimeMillis();
+    double rowSum = 0;
+    for (int b = 0; b < numOfBlock; b++) {
+      TsBlock block = serde.deserialize(tsBlockBuffer.duplicate());
+      Column[] columns = block.getValueColumns();
+      for (int row = 0; row < block.getPositionCount(); row++) {
+        List<Field> fields = new ArrayList<>(numOfColumn);
+        for (Column column : columns) {
+          Field field = new Field(TSDataType.DOUBLE);
+          field.setDoubleV(column.getDouble(row));
+          fields.add(field);
+        }
+        RowRecord record = new RowRecord(block.getTimeByIndex(row), fields);
+        rowSum += record.getFields().get(0).getDoubleV();
+      }
+    }
+    long rowCost = System.currentTimeMillis() - startTime;
+
+    startTime = System.currentTimeMillis();
+    double columnSum = 0;
+    for (int b = 0; b < numOfBlock; b++) {
+      ArrowColumnarBatch batch = new ArrowColumnarBatch(arrowBuffer);
+      ByteBuffer values = batch.getValuesBuffer(1);
+      for (int row = 0; row < batch.getRowCount(); row++) {
+        columnSum += values.getDouble(row * Double.BYTES);
+      }
+    }
+    long columnCost = System.currentTimeMillis() - startTime;
+
+    System.out.println(
+        String.format(
+            "Num of rows: %d, Num of columns: %d, "
+                + "TsBlock bytes per block: %d, Arrow bytes per block: %d, "
+                + "Row based decoding: %d ms, Columnar decoding: %d ms, checksum equal: %b",
+            (long) numOfBlock * rowsPerBlock,
+            numOfColumn,
+            tsBlockBuffer.remaining(),
+            arrowBuffer.remaining(),
+            rowCost,
+            columnCost,
+            rowSum == columnSum));
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+public class ArrowTsBlockSerdeTest {
+
+  private static final List<TSDataType> DATA_TYPES =
+      Arrays.asList(
+          TSDataType.BOOLEAN,
+          TSDataType.INT32,
+          TSDataType.INT64,
+          TSDataType.FLOAT,
+          TSDataType.DOUBLE,
+          TSDataType.TEXT,
+          TSDataType.DATE,
+          TSDataType.TIMESTAMP);
+
+  private static TsBlock buildTsBlock(int rowCount) {
+    TsBlockBuilder builder = new TsBlockBuilder(rowCount, DATA_TYPES);
+    for (int row = 0; row < rowCount; row++) {
+      builder.getTimeColumnBuilder().writeLong(row * 10L);
+      for (int i = 0; i < DATA_TYPES.size(); i++) {
+        // every column has nulls at different rows, the last column has none
+        if (i != DATA_TYPES.size() - 1 && row % (i + 2) == 0) {
+          builder.getColumnBuilder(i).appendNull();
+          continue;
+        }
+        switch (DATA_TYPES.get(i)) {
+          case BOOLEAN:
+            builder.getColumnBuilder(i).writeBoolean(row % 3 == 1);
+            break;
+          case INT32:
+          case DATE:
+            builder.getColumnBuilder(i).writeInt(row);
+            break;
+          case INT64:
+          case TIMESTAMP:
+            builder.getColumnBuilder(i).writeLong(-row);
+            break;
+          case FLOAT:
+            builder.getColumnBuilder(i).writeFloat(row + 0.5f);
+            break;
+          case DOUBLE:
+            builder.getColumnBuilder(i).writeDouble(row * 1.5d);
+            break;
+          case TEXT:
+            builder
+                .getColumnBuilder(i)
+                .writeBinary(new Binary("v" + row, TSFileConfig.STRING_CHARSET));
+            break;
+          default:
+            Assert.fail();
+        }
+      }
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void testColumnarBatch() {
+    TsBlock tsBlock = buildTsBlock(100);
+    ByteBuffer buffer = ArrowTsBlockSerde.serialize(tsBlock);
+    Assert.assertTrue(ArrowTsBlockSerde.isArrowFormat(buffer));
+
+    ArrowColumnarBatch batch = new ArrowColumnarBatch(buffer);
+    Assert.assertEquals(100, batch.getRowCount());
+    Assert.assertEquals(DATA_TYPES.size() + 1, batch.getColumnCount());
+    Assert.assertEquals(TSDataType.INT64, batch.getDataType(0));
+    Assert.assertEquals(0, batch.getNullCount(0));
+    Assert.assertEquals(0, batch.getNullCount(DATA_TYPES.size()));
+    Assert.assertEquals(0, batch.getValidityBuffer(DATA_TYPES.size()).remaining());
+    Assert.assertEquals(50, batch.getNullCount(1));
+
+    for (int row = 0; row < 100; row++) {
+      Assert.assertEquals(row * 10L, batch.getTime(row));
+      for (int i = 0; i < DATA_TYPES.size(); i++) {
+        Assert.assertEquals(tsBlock.getColumn(i).isNull(row), batch.isNull(i + 1, row));
+        if (tsBlock.getColumn(i).isNull(row)) {
+          continue;
+        }
+        switch (DATA_TYPES.get(i)) {
+          case BOOLEAN:
+            Assert.assertEquals(tsBlock.getColumn(i).getBoolean(row), batch.getBoolean(i + 1, row));
+            break;
+          case INT32:
+          case DATE:
+            Assert.assertEquals(tsBlock.getColumn(i).getInt(row), batch.getInt(i + 1, row));
+            break;
+          case INT64:
+          case TIMESTAMP:
+            Assert.assertEquals(tsBlock.getColumn(i).getLong(row), batch.getLong(i + 1, row));
+            break;
+          case FLOAT:
+            Assert.assertEquals(tsBlock.getColumn(i).getFloat(row), batch.getFloat(i + 1, row), 0);
+            break;
+          case DOUBLE:
+            Assert.assertEquals(
+                tsBlock.getColumn(i).getDouble(row), batch.getDouble(i + 1, row), 0);
+            break;
+          case TEXT:
+            Assert.assertEquals(tsBlock.getColumn(i).getBinary(row), batch.getBinary(i + 1, row));
+            break;
+          default:
+            Assert.fail();
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testArrowBufferLayout() {
+    ByteBuffer buffer = ArrowTsBlockSerde.serialize(buildTsBlock(10));
+    ArrowColumnarBatch batch = new ArrowColumnarBatch(buffer);
+
+    // time column is a plain little-endian int64 array
+    ByteBuffer times = batch.getValuesBuffer(0);
+    Assert.assertEquals(ByteOrder.LITTLE_ENDIAN, times.order());
+    Assert.assertEquals(10 * Long.BYTES, times.remaining());
+    Assert.assertEquals(90L, times.getLong(9 * Long.BYTES));
+
+    // BOOLEAN column has nulls at even rows, LSB first validity bitmap
+    ByteBuffer validity = batch.getValidityBuffer(1);
+    Assert.assertEquals(2, validity.remaining());
+    Assert.assertEquals((byte) 0b10101010, validity.get(0));
+    Assert.assertEquals((byte) 0b00000010, validity.get(1));
+
+    // TEXT column has rowCount + 1 offsets, the null slot at row 0 has zero length
+    ByteBuffer offsets = batch.getOffsetsBuffer(6);
+    Assert.assertEquals(11 * Integer.BYTES, offsets.remaining());
+    Assert.assertEquals(0, offsets.getInt(0));
+    Assert.assertEquals(0, offsets.getInt(Integer.BYTES));
+    Assert.assertEquals(offsets.getInt(10 * Integer.BYTES), batch.getValuesBuffer(6).remaining());
+  }
+
+  @Test
+  public void testDeserializeToTsBlock() throws IOException {
+    TsBlock tsBlock = buildTsBlock(33);
+    TsBlock result = ArrowTsBlockSerde.deserialize(ArrowTsBlockSerde.serialize(tsBlock));
+    Assert.assertEquals(tsBlock.getPositionCount(), result.getPositionCount());
+    Assert.assertEquals(tsBlock.getValueColumnCount(), result.getValueColumnCount());
+    for (int row = 0; row < tsBlock.getPositionCount(); row++) {
+      Assert.assertEquals(tsBlock.getTimeByIndex(row), result.getTimeByIndex(row));
+      for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
+        Assert.assertEquals(tsBlock.getColumn(i).isNull(row), result.getColumn(i).isNull(row));
+        if (!tsBlock.getColumn(i).isNull(row)) {
+          Assert.assertEquals(
+              tsBlock.getColumn(i).getObject(row), result.getColumn(i).getObject(row));
+        }
+      }
+    }
+
+    ByteBuffer tsBlockBuffer = new TsBlockSerde().serialize(tsBlock);
+    Assert.assertFalse(ArrowTsBlockSerde.isArrowFormat(tsBlockBuffer));
+  }
+
+  @Test
+  public void testEmptyTsBlock() {
+    ArrowColumnarBatch batch = new ArrowColumnarBatch(ArrowTsBlockSerde.serialize(buildTsBlock(0)));
+    Assert.assertEquals(0, batch.getRowCount());
+    Assert.assertEquals(DATA_TYPES.size() + 1, batch.getColumnCount());
+  }
+}
@@ -67,5 +67,8 @@ public abstract class AbstractSessionBuilder {
 
   public String sqlDialect = SessionConfig.SQL_DIALECT;
 
+  // "tsblock" or "arrow", the latter lets SessionDataSet.nextColumnarBatch() read columns in place
+  public String resultFormat = SessionConfig.DEFAULT_RESULT_FORMAT;
+
   public String database;
 }
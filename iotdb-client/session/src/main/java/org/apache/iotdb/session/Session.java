@@ -194,6 +194,8 @@ public class Session implements ISession {
 
   protected String sqlDialect = SessionConfig.SQL_DIALECT;
 
+  protected String resultFormat = SessionConfig.DEFAULT_RESULT_FORMAT;
+
   // may be null
   protected volatile String database;
 
@@ -460,6 +462,7 @@ public class Session implements ISession {
     this.maxRetryCount = builder.maxRetryCount;
     this.retryIntervalInMs = builder.retryIntervalInMs;
     this.sqlDialect = builder.sqlDialect;
+    this.resultFormat = builder.resultFormat;
     this.queryTimeoutInMs = builder.timeOut;
     this.database = builder.database;
   }
@@ -4236,6 +4239,11 @@ public class Session implements ISession {
       return this;
     }
 
+    public Builder resultFormat(String resultFormat) {
+      this.resultFormat = resultFormat;
+      return this;
+    }
+
     public Builder database(String database) {
       this.database = database;
       return this;
@@ -210,6 +210,7 @@ public class SessionConnection {
     openReq.setZoneId(zoneId.toString());
     openReq.putToConfiguration("version", session.version.toString());
     openReq.putToConfiguration("sql_dialect", sqlDialect);
+    openReq.putToConfiguration(RpcUtils.RESULT_FORMAT, session.resultFormat);
     if (database != null) {
       openReq.putToConfiguration("db", database);
     }
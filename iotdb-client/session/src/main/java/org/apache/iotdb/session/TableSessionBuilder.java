@@ -232,6 +232,19 @@ public class TableSessionBuilder extends AbstractSessionBuilder {
     return this;
   }
 
+  /**
+   * Sets the format in which the server returns query results.
+   *
+   * @param resultFormat "tsblock", or "arrow" to receive columnar batches that can be consumed
+   *     without per row conversion through {@code SessionDataSet.nextColumnarBatch()}.
+   * @return the current {@link TableSessionBuilder} instance.
+   * @defaultValue "tsblock"
+   */
+  public TableSessionBuilder resultFormat(String resultFormat) {
+    this.resultFormat = resultFormat;
+    return this;
+  }
+
   /**
    * Enables or disables rpc compression for the connection.
    *
@@ -26,6 +26,7 @@ import org.apache.iotdb.commons.cluster.NodeType;
 import org.apache.iotdb.commons.cluster.RegionStatus;
 import org.apache.iotdb.confignode.conf.ConfigNodeConfig;
 import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
+import org.apache.iotdb.confignode.manager.cq.CQWriteTimeCollector;
 import org.apache.iotdb.confignode.manager.load.LoadManager;
 import org.apache.iotdb.confignode.manager.load.cache.consensus.ConsensusGroupHeartbeatSample;
 import org.apache.iotdb.confignode.manager.load.cache.node.NodeHeartbeatSample;
@@ -60,6 +61,8 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
 
   private final PipeRuntimeCoordinator pipeRuntimeCoordinator;
 
+  private final CQWriteTimeCollector cqWriteTimeCollector;
+
   public DataNodeHeartbeatHandler(
       int nodeId,
       LoadManager loadManager,
@@ -68,7 +71,8 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
       Map<Integer, Long> regionDisk,
       Consumer<Map<Integer, Long>> seriesUsageRespProcess,
       Consumer<Map<Integer, Long>> deviceUsageRespProcess,
-      PipeRuntimeCoordinator pipeRuntimeCoordinator) {
+      PipeRuntimeCoordinator pipeRuntimeCoordinator,
+      CQWriteTimeCollector cqWriteTimeCollector) {
 
     this.nodeId = nodeId;
     this.loadManager = loadManager;
@@ -78,6 +82,7 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
     this.seriesUsageRespProcess = seriesUsageRespProcess;
     this.deviceUsageRespProcess = deviceUsageRespProcess;
     this.pipeRuntimeCoordinator = pipeRuntimeCoordinator;
+    this.cqWriteTimeCollector = cqWriteTimeCollector;
   }
 
   @Override
@@ -149,6 +154,10 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
           heartbeatResp.getPipeRemainingEventCountList(),
           heartbeatResp.getPipeRemainingTimeList());
     }
+    if (heartbeatResp.isSetCqWriteTimeReportId()) {
+      cqWriteTimeCollector.receiveReport(
+          nodeId, heartbeatResp.getCqWriteTimeReportId(), heartbeatResp.getCqMinWriteTimes());
+    }
     if (heartbeatResp.isSetConfirmedConfigNodeEndPoints()) {
       loadManager
           .getLoadCache()
@@ -254,6 +254,12 @@ public class ConfigNodeConfig {
 
   private long cqMinEveryIntervalInMs = 1_000;
 
+  /**
+   * Only recompute the GROUP BY TIME windows of a CQ that are new or have been touched by writes
+   * since its last execution.
+   */
+  private boolean enableIncrementalCQ = false;
+
   /** RatisConsensus protocol, request timeout for ratis client. */
   private long dataRegionRatisRequestTimeoutMs = 10000L;
 
@@ -965,6 +971,14 @@ public class ConfigNodeConfig {
     this.cqMinEveryIntervalInMs = cqMinEveryIntervalInMs;
   }
 
+  public boolean isEnableIncrementalCQ() {
+    return enableIncrementalCQ;
+  }
+
+  public void setEnableIncrementalCQ(boolean enableIncrementalCQ) {
+    this.enableIncrementalCQ = enableIncrementalCQ;
+  }
+
   public long getDataRegionRatisRequestTimeoutMs() {
     return dataRegionRatisRequestTimeoutMs;
   }
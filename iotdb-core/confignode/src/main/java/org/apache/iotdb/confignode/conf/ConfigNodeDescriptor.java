@@ -699,6 +699,12 @@ public class ConfigNodeDescriptor {
     }
 
     conf.setCqMinEveryIntervalInMs(cqMinEveryIntervalInMs);
+
+    conf.setEnableIncrementalCQ(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "continuous_query_enable_incremental_execution",
+                String.valueOf(conf.isEnableIncrementalCQ()))));
   }
 
   /**
@@ -58,9 +58,15 @@ public class CQManager {
 
   private ScheduledExecutorService executor;
 
+  private final CQWriteTimeCollector writeTimeCollector;
+
   public CQManager(ConfigManager configManager) {
     this.configManager = configManager;
     this.lock = new ReentrantReadWriteLock();
+    // a DataNode starts tracking the writes at the next heartbeat it receives
+    this.writeTimeCollector =
+        new CQWriteTimeCollector(
+            2 * ConfigNodeDescriptor.getInstance().getConf().getHeartbeatIntervalInMs());
     this.executor =
         IoTDBThreadPoolFactory.newScheduledThreadPool(
             CONF.getCqSubmitThread(), ThreadName.CQ_SCHEDULER.getName());
@@ -112,9 +118,16 @@ public class CQManager {
     return res;
   }
 
+  public CQWriteTimeCollector getWriteTimeCollector() {
+    return writeTimeCollector;
+  }
+
   public void startCQScheduler() {
     lock.writeLock().lock();
     try {
+      // the recovered CQs are fully executed for the first time
+      writeTimeCollector.clear();
+
       // 1. shutdown previous cq schedule thread pool
       try {
         if (executor != null) {
@@ -174,6 +187,7 @@ public class CQManager {
     try {
       previous = executor;
       executor = null;
+      writeTimeCollector.clear();
     } finally {
       lock.writeLock().unlock();
     }
@@ -25,6 +25,7 @@ import org.apache.iotdb.commons.client.async.AsyncDataNodeInternalServiceClient;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.cq.TimeoutPolicy;
 import org.apache.iotdb.confignode.client.async.CnToDnInternalServiceAsyncRequestManager;
+import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.apache.iotdb.confignode.consensus.request.write.cq.UpdateCQLastExecTimePlan;
 import org.apache.iotdb.confignode.manager.ConfigManager;
 import org.apache.iotdb.confignode.persistence.cq.CQInfo;
@@ -37,6 +38,7 @@ import org.apache.thrift.async.AsyncMethodCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -47,6 +49,9 @@ public class CQScheduleTask implements Runnable {
 
   private static final long DEFAULT_RETRY_WAIT_TIME_IN_MS = 20L * 1_000;
 
+  private static final boolean ENABLE_INCREMENTAL_CQ =
+      ConfigNodeDescriptor.getInstance().getConf().isEnableIncrementalCQ();
+
   // ms is 1
   // us is 1_000
   // ns is 1_000_000
@@ -83,6 +88,9 @@ public class CQScheduleTask implements Runnable {
 
   private long executionTime;
 
+  // end time of the last successful execution scheduled by this task, null before the first one
+  private volatile Long lastEndTime;
+
   public CQScheduleTask(
       TCreateCQReq req,
       long firstExecutionTime,
@@ -186,13 +194,16 @@ public class CQScheduleTask implements Runnable {
           System.currentTimeMillis() * FACTOR);
       TExecuteCQ executeCQReq =
           new TExecuteCQ(queryBody, startTime, endTime, everyInterval, zoneId, cqId, username);
+      Map<String, Long> minWriteTimes = prepareIncrementalExecution(executeCQReq);
       try {
         AsyncDataNodeInternalServiceClient client =
             CnToDnInternalServiceAsyncRequestManager.getInstance()
                 .getAsyncClient(targetDataNode.get());
-        client.executeCQ(executeCQReq, new AsyncExecuteCQCallback(startTime, endTime));
+        client.executeCQ(
+            executeCQReq, new AsyncExecuteCQCallback(startTime, endTime, minWriteTimes));
       } catch (Exception t) {
         LOGGER.warn("Execute CQ {} failed", cqId, t);
+        restoreMinWriteTimes(minWriteTimes);
         if (needSubmit()) {
           submitSelf(retryWaitTimeInMS, TimeUnit.MILLISECONDS);
         }
@@ -200,6 +211,39 @@ public class CQScheduleTask implements Runnable {
     }
   }
 
+  /**
+   * Only the windows after the last execution and the ones touched by the writes collected since
+   * then are recomputed. The first execution is a full one and starts the collecting.
+   *
+   * @return the collected writes sent with the request, null for a full execution
+   */
+  private Map<String, Long> prepareIncrementalExecution(TExecuteCQ executeCQReq) {
+    if (!ENABLE_INCREMENTAL_CQ) {
+      return null;
+    }
+    CQWriteTimeCollector collector = configManager.getCQManager().getWriteTimeCollector();
+    Map<String, Long> minWriteTimes = lastEndTime == null ? null : collector.drain(cqId);
+    if (minWriteTimes == null) {
+      collector.register(cqId);
+    } else {
+      executeCQReq.setLastEndTime(lastEndTime);
+      executeCQReq.setMinWriteTimes(minWriteTimes);
+    }
+    return minWriteTimes;
+  }
+
+  private void restoreMinWriteTimes(Map<String, Long> minWriteTimes) {
+    if (minWriteTimes != null) {
+      configManager.getCQManager().getWriteTimeCollector().restore(cqId, minWriteTimes);
+    }
+  }
+
+  private void stopCollectingWriteTimes() {
+    if (ENABLE_INCREMENTAL_CQ) {
+      configManager.getCQManager().getWriteTimeCollector().deregister(cqId);
+    }
+  }
+
   public void submitSelf() {
     submitSelf(
         Math.max(0, executionTime / FACTOR - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
@@ -218,10 +262,12 @@ public class CQScheduleTask implements Runnable {
 
     private final long startTime;
     private final long endTime;
+    private final Map<String, Long> minWriteTimes;
 
-    public AsyncExecuteCQCallback(long startTime, long endTime) {
+    public AsyncExecuteCQCallback(long startTime, long endTime, Map<String, Long> minWriteTimes) {
       this.startTime = startTime;
       this.endTime = endTime;
+      this.minWriteTimes = minWriteTimes;
     }
 
     private void updateExecutionTime() {
@@ -246,6 +292,7 @@ public class CQScheduleTask implements Runnable {
             startTime,
             endTime,
             System.currentTimeMillis() * FACTOR);
+        lastEndTime = endTime;
         TSStatus result;
         try {
           result =
@@ -268,6 +315,7 @@ public class CQScheduleTask implements Runnable {
           // no such cq, we don't need to submit it again
           if (result.getCode() == TSStatusCode.NO_SUCH_CQ.getStatusCode()) {
             LOGGER.info("Stop submitting CQ {} because {}", cqId, result.getMessage());
+            stopCollectingWriteTimes();
             return;
           }
         }
@@ -279,10 +327,12 @@ public class CQScheduleTask implements Runnable {
           LOGGER.info(
               "Stop submitting CQ {} because current node is not leader or current scheduled thread pool is shut down.",
               cqId);
+          stopCollectingWriteTimes();
         }
 
       } else {
         LOGGER.warn("Execute CQ {} failed, TSStatus is {}", cqId, response);
+        restoreMinWriteTimes(minWriteTimes);
         if (needSubmit()) {
           submitSelf(retryWaitTimeInMS, TimeUnit.MILLISECONDS);
         }
@@ -292,6 +342,7 @@ public class CQScheduleTask implements Runnable {
     @Override
     public void onError(Exception exception) {
       LOGGER.warn("Execute CQ {} failed", cqId, exception);
+      restoreMinWriteTimes(minWriteTimes);
       if (needSubmit()) {
         submitSelf(retryWaitTimeInMS, TimeUnit.MILLISECONDS);
       }
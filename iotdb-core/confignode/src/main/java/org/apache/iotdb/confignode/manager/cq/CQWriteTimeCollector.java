@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.cq;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the minimum data time written into each database reported by the DataNode heartbeats,
+ * and accumulates it for every incremental CQ until the CQ is executed next time.
+ *
+ * <p>The DataNodes only track the writes while some CQ is registered here, so a newly registered CQ
+ * is executed fully until every DataNode has received a heartbeat telling it to track.
+ */
+public class CQWriteTimeCollector {
+
+  // time for the DataNodes to start tracking the writes after the first CQ is registered
+  private final long trackingDelayInMs;
+
+  // DataNodeId -> id of the last report received from it
+  private final Map<Integer, Long> lastReportIds = new ConcurrentHashMap<>();
+
+  // cqId -> database -> minimum data time written since the last execution of the CQ was
+  // dispatched, guarded by this
+  private final Map<String, Map<String, Long>> minWriteTimesOfCQ = new HashMap<>();
+
+  // cqId -> time when the collecting of the CQ started, guarded by this
+  private final Map<String, Long> registerTimesOfCQ = new HashMap<>();
+
+  // whether any CQ is registered, read by the heartbeat service without locking
+  private volatile boolean isCollecting = false;
+
+  public CQWriteTimeCollector(long trackingDelayInMs) {
+    this.trackingDelayInMs = trackingDelayInMs;
+  }
+
+  /** Whether the DataNodes have to track the writes for the registered CQs. */
+  public boolean isCollecting() {
+    return isCollecting;
+  }
+
+  /** Returns the ack to put into the next heartbeat request sent to the DataNode. */
+  public long getReportAck(int dataNodeId) {
+    return lastReportIds.getOrDefault(dataNodeId, 0L);
+  }
+
+  public synchronized void receiveReport(
+      int dataNodeId, long reportId, Map<String, Long> minWriteTimes) {
+    lastReportIds.put(dataNodeId, reportId);
+    for (Map<String, Long> cqMinWriteTimes : minWriteTimesOfCQ.values()) {
+      minWriteTimes.forEach((database, time) -> cqMinWriteTimes.merge(database, time, Math::min));
+    }
+  }
+
+  /** Starts collecting the writes for the CQ, the writes collected before are discarded. */
+  public synchronized void register(String cqId) {
+    minWriteTimesOfCQ.put(cqId, new HashMap<>());
+    // the DataNodes started tracking for this CQ at its first registration
+    registerTimesOfCQ.putIfAbsent(cqId, System.currentTimeMillis());
+    isCollecting = true;
+  }
+
+  public synchronized void deregister(String cqId) {
+    minWriteTimesOfCQ.remove(cqId);
+    registerTimesOfCQ.remove(cqId);
+    isCollecting = !minWriteTimesOfCQ.isEmpty();
+  }
+
+  /**
+   * Returns the writes collected for the CQ since the last call and starts collecting again, or
+   * null if the CQ is not registered or some DataNode may not have started tracking the writes.
+   */
+  public synchronized Map<String, Long> drain(String cqId) {
+    Map<String, Long> minWriteTimes = minWriteTimesOfCQ.get(cqId);
+    if (minWriteTimes == null
+        || System.currentTimeMillis() - registerTimesOfCQ.get(cqId) < trackingDelayInMs) {
+      return null;
+    }
+    minWriteTimesOfCQ.put(cqId, new HashMap<>());
+    return minWriteTimes;
+  }
+
+  /** Gives back the writes drained for an execution that failed. */
+  public synchronized void restore(String cqId, Map<String, Long> minWriteTimes) {
+    Map<String, Long> cqMinWriteTimes = minWriteTimesOfCQ.get(cqId);
+    if (cqMinWriteTimes != null) {
+      minWriteTimes.forEach((database, time) -> cqMinWriteTimes.merge(database, time, Math::min));
+    }
+  }
+
+  public synchronized void clear() {
+    minWriteTimesOfCQ.clear();
+    registerTimesOfCQ.clear();
+    isCollecting = false;
+  }
+}
@@ -37,6 +37,7 @@ import org.apache.iotdb.confignode.client.async.handlers.heartbeat.DataNodeHeart
 import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
 import org.apache.iotdb.confignode.manager.IManager;
 import org.apache.iotdb.confignode.manager.consensus.ConsensusManager;
+import org.apache.iotdb.confignode.manager.cq.CQWriteTimeCollector;
 import org.apache.iotdb.confignode.manager.load.cache.LoadCache;
 import org.apache.iotdb.confignode.manager.load.cache.node.ConfigNodeHeartbeatCache;
 import org.apache.iotdb.confignode.manager.node.NodeManager;
@@ -67,6 +68,9 @@ public class HeartbeatService {
   private static final long HEARTBEAT_INTERVAL =
       ConfigNodeDescriptor.getInstance().getConf().getHeartbeatIntervalInMs();
 
+  private static final boolean ENABLE_INCREMENTAL_CQ =
+      ConfigNodeDescriptor.getInstance().getConf().isEnableIncrementalCQ();
+
   protected IManager configManager;
   private final LoadCache loadCache;
 
@@ -253,9 +257,18 @@ public class HeartbeatService {
               configManager.getClusterQuotaManager().getRegionDisk(),
               configManager.getClusterSchemaManager()::updateTimeSeriesUsage,
               configManager.getClusterSchemaManager()::updateDeviceUsage,
-              configManager.getPipeManager().getPipeRuntimeCoordinator());
+              configManager.getPipeManager().getPipeRuntimeCoordinator(),
+              configManager.getCQManager().getWriteTimeCollector());
       configManager.getClusterQuotaManager().updateSpaceQuotaUsage();
       addConfigNodeLocationsToReq(dataNodeId, heartbeatReq);
+      // the DataNodes only track the writes while some incremental CQ is registered
+      CQWriteTimeCollector writeTimeCollector =
+          configManager.getCQManager().getWriteTimeCollector();
+      if (ENABLE_INCREMENTAL_CQ && writeTimeCollector.isCollecting()) {
+        heartbeatReq.setCqWriteTimeReportAck(writeTimeCollector.getReportAck(dataNodeId));
+      } else {
+        heartbeatReq.unsetCqWriteTimeReportAck();
+      }
       AsyncDataNodeHeartbeatClientPool.getInstance()
           .getDataNodeHeartBeat(
               dataNodeInfo.getLocation().getInternalEndPoint(), heartbeatReq, handler);
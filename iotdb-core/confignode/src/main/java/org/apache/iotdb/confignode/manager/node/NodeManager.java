@@ -241,6 +241,7 @@ public class NodeManager {
     final ConfigNodeConfig conf = ConfigNodeDescriptor.getInstance().getConf();
     TCQConfig cqConfig = new TCQConfig();
     cqConfig.setCqMinEveryIntervalInMs(conf.getCqMinEveryIntervalInMs());
+    cqConfig.setEnableIncrementalCQ(conf.isEnableIncrementalCQ());
 
     dataSet.setCqConfig(cqConfig);
   }
@@ -118,6 +118,15 @@ public class IoTDBConfig {
   /** Max mqtt message size. Unit: byte */
   private int mqttMaxMessageSize = 1048576;
 
+  /**
+   * Max number of rows parsed from mqtt messages of one client that are committed together. Mqtt
+   * messages are inserted one by one if it is not greater than 1.
+   */
+  private int mqttInsertBatchSize = 1;
+
+  /** Max time in ms that a row parsed from a mqtt message waits in the insert batch. */
+  private long mqttInsertBatchDelayInMs = 10;
+
   /** Rpc binding address. */
   private String rpcAddress = "0.0.0.0";
 
@@ -566,6 +575,12 @@ public class IoTDBConfig {
    */
   private int subCompactionTaskNum = 4;
 
+  /**
+   * The max number of aligned devices compacted at the same time in one inner space compaction
+   * task. 1 means the devices are compacted one by one.
+   */
+  private int compactionDeviceParallelism = 1;
+
   /** The number of threads to be set up to select compaction task. */
   private int compactionScheduleThreadNum = 4;
 
@@ -580,6 +595,12 @@ public class IoTDBConfig {
    */
   private volatile long innerCompactionTaskSelectionModsFileThreshold = 128 * 1024L;
 
+  /**
+   * Whether to settle a sequence file with mods by copying the chunks without deletion and only
+   * rewriting the modified chunks, instead of rewriting the whole file.
+   */
+  private boolean enableLightweightSettleCompaction = false;
+
   /**
    * When disk availability is lower than the sum of (disk_space_warning_threshold +
    * inner_compaction_task_selection_disk_redundancy), inner compaction tasks containing mods files
@@ -593,6 +614,24 @@ public class IoTDBConfig {
   /** whether to cache meta data(ChunkMetaData and TsFileMetaData) or not. */
   private boolean metaDataCacheEnable = true;
 
+  /**
+   * Whether to write a sketch sidecar for each TsFile and use it for approximate aggregations
+   * instead of reading raw data.
+   */
+  private boolean enableTsFileSketch = false;
+
+  /**
+   * Whether to fill the last cache in background from the metadata of the latest sequence TsFiles
+   * after the data regions are recovered.
+   */
+  private boolean enableLastCacheWarmUp = false;
+
+  /**
+   * Memory allocated for the node-wide cache of parsed modification files, which is shared by
+   * queries and compactions. 0 means the modifications are parsed every time they are used.
+   */
+  private long modificationCacheSizeInBytes = 32 * 1024 * 1024L;
+
   /** Memory allocated for bloomFilter cache in read process */
   private long allocateMemoryForBloomFilterCache = allocateMemoryForRead / 1001;
 
@@ -728,6 +767,12 @@ public class IoTDBConfig {
   /** The limit of compaction merge can reach per second. When <= 0, no limit. unit: megabyte */
   private int compactionWriteThroughputMbPerSec = 16;
 
+  /**
+   * Whether compaction reads source files and writes target files with direct I/O, so that the page
+   * cache used by queries is not evicted. Buffered I/O is used if direct I/O is not supported.
+   */
+  private boolean enableCompactionDirectIO = false;
+
   /**
    * The limit of compaction read throughput can reach per second. When <= 0, no limit. unit:
    * megabyte
@@ -737,6 +782,27 @@ public class IoTDBConfig {
   /** The limit of compaction read operation can reach per second. When <= 0, no limit. */
   private int compactionReadOperationPerSec = 0;
 
+  /**
+   * Whether to adjust the compaction rate limits and the number of running compaction workers by
+   * the query latency, the disk utilization and the backlog of flush and unsequence files.
+   */
+  private boolean enableAdaptiveCompactionThrottle = false;
+
+  /** The interval of adjusting the compaction throttle in milliseconds. */
+  private long adaptiveCompactionThrottleIntervalInMs = 10_000L;
+
+  /** Compaction is slowed down when the p99 query latency exceeds this, in milliseconds. */
+  private long adaptiveCompactionQueryLatencyThresholdInMs = 1_000L;
+
+  /** Compaction is slowed down when the utilization of any disk exceeds this ratio. */
+  private double adaptiveCompactionDiskUtilThreshold = 0.8;
+
+  /** The lower bound of the compaction rate limits, as a ratio of the configured limits. */
+  private double adaptiveCompactionMinThrottleRatio = 0.1;
+
+  /** The upper bound of the compaction rate limits, as a ratio of the configured limits. */
+  private double adaptiveCompactionMaxThrottleRatio = 2.0;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -863,6 +929,12 @@ public class IoTDBConfig {
 
   private float udfCollectorMemoryBudgetInMB = (float) (1.0 / 3 * udfMemoryBudgetInMB);
 
+  /**
+   * The number of threads evaluating the independent output columns of UDF queries in parallel. 0
+   * means the output columns are evaluated by the driver thread one by one.
+   */
+  private int udfParallelEvaluationThreadCount = 0;
+
   /** Unit: byte */
   private int thriftMaxFrameSize = 536870912;
 
@@ -1001,6 +1073,12 @@ public class IoTDBConfig {
    */
   private int partitionCacheSize = 1000;
 
+  /**
+   * How long before the next time partition begins, in milliseconds, the DataNode asks the
+   * ConfigNode to create the data partitions of that time partition. 0 means disabled.
+   */
+  private long dataPartitionPreAllocateAheadTimeInMs = 0;
+
   /** Cache size of user and role */
   private int authorCacheSize = 100;
 
@@ -1028,6 +1106,24 @@ public class IoTDBConfig {
   /** How many times will we retry to find an instance of stateful trigger */
   private int retryNumToFindStatefulTrigger = 3;
 
+  /** Whether AFTER_INSERT triggers are fired by a background executor off the insert path */
+  private boolean enableAsyncAfterInsertTrigger = false;
+
+  /** Max number of rows waiting to be fired for one asynchronously fired trigger */
+  private int asyncTriggerMaxPendingRowsPerTrigger = 100_000;
+
+  /** Max number of tablets delivered to a trigger in one batch */
+  private int asyncTriggerFireBatchSize = 64;
+
+  /** ThreadPool size for firing triggers asynchronously */
+  private int asyncTriggerFireThreadCount = 4;
+
+  /**
+   * What to do when the pending rows of an asynchronously fired trigger reach the limit, BLOCK
+   * makes the insertion wait, DISCARD drops the rows and reports a trigger error
+   */
+  private String asyncTriggerFullQueuePolicy = "BLOCK";
+
   /** ThreadPool size for read operation in coordinator */
   private int coordinatorReadExecutorSize = 20;
 
@@ -1100,6 +1196,9 @@ public class IoTDBConfig {
   /** CQ related */
   private long cqMinEveryIntervalInMs = 1_000;
 
+  /** Whether to track the writes for incremental CQs, sent by the ConfigNode */
+  private boolean enableIncrementalCQ = false;
+
   private long dataRatisConsensusRequestTimeoutMs = 10000L;
   private long schemaRatisConsensusRequestTimeoutMs = 10000L;
 
@@ -1171,6 +1270,9 @@ public class IoTDBConfig {
 
   private long loadChunkMetadataMemorySizeInBytes = 33554432; // 32MB
 
+  /** Whether the tsfiles written when loading are written with direct I/O. */
+  private boolean enableLoadTsFileDirectIO = false;
+
   private long loadMemoryAllocateRetryIntervalMs = 1000L;
   private int loadMemoryAllocateMaxRetries = 5;
 
@@ -1178,6 +1280,21 @@ public class IoTDBConfig {
 
   private int loadTsFileRetryCountOnRegionChange = 10;
 
+  /**
+   * The number of threads splitting and dispatching one tsfile in the first phase of loading, each
+   * of which handles a range of devices. 1 means the tsfile is split sequentially.
+   */
+  private int loadTsFileSplitParallelism = 1;
+
+  /** The maximum number of threads splitting tsfiles by device ranges across all loads. */
+  private int loadTsFileSplitMaxThreadNum = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Whether a tsfile belonging to one time partition of a region with a replica on this DataNode is
+   * adopted by the local replica as it is instead of being split and rewritten.
+   */
+  private boolean enableLoadTsFileDirectAdoption = false;
+
   private double loadWriteThroughputBytesPerSecond = -1; // Bytes/s
 
   private boolean loadActiveListeningEnable = true;
@@ -1209,6 +1326,15 @@ public class IoTDBConfig {
 
   private int loadActiveListeningMaxThreadNum = Runtime.getRuntime().availableProcessors();
 
+  /** Whether to discover new files in the active listening dirs by file system notifications. */
+  private boolean loadActiveListeningWatchEnable = true;
+
+  /** The max number of small TsFiles in the same dir loaded by one statement actively. */
+  private int loadActiveListeningBatchMaxFileNum = 16;
+
+  /** A TsFile not larger than this size in bytes can be loaded with others in a batch. */
+  private long loadActiveListeningBatchFileSizeThresholdInByte = 8 * 1024 * 1024L;
+
   /** Pipe related */
   /** initialized as empty, updated based on the latest `systemDir` during querying */
   private String[] pipeReceiverFileDirs = new String[0];
@@ -1308,6 +1434,14 @@ public class IoTDBConfig {
     this.udfCollectorMemoryBudgetInMB = udfCollectorMemoryBudgetInMB;
   }
 
+  public int getUdfParallelEvaluationThreadCount() {
+    return udfParallelEvaluationThreadCount;
+  }
+
+  public void setUdfParallelEvaluationThreadCount(int udfParallelEvaluationThreadCount) {
+    this.udfParallelEvaluationThreadCount = udfParallelEvaluationThreadCount;
+  }
+
   public boolean isEnableSSL() {
     return enableSSL;
   }
@@ -2176,6 +2310,56 @@ public class IoTDBConfig {
     return compactionThreadCount;
   }
 
+  public boolean isEnableAdaptiveCompactionThrottle() {
+    return enableAdaptiveCompactionThrottle;
+  }
+
+  public void setEnableAdaptiveCompactionThrottle(boolean enableAdaptiveCompactionThrottle) {
+    this.enableAdaptiveCompactionThrottle = enableAdaptiveCompactionThrottle;
+  }
+
+  public long getAdaptiveCompactionThrottleIntervalInMs() {
+    return adaptiveCompactionThrottleIntervalInMs;
+  }
+
+  public void setAdaptiveCompactionThrottleIntervalInMs(
+      long adaptiveCompactionThrottleIntervalInMs) {
+    this.adaptiveCompactionThrottleIntervalInMs = adaptiveCompactionThrottleIntervalInMs;
+  }
+
+  public long getAdaptiveCompactionQueryLatencyThresholdInMs() {
+    return adaptiveCompactionQueryLatencyThresholdInMs;
+  }
+
+  public void setAdaptiveCompactionQueryLatencyThresholdInMs(
+      long adaptiveCompactionQueryLatencyThresholdInMs) {
+    this.adaptiveCompactionQueryLatencyThresholdInMs = adaptiveCompactionQueryLatencyThresholdInMs;
+  }
+
+  public double getAdaptiveCompactionDiskUtilThreshold() {
+    return adaptiveCompactionDiskUtilThreshold;
+  }
+
+  public void setAdaptiveCompactionDiskUtilThreshold(double adaptiveCompactionDiskUtilThreshold) {
+    this.adaptiveCompactionDiskUtilThreshold = adaptiveCompactionDiskUtilThreshold;
+  }
+
+  public double getAdaptiveCompactionMinThrottleRatio() {
+    return adaptiveCompactionMinThrottleRatio;
+  }
+
+  public void setAdaptiveCompactionMinThrottleRatio(double adaptiveCompactionMinThrottleRatio) {
+    this.adaptiveCompactionMinThrottleRatio = adaptiveCompactionMinThrottleRatio;
+  }
+
+  public double getAdaptiveCompactionMaxThrottleRatio() {
+    return adaptiveCompactionMaxThrottleRatio;
+  }
+
+  public void setAdaptiveCompactionMaxThrottleRatio(double adaptiveCompactionMaxThrottleRatio) {
+    this.adaptiveCompactionMaxThrottleRatio = adaptiveCompactionMaxThrottleRatio;
+  }
+
   public void setCompactionThreadCount(int compactionThreadCount) {
     this.compactionThreadCount = compactionThreadCount;
   }
@@ -2229,6 +2413,14 @@ public class IoTDBConfig {
     this.intoOperationExecutionThreadCount = intoOperationExecutionThreadCount;
   }
 
+  public boolean isEnableCompactionDirectIO() {
+    return enableCompactionDirectIO;
+  }
+
+  public void setEnableCompactionDirectIO(boolean enableCompactionDirectIO) {
+    this.enableCompactionDirectIO = enableCompactionDirectIO;
+  }
+
   public int getCompactionWriteThroughputMbPerSec() {
     return compactionWriteThroughputMbPerSec;
   }
@@ -2333,6 +2525,30 @@ public class IoTDBConfig {
     this.metaDataCacheEnable = metaDataCacheEnable;
   }
 
+  public boolean isEnableTsFileSketch() {
+    return enableTsFileSketch;
+  }
+
+  public void setEnableTsFileSketch(boolean enableTsFileSketch) {
+    this.enableTsFileSketch = enableTsFileSketch;
+  }
+
+  public boolean isEnableLastCacheWarmUp() {
+    return enableLastCacheWarmUp;
+  }
+
+  public void setEnableLastCacheWarmUp(boolean enableLastCacheWarmUp) {
+    this.enableLastCacheWarmUp = enableLastCacheWarmUp;
+  }
+
+  public long getModificationCacheSizeInBytes() {
+    return modificationCacheSizeInBytes;
+  }
+
+  public void setModificationCacheSizeInBytes(long modificationCacheSizeInBytes) {
+    this.modificationCacheSizeInBytes = modificationCacheSizeInBytes;
+  }
+
   public long getAllocateMemoryForBloomFilterCache() {
     return allocateMemoryForBloomFilterCache;
   }
@@ -2733,6 +2949,22 @@ public class IoTDBConfig {
     this.mqttMaxMessageSize = mqttMaxMessageSize;
   }
 
+  public int getMqttInsertBatchSize() {
+    return mqttInsertBatchSize;
+  }
+
+  public void setMqttInsertBatchSize(int mqttInsertBatchSize) {
+    this.mqttInsertBatchSize = mqttInsertBatchSize;
+  }
+
+  public long getMqttInsertBatchDelayInMs() {
+    return mqttInsertBatchDelayInMs;
+  }
+
+  public void setMqttInsertBatchDelayInMs(long mqttInsertBatchDelayInMs) {
+    this.mqttInsertBatchDelayInMs = mqttInsertBatchDelayInMs;
+  }
+
   public int getTagAttributeFlushInterval() {
     return tagAttributeFlushInterval;
   }
@@ -3133,6 +3365,14 @@ public class IoTDBConfig {
     this.subCompactionTaskNum = subCompactionTaskNum;
   }
 
+  public int getCompactionDeviceParallelism() {
+    return compactionDeviceParallelism;
+  }
+
+  public void setCompactionDeviceParallelism(int compactionDeviceParallelism) {
+    this.compactionDeviceParallelism = compactionDeviceParallelism;
+  }
+
   public int getCompactionScheduleThreadNum() {
     return compactionScheduleThreadNum;
   }
@@ -3366,6 +3606,14 @@ public class IoTDBConfig {
     this.partitionCacheSize = partitionCacheSize;
   }
 
+  public long getDataPartitionPreAllocateAheadTimeInMs() {
+    return dataPartitionPreAllocateAheadTimeInMs;
+  }
+
+  public void setDataPartitionPreAllocateAheadTimeInMs(long dataPartitionPreAllocateAheadTimeInMs) {
+    this.dataPartitionPreAllocateAheadTimeInMs = dataPartitionPreAllocateAheadTimeInMs;
+  }
+
   public int getAuthorCacheSize() {
     return authorCacheSize;
   }
@@ -3438,6 +3686,46 @@ public class IoTDBConfig {
     this.retryNumToFindStatefulTrigger = retryNumToFindStatefulTrigger;
   }
 
+  public boolean isEnableAsyncAfterInsertTrigger() {
+    return enableAsyncAfterInsertTrigger;
+  }
+
+  public void setEnableAsyncAfterInsertTrigger(boolean enableAsyncAfterInsertTrigger) {
+    this.enableAsyncAfterInsertTrigger = enableAsyncAfterInsertTrigger;
+  }
+
+  public int getAsyncTriggerMaxPendingRowsPerTrigger() {
+    return asyncTriggerMaxPendingRowsPerTrigger;
+  }
+
+  public void setAsyncTriggerMaxPendingRowsPerTrigger(int asyncTriggerMaxPendingRowsPerTrigger) {
+    this.asyncTriggerMaxPendingRowsPerTrigger = asyncTriggerMaxPendingRowsPerTrigger;
+  }
+
+  public int getAsyncTriggerFireBatchSize() {
+    return asyncTriggerFireBatchSize;
+  }
+
+  public void setAsyncTriggerFireBatchSize(int asyncTriggerFireBatchSize) {
+    this.asyncTriggerFireBatchSize = asyncTriggerFireBatchSize;
+  }
+
+  public int getAsyncTriggerFireThreadCount() {
+    return asyncTriggerFireThreadCount;
+  }
+
+  public void setAsyncTriggerFireThreadCount(int asyncTriggerFireThreadCount) {
+    this.asyncTriggerFireThreadCount = asyncTriggerFireThreadCount;
+  }
+
+  public String getAsyncTriggerFullQueuePolicy() {
+    return asyncTriggerFullQueuePolicy;
+  }
+
+  public void setAsyncTriggerFullQueuePolicy(String asyncTriggerFullQueuePolicy) {
+    this.asyncTriggerFullQueuePolicy = asyncTriggerFullQueuePolicy;
+  }
+
   public int getCoordinatorReadExecutorSize() {
     return coordinatorReadExecutorSize;
   }
@@ -3864,6 +4152,14 @@ public class IoTDBConfig {
     this.cqMinEveryIntervalInMs = cqMinEveryIntervalInMs;
   }
 
+  public boolean isEnableIncrementalCQ() {
+    return enableIncrementalCQ;
+  }
+
+  public void setEnableIncrementalCQ(boolean enableIncrementalCQ) {
+    this.enableIncrementalCQ = enableIncrementalCQ;
+  }
+
   public double getUsableCompactionMemoryProportion() {
     return 1.0d - chunkMetadataSizeProportion;
   }
@@ -4100,6 +4396,14 @@ public class IoTDBConfig {
         loadTsFileMaxDeviceCountToUseDeviceTimeIndex;
   }
 
+  public boolean isEnableLoadTsFileDirectIO() {
+    return enableLoadTsFileDirectIO;
+  }
+
+  public void setEnableLoadTsFileDirectIO(boolean enableLoadTsFileDirectIO) {
+    this.enableLoadTsFileDirectIO = enableLoadTsFileDirectIO;
+  }
+
   public long getLoadChunkMetadataMemorySizeInBytes() {
     return loadChunkMetadataMemorySizeInBytes;
   }
@@ -4141,6 +4445,30 @@ public class IoTDBConfig {
     this.loadTsFileRetryCountOnRegionChange = loadTsFileRetryCountOnRegionChange;
   }
 
+  public int getLoadTsFileSplitParallelism() {
+    return loadTsFileSplitParallelism;
+  }
+
+  public void setLoadTsFileSplitParallelism(int loadTsFileSplitParallelism) {
+    this.loadTsFileSplitParallelism = Math.max(1, loadTsFileSplitParallelism);
+  }
+
+  public int getLoadTsFileSplitMaxThreadNum() {
+    return loadTsFileSplitMaxThreadNum;
+  }
+
+  public void setLoadTsFileSplitMaxThreadNum(int loadTsFileSplitMaxThreadNum) {
+    this.loadTsFileSplitMaxThreadNum = loadTsFileSplitMaxThreadNum;
+  }
+
+  public boolean isEnableLoadTsFileDirectAdoption() {
+    return enableLoadTsFileDirectAdoption;
+  }
+
+  public void setEnableLoadTsFileDirectAdoption(boolean enableLoadTsFileDirectAdoption) {
+    this.enableLoadTsFileDirectAdoption = enableLoadTsFileDirectAdoption;
+  }
+
   public double getLoadWriteThroughputBytesPerSecond() {
     return loadWriteThroughputBytesPerSecond;
   }
@@ -4157,6 +4485,32 @@ public class IoTDBConfig {
     this.loadActiveListeningMaxThreadNum = loadActiveListeningMaxThreadNum;
   }
 
+  public boolean isLoadActiveListeningWatchEnable() {
+    return loadActiveListeningWatchEnable;
+  }
+
+  public void setLoadActiveListeningWatchEnable(boolean loadActiveListeningWatchEnable) {
+    this.loadActiveListeningWatchEnable = loadActiveListeningWatchEnable;
+  }
+
+  public int getLoadActiveListeningBatchMaxFileNum() {
+    return loadActiveListeningBatchMaxFileNum;
+  }
+
+  public void setLoadActiveListeningBatchMaxFileNum(int loadActiveListeningBatchMaxFileNum) {
+    this.loadActiveListeningBatchMaxFileNum = Math.max(1, loadActiveListeningBatchMaxFileNum);
+  }
+
+  public long getLoadActiveListeningBatchFileSizeThresholdInByte() {
+    return loadActiveListeningBatchFileSizeThresholdInByte;
+  }
+
+  public void setLoadActiveListeningBatchFileSizeThresholdInByte(
+      long loadActiveListeningBatchFileSizeThresholdInByte) {
+    this.loadActiveListeningBatchFileSizeThresholdInByte =
+        loadActiveListeningBatchFileSizeThresholdInByte;
+  }
+
   public long getLoadActiveListeningCheckIntervalSeconds() {
     return loadActiveListeningCheckIntervalSeconds;
   }
@@ -4305,6 +4659,14 @@ public class IoTDBConfig {
     this.enableTsFileValidation = enableTsFileValidation;
   }
 
+  public boolean isEnableLightweightSettleCompaction() {
+    return enableLightweightSettleCompaction;
+  }
+
+  public void setEnableLightweightSettleCompaction(boolean enableLightweightSettleCompaction) {
+    this.enableLightweightSettleCompaction = enableLightweightSettleCompaction;
+  }
+
   public long getInnerCompactionTaskSelectionModsFileThreshold() {
     return innerCompactionTaskSelectionModsFileThreshold;
   }
@@ -48,6 +48,7 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALMode;
 import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
+import org.apache.iotdb.db.trigger.executor.AsyncTriggerFireManager;
 import org.apache.iotdb.db.utils.DateTimeUtils;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.utils.datastructure.TVListSortAlgorithm;
@@ -83,6 +84,7 @@ import java.nio.file.FileStore;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.ServiceLoader;
@@ -330,6 +332,22 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "meta_data_cache_enable", Boolean.toString(conf.isMetaDataCacheEnable()))));
 
+    conf.setEnableTsFileSketch(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_tsfile_sketch", Boolean.toString(conf.isEnableTsFileSketch()))));
+
+    conf.setEnableLastCacheWarmUp(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_last_cache_warm_up", Boolean.toString(conf.isEnableLastCacheWarmUp()))));
+
+    conf.setModificationCacheSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "modification_cache_size_in_bytes",
+                Long.toString(conf.getModificationCacheSizeInBytes()))));
+
     initMemoryAllocate(properties);
 
     String systemDir = properties.getProperty("dn_system_dir");
@@ -491,6 +509,13 @@ public class IoTDBDescriptor {
     subtaskNum = subtaskNum <= 0 ? 1 : subtaskNum;
     conf.setSubCompactionTaskNum(subtaskNum);
 
+    int compactionDeviceParallelism =
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_device_parallelism",
+                Integer.toString(conf.getCompactionDeviceParallelism())));
+    conf.setCompactionDeviceParallelism(Math.max(compactionDeviceParallelism, 1));
+
     int compactionScheduleThreadNum =
         Integer.parseInt(
             properties.getProperty(
@@ -609,6 +634,52 @@ public class IoTDBDescriptor {
                 "compaction_thread_count", Integer.toString(conf.getCompactionThreadCount())));
 
     conf.setCompactionThreadCount(compactionThreadCount <= 0 ? 1 : compactionThreadCount);
+
+    conf.setEnableAdaptiveCompactionThrottle(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_adaptive_compaction_throttle",
+                Boolean.toString(conf.isEnableAdaptiveCompactionThrottle()))));
+    long adaptiveCompactionThrottleIntervalInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "adaptive_compaction_throttle_interval_in_ms",
+                Long.toString(conf.getAdaptiveCompactionThrottleIntervalInMs())));
+    if (adaptiveCompactionThrottleIntervalInMs > 0) {
+      conf.setAdaptiveCompactionThrottleIntervalInMs(adaptiveCompactionThrottleIntervalInMs);
+    }
+    conf.setAdaptiveCompactionQueryLatencyThresholdInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "adaptive_compaction_query_latency_threshold_in_ms",
+                Long.toString(conf.getAdaptiveCompactionQueryLatencyThresholdInMs()))));
+    conf.setAdaptiveCompactionDiskUtilThreshold(
+        Double.parseDouble(
+            properties.getProperty(
+                "adaptive_compaction_disk_util_threshold",
+                Double.toString(conf.getAdaptiveCompactionDiskUtilThreshold()))));
+    double adaptiveCompactionMinThrottleRatio =
+        Double.parseDouble(
+            properties.getProperty(
+                "adaptive_compaction_min_throttle_ratio",
+                Double.toString(conf.getAdaptiveCompactionMinThrottleRatio())));
+    double adaptiveCompactionMaxThrottleRatio =
+        Double.parseDouble(
+            properties.getProperty(
+                "adaptive_compaction_max_throttle_ratio",
+                Double.toString(conf.getAdaptiveCompactionMaxThrottleRatio())));
+    if (adaptiveCompactionMinThrottleRatio > 0
+        && adaptiveCompactionMinThrottleRatio <= adaptiveCompactionMaxThrottleRatio) {
+      conf.setAdaptiveCompactionMinThrottleRatio(adaptiveCompactionMinThrottleRatio);
+      conf.setAdaptiveCompactionMaxThrottleRatio(adaptiveCompactionMaxThrottleRatio);
+    } else {
+      LOGGER.warn(
+          "Illegal adaptive compaction throttle ratios [{}, {}], use [{}, {}] instead",
+          adaptiveCompactionMinThrottleRatio,
+          adaptiveCompactionMaxThrottleRatio,
+          conf.getAdaptiveCompactionMinThrottleRatio(),
+          conf.getAdaptiveCompactionMaxThrottleRatio());
+    }
     int maxConcurrentAlignedSeriesInCompaction =
         Integer.parseInt(
             properties.getProperty(
@@ -699,6 +770,12 @@ public class IoTDBDescriptor {
                 "compaction_write_throughput_mb_per_sec",
                 Integer.toString(conf.getCompactionWriteThroughputMbPerSec()))));
 
+    conf.setEnableCompactionDirectIO(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_compaction_direct_io",
+                Boolean.toString(conf.isEnableCompactionDirectIO()))));
+
     conf.setCompactionReadThroughputMbPerSec(
         Integer.parseInt(
             properties.getProperty(
@@ -734,6 +811,12 @@ public class IoTDBDescriptor {
                 "inner_compaction_task_selection_mods_file_threshold",
                 Long.toString(conf.getInnerCompactionTaskSelectionModsFileThreshold()))));
 
+    conf.setEnableLightweightSettleCompaction(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_lightweight_settle_compaction",
+                Boolean.toString(conf.isEnableLightweightSettleCompaction()))));
+
     conf.setTtlCheckInterval(
         Long.parseLong(
             properties.getProperty(
@@ -1855,6 +1938,16 @@ public class IoTDBDescriptor {
       conf.setMqttMaxMessageSize(
           Integer.parseInt(properties.getProperty(IoTDBConstant.MQTT_MAX_MESSAGE_SIZE).trim()));
     }
+
+    conf.setMqttInsertBatchSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "mqtt_insert_batch_size", String.valueOf(conf.getMqttInsertBatchSize()))));
+    conf.setMqttInsertBatchDelayInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "mqtt_insert_batch_delay_in_ms",
+                String.valueOf(conf.getMqttInsertBatchDelayInMs()))));
   }
 
   // timed flush memtable
@@ -2260,6 +2353,23 @@ public class IoTDBDescriptor {
           conf.getAllocateMemoryForDataExchange() + partForDataExchange);
       conf.setAllocateMemoryForOperators(conf.getAllocateMemoryForOperators() + partForOperators);
     }
+
+    // the modification cache is reserved from the read memory of the operators, which use it
+    long modificationCacheSize = conf.getModificationCacheSizeInBytes();
+    if (modificationCacheSize > 0) {
+      long maxModificationCacheSize = conf.getAllocateMemoryForOperators() / 2;
+      if (modificationCacheSize > maxModificationCacheSize) {
+        LOGGER.warn(
+            "modification_cache_size_in_bytes {} is larger than half of the memory for operators, "
+                + "use {} instead.",
+            modificationCacheSize,
+            maxModificationCacheSize);
+        modificationCacheSize = maxModificationCacheSize;
+        conf.setModificationCacheSizeInBytes(modificationCacheSize);
+      }
+      conf.setAllocateMemoryForOperators(
+          conf.getAllocateMemoryForOperators() - modificationCacheSize);
+    }
   }
 
   @SuppressWarnings("java:S3518")
@@ -2407,6 +2517,11 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "load_chunk_metadata_memory_size_in_bytes",
                 String.valueOf(conf.getLoadChunkMetadataMemorySizeInBytes()))));
+    conf.setEnableLoadTsFileDirectIO(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_load_tsfile_direct_io",
+                String.valueOf(conf.isEnableLoadTsFileDirectIO()))));
     conf.setLoadCleanupTaskExecutionDelayTimeSeconds(
         Long.parseLong(
             properties.getProperty(
@@ -2417,6 +2532,24 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "load_tsfile_retry_count_on_region_change",
                 String.valueOf(conf.getLoadTsFileRetryCountOnRegionChange()))));
+    conf.setLoadTsFileSplitParallelism(
+        Integer.parseInt(
+            properties.getProperty(
+                "load_tsfile_split_parallelism",
+                String.valueOf(conf.getLoadTsFileSplitParallelism()))));
+    conf.setLoadTsFileSplitMaxThreadNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "load_tsfile_split_max_thread_num",
+                Integer.toString(conf.getLoadTsFileSplitMaxThreadNum()))));
+    if (conf.getLoadTsFileSplitMaxThreadNum() <= 0) {
+      conf.setLoadTsFileSplitMaxThreadNum(Runtime.getRuntime().availableProcessors());
+    }
+    conf.setEnableLoadTsFileDirectAdoption(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_load_tsfile_direct_adoption",
+                String.valueOf(conf.isEnableLoadTsFileDirectAdoption()))));
     conf.setLoadWriteThroughputBytesPerSecond(
         Double.parseDouble(
             properties.getProperty(
@@ -2461,6 +2594,22 @@ public class IoTDBDescriptor {
     if (conf.getLoadActiveListeningMaxThreadNum() <= 0) {
       conf.setLoadActiveListeningMaxThreadNum(Runtime.getRuntime().availableProcessors());
     }
+
+    conf.setLoadActiveListeningWatchEnable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "load_active_listening_watch_enable",
+                Boolean.toString(conf.isLoadActiveListeningWatchEnable()))));
+    conf.setLoadActiveListeningBatchMaxFileNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "load_active_listening_batch_max_file_num",
+                Integer.toString(conf.getLoadActiveListeningBatchMaxFileNum()))));
+    conf.setLoadActiveListeningBatchFileSizeThresholdInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "load_active_listening_batch_file_size_threshold_in_byte",
+                Long.toString(conf.getLoadActiveListeningBatchFileSizeThresholdInByte()))));
   }
 
   private void loadLoadTsFileHotModifiedProp(TrimProperties properties) throws IOException {
@@ -2478,6 +2627,19 @@ public class IoTDBDescriptor {
                 ConfigurationFileUtils.getConfigurationDefaultValue(
                     "load_write_throughput_bytes_per_second"))));
 
+    conf.setLoadTsFileSplitParallelism(
+        Integer.parseInt(
+            properties.getProperty(
+                "load_tsfile_split_parallelism",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "load_tsfile_split_parallelism"))));
+    conf.setEnableLoadTsFileDirectAdoption(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_load_tsfile_direct_adoption",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "enable_load_tsfile_direct_adoption"))));
+
     conf.setLoadActiveListeningEnable(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -2501,6 +2663,18 @@ public class IoTDBDescriptor {
         properties.getProperty(
             "load_active_listening_fail_dir",
             ConfigurationFileUtils.getConfigurationDefaultValue("load_active_listening_fail_dir")));
+    conf.setLoadActiveListeningBatchMaxFileNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "load_active_listening_batch_max_file_num",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "load_active_listening_batch_max_file_num"))));
+    conf.setLoadActiveListeningBatchFileSizeThresholdInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "load_active_listening_batch_file_size_threshold_in_byte",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "load_active_listening_batch_file_size_threshold_in_byte"))));
   }
 
   @SuppressWarnings("squid:S3518") // "proportionSum" can't be zero
@@ -2547,6 +2721,12 @@ public class IoTDBDescriptor {
             e);
       }
     }
+
+    conf.setUdfParallelEvaluationThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "udf_parallel_evaluation_thread_count",
+                Integer.toString(conf.getUdfParallelEvaluationThreadCount()))));
   }
 
   private void initThriftSSL(TrimProperties properties) {
@@ -2564,6 +2744,40 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "stateful_trigger_retry_num_when_not_found",
                 Integer.toString(conf.getRetryNumToFindStatefulTrigger()))));
+    conf.setEnableAsyncAfterInsertTrigger(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_async_after_insert_trigger",
+                Boolean.toString(conf.isEnableAsyncAfterInsertTrigger()))));
+    conf.setAsyncTriggerMaxPendingRowsPerTrigger(
+        Integer.parseInt(
+            properties.getProperty(
+                "async_trigger_max_pending_rows_per_trigger",
+                Integer.toString(conf.getAsyncTriggerMaxPendingRowsPerTrigger()))));
+    conf.setAsyncTriggerFireBatchSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "async_trigger_fire_batch_size",
+                Integer.toString(conf.getAsyncTriggerFireBatchSize()))));
+    conf.setAsyncTriggerFireThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "async_trigger_fire_thread_count",
+                Integer.toString(conf.getAsyncTriggerFireThreadCount()))));
+    String asyncTriggerFullQueuePolicy =
+        properties
+            .getProperty("async_trigger_full_queue_policy", conf.getAsyncTriggerFullQueuePolicy())
+            .trim()
+            .toUpperCase(Locale.ENGLISH);
+    try {
+      AsyncTriggerFireManager.FullQueuePolicy.valueOf(asyncTriggerFullQueuePolicy);
+      conf.setAsyncTriggerFullQueuePolicy(asyncTriggerFullQueuePolicy);
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn(
+          "Unknown async_trigger_full_queue_policy {}, use the default policy {}",
+          asyncTriggerFullQueuePolicy,
+          conf.getAsyncTriggerFullQueuePolicy());
+    }
 
     int tlogBufferSize =
         Integer.parseInt(
@@ -2722,6 +2936,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "partition_cache_size", Integer.toString(conf.getPartitionCacheSize()))));
 
+    conf.setDataPartitionPreAllocateAheadTimeInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "data_partition_pre_allocate_ahead_time_in_ms",
+                Long.toString(conf.getDataPartitionPreAllocateAheadTimeInMs()))));
+
     conf.setDriverTaskExecutionTimeSliceInMs(
         Integer.parseInt(
             properties.getProperty(
@@ -2822,6 +3042,7 @@ public class IoTDBDescriptor {
 
   public void loadCQConfig(TCQConfig cqConfig) {
     conf.setCqMinEveryIntervalInMs(cqConfig.getCqMinEveryIntervalInMs());
+    conf.setEnableIncrementalCQ(cqConfig.isEnableIncrementalCQ());
   }
 
   public void reclaimConsensusMemory() {
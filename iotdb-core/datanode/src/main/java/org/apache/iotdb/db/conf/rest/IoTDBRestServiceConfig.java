@@ -59,6 +59,9 @@ public class IoTDBRestServiceConfig {
 
   private int restQueryDefaultRowSizeLimit = 10000;
 
+  /** Size of the write buffer of a streamed REST query response. */
+  private int restQueryStreamBufferSizeInBytes = 64 * 1024;
+
   /** Is client authentication required. */
   private boolean clientAuth = false;
 
@@ -173,4 +176,12 @@ public class IoTDBRestServiceConfig {
   public void setRestQueryDefaultRowSizeLimit(int restQueryDefaultRowSizeLimit) {
     this.restQueryDefaultRowSizeLimit = restQueryDefaultRowSizeLimit;
   }
+
+  public int getRestQueryStreamBufferSizeInBytes() {
+    return restQueryStreamBufferSizeInBytes;
+  }
+
+  public void setRestQueryStreamBufferSizeInBytes(int restQueryStreamBufferSizeInBytes) {
+    this.restQueryStreamBufferSizeInBytes = restQueryStreamBufferSizeInBytes;
+  }
 }
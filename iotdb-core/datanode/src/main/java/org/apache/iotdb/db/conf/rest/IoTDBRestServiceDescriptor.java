@@ -91,6 +91,11 @@ public class IoTDBRestServiceDescriptor {
             trimProperties.getProperty(
                 "rest_query_default_row_size_limit",
                 Integer.toString(conf.getRestQueryDefaultRowSizeLimit()))));
+    conf.setRestQueryStreamBufferSizeInBytes(
+        Integer.parseInt(
+            trimProperties.getProperty(
+                "rest_query_stream_buffer_size_in_bytes",
+                Integer.toString(conf.getRestQueryStreamBufferSizeInBytes()))));
     conf.setEnableSwagger(
         Boolean.parseBoolean(
             trimProperties.getProperty(
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.pipe.agent.receiver;
 
 import org.apache.iotdb.commons.pipe.receiver.IoTDBReceiverAgent;
+import org.apache.iotdb.commons.pipe.receiver.filestream.PipeFileStreamReceiverAgent;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.pipe.receiver.protocol.airgap.IoTDBAirGapReceiverAgent;
 import org.apache.iotdb.db.pipe.receiver.protocol.legacy.IoTDBLegacyPipeReceiverAgent;
@@ -52,6 +53,10 @@ public class PipeDataNodeReceiverAgent {
     return airGapAgent;
   }
 
+  public PipeFileStreamReceiverAgent fileStream() {
+    return PipeFileStreamReceiverAgent.getInstance();
+  }
+
   public IoTDBLegacyPipeReceiverAgent legacy() {
     return legacyAgent;
   }
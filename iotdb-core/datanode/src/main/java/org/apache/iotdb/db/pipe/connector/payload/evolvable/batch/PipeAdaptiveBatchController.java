@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.connector.payload.evolvable.batch;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link PipeAdaptiveBatchController} tunes the batches sent to one receiver endpoint with AIMD
+ * (additive increase, multiplicative decrease), using the feedback of each transfer.
+ *
+ * <p>The controller keeps a scale in (0, 1] which is applied to the configured batch size and
+ * delay, so the configured values are the upper bounds. It also keeps a limit of the requests in
+ * flight, bounded by the async connector's max client number. Each transfer completed without
+ * congestion raises the scale by a fixed step and the in-flight limit by 1 per window of limit
+ * transfers. Back pressure of the receiver (network errors and temporary unavailable status) and
+ * latency rising over {@link #LATENCY_TOLERANCE_RATIO} times the baseline halve both, at most once
+ * per smoothed latency.
+ *
+ * <p>Latency is compared per KB so that the batch size does not affect the congestion signal.
+ */
+public class PipeAdaptiveBatchController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipeAdaptiveBatchController.class);
+
+  private static final AtomicLong ID_GENERATOR = new AtomicLong(0);
+
+  private static final double MIN_SCALE = 1.0 / 64;
+  private static final double ADDITIVE_INCREASE_STEP = 1.0 / 16;
+  private static final double MULTIPLICATIVE_DECREASE_FACTOR = 0.5;
+
+  private static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+  private static final double LATENCY_TOLERANCE_RATIO = 2.0;
+  // Let the baseline follow the receiver when its normal latency goes up
+  private static final double BASELINE_LATENCY_DECAY_RATIO = 1.01;
+  private static final long MIN_DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final long id = ID_GENERATOR.incrementAndGet();
+  private final TEndPoint endPoint;
+  private final long maxBatchSizeInBytes;
+  private final long maxDelayInMs;
+
+  private final int maxInFlightLimit;
+  private final AtomicInteger inFlightCount = new AtomicInteger(0);
+
+  private volatile double scale = 1;
+  private volatile int inFlightLimit;
+  private int completedCountInWindow = 0;
+
+  private double smoothedLatencyNanosPerKB = -1;
+  private double baselineLatencyNanosPerKB = -1;
+  private long lastDecreaseTimeNanos = Long.MIN_VALUE;
+
+  /**
+   * @param endPoint the receiver endpoint, {@code null} for the batch without leader
+   * @param maxBatchSizeInBytes the configured batch size
+   * @param maxDelayInMs the configured batch delay
+   */
+  public PipeAdaptiveBatchController(
+      final TEndPoint endPoint, final long maxBatchSizeInBytes, final long maxDelayInMs) {
+    this.endPoint = endPoint;
+    this.maxBatchSizeInBytes = maxBatchSizeInBytes;
+    this.maxDelayInMs = maxDelayInMs;
+    this.maxInFlightLimit =
+        Math.max(1, PipeConfig.getInstance().getPipeAsyncConnectorMaxClientNumber());
+    this.inFlightLimit = maxInFlightLimit;
+  }
+
+  /////////////////////////////// Settings ///////////////////////////////
+
+  public long getBatchSizeInBytes() {
+    return Math.max(1, (long) (maxBatchSizeInBytes * scale));
+  }
+
+  public long getBatchDelayInMs() {
+    return (long) (maxDelayInMs * scale);
+  }
+
+  public boolean isInFlightLimitReached() {
+    return inFlightCount.get() >= inFlightLimit;
+  }
+
+  /////////////////////////////// Feedback ///////////////////////////////
+
+  public void onTransferStart() {
+    inFlightCount.incrementAndGet();
+  }
+
+  /**
+   * The receiver has responded the transfer.
+   *
+   * @param bytes the size of the transferred request
+   * @param latencyNanos the time between sending the request and receiving the response
+   */
+  public synchronized void onTransferComplete(final long bytes, final long latencyNanos) {
+    inFlightCount.decrementAndGet();
+
+    final double latencyNanosPerKB = latencyNanos / Math.max(bytes / 1024.0, 1.0);
+    if (smoothedLatencyNanosPerKB < 0) {
+      smoothedLatencyNanosPerKB = latencyNanosPerKB;
+      baselineLatencyNanosPerKB = latencyNanosPerKB;
+    } else {
+      smoothedLatencyNanosPerKB +=
+          LATENCY_SMOOTHING_FACTOR * (latencyNanosPerKB - smoothedLatencyNanosPerKB);
+      baselineLatencyNanosPerKB =
+          Math.min(latencyNanosPerKB, baselineLatencyNanosPerKB * BASELINE_LATENCY_DECAY_RATIO);
+    }
+
+    if (smoothedLatencyNanosPerKB > baselineLatencyNanosPerKB * LATENCY_TOLERANCE_RATIO) {
+      decrease(latencyNanos, "latency rising");
+    } else {
+      increase();
+    }
+  }
+
+  /** The transfer failed because of network errors or the receiver is temporarily unavailable. */
+  public synchronized void onTransferBackPressure() {
+    inFlightCount.decrementAndGet();
+    decrease(0, "back pressure");
+  }
+
+  /** The transfer is not sent, no feedback is available. */
+  public void onTransferAbort() {
+    inFlightCount.decrementAndGet();
+  }
+
+  private void increase() {
+    scale = Math.min(1, scale + ADDITIVE_INCREASE_STEP);
+    if (++completedCountInWindow >= inFlightLimit) {
+      completedCountInWindow = 0;
+      inFlightLimit = Math.min(maxInFlightLimit, inFlightLimit + 1);
+    }
+  }
+
+  private void decrease(final long latencyNanos, final String reason) {
+    final long currentTimeNanos = System.nanoTime();
+    // Responses of the requests sent before the last decrease do not reflect the new settings
+    if (lastDecreaseTimeNanos != Long.MIN_VALUE
+        && currentTimeNanos - lastDecreaseTimeNanos
+            < Math.max(MIN_DECREASE_INTERVAL_NANOS, latencyNanos)) {
+      return;
+    }
+    lastDecreaseTimeNanos = currentTimeNanos;
+
+    scale = Math.max(MIN_SCALE, scale * MULTIPLICATIVE_DECREASE_FACTOR);
+    inFlightLimit = Math.max(1, (int) (inFlightLimit * MULTIPLICATIVE_DECREASE_FACTOR));
+    completedCountInWindow = 0;
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(
+          "Adaptive batch controller {} of endpoint {} decreased because of {}, scale: {}, in-flight limit: {}.",
+          id,
+          endPoint,
+          reason,
+          scale,
+          inFlightLimit);
+    }
+  }
+
+  /////////////////////////////// Metrics ///////////////////////////////
+
+  public long getId() {
+    return id;
+  }
+
+  public String getEndPointString() {
+    return Objects.isNull(endPoint) ? "default" : endPoint.getIp() + ":" + endPoint.getPort();
+  }
+
+  public double getScale() {
+    return scale;
+  }
+
+  public int getInFlightLimit() {
+    return inFlightLimit;
+  }
+
+  public int getInFlightCount() {
+    return inFlightCount.get();
+  }
+
+  public synchronized double getSmoothedLatencyNanosPerKB() {
+    return Math.max(smoothedLatencyNanosPerKB, 0);
+  }
+}
@@ -42,12 +42,21 @@ public abstract class PipeTabletEventBatch implements AutoCloseable {
   private final int maxDelayInMs;
   private long firstEventProcessingTime = Long.MIN_VALUE;
 
+  // Null if the batch size and delay are not adaptive
+  private final PipeAdaptiveBatchController adaptiveController;
+
   protected long totalBufferSize = 0;
 
   protected volatile boolean isClosed = false;
 
   protected PipeTabletEventBatch(final int maxDelayInMs) {
+    this(maxDelayInMs, null);
+  }
+
+  protected PipeTabletEventBatch(
+      final int maxDelayInMs, final PipeAdaptiveBatchController adaptiveController) {
     this.maxDelayInMs = maxDelayInMs;
+    this.adaptiveController = adaptiveController;
   }
 
   /**
@@ -96,12 +105,34 @@ public abstract class PipeTabletEventBatch implements AutoCloseable {
       throws WALPipeException, IOException;
 
   public boolean shouldEmit() {
-    return totalBufferSize >= getMaxBatchSizeInBytes()
-        || System.currentTimeMillis() - firstEventProcessingTime >= maxDelayInMs;
+    final long maxBatchSizeInBytes = getMaxBatchSizeInBytes();
+    if (Objects.isNull(adaptiveController)) {
+      return totalBufferSize >= maxBatchSizeInBytes
+          || System.currentTimeMillis() - firstEventProcessingTime >= maxDelayInMs;
+    }
+
+    // The memory limit must always be respected
+    if (totalBufferSize >= maxBatchSizeInBytes) {
+      return true;
+    }
+    // Keep accumulating events while the receiver is busy with the in-flight requests
+    if (adaptiveController.isInFlightLimitReached()) {
+      return false;
+    }
+    return totalBufferSize >= adaptiveController.getBatchSizeInBytes()
+        || System.currentTimeMillis() - firstEventProcessingTime
+            >= adaptiveController.getBatchDelayInMs();
   }
 
   protected abstract long getMaxBatchSizeInBytes();
 
+  /**
+   * @return the controller receiving the transfer feedback of this batch, may be {@code null}
+   */
+  public PipeAdaptiveBatchController getAdaptiveController() {
+    return adaptiveController;
+  }
+
   public synchronized void onSuccess() {
     events.clear();
 
@@ -64,7 +64,14 @@ public class PipeTabletEventPlainBatch extends PipeTabletEventBatch {
   private final Map<Pair<String, Long>, Long> pipe2BytesAccumulated = new HashMap<>();
 
   PipeTabletEventPlainBatch(final int maxDelayInMs, final long requestMaxBatchSizeInBytes) {
-    super(maxDelayInMs);
+    this(maxDelayInMs, requestMaxBatchSizeInBytes, null);
+  }
+
+  PipeTabletEventPlainBatch(
+      final int maxDelayInMs,
+      final long requestMaxBatchSizeInBytes,
+      final PipeAdaptiveBatchController adaptiveController) {
+    super(maxDelayInMs, adaptiveController);
     this.allocatedMemoryBlock =
         PipeDataNodeResourceManager.memory()
             .tryAllocate(requestMaxBatchSizeInBytes)
@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
 import org.apache.iotdb.db.pipe.connector.client.IoTDBDataNodeCacheLeaderClientManager;
 import org.apache.iotdb.db.pipe.event.common.tablet.PipeInsertNodeTabletInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
+import org.apache.iotdb.db.pipe.metric.PipeAdaptiveBatchMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALPipeException;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameters;
 import org.apache.iotdb.pipe.api.event.Event;
@@ -45,6 +46,8 @@ import java.util.Objects;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_FORMAT_HYBRID_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_FORMAT_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_FORMAT_TS_FILE_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_IOTDB_BATCH_DELAY_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_IOTDB_BATCH_SIZE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_IOTDB_PLAIN_BATCH_DELAY_DEFAULT_VALUE;
@@ -54,6 +57,7 @@ import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstan
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_LEADER_CACHE_ENABLE_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_LEADER_CACHE_ENABLE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_FORMAT_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_IOTDB_BATCH_DELAY_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_IOTDB_BATCH_SIZE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_LEADER_CACHE_ENABLE_KEY;
@@ -63,6 +67,8 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
   private static final Logger LOGGER = LoggerFactory.getLogger(PipeTransferBatchReqBuilder.class);
 
   private final boolean useLeaderCache;
+  // Only plain batches are adaptive, since tsfile batches are not transferred as one request
+  private final boolean useAdaptiveBatch;
 
   private final int requestMaxDelayInMs;
   private final long requestMaxBatchSizeInBytes;
@@ -88,6 +94,14 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
                 Arrays.asList(SINK_LEADER_CACHE_ENABLE_KEY, CONNECTOR_LEADER_CACHE_ENABLE_KEY),
                 CONNECTOR_LEADER_CACHE_ENABLE_DEFAULT_VALUE);
 
+    useAdaptiveBatch =
+        !usingTsFileBatch
+            && parameters.getBooleanOrDefault(
+                Arrays.asList(
+                    SINK_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY,
+                    CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY),
+                CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_DEFAULT_VALUE);
+
     final int requestMaxDelayInSeconds;
     if (usingTsFileBatch) {
       requestMaxDelayInSeconds =
@@ -113,9 +127,20 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
           parameters.getLongOrDefault(
               Arrays.asList(CONNECTOR_IOTDB_BATCH_SIZE_KEY, SINK_IOTDB_BATCH_SIZE_KEY),
               CONNECTOR_IOTDB_PLAIN_BATCH_SIZE_DEFAULT_VALUE);
-      this.defaultBatch =
-          new PipeTabletEventPlainBatch(requestMaxDelayInMs, requestMaxBatchSizeInBytes);
+      this.defaultBatch = constructPlainBatch(null);
+    }
+  }
+
+  private PipeTabletEventPlainBatch constructPlainBatch(final TEndPoint endPoint) {
+    if (!useAdaptiveBatch) {
+      return new PipeTabletEventPlainBatch(requestMaxDelayInMs, requestMaxBatchSizeInBytes);
     }
+
+    final PipeAdaptiveBatchController adaptiveController =
+        new PipeAdaptiveBatchController(endPoint, requestMaxBatchSizeInBytes, requestMaxDelayInMs);
+    PipeAdaptiveBatchMetrics.getInstance().register(adaptiveController);
+    return new PipeTabletEventPlainBatch(
+        requestMaxDelayInMs, requestMaxBatchSizeInBytes, adaptiveController);
   }
 
   /**
@@ -158,9 +183,7 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
     }
 
     final PipeTabletEventPlainBatch batch =
-        endPointToBatch.computeIfAbsent(
-            endPoint,
-            k -> new PipeTabletEventPlainBatch(requestMaxDelayInMs, requestMaxBatchSizeInBytes));
+        endPointToBatch.computeIfAbsent(endPoint, this::constructPlainBatch);
     return batch.onEvent(event) ? new Pair<>(endPoint, batch) : null;
   }
 
@@ -193,5 +216,14 @@ public class PipeTransferBatchReqBuilder implements AutoCloseable {
   public synchronized void close() {
     defaultBatch.close();
     endPointToBatch.values().forEach(PipeTabletEventPlainBatch::close);
+
+    if (useAdaptiveBatch) {
+      PipeAdaptiveBatchMetrics.getInstance().deregister(defaultBatch.getAdaptiveController());
+      endPointToBatch
+          .values()
+          .forEach(
+              batch ->
+                  PipeAdaptiveBatchMetrics.getInstance().deregister(batch.getAdaptiveController()));
+    }
   }
 }
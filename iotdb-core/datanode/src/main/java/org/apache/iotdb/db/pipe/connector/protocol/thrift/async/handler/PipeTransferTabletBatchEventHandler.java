@@ -24,6 +24,7 @@ import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.client.async.AsyncPipeDataTransferServiceClient;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferCompressedReq;
 import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeAdaptiveBatchController;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeTabletEventPlainBatch;
 import org.apache.iotdb.db.pipe.connector.protocol.thrift.async.IoTDBDataRegionAsyncConnector;
 import org.apache.iotdb.db.pipe.connector.util.LeaderCacheUtils;
@@ -40,6 +41,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHandler {
@@ -53,6 +56,11 @@ public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHa
   private final TPipeTransferReq req;
   private final double reqCompressionRatio;
 
+  private final PipeAdaptiveBatchController adaptiveController;
+  // Make sure the feedback of one transfer is reported to the adaptive controller only once
+  private final AtomicBoolean isAdaptiveFeedbackPending = new AtomicBoolean(false);
+  private long transferStartTime;
+
   public PipeTransferTabletBatchEventHandler(
       final PipeTabletEventPlainBatch batch, final IoTDBDataRegionAsyncConnector connector)
       throws IOException {
@@ -69,6 +77,8 @@ public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHa
                 uncompressedReq, connector.getCompressors())
             : uncompressedReq;
     reqCompressionRatio = (double) req.getBody().length / uncompressedReq.getBody().length;
+
+    adaptiveController = batch.getAdaptiveController();
   }
 
   public void transfer(final AsyncPipeDataTransferServiceClient client) throws TException {
@@ -80,7 +90,14 @@ public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHa
           (long) (entry.getValue() * reqCompressionRatio));
     }
 
-    tryTransfer(client, req);
+    if (Objects.nonNull(adaptiveController)) {
+      adaptiveController.onTransferStart();
+      isAdaptiveFeedbackPending.set(true);
+      transferStartTime = System.nanoTime();
+    }
+    if (!tryTransfer(client, req) && isAdaptiveFeedbackPending.compareAndSet(true, false)) {
+      adaptiveController.onTransferAbort();
+    }
   }
 
   @Override
@@ -93,6 +110,15 @@ public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHa
 
     try {
       final TSStatus status = response.getStatus();
+      if (isAdaptiveFeedbackPending.compareAndSet(true, false)) {
+        if (status.getCode()
+            == TSStatusCode.PIPE_RECEIVER_TEMPORARY_UNAVAILABLE_EXCEPTION.getStatusCode()) {
+          adaptiveController.onTransferBackPressure();
+        } else {
+          adaptiveController.onTransferComplete(
+              req.getBody().length, System.nanoTime() - transferStartTime);
+        }
+      }
       // Only handle the failed statuses to avoid string format performance overhead
       if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()
           && status.getCode() != TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
@@ -119,6 +145,10 @@ public class PipeTransferTabletBatchEventHandler extends PipeTransferTrackableHa
 
   @Override
   protected void onErrorInternal(final Exception exception) {
+    if (isAdaptiveFeedbackPending.compareAndSet(true, false)) {
+      adaptiveController.onTransferBackPressure();
+    }
+
     try {
       LOGGER.warn(
           "Failed to transfer TabletInsertionEvent batch. Total failed events: {}, related pipe names: {}",
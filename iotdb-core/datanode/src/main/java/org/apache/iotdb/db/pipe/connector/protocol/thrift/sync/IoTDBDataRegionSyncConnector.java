@@ -24,6 +24,7 @@ import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.pipe.connector.client.IoTDBSyncClient;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFilePieceReq;
 import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeAdaptiveBatchController;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeTabletEventBatch;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeTabletEventPlainBatch;
 import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeTabletEventTsFileBatch;
@@ -260,8 +261,12 @@ public class IoTDBDataRegionSyncConnector extends IoTDBDataNodeSyncConnector {
   private void doTransfer(
       final TEndPoint endPoint, final PipeTabletEventPlainBatch batchToTransfer) {
     final Pair<IoTDBSyncClient, Boolean> clientAndStatus = clientManager.getClient(endPoint);
+    final PipeAdaptiveBatchController adaptiveController = batchToTransfer.getAdaptiveController();
 
     final TPipeTransferResp resp;
+    final long requestSize;
+    final long startTime;
+    boolean isTransferStarted = false;
     try {
       final TPipeTransferReq uncompressedReq = batchToTransfer.toTPipeTransferReq();
       final long uncompressedSize = uncompressedReq.getBody().length;
@@ -280,15 +285,32 @@ public class IoTDBDataRegionSyncConnector extends IoTDBDataNodeSyncConnector {
             (long) (entry.getValue() * compressionRatio));
       }
 
+      requestSize = compressedSize;
+      startTime = System.nanoTime();
+      if (Objects.nonNull(adaptiveController)) {
+        adaptiveController.onTransferStart();
+        isTransferStarted = true;
+      }
       resp = clientAndStatus.getLeft().pipeTransfer(req);
     } catch (final Exception e) {
       clientAndStatus.setRight(false);
+      if (isTransferStarted) {
+        adaptiveController.onTransferBackPressure();
+      }
       throw new PipeConnectionException(
           String.format("Network error when transfer tablet batch, because %s.", e.getMessage()),
           e);
     }
 
     final TSStatus status = resp.getStatus();
+    if (Objects.nonNull(adaptiveController)) {
+      if (status.getCode()
+          == TSStatusCode.PIPE_RECEIVER_TEMPORARY_UNAVAILABLE_EXCEPTION.getStatusCode()) {
+        adaptiveController.onTransferBackPressure();
+      } else {
+        adaptiveController.onTransferComplete(requestSize, System.nanoTime() - startTime);
+      }
+    }
     // Only handle the failed statuses to avoid string format performance overhead
     if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()
         && status.getCode() != TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
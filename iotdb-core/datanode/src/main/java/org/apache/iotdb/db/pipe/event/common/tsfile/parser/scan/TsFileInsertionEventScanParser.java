@@ -19,12 +19,16 @@
 
 package org.apache.iotdb.db.pipe.event.common.tsfile.parser.scan;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.pipe.agent.task.meta.PipeTaskMeta;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
 import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
 import org.apache.iotdb.db.pipe.event.common.PipeInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventParser;
 import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
+import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryBlock;
 import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryWeightUtil;
 import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
 import org.apache.iotdb.pipe.api.exception.PipeException;
@@ -54,13 +58,18 @@ import org.apache.tsfile.write.schema.MeasurementSchema;
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class TsFileInsertionEventScanParser extends TsFileInsertionEventParser {
 
@@ -88,6 +97,14 @@ public class TsFileInsertionEventScanParser extends TsFileInsertionEventParser {
 
   private byte lastMarker = Byte.MIN_VALUE;
 
+  // Chunks are parsed into tablets by a worker pool when the parallelism is greater than 1, while
+  // the file is still read sequentially by the caller thread and tablets are emitted in file order
+  private final int parsingParallelism =
+      PipeConfig.getInstance().getPipeTsFileScanParsingParallelism();
+  private final Deque<ScanUnit> pendingScanUnits = new ArrayDeque<>();
+  private ScanUnit currentScanUnit;
+  private int currentTabletIndex;
+
   public TsFileInsertionEventScanParser(
       final File tsFile,
       final TreePattern pattern,
@@ -115,6 +132,10 @@ public class TsFileInsertionEventScanParser extends TsFileInsertionEventParser {
 
   @Override
   public Iterable<TabletInsertionEvent> toTabletInsertionEvents() {
+    if (parsingParallelism > 1) {
+      return ParallelTabletInsertionEventIterator::new;
+    }
+
     return () ->
         new Iterator<TabletInsertionEvent>() {
 
@@ -157,6 +178,206 @@ public class TsFileInsertionEventScanParser extends TsFileInsertionEventParser {
         };
   }
 
+  private class ParallelTabletInsertionEventIterator implements Iterator<TabletInsertionEvent> {
+
+    @Override
+    public boolean hasNext() {
+      return Objects.nonNull(currentScanUnit)
+              && currentTabletIndex < currentScanUnit.getParsedTablets().size()
+          || !pendingScanUnits.isEmpty()
+          || Objects.nonNull(chunkReader);
+    }
+
+    @Override
+    public TabletInsertionEvent next() {
+      if (!hasNext()) {
+        close();
+        throw new NoSuchElementException();
+      }
+
+      try {
+        if (Objects.isNull(currentScanUnit)
+            || currentTabletIndex >= currentScanUnit.getParsedTablets().size()) {
+          if (Objects.nonNull(currentScanUnit)) {
+            currentScanUnit.release();
+          }
+          submitScanUnits();
+          currentScanUnit = pendingScanUnits.poll();
+          currentScanUnit.waitForParsed();
+          currentTabletIndex = 0;
+        }
+
+        final boolean isAligned = currentScanUnit.isAligned;
+        final Tablet tablet = currentScanUnit.getParsedTablets().get(currentTabletIndex++);
+        // Keep the workers busy while the caller is handling the current tablet
+        submitScanUnits();
+        final boolean hasNext = hasNext();
+        try {
+          return new PipeRawTabletInsertionEvent(
+              sourceEvent != null ? sourceEvent.isTableModelEvent() : null,
+              sourceEvent != null ? sourceEvent.getTreeModelDatabaseName() : null,
+              tablet,
+              isAligned,
+              sourceEvent != null ? sourceEvent.getPipeName() : null,
+              sourceEvent != null ? sourceEvent.getCreationTime() : 0,
+              pipeTaskMeta,
+              sourceEvent,
+              !hasNext);
+        } finally {
+          if (!hasNext) {
+            close();
+          }
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        close();
+        throw new PipeException("Interrupted while parsing tsfile in parallel.", e);
+      } catch (final Exception e) {
+        close();
+        throw new PipeException("Failed to get next tablet insertion event.", e);
+      }
+    }
+
+    private void submitScanUnits() throws IOException {
+      // Memory of the parsed tablets is bounded by the pipe memory manager: only the next scan
+      // unit is parsed ahead if the memory for tablets is not enough
+      while (Objects.nonNull(chunkReader)
+          && pendingScanUnits.size() < parsingParallelism
+          && (pendingScanUnits.isEmpty()
+              || PipeDataNodeResourceManager.memory().isEnough4TabletParsing())) {
+        final ScanUnit scanUnit =
+            new ScanUnit(
+                chunkReader,
+                data,
+                currentDevice,
+                new ArrayList<>(currentMeasurements),
+                currentIsAligned,
+                currentIsMultiPage);
+        scanUnit.submit();
+        pendingScanUnits.add(scanUnit);
+        prepareData();
+      }
+    }
+  }
+
+  /** All the tablets of one chunk reader, which is parsed by one worker thread. */
+  private class ScanUnit {
+
+    private final IChunkReader chunkReader;
+    private BatchData data;
+    private final IDeviceID device;
+    private final List<IMeasurementSchema> measurements;
+    private final boolean isAligned;
+    private final boolean isMultiPage;
+
+    private final PipeMemoryBlock allocatedMemoryBlock;
+    private Future<List<Tablet>> future;
+    private List<Tablet> parsedTablets;
+    // Guarded by this scan unit, so that the memory block is never resized after it is closed
+    private boolean isReleased = false;
+
+    private ScanUnit(
+        final IChunkReader chunkReader,
+        final BatchData data,
+        final IDeviceID device,
+        final List<IMeasurementSchema> measurements,
+        final boolean isAligned,
+        final boolean isMultiPage) {
+      this.chunkReader = chunkReader;
+      this.data = data;
+      this.device = device;
+      this.measurements = measurements;
+      this.isAligned = isAligned;
+      this.isMultiPage = isMultiPage;
+      this.allocatedMemoryBlock =
+          PipeDataNodeResourceManager.memory().forceAllocateForTabletWithRetry(0);
+    }
+
+    private void submit() {
+      future = ParsingExecutorHolder.EXECUTOR.submit(this::parse);
+    }
+
+    private List<Tablet> parse() throws IOException {
+      final List<Tablet> tablets = new ArrayList<>();
+      long memoryUsageInBytes = 0;
+      do {
+        Tablet tablet = null;
+        while (data.hasCurrent()) {
+          if (isMultiPage || data.currentTime() >= startTime && data.currentTime() <= endTime) {
+            if (Objects.isNull(tablet)) {
+              // Calculate row count and memory size of the tablet based on the first row
+              final Pair<Integer, Integer> rowCountAndMemorySize =
+                  PipeMemoryWeightUtil.calculateTabletRowCountAndMemory(data);
+              tablet = new Tablet(device.toString(), measurements, rowCountAndMemorySize.getLeft());
+              tablet.initBitMaps();
+              memoryUsageInBytes += rowCountAndMemorySize.getRight();
+              resizeMemoryBlock(memoryUsageInBytes);
+            }
+
+            final int rowIndex = tablet.getRowSize();
+            tablet.addTimestamp(rowIndex, data.currentTime());
+            putValueToColumns(data, tablet, rowIndex);
+          }
+
+          data.next();
+          while (!data.hasCurrent() && chunkReader.hasNextSatisfiedPage()) {
+            data = chunkReader.nextPageData();
+          }
+
+          if (Objects.nonNull(tablet) && tablet.getRowSize() == tablet.getMaxRowNumber()) {
+            break;
+          }
+        }
+
+        if (Objects.isNull(tablet)) {
+          tablet = new Tablet(device.toString(), measurements, 1);
+          tablet.initBitMaps();
+        }
+        tablets.add(tablet);
+      } while (data.hasCurrent() && !Thread.currentThread().isInterrupted());
+      return tablets;
+    }
+
+    private synchronized void resizeMemoryBlock(final long memoryUsageInBytes) {
+      if (isReleased) {
+        throw new PipeException("The scan unit has been released, stop parsing.");
+      }
+      PipeDataNodeResourceManager.memory().forceResize(allocatedMemoryBlock, memoryUsageInBytes);
+    }
+
+    private void waitForParsed() throws InterruptedException, ExecutionException {
+      parsedTablets = future.get();
+    }
+
+    private List<Tablet> getParsedTablets() {
+      return parsedTablets;
+    }
+
+    private void release() {
+      if (Objects.nonNull(future)) {
+        future.cancel(true);
+      }
+      // A cancelled worker may still be resizing the memory block, wait for it before closing
+      synchronized (this) {
+        isReleased = true;
+        parsedTablets = null;
+        allocatedMemoryBlock.close();
+      }
+    }
+  }
+
+  private static class ParsingExecutorHolder {
+
+    private static final ExecutorService EXECUTOR =
+        IoTDBThreadPoolFactory.newFixedThreadPoolWithDaemonThread(
+            Math.max(1, PipeConfig.getInstance().getPipeTsFileScanParsingParallelism()),
+            ThreadName.PIPE_TSFILE_PARSER_EXECUTOR_POOL.getName());
+
+    private ParsingExecutorHolder() {
+      // Empty constructor
+    }
+  }
+
   public Iterable<Pair<Tablet, Boolean>> toTabletWithIsAligneds() {
     return () ->
         new Iterator<Pair<Tablet, Boolean>>() {
@@ -260,7 +481,8 @@ public class TsFileInsertionEventScanParser extends TsFileInsertionEventParser {
       } while (Objects.nonNull(chunkReader) && !chunkReader.hasNextSatisfiedPage());
 
       if (Objects.isNull(chunkReader)) {
-        close();
+        // Only close the reader here, the scan units may still be parsed in parallel
+        super.close();
         break;
       }
 
@@ -270,7 +492,8 @@ public class TsFileInsertionEventScanParser extends TsFileInsertionEventParser {
     } while (!data.hasCurrent());
   }
 
-  private void putValueToColumns(final BatchData data, final Tablet tablet, final int rowIndex) {
+  private static void putValueToColumns(
+      final BatchData data, final Tablet tablet, final int rowIndex) {
     final Object[] columns = tablet.values;
 
     if (data.getDataType() == TSDataType.VECTOR) {
@@ -483,7 +706,12 @@ public class TsFileInsertionEventScanParser extends TsFileInsertionEventParser {
   private boolean recordAlignedChunk(final List<Chunk> valueChunkList, final byte marker)
       throws IOException {
     if (!valueChunkList.isEmpty()) {
-      final Chunk timeChunk = timeChunkList.get(lastIndex);
+      // The time chunk may be shared by several chunk readers which are parsed in parallel, so
+      // each reader should own its buffer
+      final Chunk timeChunk =
+          new Chunk(
+              timeChunkList.get(lastIndex).getHeader(),
+              timeChunkList.get(lastIndex).getData().duplicate());
       timeChunk.getData().rewind();
       currentIsMultiPage = isMultiPageList.get(lastIndex);
       chunkReader =
@@ -496,4 +724,18 @@ public class TsFileInsertionEventScanParser extends TsFileInsertionEventParser {
     }
     return false;
   }
+
+  @Override
+  public void close() {
+    if (Objects.nonNull(currentScanUnit)) {
+      currentScanUnit.release();
+      currentScanUnit = null;
+    }
+    ScanUnit scanUnit;
+    while (Objects.nonNull(scanUnit = pendingScanUnits.poll())) {
+      scanUnit.release();
+    }
+
+    super.close();
+  }
 }
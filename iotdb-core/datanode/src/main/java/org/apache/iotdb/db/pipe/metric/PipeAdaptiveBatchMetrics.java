@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.metric;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeAdaptiveBatchController;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Exposes the batch settings chosen by each {@link PipeAdaptiveBatchController}. */
+public class PipeAdaptiveBatchMetrics implements IMetricSet {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipeAdaptiveBatchMetrics.class);
+
+  @SuppressWarnings("java:S3077")
+  private volatile AbstractMetricService metricService;
+
+  private final Map<Long, PipeAdaptiveBatchController> controllerMap = new ConcurrentHashMap<>();
+
+  //////////////////////////// bindTo & unbindFrom (metric framework) ////////////////////////////
+
+  @Override
+  public void bindTo(final AbstractMetricService metricService) {
+    this.metricService = metricService;
+    final ImmutableSet<Long> controllerIds = ImmutableSet.copyOf(controllerMap.keySet());
+    for (final Long controllerId : controllerIds) {
+      createMetrics(controllerId);
+    }
+  }
+
+  private void createMetrics(final Long controllerId) {
+    final PipeAdaptiveBatchController controller = controllerMap.get(controllerId);
+    if (Objects.isNull(controller)) {
+      return;
+    }
+    final String endPoint = controller.getEndPointString();
+    final String id = String.valueOf(controllerId);
+
+    metricService.createAutoGauge(
+        Metric.PIPE_CONNECTOR_ADAPTIVE_BATCH_SIZE.toString(),
+        MetricLevel.IMPORTANT,
+        controller,
+        PipeAdaptiveBatchController::getBatchSizeInBytes,
+        Tag.NAME.toString(),
+        endPoint,
+        Tag.INDEX.toString(),
+        id);
+    metricService.createAutoGauge(
+        Metric.PIPE_CONNECTOR_ADAPTIVE_BATCH_DELAY.toString(),
+        MetricLevel.IMPORTANT,
+        controller,
+        PipeAdaptiveBatchController::getBatchDelayInMs,
+        Tag.NAME.toString(),
+        endPoint,
+        Tag.INDEX.toString(),
+        id);
+    metricService.createAutoGauge(
+        Metric.PIPE_CONNECTOR_ADAPTIVE_IN_FLIGHT_LIMIT.toString(),
+        MetricLevel.IMPORTANT,
+        controller,
+        PipeAdaptiveBatchController::getInFlightLimit,
+        Tag.NAME.toString(),
+        endPoint,
+        Tag.INDEX.toString(),
+        id);
+    metricService.createAutoGauge(
+        Metric.PIPE_CONNECTOR_ADAPTIVE_IN_FLIGHT_COUNT.toString(),
+        MetricLevel.IMPORTANT,
+        controller,
+        PipeAdaptiveBatchController::getInFlightCount,
+        Tag.NAME.toString(),
+        endPoint,
+        Tag.INDEX.toString(),
+        id);
+    metricService.createAutoGauge(
+        Metric.PIPE_CONNECTOR_ADAPTIVE_LATENCY_PER_KB.toString(),
+        MetricLevel.IMPORTANT,
+        controller,
+        PipeAdaptiveBatchController::getSmoothedLatencyNanosPerKB,
+        Tag.NAME.toString(),
+        endPoint,
+        Tag.INDEX.toString(),
+        id);
+  }
+
+  @Override
+  public void unbindFrom(final AbstractMetricService metricService) {
+    final ImmutableSet<Long> controllerIds = ImmutableSet.copyOf(controllerMap.keySet());
+    for (final Long controllerId : controllerIds) {
+      removeMetrics(controllerId);
+    }
+    if (!controllerMap.isEmpty()) {
+      LOGGER.warn("Failed to unbind from pipe adaptive batch metrics, controller map not empty");
+    }
+  }
+
+  private void removeMetrics(final Long controllerId) {
+    final PipeAdaptiveBatchController controller = controllerMap.get(controllerId);
+    if (Objects.isNull(controller)) {
+      return;
+    }
+    final String endPoint = controller.getEndPointString();
+    final String id = String.valueOf(controllerId);
+
+    for (final Metric metric :
+        new Metric[] {
+          Metric.PIPE_CONNECTOR_ADAPTIVE_BATCH_SIZE,
+          Metric.PIPE_CONNECTOR_ADAPTIVE_BATCH_DELAY,
+          Metric.PIPE_CONNECTOR_ADAPTIVE_IN_FLIGHT_LIMIT,
+          Metric.PIPE_CONNECTOR_ADAPTIVE_IN_FLIGHT_COUNT,
+          Metric.PIPE_CONNECTOR_ADAPTIVE_LATENCY_PER_KB
+        }) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          metric.toString(),
+          Tag.NAME.toString(),
+          endPoint,
+          Tag.INDEX.toString(),
+          id);
+    }
+  }
+
+  //////////////////////////// register & deregister (pipe integration) ////////////////////////////
+
+  public void register(final PipeAdaptiveBatchController controller) {
+    controllerMap.putIfAbsent(controller.getId(), controller);
+    if (Objects.nonNull(metricService)) {
+      createMetrics(controller.getId());
+    }
+  }
+
+  public void deregister(final PipeAdaptiveBatchController controller) {
+    if (Objects.isNull(controller) || !controllerMap.containsKey(controller.getId())) {
+      return;
+    }
+    if (Objects.nonNull(metricService)) {
+      removeMetrics(controller.getId());
+    }
+    controllerMap.remove(controller.getId());
+  }
+
+  //////////////////////////// singleton ////////////////////////////
+
+  private static class PipeAdaptiveBatchMetricsHolder {
+
+    private static final PipeAdaptiveBatchMetrics INSTANCE = new PipeAdaptiveBatchMetrics();
+
+    private PipeAdaptiveBatchMetricsHolder() {
+      // empty constructor
+    }
+  }
+
+  public static PipeAdaptiveBatchMetrics getInstance() {
+    return PipeAdaptiveBatchMetricsHolder.INSTANCE;
+  }
+
+  private PipeAdaptiveBatchMetrics() {
+    // empty constructor
+  }
+}
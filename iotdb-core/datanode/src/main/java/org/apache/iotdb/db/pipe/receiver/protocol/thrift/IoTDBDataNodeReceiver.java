@@ -23,12 +23,14 @@ import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.pipe.connector.compressor.PipeCompressionDictionaryNotFoundException;
 import org.apache.iotdb.commons.pipe.connector.payload.airgap.AirGapPseudoTPipeTransferRequest;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.common.PipeTransferSliceReqHandler;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeRequestType;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferCompressedReq;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileSealReqV1;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileSealReqV2;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileStreamOpenReq;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferSliceReq;
 import org.apache.iotdb.commons.pipe.datastructure.pattern.IoTDBTreePattern;
 import org.apache.iotdb.commons.pipe.receiver.IoTDBFileReceiver;
@@ -394,10 +396,22 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
                     .recordTransferSliceTimer(System.nanoTime() - startTime);
               }
             }
+          case TRANSFER_FILE_STREAM_OPEN:
+            {
+              return handleTransferFileStreamOpen(
+                  PipeTransferFileStreamOpenReq.fromTPipeTransferReq(req));
+            }
           case TRANSFER_COMPRESSED:
             {
               try {
                 return receive(PipeTransferCompressedReq.fromTPipeTransferReq(req));
+              } catch (final PipeCompressionDictionaryNotFoundException e) {
+                // The sender will embed the dictionary again in one of the retried requests
+                LOGGER.info("Receiver id = {}: {}", receiverId.get(), e.getMessage());
+                return new TPipeTransferResp(
+                    RpcUtils.getStatus(
+                        TSStatusCode.PIPE_RECEIVER_TEMPORARY_UNAVAILABLE_EXCEPTION,
+                        e.getMessage()));
               } finally {
                 PipeDataNodeReceiverMetrics.getInstance()
                     .recordTransferCompressedTimer(System.nanoTime() - startTime);
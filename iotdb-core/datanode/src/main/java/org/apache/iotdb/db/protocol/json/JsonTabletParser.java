@@ -0,0 +1,410 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.json;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.utils.DateUtils;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Parses JSON tablets of the form
+ *
+ * <p>{ "device":"root.sg.d1", "timestamps":[1,2], "measurements":["s1","s2"],
+ * "data_types":["INT64","DOUBLE"], "values":[...], "is_aligned":false }
+ *
+ * <p>with a {@link JsonTokenReader}, writing the timestamps and values straight into the primitive
+ * arrays of a {@link Tablet}. The values are either row major, i.e. one array per timestamp like
+ * the batched MQTT JSON payload, or column major, i.e. one array per measurement like the REST
+ * insertTablet request. Keys may appear in any order.
+ */
+public class JsonTabletParser {
+
+  public static final String KEY_DEVICE = "device";
+  public static final String KEY_TIMESTAMP = "timestamp";
+  public static final String KEY_TIMESTAMPS = "timestamps";
+  public static final String KEY_MEASUREMENTS = "measurements";
+  public static final String KEY_DATA_TYPES = "data_types";
+  public static final String KEY_VALUES = "values";
+  public static final String KEY_IS_ALIGNED = "is_aligned";
+
+  private static final Binary EMPTY_BINARY = new Binary(new byte[0]);
+
+  private final JsonTokenReader reader;
+  private final boolean isRowMajor;
+
+  // positions of the values of the last scanned object, -1 if it has no such key
+  private int devicePosition = -1;
+  private int timestampsPosition = -1;
+  private int measurementsPosition = -1;
+  private int dataTypesPosition = -1;
+  private int valuesPosition = -1;
+  private int isAlignedPosition = -1;
+
+  public JsonTabletParser(final JsonTokenReader reader, final boolean isRowMajor) {
+    this.reader = reader;
+    this.isRowMajor = isRowMajor;
+  }
+
+  /**
+   * Parses a payload holding one tablet object or an array of tablet objects.
+   *
+   * @return null if any object of the payload is not a tablet with explicit data types
+   */
+  public List<Tablet> parseTablets() {
+    if (reader.peek() == JsonTokenReader.Token.BEGIN_OBJECT) {
+      final Tablet tablet = parseTablet();
+      return tablet == null ? null : Collections.singletonList(tablet);
+    }
+
+    final List<Tablet> tablets = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      final Tablet tablet = parseTablet();
+      if (tablet == null) {
+        return null;
+      }
+      tablets.add(tablet);
+    }
+    reader.endArray();
+    return tablets;
+  }
+
+  /**
+   * Parses the next tablet object. The returned tablet is sorted by time.
+   *
+   * @return null if the object is not a tablet with explicit data types, the reader is left at the
+   *     start of the object then so that it can be parsed in another way
+   */
+  public Tablet parseTablet() {
+    final int startPosition = reader.position();
+    // locate the values first so that they are decoded in the order they are needed
+    devicePosition = -1;
+    timestampsPosition = -1;
+    measurementsPosition = -1;
+    dataTypesPosition = -1;
+    valuesPosition = -1;
+    isAlignedPosition = -1;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      final String name = reader.nextName();
+      final int position = reader.position();
+      switch (name) {
+        case KEY_DEVICE:
+          devicePosition = position;
+          break;
+        case KEY_TIMESTAMPS:
+          timestampsPosition = position;
+          break;
+        case KEY_MEASUREMENTS:
+          measurementsPosition = position;
+          break;
+        case KEY_DATA_TYPES:
+          dataTypesPosition = position;
+          break;
+        case KEY_VALUES:
+          valuesPosition = position;
+          break;
+        case KEY_IS_ALIGNED:
+          isAlignedPosition = position;
+          break;
+        default:
+          break;
+      }
+      reader.skipValue();
+    }
+    reader.endObject();
+    final int endPosition = reader.position();
+
+    if (timestampsPosition < 0 || dataTypesPosition < 0) {
+      reader.seek(startPosition);
+      return null;
+    }
+    final String device = checkPresent(getDevice(), KEY_DEVICE);
+    final List<String> measurements = checkPresent(getMeasurements(), KEY_MEASUREMENTS);
+    final List<String> dataTypes = checkPresent(getDataTypes(), KEY_DATA_TYPES);
+    if (valuesPosition < 0) {
+      throw new IllegalArgumentException(KEY_VALUES + " should not be null");
+    }
+    if (measurements.size() != dataTypes.size()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "The number of measurements %d and data types %d of device %s do not match",
+              measurements.size(), dataTypes.size(), device));
+    }
+    final List<IMeasurementSchema> schemas = new ArrayList<>(measurements.size());
+    for (int i = 0; i < measurements.size(); i++) {
+      schemas.add(
+          new MeasurementSchema(
+              measurements.get(i), TSDataType.valueOf(dataTypes.get(i).toUpperCase(Locale.ROOT))));
+    }
+
+    reader.seek(timestampsPosition);
+    reader.beginArray();
+    final int rowCount = reader.countRemainingElements();
+    final Tablet tablet = new Tablet(device, schemas, Math.max(rowCount, 1));
+    tablet.initBitMaps();
+    final long[] timestamps = tablet.getTimestamps();
+    boolean isSorted = true;
+    for (int i = 0; i < rowCount; i++) {
+      timestamps[i] = reader.nextLong();
+      isSorted &= i == 0 || timestamps[i - 1] <= timestamps[i];
+    }
+    reader.endArray();
+    tablet.setRowSize(rowCount);
+
+    reader.seek(valuesPosition);
+    if (isRowMajor) {
+      parseRowMajorValues(tablet, rowCount, schemas);
+    } else {
+      parseColumnMajorValues(tablet, rowCount, schemas);
+    }
+
+    reader.seek(endPosition);
+    if (!isSorted) {
+      sortByTime(tablet);
+    }
+    return tablet;
+  }
+
+  /*
+   * The getters below decode a value of the last scanned object on demand, also when it was not a
+   * tablet or could not be parsed, so that the caller can validate the object.
+   */
+
+  /** The device of the last scanned object, null if it has none. */
+  public String getDevice() {
+    return decodeAt(devicePosition, reader::nextString);
+  }
+
+  /** The measurements of the last scanned object, null if it has none. */
+  public List<String> getMeasurements() {
+    return decodeAt(measurementsPosition, this::parseStrings);
+  }
+
+  /** The data types of the last scanned object, null if it has none. */
+  public List<String> getDataTypes() {
+    return decodeAt(dataTypesPosition, this::parseStrings);
+  }
+
+  /** Whether the last scanned object is aligned, null if the object does not tell. */
+  public Boolean isAligned() {
+    return decodeAt(isAlignedPosition, reader::nextBoolean);
+  }
+
+  private <T> T decodeAt(final int position, final Supplier<T> decoder) {
+    if (position < 0) {
+      return null;
+    }
+    final int currentPosition = reader.position();
+    reader.seek(position);
+    try {
+      return reader.nextNullIfPresent() ? null : decoder.get();
+    } finally {
+      reader.seek(currentPosition);
+    }
+  }
+
+  private void parseRowMajorValues(
+      final Tablet tablet, final int rowCount, final List<IMeasurementSchema> schemas) {
+    reader.beginArray();
+    for (int row = 0; row < rowCount; row++) {
+      checkHasNext(row, rowCount);
+      reader.beginArray();
+      for (int column = 0; column < schemas.size(); column++) {
+        checkHasNext(column, schemas.size());
+        parseValue(tablet, row, column, schemas.get(column).getType());
+      }
+      reader.endArray();
+    }
+    reader.endArray();
+  }
+
+  private void parseColumnMajorValues(
+      final Tablet tablet, final int rowCount, final List<IMeasurementSchema> schemas) {
+    reader.beginArray();
+    for (int column = 0; column < schemas.size(); column++) {
+      checkHasNext(column, schemas.size());
+      final TSDataType dataType = schemas.get(column).getType();
+      reader.beginArray();
+      for (int row = 0; row < rowCount; row++) {
+        checkHasNext(row, rowCount);
+        parseValue(tablet, row, column, dataType);
+      }
+      reader.endArray();
+    }
+    reader.endArray();
+  }
+
+  private void parseValue(
+      final Tablet tablet, final int row, final int column, final TSDataType dataType) {
+    final Object values = tablet.getValues()[column];
+    if (reader.nextNullIfPresent()) {
+      tablet.getBitMaps()[column].mark(row);
+      if (values instanceof Binary[]) {
+        ((Binary[]) values)[row] = EMPTY_BINARY;
+      }
+      return;
+    }
+    switch (dataType) {
+      case BOOLEAN:
+        ((boolean[]) values)[row] = reader.nextBoolean();
+        break;
+      case INT32:
+        ((int[]) values)[row] = reader.nextInt();
+        break;
+      case DATE:
+        ((LocalDate[]) values)[row] = DateUtils.parseIntToLocalDate(reader.nextInt());
+        break;
+      case INT64:
+      case TIMESTAMP:
+        ((long[]) values)[row] = reader.nextLong();
+        break;
+      case FLOAT:
+        ((float[]) values)[row] = reader.nextFloat();
+        break;
+      case DOUBLE:
+        ((double[]) values)[row] = reader.nextDouble();
+        break;
+      case TEXT:
+      case STRING:
+      case BLOB:
+        ((Binary[]) values)[row] = new Binary(reader.nextBytes());
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported data type: " + dataType);
+    }
+  }
+
+  private List<String> parseStrings() {
+    final List<String> strings = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      strings.add(reader.nextString());
+    }
+    reader.endArray();
+    return strings;
+  }
+
+  private void checkHasNext(final int index, final int expectedCount) {
+    if (!reader.hasNext()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expected %d values but found %d at position %d",
+              expectedCount, index, reader.position()));
+    }
+  }
+
+  private static <T> T checkPresent(final T value, final String key) {
+    if (value == null) {
+      throw new IllegalArgumentException(key + " should not be null");
+    }
+    return value;
+  }
+
+  /** Stable sort of the rows by time, moving the values and the null marks along. */
+  public static void sortByTime(final Tablet tablet) {
+    final int rowCount = tablet.getRowSize();
+    final long[] timestamps = tablet.getTimestamps();
+    final Integer[] order = new Integer[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(timestamps[a], timestamps[b]));
+
+    final long[] sortedTimestamps = new long[timestamps.length];
+    for (int i = 0; i < rowCount; i++) {
+      sortedTimestamps[i] = timestamps[order[i]];
+    }
+    tablet.setTimestamps(sortedTimestamps);
+
+    final Object[] values = tablet.getValues();
+    final BitMap[] bitMaps = tablet.getBitMaps();
+    for (int column = 0; column < values.length; column++) {
+      values[column] = reorder(values[column], order);
+      if (bitMaps != null && bitMaps[column] != null && !bitMaps[column].isAllUnmarked()) {
+        final BitMap sortedBitMap = new BitMap(bitMaps[column].getSize());
+        for (int i = 0; i < rowCount; i++) {
+          if (bitMaps[column].isMarked(order[i])) {
+            sortedBitMap.mark(i);
+          }
+        }
+        bitMaps[column] = sortedBitMap;
+      }
+    }
+  }
+
+  private static Object reorder(final Object column, final Integer[] order) {
+    if (column instanceof boolean[]) {
+      final boolean[] source = (boolean[]) column;
+      final boolean[] target = new boolean[source.length];
+      for (int i = 0; i < order.length; i++) {
+        target[i] = source[order[i]];
+      }
+      return target;
+    } else if (column instanceof int[]) {
+      final int[] source = (int[]) column;
+      final int[] target = new int[source.length];
+      for (int i = 0; i < order.length; i++) {
+        target[i] = source[order[i]];
+      }
+      return target;
+    } else if (column instanceof long[]) {
+      final long[] source = (long[]) column;
+      final long[] target = new long[source.length];
+      for (int i = 0; i < order.length; i++) {
+        target[i] = source[order[i]];
+      }
+      return target;
+    } else if (column instanceof float[]) {
+      final float[] source = (float[]) column;
+      final float[] target = new float[source.length];
+      for (int i = 0; i < order.length; i++) {
+        target[i] = source[order[i]];
+      }
+      return target;
+    } else if (column instanceof double[]) {
+      final double[] source = (double[]) column;
+      final double[] target = new double[source.length];
+      for (int i = 0; i < order.length; i++) {
+        target[i] = source[order[i]];
+      }
+      return target;
+    } else {
+      final Object[] source = (Object[]) column;
+      final Object[] target = Arrays.copyOf(source, source.length);
+      for (int i = 0; i < order.length; i++) {
+        target[i] = source[order[i]];
+      }
+      return target;
+    }
+  }
+}
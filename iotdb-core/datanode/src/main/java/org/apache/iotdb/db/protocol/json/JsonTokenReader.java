@@ -0,0 +1,491 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A pull based JSON tokenizer over UTF-8 bytes. Unlike a tree based parser, numbers are decoded
+ * straight from the bytes into primitives and strings are only materialized when asked for, so
+ * large batched payloads can be converted into tablets with few allocations.
+ *
+ * <p>Commas and colons are treated as separators and are not validated. The reader can be moved to
+ * any value position returned by {@link #position()}, which allows a caller to skip over a value
+ * and come back to it later.
+ */
+public class JsonTokenReader {
+
+  public enum Token {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    STRING,
+    NUMBER,
+    TRUE,
+    FALSE,
+    NULL,
+    END_DOCUMENT
+  }
+
+  // 10^0 to 10^22 are exactly representable as double
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  // max mantissa that a double holds exactly
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  private final byte[] bytes;
+  private final int limit;
+  private int position;
+
+  private final StringBuilder escapeBuilder = new StringBuilder();
+
+  public JsonTokenReader(final byte[] bytes) {
+    this(bytes, 0, bytes.length);
+  }
+
+  public JsonTokenReader(final byte[] bytes, final int offset, final int length) {
+    this.bytes = bytes;
+    this.position = offset;
+    this.limit = offset + length;
+  }
+
+  public int position() {
+    return position;
+  }
+
+  public void seek(final int position) {
+    this.position = position;
+  }
+
+  /////////////////////////////// Structure ///////////////////////////////
+
+  public Token peek() {
+    skipSeparators();
+    if (position >= limit) {
+      return Token.END_DOCUMENT;
+    }
+    switch (bytes[position]) {
+      case '{':
+        return Token.BEGIN_OBJECT;
+      case '}':
+        return Token.END_OBJECT;
+      case '[':
+        return Token.BEGIN_ARRAY;
+      case ']':
+        return Token.END_ARRAY;
+      case '"':
+        return Token.STRING;
+      case 't':
+        return Token.TRUE;
+      case 'f':
+        return Token.FALSE;
+      case 'n':
+        return Token.NULL;
+      default:
+        if (bytes[position] == '-' || isDigit(bytes[position])) {
+          return Token.NUMBER;
+        }
+        throw syntaxError("Unexpected character '" + (char) bytes[position] + "'");
+    }
+  }
+
+  /** Returns true if the current array or object has another element. */
+  public boolean hasNext() {
+    final Token token = peek();
+    return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+  }
+
+  public void beginObject() {
+    expect(Token.BEGIN_OBJECT);
+    position++;
+  }
+
+  public void endObject() {
+    expect(Token.END_OBJECT);
+    position++;
+  }
+
+  public void beginArray() {
+    expect(Token.BEGIN_ARRAY);
+    position++;
+  }
+
+  public void endArray() {
+    expect(Token.END_ARRAY);
+    position++;
+  }
+
+  /** Counts the remaining elements of the current array without decoding them. */
+  public int countRemainingElements() {
+    final int start = position;
+    int count = 0;
+    while (hasNext()) {
+      skipValue();
+      count++;
+    }
+    position = start;
+    return count;
+  }
+
+  /** Skips the next value, including all nested arrays and objects. */
+  public void skipValue() {
+    int depth = 0;
+    do {
+      final Token token = peek();
+      switch (token) {
+        case BEGIN_OBJECT:
+        case BEGIN_ARRAY:
+          depth++;
+          position++;
+          break;
+        case END_OBJECT:
+        case END_ARRAY:
+          depth--;
+          position++;
+          break;
+        case STRING:
+          position = findStringEnd(position + 1) + 1;
+          break;
+        case NUMBER:
+          position = findNumberEnd(position);
+          break;
+        case TRUE:
+          expectLiteral("true");
+          break;
+        case FALSE:
+          expectLiteral("false");
+          break;
+        case NULL:
+          expectLiteral("null");
+          break;
+        default:
+          throw syntaxError("Unexpected end of document");
+      }
+    } while (depth > 0);
+  }
+
+  /////////////////////////////// Values ///////////////////////////////
+
+  /** Returns true and consumes the literal if the next value is null. */
+  public boolean nextNullIfPresent() {
+    if (peek() == Token.NULL) {
+      expectLiteral("null");
+      return true;
+    }
+    return false;
+  }
+
+  public String nextName() {
+    expect(Token.STRING);
+    return nextString();
+  }
+
+  /** Returns the next string, or the literal text of the next number or boolean. */
+  public String nextString() {
+    final Token token = peek();
+    if (token == Token.STRING) {
+      final int start = position + 1;
+      final int end = findStringEnd(start);
+      position = end + 1;
+      return hasEscape(start, end)
+          ? unescape(start, end)
+          : new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+    final int start = position;
+    skipScalar(token);
+    return new String(bytes, start, position - start, StandardCharsets.UTF_8);
+  }
+
+  /** Returns the UTF-8 bytes of the next string, or of the literal text of a number or boolean. */
+  public byte[] nextBytes() {
+    final Token token = peek();
+    if (token == Token.STRING) {
+      final int start = position + 1;
+      final int end = findStringEnd(start);
+      position = end + 1;
+      return hasEscape(start, end)
+          ? unescape(start, end).getBytes(StandardCharsets.UTF_8)
+          : Arrays.copyOfRange(bytes, start, end);
+    }
+    final int start = position;
+    skipScalar(token);
+    return Arrays.copyOfRange(bytes, start, position);
+  }
+
+  /** Accepts true and false, their string forms ignoring case, and the numbers 1 and 0. */
+  public boolean nextBoolean() {
+    final Token token = peek();
+    if (token == Token.TRUE) {
+      expectLiteral("true");
+      return true;
+    }
+    if (token == Token.FALSE) {
+      expectLiteral("false");
+      return false;
+    }
+    final String value = nextString();
+    if ("1".equals(value) || "true".equalsIgnoreCase(value)) {
+      return true;
+    }
+    if ("0".equals(value) || "false".equalsIgnoreCase(value)) {
+      return false;
+    }
+    throw new IllegalArgumentException("Value " + value + " is not a boolean");
+  }
+
+  public int nextInt() {
+    final long value = nextLong();
+    if ((int) value != value) {
+      throw new NumberFormatException("Value " + value + " overflows int");
+    }
+    return (int) value;
+  }
+
+  /** Accepts integral numbers and strings holding them. */
+  public long nextLong() {
+    if (peek() != Token.NUMBER) {
+      return Long.parseLong(nextString().trim());
+    }
+    final int start = position;
+    final int end = findNumberEnd(start);
+    final boolean isNegative = bytes[start] == '-';
+    final int digitsStart = isNegative ? start + 1 : start;
+    // at most 18 digits never overflow, longer ones are left to the JDK
+    if (end - digitsStart > 18 || end == digitsStart) {
+      position = end;
+      return Long.parseLong(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+    }
+    long value = 0;
+    for (int i = digitsStart; i < end; i++) {
+      if (!isDigit(bytes[i])) {
+        throw new NumberFormatException(
+            "Value "
+                + new String(bytes, start, end - start, StandardCharsets.US_ASCII)
+                + " is not an integer");
+      }
+      value = value * 10 + (bytes[i] - '0');
+    }
+    position = end;
+    return isNegative ? -value : value;
+  }
+
+  public float nextFloat() {
+    return (float) nextDouble();
+  }
+
+  /** Accepts numbers and strings holding them. */
+  public double nextDouble() {
+    if (peek() != Token.NUMBER) {
+      return Double.parseDouble(nextString());
+    }
+    final int start = position;
+    final int end = findNumberEnd(start);
+    position = end;
+
+    int i = start;
+    final boolean isNegative = bytes[i] == '-';
+    if (isNegative) {
+      i++;
+    }
+    long mantissa = 0;
+    int digitCount = 0;
+    int exponent = 0;
+    for (; i < end && isDigit(bytes[i]); i++) {
+      mantissa = mantissa * 10 + (bytes[i] - '0');
+      if (mantissa != 0) {
+        digitCount++;
+      }
+    }
+    if (i < end && bytes[i] == '.') {
+      for (i++; i < end && isDigit(bytes[i]); i++) {
+        mantissa = mantissa * 10 + (bytes[i] - '0');
+        if (mantissa != 0) {
+          digitCount++;
+        }
+        exponent--;
+      }
+    }
+    if (i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+      i++;
+      final boolean isExponentNegative = i < end && bytes[i] == '-';
+      if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+        i++;
+      }
+      int explicitExponent = 0;
+      for (; i < end && isDigit(bytes[i]) && explicitExponent < 10_000; i++) {
+        explicitExponent = explicitExponent * 10 + (bytes[i] - '0');
+      }
+      exponent += isExponentNegative ? -explicitExponent : explicitExponent;
+    }
+
+    // exact conversion if both the mantissa and the power of ten are exact doubles, otherwise the
+    // JDK takes care of the correct rounding
+    if (i == end
+        && digitCount <= 18
+        && mantissa <= MAX_EXACT_MANTISSA
+        && Math.abs(exponent) <= 22) {
+      final double value =
+          exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+      return isNegative ? -value : value;
+    }
+    return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+  }
+
+  /////////////////////////////// Helpers ///////////////////////////////
+
+  private void skipSeparators() {
+    while (position < limit) {
+      final byte b = bytes[position];
+      if (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == ',' || b == ':') {
+        position++;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void expect(final Token expected) {
+    final Token token = peek();
+    if (token != expected) {
+      throw syntaxError("Expected " + expected + " but was " + token);
+    }
+  }
+
+  private void expectLiteral(final String literal) {
+    for (int i = 0; i < literal.length(); i++) {
+      if (position + i >= limit || bytes[position + i] != literal.charAt(i)) {
+        throw syntaxError("Expected literal " + literal);
+      }
+    }
+    position += literal.length();
+  }
+
+  private void skipScalar(final Token token) {
+    switch (token) {
+      case NUMBER:
+        position = findNumberEnd(position);
+        break;
+      case TRUE:
+        expectLiteral("true");
+        break;
+      case FALSE:
+        expectLiteral("false");
+        break;
+      case NULL:
+        expectLiteral("null");
+        break;
+      default:
+        throw syntaxError("Expected a scalar value but was " + token);
+    }
+  }
+
+  private int findNumberEnd(int index) {
+    while (index < limit) {
+      final byte b = bytes[index];
+      if (isDigit(b) || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+        index++;
+      } else {
+        break;
+      }
+    }
+    return index;
+  }
+
+  /** Returns the index of the closing quote of the string starting at the given index. */
+  private int findStringEnd(int index) {
+    while (index < limit) {
+      final byte b = bytes[index];
+      if (b == '"') {
+        return index;
+      }
+      index += b == '\\' ? 2 : 1;
+    }
+    throw syntaxError("Unterminated string");
+  }
+
+  private boolean hasEscape(final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      if (bytes[i] == '\\') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String unescape(final int start, final int end) {
+    escapeBuilder.setLength(0);
+    int segmentStart = start;
+    int i = start;
+    while (i < end) {
+      if (bytes[i] != '\\') {
+        i++;
+        continue;
+      }
+      escapeBuilder.append(
+          new String(bytes, segmentStart, i - segmentStart, StandardCharsets.UTF_8));
+      final byte escaped = bytes[i + 1];
+      i += 2;
+      switch (escaped) {
+        case 'b':
+          escapeBuilder.append('\b');
+          break;
+        case 'f':
+          escapeBuilder.append('\f');
+          break;
+        case 'n':
+          escapeBuilder.append('\n');
+          break;
+        case 'r':
+          escapeBuilder.append('\r');
+          break;
+        case 't':
+          escapeBuilder.append('\t');
+          break;
+        case 'u':
+          if (i + 4 > end) {
+            throw syntaxError("Invalid unicode escape");
+          }
+          escapeBuilder.append(
+              (char) Integer.parseInt(new String(bytes, i, 4, StandardCharsets.US_ASCII), 16));
+          i += 4;
+          break;
+        default:
+          escapeBuilder.append((char) escaped);
+          break;
+      }
+      segmentStart = i;
+    }
+    escapeBuilder.append(
+        new String(bytes, segmentStart, end - segmentStart, StandardCharsets.UTF_8));
+    return escapeBuilder.toString();
+  }
+
+  private static boolean isDigit(final byte b) {
+    return b >= '0' && b <= '9';
+  }
+
+  private IllegalArgumentException syntaxError(final String message) {
+    return new IllegalArgumentException(message + " at position " + position);
+  }
+}
@@ -18,19 +18,19 @@
 
 package org.apache.iotdb.db.protocol.mqtt;
 
+import org.apache.iotdb.db.protocol.json.JsonTabletParser;
+import org.apache.iotdb.db.protocol.json.JsonTokenReader;
+
 import com.google.common.collect.Lists;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
-import com.google.gson.reflect.TypeToken;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * The JSON payload formatter. two json format supported: { "device":"root.sg.d1",
@@ -38,71 +38,138 @@ import java.util.List;
  *
  * <p>{ "device":"root.sg.d1", "timestamps":[1586076045524,1586076065526],
  * "measurements":["s1","s2"], "values":[[0.530635,0.530635], [0.530655,0.530695]] }
+ *
+ * <p>Both formats accept an optional "data_types":["DOUBLE","DOUBLE"], otherwise the data types are
+ * inferred from the values. Batched payloads with data types are formatted straight into tablets.
  */
 public class JSONPayloadFormatter implements PayloadFormatter {
-  private static final String JSON_KEY_DEVICE = "device";
-  private static final String JSON_KEY_TIMESTAMP = "timestamp";
-  private static final String JSON_KEY_TIMESTAMPS = "timestamps";
-  private static final String JSON_KEY_MEASUREMENTS = "measurements";
-  private static final String JSON_KEY_VALUES = "values";
-  private static final Gson GSON = new GsonBuilder().create();
+  private static final String JSON_KEY_DEVICE = JsonTabletParser.KEY_DEVICE;
+  private static final String JSON_KEY_TIMESTAMP = JsonTabletParser.KEY_TIMESTAMP;
+  private static final String JSON_KEY_TIMESTAMPS = JsonTabletParser.KEY_TIMESTAMPS;
+  private static final String JSON_KEY_MEASUREMENTS = JsonTabletParser.KEY_MEASUREMENTS;
+  private static final String JSON_KEY_DATA_TYPES = JsonTabletParser.KEY_DATA_TYPES;
+  private static final String JSON_KEY_VALUES = JsonTabletParser.KEY_VALUES;
 
   @Override
   public List<Message> format(ByteBuf payload) {
+    return format(payload, null);
+  }
+
+  /** Objects with data types go into the tablets, the others into the messages. */
+  @Override
+  public List<Message> format(ByteBuf payload, List<Tablet> tablets) {
     if (payload == null) {
       return new ArrayList<>();
     }
-    String txt = payload.toString(StandardCharsets.UTF_8);
-    JsonElement jsonElement = GSON.fromJson(txt, JsonElement.class);
-    if (jsonElement.isJsonObject()) {
-      JsonObject jsonObject = jsonElement.getAsJsonObject();
-      if (jsonObject.get(JSON_KEY_TIMESTAMP) != null) {
-        return formatJson(jsonObject);
-      }
-      if (jsonObject.get(JSON_KEY_TIMESTAMPS) != null) {
-        return formatBatchJson(jsonObject);
+    JsonTokenReader reader = newReader(payload);
+    JsonTabletParser tabletParser = tablets == null ? null : new JsonTabletParser(reader, true);
+    JsonTokenReader.Token token = reader.peek();
+    if (token == JsonTokenReader.Token.BEGIN_OBJECT) {
+      List<Message> messages = formatObject(reader, tabletParser, tablets);
+      if (messages != null) {
+        return messages;
       }
-    } else if (jsonElement.isJsonArray()) {
-      JsonArray jsonArray = jsonElement.getAsJsonArray();
+    } else if (token == JsonTokenReader.Token.BEGIN_ARRAY) {
       List<Message> messages = new ArrayList<>();
-      for (JsonElement element : jsonArray) {
-        JsonObject jsonObject = element.getAsJsonObject();
-        if (jsonObject.get(JSON_KEY_TIMESTAMP) != null) {
-          messages.addAll(formatJson(jsonObject));
-        }
-        if (jsonObject.get(JSON_KEY_TIMESTAMPS) != null) {
-          messages.addAll(formatBatchJson(jsonObject));
+      reader.beginArray();
+      while (reader.hasNext()) {
+        List<Message> objectMessages = formatObject(reader, tabletParser, tablets);
+        if (objectMessages != null) {
+          messages.addAll(objectMessages);
         }
       }
+      reader.endArray();
       return messages;
     }
     throw new JsonParseException("payload is invalidate");
   }
 
-  private List<Message> formatJson(JsonObject jsonObject) {
-    Message message = new Message();
-    message.setDevice(jsonObject.get(JSON_KEY_DEVICE).getAsString());
-    message.setTimestamp(jsonObject.get(JSON_KEY_TIMESTAMP).getAsLong());
-    message.setMeasurements(
-        GSON.fromJson(
-            jsonObject.get(JSON_KEY_MEASUREMENTS), new TypeToken<List<String>>() {}.getType()));
-    message.setValues(
-        GSON.fromJson(jsonObject.get(JSON_KEY_VALUES), new TypeToken<List<String>>() {}.getType()));
-    return Lists.newArrayList(message);
+  private static JsonTokenReader newReader(ByteBuf payload) {
+    if (payload.hasArray()) {
+      return new JsonTokenReader(
+          payload.array(), payload.arrayOffset() + payload.readerIndex(), payload.readableBytes());
+    }
+    return new JsonTokenReader(ByteBufUtil.getBytes(payload));
   }
 
-  private List<Message> formatBatchJson(JsonObject jsonObject) {
-    String device = jsonObject.get(JSON_KEY_DEVICE).getAsString();
-    List<String> measurements =
-        GSON.fromJson(
-            jsonObject.getAsJsonArray(JSON_KEY_MEASUREMENTS),
-            new TypeToken<List<String>>() {}.getType());
-    List<Long> timestamps =
-        GSON.fromJson(
-            jsonObject.get(JSON_KEY_TIMESTAMPS), new TypeToken<List<Long>>() {}.getType());
-    List<List<String>> values =
-        GSON.fromJson(
-            jsonObject.get(JSON_KEY_VALUES), new TypeToken<List<List<String>>>() {}.getType());
+  /**
+   * Adds the object to the tablets if it is a tablet with data types and the tablets are wanted.
+   *
+   * @return the messages of the object, empty if it went into the tablets
+   */
+  private static List<Message> formatObject(
+      JsonTokenReader reader, JsonTabletParser tabletParser, List<Tablet> tablets) {
+    if (tabletParser != null) {
+      Tablet tablet = tabletParser.parseTablet();
+      if (tablet != null) {
+        tablets.add(tablet);
+        return new ArrayList<>();
+      }
+    }
+    return formatObject(reader);
+  }
+
+  /** Returns null if the object has neither a timestamp nor timestamps. */
+  private static List<Message> formatObject(JsonTokenReader reader) {
+    String device = null;
+    Long timestamp = null;
+    List<Long> timestamps = null;
+    List<String> measurements = null;
+    List<TSDataType> dataTypes = null;
+    List<List<String>> values = null;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (reader.nextNullIfPresent()) {
+        continue;
+      }
+      switch (name) {
+        case JSON_KEY_DEVICE:
+          device = reader.nextString();
+          break;
+        case JSON_KEY_TIMESTAMP:
+          timestamp = reader.nextLong();
+          break;
+        case JSON_KEY_TIMESTAMPS:
+          timestamps = new ArrayList<>();
+          reader.beginArray();
+          while (reader.hasNext()) {
+            timestamps.add(reader.nextLong());
+          }
+          reader.endArray();
+          break;
+        case JSON_KEY_MEASUREMENTS:
+          measurements = formatStrings(reader);
+          break;
+        case JSON_KEY_DATA_TYPES:
+          dataTypes = new ArrayList<>();
+          for (String dataType : formatStrings(reader)) {
+            dataTypes.add(TSDataType.valueOf(dataType.toUpperCase(Locale.ROOT)));
+          }
+          break;
+        case JSON_KEY_VALUES:
+          values = formatValues(reader);
+          break;
+        default:
+          reader.skipValue();
+          break;
+      }
+    }
+    reader.endObject();
+
+    if (timestamp != null) {
+      Message message = new Message();
+      message.setDevice(device);
+      message.setTimestamp(timestamp);
+      message.setMeasurements(measurements);
+      message.setDataTypes(dataTypes);
+      message.setValues(values == null || values.isEmpty() ? null : values.get(0));
+      return Lists.newArrayList(message);
+    }
+    if (timestamps == null) {
+      return null;
+    }
 
     List<Message> ret = new ArrayList<>(timestamps.size());
     for (int i = 0; i < timestamps.size(); i++) {
@@ -110,12 +177,42 @@ public class JSONPayloadFormatter implements PayloadFormatter {
       message.setDevice(device);
       message.setTimestamp(timestamps.get(i));
       message.setMeasurements(measurements);
+      message.setDataTypes(dataTypes);
       message.setValues(values.get(i));
       ret.add(message);
     }
     return ret;
   }
 
+  /** Values of one row, or of many rows if the values are nested arrays. */
+  private static List<List<String>> formatValues(JsonTokenReader reader) {
+    List<List<String>> rows = new ArrayList<>();
+    reader.beginArray();
+    if (reader.peek() != JsonTokenReader.Token.BEGIN_ARRAY) {
+      List<String> row = new ArrayList<>();
+      while (reader.hasNext()) {
+        row.add(reader.nextNullIfPresent() ? null : reader.nextString());
+      }
+      rows.add(row);
+    } else {
+      while (reader.hasNext()) {
+        rows.add(formatStrings(reader));
+      }
+    }
+    reader.endArray();
+    return rows;
+  }
+
+  private static List<String> formatStrings(JsonTokenReader reader) {
+    List<String> strings = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      strings.add(reader.nextNullIfPresent() ? null : reader.nextString());
+    }
+    reader.endArray();
+    return strings;
+  }
+
   @Override
   public String getName() {
     return "json";
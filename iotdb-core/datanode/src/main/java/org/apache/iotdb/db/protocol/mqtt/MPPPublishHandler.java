@@ -20,9 +20,12 @@ package org.apache.iotdb.db.protocol.mqtt;
 
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.conf.IoTDBConstant.ClientVersion;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.db.auth.AuthorityChecker;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.protocol.session.MqttClientSession;
 import org.apache.iotdb.db.protocol.session.SessionManager;
 import org.apache.iotdb.db.queryengine.plan.Coordinator;
@@ -32,6 +35,8 @@ import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeDeviceP
 import org.apache.iotdb.db.queryengine.plan.analyze.schema.ClusterSchemaFetcher;
 import org.apache.iotdb.db.queryengine.plan.analyze.schema.ISchemaFetcher;
 import org.apache.iotdb.db.queryengine.plan.execution.ExecutionResult;
+import org.apache.iotdb.db.queryengine.plan.parser.StatementGenerator;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertBaseStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
 import org.apache.iotdb.db.utils.CommonUtils;
 import org.apache.iotdb.db.utils.TimestampPrecisionUtils;
@@ -45,10 +50,12 @@ import io.moquette.interception.messages.InterceptPublishMessage;
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.mqtt.MqttQoS;
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -65,11 +72,24 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
   private final PayloadFormatter payloadFormat;
   private final IPartitionFetcher partitionFetcher;
   private final ISchemaFetcher schemaFetcher;
+  // null if mqtt inserts are not batched
+  private final MqttInsertBatcher insertBatcher;
 
   public MPPPublishHandler(IoTDBConfig config) {
     this.payloadFormat = PayloadFormatManager.getPayloadFormat(config.getMqttPayloadFormatter());
     partitionFetcher = ClusterPartitionFetcher.getInstance();
     schemaFetcher = ClusterSchemaFetcher.getInstance();
+    if (config.getMqttInsertBatchSize() > 1) {
+      insertBatcher =
+          new MqttInsertBatcher(
+              config.getMqttInsertBatchSize(),
+              config.getMqttInsertBatchDelayInMs(),
+              config.getMqttHandlerPoolSize(),
+              this::executeInsert);
+      MetricService.getInstance().addMetricSet(MqttInsertBatchMetrics.getInstance());
+    } else {
+      insertBatcher = null;
+    }
   }
 
   @Override
@@ -96,6 +116,9 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
   public void onDisconnect(InterceptDisconnectMessage msg) {
     MqttClientSession session = clientIdToSessionMap.remove(msg.getClientID());
     if (null != session) {
+      if (insertBatcher != null) {
+        insertBatcher.flush(session);
+      }
       sessionManager.closeSession(session, Coordinator.getInstance()::cleanupQueryExecution);
     }
   }
@@ -121,7 +144,11 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
           topic,
           payload);
 
-      List<Message> events = payloadFormat.format(payload);
+      List<Tablet> tablets = new ArrayList<>();
+      List<Message> events = payloadFormat.format(payload, tablets);
+      if (!tablets.isEmpty()) {
+        insertTablets(session, tablets);
+      }
       if (events == null) {
         return;
       }
@@ -131,48 +158,27 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
           continue;
         }
 
+        InsertRowStatement statement;
+        try {
+          statement = constructInsertRowStatement(event);
+        } catch (Exception e) {
+          LOG.warn(
+              "meet error when parsing device {}, measurements {}, at time {}, because ",
+              event.getDevice(),
+              event.getMeasurements(),
+              event.getTimestamp(),
+              e);
+          continue;
+        }
+
+        if (insertBatcher != null) {
+          insertBatcher.add(session, statement);
+          continue;
+        }
+
         TSStatus tsStatus = null;
         try {
-          InsertRowStatement statement = new InsertRowStatement();
-          statement.setDevicePath(
-              DataNodeDevicePathCache.getInstance().getPartialPath(event.getDevice()));
-          TimestampPrecisionUtils.checkTimestampPrecision(event.getTimestamp());
-          statement.setTime(event.getTimestamp());
-          statement.setMeasurements(event.getMeasurements().toArray(new String[0]));
-          if (event.getDataTypes() == null) {
-            statement.setDataTypes(new TSDataType[event.getMeasurements().size()]);
-            statement.setValues(event.getValues().toArray(new Object[0]));
-            statement.setNeedInferType(true);
-          } else {
-            List<TSDataType> dataTypes = event.getDataTypes();
-            List<String> values = event.getValues();
-            Object[] inferredValues = new Object[values.size()];
-            for (int i = 0; i < values.size(); ++i) {
-              inferredValues[i] = CommonUtils.parseValue(dataTypes.get(i), values.get(i));
-            }
-            statement.setDataTypes(dataTypes.toArray(new TSDataType[0]));
-            statement.setValues(inferredValues);
-          }
-          statement.setAligned(false);
-
-          tsStatus = AuthorityChecker.checkAuthority(statement, session);
-          if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-            LOG.warn(tsStatus.message);
-          } else {
-            long queryId = sessionManager.requestQueryId();
-            ExecutionResult result =
-                Coordinator.getInstance()
-                    .executeForTreeModel(
-                        statement,
-                        queryId,
-                        sessionManager.getSessionInfo(session),
-                        "",
-                        partitionFetcher,
-                        schemaFetcher,
-                        config.getQueryTimeoutThreshold(),
-                        false);
-            tsStatus = result.status;
-          }
+          tsStatus = executeInsert(session, statement);
         } catch (Exception e) {
           LOG.warn(
               "meet error when inserting device {}, measurements {}, at time {}, because ",
@@ -189,6 +195,90 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
     }
   }
 
+  /**
+   * Tablets do not go through the {@link MqttInsertBatcher}: a tablet payload is already a batch of
+   * rows decoded into columns, and splitting it into {@link InsertRowStatement}s to merge it with
+   * other publishes would undo that and cost more than the extra commit saves. The rows the batcher
+   * holds for the client are committed first, so that the client's writes are applied in the order
+   * they are published.
+   */
+  private void insertTablets(MqttClientSession session, List<Tablet> tablets) {
+    if (insertBatcher != null) {
+      insertBatcher.flush(session);
+    }
+    for (Tablet tablet : tablets) {
+      if (tablet.getRowSize() == 0) {
+        continue;
+      }
+      TSStatus tsStatus = null;
+      try {
+        tsStatus = executeInsert(session, StatementGenerator.createStatement(tablet, false));
+      } catch (Exception e) {
+        LOG.warn(
+            "meet error when inserting tablet of device {} with {} rows, because ",
+            tablet.getDeviceId(),
+            tablet.getRowSize(),
+            e);
+      }
+      LOG.debug("tablet process result: {}", tsStatus);
+    }
+  }
+
+  private InsertRowStatement constructInsertRowStatement(Message event)
+      throws IllegalPathException, QueryProcessException {
+    InsertRowStatement statement = new InsertRowStatement();
+    statement.setDevicePath(
+        DataNodeDevicePathCache.getInstance().getPartialPath(event.getDevice()));
+    TimestampPrecisionUtils.checkTimestampPrecision(event.getTimestamp());
+    statement.setTime(event.getTimestamp());
+    statement.setMeasurements(event.getMeasurements().toArray(new String[0]));
+    if (event.getDataTypes() == null) {
+      statement.setDataTypes(new TSDataType[event.getMeasurements().size()]);
+      statement.setValues(event.getValues().toArray(new Object[0]));
+      statement.setNeedInferType(true);
+    } else {
+      List<TSDataType> dataTypes = event.getDataTypes();
+      List<String> values = event.getValues();
+      Object[] inferredValues = new Object[values.size()];
+      for (int i = 0; i < values.size(); ++i) {
+        inferredValues[i] = CommonUtils.parseValue(dataTypes.get(i), values.get(i));
+      }
+      statement.setDataTypes(dataTypes.toArray(new TSDataType[0]));
+      statement.setValues(inferredValues);
+    }
+    statement.setAligned(false);
+    return statement;
+  }
+
+  private TSStatus executeInsert(MqttClientSession session, InsertBaseStatement statement) {
+    TSStatus tsStatus = AuthorityChecker.checkAuthority(statement, session);
+    if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      LOG.warn(tsStatus.message);
+      return tsStatus;
+    }
+    long queryId = sessionManager.requestQueryId();
+    ExecutionResult result =
+        Coordinator.getInstance()
+            .executeForTreeModel(
+                statement,
+                queryId,
+                sessionManager.getSessionInfo(session),
+                "",
+                partitionFetcher,
+                schemaFetcher,
+                config.getQueryTimeoutThreshold(),
+                false);
+    return result.status;
+  }
+
+  /** Commits the rows still buffered by the insert batcher, called when the service stops. */
+  public void close() {
+    if (insertBatcher != null) {
+      insertBatcher.close();
+      MetricService.getInstance().removeMetricSet(MqttInsertBatchMetrics.getInstance());
+    }
+  }
+
   @Override
   public void onSessionLoopError(Throwable throwable) {
     // TODO: Implement something sensible here ...
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Histogram;
+import org.apache.iotdb.metrics.type.Timer;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+public class MqttInsertBatchMetrics implements IMetricSet {
+
+  private static final String BATCH_SIZE = "batch_size";
+  private static final String END_TO_END = "end_to_end";
+  private static final String EXECUTION = "execution";
+
+  private Histogram batchSizeHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Timer endToEndLatencyTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer executionTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+
+  private MqttInsertBatchMetrics() {
+    // empty constructor
+  }
+
+  /**
+   * @param batchSize number of rows committed in one batch
+   * @param endToEndNanos time between the arrival of the oldest row of the batch and the commit
+   * @param executionNanos time spent executing the merged insert
+   */
+  public void recordBatch(int batchSize, long endToEndNanos, long executionNanos) {
+    batchSizeHistogram.update(batchSize);
+    endToEndLatencyTimer.updateNanos(endToEndNanos);
+    executionTimer.updateNanos(executionNanos);
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    batchSizeHistogram =
+        metricService.getOrCreateHistogram(
+            Metric.MQTT_INSERT_BATCH.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            BATCH_SIZE);
+    endToEndLatencyTimer =
+        metricService.getOrCreateTimer(
+            Metric.MQTT_INSERT_LATENCY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            END_TO_END);
+    executionTimer =
+        metricService.getOrCreateTimer(
+            Metric.MQTT_INSERT_LATENCY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            EXECUTION);
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    batchSizeHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    endToEndLatencyTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    executionTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    metricService.remove(
+        MetricType.HISTOGRAM, Metric.MQTT_INSERT_BATCH.toString(), Tag.NAME.toString(), BATCH_SIZE);
+    metricService.remove(
+        MetricType.TIMER, Metric.MQTT_INSERT_LATENCY.toString(), Tag.NAME.toString(), END_TO_END);
+    metricService.remove(
+        MetricType.TIMER, Metric.MQTT_INSERT_LATENCY.toString(), Tag.NAME.toString(), EXECUTION);
+  }
+
+  public static MqttInsertBatchMetrics getInstance() {
+    return MqttInsertBatchMetricsHolder.INSTANCE;
+  }
+
+  private static class MqttInsertBatchMetricsHolder {
+
+    private static final MqttInsertBatchMetrics INSTANCE = new MqttInsertBatchMetrics();
+
+    private MqttInsertBatchMetricsHolder() {
+      // empty constructor
+    }
+  }
+}
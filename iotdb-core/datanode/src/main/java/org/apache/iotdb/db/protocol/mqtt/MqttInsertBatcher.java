@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.db.protocol.session.MqttClientSession;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Buffers the rows parsed from MQTT publishes of each client session and commits them as one {@link
+ * InsertRowsStatement} once the buffered row count reaches the batch size or the oldest buffered
+ * row has waited for the batch delay. Rows of the same device are kept adjacent so that they end up
+ * in the same {@code InsertRowsNode} of the same region.
+ *
+ * <p>Size triggered flushes run on the publishing thread, which throttles the broker handler pool
+ * when the storage engine falls behind. Delay triggered flushes run on a bounded flusher pool, at
+ * most one pending flush per client, so that a slow client does not hold back the others.
+ *
+ * <p>A batch removed by {@link #flush(MqttClientSession)} is closed under its lock, and {@link
+ * #add(MqttClientSession, InsertRowStatement)} retries on a new batch if it meets a closed one, so
+ * no row is left in a batch that will never be flushed again.
+ */
+public class MqttInsertBatcher implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MqttInsertBatcher.class);
+
+  private final int batchSize;
+  private final long batchDelayInNanos;
+  private final BiFunction<MqttClientSession, InsertRowsStatement, TSStatus> executor;
+
+  private final Map<MqttClientSession, Batch> batches = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService flusher;
+
+  public MqttInsertBatcher(
+      final int batchSize,
+      final long batchDelayInMs,
+      final int flushThreadNum,
+      final BiFunction<MqttClientSession, InsertRowsStatement, TSStatus> executor) {
+    this.batchSize = batchSize;
+    this.batchDelayInNanos = TimeUnit.MILLISECONDS.toNanos(batchDelayInMs);
+    this.executor = executor;
+    this.flusher =
+        IoTDBThreadPoolFactory.newScheduledThreadPool(
+            Math.max(1, flushThreadNum), ThreadName.MQTT_INSERT_BATCH_FLUSHER.getName());
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        flusher,
+        this::flushExpiredBatches,
+        batchDelayInMs,
+        Math.max(1, batchDelayInMs / 2),
+        TimeUnit.MILLISECONDS);
+  }
+
+  public void add(final MqttClientSession session, final InsertRowStatement row) {
+    while (true) {
+      final Batch batch = batches.computeIfAbsent(session, Batch::new);
+      final Batch.Drained drained;
+      synchronized (batch) {
+        if (batch.isClosed) {
+          // the batch has been flushed for a disconnecting client, retry on a new one
+          continue;
+        }
+        batch.add(row);
+        if (batch.rowCount < batchSize) {
+          return;
+        }
+        drained = batch.drain();
+      }
+      commit(batch.session, drained);
+      return;
+    }
+  }
+
+  /**
+   * Commits the rows buffered for the session, called when the client disconnects or publishes a
+   * tablet.
+   */
+  public void flush(final MqttClientSession session) {
+    final Batch batch = batches.remove(session);
+    if (batch != null) {
+      flush(batch, true);
+    }
+  }
+
+  private void flushExpiredBatches() {
+    final long now = System.nanoTime();
+    for (final Batch batch : batches.values()) {
+      if (batch.rowCount > 0
+          && now - batch.oldestArrivalNanos >= batchDelayInNanos
+          && batch.isFlushPending.compareAndSet(false, true)) {
+        try {
+          flusher.execute(
+              () -> {
+                batch.isFlushPending.set(false);
+                flush(batch, false);
+              });
+        } catch (final RejectedExecutionException e) {
+          // the batcher is closing, the remaining rows are flushed by close()
+          batch.isFlushPending.set(false);
+          return;
+        }
+      }
+    }
+  }
+
+  private void flush(final Batch batch, final boolean close) {
+    final Batch.Drained drained;
+    synchronized (batch) {
+      batch.isClosed |= close;
+      if (batch.rowCount == 0) {
+        return;
+      }
+      drained = batch.drain();
+    }
+    commit(batch.session, drained);
+  }
+
+  private void commit(final MqttClientSession session, final Batch.Drained drained) {
+    final InsertRowsStatement statement = new InsertRowsStatement();
+    statement.setInsertRowStatementList(drained.rows);
+
+    final long startTime = System.nanoTime();
+    TSStatus status = null;
+    try {
+      status = executor.apply(session, statement);
+    } catch (final Exception e) {
+      LOGGER.warn(
+          "Meet error when inserting {} rows from mqtt client {}, because ",
+          drained.rows.size(),
+          session.getClientAddress(),
+          e);
+    }
+    final long endTime = System.nanoTime();
+    MqttInsertBatchMetrics.getInstance()
+        .recordBatch(
+            drained.rows.size(), endTime - drained.oldestArrivalNanos, endTime - startTime);
+
+    if (status != null && status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      LOGGER.warn(
+          "Failed to insert {} rows from mqtt client {}, status: {}",
+          drained.rows.size(),
+          session.getClientAddress(),
+          status);
+    } else {
+      LOGGER.debug(
+          "Inserted {} rows from mqtt client {}, status: {}",
+          drained.rows.size(),
+          session.getClientAddress(),
+          status);
+    }
+  }
+
+  @Override
+  public void close() {
+    flusher.shutdownNow();
+    for (final MqttClientSession session : new ArrayList<>(batches.keySet())) {
+      flush(session);
+    }
+  }
+
+  private static class Batch {
+
+    private final MqttClientSession session;
+    private Map<String, List<InsertRowStatement>> rowsByDevice = new LinkedHashMap<>();
+    private volatile int rowCount = 0;
+    private volatile long oldestArrivalNanos;
+    // guarded by the batch
+    private boolean isClosed = false;
+    private final AtomicBoolean isFlushPending = new AtomicBoolean(false);
+
+    private Batch(final MqttClientSession session) {
+      this.session = session;
+    }
+
+    private void add(final InsertRowStatement row) {
+      if (rowCount == 0) {
+        oldestArrivalNanos = System.nanoTime();
+      }
+      rowsByDevice
+          .computeIfAbsent(row.getDevicePath().getFullPath(), device -> new ArrayList<>())
+          .add(row);
+      rowCount++;
+    }
+
+    private Drained drain() {
+      final List<InsertRowStatement> rows = new ArrayList<>(rowCount);
+      rowsByDevice.values().forEach(rows::addAll);
+      final Drained drained = new Drained(rows, oldestArrivalNanos);
+      rowsByDevice = new LinkedHashMap<>();
+      rowCount = 0;
+      return drained;
+    }
+
+    private static class Drained {
+
+      private final List<InsertRowStatement> rows;
+      private final long oldestArrivalNanos;
+
+      private Drained(final List<InsertRowStatement> rows, final long oldestArrivalNanos) {
+        this.rows = rows;
+        this.oldestArrivalNanos = oldestArrivalNanos;
+      }
+    }
+  }
+}
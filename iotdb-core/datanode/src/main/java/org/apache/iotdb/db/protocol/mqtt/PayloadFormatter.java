@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.protocol.mqtt;
 
 import io.netty.buffer.ByteBuf;
+import org.apache.tsfile.write.record.Tablet;
 
 import java.util.List;
 
@@ -38,6 +39,19 @@ public interface PayloadFormatter {
    */
   List<Message> format(ByteBuf payload);
 
+  /**
+   * format a payload to a list of messages, formatting the parts of the payload that can be
+   * formatted directly into tablets into the given list instead, so that no message is materialized
+   * for each of their rows. The payload is parsed only once.
+   *
+   * @param payload
+   * @param tablets the tablets formatted from the payload are added to
+   * @return the messages of the rest of the payload
+   */
+  default List<Message> format(ByteBuf payload, List<Tablet> tablets) {
+    return format(payload);
+  }
+
   /**
    * get the formatter name
    *
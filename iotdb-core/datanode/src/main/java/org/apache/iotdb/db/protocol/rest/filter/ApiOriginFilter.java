@@ -17,6 +17,8 @@
 
 package org.apache.iotdb.db.protocol.rest.filter;
 
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput;
+
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
@@ -34,7 +36,12 @@ public class ApiOriginFilter implements javax.servlet.Filter {
     res.addHeader("Access-Control-Allow-Origin", "*");
     res.addHeader("Access-Control-Allow-Methods", "GET, POST");
     res.addHeader("Access-Control-Allow-Headers", "*");
-    chain.doFilter(request, response);
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      // the response has been written by now, or it never will be
+      QueryResultStreamingOutput.releaseUnwritten();
+    }
   }
 
   @Override
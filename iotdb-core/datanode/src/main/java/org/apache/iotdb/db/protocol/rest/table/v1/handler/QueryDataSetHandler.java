@@ -20,6 +20,7 @@ package org.apache.iotdb.db.protocol.rest.table.v1.handler;
 import org.apache.iotdb.commons.exception.IoTDBException;
 import org.apache.iotdb.db.protocol.rest.model.ExecutionStatus;
 import org.apache.iotdb.db.protocol.rest.table.v1.model.QueryDataSet;
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput.JsonLayout;
 import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
 import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Query;
@@ -55,6 +56,11 @@ public class QueryDataSetHandler {
     }
   }
 
+  /** The fields of the response of {@link #fillQueryDataSet} for a streamed result. */
+  public static JsonLayout getStreamJsonLayout() {
+    return new JsonLayout("column_names", true, false, false);
+  }
+
   public static Response fillQueryDataSet(
       IQueryExecution queryExecution, final int actualRowSizeLimit) throws IoTDBException {
     QueryDataSet targetDataSet = new QueryDataSet();
@@ -19,6 +19,7 @@ package org.apache.iotdb.db.protocol.rest.table.v1.handler;
 
 import org.apache.iotdb.db.protocol.rest.table.v1.model.InsertTabletRequest;
 import org.apache.iotdb.db.protocol.rest.table.v1.model.SQL;
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.tsfile.enums.TSDataType;
@@ -44,6 +45,11 @@ public class RequestValidationHandler {
     if (sql.getRowLimit() != null) {
       Validate.isTrue(sql.getRowLimit() > 0, "row_limit should be positive");
     }
+    if (sql.getStreamFormat() != null) {
+      Validate.isTrue(
+          QueryResultStreamingOutput.Format.isSupported(sql.getStreamFormat()),
+          "stream_format should be one of json, ndjson and csv");
+    }
   }
 
   public static void validateInsertTabletRequest(InsertTabletRequest insertTabletRequest) {
@@ -31,6 +31,7 @@ import org.apache.iotdb.db.protocol.rest.table.v1.handler.StatementConstructionH
 import org.apache.iotdb.db.protocol.rest.table.v1.model.ExecutionStatus;
 import org.apache.iotdb.db.protocol.rest.table.v1.model.InsertTabletRequest;
 import org.apache.iotdb.db.protocol.rest.table.v1.model.SQL;
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput;
 import org.apache.iotdb.db.protocol.session.IClientSession;
 import org.apache.iotdb.db.protocol.session.SessionManager;
 import org.apache.iotdb.db.protocol.thrift.OperationType;
@@ -62,9 +63,13 @@ public class RestApiServiceImpl extends RestApiService {
 
   private final Integer defaultQueryRowLimit;
 
+  private final int queryStreamBufferSize;
+
   public RestApiServiceImpl() {
     defaultQueryRowLimit =
         IoTDBRestServiceDescriptor.getInstance().getConfig().getRestQueryDefaultRowSizeLimit();
+    queryStreamBufferSize =
+        IoTDBRestServiceDescriptor.getInstance().getConfig().getRestQueryStreamBufferSizeInBytes();
   }
 
   public Response executeQueryStatement(SQL sql, SecurityContext securityContext)
@@ -73,6 +78,7 @@ public class RestApiServiceImpl extends RestApiService {
     Long queryId = null;
     Statement statement = null;
     long startTime = System.nanoTime();
+    boolean streaming = false;
     try {
       RequestValidationHandler.validateQuerySQL(sql);
       IClientSession clientSession = SESSION_MANAGER.getCurrSessionAndUpdateIdleTime();
@@ -122,6 +128,11 @@ public class RestApiServiceImpl extends RestApiService {
             .build();
       }
       IQueryExecution queryExecution = COORDINATOR.getQueryExecution(queryId);
+      if (sql.getStreamFormat() != null) {
+        // the query is released by the stream after the client has read the result
+        streaming = true;
+        return streamQueryResult(queryExecution, sql, queryId);
+      }
       try (SetThreadName threadName = new SetThreadName(result.queryId.getId())) {
         return QueryDataSetHandler.fillQueryDataSet(
             queryExecution,
@@ -137,12 +148,25 @@ public class RestApiServiceImpl extends RestApiService {
               s ->
                   CommonUtils.addStatementExecutionLatency(
                       OperationType.EXECUTE_QUERY_STATEMENT, s.toString(), costTime));
-      if (queryId != null) {
+      if (queryId != null && !streaming) {
         COORDINATOR.cleanupQueryExecution(queryId);
       }
     }
   }
 
+  private Response streamQueryResult(IQueryExecution queryExecution, SQL sql, long queryId) {
+    // the default row limit protects the memory of fully built responses, a stream only stops
+    // early when the client asks for it
+    return new QueryResultStreamingOutput(
+            queryExecution,
+            QueryResultStreamingOutput.Format.of(sql.getStreamFormat()),
+            QueryDataSetHandler.getStreamJsonLayout(),
+            sql.getRowLimit() == null ? 0 : sql.getRowLimit(),
+            queryStreamBufferSize,
+            () -> COORDINATOR.cleanupQueryExecution(queryId))
+        .toResponse();
+  }
+
   @Override
   public Response insertTablet(
       InsertTabletRequest insertTabletRequest, SecurityContext securityContext)
@@ -0,0 +1,617 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.rest.utils;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
+import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
+import org.apache.iotdb.db.utils.SetThreadName;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.utils.BytesUtils;
+import org.apache.tsfile.utils.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the result of a query to the HTTP response while it is being read. TsBlocks are pulled
+ * from the query execution one at a time and flushed to the client before the next one is fetched,
+ * so the server side only holds one TsBlock plus a fixed size write buffer, and a slow client slows
+ * down the query instead of making the server materialize the whole result. The response has no
+ * content length and is sent with chunked transfer encoding.
+ *
+ * <p>The query execution is owned by this object once the response is built: {@code onComplete} is
+ * called after the last row is written, or when writing fails, and is expected to release the
+ * query. If the response is never written, e.g. because the client has gone away, the query is
+ * released by {@link #releaseUnwritten()} once the request has been handled.
+ */
+public class QueryResultStreamingOutput implements StreamingOutput {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(QueryResultStreamingOutput.class);
+
+  private static final String TIME_COLUMN = "Time";
+
+  // the streams built by the request handled by the current thread, whose responses are written
+  // by the same thread before the request is done
+  private static final ThreadLocal<List<QueryResultStreamingOutput>> STREAMS_OF_REQUEST =
+      ThreadLocal.withInitial(ArrayList::new);
+
+  private static final int NOT_WRITTEN = 0;
+  private static final int WRITING = 1;
+  private static final int COMPLETED = 2;
+
+  /** The layout of a streamed query result. */
+  public enum Format {
+    /** The JSON document of the materialized response of the endpoint, see {@link JsonLayout}. */
+    JSON("application/json"),
+    /**
+     * Newline delimited JSON: a first line {@code {"column_names":[...],"data_types":[...]}}
+     * followed by one JSON array per row.
+     */
+    NDJSON("application/x-ndjson"),
+    /** RFC 4180 CSV with a header line of column names. */
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    Format(String mediaType) {
+      this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+      return mediaType;
+    }
+
+    public static Format of(String format) {
+      return valueOf(format.toUpperCase(Locale.ROOT));
+    }
+
+    public static boolean isSupported(String format) {
+      for (Format value : values()) {
+        if (value.name().equalsIgnoreCase(format)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * The fields of the materialized JSON response of an endpoint, which a stream in the {@link
+   * Format#JSON} format writes in the same order, so that a client parses both the same way.
+   */
+  public static class JsonLayout {
+
+    // "expressions" or "column_names"
+    private final String columnNamesField;
+    private final boolean withDataTypes;
+    // the times are written as a separate "timestamps" array instead of a column
+    private final boolean withTimestamps;
+    // "values" holds one array per column instead of one array per row
+    private final boolean columnMajor;
+
+    public JsonLayout(
+        String columnNamesField,
+        boolean withDataTypes,
+        boolean withTimestamps,
+        boolean columnMajor) {
+      this.columnNamesField = columnNamesField;
+      this.withDataTypes = withDataTypes;
+      this.withTimestamps = withTimestamps;
+      this.columnMajor = columnMajor;
+    }
+  }
+
+  private final IQueryExecution queryExecution;
+  private final Format format;
+  private final JsonLayout jsonLayout;
+  private final int rowLimit;
+  private final int bufferSize;
+  private final Runnable onComplete;
+  private final AtomicInteger state = new AtomicInteger(NOT_WRITTEN);
+  private long written = 0;
+
+  /**
+   * @param jsonLayout the fields of the response in the {@link Format#JSON} format, ignored by the
+   *     other formats
+   * @param rowLimit the maximum number of rows to write, the result is truncated once it is
+   *     reached; zero or negative means no limit
+   */
+  public QueryResultStreamingOutput(
+      IQueryExecution queryExecution,
+      Format format,
+      JsonLayout jsonLayout,
+      int rowLimit,
+      int bufferSize,
+      Runnable onComplete) {
+    this.queryExecution = queryExecution;
+    this.format = format;
+    this.jsonLayout = jsonLayout;
+    this.rowLimit = rowLimit;
+    this.bufferSize = bufferSize;
+    this.onComplete = onComplete;
+  }
+
+  public Response toResponse() {
+    STREAMS_OF_REQUEST.get().add(this);
+    return Response.ok(this, format.getMediaType() + "; charset=utf-8").build();
+  }
+
+  /**
+   * Release the queries of the streams built by the request handled by the current thread whose
+   * responses have not been written, which is called once the request is done. The response of a
+   * stream is not written if the request fails or the client goes away before the entity is sent.
+   */
+  public static void releaseUnwritten() {
+    List<QueryResultStreamingOutput> streams = STREAMS_OF_REQUEST.get();
+    STREAMS_OF_REQUEST.remove();
+    for (QueryResultStreamingOutput stream : streams) {
+      if (stream.state.compareAndSet(NOT_WRITTEN, COMPLETED)) {
+        LOGGER.info(
+            "The result of query {} is released without being written",
+            stream.queryExecution.getQueryId());
+        stream.onComplete.run();
+      }
+    }
+  }
+
+  @Override
+  public void write(OutputStream outputStream) throws IOException {
+    if (!state.compareAndSet(NOT_WRITTEN, WRITING)) {
+      throw new IOException(
+          String.format("The result of query %s has been released", queryExecution.getQueryId()));
+    }
+    try (SetThreadName threadName =
+        new SetThreadName(queryExecution.getQueryId() + "-RestStreaming")) {
+      OutputStream bufferedOutputStream = new BufferedOutputStream(outputStream, bufferSize);
+      Writer writer = new OutputStreamWriter(bufferedOutputStream, TSFileConfig.STRING_CHARSET);
+      if (format == Format.JSON && jsonLayout.columnMajor) {
+        writeColumnMajorJson(writer, bufferedOutputStream);
+      } else {
+        writeResult(writer);
+      }
+      writer.flush();
+    } catch (IoTDBException e) {
+      // the status line has been sent, aborting the stream is the only way to report the failure
+      LOGGER.warn("Failed to stream the result of query {}", queryExecution.getQueryId(), e);
+      throw new IOException(e);
+    } finally {
+      state.set(COMPLETED);
+      onComplete.run();
+    }
+  }
+
+  private void writeResult(Writer writer) throws IOException, IoTDBException {
+    DatasetHeader header = queryExecution.getDatasetHeader();
+    // the JSON layouts of the endpoints keep the times of rows out of the columns
+    boolean withTime = format != Format.JSON && !header.isIgnoreTimestamp();
+    List<String> columnNames = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    if (withTime) {
+      columnNames.add(TIME_COLUMN);
+      dataTypes.add(TSDataType.TIMESTAMP);
+    }
+    columnNames.addAll(header.getRespColumns());
+    dataTypes.addAll(header.getRespDataTypes());
+    int[] columnIndexes = getTsBlockColumnIndexes(header);
+
+    writeHeader(writer, columnNames, dataTypes);
+    boolean firstRow = true;
+    TsBlock tsBlock;
+    while ((tsBlock = nextTsBlock()) != null) {
+      int rowCount = getRowCountToWrite(tsBlock);
+      for (int row = 0; row < rowCount; row++) {
+        writeRow(writer, tsBlock, row, withTime, columnIndexes, firstRow);
+        firstRow = false;
+      }
+      written += rowCount;
+      // hand every TsBlock to the client before fetching the next one
+      writer.flush();
+    }
+    if (format == Format.JSON) {
+      writer.write("]}");
+    }
+  }
+
+  /**
+   * Write a JSON response whose values are arrays of columns. The times are written to the client
+   * as the TsBlocks are fetched, while the values are appended to a temporary file TsBlock by
+   * TsBlock and copied from it column by column after the last TsBlock, so that neither is kept in
+   * memory.
+   */
+  private void writeColumnMajorJson(Writer writer, OutputStream outputStream)
+      throws IOException, IoTDBException {
+    DatasetHeader header = queryExecution.getDatasetHeader();
+    int[] columnIndexes = getTsBlockColumnIndexes(header);
+    writeJsonHeader(writer, header.getRespColumns(), header.getRespDataTypes());
+    if (jsonLayout.withTimestamps) {
+      writer.write(",\"timestamps\":[");
+    }
+
+    File valueFile = createValueFile();
+    // the offsets in the value file where the values of each column of a TsBlock start, followed
+    // by the offset where the TsBlock ends
+    List<long[]> tsBlockValueOffsets = new ArrayList<>();
+    try {
+      try (OutputStream valueOutputStream =
+          new BufferedOutputStream(new FileOutputStream(valueFile), bufferSize)) {
+        ByteArrayOutputStream columnValues = new ByteArrayOutputStream();
+        Writer columnValueWriter =
+            new OutputStreamWriter(columnValues, TSFileConfig.STRING_CHARSET);
+        long valueFileSize = 0;
+        TsBlock tsBlock;
+        while ((tsBlock = nextTsBlock()) != null) {
+          int rowCount = getRowCountToWrite(tsBlock);
+          if (jsonLayout.withTimestamps) {
+            for (int row = 0; row < rowCount; row++) {
+              if (written > 0 || row > 0) {
+                writer.write(',');
+              }
+              writer.write(Long.toString(tsBlock.getTimeByIndex(row)));
+            }
+          }
+          long[] valueOffsets = new long[columnIndexes.length + 1];
+          for (int i = 0; i < columnIndexes.length; i++) {
+            valueOffsets[i] = valueFileSize;
+            Column column = tsBlock.getColumn(columnIndexes[i]);
+            for (int row = 0; row < rowCount; row++) {
+              if (row > 0) {
+                columnValueWriter.write(',');
+              }
+              writeValue(columnValueWriter, column, row);
+            }
+            columnValueWriter.flush();
+            columnValues.writeTo(valueOutputStream);
+            valueFileSize += columnValues.size();
+            columnValues.reset();
+          }
+          valueOffsets[columnIndexes.length] = valueFileSize;
+          tsBlockValueOffsets.add(valueOffsets);
+          written += rowCount;
+          // hand the times of every TsBlock to the client before fetching the next one
+          writer.flush();
+        }
+      }
+      if (jsonLayout.withTimestamps) {
+        writer.write(']');
+      }
+      writer.write(",\"values\":");
+      writer.flush();
+      copyColumnValues(valueFile, tsBlockValueOffsets, columnIndexes.length, outputStream);
+      writer.write('}');
+    } finally {
+      if (!valueFile.delete()) {
+        LOGGER.warn("Failed to delete the temporary result file {}", valueFile);
+      }
+    }
+  }
+
+  private File createValueFile() throws IOException {
+    File dir = new File(IoTDBDescriptor.getInstance().getConfig().getSortTmpDir());
+    if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+      throw new IOException(String.format("Failed to create the directory %s", dir));
+    }
+    return File.createTempFile("rest-" + queryExecution.getQueryId() + "-", ".tmp", dir);
+  }
+
+  private void copyColumnValues(
+      File valueFile, List<long[]> tsBlockValueOffsets, int columnCount, OutputStream outputStream)
+      throws IOException {
+    // the response of an empty result has no columns in its values
+    if (written == 0) {
+      outputStream.write('[');
+      outputStream.write(']');
+      return;
+    }
+    byte[] buffer = new byte[bufferSize];
+    try (RandomAccessFile valueInput = new RandomAccessFile(valueFile, "r")) {
+      outputStream.write('[');
+      for (int i = 0; i < columnCount; i++) {
+        if (i > 0) {
+          outputStream.write(',');
+        }
+        outputStream.write('[');
+        boolean firstTsBlock = true;
+        for (long[] valueOffsets : tsBlockValueOffsets) {
+          long remaining = valueOffsets[i + 1] - valueOffsets[i];
+          if (remaining == 0) {
+            continue;
+          }
+          if (!firstTsBlock) {
+            outputStream.write(',');
+          }
+          firstTsBlock = false;
+          valueInput.seek(valueOffsets[i]);
+          while (remaining > 0) {
+            int length = (int) Math.min(buffer.length, remaining);
+            valueInput.readFully(buffer, 0, length);
+            outputStream.write(buffer, 0, length);
+            remaining -= length;
+          }
+        }
+        outputStream.write(']');
+      }
+      outputStream.write(']');
+    }
+  }
+
+  /** Returns the next TsBlock to write, or null if the result or the row limit is reached. */
+  private TsBlock nextTsBlock() throws IoTDBException {
+    if (rowLimit > 0 && written >= rowLimit) {
+      return null;
+    }
+    Optional<TsBlock> optionalTsBlock = queryExecution.getBatchResult();
+    if (!optionalTsBlock.isPresent() || optionalTsBlock.get().isEmpty()) {
+      return null;
+    }
+    return optionalTsBlock.get();
+  }
+
+  private int getRowCountToWrite(TsBlock tsBlock) {
+    int rowCount = tsBlock.getPositionCount();
+    return rowLimit > 0 ? (int) Math.min(rowCount, rowLimit - written) : rowCount;
+  }
+
+  private static int[] getTsBlockColumnIndexes(DatasetHeader header) {
+    List<String> respColumns = header.getRespColumns();
+    Map<String, Integer> headerMap = header.getColumnNameIndexMap();
+    int[] columnIndexes = new int[respColumns.size()];
+    for (int i = 0; i < respColumns.size(); i++) {
+      // show statements produce TsBlocks in the order of their header
+      columnIndexes[i] =
+          headerMap == null || headerMap.isEmpty() ? i : headerMap.get(respColumns.get(i));
+    }
+    return columnIndexes;
+  }
+
+  private void writeHeader(Writer writer, List<String> columnNames, List<TSDataType> dataTypes)
+      throws IOException {
+    if (format == Format.CSV) {
+      for (int i = 0; i < columnNames.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writeCsvString(writer, columnNames.get(i));
+      }
+      writer.write('\n');
+      return;
+    }
+    if (format == Format.JSON) {
+      writeJsonHeader(writer, columnNames, dataTypes);
+      writer.write(",\"values\":[");
+      return;
+    }
+    writer.write("{\"column_names\":");
+    writeJsonColumnNames(writer, columnNames);
+    writer.write(",\"data_types\":");
+    writeJsonDataTypes(writer, dataTypes);
+    writer.write("}\n");
+  }
+
+  /** Write the fields before the values of the JSON layout, leaving the object open. */
+  private void writeJsonHeader(Writer writer, List<String> columnNames, List<TSDataType> dataTypes)
+      throws IOException {
+    writer.write('{');
+    writeJsonString(writer, jsonLayout.columnNamesField);
+    writer.write(':');
+    writeJsonColumnNames(writer, columnNames);
+    if (jsonLayout.withDataTypes) {
+      writer.write(",\"data_types\":");
+      writeJsonDataTypes(writer, dataTypes);
+    }
+  }
+
+  private static void writeJsonColumnNames(Writer writer, List<String> columnNames)
+      throws IOException {
+    writer.write('[');
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writeJsonString(writer, columnNames.get(i));
+    }
+    writer.write(']');
+  }
+
+  private static void writeJsonDataTypes(Writer writer, List<TSDataType> dataTypes)
+      throws IOException {
+    writer.write('[');
+    for (int i = 0; i < dataTypes.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writer.write('"');
+      writer.write(dataTypes.get(i).name());
+      writer.write('"');
+    }
+    writer.write(']');
+  }
+
+  private void writeRow(
+      Writer writer,
+      TsBlock tsBlock,
+      int row,
+      boolean withTime,
+      int[] columnIndexes,
+      boolean firstRow)
+      throws IOException {
+    if (format == Format.JSON && !firstRow) {
+      writer.write(',');
+    }
+    if (format != Format.CSV) {
+      writer.write('[');
+    }
+    boolean firstValue = true;
+    if (withTime) {
+      writer.write(Long.toString(tsBlock.getTimeByIndex(row)));
+      firstValue = false;
+    }
+    for (int columnIndex : columnIndexes) {
+      if (!firstValue) {
+        writer.write(',');
+      }
+      firstValue = false;
+      writeValue(writer, tsBlock.getColumn(columnIndex), row);
+    }
+    if (format == Format.JSON) {
+      writer.write(']');
+    } else if (format == Format.NDJSON) {
+      writer.write("]\n");
+    } else {
+      writer.write('\n');
+    }
+  }
+
+  private void writeValue(Writer writer, Column column, int row) throws IOException {
+    boolean csv = format == Format.CSV;
+    if (column.isNull(row)) {
+      if (!csv) {
+        writer.write("null");
+      }
+      return;
+    }
+    switch (column.getDataType()) {
+      case BOOLEAN:
+        writer.write(Boolean.toString(column.getBoolean(row)));
+        break;
+      case INT32:
+        writer.write(Integer.toString(column.getInt(row)));
+        break;
+      case INT64:
+      case TIMESTAMP:
+        writer.write(Long.toString(column.getLong(row)));
+        break;
+      case FLOAT:
+        writeFloatingPoint(writer, Float.toString(column.getFloat(row)), csv);
+        break;
+      case DOUBLE:
+        writeFloatingPoint(writer, Double.toString(column.getDouble(row)), csv);
+        break;
+      case DATE:
+        writeString(writer, DateUtils.formatDate(column.getInt(row)), csv);
+        break;
+      case BLOB:
+        writeString(
+            writer, BytesUtils.parseBlobByteArrayToString(column.getBinary(row).getValues()), csv);
+        break;
+      case TEXT:
+      case STRING:
+        writeString(writer, column.getBinary(row).getStringValue(TSFileConfig.STRING_CHARSET), csv);
+        break;
+      default:
+        writeString(writer, String.valueOf(column.getObject(row)), csv);
+        break;
+    }
+  }
+
+  private static void writeFloatingPoint(Writer writer, String value, boolean csv)
+      throws IOException {
+    // NaN and Infinity are not valid JSON numbers
+    if (csv || Character.isDigit(value.charAt(value.length() - 1))) {
+      writer.write(value);
+    } else {
+      writeJsonString(writer, value);
+    }
+  }
+
+  private static void writeString(Writer writer, String value, boolean csv) throws IOException {
+    if (csv) {
+      writeCsvString(writer, value);
+    } else {
+      writeJsonString(writer, value);
+    }
+  }
+
+  static void writeCsvString(Writer writer, String value) throws IOException {
+    boolean needQuote = false;
+    for (int i = 0; i < value.length() && !needQuote; i++) {
+      char c = value.charAt(i);
+      needQuote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!needQuote) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        writer.write('"');
+      }
+      writer.write(c);
+    }
+    writer.write('"');
+  }
+
+  static void writeJsonString(Writer writer, String value) throws IOException {
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          writer.write("\\\"");
+          break;
+        case '\\':
+          writer.write("\\\\");
+          break;
+        case '\n':
+          writer.write("\\n");
+          break;
+        case '\r':
+          writer.write("\\r");
+          break;
+        case '\t':
+          writer.write("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            writer.write(String.format("\\u%04x", (int) c));
+          } else {
+            writer.write(c);
+          }
+          break;
+      }
+    }
+    writer.write('"');
+  }
+}
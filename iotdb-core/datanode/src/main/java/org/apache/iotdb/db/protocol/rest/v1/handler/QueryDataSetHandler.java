@@ -18,6 +18,7 @@
 package org.apache.iotdb.db.protocol.rest.v1.handler;
 
 import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput.JsonLayout;
 import org.apache.iotdb.db.protocol.rest.v1.model.ExecutionStatus;
 import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
 import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
@@ -72,6 +73,20 @@ public class QueryDataSetHandler {
         .build();
   }
 
+  /** The fields of the response of {@link #fillQueryDataSet} for a streamed result. */
+  public static JsonLayout getStreamJsonLayout(Statement statement) {
+    if (statement instanceof ShowStatement
+        || statement instanceof AuthorStatement
+        || statement instanceof GetRegionIdStatement) {
+      return new JsonLayout("column_names", false, false, true);
+    } else if (statement instanceof QueryStatement
+        && ((QueryStatement) statement).isAggregationQuery()
+        && !((QueryStatement) statement).isGroupByTime()) {
+      return new JsonLayout("expressions", false, false, true);
+    }
+    return new JsonLayout("expressions", false, true, true);
+  }
+
   public static Response fillDataSetWithTimestamps(
       IQueryExecution queryExecution, final int actualRowSizeLimit, final long timePrecision)
       throws IoTDBException {
@@ -17,6 +17,7 @@
 
 package org.apache.iotdb.db.protocol.rest.v1.handler;
 
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput;
 import org.apache.iotdb.db.protocol.rest.v1.model.ExpressionRequest;
 import org.apache.iotdb.db.protocol.rest.v1.model.InsertTabletRequest;
 import org.apache.iotdb.db.protocol.rest.v1.model.SQL;
@@ -34,6 +35,11 @@ public class RequestValidationHandler {
     if (sql.getRowLimit() != null) {
       Validate.isTrue(sql.getRowLimit() > 0, "rowLimit should be positive");
     }
+    if (sql.getStreamFormat() != null) {
+      Validate.isTrue(
+          QueryResultStreamingOutput.Format.isSupported(sql.getStreamFormat()),
+          "streamFormat should be one of json, ndjson and csv");
+    }
   }
 
   public static void validateInsertTabletRequest(InsertTabletRequest insertTabletRequest) {
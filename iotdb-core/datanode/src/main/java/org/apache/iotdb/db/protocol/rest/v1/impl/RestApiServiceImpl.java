@@ -22,6 +22,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.rest.IoTDBRestServiceDescriptor;
 import org.apache.iotdb.db.protocol.rest.handler.AuthorizationHandler;
 import org.apache.iotdb.db.protocol.rest.utils.InsertTabletSortDataUtils;
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput;
 import org.apache.iotdb.db.protocol.rest.v1.RestApiService;
 import org.apache.iotdb.db.protocol.rest.v1.handler.ExceptionHandler;
 import org.apache.iotdb.db.protocol.rest.v1.handler.ExecuteStatementHandler;
@@ -68,12 +69,16 @@ public class RestApiServiceImpl extends RestApiService {
 
   private final Integer defaultQueryRowLimit;
 
+  private final int queryStreamBufferSize;
+
   public RestApiServiceImpl() {
     partitionFetcher = ClusterPartitionFetcher.getInstance();
     schemaFetcher = ClusterSchemaFetcher.getInstance();
     authorizationHandler = new AuthorizationHandler();
     defaultQueryRowLimit =
         IoTDBRestServiceDescriptor.getInstance().getConfig().getRestQueryDefaultRowSizeLimit();
+    queryStreamBufferSize =
+        IoTDBRestServiceDescriptor.getInstance().getConfig().getRestQueryStreamBufferSizeInBytes();
   }
 
   @Override
@@ -155,6 +160,7 @@ public class RestApiServiceImpl extends RestApiService {
   public Response executeQueryStatement(SQL sql, SecurityContext securityContext) {
     Long queryId = null;
     long startTime = System.nanoTime();
+    boolean streaming = false;
     boolean finish = false;
     Statement statement = null;
     try {
@@ -204,6 +210,11 @@ public class RestApiServiceImpl extends RestApiService {
             .build();
       }
       IQueryExecution queryExecution = COORDINATOR.getQueryExecution(queryId);
+      if (sql.getStreamFormat() != null) {
+        // the query is released by the stream after the client has read the result
+        streaming = true;
+        return streamQueryResult(queryExecution, sql, queryId, statement, startTime);
+      }
       try (SetThreadName threadName = new SetThreadName(result.queryId.getId())) {
         return QueryDataSetHandler.fillQueryDataSet(
             queryExecution,
@@ -221,7 +232,7 @@ public class RestApiServiceImpl extends RestApiService {
                 CommonUtils.addStatementExecutionLatency(
                     OperationType.EXECUTE_QUERY_STATEMENT, s.getType().name(), costTime);
               });
-      if (queryId != null) {
+      if (queryId != null && !streaming) {
         if (finish) {
           long executeTime = COORDINATOR.getTotalExecutionTime(queryId);
           CommonUtils.addQueryLatency(
@@ -232,6 +243,26 @@ public class RestApiServiceImpl extends RestApiService {
     }
   }
 
+  private Response streamQueryResult(
+      IQueryExecution queryExecution, SQL sql, long queryId, Statement statement, long startTime) {
+    // the default row limit protects the memory of fully built responses, a stream only stops
+    // early when the client asks for it
+    return new QueryResultStreamingOutput(
+            queryExecution,
+            QueryResultStreamingOutput.Format.of(sql.getStreamFormat()),
+            QueryDataSetHandler.getStreamJsonLayout(statement),
+            sql.getRowLimit() == null ? 0 : sql.getRowLimit(),
+            queryStreamBufferSize,
+            () -> {
+              long executionTime = COORDINATOR.getTotalExecutionTime(queryId);
+              CommonUtils.addQueryLatency(
+                  statement.getType(),
+                  executionTime > 0 ? executionTime : System.nanoTime() - startTime);
+              COORDINATOR.cleanupQueryExecution(queryId);
+            })
+        .toResponse();
+  }
+
   @Override
   public Response insertTablet(
       InsertTabletRequest insertTabletRequest, SecurityContext securityContext) {
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.rest.v2.handler;
+
+import org.apache.iotdb.db.protocol.json.JsonTabletParser;
+import org.apache.iotdb.db.protocol.json.JsonTokenReader;
+import org.apache.iotdb.db.protocol.rest.v2.model.InsertTabletRequest;
+
+import com.google.common.io.ByteStreams;
+import org.apache.tsfile.write.record.Tablet;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads the body of insertTablet requests with a {@link JsonTabletParser}, so that the timestamps
+ * and values are decoded straight into the primitive arrays of a tablet instead of lists of boxed
+ * objects. Errors in the body are kept in the request and reported by the endpoint, like the errors
+ * found when the request is validated.
+ */
+@Provider
+@Consumes(MediaType.APPLICATION_JSON)
+public class InsertTabletRequestReader implements MessageBodyReader<InsertTabletRequest> {
+
+  @Override
+  public boolean isReadable(
+      Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return type == InsertTabletRequest.class;
+  }
+
+  @Override
+  public InsertTabletRequest readFrom(
+      Class<InsertTabletRequest> type,
+      Type genericType,
+      Annotation[] annotations,
+      MediaType mediaType,
+      MultivaluedMap<String, String> httpHeaders,
+      InputStream entityStream)
+      throws IOException {
+    ParsedInsertTabletRequest request = new ParsedInsertTabletRequest();
+    byte[] body = ByteStreams.toByteArray(entityStream);
+    JsonTabletParser parser = new JsonTabletParser(new JsonTokenReader(body), false);
+    try {
+      Tablet tablet = parser.parseTablet();
+      if (tablet == null) {
+        throw new IllegalArgumentException("timestamps and data_types should not be null");
+      }
+      request.tablet = tablet;
+    } catch (RuntimeException e) {
+      request.parseException = e;
+    }
+    try {
+      // the fields checked by RequestValidationHandler, also when the tablet could not be parsed
+      request
+          .device(parser.getDevice())
+          .isAligned(parser.isAligned())
+          .measurements(parser.getMeasurements())
+          .dataTypes(parser.getDataTypes());
+    } catch (RuntimeException e) {
+      if (request.parseException == null) {
+        request.parseException = e;
+      }
+    }
+    return request;
+  }
+
+  /**
+   * An insertTablet request whose timestamps and values are held by a tablet sorted by time. The
+   * other fields are set as they are in the body.
+   */
+  public static class ParsedInsertTabletRequest extends InsertTabletRequest {
+
+    private Tablet tablet;
+    private RuntimeException parseException;
+
+    /** Throws the error met when the body was parsed. */
+    public Tablet getTablet() {
+      if (parseException != null) {
+        throw parseException;
+      }
+      return tablet;
+    }
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.iotdb.db.protocol.rest.v2.handler;
 
 import org.apache.iotdb.commons.exception.IoTDBException;
 import org.apache.iotdb.db.protocol.rest.model.ExecutionStatus;
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput.JsonLayout;
 import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
 import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
 import org.apache.iotdb.db.queryengine.plan.statement.Statement;
@@ -72,6 +73,20 @@ public class QueryDataSetHandler {
         .build();
   }
 
+  /** The fields of the response of {@link #fillQueryDataSet} for a streamed result. */
+  public static JsonLayout getStreamJsonLayout(Statement statement) {
+    if (statement instanceof ShowStatement
+        || statement instanceof AuthorStatement
+        || statement instanceof GetRegionIdStatement) {
+      return new JsonLayout("column_names", false, false, true);
+    } else if (statement instanceof QueryStatement
+        && ((QueryStatement) statement).isAggregationQuery()
+        && !((QueryStatement) statement).isGroupByTime()) {
+      return new JsonLayout("expressions", true, false, true);
+    }
+    return new JsonLayout("expressions", true, true, true);
+  }
+
   public static Response fillDataSetWithTimestamps(
       IQueryExecution queryExecution, final int actualRowSizeLimit, final long timePrecision)
       throws IoTDBException {
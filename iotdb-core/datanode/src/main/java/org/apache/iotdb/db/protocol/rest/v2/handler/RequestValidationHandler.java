@@ -17,6 +17,8 @@
 
 package org.apache.iotdb.db.protocol.rest.v2.handler;
 
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput;
+import org.apache.iotdb.db.protocol.rest.v2.handler.InsertTabletRequestReader.ParsedInsertTabletRequest;
 import org.apache.iotdb.db.protocol.rest.v2.model.ExpressionRequest;
 import org.apache.iotdb.db.protocol.rest.v2.model.InsertRecordsRequest;
 import org.apache.iotdb.db.protocol.rest.v2.model.InsertTabletRequest;
@@ -38,6 +40,11 @@ public class RequestValidationHandler {
     if (sql.getRowLimit() != null) {
       Validate.isTrue(sql.getRowLimit() > 0, "row_limit should be positive");
     }
+    if (sql.getStreamFormat() != null) {
+      Validate.isTrue(
+          QueryResultStreamingOutput.Format.isSupported(sql.getStreamFormat()),
+          "stream_format should be one of json, ndjson and csv");
+    }
   }
 
   public static void validateInsertTabletRequest(InsertTabletRequest insertTabletRequest) {
@@ -48,9 +55,31 @@ public class RequestValidationHandler {
     Objects.requireNonNull(
         insertTabletRequest.getMeasurements(), "measurements should not be null");
     Objects.requireNonNull(insertTabletRequest.getValues(), "values should not be null");
+    validateDataTypes(insertTabletRequest);
+  }
+
+  /**
+   * The same checks for a request whose timestamps and values have been parsed into a tablet. Their
+   * errors, e.g. a missing key, are thrown once the other fields are valid.
+   */
+  public static void validateInsertTabletRequest(ParsedInsertTabletRequest insertTabletRequest) {
+    Objects.requireNonNull(insertTabletRequest.getIsAligned(), "is_aligned should not be null");
+    Objects.requireNonNull(insertTabletRequest.getDevice(), "device should not be null");
+    Objects.requireNonNull(insertTabletRequest.getDataTypes(), "data_types should not be null");
+    Objects.requireNonNull(
+        insertTabletRequest.getMeasurements(), "measurements should not be null");
+    validateDataTypes(insertTabletRequest);
+    insertTabletRequest.getTablet();
+  }
+
+  private static void validateDataTypes(InsertTabletRequest insertTabletRequest) {
     List<String> errorMessages = new ArrayList<>();
     String device = insertTabletRequest.getDevice();
-    for (int i = 0; i < insertTabletRequest.getMeasurements().size(); i++) {
+    int count =
+        Math.min(
+            insertTabletRequest.getMeasurements().size(),
+            insertTabletRequest.getDataTypes().size());
+    for (int i = 0; i < count; i++) {
       String dataType = insertTabletRequest.getDataTypes().get(i);
       String measurement = insertTabletRequest.getMeasurements().get(i);
       if (isDataType(dataType)) {
@@ -22,9 +22,11 @@ import org.apache.iotdb.commons.utils.PathUtils;
 import org.apache.iotdb.db.exception.WriteProcessRejectException;
 import org.apache.iotdb.db.exception.metadata.DataTypeMismatchException;
 import org.apache.iotdb.db.protocol.rest.utils.InsertRowDataUtils;
+import org.apache.iotdb.db.protocol.rest.v2.handler.InsertTabletRequestReader.ParsedInsertTabletRequest;
 import org.apache.iotdb.db.protocol.rest.v2.model.InsertRecordsRequest;
 import org.apache.iotdb.db.protocol.rest.v2.model.InsertTabletRequest;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeDevicePathCache;
+import org.apache.iotdb.db.queryengine.plan.parser.StatementGenerator;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
@@ -37,6 +39,7 @@ import org.apache.tsfile.utils.BitMap;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -187,6 +190,20 @@ public class StatementConstructionHandler {
     return insertStatement;
   }
 
+  public static InsertTabletStatement constructInsertTabletStatement(
+      ParsedInsertTabletRequest insertTabletRequest) throws MetadataException {
+    InsertTabletStatement insertStatement =
+        StatementGenerator.createStatement(
+            insertTabletRequest.getTablet(), insertTabletRequest.getIsAligned());
+    // check whether measurement is legal according to syntax convention
+    // TODO: remove the check for table model
+    insertStatement.setMeasurements(
+        PathUtils.checkIsLegalSingleMeasurementsAndUpdate(
+                Arrays.asList(insertStatement.getMeasurements()))
+            .toArray(new String[0]));
+    return insertStatement;
+  }
+
   public static InsertRowsStatement createInsertRowsStatement(
       InsertRecordsRequest insertRecordsRequest)
       throws MetadataException, IoTDBConnectionException {
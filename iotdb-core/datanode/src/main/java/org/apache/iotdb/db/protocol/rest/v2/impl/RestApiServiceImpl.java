@@ -23,9 +23,11 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.rest.IoTDBRestServiceDescriptor;
 import org.apache.iotdb.db.protocol.rest.handler.AuthorizationHandler;
 import org.apache.iotdb.db.protocol.rest.utils.InsertTabletSortDataUtils;
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput;
 import org.apache.iotdb.db.protocol.rest.v2.RestApiService;
 import org.apache.iotdb.db.protocol.rest.v2.handler.ExceptionHandler;
 import org.apache.iotdb.db.protocol.rest.v2.handler.ExecuteStatementHandler;
+import org.apache.iotdb.db.protocol.rest.v2.handler.InsertTabletRequestReader.ParsedInsertTabletRequest;
 import org.apache.iotdb.db.protocol.rest.v2.handler.QueryDataSetHandler;
 import org.apache.iotdb.db.protocol.rest.v2.handler.RequestValidationHandler;
 import org.apache.iotdb.db.protocol.rest.v2.handler.StatementConstructionHandler;
@@ -72,12 +74,16 @@ public class RestApiServiceImpl extends RestApiService {
 
   private final Integer defaultQueryRowLimit;
 
+  private final int queryStreamBufferSize;
+
   public RestApiServiceImpl() {
     partitionFetcher = ClusterPartitionFetcher.getInstance();
     schemaFetcher = ClusterSchemaFetcher.getInstance();
     authorizationHandler = new AuthorizationHandler();
     defaultQueryRowLimit =
         IoTDBRestServiceDescriptor.getInstance().getConfig().getRestQueryDefaultRowSizeLimit();
+    queryStreamBufferSize =
+        IoTDBRestServiceDescriptor.getInstance().getConfig().getRestQueryStreamBufferSizeInBytes();
   }
 
   @Override
@@ -150,6 +156,7 @@ public class RestApiServiceImpl extends RestApiService {
     Long queryId = null;
     Statement statement = null;
     long startTime = System.nanoTime();
+    boolean streaming = false;
     boolean finish = false;
     try {
       RequestValidationHandler.validateSQL(sql);
@@ -201,6 +208,11 @@ public class RestApiServiceImpl extends RestApiService {
             .build();
       }
       IQueryExecution queryExecution = COORDINATOR.getQueryExecution(queryId);
+      if (sql.getStreamFormat() != null) {
+        // the query is released by the stream after the client has read the result
+        streaming = true;
+        return streamQueryResult(queryExecution, sql, queryId, statement, startTime);
+      }
       try (SetThreadName threadName = new SetThreadName(result.queryId.getId())) {
         return QueryDataSetHandler.fillQueryDataSet(
             queryExecution,
@@ -218,7 +230,7 @@ public class RestApiServiceImpl extends RestApiService {
                 CommonUtils.addStatementExecutionLatency(
                     OperationType.EXECUTE_QUERY_STATEMENT, s.getType().name(), costTime);
               });
-      if (queryId != null) {
+      if (queryId != null && !streaming) {
         if (finish) {
           long executionTime = COORDINATOR.getTotalExecutionTime(queryId);
           CommonUtils.addQueryLatency(
@@ -229,6 +241,26 @@ public class RestApiServiceImpl extends RestApiService {
     }
   }
 
+  private Response streamQueryResult(
+      IQueryExecution queryExecution, SQL sql, long queryId, Statement statement, long startTime) {
+    // the default row limit protects the memory of fully built responses, a stream only stops
+    // early when the client asks for it
+    return new QueryResultStreamingOutput(
+            queryExecution,
+            QueryResultStreamingOutput.Format.of(sql.getStreamFormat()),
+            QueryDataSetHandler.getStreamJsonLayout(statement),
+            sql.getRowLimit() == null ? 0 : sql.getRowLimit(),
+            queryStreamBufferSize,
+            () -> {
+              long executionTime = COORDINATOR.getTotalExecutionTime(queryId);
+              CommonUtils.addQueryLatency(
+                  statement.getType(),
+                  executionTime > 0 ? executionTime : System.nanoTime() - startTime);
+              COORDINATOR.cleanupQueryExecution(queryId);
+            })
+        .toResponse();
+  }
+
   @Override
   public Response insertRecords(
       InsertRecordsRequest insertRecordsRequest, SecurityContext securityContext) {
@@ -281,20 +313,31 @@ public class RestApiServiceImpl extends RestApiService {
     long startTime = System.nanoTime();
     InsertTabletStatement insertTabletStatement = null;
     try {
-      RequestValidationHandler.validateInsertTabletRequest(insertTabletRequest);
+      if (insertTabletRequest instanceof ParsedInsertTabletRequest) {
+        // the body has been parsed into a tablet sorted by time
+        ParsedInsertTabletRequest parsedInsertTabletRequest =
+            (ParsedInsertTabletRequest) insertTabletRequest;
+        RequestValidationHandler.validateInsertTabletRequest(parsedInsertTabletRequest);
+        insertTabletStatement =
+            StatementConstructionHandler.constructInsertTabletStatement(parsedInsertTabletRequest);
+      } else {
+        RequestValidationHandler.validateInsertTabletRequest(insertTabletRequest);
 
-      if (!InsertTabletSortDataUtils.checkSorted(insertTabletRequest.getTimestamps())) {
+        if (!InsertTabletSortDataUtils.checkSorted(insertTabletRequest.getTimestamps())) {
 
-        int[] index =
-            InsertTabletSortDataUtils.sortTimeStampList(insertTabletRequest.getTimestamps());
-        insertTabletRequest.getTimestamps().sort(Long::compareTo);
-        insertTabletRequest.setValues(
-            InsertTabletSortDataUtils.sortList(
-                insertTabletRequest.getValues(), index, insertTabletRequest.getDataTypes().size()));
-      }
+          int[] index =
+              InsertTabletSortDataUtils.sortTimeStampList(insertTabletRequest.getTimestamps());
+          insertTabletRequest.getTimestamps().sort(Long::compareTo);
+          insertTabletRequest.setValues(
+              InsertTabletSortDataUtils.sortList(
+                  insertTabletRequest.getValues(),
+                  index,
+                  insertTabletRequest.getDataTypes().size()));
+        }
 
-      insertTabletStatement =
-          StatementConstructionHandler.constructInsertTabletStatement(insertTabletRequest);
+        insertTabletStatement =
+            StatementConstructionHandler.constructInsertTabletStatement(insertTabletRequest);
+      }
 
       Response response =
           authorizationHandler.checkAuthority(securityContext, insertTabletStatement);
@@ -54,6 +54,9 @@ public abstract class IClientSession {
 
   @Nullable private String databaseName;
 
+  // whether query results are returned as columnar record batches instead of TsBlocks
+  private boolean arrowResultFormat = false;
+
   public abstract String getClientAddress();
 
   public abstract int getClientPort();
@@ -163,6 +166,14 @@ public abstract class IClientSession {
     this.databaseName = databaseName;
   }
 
+  public boolean isArrowResultFormat() {
+    return arrowResultFormat;
+  }
+
+  public void setArrowResultFormat(boolean arrowResultFormat) {
+    this.arrowResultFormat = arrowResultFormat;
+  }
+
   public enum SqlDialect {
     TREE((byte) 0),
     TABLE((byte) 1);
@@ -280,6 +280,14 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
         return pair.right;
       };
 
+  private static final SelectResult ARROW_SELECT_RESULT =
+      (resp, queryExecution, fetchSize) -> {
+        Pair<List<ByteBuffer>, Boolean> pair =
+            QueryDataSetUtils.convertQueryResultToArrowByFetchSize(queryExecution, fetchSize);
+        resp.setQueryResult(pair.left);
+        return pair.right;
+      };
+
   private static final SelectResult OLD_SELECT_RESULT =
       (resp, queryExecution, fetchSize) -> {
         Pair<TSQueryDataSet, Boolean> pair = convertTsBlockByFetchSize(queryExecution, fetchSize);
@@ -395,7 +403,11 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
           statementType = statementType == null ? StatementType.QUERY : statementType;
           resp = createResponse(queryExecution.getDatasetHeader(), queryId);
           resp.setStatus(result.status);
-          finished = setResult.apply(resp, queryExecution, req.fetchSize);
+          SelectResult selectResult =
+              clientSession.isArrowResultFormat() && setResult == SELECT_RESULT
+                  ? ARROW_SELECT_RESULT
+                  : setResult;
+          finished = selectResult.apply(resp, queryExecution, req.fetchSize);
           resp.setMoreData(!finished);
           if (quota != null) {
             quota.addReadResult(resp.getQueryResult());
@@ -1197,7 +1209,10 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
 
       try (SetThreadName queryName = new SetThreadName(queryExecution.getQueryId())) {
         Pair<List<ByteBuffer>, Boolean> pair =
-            QueryDataSetUtils.convertQueryResultByFetchSize(queryExecution, req.fetchSize);
+            clientSession.isArrowResultFormat()
+                ? QueryDataSetUtils.convertQueryResultToArrowByFetchSize(
+                    queryExecution, req.fetchSize)
+                : QueryDataSetUtils.convertQueryResultByFetchSize(queryExecution, req.fetchSize);
         List<ByteBuffer> result = pair.left;
         finished = pair.right;
         boolean hasResultSet = !result.isEmpty();
@@ -1248,6 +1263,14 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
       TSOpenSessionResp resp = new TSOpenSessionResp(tsStatus, CURRENT_RPC_VERSION);
       return resp.setSessionId(-1);
     }
+    boolean arrowResultFormat;
+    try {
+      arrowResultFormat = parseArrowResultFormat(req);
+    } catch (IllegalArgumentException e) {
+      TSStatus tsStatus = RpcUtils.getStatus(TSStatusCode.ILLEGAL_PARAMETER, e.getMessage());
+      TSOpenSessionResp resp = new TSOpenSessionResp(tsStatus, CURRENT_RPC_VERSION);
+      return resp.setSessionId(-1);
+    }
     Optional<String> database = parseDatabase(req);
     IClientSession clientSession = SESSION_MANAGER.getCurrSession();
     BasicOpenSessionResp openSessionResp =
@@ -1264,6 +1287,7 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
     if (tsStatus.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode() && database.isPresent()) {
       clientSession.setDatabaseName(database.get().toLowerCase(Locale.ENGLISH));
     }
+    clientSession.setArrowResultFormat(arrowResultFormat);
     TSOpenSessionResp resp = new TSOpenSessionResp(tsStatus, CURRENT_RPC_VERSION);
     Map<String, String> configuration = new HashMap<>();
     configuration.put(
@@ -1295,6 +1319,21 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
     }
   }
 
+  private boolean parseArrowResultFormat(TSOpenSessionReq req) {
+    Map<String, String> configuration = req.configuration;
+    if (configuration != null && configuration.containsKey(RpcUtils.RESULT_FORMAT)) {
+      String resultFormat = configuration.get(RpcUtils.RESULT_FORMAT);
+      if (RpcUtils.ARROW_RESULT_FORMAT.equalsIgnoreCase(resultFormat)) {
+        return true;
+      } else if (RpcUtils.TS_BLOCK_RESULT_FORMAT.equalsIgnoreCase(resultFormat)) {
+        return false;
+      } else {
+        throw new IllegalArgumentException("Unknown result_format: " + resultFormat);
+      }
+    }
+    return false;
+  }
+
   private Optional<String> parseDatabase(TSOpenSessionReq req) {
     Map<String, String> configuration = req.configuration;
     return configuration == null ? Optional.empty() : Optional.ofNullable(configuration.get("db"));
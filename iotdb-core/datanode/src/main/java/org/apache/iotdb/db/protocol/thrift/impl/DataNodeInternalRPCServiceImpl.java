@@ -95,6 +95,8 @@ import org.apache.iotdb.db.protocol.session.InternalClientSession;
 import org.apache.iotdb.db.protocol.session.SessionManager;
 import org.apache.iotdb.db.protocol.thrift.OperationType;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.execution.cq.CQWriteTimeTracker;
+import org.apache.iotdb.db.queryengine.execution.cq.IncrementalCQUtils;
 import org.apache.iotdb.db.queryengine.execution.executor.RegionExecutionResult;
 import org.apache.iotdb.db.queryengine.execution.executor.RegionReadExecutor;
 import org.apache.iotdb.db.queryengine.execution.executor.RegionWriteExecutor;
@@ -224,6 +226,7 @@ import org.apache.iotdb.mpp.rpc.thrift.TFetchSchemaBlackListReq;
 import org.apache.iotdb.mpp.rpc.thrift.TFetchSchemaBlackListResp;
 import org.apache.iotdb.mpp.rpc.thrift.TFireTriggerReq;
 import org.apache.iotdb.mpp.rpc.thrift.TFireTriggerResp;
+import org.apache.iotdb.mpp.rpc.thrift.TFireTriggersReq;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceInfoResp;
 import org.apache.iotdb.mpp.rpc.thrift.TInactiveTriggerInstanceReq;
 import org.apache.iotdb.mpp.rpc.thrift.TInvalidateCacheReq;
@@ -1439,12 +1442,24 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
             TSStatusCode.SQL_PARSE_ERROR, "This operation type is not supported");
       }
 
+      // windows that are not changed since the last execution are skipped
+      long startTime = req.startTime;
+      if (req.isSetLastEndTime()) {
+        // the every interval of the CQ is sent as the timeout
+        startTime =
+            IncrementalCQUtils.getRecomputeStartTime(
+                s, req.startTime, req.getTimeout(), req.getLastEndTime(), req.getMinWriteTimes());
+        if (startTime >= req.endTime) {
+          return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+        }
+      }
+
       // 1. Add time filter in where
       Expression timeFilter =
           new LogicAndExpression(
               new GreaterEqualExpression(
                   new TimestampOperand(),
-                  new ConstantOperand(TSDataType.INT64, String.valueOf(req.startTime))),
+                  new ConstantOperand(TSDataType.INT64, String.valueOf(startTime))),
               new LessThanExpression(
                   new TimestampOperand(),
                   new ConstantOperand(TSDataType.INT64, String.valueOf(req.endTime))));
@@ -1457,7 +1472,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
 
       // 2. Add time range in group by time
       if (s.getGroupByTimeComponent() != null) {
-        s.getGroupByTimeComponent().setStartTime(req.startTime);
+        s.getGroupByTimeComponent().setStartTime(startTime);
         s.getGroupByTimeComponent().setEndTime(req.endTime);
         s.getGroupByTimeComponent().setLeftCRightO(true);
       }
@@ -1900,6 +1915,12 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
       PipeDataNodeAgent.task().collectPipeMetaList(resp);
     }
 
+    if (req.isSetCqWriteTimeReportAck()) {
+      CQWriteTimeTracker.getInstance().fillHeartbeatResp(req.getCqWriteTimeReportAck(), resp);
+    } else {
+      CQWriteTimeTracker.getInstance().stopTracking();
+    }
+
     if (req.isSetConfigNodeEndPoints()) {
       if (ConfigNodeInfo.getInstance()
           .updateConfigNodeList(new ArrayList<>(req.getConfigNodeEndPoints()))) {
@@ -2549,11 +2570,35 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
     if (executor == null) {
       return new TFireTriggerResp(false, TriggerFireResult.FAILED_NO_TERMINATION.getId());
     }
+    TriggerFireResult result =
+        fireOnLocalExecutor(executor, req.tablet, TriggerEvent.construct(req.getTriggerEvent()));
+    return new TFireTriggerResp(true, result.getId());
+  }
+
+  @Override
+  public TFireTriggerResp fireTriggers(TFireTriggersReq req) {
+    String triggerName = req.getTriggerName();
+    TriggerExecutor executor = TriggerManagementService.getInstance().getExecutor(triggerName);
+    // No executor for given trigger name on this data node
+    if (executor == null) {
+      return new TFireTriggerResp(false, TriggerFireResult.FAILED_NO_TERMINATION.getId());
+    }
+    TriggerEvent event = TriggerEvent.construct(req.getTriggerEvent());
+    TriggerFireResult result = TriggerFireResult.SUCCESS;
+    for (ByteBuffer tablet : req.getTablets()) {
+      TriggerFireResult tabletResult = fireOnLocalExecutor(executor, tablet, event);
+      if (tabletResult.getId() > result.getId()) {
+        result = tabletResult;
+      }
+    }
+    return new TFireTriggerResp(true, result.getId());
+  }
+
+  private TriggerFireResult fireOnLocalExecutor(
+      TriggerExecutor executor, ByteBuffer tablet, TriggerEvent event) {
     TriggerFireResult result = TriggerFireResult.SUCCESS;
     try {
-      boolean fireResult =
-          executor.fire(
-              Tablet.deserialize(req.tablet), TriggerEvent.construct(req.getTriggerEvent()));
+      boolean fireResult = executor.fire(Tablet.deserialize(tablet), event);
       if (!fireResult) {
         result =
             executor.getFailureStrategy().equals(FailureStrategy.PESSIMISTIC)
@@ -2566,7 +2611,7 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
               ? TriggerFireResult.TERMINATION
               : TriggerFireResult.FAILED_NO_TERMINATION;
     }
-    return new TFireTriggerResp(true, result.getId());
+    return result;
   }
 
   private TEndPoint getConsensusEndPoint(
@@ -21,6 +21,8 @@ package org.apache.iotdb.db.queryengine.execution.aggregation;
 
 import org.apache.iotdb.common.rpc.thrift.TAggregationType;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.HyperLogLog;
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.SketchUtils;
 import org.apache.iotdb.db.queryengine.plan.expression.Expression;
 import org.apache.iotdb.db.queryengine.plan.expression.binary.CompareBinaryExpression;
 import org.apache.iotdb.db.queryengine.plan.expression.leaf.ConstantOperand;
@@ -140,11 +142,41 @@ public class AccumulatorFactory {
         return new VarianceAccumulator(tsDataType, VarianceAccumulator.VarianceType.VAR_SAMP);
       case VAR_POP:
         return new VarianceAccumulator(tsDataType, VarianceAccumulator.VarianceType.VAR_POP);
+      case APPROX_COUNT_DISTINCT:
+        return new ApproxCountDistinctAccumulator(
+            tsDataType,
+            Double.parseDouble(
+                inputAttributes.getOrDefault(
+                    SketchUtils.MAX_STANDARD_ERROR,
+                    String.valueOf(HyperLogLog.DEFAULT_STANDARD_ERROR))));
+      case APPROX_PERCENTILE:
+        return new ApproxPercentileAccumulator(
+            tsDataType,
+            Double.parseDouble(getRequiredAttribute(inputAttributes, SketchUtils.PERCENTAGE)));
+      case APPROX_MOST_FREQUENT:
+        int k =
+            Integer.parseInt(
+                inputAttributes.getOrDefault(SketchUtils.K, String.valueOf(SketchUtils.DEFAULT_K)));
+        return new ApproxMostFrequentAccumulator(
+            tsDataType,
+            k,
+            Integer.parseInt(
+                inputAttributes.getOrDefault(
+                    SketchUtils.CAPACITY, String.valueOf(SketchUtils.getDefaultCapacity(k)))));
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggregationType);
     }
   }
 
+  private static String getRequiredAttribute(Map<String, String> inputAttributes, String key) {
+    String value = inputAttributes.get(key);
+    if (value == null) {
+      throw new IllegalArgumentException(
+          String.format("Attribute '%s' of the aggregation function is required", key));
+    }
+    return value;
+  }
+
   private static Accumulator createModeAccumulator(TSDataType tsDataType) {
     switch (tsDataType) {
       case BOOLEAN:
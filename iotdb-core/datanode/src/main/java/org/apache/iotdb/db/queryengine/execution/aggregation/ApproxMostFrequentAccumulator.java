@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation;
+
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.SketchUtils;
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.SpaceSaving;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class ApproxMostFrequentAccumulator implements Accumulator {
+
+  private final TSDataType seriesDataType;
+  private final int k;
+  private final int capacity;
+
+  private SpaceSaving spaceSaving;
+
+  public ApproxMostFrequentAccumulator(TSDataType seriesDataType, int k, int capacity) {
+    SketchUtils.checkK(k);
+    this.seriesDataType = seriesDataType;
+    this.k = k;
+    this.capacity = capacity;
+    this.spaceSaving = new SpaceSaving(capacity);
+  }
+
+  // Column should be like: | Time | Value |
+  @Override
+  public void addInput(Column[] columns, BitMap bitMap) {
+    int count = columns[0].getPositionCount();
+    for (int i = 0; i < count; i++) {
+      if (bitMap != null && !bitMap.isMarked(i)) {
+        continue;
+      }
+      if (!columns[1].isNull(i)) {
+        spaceSaving.add(SketchUtils.getFrequencyKey(seriesDataType, columns[1], i));
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult) {
+    checkArgument(partialResult.length == 1, "partialResult of approx_most_frequent should be 1");
+    if (partialResult[0].isNull(0)) {
+      return;
+    }
+    spaceSaving.merge(
+        SketchUtils.deserializeMostFrequentSummary(partialResult[0].getBinary(0).getValues()));
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
+  @Override
+  public void setFinal(Column finalResult) {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    checkArgument(columnBuilders.length == 1, "partialResult of approx_most_frequent should be 1");
+    if (spaceSaving.isEmpty()) {
+      columnBuilders[0].appendNull();
+    } else {
+      columnBuilders[0].writeBinary(new Binary(SketchUtils.serializeMostFrequent(k, spaceSaving)));
+    }
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (spaceSaving.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(
+          new Binary(spaceSaving.toJsonString(k), TSFileConfig.STRING_CHARSET));
+    }
+  }
+
+  @Override
+  public void reset() {
+    spaceSaving = new SpaceSaving(capacity);
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.TEXT};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.TEXT;
+  }
+}
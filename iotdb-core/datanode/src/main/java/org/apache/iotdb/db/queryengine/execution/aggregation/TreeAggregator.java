@@ -22,6 +22,7 @@ package org.apache.iotdb.db.queryengine.execution.aggregation;
 import org.apache.iotdb.db.queryengine.metric.QueryExecutionMetricSet;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationStep;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
@@ -141,6 +142,38 @@ public class TreeAggregator {
     }
   }
 
+  /** Whether the accumulator can consume the sketches of a TsFile instead of its raw data. */
+  public boolean acceptsSketch() {
+    return step.isInputRaw() && accumulator instanceof SketchAccumulator;
+  }
+
+  /** Used for SeriesAggregateScanOperator, valueSketches may contain null. */
+  public boolean canUseSketches(SeriesSketch[] valueSketches) {
+    for (InputLocation[] inputLocations : inputLocationList) {
+      int valueIndex = inputLocations[0].getValueColumnIndex();
+      if (valueIndex == -1
+          || valueSketches[valueIndex] == null
+          || !((SketchAccumulator) accumulator).canUseSketch(valueSketches[valueIndex])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Used for SeriesAggregateScanOperator, only if canUseSketches() returns true. */
+  public void processSketches(SeriesSketch[] valueSketches) {
+    long startTime = System.nanoTime();
+    try {
+      for (InputLocation[] inputLocations : inputLocationList) {
+        ((SketchAccumulator) accumulator)
+            .addSketch(valueSketches[inputLocations[0].getValueColumnIndex()]);
+      }
+    } finally {
+      QUERY_EXECUTION_METRICS.recordExecutionCost(
+          AGGREGATION_FROM_STATISTICS, System.nanoTime() - startTime);
+    }
+  }
+
   public TSDataType[] getOutputType() {
     if (step.isOutputPartial()) {
       return accumulator.getIntermediateType();
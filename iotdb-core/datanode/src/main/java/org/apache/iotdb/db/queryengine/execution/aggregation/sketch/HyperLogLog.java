@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation.sketch;
+
+import com.google.common.hash.Hashing;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Dense HyperLogLog sketch used by approx_count_distinct. Two sketches built with the same
+ * precision can be merged by taking the register-wise maximum, so partial results computed on
+ * different regions can be combined without losing accuracy.
+ */
+public class HyperLogLog {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(HyperLogLog.class);
+
+  public static final double DEFAULT_STANDARD_ERROR = 0.023;
+
+  private static final int MIN_PRECISION = 4;
+  private static final int MAX_PRECISION = 16;
+
+  private final int precision;
+  private final byte[] registers;
+
+  public HyperLogLog(double maxStandardError) {
+    this(precisionOf(maxStandardError));
+  }
+
+  private HyperLogLog(int precision) {
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /** The smallest precision whose standard error 1.04 / sqrt(2^p) is below maxStandardError. */
+  public static int precisionOf(double maxStandardError) {
+    if (!(maxStandardError > 0 && maxStandardError < 1)) {
+      throw new IllegalArgumentException(
+          "Max standard error of approx_count_distinct should be in (0, 1), but is "
+              + maxStandardError);
+    }
+    double buckets = Math.pow(1.04 / maxStandardError, 2);
+    int precision = (int) Math.ceil(Math.log(buckets) / Math.log(2));
+    return Math.min(MAX_PRECISION, Math.max(MIN_PRECISION, precision));
+  }
+
+  public void add(long value) {
+    addHash(mix(value));
+  }
+
+  public void add(double value) {
+    // +0.0 and -0.0 are the same value
+    add(Double.doubleToLongBits(value == 0.0d ? 0.0d : value));
+  }
+
+  public void add(byte[] value) {
+    addHash(Hashing.murmur3_128().hashBytes(value).asLong());
+  }
+
+  private void addHash(long hash) {
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    // the remaining bits, with a sentinel bit so the rank never exceeds 64 - p + 1
+    long remaining = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+    if (registers[index] < rank) {
+      registers[index] = rank;
+    }
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  /**
+   * Merges a sketch of the same or a higher precision. The registers of a higher-precision sketch
+   * are folded first: the index bits it has beyond this precision become the leading bits of the
+   * rank, so the result equals the sketch this precision would have built from the same values.
+   */
+  public void merge(HyperLogLog other) {
+    if (other.precision < precision) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Cannot merge HyperLogLog sketch of precision %d into one of precision %d",
+              other.precision, precision));
+    }
+    int shift = other.precision - precision;
+    for (int i = 0; i < other.registers.length; i++) {
+      byte rank = other.registers[i];
+      if (rank == 0) {
+        continue;
+      }
+      if (shift > 0) {
+        int foldedBits = i & ((1 << shift) - 1);
+        rank =
+            foldedBits != 0
+                ? (byte) (Integer.numberOfLeadingZeros(foldedBits) - (Integer.SIZE - shift) + 1)
+                : (byte) (shift + rank);
+      }
+      int index = i >>> shift;
+      if (registers[index] < rank) {
+        registers[index] = rank;
+      }
+    }
+  }
+
+  public long cardinality() {
+    int buckets = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double estimate = alpha(buckets) * buckets * buckets / sum;
+    if (estimate <= 2.5 * buckets && zeros > 0) {
+      // linear counting is more accurate for small cardinalities
+      estimate = buckets * Math.log((double) buckets / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  private static double alpha(int buckets) {
+    switch (buckets) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / buckets);
+    }
+  }
+
+  // finalizer of MurmurHash3, spreads the bits of numeric values over the whole hash
+  private static long mix(long value) {
+    long hash = value;
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  public int getSerializedSize() {
+    return Byte.BYTES + registers.length;
+  }
+
+  public byte[] serialize() {
+    ByteBuffer buffer = ByteBuffer.allocate(getSerializedSize());
+    buffer.put((byte) precision);
+    buffer.put(registers);
+    return buffer.array();
+  }
+
+  public static HyperLogLog deserialize(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    HyperLogLog hyperLogLog = new HyperLogLog(buffer.get());
+    buffer.get(hyperLogLog.registers);
+    return hyperLogLog;
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + RamUsageEstimator.sizeOf(registers);
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation.sketch;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.BytesUtils;
+import org.apache.tsfile.utils.DateUtils;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Shared by the tree and table accumulators of approx_count_distinct, approx_percentile and
+ * approx_most_frequent, so that both engines produce the same intermediate results.
+ */
+public class SketchUtils {
+
+  public static final String MAX_STANDARD_ERROR = "maxStandardError";
+  public static final String PERCENTAGE = "percentage";
+  public static final String K = "k";
+  public static final String CAPACITY = "capacity";
+
+  public static final int DEFAULT_K = 10;
+  // counters kept per returned value when the capacity is not given
+  private static final int DEFAULT_CAPACITY_FACTOR = 10;
+
+  private static final String UNSUPPORTED_TYPE_MESSAGE =
+      "Unsupported data type in aggregation %s : %s";
+
+  private SketchUtils() {
+    // util class
+  }
+
+  public static void addToHyperLogLog(
+      HyperLogLog hyperLogLog, TSDataType dataType, Column column, int position) {
+    switch (dataType) {
+      case BOOLEAN:
+        hyperLogLog.add(column.getBoolean(position) ? 1L : 0L);
+        break;
+      case INT32:
+      case DATE:
+        hyperLogLog.add(column.getInt(position));
+        break;
+      case INT64:
+      case TIMESTAMP:
+        hyperLogLog.add(column.getLong(position));
+        break;
+      case FLOAT:
+        hyperLogLog.add((double) column.getFloat(position));
+        break;
+      case DOUBLE:
+        hyperLogLog.add(column.getDouble(position));
+        break;
+      case TEXT:
+      case STRING:
+      case BLOB:
+        hyperLogLog.add(column.getBinary(position).getValues());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(UNSUPPORTED_TYPE_MESSAGE, "approx_count_distinct", dataType));
+    }
+  }
+
+  public static double getNumericValue(TSDataType dataType, Column column, int position) {
+    switch (dataType) {
+      case INT32:
+        return column.getInt(position);
+      case INT64:
+        return column.getLong(position);
+      case FLOAT:
+        return column.getFloat(position);
+      case DOUBLE:
+        return column.getDouble(position);
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(UNSUPPORTED_TYPE_MESSAGE, "approx_percentile", dataType));
+    }
+  }
+
+  /** The key under which a value is counted by approx_most_frequent, also used in the result. */
+  public static String getFrequencyKey(TSDataType dataType, Column column, int position) {
+    switch (dataType) {
+      case BOOLEAN:
+        return String.valueOf(column.getBoolean(position));
+      case INT32:
+        return String.valueOf(column.getInt(position));
+      case DATE:
+        return DateUtils.formatDate(column.getInt(position));
+      case INT64:
+      case TIMESTAMP:
+        return String.valueOf(column.getLong(position));
+      case FLOAT:
+        return String.valueOf(column.getFloat(position));
+      case DOUBLE:
+        return String.valueOf(column.getDouble(position));
+      case TEXT:
+      case STRING:
+        return column.getBinary(position).getStringValue(TSFileConfig.STRING_CHARSET);
+      case BLOB:
+        return BytesUtils.parseBlobByteArrayToString(column.getBinary(position).getValues());
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(UNSUPPORTED_TYPE_MESSAGE, "approx_most_frequent", dataType));
+    }
+  }
+
+  /** Reads a constant argument, which is projected as a column of a numeric type. */
+  public static double getNumericParameter(Column column) {
+    return getNumericValue(column.getDataType(), column, 0);
+  }
+
+  public static void checkPercentage(double percentage) {
+    if (!(percentage >= 0 && percentage <= 1)) {
+      throw new IllegalArgumentException(
+          "Percentage of approx_percentile should be in [0, 1], but is " + percentage);
+    }
+  }
+
+  public static int getDefaultCapacity(int k) {
+    return k * DEFAULT_CAPACITY_FACTOR;
+  }
+
+  public static void checkK(int k) {
+    if (k <= 0) {
+      throw new IllegalArgumentException(
+          "Number of values returned by approx_most_frequent should be positive, but is " + k);
+    }
+  }
+
+  // approx_percentile keeps the percentage in its intermediate result, the final aggregation only
+  // receives the intermediate column
+
+  public static byte[] serializePercentile(double percentage, TDigest digest) {
+    ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES + digest.getSerializedSize());
+    buffer.putDouble(percentage);
+    digest.serialize(buffer);
+    return buffer.array();
+  }
+
+  public static double deserializePercentage(byte[] bytes) {
+    return ByteBuffer.wrap(bytes).getDouble();
+  }
+
+  public static TDigest deserializePercentileDigest(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    buffer.position(Double.BYTES);
+    return TDigest.deserialize(buffer);
+  }
+
+  // approx_most_frequent keeps k in its intermediate result for the same reason
+
+  public static byte[] serializeMostFrequent(int k, SpaceSaving spaceSaving) {
+    byte[] summary = spaceSaving.serialize();
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + summary.length);
+    buffer.putInt(k);
+    buffer.put(summary);
+    return buffer.array();
+  }
+
+  public static int deserializeK(byte[] bytes) {
+    return ByteBuffer.wrap(bytes).getInt();
+  }
+
+  public static SpaceSaving deserializeMostFrequentSummary(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    buffer.position(Integer.BYTES);
+    return SpaceSaving.deserialize(buffer);
+  }
+}
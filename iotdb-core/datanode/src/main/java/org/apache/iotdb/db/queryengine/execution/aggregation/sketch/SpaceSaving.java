@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation.sketch;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary used by approx_most_frequent. At most {@code capacity} values are counted;
+ * when a new value arrives and the summary is full, the value with the smallest count is replaced
+ * and the new value inherits that count plus one, so counts are never underestimated. Two summaries
+ * are merged by adding up their counters and keeping the {@code capacity} largest.
+ */
+public class SpaceSaving {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(SpaceSaving.class);
+  private static final long COUNTERS_INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(HashMap.class);
+
+  private final int capacity;
+  private final Map<String, Long> counters;
+
+  // estimated memory of the keys, they are the only part of the summary that varies in size
+  private long keysSize;
+
+  public SpaceSaving(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException(
+          "Capacity of approx_most_frequent should be positive, but is " + capacity);
+    }
+    this.capacity = capacity;
+    this.counters = new HashMap<>();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public boolean isEmpty() {
+    return counters.isEmpty();
+  }
+
+  public void add(String value) {
+    add(value, 1);
+  }
+
+  private void add(String value, long count) {
+    Long current = counters.get(value);
+    if (current != null) {
+      counters.put(value, current + count);
+      return;
+    }
+    if (counters.size() < capacity) {
+      putNew(value, count);
+      return;
+    }
+    Map.Entry<String, Long> minEntry = findMin();
+    removeKey(minEntry.getKey());
+    putNew(value, minEntry.getValue() + count);
+  }
+
+  public void merge(SpaceSaving other) {
+    for (Map.Entry<String, Long> entry : other.counters.entrySet()) {
+      Long current = counters.get(entry.getKey());
+      if (current != null) {
+        counters.put(entry.getKey(), current + entry.getValue());
+      } else {
+        putNew(entry.getKey(), entry.getValue());
+      }
+    }
+    if (counters.size() > capacity) {
+      List<Map.Entry<String, Long>> sorted = sortedEntries();
+      for (int i = capacity; i < sorted.size(); i++) {
+        removeKey(sorted.get(i).getKey());
+      }
+    }
+  }
+
+  private void putNew(String value, long count) {
+    counters.put(value, count);
+    keysSize += RamUsageEstimator.sizeOf(value);
+  }
+
+  private void removeKey(String value) {
+    counters.remove(value);
+    keysSize -= RamUsageEstimator.sizeOf(value);
+  }
+
+  private Map.Entry<String, Long> findMin() {
+    Map.Entry<String, Long> minEntry = null;
+    for (Map.Entry<String, Long> entry : counters.entrySet()) {
+      if (minEntry == null || entry.getValue() < minEntry.getValue()) {
+        minEntry = entry;
+      }
+    }
+    return minEntry;
+  }
+
+  /** Entries ordered by count descending, ties are ordered by value to keep results stable. */
+  private List<Map.Entry<String, Long>> sortedEntries() {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>(counters.entrySet());
+    entries.sort(
+        (a, b) -> {
+          int result = Long.compare(b.getValue(), a.getValue());
+          return result != 0 ? result : a.getKey().compareTo(b.getKey());
+        });
+    return entries;
+  }
+
+  /** Returns the k most frequent values as a JSON object like {"v1":10,"v2":3}. */
+  public String toJsonString(int k) {
+    List<Map.Entry<String, Long>> entries = sortedEntries();
+    StringBuilder builder = new StringBuilder("{");
+    for (int i = 0; i < Math.min(k, entries.size()); i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      appendJsonString(builder, entries.get(i).getKey());
+      builder.append(':').append(entries.get(i).getValue());
+    }
+    return builder.append('}').toString();
+  }
+
+  private static void appendJsonString(StringBuilder builder, String value) {
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        builder.append('\\').append(c);
+      } else if (c < 0x20) {
+        builder.append(String.format("\\u%04x", (int) c));
+      } else {
+        builder.append(c);
+      }
+    }
+    builder.append('"');
+  }
+
+  public byte[] serialize() {
+    List<byte[]> keys = new ArrayList<>(counters.size());
+    int size = Integer.BYTES * 2;
+    for (String key : counters.keySet()) {
+      byte[] bytes = key.getBytes(TSFileConfig.STRING_CHARSET);
+      keys.add(bytes);
+      size += Integer.BYTES + bytes.length + Long.BYTES;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    buffer.putInt(capacity);
+    buffer.putInt(counters.size());
+    int i = 0;
+    for (Long count : counters.values()) {
+      byte[] bytes = keys.get(i++);
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+      buffer.putLong(count);
+    }
+    return buffer.array();
+  }
+
+  public static SpaceSaving deserialize(byte[] bytes) {
+    return deserialize(ByteBuffer.wrap(bytes));
+  }
+
+  public static SpaceSaving deserialize(ByteBuffer buffer) {
+    SpaceSaving spaceSaving = new SpaceSaving(buffer.getInt());
+    int size = buffer.getInt();
+    for (int i = 0; i < size; i++) {
+      byte[] bytes = new byte[buffer.getInt()];
+      buffer.get(bytes);
+      spaceSaving.putNew(new String(bytes, TSFileConfig.STRING_CHARSET), buffer.getLong());
+    }
+    return spaceSaving;
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE
+        + COUNTERS_INSTANCE_SIZE
+        + counters.size() * (RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY + Long.BYTES * 2)
+        + keysSize;
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation.sketch;
+
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest used by approx_percentile. Values are buffered and periodically merged into a
+ * sorted list of centroids whose size is bounded by 4 * n * q * (1 - q) / compression, which keeps
+ * the centroids near both tails small and therefore the extreme quantiles accurate. Digests are
+ * merged by feeding the centroids of one digest into the buffer of another.
+ */
+public class TDigest {
+
+  private static final long INSTANCE_SIZE = RamUsageEstimator.shallowSizeOfInstance(TDigest.class);
+
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private final double compression;
+
+  // merged centroids, sorted by mean
+  private double[] means;
+  private double[] weights;
+  private int centroidCount;
+
+  // values and centroids not merged yet
+  private double[] bufferMeans;
+  private double[] bufferWeights;
+  private int bufferCount;
+
+  private double totalWeight;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public TDigest() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  public TDigest(double compression) {
+    this.compression = compression;
+    int capacity = (int) Math.ceil(2 * compression) + 8;
+    this.means = new double[capacity];
+    this.weights = new double[capacity];
+    this.bufferMeans = new double[capacity * 4];
+    this.bufferWeights = new double[capacity * 4];
+  }
+
+  public void add(double value) {
+    add(value, 1);
+  }
+
+  private void add(double mean, double weight) {
+    if (Double.isNaN(mean)) {
+      return;
+    }
+    if (bufferCount == bufferMeans.length) {
+      compress();
+    }
+    bufferMeans[bufferCount] = mean;
+    bufferWeights[bufferCount] = weight;
+    bufferCount++;
+    totalWeight += weight;
+    min = Math.min(min, mean);
+    max = Math.max(max, mean);
+  }
+
+  public void merge(TDigest other) {
+    other.compress();
+    for (int i = 0; i < other.centroidCount; i++) {
+      add(other.means[i], other.weights[i]);
+    }
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  public boolean isEmpty() {
+    return totalWeight == 0;
+  }
+
+  /** Merges the buffered values into the centroids. */
+  public void compress() {
+    if (bufferCount == 0) {
+      return;
+    }
+    int count = centroidCount + bufferCount;
+    double[] allMeans = Arrays.copyOf(means, count);
+    double[] allWeights = Arrays.copyOf(weights, count);
+    System.arraycopy(bufferMeans, 0, allMeans, centroidCount, bufferCount);
+    System.arraycopy(bufferWeights, 0, allWeights, centroidCount, bufferCount);
+    bufferCount = 0;
+    sortByMean(allMeans, allWeights, count);
+
+    int merged = 0;
+    double weightSoFar = 0;
+    for (int i = 1; i < count; i++) {
+      double proposedWeight = allWeights[merged] + allWeights[i];
+      double q = (weightSoFar + proposedWeight / 2) / totalWeight;
+      if (proposedWeight <= 4 * totalWeight * q * (1 - q) / compression) {
+        allMeans[merged] += (allMeans[i] - allMeans[merged]) * allWeights[i] / proposedWeight;
+        allWeights[merged] = proposedWeight;
+      } else {
+        weightSoFar += allWeights[merged];
+        merged++;
+        allMeans[merged] = allMeans[i];
+        allWeights[merged] = allWeights[i];
+      }
+    }
+    centroidCount = merged + 1;
+    if (means.length < centroidCount) {
+      means = new double[centroidCount];
+      weights = new double[centroidCount];
+    }
+    System.arraycopy(allMeans, 0, means, 0, centroidCount);
+    System.arraycopy(allWeights, 0, weights, 0, centroidCount);
+  }
+
+  private static void sortByMean(double[] means, double[] weights, int count) {
+    Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(means[a], means[b]));
+    double[] sortedMeans = new double[count];
+    double[] sortedWeights = new double[count];
+    for (int i = 0; i < count; i++) {
+      sortedMeans[i] = means[order[i]];
+      sortedWeights[i] = weights[order[i]];
+    }
+    System.arraycopy(sortedMeans, 0, means, 0, count);
+    System.arraycopy(sortedWeights, 0, weights, 0, count);
+  }
+
+  /**
+   * @param quantile in [0, 1]
+   * @return the estimated value at the quantile, or NaN if the digest is empty
+   */
+  public double quantile(double quantile) {
+    compress();
+    if (centroidCount == 0) {
+      return Double.NaN;
+    }
+    if (centroidCount == 1) {
+      return means[0];
+    }
+    double index = quantile * totalWeight;
+    if (index <= weights[0] / 2) {
+      return interpolate(index, 0, min, weights[0] / 2, means[0]);
+    }
+    double center = weights[0] / 2;
+    for (int i = 0; i < centroidCount - 1; i++) {
+      double nextCenter = center + (weights[i] + weights[i + 1]) / 2;
+      if (index <= nextCenter) {
+        return interpolate(index, center, means[i], nextCenter, means[i + 1]);
+      }
+      center = nextCenter;
+    }
+    return interpolate(index, center, means[centroidCount - 1], totalWeight, max);
+  }
+
+  private static double interpolate(
+      double index, double leftIndex, double leftValue, double rightIndex, double rightValue) {
+    if (rightIndex <= leftIndex) {
+      return leftValue;
+    }
+    double ratio = Math.min(1, (index - leftIndex) / (rightIndex - leftIndex));
+    return leftValue + (rightValue - leftValue) * ratio;
+  }
+
+  public int getSerializedSize() {
+    compress();
+    return Double.BYTES * 3 + Integer.BYTES + centroidCount * Double.BYTES * 2;
+  }
+
+  public byte[] serialize() {
+    ByteBuffer buffer = ByteBuffer.allocate(getSerializedSize());
+    serialize(buffer);
+    return buffer.array();
+  }
+
+  public void serialize(ByteBuffer buffer) {
+    compress();
+    buffer.putDouble(compression);
+    buffer.putDouble(min);
+    buffer.putDouble(max);
+    buffer.putInt(centroidCount);
+    for (int i = 0; i < centroidCount; i++) {
+      buffer.putDouble(means[i]);
+      buffer.putDouble(weights[i]);
+    }
+  }
+
+  public static TDigest deserialize(byte[] bytes) {
+    return deserialize(ByteBuffer.wrap(bytes));
+  }
+
+  public static TDigest deserialize(ByteBuffer buffer) {
+    TDigest digest = new TDigest(buffer.getDouble());
+    digest.min = buffer.getDouble();
+    digest.max = buffer.getDouble();
+    int count = buffer.getInt();
+    if (digest.means.length < count) {
+      digest.means = new double[count];
+      digest.weights = new double[count];
+    }
+    for (int i = 0; i < count; i++) {
+      digest.means[i] = buffer.getDouble();
+      digest.weights[i] = buffer.getDouble();
+      digest.totalWeight += digest.weights[i];
+    }
+    digest.centroidCount = count;
+    return digest;
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE
+        + RamUsageEstimator.sizeOf(means)
+        + RamUsageEstimator.sizeOf(weights)
+        + RamUsageEstimator.sizeOf(bufferMeans)
+        + RamUsageEstimator.sizeOf(bufferWeights);
+  }
+}
@@ -233,6 +233,10 @@ public class SlidingWindowAggregatorFactory {
         throw new SemanticException("TIME_DURATION with slidingWindow is not supported now");
       case MODE:
         throw new SemanticException("MODE with slidingWindow is not supported now");
+      case APPROX_COUNT_DISTINCT:
+      case APPROX_PERCENTILE:
+      case APPROX_MOST_FREQUENT:
+        throw new SemanticException(aggregationType + " with slidingWindow is not supported now");
       default:
         throw new IllegalArgumentException("Invalid Aggregation Type: " + aggregationType);
     }
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.cq;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.mpp.rpc.thrift.TDataNodeHeartbeatResp;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the minimum data time written into each database of this DataNode, so that the ConfigNode
+ * can tell which windows of an incremental CQ have to be recomputed.
+ *
+ * <p>The minimum times are reported through the DataNode heartbeat. A report is kept and merged
+ * into the following ones until the ConfigNode acknowledges it in a later heartbeat request, so a
+ * lost heartbeat response never loses a late write, it only makes the ConfigNode see it twice.
+ *
+ * <p>The writes are only tracked while incremental execution is enabled and the ConfigNode asks for
+ * the reports, i.e. while some incremental CQ is registered on it. The tracking is on from startup
+ * until the first heartbeat, so that the writes received before it are not missed.
+ */
+public class CQWriteTimeTracker {
+
+  // whether the ConfigNode asked for the reports in the last heartbeat
+  private volatile boolean isRequested = true;
+
+  // written since the last heartbeat
+  private final Map<String, Long> pendingMinWriteTimes = new ConcurrentHashMap<>();
+
+  // reported but not acknowledged yet, guarded by this
+  private final Map<String, Long> unackedMinWriteTimes = new HashMap<>();
+
+  // starts from the current time so that the ids keep increasing across restarts
+  private long reportId = System.currentTimeMillis();
+
+  private CQWriteTimeTracker() {
+    // empty constructor
+  }
+
+  public boolean isTracking() {
+    return isRequested && IoTDBDescriptor.getInstance().getConfig().isEnableIncrementalCQ();
+  }
+
+  /** Called after data whose minimum time is {@code minTime} is written into the database. */
+  public void recordWrite(String database, long minTime) {
+    if (isTracking()) {
+      pendingMinWriteTimes.merge(database, minTime, Math::min);
+    }
+  }
+
+  /** Called when the ConfigNode does not ask for the reports, no CQ needs them. */
+  public synchronized void stopTracking() {
+    if (isRequested) {
+      isRequested = false;
+      pendingMinWriteTimes.clear();
+      unackedMinWriteTimes.clear();
+    }
+  }
+
+  public synchronized void fillHeartbeatResp(long ack, TDataNodeHeartbeatResp resp) {
+    isRequested = true;
+    if (ack == reportId) {
+      unackedMinWriteTimes.clear();
+    }
+    for (String database : pendingMinWriteTimes.keySet()) {
+      Long minTime = pendingMinWriteTimes.remove(database);
+      if (minTime != null) {
+        unackedMinWriteTimes.merge(database, minTime, Math::min);
+      }
+    }
+    if (unackedMinWriteTimes.isEmpty()) {
+      return;
+    }
+    resp.setCqWriteTimeReportId(++reportId);
+    resp.setCqMinWriteTimes(new HashMap<>(unackedMinWriteTimes));
+  }
+
+  public static CQWriteTimeTracker getInstance() {
+    return CQWriteTimeTrackerHolder.INSTANCE;
+  }
+
+  private static class CQWriteTimeTrackerHolder {
+
+    private static final CQWriteTimeTracker INSTANCE = new CQWriteTimeTracker();
+
+    private CQWriteTimeTrackerHolder() {
+      // empty constructor
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.cq;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.queryengine.plan.statement.component.GroupByTimeComponent;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.iotdb.commons.conf.IoTDBConstant.MULTI_LEVEL_PATH_WILDCARD;
+
+public class IncrementalCQUtils {
+
+  private IncrementalCQUtils() {
+    // util class
+  }
+
+  /**
+   * Get the start time of the windows that have to be recomputed in this execution of a CQ. The
+   * windows before it were written by previous executions and no data in them has changed since
+   * then.
+   *
+   * <p>Only tumbling or sliding GROUP BY TIME queries without month intervals, FILL and LIMIT can
+   * be executed incrementally, because only their result of one window does not depend on the data
+   * of other windows. The windows of two executions are aligned only if the every interval of the
+   * CQ is a multiple of the sliding step. {@code startTime} is returned for any other query so that
+   * it is fully executed.
+   *
+   * @param startTime start time of the time range of this execution
+   * @param everyInterval every interval of the CQ
+   * @param lastEndTime end time of the time range of the last successful execution
+   * @param minWriteTimes minimum data time written into each database since the last execution
+   */
+  public static long getRecomputeStartTime(
+      QueryStatement queryStatement,
+      long startTime,
+      long everyInterval,
+      long lastEndTime,
+      Map<String, Long> minWriteTimes) {
+    GroupByTimeComponent groupByTime = queryStatement.getGroupByTimeComponent();
+    if (groupByTime == null
+        || groupByTime.getInterval().containsMonth()
+        || groupByTime.getSlidingStep().containsMonth()
+        || queryStatement.hasFill()
+        || queryStatement.getRowLimit() != 0
+        || queryStatement.getRowOffset() != 0) {
+      return startTime;
+    }
+    long interval = groupByTime.getInterval().nonMonthDuration;
+    long slidingStep = groupByTime.getSlidingStep().nonMonthDuration;
+    if (slidingStep <= 0 || everyInterval % slidingStep != 0) {
+      return startTime;
+    }
+
+    long dirtyTime = lastEndTime;
+    if (minWriteTimes != null) {
+      List<PartialPath> sourcePaths = queryStatement.getFromComponent().getPrefixPaths();
+      for (Map.Entry<String, Long> entry : minWriteTimes.entrySet()) {
+        if (entry.getValue() < dirtyTime && isReadFrom(sourcePaths, entry.getKey())) {
+          dirtyTime = entry.getValue();
+        }
+      }
+    }
+    if (dirtyTime <= startTime) {
+      return startTime;
+    }
+    // the first window that contains any point not earlier than dirtyTime
+    long firstWindow = ceilDiv(dirtyTime - interval + 1 - startTime, slidingStep);
+    return firstWindow <= 0 ? startTime : startTime + firstWindow * slidingStep;
+  }
+
+  private static boolean isReadFrom(List<PartialPath> sourcePaths, String database) {
+    PartialPath databasePath;
+    try {
+      databasePath = new PartialPath(database);
+    } catch (IllegalPathException e) {
+      return true;
+    }
+    for (PartialPath sourcePath : sourcePaths) {
+      // the suffix paths in the select clause are appended to the prefix paths
+      if (sourcePath
+          .concatNode(MULTI_LEVEL_PATH_WILDCARD)
+          .overlapWithFullPathPrefix(databasePath)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long ceilDiv(long x, long y) {
+    return -Math.floorDiv(-x, y);
+  }
+}
@@ -40,6 +40,7 @@ import org.apache.iotdb.db.consensus.SchemaRegionConsensusImpl;
 import org.apache.iotdb.db.exception.metadata.MeasurementAlreadyExistException;
 import org.apache.iotdb.db.exception.metadata.SchemaQuotaExceededException;
 import org.apache.iotdb.db.protocol.thrift.impl.DataNodeRegionManager;
+import org.apache.iotdb.db.queryengine.execution.cq.CQWriteTimeTracker;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.metadata.write.ActivateTemplateNode;
@@ -71,6 +72,8 @@ import org.apache.iotdb.db.schemaengine.SchemaEngine;
 import org.apache.iotdb.db.schemaengine.schemaregion.ISchemaRegion;
 import org.apache.iotdb.db.schemaengine.template.ClusterTemplateManager;
 import org.apache.iotdb.db.schemaengine.template.Template;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.trigger.executor.TriggerFireResult;
 import org.apache.iotdb.db.trigger.executor.TriggerFireVisitor;
 import org.apache.iotdb.rpc.RpcUtils;
@@ -258,6 +261,7 @@ public class RegionWriteExecutor {
       context.getRegionWriteValidationRWLock().readLock().lock();
       try {
         final TSStatus status = fireTriggerAndInsert(context.getRegionId(), insertNode);
+        recordWriteTime(context.getRegionId(), insertNode.getMinTime());
         return RegionExecutionResult.create(
             TSStatusCode.SUCCESS_STATUS.getStatusCode() == status.getCode(),
             status.message,
@@ -309,6 +313,18 @@ public class RegionWriteExecutor {
       return status;
     }
 
+    // the windows of incremental CQs that contain the written data have to be recomputed
+    private void recordWriteTime(final ConsensusGroupId groupId, final long minTime) {
+      if (!CQWriteTimeTracker.getInstance().isTracking()) {
+        return;
+      }
+      final DataRegion dataRegion =
+          StorageEngine.getInstance().getDataRegion((DataRegionId) groupId);
+      if (dataRegion != null) {
+        CQWriteTimeTracker.getInstance().recordWrite(dataRegion.getDatabaseName(), minTime);
+      }
+    }
+
     @Override
     public RegionExecutionResult visitPipeEnrichedDeleteDataNode(
         final PipeEnrichedDeleteDataNode node, final WritePlanNodeExecutionContext context) {
@@ -328,7 +344,9 @@ public class RegionWriteExecutor {
       // require write lock on data region.
       context.getRegionWriteValidationRWLock().writeLock().lock();
       try {
-        return super.visitDeleteData(node, context);
+        final RegionExecutionResult result = super.visitDeleteData(node, context);
+        recordWriteTime(context.getRegionId(), node.getDeleteStartTime());
+        return result;
       } finally {
         context.getRegionWriteValidationRWLock().writeLock().unlock();
       }
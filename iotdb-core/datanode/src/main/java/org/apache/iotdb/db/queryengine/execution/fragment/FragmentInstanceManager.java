@@ -84,6 +84,9 @@ public class FragmentInstanceManager {
   private final Duration infoCacheTime;
 
   private final ExecutorService intoOperationExecutor;
+
+  // null if the output columns of UDF queries are not evaluated in parallel
+  private final ExecutorService udfEvaluationExecutor;
   private final ExecutorService modelInferenceExecutor;
 
   private final MPPDataExchangeManager exchangeManager =
@@ -123,6 +126,14 @@ public class FragmentInstanceManager {
             IoTDBDescriptor.getInstance().getConfig().getIntoOperationExecutionThreadCount(),
             "into-operation-executor");
 
+    int udfParallelEvaluationThreadCount =
+        IoTDBDescriptor.getInstance().getConfig().getUdfParallelEvaluationThreadCount();
+    this.udfEvaluationExecutor =
+        udfParallelEvaluationThreadCount > 0
+            ? IoTDBThreadPoolFactory.newFixedThreadPool(
+                udfParallelEvaluationThreadCount, "udf-evaluation-executor")
+            : null;
+
     this.modelInferenceExecutor =
         IoTDBThreadPoolFactory.newFixedThreadPool(
             CommonDescriptor.getInstance().getConfig().getModelInferenceExecutionThreadCount(),
@@ -438,6 +449,10 @@ public class FragmentInstanceManager {
     return intoOperationExecutor;
   }
 
+  public ExecutorService getUdfEvaluationExecutor() {
+    return udfEvaluationExecutor;
+  }
+
   public ExecutorService getModelInferenceExecutor() {
     return modelInferenceExecutor;
   }
@@ -22,11 +22,11 @@ package org.apache.iotdb.db.queryengine.execution.fragment;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.path.PatternTreeMap;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.ModificationUtils;
-import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
 import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory.ModsSerializer;
 
 import org.apache.tsfile.file.metadata.IDeviceID;
@@ -49,9 +49,9 @@ public class QueryContext {
   private QueryStatistics queryStatistics = new QueryStatistics();
 
   /**
-   * The key is the path of a ModificationFile and the value is all Modifications in this file. We
-   * use this field because each call of Modification.getModifications() return a copy of the
-   * Modifications, and we do not want it to create multiple copies within a query.
+   * The key is the path of a TsFile and the value is all Modifications of this file. The
+   * Modifications are shared with {@link ModificationCache}, this field keeps a query using the
+   * same version of them even if the mods file is appended to during the query.
    */
   private final Map<String, PatternTreeMap<ModEntry, ModsSerializer>> fileModCache =
       new ConcurrentHashMap<>();
@@ -101,14 +101,7 @@ public class QueryContext {
   private PatternTreeMap<ModEntry, ModsSerializer> getAllModifications(TsFileResource resource) {
     return fileModCache.computeIfAbsent(
         resource.getTsFilePath(),
-        k -> {
-          PatternTreeMap<ModEntry, ModsSerializer> modifications =
-              PatternTreeMapFactory.getModsPatternTreeMap();
-          for (ModEntry modification : resource.getAllModEntries()) {
-            modifications.append(modification.keyOfPatternTree(), modification);
-          }
-          return modifications;
-        });
+        k -> ModificationCache.getInstance().get(resource).getModificationTree());
   }
 
   public List<ModEntry> getPathModifications(
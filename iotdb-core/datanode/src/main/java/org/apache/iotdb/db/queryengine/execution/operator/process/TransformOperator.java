@@ -52,8 +52,13 @@ import org.apache.tsfile.write.UnSupportedDataTypeException;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class TransformOperator implements ProcessOperator {
 
@@ -81,6 +86,15 @@ public class TransformOperator implements ProcessOperator {
   protected int[] currentIndexes;
   protected boolean[] shouldIterateReadersToNextValid;
 
+  // null if the output columns are evaluated by the driver thread one by one
+  private final ExecutorService udfEvaluationExecutor;
+  // the indexes of output columns in each independent group, null if there is only one group or
+  // the output columns are not evaluated in parallel
+  private int[][] outputColumnGroups;
+  private YieldableState[] iterationStates;
+  // the evaluations submitted by the driver thread, cancelled if the operator is closed
+  private volatile List<Future<?>> runningFutures = Collections.emptyList();
+
   private final String udtfQueryId;
 
   @SuppressWarnings("squid:S107")
@@ -95,9 +109,40 @@ public class TransformOperator implements ProcessOperator {
       Map<NodeRef<Expression>, TSDataType> expressionTypes,
       boolean isAscending)
       throws QueryProcessException {
+    this(
+        operatorContext,
+        inputOperator,
+        inputDataTypes,
+        inputLocations,
+        outputExpressions,
+        keepNull,
+        zoneId,
+        expressionTypes,
+        isAscending,
+        null);
+  }
+
+  /**
+   * @param udfEvaluationExecutor the pool evaluating the independent output columns in parallel,
+   *     null if the output columns should be evaluated by the driver thread one by one
+   */
+  @SuppressWarnings("squid:S107")
+  public TransformOperator(
+      OperatorContext operatorContext,
+      Operator inputOperator,
+      List<TSDataType> inputDataTypes,
+      Map<String, List<InputLocation>> inputLocations,
+      Expression[] outputExpressions,
+      boolean keepNull,
+      ZoneId zoneId,
+      Map<NodeRef<Expression>, TSDataType> expressionTypes,
+      boolean isAscending,
+      ExecutorService udfEvaluationExecutor)
+      throws QueryProcessException {
     this.operatorContext = operatorContext;
     this.inputOperator = inputOperator;
     this.keepNull = keepNull;
+    this.udfEvaluationExecutor = udfEvaluationExecutor;
     // use DriverTaskID().getFullId() to ensure that udtfQueryId for each TransformOperator is
     // unique
     this.udtfQueryId = operatorContext.getDriverContext().getDriverTaskID().getFullId();
@@ -136,7 +181,7 @@ public class TransformOperator implements ProcessOperator {
       // This statement must be surrounded by the registration lock.
       UDFClassLoaderManager.getInstance().initializeUDFQuery(udtfQueryId);
       // UDF executors will be initialized at the same time
-      transformers =
+      EvaluationDAGBuilder builder =
           new EvaluationDAGBuilder(
                   udtfQueryId,
                   inputLayer,
@@ -144,17 +189,46 @@ public class TransformOperator implements ProcessOperator {
                   outputExpressions,
                   expressionTypes,
                   udtfContext,
-                  udfTransformerMemoryBudgetInMB + udfCollectorMemoryBudgetInMB)
+                  udfTransformerMemoryBudgetInMB + udfCollectorMemoryBudgetInMB,
+                  udfEvaluationExecutor != null)
               .buildLayerMemoryAssigner()
               .bindInputLayerColumnIndexWithExpression()
-              .buildResultColumnPointReaders()
-              .getOutputReaders();
+              .buildResultColumnPointReaders();
+      transformers = builder.getOutputReaders();
+      initOutputColumnGroups(builder.getOutputGroupIds());
     } finally {
       UDFManagementService.getInstance().releaseLock();
     }
   }
 
+  private void initOutputColumnGroups(int[] outputGroupIds) {
+    int groupCount = 0;
+    for (int groupId : outputGroupIds) {
+      groupCount = Math.max(groupCount, groupId + 1);
+    }
+    if (udfEvaluationExecutor == null || groupCount <= 1) {
+      return;
+    }
+
+    List<List<Integer>> groups = new ArrayList<>(groupCount);
+    for (int i = 0; i < groupCount; ++i) {
+      groups.add(new ArrayList<>());
+    }
+    for (int i = 0; i < outputGroupIds.length; ++i) {
+      groups.get(outputGroupIds[i]).add(i);
+    }
+    outputColumnGroups = new int[groupCount][];
+    for (int i = 0; i < groupCount; ++i) {
+      outputColumnGroups[i] = groups.get(i).stream().mapToInt(Integer::intValue).toArray();
+    }
+    iterationStates = new YieldableState[outputGroupIds.length];
+    inputLayer.setFetchedByDriverOnly(true);
+  }
+
   protected YieldableState iterateAllColumnsToNextValid() throws Exception {
+    if (outputColumnGroups != null) {
+      return iterateAllColumnsToNextValidInParallel();
+    }
     for (int i = 0, n = shouldIterateReadersToNextValid.length; i < n; ++i) {
       if (shouldIterateReadersToNextValid[i]) {
         final YieldableState yieldableState = iterateReaderToNextValid(i);
@@ -167,8 +241,128 @@ public class TransformOperator implements ProcessOperator {
     return YieldableState.YIELDABLE;
   }
 
-  @SuppressWarnings("squid:S135")
+  /**
+   * Each group of independent output columns is iterated by a thread of udfEvaluationExecutor,
+   * while the driver thread waits for all of them. Only the states of the output columns in the
+   * group are touched by the thread, the time heap is updated by the driver thread afterwards.
+   *
+   * <p>The threads only evaluate the rows already fetched by the input layer. When any of them has
+   * consumed all the fetched rows, the driver thread fetches the next block from the child operator
+   * and evaluates the groups again, because operators are only accessed by their driver thread.
+   */
+  private YieldableState iterateAllColumnsToNextValidInParallel() throws Exception {
+    while (true) {
+      if (inputLayer.isWaitingForChild()
+          && inputLayer.fetchFromChild() == YieldableState.NOT_YIELDABLE_WAITING_FOR_DATA) {
+        return YieldableState.NOT_YIELDABLE_WAITING_FOR_DATA;
+      }
+
+      final YieldableState result = iterateGroupsToNextValid();
+      if (result != YieldableState.NOT_YIELDABLE_WAITING_FOR_DATA
+          || !inputLayer.isWaitingForChild()) {
+        return result;
+      }
+    }
+  }
+
+  private YieldableState iterateGroupsToNextValid() throws Exception {
+    List<int[]> groupsToIterate = new ArrayList<>(outputColumnGroups.length);
+    for (int[] group : outputColumnGroups) {
+      for (int index : group) {
+        if (shouldIterateReadersToNextValid[index]) {
+          groupsToIterate.add(group);
+          break;
+        }
+      }
+    }
+
+    if (groupsToIterate.size() == 1) {
+      // no need to hand over the only group to another thread
+      iterateGroupToNextValid(groupsToIterate.get(0));
+    } else if (groupsToIterate.size() > 1) {
+      List<Future<?>> futures = new ArrayList<>(groupsToIterate.size());
+      for (int[] group : groupsToIterate) {
+        futures.add(udfEvaluationExecutor.submit(() -> iterateGroupToNextValid(group)));
+      }
+      runningFutures = futures;
+      try {
+        waitForAll(futures);
+      } finally {
+        runningFutures = Collections.emptyList();
+      }
+    }
+
+    YieldableState result = YieldableState.YIELDABLE;
+    for (int i = 0, n = iterationStates.length; i < n; ++i) {
+      YieldableState state = iterationStates[i];
+      if (state == null) {
+        continue;
+      }
+      iterationStates[i] = null;
+      if (state == YieldableState.NOT_YIELDABLE_WAITING_FOR_DATA) {
+        result = YieldableState.NOT_YIELDABLE_WAITING_FOR_DATA;
+        continue;
+      }
+      if (state == YieldableState.YIELDABLE) {
+        timeHeap.add(outputColumns[i].getTimeColumn().getLong(currentIndexes[i]));
+      }
+      shouldIterateReadersToNextValid[i] = false;
+    }
+    return result;
+  }
+
+  private void waitForAll(List<Future<?>> futures) throws Exception {
+    Exception exception = null;
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (exception == null) {
+          exception = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+      } catch (InterruptedException e) {
+        cancelAll(futures);
+        Thread.currentThread().interrupt();
+        throw e;
+      } catch (CancellationException e) {
+        if (exception == null) {
+          exception = e;
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private static void cancelAll(List<Future<?>> futures) {
+    for (Future<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  private Void iterateGroupToNextValid(int[] group) throws Exception {
+    for (int index : group) {
+      if (shouldIterateReadersToNextValid[index]) {
+        iterationStates[index] = moveReaderToNextValid(index);
+        if (iterationStates[index] == YieldableState.NOT_YIELDABLE_WAITING_FOR_DATA) {
+          break;
+        }
+      }
+    }
+    return null;
+  }
+
   protected YieldableState iterateReaderToNextValid(int index) throws Exception {
+    YieldableState state = moveReaderToNextValid(index);
+    if (state == YieldableState.YIELDABLE) {
+      timeHeap.add(outputColumns[index].getTimeColumn().getLong(currentIndexes[index]));
+    }
+    return state;
+  }
+
+  @SuppressWarnings("squid:S135")
+  private YieldableState moveReaderToNextValid(int index) throws Exception {
     // Since a constant operand is not allowed to be a result column, the reader will not be
     // a ConstantLayerPointReader.
     // If keepNull is false, we must iterate the reader until a non-null row is returned.
@@ -197,9 +391,6 @@ public class TransformOperator implements ProcessOperator {
       }
 
       if (outputColumns[index] != null) {
-        Column outputTimeColumn = outputColumns[index].getTimeColumn();
-        long time = outputTimeColumn.getLong(currentIndexes[index]);
-        timeHeap.add(time);
         return YieldableState.YIELDABLE;
       }
     }
@@ -360,6 +551,7 @@ public class TransformOperator implements ProcessOperator {
 
   @Override
   public void close() throws Exception {
+    cancelAll(runningFutures);
     udtfContext.finalizeUDFExecutors(udtfQueryId);
     inputOperator.close();
   }
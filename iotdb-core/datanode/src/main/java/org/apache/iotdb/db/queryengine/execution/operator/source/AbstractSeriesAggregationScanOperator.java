@@ -19,11 +19,13 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.source;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.aggregation.TreeAggregator;
 import org.apache.iotdb.db.queryengine.execution.aggregation.timerangeiterator.ITimeRangeIterator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.GroupByTimeParameter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
@@ -70,6 +72,9 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
   /** Some special data types(like BLOB) cannot use statistics. */
   protected final boolean canUseStatistics;
 
+  /** Approximate aggregations can use the sketch sidecars of TsFiles instead of raw data. */
+  protected final boolean canUseSketch;
+
   @SuppressWarnings("squid:S107")
   protected AbstractSeriesAggregationScanOperator(
       PlanNodeId sourceId,
@@ -97,6 +102,10 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     this.maxReturnSize = maxReturnSize;
     this.outputEndTime = outputEndTime;
     this.canUseStatistics = canUseStatistics;
+    this.canUseSketch =
+        IoTDBDescriptor.getInstance().getConfig().isEnableTsFileSketch()
+            && !aggregators.isEmpty()
+            && aggregators.stream().allMatch(TreeAggregator::acceptsSketch);
   }
 
   @Override
@@ -269,6 +278,17 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
         }
       }
 
+      if (canUseSketch
+          && seriesScanUtil.canUseCurrentFileStatistics()
+          && calcFromCurrentFileSketches()) {
+        seriesScanUtil.skipCurrentFile();
+        if (isAllAggregatorsHasFinalResult(aggregators) && !isGroupByQuery) {
+          return true;
+        } else {
+          continue;
+        }
+      }
+
       // read chunk
       if (readAndCalcFromChunk()) {
         return true;
@@ -278,6 +298,32 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     return false;
   }
 
+  /**
+   * @return false if the current file is not in the current time range or some aggregator cannot
+   *     use its sketches, then nothing is calculated
+   */
+  @SuppressWarnings("squid:S3740")
+  private boolean calcFromCurrentFileSketches() {
+    Statistics fileTimeStatistics = seriesScanUtil.currentFileTimeStatistics();
+    if (!curTimeRange.contains(
+        fileTimeStatistics.getStartTime(), fileTimeStatistics.getEndTime())) {
+      return false;
+    }
+    SeriesSketch[] sketches = new SeriesSketch[subSensorSize];
+    for (int i = 0; i < subSensorSize; i++) {
+      sketches[i] = seriesScanUtil.currentFileSketch(i);
+    }
+    for (TreeAggregator aggregator : aggregators) {
+      if (!aggregator.canUseSketches(sketches)) {
+        return false;
+      }
+    }
+    for (TreeAggregator aggregator : aggregators) {
+      aggregator.processSketches(sketches);
+    }
+    return true;
+  }
+
   @SuppressWarnings({"squid:S3776", "squid:S135", "squid:S3740"})
   protected boolean readAndCalcFromChunk() throws IOException {
     // start stopwatch
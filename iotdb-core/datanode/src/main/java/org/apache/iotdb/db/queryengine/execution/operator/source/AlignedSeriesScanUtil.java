@@ -103,6 +103,11 @@ public class AlignedSeriesScanUtil extends SeriesScanUtil {
         ignoreAllNullRows);
   }
 
+  @Override
+  protected String getMeasurement(int index) {
+    return ((AlignedFullPath) seriesPath).getMeasurementList().get(index);
+  }
+
   @Override
   public List<TSDataType> getTsDataTypeList() {
     return dataTypes;
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.execution.operator.source;
 
 import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
@@ -34,6 +35,9 @@ import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.DescPrior
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.MergeReaderPriority;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketchCache;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
@@ -60,8 +64,10 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.PriorityQueue;
@@ -95,6 +101,9 @@ public class SeriesScanUtil implements Accountable {
   private ITimeSeriesMetadata firstTimeSeriesMetadata;
   private final List<ITimeSeriesMetadata> seqTimeSeriesMetadata;
   private final PriorityQueue<ITimeSeriesMetadata> unSeqTimeSeriesMetadata;
+  // the file each cached TimeSeriesMetadata is loaded from, only tracked if sketches are enabled
+  private final Map<ITimeSeriesMetadata, TsFileResource> timeSeriesMetadataResources =
+      new IdentityHashMap<>();
 
   // chunk cache
   private IChunkMetadata firstChunkMetadata;
@@ -118,6 +127,9 @@ public class SeriesScanUtil implements Accountable {
   private static final SeriesScanCostMetricSet SERIES_SCAN_COST_METRIC_SET =
       SeriesScanCostMetricSet.getInstance();
 
+  private static final boolean ENABLE_TSFILE_SKETCH =
+      IoTDBDescriptor.getInstance().getConfig().isEnableTsFileSketch();
+
   private static final long INSTANCE_SIZE =
       RamUsageEstimator.shallowSizeOfInstance(SeriesScanUtil.class)
           + RamUsageEstimator.shallowSizeOfInstance(IDeviceID.class)
@@ -283,7 +295,29 @@ public class SeriesScanUtil implements Accountable {
     return firstTimeSeriesMetadata.getMeasurementStatistics(index).orElse(null);
   }
 
+  /**
+   * @return the sketch of the index-th measurement in the current file, or null if the file has no
+   *     sketch describing exactly the points of the measurement in it
+   */
+  public SeriesSketch currentFileSketch(int index) {
+    TsFileResource resource = timeSeriesMetadataResources.get(firstTimeSeriesMetadata);
+    if (resource == null) {
+      return null;
+    }
+    TsFileSketch tsFileSketch = TsFileSketchCache.getInstance().get(resource);
+    if (tsFileSketch == null) {
+      return null;
+    }
+    SeriesSketch sketch = tsFileSketch.getSketch(deviceID, getMeasurement(index));
+    return sketch != null && sketch.isConsistentWith(currentFileStatistics(index)) ? sketch : null;
+  }
+
+  protected String getMeasurement(int index) {
+    return ((NonAlignedFullPath) seriesPath).getMeasurement();
+  }
+
   public void skipCurrentFile() {
+    timeSeriesMetadataResources.remove(firstTimeSeriesMetadata);
     firstTimeSeriesMetadata = null;
   }
 
@@ -408,6 +442,7 @@ public class SeriesScanUtil implements Accountable {
   }
 
   protected void unpackOneTimeSeriesMetadata(ITimeSeriesMetadata timeSeriesMetadata) {
+    timeSeriesMetadataResources.remove(timeSeriesMetadata);
     List<IChunkMetadata> chunkMetadataList =
         FileLoaderUtils.loadChunkMetadataList(timeSeriesMetadata);
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
@@ -1171,12 +1206,15 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private Optional<ITimeSeriesMetadata> unpackSeqTsFileResource() throws IOException {
-    ITimeSeriesMetadata timeseriesMetadata =
-        loadTimeSeriesMetadata(orderUtils.getNextSeqFileResource(true), true);
+    TsFileResource resource = orderUtils.getNextSeqFileResource(true);
+    ITimeSeriesMetadata timeseriesMetadata = loadTimeSeriesMetadata(resource, true);
     // skip if data type is mismatched which may be caused by delete
     if (timeseriesMetadata != null && timeseriesMetadata.typeMatch(getTsDataTypeList())) {
       timeseriesMetadata.setSeq(true);
       seqTimeSeriesMetadata.add(timeseriesMetadata);
+      if (ENABLE_TSFILE_SKETCH) {
+        timeSeriesMetadataResources.put(timeseriesMetadata, resource);
+      }
       return Optional.of(timeseriesMetadata);
     } else {
       return Optional.empty();
@@ -1184,12 +1222,15 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private void unpackUnseqTsFileResource() throws IOException {
-    ITimeSeriesMetadata timeseriesMetadata =
-        loadTimeSeriesMetadata(orderUtils.getNextUnseqFileResource(true), false);
+    TsFileResource resource = orderUtils.getNextUnseqFileResource(true);
+    ITimeSeriesMetadata timeseriesMetadata = loadTimeSeriesMetadata(resource, false);
     // skip if data type is mismatched which may be caused by delete
     if (timeseriesMetadata != null && timeseriesMetadata.typeMatch(getTsDataTypeList())) {
       timeseriesMetadata.setSeq(false);
       unSeqTimeSeriesMetadata.add(timeseriesMetadata);
+      if (ENABLE_TSFILE_SKETCH) {
+        timeSeriesMetadataResources.put(timeseriesMetadata, resource);
+      }
     }
   }
 
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
 
 import org.apache.iotdb.commons.path.AlignedFullPath;
 import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.db.queryengine.execution.aggregation.timerangeiterator.ITableTimeRangeIterator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
@@ -36,6 +37,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.IQueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
@@ -101,6 +103,10 @@ public class TableAggregationTableScanOperator extends AbstractDataSourceOperato
   private final Ordering scanOrder;
   // Some special data types(like BLOB) cannot use statistics
   protected final boolean canUseStatistics;
+
+  /** Approximate aggregations can use the sketch sidecars of TsFiles instead of raw data. */
+  private final boolean canUseSketch;
+
   private final long cachedRawDataSize;
 
   // stores all inputChannels of tableAggregators,
@@ -135,6 +141,10 @@ public class TableAggregationTableScanOperator extends AbstractDataSourceOperato
     this.operatorContext = context;
     this.canUseStatistics = canUseStatistics;
     this.tableAggregators = tableAggregators;
+    this.canUseSketch =
+        IoTDBDescriptor.getInstance().getConfig().isEnableTsFileSketch()
+            && !tableAggregators.isEmpty()
+            && tableAggregators.stream().allMatch(TableAggregator::acceptsSketch);
     this.groupingKeySchemas = groupingKeySchemas;
     this.groupingKeyIndex = groupingKeyIndex;
     this.aggColumnSchemas = aggColumnSchemas;
@@ -587,6 +597,17 @@ public class TableAggregationTableScanOperator extends AbstractDataSourceOperato
         }
       }
 
+      if (canUseSketch
+          && seriesScanUtil.canUseCurrentFileStatistics()
+          && calcFromCurrentFileSketches()) {
+        seriesScanUtil.skipCurrentFile();
+        if (isAllAggregatorsHasFinalResult(tableAggregators)) {
+          return true;
+        } else {
+          continue;
+        }
+      }
+
       // read chunk
       if (readAndCalcFromChunk()) {
         return true;
@@ -596,6 +617,37 @@ public class TableAggregationTableScanOperator extends AbstractDataSourceOperato
     return false;
   }
 
+  /**
+   * @return false if the current file is not in the current time range or some aggregator cannot
+   *     use the sketch of its field, then nothing is calculated
+   */
+  @SuppressWarnings("squid:S3740")
+  private boolean calcFromCurrentFileSketches() {
+    Statistics fileTimeStatistics = seriesScanUtil.currentFileTimeStatistics();
+    updateCurTimeRange(fileTimeStatistics.getStartTime());
+    if (!timeIterator
+        .getCurTimeRange()
+        .contains(fileTimeStatistics.getStartTime(), fileTimeStatistics.getEndTime())) {
+      return false;
+    }
+    // each aggregator has exactly one input channel, see TableAggregator.acceptsSketch()
+    SeriesSketch[] sketches = new SeriesSketch[tableAggregators.size()];
+    for (int i = 0; i < tableAggregators.size(); i++) {
+      int channel = aggregatorInputChannels.get(i);
+      if (aggColumnSchemas.get(channel).getColumnCategory() != TsTableColumnCategory.FIELD) {
+        return false;
+      }
+      sketches[i] = seriesScanUtil.currentFileSketch(aggColumnsIndexArray[channel]);
+      if (sketches[i] == null || !tableAggregators.get(i).canUseSketch(sketches[i])) {
+        return false;
+      }
+    }
+    for (int i = 0; i < tableAggregators.size(); i++) {
+      tableAggregators.get(i).processSketch(sketches[i]);
+    }
+    return true;
+  }
+
   @SuppressWarnings({"squid:S3776", "squid:S135", "squid:S3740"})
   protected boolean readAndCalcFromChunk() throws IOException {
     // start stopwatch
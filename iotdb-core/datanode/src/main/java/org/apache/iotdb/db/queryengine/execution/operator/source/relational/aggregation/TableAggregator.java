@@ -19,7 +19,9 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
 
+import org.apache.iotdb.db.queryengine.execution.aggregation.SketchAccumulator;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
 
 import com.google.common.primitives.Ints;
 import org.apache.tsfile.block.column.Column;
@@ -91,6 +93,25 @@ public class TableAggregator {
     accumulator.addStatistics(statistics);
   }
 
+  /**
+   * Whether the accumulator can consume the sketch of its only argument in a TsFile instead of the
+   * raw data.
+   */
+  public boolean acceptsSketch() {
+    return step.isInputRaw()
+        && !maskChannel.isPresent()
+        && inputChannels.length == 1
+        && accumulator instanceof SketchAccumulator;
+  }
+
+  public boolean canUseSketch(SeriesSketch sketch) {
+    return ((SketchAccumulator) accumulator).canUseSketch(sketch);
+  }
+
+  public void processSketch(SeriesSketch sketch) {
+    ((SketchAccumulator) accumulator).addSketch(sketch);
+  }
+
   public boolean hasFinalResult() {
     return accumulator.hasFinalResult();
   }
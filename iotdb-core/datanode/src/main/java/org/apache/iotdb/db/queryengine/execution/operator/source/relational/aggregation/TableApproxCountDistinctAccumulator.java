@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.queryengine.execution.aggregation.SketchAccumulator;
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.HyperLogLog;
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.SketchUtils;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class TableApproxCountDistinctAccumulator implements TableAccumulator, SketchAccumulator {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(TableApproxCountDistinctAccumulator.class);
+  private final TSDataType seriesDataType;
+
+  // created by the first input, the precision is decided by the optional second argument
+  private HyperLogLog hyperLogLog;
+
+  public TableApproxCountDistinctAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + (hyperLogLog == null ? 0 : hyperLogLog.getEstimatedSize());
+  }
+
+  @Override
+  public TableAccumulator copy() {
+    return new TableApproxCountDistinctAccumulator(seriesDataType);
+  }
+
+  @Override
+  public void addInput(Column[] arguments) {
+    if (hyperLogLog == null) {
+      hyperLogLog =
+          new HyperLogLog(
+              arguments.length > 1
+                  ? SketchUtils.getNumericParameter(arguments[1])
+                  : HyperLogLog.DEFAULT_STANDARD_ERROR);
+    }
+    Column column = arguments[0];
+    for (int i = 0; i < column.getPositionCount(); i++) {
+      if (!column.isNull(i)) {
+        SketchUtils.addToHyperLogLog(hyperLogLog, seriesDataType, column, i);
+      }
+    }
+  }
+
+  @Override
+  public boolean canUseSketch(SeriesSketch sketch) {
+    int precision =
+        hyperLogLog == null
+            ? HyperLogLog.precisionOf(HyperLogLog.DEFAULT_STANDARD_ERROR)
+            : hyperLogLog.getPrecision();
+    return sketch.getDistinct().getPrecision() >= precision;
+  }
+
+  // only used when approx_count_distinct has no maxStandardError argument
+  @Override
+  public void addSketch(SeriesSketch sketch) {
+    if (hyperLogLog == null) {
+      hyperLogLog = new HyperLogLog(HyperLogLog.DEFAULT_STANDARD_ERROR);
+    }
+    hyperLogLog.merge(sketch.getDistinct());
+  }
+
+  @Override
+  public void addIntermediate(Column argument) {
+    checkArgument(
+        argument instanceof BinaryColumn
+            || (argument instanceof RunLengthEncodedColumn
+                && ((RunLengthEncodedColumn) argument).getValue() instanceof BinaryColumn),
+        "intermediate input and output of ApproxCountDistinct should be BinaryColumn");
+
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (argument.isNull(i)) {
+        continue;
+      }
+      HyperLogLog other = HyperLogLog.deserialize(argument.getBinary(i).getValues());
+      if (hyperLogLog == null) {
+        hyperLogLog = other;
+      } else {
+        hyperLogLog.merge(other);
+      }
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of ApproxCountDistinct should be BinaryColumn");
+    if (hyperLogLog == null) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(new Binary(hyperLogLog.serialize()));
+    }
+  }
+
+  @Override
+  public void evaluateFinal(ColumnBuilder columnBuilder) {
+    columnBuilder.writeLong(hyperLogLog == null ? 0 : hyperLogLog.cardinality());
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public void addStatistics(Statistics[] statistics) {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
+  @Override
+  public void reset() {
+    hyperLogLog = null;
+  }
+}
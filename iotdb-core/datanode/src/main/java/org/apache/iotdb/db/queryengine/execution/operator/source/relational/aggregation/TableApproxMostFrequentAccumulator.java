@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.SketchUtils;
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.SpaceSaving;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class TableApproxMostFrequentAccumulator implements TableAccumulator {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(TableApproxMostFrequentAccumulator.class);
+  private final TSDataType seriesDataType;
+
+  // created by the first input, k and the capacity are decided by the second and third argument
+  private SpaceSaving spaceSaving;
+  private int k;
+
+  public TableApproxMostFrequentAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + (spaceSaving == null ? 0 : spaceSaving.getEstimatedSize());
+  }
+
+  @Override
+  public TableAccumulator copy() {
+    return new TableApproxMostFrequentAccumulator(seriesDataType);
+  }
+
+  @Override
+  public void addInput(Column[] arguments) {
+    if (spaceSaving == null) {
+      k = (int) SketchUtils.getNumericParameter(arguments[1]);
+      SketchUtils.checkK(k);
+      spaceSaving =
+          new SpaceSaving(
+              arguments.length > 2
+                  ? (int) SketchUtils.getNumericParameter(arguments[2])
+                  : SketchUtils.getDefaultCapacity(k));
+    }
+    Column column = arguments[0];
+    for (int i = 0; i < column.getPositionCount(); i++) {
+      if (!column.isNull(i)) {
+        spaceSaving.add(SketchUtils.getFrequencyKey(seriesDataType, column, i));
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column argument) {
+    checkArgument(
+        argument instanceof BinaryColumn
+            || (argument instanceof RunLengthEncodedColumn
+                && ((RunLengthEncodedColumn) argument).getValue() instanceof BinaryColumn),
+        "intermediate input and output of ApproxMostFrequent should be BinaryColumn");
+
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (argument.isNull(i)) {
+        continue;
+      }
+      byte[] bytes = argument.getBinary(i).getValues();
+      SpaceSaving other = SketchUtils.deserializeMostFrequentSummary(bytes);
+      if (spaceSaving == null) {
+        k = SketchUtils.deserializeK(bytes);
+        spaceSaving = other;
+      } else {
+        spaceSaving.merge(other);
+      }
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of ApproxMostFrequent should be BinaryColumn");
+    if (spaceSaving == null || spaceSaving.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(new Binary(SketchUtils.serializeMostFrequent(k, spaceSaving)));
+    }
+  }
+
+  @Override
+  public void evaluateFinal(ColumnBuilder columnBuilder) {
+    if (spaceSaving == null || spaceSaving.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(
+          new Binary(spaceSaving.toJsonString(k), TSFileConfig.STRING_CHARSET));
+    }
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public void addStatistics(Statistics[] statistics) {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
+  @Override
+  public void reset() {
+    spaceSaving = null;
+    k = 0;
+  }
+}
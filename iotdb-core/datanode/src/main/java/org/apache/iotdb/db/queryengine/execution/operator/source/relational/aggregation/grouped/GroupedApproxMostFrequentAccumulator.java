@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped;
+
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.SketchUtils;
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.SpaceSaving;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.array.ObjectBigArray;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class GroupedApproxMostFrequentAccumulator implements GroupedAccumulator {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(GroupedApproxMostFrequentAccumulator.class);
+  private final TSDataType seriesDataType;
+
+  private final ObjectBigArray<SpaceSaving> summaries = new ObjectBigArray<>();
+  private long sizeOfSummaries;
+  // k and the capacity are constant arguments, so they are shared by all groups
+  private int k;
+  private int capacity;
+
+  public GroupedApproxMostFrequentAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + summaries.sizeOf() + sizeOfSummaries;
+  }
+
+  @Override
+  public void setGroupCount(long groupCount) {
+    summaries.ensureCapacity(groupCount);
+  }
+
+  @Override
+  public void addInput(int[] groupIds, Column[] arguments) {
+    if (k == 0) {
+      k = (int) SketchUtils.getNumericParameter(arguments[1]);
+      SketchUtils.checkK(k);
+      capacity =
+          arguments.length > 2
+              ? (int) SketchUtils.getNumericParameter(arguments[2])
+              : SketchUtils.getDefaultCapacity(k);
+    }
+    Column column = arguments[0];
+    for (int i = 0; i < column.getPositionCount(); i++) {
+      if (column.isNull(i)) {
+        continue;
+      }
+      SpaceSaving spaceSaving = summaries.get(groupIds[i]);
+      if (spaceSaving == null) {
+        spaceSaving = new SpaceSaving(capacity);
+        summaries.set(groupIds[i], spaceSaving);
+        sizeOfSummaries += spaceSaving.getEstimatedSize();
+      }
+      long sizeBefore = spaceSaving.getEstimatedSize();
+      spaceSaving.add(SketchUtils.getFrequencyKey(seriesDataType, column, i));
+      sizeOfSummaries += spaceSaving.getEstimatedSize() - sizeBefore;
+    }
+  }
+
+  @Override
+  public void addIntermediate(int[] groupIds, Column argument) {
+    checkArgument(
+        argument instanceof BinaryColumn
+            || (argument instanceof RunLengthEncodedColumn
+                && ((RunLengthEncodedColumn) argument).getValue() instanceof BinaryColumn),
+        "intermediate input and output of ApproxMostFrequent should be BinaryColumn");
+
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (argument.isNull(i)) {
+        continue;
+      }
+      byte[] bytes = argument.getBinary(i).getValues();
+      k = SketchUtils.deserializeK(bytes);
+      SpaceSaving other = SketchUtils.deserializeMostFrequentSummary(bytes);
+      SpaceSaving spaceSaving = summaries.get(groupIds[i]);
+      if (spaceSaving == null) {
+        summaries.set(groupIds[i], other);
+        sizeOfSummaries += other.getEstimatedSize();
+      } else {
+        long sizeBefore = spaceSaving.getEstimatedSize();
+        spaceSaving.merge(other);
+        sizeOfSummaries += spaceSaving.getEstimatedSize() - sizeBefore;
+      }
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(int groupId, ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of ApproxMostFrequent should be BinaryColumn");
+    SpaceSaving spaceSaving = summaries.get(groupId);
+    if (spaceSaving == null || spaceSaving.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(new Binary(SketchUtils.serializeMostFrequent(k, spaceSaving)));
+    }
+  }
+
+  @Override
+  public void evaluateFinal(int groupId, ColumnBuilder columnBuilder) {
+    SpaceSaving spaceSaving = summaries.get(groupId);
+    if (spaceSaving == null || spaceSaving.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(
+          new Binary(spaceSaving.toJsonString(k), TSFileConfig.STRING_CHARSET));
+    }
+  }
+
+  @Override
+  public void prepareFinal() {}
+
+  @Override
+  public void reset() {
+    summaries.reset();
+    sizeOfSummaries = 0;
+    k = 0;
+    capacity = 0;
+  }
+}
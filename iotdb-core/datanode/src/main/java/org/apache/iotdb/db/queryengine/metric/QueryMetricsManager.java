@@ -24,12 +24,23 @@ import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class QueryMetricsManager {
 
+  // the latencies of recent queries are kept to throttle compaction when queries slow down
+  private static final int RECENT_QUERY_LATENCY_NUM = 1024;
+
   private final MetricService metricService = MetricService.getInstance();
 
+  private final AtomicLongArray recentQueryLatencies =
+      new AtomicLongArray(RECENT_QUERY_LATENCY_NUM);
+  private final AtomicLong recordedQueryNum = new AtomicLong(0);
+  private long collectedQueryNum = 0;
+
   public void recordOperatorExecutionCost(String operatorType, long costTimeInNanos) {
     metricService.timer(
         costTimeInNanos,
@@ -49,6 +60,31 @@ public class QueryMetricsManager {
         operatorType);
   }
 
+  public void recordQueryLatency(long costTimeInNanos) {
+    long index = recordedQueryNum.getAndIncrement();
+    recentQueryLatencies.set((int) (index % RECENT_QUERY_LATENCY_NUM), costTimeInNanos);
+  }
+
+  /**
+   * Get the p99 latency in nanoseconds of the queries finished since the last call, at most the
+   * latest 1024 queries are counted. Return -1 if there is no query.
+   */
+  public synchronized long getRecentQueryLatencyP99() {
+    long recordedNum = recordedQueryNum.get();
+    int queryNum = (int) Math.min(recordedNum - collectedQueryNum, RECENT_QUERY_LATENCY_NUM);
+    collectedQueryNum = recordedNum;
+    if (queryNum <= 0) {
+      return -1;
+    }
+    long[] latencies = new long[queryNum];
+    for (int i = 0; i < queryNum; i++) {
+      latencies[i] =
+          recentQueryLatencies.get((int) ((recordedNum - 1 - i) % RECENT_QUERY_LATENCY_NUM));
+    }
+    Arrays.sort(latencies);
+    return latencies[(int) Math.ceil(queryNum * 0.99) - 1];
+  }
+
   public static QueryMetricsManager getInstance() {
     return QueryMetricsManager.QueryMetricsManagerHolder.INSTANCE;
   }
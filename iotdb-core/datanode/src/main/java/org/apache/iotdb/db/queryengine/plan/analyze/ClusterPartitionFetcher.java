@@ -21,10 +21,15 @@ package org.apache.iotdb.db.queryengine.plan.analyze;
 
 import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
 import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
 import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.exception.ClientManagerException;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.consensus.ConfigRegionId;
 import org.apache.iotdb.commons.exception.IoTDBException;
 import org.apache.iotdb.commons.partition.DataPartition;
@@ -33,6 +38,9 @@ import org.apache.iotdb.commons.partition.SchemaNodeManagementPartition;
 import org.apache.iotdb.commons.partition.SchemaPartition;
 import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
 import org.apache.iotdb.commons.path.PathPatternTree;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.confignode.rpc.thrift.TDataPartitionReq;
 import org.apache.iotdb.confignode.rpc.thrift.TDataPartitionTableResp;
 import org.apache.iotdb.confignode.rpc.thrift.TSchemaNodeManagementReq;
@@ -52,6 +60,8 @@ import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.apache.thrift.TException;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 
@@ -65,19 +75,37 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class ClusterPartitionFetcher implements IPartitionFetcher {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClusterPartitionFetcher.class);
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
+  private static final long PRE_ALLOCATE_MIN_CHECK_INTERVAL_IN_MS = 1000;
+
   private final SeriesPartitionExecutor partitionExecutor;
 
   private final PartitionCache partitionCache;
 
+  /** The data partition slots that are being fetched from ConfigNode by some thread */
+  private final Map<DataPartitionSlot, CompletableFuture<Void>> inFlightDataPartitionFetches =
+      new ConcurrentHashMap<>();
+
+  /** In the timestamp precision, only used by the pre-allocation thread */
+  private final long preAllocateAheadTime;
+
+  private long lastPreAllocatedTimePartitionStartTime = Long.MIN_VALUE;
+
   private final IClientManager<ConfigRegionId, ConfigNodeClient> configNodeClientManager =
       ConfigNodeClientManager.getInstance();
 
+  private final DataPartitionTableFetcher dataPartitionTableFetcher;
+
   private static final class ClusterPartitionFetcherHolder {
 
     private static final ClusterPartitionFetcher INSTANCE = new ClusterPartitionFetcher();
@@ -94,6 +122,48 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
         SeriesPartitionExecutor.getSeriesPartitionExecutor(
             config.getSeriesPartitionExecutorClass(), config.getSeriesPartitionSlotNum());
     this.partitionCache = new PartitionCache();
+    this.dataPartitionTableFetcher =
+        req -> {
+          try (final ConfigNodeClient client =
+              configNodeClientManager.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
+            return client.getOrCreateDataPartitionTable(req);
+          }
+        };
+    final long preAllocateAheadTimeInMs = config.getDataPartitionPreAllocateAheadTimeInMs();
+    this.preAllocateAheadTime =
+        CommonDateTimeUtils.convertMilliTimeWithPrecision(
+            preAllocateAheadTimeInMs,
+            CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    if (preAllocateAheadTimeInMs > 0) {
+      ScheduledExecutorUtil.safelyScheduleAtFixedRate(
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+              ThreadName.DATA_PARTITION_PRE_ALLOCATE.getName()),
+          this::preAllocateNextTimePartition,
+          0,
+          Math.max(PRE_ALLOCATE_MIN_CHECK_INTERVAL_IN_MS, preAllocateAheadTimeInMs / 10),
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @TestOnly
+  ClusterPartitionFetcher(
+      final PartitionCache partitionCache,
+      final DataPartitionTableFetcher dataPartitionTableFetcher,
+      final long preAllocateAheadTime) {
+    this.partitionExecutor =
+        SeriesPartitionExecutor.getSeriesPartitionExecutor(
+            config.getSeriesPartitionExecutorClass(), config.getSeriesPartitionSlotNum());
+    this.partitionCache = partitionCache;
+    this.dataPartitionTableFetcher = dataPartitionTableFetcher;
+    this.preAllocateAheadTime = preAllocateAheadTime;
+  }
+
+  /** Sends the getOrCreateDataPartitionTable request to ConfigNode. */
+  @FunctionalInterface
+  interface DataPartitionTableFetcher {
+
+    TDataPartitionTableResp getOrCreateDataPartitionTable(TDataPartitionReq req)
+        throws ClientManagerException, TException;
   }
 
   @Override
@@ -232,19 +302,14 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
     DataPartition dataPartition = partitionCache.getDataPartition(sgNameToQueryParamsMap);
     if (null == dataPartition) {
       // Do not use data partition cache
-      try (final ConfigNodeClient client =
-          configNodeClientManager.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
-        final TDataPartitionTableResp dataPartitionTableResp =
-            client.getOrCreateDataPartitionTable(constructDataPartitionReq(sgNameToQueryParamsMap));
-        if (dataPartitionTableResp.getStatus().getCode()
-            == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-          dataPartition = parseDataPartitionResp(dataPartitionTableResp);
-          partitionCache.updateDataPartitionCache(dataPartitionTableResp.getDataPartitionTable());
-        } else {
-          throw new StatementAnalyzeException(
-              "An error occurred when executing getOrCreateDataPartition():"
-                  + dataPartitionTableResp.getStatus().getMessage());
-        }
+      try {
+        dataPartition =
+            getOrCreateDataPartitionFromConfigNode(
+                sgNameToQueryParamsMap,
+                status ->
+                    new StatementAnalyzeException(
+                        "An error occurred when executing getOrCreateDataPartition():"
+                            + status.getMessage()));
       } catch (final ClientManagerException | TException e) {
         throw new StatementAnalyzeException(
             "An error occurred when executing getOrCreateDataPartition():" + e.getMessage());
@@ -257,28 +322,19 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
   public DataPartition getOrCreateDataPartition(
       final List<DataPartitionQueryParam> dataPartitionQueryParams, final String userName) {
     DataPartition dataPartition;
-    try (final ConfigNodeClient client =
-        configNodeClientManager.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
+    try {
       final Map<String, List<DataPartitionQueryParam>> splitDataPartitionQueryParams =
           splitDataPartitionQueryParam(
               dataPartitionQueryParams, config.isAutoCreateSchemaEnabled(), userName);
       dataPartition = partitionCache.getDataPartition(splitDataPartitionQueryParams);
 
       if (null == dataPartition) {
-        final TDataPartitionReq req = constructDataPartitionReq(splitDataPartitionQueryParams);
-        final TDataPartitionTableResp dataPartitionTableResp =
-            client.getOrCreateDataPartitionTable(req);
-
-        if (dataPartitionTableResp.getStatus().getCode()
-            == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-          dataPartition = parseDataPartitionResp(dataPartitionTableResp);
-          partitionCache.updateDataPartitionCache(dataPartitionTableResp.getDataPartitionTable());
-        } else {
-          throw new RuntimeException(
-              new IoTDBException(
-                  dataPartitionTableResp.getStatus().getMessage(),
-                  dataPartitionTableResp.getStatus().getCode()));
-        }
+        dataPartition =
+            getOrCreateDataPartitionFromConfigNode(
+                splitDataPartitionQueryParams,
+                status ->
+                    new RuntimeException(
+                        new IoTDBException(status.getMessage(), status.getCode())));
       }
     } catch (final ClientManagerException | TException e) {
       throw new StatementAnalyzeException(
@@ -287,6 +343,193 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
     return dataPartition;
   }
 
+  /**
+   * Fetch the data partitions that missed the cache from ConfigNode. Concurrent misses on the same
+   * (database, seriesPartitionSlot, timePartitionSlot) are coalesced: only the first thread asks
+   * ConfigNode for the slot, the others wait for it and then read the result from the cache. This
+   * avoids the burst of identical requests when many writers enter a new time partition at once.
+   */
+  private DataPartition getOrCreateDataPartitionFromConfigNode(
+      final Map<String, List<DataPartitionQueryParam>> sgNameToQueryParamsMap,
+      final Function<TSStatus, RuntimeException> failureHandler)
+      throws ClientManagerException, TException {
+    for (final List<DataPartitionQueryParam> queryParams : sgNameToQueryParamsMap.values()) {
+      for (final DataPartitionQueryParam queryParam : queryParams) {
+        if (queryParam.getTimePartitionSlotList().isEmpty()
+            || queryParam.isNeedLeftAll()
+            || queryParam.isNeedRightAll()) {
+          // unbounded time ranges can not be split into slots
+          return fetchOrCreateDataPartition(sgNameToQueryParamsMap, failureHandler);
+        }
+      }
+    }
+
+    final Map<DataPartitionSlot, CompletableFuture<Void>> ownedFetches = new HashMap<>();
+    final Set<CompletableFuture<Void>> otherFetches = new HashSet<>();
+    final Map<String, List<DataPartitionQueryParam>> ownedQueryParamsMap = new HashMap<>();
+    for (final Map.Entry<String, List<DataPartitionQueryParam>> entry :
+        sgNameToQueryParamsMap.entrySet()) {
+      for (final DataPartitionQueryParam queryParam : entry.getValue()) {
+        final TSeriesPartitionSlot seriesPartitionSlot =
+            partitionExecutor.getSeriesPartitionSlot(queryParam.getDeviceID());
+        final List<TTimePartitionSlot> ownedTimePartitionSlots = new ArrayList<>();
+        for (final TTimePartitionSlot timePartitionSlot : queryParam.getTimePartitionSlotList()) {
+          final DataPartitionSlot slot =
+              new DataPartitionSlot(entry.getKey(), seriesPartitionSlot, timePartitionSlot);
+          if (!ownedFetches.containsKey(slot)) {
+            final CompletableFuture<Void> otherFetch = tryOwnFetch(slot, ownedFetches);
+            if (null != otherFetch) {
+              otherFetches.add(otherFetch);
+              continue;
+            }
+          }
+          ownedTimePartitionSlots.add(timePartitionSlot);
+        }
+        if (!ownedTimePartitionSlots.isEmpty()) {
+          ownedQueryParamsMap
+              .computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+              .add(new DataPartitionQueryParam(queryParam.getDeviceID(), ownedTimePartitionSlots));
+        }
+      }
+    }
+
+    DataPartition dataPartition = null;
+    try {
+      if (!ownedQueryParamsMap.isEmpty()) {
+        dataPartition = fetchOrCreateDataPartition(ownedQueryParamsMap, failureHandler);
+      }
+    } finally {
+      completeOwnedFetches(ownedFetches);
+    }
+    if (otherFetches.isEmpty()) {
+      return dataPartition;
+    }
+
+    otherFetches.forEach(CompletableFuture::join);
+    dataPartition = partitionCache.getDataPartition(sgNameToQueryParamsMap);
+    // the fetches of other threads may have failed, or the cache may have been invalidated
+    return null != dataPartition
+        ? dataPartition
+        : fetchOrCreateDataPartition(sgNameToQueryParamsMap, failureHandler);
+  }
+
+  /**
+   * @return {@code null} if the slot is owned by the caller, which must complete the fetch by
+   *     {@link #completeOwnedFetches(Map)}, otherwise the fetch of the slot by another thread
+   */
+  private CompletableFuture<Void> tryOwnFetch(
+      final DataPartitionSlot slot,
+      final Map<DataPartitionSlot, CompletableFuture<Void>> ownedFetches) {
+    final CompletableFuture<Void> fetch = new CompletableFuture<>();
+    final CompletableFuture<Void> otherFetch =
+        inFlightDataPartitionFetches.putIfAbsent(slot, fetch);
+    if (null == otherFetch) {
+      ownedFetches.put(slot, fetch);
+    }
+    return otherFetch;
+  }
+
+  private void completeOwnedFetches(
+      final Map<DataPartitionSlot, CompletableFuture<Void>> ownedFetches) {
+    // the waiting threads will check the cache by themselves, so the fetch is always completed
+    // normally
+    ownedFetches.forEach(
+        (slot, fetch) -> {
+          inFlightDataPartitionFetches.remove(slot, fetch);
+          fetch.complete(null);
+        });
+  }
+
+  private DataPartition fetchOrCreateDataPartition(
+      final Map<String, List<DataPartitionQueryParam>> sgNameToQueryParamsMap,
+      final Function<TSStatus, RuntimeException> failureHandler)
+      throws ClientManagerException, TException {
+    final TDataPartitionTableResp dataPartitionTableResp =
+        dataPartitionTableFetcher.getOrCreateDataPartitionTable(
+            constructDataPartitionReq(sgNameToQueryParamsMap));
+    if (dataPartitionTableResp.getStatus().getCode()
+        != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      throw failureHandler.apply(dataPartitionTableResp.getStatus());
+    }
+    partitionCache.updateDataPartitionCache(dataPartitionTableResp.getDataPartitionTable());
+    return parseDataPartitionResp(dataPartitionTableResp);
+  }
+
+  private void preAllocateNextTimePartition() {
+    preAllocateNextTimePartition(CommonDateTimeUtils.currentTime());
+  }
+
+  /**
+   * Ask ConfigNode to create the data partitions of the next time partition in advance, for the
+   * series partition slots that are cached in the current time partition. It is done once for each
+   * time partition, when the next time partition is about to begin. The slots are owned in the same
+   * way as {@link #getOrCreateDataPartitionFromConfigNode}, so the writers entering the next time
+   * partition during the pre-allocation wait for it instead of sending the same request.
+   */
+  void preAllocateNextTimePartition(final long currentTime) {
+    final long nextTimePartitionStartTime =
+        TimePartitionUtils.getTimePartitionUpperBound(currentTime);
+    if (nextTimePartitionStartTime == Long.MAX_VALUE
+        || nextTimePartitionStartTime <= lastPreAllocatedTimePartitionStartTime
+        || nextTimePartitionStartTime - currentTime > preAllocateAheadTime) {
+      return;
+    }
+
+    final Map<String, List<TSeriesPartitionSlot>> databaseToSeriesPartitionSlots =
+        partitionCache.getCachedSeriesPartitionSlots(
+            TimePartitionUtils.getTimePartitionSlot(currentTime));
+    final TTimePartitionSlot nextTimePartitionSlot =
+        new TTimePartitionSlot(nextTimePartitionStartTime);
+    final Map<DataPartitionSlot, CompletableFuture<Void>> ownedFetches = new HashMap<>();
+    final Map<String, Map<TSeriesPartitionSlot, TTimeSlotList>> partitionSlotsMap = new HashMap<>();
+    databaseToSeriesPartitionSlots.forEach(
+        (database, seriesPartitionSlots) -> {
+          for (final TSeriesPartitionSlot seriesPartitionSlot : seriesPartitionSlots) {
+            // the slots being fetched by writers are skipped
+            if (null
+                == tryOwnFetch(
+                    new DataPartitionSlot(database, seriesPartitionSlot, nextTimePartitionSlot),
+                    ownedFetches)) {
+              partitionSlotsMap
+                  .computeIfAbsent(database, k -> new HashMap<>())
+                  .put(
+                      seriesPartitionSlot,
+                      new TTimeSlotList(
+                          Collections.singletonList(nextTimePartitionSlot), false, false));
+            }
+          }
+        });
+    if (!partitionSlotsMap.isEmpty()) {
+      try {
+        final TDataPartitionTableResp dataPartitionTableResp =
+            dataPartitionTableFetcher.getOrCreateDataPartitionTable(
+                new TDataPartitionReq(partitionSlotsMap));
+        if (dataPartitionTableResp.getStatus().getCode()
+            != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+          LOGGER.warn(
+              "Failed to pre-allocate data partitions of time partition {}, will retry later: {}",
+              nextTimePartitionStartTime,
+              dataPartitionTableResp.getStatus());
+          return;
+        }
+        partitionCache.updateDataPartitionCache(dataPartitionTableResp.getDataPartitionTable());
+      } catch (final ClientManagerException | TException e) {
+        LOGGER.warn(
+            "Failed to pre-allocate data partitions of time partition {}, will retry later",
+            nextTimePartitionStartTime,
+            e);
+        return;
+      } finally {
+        completeOwnedFetches(ownedFetches);
+      }
+      LOGGER.info(
+          "Pre-allocated data partitions of time partition {} for {} databases",
+          nextTimePartitionStartTime,
+          partitionSlotsMap.size());
+    }
+    lastPreAllocatedTimePartitionStartTime = nextTimePartitionStartTime;
+  }
+
   @Override
   public boolean updateRegionCache(final TRegionRouteReq req) {
     return partitionCache.updateGroupIdToReplicaSetMap(req.getTimestamp(), req.getRegionRouteMap());
@@ -413,6 +656,41 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
     }
   }
 
+  private static class DataPartitionSlot {
+
+    private final String database;
+    private final TSeriesPartitionSlot seriesPartitionSlot;
+    private final TTimePartitionSlot timePartitionSlot;
+
+    private DataPartitionSlot(
+        final String database,
+        final TSeriesPartitionSlot seriesPartitionSlot,
+        final TTimePartitionSlot timePartitionSlot) {
+      this.database = database;
+      this.seriesPartitionSlot = seriesPartitionSlot;
+      this.timePartitionSlot = timePartitionSlot;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final DataPartitionSlot that = (DataPartitionSlot) o;
+      return Objects.equals(database, that.database)
+          && Objects.equals(seriesPartitionSlot, that.seriesPartitionSlot)
+          && Objects.equals(timePartitionSlot, that.timePartitionSlot);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(database, seriesPartitionSlot, timePartitionSlot);
+    }
+  }
+
   private static class ComplexTimeSlotList {
 
     Set<TTimePartitionSlot> timeSlotList;
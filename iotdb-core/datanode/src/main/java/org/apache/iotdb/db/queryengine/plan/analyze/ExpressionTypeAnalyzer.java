@@ -515,6 +515,9 @@ public class ExpressionTypeAnalyzer {
       case SqlConstant.VAR_SAMP:
       case SqlConstant.MAX_BY:
       case SqlConstant.MIN_BY:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
+      case SqlConstant.APPROX_PERCENTILE:
+      case SqlConstant.APPROX_MOST_FREQUENT:
         return expressionTypes.get(NodeRef.of(inputExpressions.get(0)));
       default:
         throw new IllegalArgumentException(
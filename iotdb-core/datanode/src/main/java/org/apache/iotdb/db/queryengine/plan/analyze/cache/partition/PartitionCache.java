@@ -73,6 +73,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class PartitionCache {
@@ -99,15 +100,31 @@ public class PartitionCache {
   /** the latest time when groupIdToReplicaSetMap updated. */
   private final AtomicLong latestUpdateTime = new AtomicLong(0);
 
-  /** TConsensusGroupId -> TRegionReplicaSet */
-  private final Map<TConsensusGroupId, TRegionReplicaSet> groupIdToReplicaSetMap = new HashMap<>();
+  /**
+   * TConsensusGroupId -> TRegionReplicaSet. The map is never modified after it is published, so it
+   * can be read without lock.
+   */
+  private volatile Map<TConsensusGroupId, TRegionReplicaSet> groupIdToReplicaSetMap =
+      Collections.emptyMap();
+
+  /**
+   * Increased before and after each invalidation of the dataPartitionCache, so it is odd while an
+   * invalidation is in progress. Readers of the dataPartitionCache don't take any lock, a read that
+   * overlaps an invalidation is treated as a miss.
+   */
+  private final AtomicLong dataPartitionCacheVersion = new AtomicLong(0);
 
   /** The lock of cache */
   private final ReentrantReadWriteLock databaseCacheLock = new ReentrantReadWriteLock();
 
   private final ReentrantReadWriteLock schemaPartitionCacheLock = new ReentrantReadWriteLock();
-  private final ReentrantReadWriteLock dataPartitionCacheLock = new ReentrantReadWriteLock();
-  private final ReentrantReadWriteLock regionReplicaSetLock = new ReentrantReadWriteLock();
+
+  /**
+   * Serialize the writers of dataPartitionCache and groupIdToReplicaSetMap, readers are lock-free
+   */
+  private final ReentrantLock dataPartitionCacheUpdateLock = new ReentrantLock();
+
+  private final ReentrantLock regionReplicaSetUpdateLock = new ReentrantLock();
 
   private final IClientManager<ConfigRegionId, ConfigNodeClient> configNodeClientManager =
       ConfigNodeClientManager.getInstance();
@@ -531,17 +548,12 @@ public class PartitionCache {
    * @throws StatementAnalyzeException if there are exception when try to get latestRegionRouteMap
    */
   public TRegionReplicaSet getRegionReplicaSet(TConsensusGroupId consensusGroupId) {
-    TRegionReplicaSet result;
     // try to get regionReplicaSet from cache
-    regionReplicaSetLock.readLock().lock();
-    try {
-      result = groupIdToReplicaSetMap.get(consensusGroupId);
-    } finally {
-      regionReplicaSetLock.readLock().unlock();
-    }
+    TRegionReplicaSet result = groupIdToReplicaSetMap.get(consensusGroupId);
     if (result == null) {
-      // if not hit then try to get regionReplicaSet from configNode
-      regionReplicaSetLock.writeLock().lock();
+      // if not hit then try to get regionReplicaSet from configNode, only one thread fetches the
+      // route map and the others will find the result in cache
+      regionReplicaSetUpdateLock.lock();
       try {
         // verify that there are not hit in cache
         if (!groupIdToReplicaSetMap.containsKey(consensusGroupId)) {
@@ -564,7 +576,7 @@ public class PartitionCache {
         }
         result = groupIdToReplicaSetMap.get(consensusGroupId);
       } finally {
-        regionReplicaSetLock.writeLock().unlock();
+        regionReplicaSetUpdateLock.unlock();
       }
     }
     // try to get regionReplicaSet by consensusGroupId
@@ -580,27 +592,26 @@ public class PartitionCache {
    */
   public boolean updateGroupIdToReplicaSetMap(
       long timestamp, Map<TConsensusGroupId, TRegionReplicaSet> map) {
-    regionReplicaSetLock.writeLock().lock();
+    regionReplicaSetUpdateLock.lock();
     try {
       boolean result = (timestamp == latestUpdateTime.accumulateAndGet(timestamp, Math::max));
       // if timestamp is greater than latestUpdateTime, then update
       if (result) {
-        groupIdToReplicaSetMap.clear();
-        groupIdToReplicaSetMap.putAll(map);
+        groupIdToReplicaSetMap = new HashMap<>(map);
       }
       return result;
     } finally {
-      regionReplicaSetLock.writeLock().unlock();
+      regionReplicaSetUpdateLock.unlock();
     }
   }
 
   /** invalidate replicaSetCache */
   public void invalidReplicaSetCache() {
-    regionReplicaSetLock.writeLock().lock();
+    regionReplicaSetUpdateLock.lock();
     try {
-      groupIdToReplicaSetMap.clear();
+      groupIdToReplicaSetMap = Collections.emptyMap();
     } finally {
-      regionReplicaSetLock.writeLock().unlock();
+      regionReplicaSetUpdateLock.unlock();
     }
   }
 
@@ -755,31 +766,40 @@ public class PartitionCache {
    */
   public DataPartition getDataPartition(
       Map<String, List<DataPartitionQueryParam>> databaseToQueryParamsMap) {
-    dataPartitionCacheLock.readLock().lock();
-    try {
-      if (databaseToQueryParamsMap.isEmpty()) {
+    if (databaseToQueryParamsMap.isEmpty()) {
+      cacheMetrics.record(false, CacheMetrics.DATA_PARTITION_CACHE_NAME);
+      return null;
+    }
+    // the cached tables are only merged into by writers, so a lock-free read sees either the old
+    // or the new mapping of each slot, the version check excludes the reads overlapping with an
+    // invalidation
+    long version = dataPartitionCacheVersion.get();
+    if ((version & 1) != 0) {
+      logger.debug("[{} Cache] invalidation in progress", CacheMetrics.DATA_PARTITION_CACHE_NAME);
+      cacheMetrics.record(false, CacheMetrics.DATA_PARTITION_CACHE_NAME);
+      return null;
+    }
+    Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>>>
+        dataPartitionMap = new HashMap<>();
+    // check cache for each database
+    for (Map.Entry<String, List<DataPartitionQueryParam>> entry :
+        databaseToQueryParamsMap.entrySet()) {
+      if (null == entry.getValue()
+          || entry.getValue().isEmpty()
+          || !getDatabaseDataPartition(dataPartitionMap, entry.getKey(), entry.getValue())) {
         cacheMetrics.record(false, CacheMetrics.DATA_PARTITION_CACHE_NAME);
         return null;
       }
-      Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TRegionReplicaSet>>>>
-          dataPartitionMap = new HashMap<>();
-      // check cache for each database
-      for (Map.Entry<String, List<DataPartitionQueryParam>> entry :
-          databaseToQueryParamsMap.entrySet()) {
-        if (null == entry.getValue()
-            || entry.getValue().isEmpty()
-            || !getDatabaseDataPartition(dataPartitionMap, entry.getKey(), entry.getValue())) {
-          cacheMetrics.record(false, CacheMetrics.DATA_PARTITION_CACHE_NAME);
-          return null;
-        }
-      }
-      logger.debug("[{} Cache] hit", CacheMetrics.DATA_PARTITION_CACHE_NAME);
-      // cache hit
-      cacheMetrics.record(true, CacheMetrics.DATA_PARTITION_CACHE_NAME);
-      return new DataPartition(dataPartitionMap, seriesSlotExecutorName, seriesPartitionSlotNum);
-    } finally {
-      dataPartitionCacheLock.readLock().unlock();
     }
+    if (version != dataPartitionCacheVersion.get()) {
+      logger.debug("[{} Cache] invalidated during search", CacheMetrics.DATA_PARTITION_CACHE_NAME);
+      cacheMetrics.record(false, CacheMetrics.DATA_PARTITION_CACHE_NAME);
+      return null;
+    }
+    logger.debug("[{} Cache] hit", CacheMetrics.DATA_PARTITION_CACHE_NAME);
+    // cache hit
+    cacheMetrics.record(true, CacheMetrics.DATA_PARTITION_CACHE_NAME);
+    return new DataPartition(dataPartitionMap, seriesSlotExecutorName, seriesPartitionSlotNum);
   }
 
   /**
@@ -907,7 +927,7 @@ public class PartitionCache {
   public void updateDataPartitionCache(
       Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>>
           dataPartitionTable) {
-    dataPartitionCacheLock.writeLock().lock();
+    dataPartitionCacheUpdateLock.lock();
     try {
       for (Map.Entry<
               String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>>
@@ -947,18 +967,48 @@ public class PartitionCache {
         }
       }
     } finally {
-      dataPartitionCacheLock.writeLock().unlock();
+      dataPartitionCacheUpdateLock.unlock();
     }
   }
 
   /** invalid all dataPartitionCache */
   public void invalidAllDataPartitionCache() {
-    dataPartitionCacheLock.writeLock().lock();
+    dataPartitionCacheUpdateLock.lock();
     try {
-      dataPartitionCache.invalidateAll();
+      dataPartitionCacheVersion.incrementAndGet();
+      try {
+        dataPartitionCache.invalidateAll();
+      } finally {
+        dataPartitionCacheVersion.incrementAndGet();
+      }
     } finally {
-      dataPartitionCacheLock.writeLock().unlock();
+      dataPartitionCacheUpdateLock.unlock();
+    }
+  }
+
+  /**
+   * get the series partition slots of each database that have the given time partition slot in
+   * cache
+   *
+   * @param timePartitionSlot the specific time partition slot
+   * @return database to seriesPartitionSlots map
+   */
+  public Map<String, List<TSeriesPartitionSlot>> getCachedSeriesPartitionSlots(
+      TTimePartitionSlot timePartitionSlot) {
+    Map<String, List<TSeriesPartitionSlot>> result = new HashMap<>();
+    for (Map.Entry<String, DataPartitionTable> entry : dataPartitionCache.asMap().entrySet()) {
+      List<TSeriesPartitionSlot> seriesPartitionSlots = new ArrayList<>();
+      for (Map.Entry<TSeriesPartitionSlot, SeriesPartitionTable> seriesEntry :
+          entry.getValue().getDataPartitionMap().entrySet()) {
+        if (seriesEntry.getValue().getSeriesPartitionMap().containsKey(timePartitionSlot)) {
+          seriesPartitionSlots.add(seriesEntry.getKey());
+        }
+      }
+      if (!seriesPartitionSlots.isEmpty()) {
+        result.put(entry.getKey(), seriesPartitionSlots);
+      }
     }
+    return result;
   }
 
   // endregion
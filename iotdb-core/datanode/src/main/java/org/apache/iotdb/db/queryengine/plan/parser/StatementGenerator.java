@@ -101,13 +101,18 @@ import org.apache.tsfile.common.constant.TsFileConstant;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.DateUtils;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 import org.apache.tsfile.utils.TimeDuration;
+import org.apache.tsfile.write.record.Tablet;
 import org.apache.tsfile.write.record.Tablet.ColumnCategory;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
 
 import java.nio.ByteBuffer;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -375,6 +380,49 @@ public class StatementGenerator {
     return insertStatement;
   }
 
+  /** The values of the tablet are used as they are, the tablet should be sorted by time. */
+  public static InsertTabletStatement createStatement(Tablet tablet, boolean isAligned)
+      throws IllegalPathException {
+    final long startTime = System.nanoTime();
+    InsertTabletStatement insertStatement = new InsertTabletStatement();
+    insertStatement.setDevicePath(DEVICE_PATH_CACHE.getPartialPath(tablet.getDeviceId()));
+    int rowCount = tablet.getRowSize();
+    List<IMeasurementSchema> schemas = tablet.getSchemas();
+    String[] measurements = new String[schemas.size()];
+    TSDataType[] dataTypes = new TSDataType[schemas.size()];
+    Object[] columns = new Object[schemas.size()];
+    for (int i = 0; i < schemas.size(); i++) {
+      measurements[i] = schemas.get(i).getMeasurementName();
+      dataTypes[i] = schemas.get(i).getType();
+      columns[i] = tablet.getValues()[i];
+      if (dataTypes[i] == TSDataType.DATE && columns[i] instanceof LocalDate[]) {
+        // tablets hold dates as LocalDate, while statements hold them as int
+        LocalDate[] dates = (LocalDate[]) columns[i];
+        int[] dateInts = new int[dates.length];
+        for (int j = 0; j < rowCount; j++) {
+          dateInts[j] = dates[j] == null ? 0 : DateUtils.parseDateExpressionToInt(dates[j]);
+        }
+        columns[i] = dateInts;
+      }
+    }
+    insertStatement.setMeasurements(measurements);
+    long[] timestamps =
+        tablet.getTimestamps().length == rowCount
+            ? tablet.getTimestamps()
+            : Arrays.copyOf(tablet.getTimestamps(), rowCount);
+    if (rowCount != 0) {
+      TimestampPrecisionUtils.checkTimestampPrecision(timestamps[rowCount - 1]);
+    }
+    insertStatement.setTimes(timestamps);
+    insertStatement.setColumns(columns);
+    insertStatement.setBitMaps(tablet.getBitMaps());
+    insertStatement.setRowCount(rowCount);
+    insertStatement.setDataTypes(dataTypes);
+    insertStatement.setAligned(isAligned);
+    PERFORMANCE_OVERVIEW_METRICS.recordParseCost(System.nanoTime() - startTime);
+    return insertStatement;
+  }
+
   public static InsertMultiTabletsStatement createStatement(TSInsertTabletsReq req)
       throws IllegalPathException {
     final long startTime = System.nanoTime();
@@ -1599,7 +1599,8 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
           node.isKeepNull(),
           context.getZoneId(),
           expressionTypes,
-          node.getScanOrder() == ASC);
+          node.getScanOrder() == ASC,
+          FragmentInstanceManager.getInstance().getUdfEvaluationExecutor());
     } catch (QueryProcessException e) {
       throw new RuntimeException(e);
     }
@@ -1800,7 +1801,8 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
           isKeepNull,
           context.getZoneId(),
           expressionTypes,
-          scanOrder == ASC);
+          scanOrder == ASC,
+          FragmentInstanceManager.getInstance().getUdfEvaluationExecutor());
     } catch (QueryProcessException e) {
       throw new RuntimeException(e);
     }
@@ -64,6 +64,8 @@ public class LoadSingleTsFileNode extends WritePlanNode {
   private boolean needDecodeTsFile;
 
   private TRegionReplicaSet localRegionReplicaSet;
+  // the other replicas of the local region when the local replica adopts the TsFile directly
+  private TRegionReplicaSet remoteRegionReplicaSet;
 
   public LoadSingleTsFileNode(
       PlanNodeId id,
@@ -120,7 +122,8 @@ public class LoadSingleTsFileNode extends WritePlanNode {
     for (TRegionReplicaSet replicaSet : replicaSets) {
       List<TDataNodeLocation> dataNodeLocationList = replicaSet.getDataNodeLocations();
       if (dataNodeLocationList.size() > 1) {
-        return false;
+        return IoTDBDescriptor.getInstance().getConfig().isEnableLoadTsFileDirectAdoption()
+            && isAdoptedByLocalReplica(replicaSet);
       }
       localRegionReplicaSet = replicaSet;
       if (dataNodeLocationList.size() == 1) {
@@ -131,6 +134,27 @@ public class LoadSingleTsFileNode extends WritePlanNode {
     return true;
   }
 
+  /**
+   * When one of the replicas of the region is on this DataNode, the TsFile is adopted by the local
+   * replica as it is and only the other replicas receive the pieces split from it.
+   */
+  private boolean isAdoptedByLocalReplica(TRegionReplicaSet replicaSet) {
+    final List<TDataNodeLocation> remoteDataNodeLocations = new ArrayList<>();
+    for (TDataNodeLocation dataNodeLocation : replicaSet.getDataNodeLocations()) {
+      if (!isDispatchedToLocal(dataNodeLocation.getInternalEndPoint())) {
+        remoteDataNodeLocations.add(dataNodeLocation);
+      }
+    }
+    if (remoteDataNodeLocations.size() == replicaSet.getDataNodeLocationsSize()) {
+      return false;
+    }
+
+    localRegionReplicaSet = replicaSet;
+    remoteRegionReplicaSet =
+        new TRegionReplicaSet(replicaSet.getRegionId(), remoteDataNodeLocations);
+    return true;
+  }
+
   private boolean isDispatchedToLocal(TEndPoint endPoint) {
     return IoTDBDescriptor.getInstance().getConfig().getInternalAddress().equals(endPoint.getIp())
         && IoTDBDescriptor.getInstance().getConfig().getInternalPort() == endPoint.port;
@@ -157,6 +181,15 @@ public class LoadSingleTsFileNode extends WritePlanNode {
     return localRegionReplicaSet;
   }
 
+  /**
+   * only used for load locally.
+   *
+   * @return the other replicas of the local region, or null if there is no other replica
+   */
+  public TRegionReplicaSet getRemoteRegionReplicaSet() {
+    return remoteRegionReplicaSet;
+  }
+
   public TsFileResource getTsFileResource() {
     return resource;
   }
@@ -50,6 +50,9 @@ public class LoadTsFilePieceNode extends WritePlanNode {
   private static final Logger LOGGER = LoggerFactory.getLogger(LoadTsFilePieceNode.class);
 
   private File tsFile;
+  // the device range of the TsFile which the piece is split from, when the TsFile is split by
+  // device ranges in parallel. Pieces of different ranges are written by different writers.
+  private int deviceRangeIndex;
 
   private long dataSize;
   private List<TsFileData> tsFileDataList;
@@ -59,8 +62,14 @@ public class LoadTsFilePieceNode extends WritePlanNode {
   }
 
   public LoadTsFilePieceNode(PlanNodeId id, File tsFile) {
+    super(id);
+    this(id, tsFile, 0);
+  }
+
+  public LoadTsFilePieceNode(PlanNodeId id, File tsFile, int deviceRangeIndex) {
     super(id);
     this.tsFile = tsFile;
+    this.deviceRangeIndex = deviceRangeIndex;
     this.dataSize = 0;
     this.tsFileDataList = new ArrayList<>();
   }
@@ -82,6 +91,10 @@ public class LoadTsFilePieceNode extends WritePlanNode {
     return tsFile;
   }
 
+  public int getDeviceRangeIndex() {
+    return deviceRangeIndex;
+  }
+
   @Override
   public TRegionReplicaSet getRegionReplicaSet() {
     return null;
@@ -133,6 +146,7 @@ public class LoadTsFilePieceNode extends WritePlanNode {
   protected void serializeAttributes(DataOutputStream stream) throws IOException {
     PlanNodeType.LOAD_TSFILE.serialize(stream);
     ReadWriteIOUtils.write(tsFile.getPath(), stream); // TODO: can save this space
+    ReadWriteIOUtils.write(deviceRangeIndex, stream);
     ReadWriteIOUtils.write(tsFileDataList.size(), stream);
     for (TsFileData tsFileData : tsFileDataList) {
       try {
@@ -156,7 +170,9 @@ public class LoadTsFilePieceNode extends WritePlanNode {
     try {
       ReadWriteIOUtils.readShort(stream); // read PlanNodeType
       File tsFile = new File(ReadWriteIOUtils.readString(stream));
-      LoadTsFilePieceNode pieceNode = new LoadTsFilePieceNode(new PlanNodeId(""), tsFile);
+      int deviceRangeIndex = ReadWriteIOUtils.readInt(stream);
+      LoadTsFilePieceNode pieceNode =
+          new LoadTsFilePieceNode(new PlanNodeId(""), tsFile, deviceRangeIndex);
       int tsFileDataSize = ReadWriteIOUtils.readInt(stream);
       for (int i = 0; i < tsFileDataSize; i++) {
         TsFileData tsFileData = TsFileData.deserialize(stream);
@@ -180,13 +196,14 @@ public class LoadTsFilePieceNode extends WritePlanNode {
     }
     LoadTsFilePieceNode loadTsFilePieceNode = (LoadTsFilePieceNode) o;
     return Objects.equals(tsFile, loadTsFilePieceNode.tsFile)
+        && deviceRangeIndex == loadTsFilePieceNode.deviceRangeIndex
         && Objects.equals(dataSize, loadTsFilePieceNode.dataSize)
         && Objects.equals(tsFileDataList, loadTsFilePieceNode.tsFileDataList);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(tsFile, dataSize, tsFileDataList);
+    return Objects.hash(tsFile, deviceRangeIndex, dataSize, tsFileDataList);
   }
 
   @Override
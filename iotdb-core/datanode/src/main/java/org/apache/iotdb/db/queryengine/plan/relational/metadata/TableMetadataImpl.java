@@ -605,6 +605,45 @@ public class TableMetadataImpl implements Metadata {
                   "Second argument of Aggregate functions [%s] should be orderable", functionName));
         }
 
+        break;
+      case SqlConstant.APPROX_COUNT_DISTINCT:
+        if (argumentTypes.size() != 1 && argumentTypes.size() != 2) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregate functions [%s] should only have one or two arguments", functionName));
+        } else if (argumentTypes.size() == 2 && !isSupportedMathNumericType(argumentTypes.get(1))) {
+          throw new SemanticException(
+              String.format(
+                  "Second argument of Aggregate functions [%s] should be numeric", functionName));
+        }
+        break;
+      case SqlConstant.APPROX_PERCENTILE:
+        if (argumentTypes.size() != 2) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregate functions [%s] should only have two arguments", functionName));
+        } else if (!isSupportedMathNumericType(argumentTypes.get(0))
+            || !isSupportedMathNumericType(argumentTypes.get(1))) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregate functions [%s] only support numeric data types [INT32, INT64, FLOAT, DOUBLE]",
+                  functionName));
+        }
+        break;
+      case SqlConstant.APPROX_MOST_FREQUENT:
+        if (argumentTypes.size() != 2 && argumentTypes.size() != 3) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregate functions [%s] should only have two or three arguments",
+                  functionName));
+        }
+        for (int i = 1; i < argumentTypes.size(); i++) {
+          if (!isIntegerNumber(argumentTypes.get(i))) {
+            throw new SemanticException(
+                String.format(
+                    "Aggregate functions [%s] only support integer k and capacity", functionName));
+          }
+        }
         break;
       case SqlConstant.COUNT:
         break;
@@ -615,6 +654,7 @@ public class TableMetadataImpl implements Metadata {
     // get return type
     switch (functionName.toLowerCase(Locale.ENGLISH)) {
       case SqlConstant.COUNT:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         return INT64;
       case SqlConstant.FIRST_AGGREGATION:
       case SqlConstant.LAST_AGGREGATION:
@@ -635,7 +675,10 @@ public class TableMetadataImpl implements Metadata {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return DOUBLE;
+      case SqlConstant.APPROX_MOST_FREQUENT:
+        return STRING;
       default:
         // ignore
     }
@@ -23,6 +23,7 @@ import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.utils.RamUsageEstimator;
 import org.apache.tsfile.utils.TsPrimitiveType;
@@ -32,20 +33,27 @@ import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.TreeSet;
 
+/**
+ * The last values of one device, stored column by column: the measurements are kept sorted and the
+ * position of a measurement is its ordinal in the primitive arrays of times, values and kinds. This
+ * avoids one map entry, one {@link TimeValuePair} and one {@link TsPrimitiveType} per cached
+ * series, the {@link TimeValuePair}s are rebuilt on read.
+ *
+ * <p>The columns are an immutable snapshot. The writers are serialized by the monitor of the cache
+ * and publish a new snapshot, copying the arrays they change, so that the readers of a hot device
+ * never block and always see one consistent row.
+ */
 @ThreadSafe
 public class TableDeviceLastCache {
   static final int INSTANCE_SIZE =
-      (int) RamUsageEstimator.shallowSizeOfInstance(TableDeviceLastCache.class)
-          + (int) RamUsageEstimator.shallowSizeOfInstance(ConcurrentHashMap.class);
+      (int) RamUsageEstimator.shallowSizeOfInstance(TableDeviceLastCache.class);
 
   public static final TsPrimitiveType EMPTY_PRIMITIVE_TYPE =
       new TsPrimitiveType() {
@@ -84,189 +92,410 @@ public class TableDeviceLastCache {
       Optional.of(new Pair<>(OptionalLong.empty(), null));
   public static final TimeValuePair EMPTY_TIME_VALUE_PAIR =
       new TimeValuePair(Long.MIN_VALUE, EMPTY_PRIMITIVE_TYPE);
-  private static final TimeValuePair PLACEHOLDER_TIME_VALUE_PAIR =
-      new TimeValuePair(Long.MIN_VALUE, EMPTY_PRIMITIVE_TYPE);
 
-  // Time is seen as "" as a measurement
-  private final Map<String, TimeValuePair> measurement2CachedLastMap = new ConcurrentHashMap<>();
+  // Kinds of the cached entries
+  // Put by the first push of a query, the value is not known yet
+  private static final byte PLACEHOLDER = 0;
+  // EMPTY_TIME_VALUE_PAIR, the measurement has no values
+  private static final byte EMPTY = 1;
+  // Only the time is known, used by the time column
+  private static final byte NULL_VALUE = 2;
+  // The time with EMPTY_PRIMITIVE_TYPE as value
+  private static final byte EMPTY_VALUE = 3;
+  private static final byte BOOLEAN = 4;
+  private static final byte INT32 = 5;
+  private static final byte INT64 = 6;
+  private static final byte FLOAT = 7;
+  private static final byte DOUBLE = 8;
+  private static final byte BINARY = 9;
+
+  private static final String[] EMPTY_MEASUREMENTS = new String[0];
+  private static final byte[] EMPTY_KINDS = new byte[0];
+  private static final long[] EMPTY_LONGS = new long[0];
+
+  private volatile Columns columns = Columns.NO_COLUMNS;
 
-  int initOrInvalidate(
+  synchronized int initOrInvalidate(
       final String database,
       final String tableName,
       final String[] measurements,
       final boolean isInvalidate,
       final boolean isTableModel) {
-    final AtomicInteger diff = new AtomicInteger(0);
+    final Columns current = columns;
+
+    if (isInvalidate) {
+      Columns next = current;
+      for (final String measurement : measurements) {
+        final int index = next.indexOf(measurement);
+        if (index >= 0) {
+          next = next.remove(index, !isTableModel);
+        }
+      }
+      return publish(current, next);
+    }
 
+    final TreeSet<String> newMeasurements = new TreeSet<>();
     for (final String measurement : measurements) {
+      if (current.indexOf(measurement) >= 0) {
+        continue;
+      }
       final String finalMeasurement =
-          !measurement2CachedLastMap.containsKey(measurement) && isTableModel
+          isTableModel
               ? DataNodeTableCache.getInstance()
                   .tryGetInternColumnName(database, tableName, measurement)
               : measurement;
 
       // Removing table measurement, do not put cache
-      if (Objects.isNull(finalMeasurement)) {
-        continue;
+      if (Objects.nonNull(finalMeasurement)) {
+        newMeasurements.add(finalMeasurement);
       }
-      final TimeValuePair newPair = isInvalidate ? null : PLACEHOLDER_TIME_VALUE_PAIR;
-
-      measurement2CachedLastMap.compute(
-          finalMeasurement,
-          (measurementKey, tvPair) -> {
-            if (Objects.isNull(newPair)) {
-              diff.addAndGet(
-                  -((isTableModel ? 0 : (int) RamUsageEstimator.sizeOf(finalMeasurement))
-                      + getTVPairEntrySize(tvPair)));
-              return null;
-            }
-            if (Objects.isNull(tvPair)) {
-              diff.addAndGet(
-                  (isTableModel ? 0 : (int) RamUsageEstimator.sizeOf(finalMeasurement))
-                      + (int) RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY);
-              return newPair;
-            }
-            return tvPair;
-          });
     }
-    return diff.get();
+    return newMeasurements.isEmpty()
+        ? 0
+        : publish(current, current.insertPlaceholders(newMeasurements, !isTableModel));
   }
 
-  int tryUpdate(
+  synchronized int tryUpdate(
       final @Nonnull String[] measurements, final @Nonnull TimeValuePair[] timeValuePairs) {
-    final AtomicInteger diff = new AtomicInteger(0);
+    final Columns current = columns;
+    // Copied on the first change
+    Columns next = current;
     long lastTime = Long.MIN_VALUE;
 
     for (int i = 0; i < measurements.length; ++i) {
       if (Objects.isNull(timeValuePairs[i])) {
         continue;
       }
-      final int finalI = i;
       if (lastTime < timeValuePairs[i].getTimestamp()) {
         lastTime = timeValuePairs[i].getTimestamp();
       }
-      measurement2CachedLastMap.computeIfPresent(
-          measurements[i],
-          (measurement, tvPair) -> {
-            if (tvPair.getTimestamp() <= timeValuePairs[finalI].getTimestamp()) {
-              diff.addAndGet(getDiffSize(tvPair, timeValuePairs[finalI]));
-              return timeValuePairs[finalI];
-            }
-            return tvPair;
-          });
+      final int index = current.indexOf(measurements[i]);
+      if (index >= 0 && next.times[index] <= timeValuePairs[i].getTimestamp()) {
+        if (next == current) {
+          next = current.copyValues();
+        }
+        next.set(index, timeValuePairs[i]);
+      }
+    }
+    final int timeIndex = current.indexOf("");
+    if (timeIndex >= 0 && next.times[timeIndex] < lastTime) {
+      if (next == current) {
+        next = current.copyValues();
+      }
+      next.setTime(timeIndex, lastTime);
     }
-    final long finalLastTime = lastTime;
-    measurement2CachedLastMap.computeIfPresent(
-        "",
-        (time, tvPair) ->
-            tvPair.getTimestamp() < finalLastTime
-                ? new TimeValuePair(finalLastTime, null)
-                : tvPair);
-    return diff.get();
+    return publish(current, next);
   }
 
   @GuardedBy("DataRegionInsertLock#writeLock")
-  int invalidate(final String measurement, final boolean isTableModel) {
-    final AtomicInteger diff = new AtomicInteger();
-    final AtomicLong time = new AtomicLong();
-    measurement2CachedLastMap.computeIfPresent(
-        measurement,
-        (s, timeValuePair) -> {
-          diff.set(
-              isTableModel
-                  ? 0
-                  : (int) RamUsageEstimator.sizeOf(s) + getTVPairEntrySize(timeValuePair));
-          time.set(timeValuePair.getTimestamp());
-          return null;
-        });
-    if (diff.get() == 0) {
+  synchronized int invalidate(final String measurement, final boolean isTableModel) {
+    final Columns current = columns;
+    final int index = current.indexOf(measurement);
+    if (index < 0) {
       return 0;
     }
-    measurement2CachedLastMap.computeIfPresent(
-        "",
-        (s, timeValuePair) -> {
-          if (timeValuePair.getTimestamp() <= time.get()) {
-            diff.addAndGet(getTVPairEntrySize(timeValuePair));
-            return null;
-          }
-          return timeValuePair;
-        });
+    final long time = current.times[index];
+    Columns next = current.remove(index, !isTableModel);
 
-    return diff.get();
+    if (!isTableModel) {
+      final int timeIndex = next.indexOf("");
+      if (timeIndex >= 0 && next.times[timeIndex] <= time) {
+        next = next.remove(timeIndex, true);
+      }
+    }
+    return publish(current, next);
   }
 
-  private int getTVPairEntrySize(final TimeValuePair tvPair) {
-    return (int) RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY
-        + ((Objects.isNull(tvPair)
-                || tvPair == PLACEHOLDER_TIME_VALUE_PAIR
-                || tvPair == EMPTY_TIME_VALUE_PAIR)
-            ? 0
-            : tvPair.getSize());
+  @GuardedBy("this")
+  private int publish(final Columns previous, final Columns next) {
+    if (next == previous) {
+      return 0;
+    }
+    columns = next;
+    return next.estimateSize() - previous.estimateSize();
   }
 
   @Nullable
   TimeValuePair getTimeValuePair(final @Nonnull String measurement) {
-    final TimeValuePair result = measurement2CachedLastMap.get(measurement);
-    return result != PLACEHOLDER_TIME_VALUE_PAIR ? result : null;
+    final Columns current = columns;
+    final int index = current.indexOf(measurement);
+    if (index < 0 || current.kinds[index] == PLACEHOLDER) {
+      return null;
+    }
+    return current.kinds[index] == EMPTY
+        ? EMPTY_TIME_VALUE_PAIR
+        : new TimeValuePair(current.times[index], current.getValue(index));
   }
 
   // Shall pass in "" if last by time
   Optional<Pair<OptionalLong, TsPrimitiveType[]>> getLastRow(
       final @Nonnull String sourceMeasurement, final List<String> targetMeasurements) {
-    final TimeValuePair pair = measurement2CachedLastMap.get(sourceMeasurement);
-    if (Objects.isNull(pair) || pair == PLACEHOLDER_TIME_VALUE_PAIR) {
+    final Columns current = columns;
+    final int sourceIndex = current.indexOf(sourceMeasurement);
+    if (sourceIndex < 0 || current.kinds[sourceIndex] == PLACEHOLDER) {
       return Optional.empty();
     }
 
-    if (pair == EMPTY_TIME_VALUE_PAIR) {
+    if (current.kinds[sourceIndex] == EMPTY) {
       return HIT_AND_ALL_NULL;
     }
-    final long alignTime = pair.getTimestamp();
-
-    return Optional.of(
-        new Pair<>(
-            OptionalLong.of(alignTime),
-            targetMeasurements.stream()
-                .map(
-                    targetMeasurement -> {
-                      if (!targetMeasurement.isEmpty()) {
-                        final TimeValuePair tvPair =
-                            measurement2CachedLastMap.get(targetMeasurement);
-                        if (Objects.isNull(tvPair)) {
-                          return null;
-                        }
-                        return tvPair.getTimestamp() == alignTime
-                            ? tvPair.getValue()
-                            : EMPTY_PRIMITIVE_TYPE;
-                      } else {
-                        return new TsPrimitiveType.TsLong(alignTime);
-                      }
-                    })
-                .toArray(TsPrimitiveType[]::new)));
+    final long alignTime = current.times[sourceIndex];
+
+    final TsPrimitiveType[] row = new TsPrimitiveType[targetMeasurements.size()];
+    for (int i = 0; i < row.length; ++i) {
+      final String targetMeasurement = targetMeasurements.get(i);
+      if (targetMeasurement.isEmpty()) {
+        row[i] = new TsPrimitiveType.TsLong(alignTime);
+        continue;
+      }
+      final int index = current.indexOf(targetMeasurement);
+      if (index < 0) {
+        row[i] = null;
+      } else {
+        row[i] = current.times[index] == alignTime ? current.getValue(index) : EMPTY_PRIMITIVE_TYPE;
+      }
+    }
+    return Optional.of(new Pair<>(OptionalLong.of(alignTime), row));
   }
 
   int estimateSize() {
-    return INSTANCE_SIZE
-        + (int) RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY * measurement2CachedLastMap.size()
-        + measurement2CachedLastMap.values().stream()
-            .mapToInt(TimeValuePair::getSize)
-            .reduce(0, Integer::sum);
+    return INSTANCE_SIZE + columns.estimateSize();
   }
 
-  private static int getDiffSize(
-      final TimeValuePair oldTimeValuePair, final TimeValuePair newTimeValuePair) {
-    if (oldTimeValuePair == EMPTY_TIME_VALUE_PAIR
-        || oldTimeValuePair == PLACEHOLDER_TIME_VALUE_PAIR) {
-      return newTimeValuePair.getSize();
+  /**
+   * A snapshot of the cached columns. It is modified only by the writer which creates it, before it
+   * is published.
+   */
+  private static class Columns {
+    private static final int INSTANCE_SIZE =
+        (int) RamUsageEstimator.shallowSizeOfInstance(Columns.class);
+
+    private static final Columns NO_COLUMNS =
+        new Columns(EMPTY_MEASUREMENTS, EMPTY_KINDS, EMPTY_LONGS, EMPTY_LONGS, null, 0, 0);
+
+    // Time is seen as "" as a measurement
+    private final String[] measurements;
+    private final byte[] kinds;
+    private final long[] times;
+    // Booleans, integers and the raw bits of floating numbers
+    private final long[] values;
+    // Allocated when the first binary value is cached
+    private Binary[] binaries;
+    // Only the tree model measurements are counted, the table model ones are interned
+    private final int measurementsSize;
+    private int binariesSize;
+
+    private Columns(
+        final String[] measurements,
+        final byte[] kinds,
+        final long[] times,
+        final long[] values,
+        final Binary[] binaries,
+        final int measurementsSize,
+        final int binariesSize) {
+      this.measurements = measurements;
+      this.kinds = kinds;
+      this.times = times;
+      this.values = values;
+      this.binaries = binaries;
+      this.measurementsSize = measurementsSize;
+      this.binariesSize = binariesSize;
+    }
+
+    private int estimateSize() {
+      // The empty arrays are shared
+      if (measurements.length == 0) {
+        return 0;
+      }
+      return INSTANCE_SIZE
+          + (int) RamUsageEstimator.shallowSizeOf(measurements)
+          + (int) RamUsageEstimator.sizeOf(kinds)
+          + (int) RamUsageEstimator.sizeOf(times)
+          + (int) RamUsageEstimator.sizeOf(values)
+          + (Objects.nonNull(binaries) ? (int) RamUsageEstimator.shallowSizeOf(binaries) : 0)
+          + measurementsSize
+          + binariesSize;
+    }
+
+    private int indexOf(final String measurement) {
+      return Arrays.binarySearch(measurements, measurement);
+    }
+
+    private TsPrimitiveType getValue(final int index) {
+      switch (kinds[index]) {
+        case NULL_VALUE:
+          return null;
+        case BOOLEAN:
+          return new TsPrimitiveType.TsBoolean(values[index] != 0);
+        case INT32:
+          return new TsPrimitiveType.TsInt((int) values[index]);
+        case INT64:
+          return new TsPrimitiveType.TsLong(values[index]);
+        case FLOAT:
+          return new TsPrimitiveType.TsFloat(Float.intBitsToFloat((int) values[index]));
+        case DOUBLE:
+          return new TsPrimitiveType.TsDouble(Double.longBitsToDouble(values[index]));
+        case BINARY:
+          return new TsPrimitiveType.TsBinary(binaries[index]);
+        default:
+          return EMPTY_PRIMITIVE_TYPE;
+      }
+    }
+
+    /** Copy the values to be changed by {@link #set} and {@link #setTime}. */
+    private Columns copyValues() {
+      return new Columns(
+          measurements,
+          kinds.clone(),
+          times.clone(),
+          values.clone(),
+          Objects.nonNull(binaries) ? binaries.clone() : null,
+          measurementsSize,
+          binariesSize);
     }
-    final TsPrimitiveType oldValue = oldTimeValuePair.getValue();
-    final TsPrimitiveType newValue = newTimeValuePair.getValue();
-    if (oldValue == null) {
-      return newValue == null ? 0 : newValue.getSize();
-    } else if (oldValue instanceof TsPrimitiveType.TsBinary) {
-      return (newValue == null ? 0 : newValue.getSize()) - oldValue.getSize();
-    } else {
-      return newValue == null ? -oldValue.getSize() : 0;
+
+    private void set(final int index, final TimeValuePair timeValuePair) {
+      clearBinary(index);
+      times[index] = timeValuePair.getTimestamp();
+      values[index] = 0;
+      final TsPrimitiveType value = timeValuePair.getValue();
+      if (timeValuePair == EMPTY_TIME_VALUE_PAIR) {
+        kinds[index] = EMPTY;
+        return;
+      }
+      if (Objects.isNull(value)) {
+        kinds[index] = NULL_VALUE;
+        return;
+      }
+      if (value == EMPTY_PRIMITIVE_TYPE) {
+        kinds[index] = EMPTY_VALUE;
+        return;
+      }
+      switch (value.getDataType()) {
+        case BOOLEAN:
+          kinds[index] = BOOLEAN;
+          values[index] = value.getBoolean() ? 1 : 0;
+          break;
+        case INT32:
+        case DATE:
+          kinds[index] = INT32;
+          values[index] = value.getInt();
+          break;
+        case INT64:
+        case TIMESTAMP:
+          kinds[index] = INT64;
+          values[index] = value.getLong();
+          break;
+        case FLOAT:
+          kinds[index] = FLOAT;
+          values[index] = Float.floatToRawIntBits(value.getFloat());
+          break;
+        case DOUBLE:
+          kinds[index] = DOUBLE;
+          values[index] = Double.doubleToRawLongBits(value.getDouble());
+          break;
+        case TEXT:
+        case STRING:
+        case BLOB:
+          kinds[index] = BINARY;
+          if (Objects.isNull(binaries)) {
+            binaries = new Binary[measurements.length];
+          }
+          binaries[index] = value.getBinary();
+          binariesSize += (int) binaries[index].ramBytesUsed();
+          break;
+        default:
+          // Cannot be stored, fall back to a cache miss
+          kinds[index] = PLACEHOLDER;
+          times[index] = Long.MIN_VALUE;
+      }
+    }
+
+    private void setTime(final int index, final long time) {
+      clearBinary(index);
+      kinds[index] = NULL_VALUE;
+      times[index] = time;
+    }
+
+    private void clearBinary(final int index) {
+      if (kinds[index] == BINARY) {
+        binariesSize -= (int) binaries[index].ramBytesUsed();
+        binaries[index] = null;
+      }
+    }
+
+    private Columns insertPlaceholders(
+        final TreeSet<String> newMeasurements, final boolean countMeasurementSize) {
+      final int newLength = measurements.length + newMeasurements.size();
+      final String[] newNames = new String[newLength];
+      final byte[] newKinds = new byte[newLength];
+      final long[] newTimes = new long[newLength];
+      final long[] newValues = new long[newLength];
+      final Binary[] newBinaries = Objects.nonNull(binaries) ? new Binary[newLength] : null;
+      int newMeasurementsSize = measurementsSize;
+
+      // Merge the sorted new measurements into the sorted existing ones
+      int oldIndex = 0;
+      int newIndex = 0;
+      for (final String measurement : newMeasurements) {
+        while (oldIndex < measurements.length
+            && measurements[oldIndex].compareTo(measurement) < 0) {
+          newNames[newIndex] = measurements[oldIndex];
+          newKinds[newIndex] = kinds[oldIndex];
+          newTimes[newIndex] = times[oldIndex];
+          newValues[newIndex] = values[oldIndex];
+          if (Objects.nonNull(newBinaries)) {
+            newBinaries[newIndex] = binaries[oldIndex];
+          }
+          ++oldIndex;
+          ++newIndex;
+        }
+        newNames[newIndex] = measurement;
+        newKinds[newIndex] = PLACEHOLDER;
+        newTimes[newIndex] = Long.MIN_VALUE;
+        if (countMeasurementSize) {
+          newMeasurementsSize += (int) RamUsageEstimator.sizeOf(measurement);
+        }
+        ++newIndex;
+      }
+      final int remaining = measurements.length - oldIndex;
+      System.arraycopy(measurements, oldIndex, newNames, newIndex, remaining);
+      System.arraycopy(kinds, oldIndex, newKinds, newIndex, remaining);
+      System.arraycopy(times, oldIndex, newTimes, newIndex, remaining);
+      System.arraycopy(values, oldIndex, newValues, newIndex, remaining);
+      if (Objects.nonNull(newBinaries)) {
+        System.arraycopy(binaries, oldIndex, newBinaries, newIndex, remaining);
+      }
+      return new Columns(
+          newNames, newKinds, newTimes, newValues, newBinaries, newMeasurementsSize, binariesSize);
+    }
+
+    private Columns remove(final int index, final boolean countMeasurementSize) {
+      final int newLength = measurements.length - 1;
+      if (newLength == 0) {
+        return NO_COLUMNS;
+      }
+      return new Columns(
+          removeAt(measurements, index, new String[newLength], newLength),
+          removeAt(kinds, index, new byte[newLength], newLength),
+          removeAt(times, index, new long[newLength], newLength),
+          removeAt(values, index, new long[newLength], newLength),
+          Objects.nonNull(binaries)
+              ? removeAt(binaries, index, new Binary[newLength], newLength)
+              : null,
+          countMeasurementSize
+              ? measurementsSize - (int) RamUsageEstimator.sizeOf(measurements[index])
+              : measurementsSize,
+          kinds[index] == BINARY
+              ? binariesSize - (int) binaries[index].ramBytesUsed()
+              : binariesSize);
+    }
+
+    private static <T> T removeAt(
+        final T source, final int index, final T target, final int targetLength) {
+      System.arraycopy(source, 0, target, 0, index);
+      System.arraycopy(source, index + 1, target, index, targetLength - index);
+      return target;
     }
   }
 }
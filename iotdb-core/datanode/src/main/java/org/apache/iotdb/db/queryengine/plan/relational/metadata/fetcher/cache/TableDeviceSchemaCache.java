@@ -56,6 +56,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
@@ -100,6 +101,10 @@ public class TableDeviceSchemaCache {
 
   private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock(false);
 
+  // The dual key cache stats count the device entries, these count the last values
+  private final LongAdder lastCacheHitCount = new LongAdder();
+  private final LongAdder lastCacheRequestCount = new LongAdder();
+
   private TableDeviceSchemaCache() {
     dualKeyCache =
         new DualKeyCacheBuilder<TableId, IDeviceID, TableDeviceCacheEntry>()
@@ -281,7 +286,13 @@ public class TableDeviceSchemaCache {
       final @Nullable String database, final IDeviceID deviceId, final String measurement) {
     final TableDeviceCacheEntry entry =
         dualKeyCache.get(new TableId(database, deviceId.getTableName()), deviceId);
-    return Objects.nonNull(entry) ? entry.getTimeValuePair(measurement) : null;
+    final TimeValuePair result =
+        Objects.nonNull(entry) ? entry.getTimeValuePair(measurement) : null;
+    lastCacheRequestCount.increment();
+    if (Objects.nonNull(result)) {
+      lastCacheHitCount.increment();
+    }
+    return result;
   }
 
   /**
@@ -306,9 +317,15 @@ public class TableDeviceSchemaCache {
       final List<String> targetMeasurements) {
     final TableDeviceCacheEntry entry =
         dualKeyCache.get(new TableId(database, deviceId.getTableName()), deviceId);
-    return Objects.nonNull(entry)
-        ? entry.getLastRow(sourceMeasurement, targetMeasurements)
-        : Optional.empty();
+    final Optional<Pair<OptionalLong, TsPrimitiveType[]>> result =
+        Objects.nonNull(entry)
+            ? entry.getLastRow(sourceMeasurement, targetMeasurements)
+            : Optional.empty();
+    lastCacheRequestCount.increment();
+    if (result.isPresent()) {
+      lastCacheHitCount.increment();
+    }
+    return result;
   }
 
   /**
@@ -337,6 +354,60 @@ public class TableDeviceSchemaCache {
         false);
   }
 
+  /**
+   * Init or invalidate the last cache of a device when warming up the cache from TsFiles. This
+   * works like {@link #initOrInvalidateLastCache(String, IDeviceID, String[], boolean)} for both
+   * models, but the tree model device schema is not touched since the TsFiles do not carry it.
+   *
+   * @param database the device's database, without "root" for table model and WITH "root" for tree
+   *     model
+   * @param deviceId {@link IDeviceID}
+   * @param measurements the measurements read from the TsFile
+   * @param isInvalidate whether to init or invalidate the cache
+   */
+  public void initOrInvalidateLastCache4WarmUp(
+      final String database,
+      final IDeviceID deviceId,
+      final String[] measurements,
+      final boolean isInvalidate) {
+    if (PathUtils.isTableModelDatabase(database)) {
+      initOrInvalidateLastCache(database, deviceId, measurements, isInvalidate);
+      return;
+    }
+    dualKeyCache.update(
+        new TableId(null, deviceId.getTableName()),
+        deviceId,
+        new TableDeviceCacheEntry(),
+        entry ->
+            entry.initOrInvalidateLastCache(
+                database, deviceId.getTableName(), measurements, isInvalidate, false),
+        !isInvalidate);
+  }
+
+  /**
+   * Put the last values read from TsFiles after {@link #initOrInvalidateLastCache4WarmUp(String,
+   * IDeviceID, String[], boolean)}. Only the existing last caches of measurements are updated.
+   *
+   * @param database the device's database, without "root" for table model and WITH "root" for tree
+   *     model
+   * @param deviceId {@link IDeviceID}
+   * @param measurements the measurements read from the TsFile
+   * @param timeValuePairs the {@link TimeValuePair}s with indexes corresponding to the measurements
+   */
+  public void updateLastCache4WarmUp(
+      final String database,
+      final IDeviceID deviceId,
+      final String[] measurements,
+      final TimeValuePair[] timeValuePairs) {
+    dualKeyCache.update(
+        new TableId(
+            PathUtils.isTableModelDatabase(database) ? database : null, deviceId.getTableName()),
+        deviceId,
+        null,
+        entry -> entry.tryUpdateLastCache(measurements, timeValuePairs),
+        false);
+  }
+
   /////////////////////////////// Tree model ///////////////////////////////
 
   // Shall be accessed through "TreeDeviceSchemaCacheManager"
@@ -489,6 +560,19 @@ public class TableDeviceSchemaCache {
     return dualKeyCache.stats().requestCount();
   }
 
+  long getLastCacheHitCount() {
+    return lastCacheHitCount.sum();
+  }
+
+  long getLastCacheRequestCount() {
+    return lastCacheRequestCount.sum();
+  }
+
+  double getLastCacheHitRate() {
+    final long requestCount = lastCacheRequestCount.sum();
+    return requestCount == 0 ? 0 : (double) lastCacheHitCount.sum() / requestCount;
+  }
+
   void invalidateLastCache(final @Nonnull String database) {
     readWriteLock.writeLock().lock();
 
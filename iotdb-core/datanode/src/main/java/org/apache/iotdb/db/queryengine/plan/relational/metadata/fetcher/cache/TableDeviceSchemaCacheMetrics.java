@@ -29,6 +29,8 @@ import org.apache.iotdb.metrics.utils.MetricType;
 import java.util.Objects;
 
 public class TableDeviceSchemaCacheMetrics implements IMetricSet {
+  private static final String LAST_CACHE = "LastCache";
+
   private final TableDeviceSchemaCache tableDeviceSchemaCache;
 
   public TableDeviceSchemaCacheMetrics(final TableDeviceSchemaCache dataNodeSchemaCache) {
@@ -55,6 +57,31 @@ public class TableDeviceSchemaCacheMetrics implements IMetricSet {
         "SchemaCache",
         Tag.TYPE.toString(),
         "all");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        tableDeviceSchemaCache,
+        TableDeviceSchemaCache::getLastCacheHitCount,
+        Tag.NAME.toString(),
+        LAST_CACHE,
+        Tag.TYPE.toString(),
+        "hit");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        tableDeviceSchemaCache,
+        TableDeviceSchemaCache::getLastCacheRequestCount,
+        Tag.NAME.toString(),
+        LAST_CACHE,
+        Tag.TYPE.toString(),
+        "all");
+    metricService.createAutoGauge(
+        Metric.CACHE_HIT_RATE.toString(),
+        MetricLevel.IMPORTANT,
+        tableDeviceSchemaCache,
+        cache -> cache.getLastCacheHitRate() * 100.0d,
+        Tag.NAME.toString(),
+        LAST_CACHE);
   }
 
   @Override
@@ -73,6 +100,22 @@ public class TableDeviceSchemaCacheMetrics implements IMetricSet {
         "SchemaCache",
         Tag.TYPE.toString(),
         "all");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        LAST_CACHE,
+        Tag.TYPE.toString(),
+        "hit");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        LAST_CACHE,
+        Tag.TYPE.toString(),
+        "all");
+    metricService.remove(
+        MetricType.AUTO_GAUGE, Metric.CACHE_HIT_RATE.toString(), Tag.NAME.toString(), LAST_CACHE);
   }
 
   @Override
@@ -20,12 +20,15 @@
 package org.apache.iotdb.db.queryengine.plan.scheduler.load;
 
 import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.sync.SyncDataNodeInternalServiceClient;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.consensus.ConsensusGroupId;
 import org.apache.iotdb.commons.consensus.DataRegionId;
@@ -58,6 +61,7 @@ import org.apache.iotdb.db.queryengine.plan.scheduler.IScheduler;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.flush.MemTableFlushTask;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.PlainDeviceTimeIndex;
@@ -70,6 +74,7 @@ import org.apache.iotdb.db.storageengine.load.splitter.TsFileData;
 import org.apache.iotdb.db.storageengine.load.splitter.TsFileSplitter;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.mpp.rpc.thrift.TLoadCommandReq;
+import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 
 import io.airlift.units.Duration;
@@ -97,9 +102,12 @@ import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -125,6 +133,11 @@ public class LoadTsFileScheduler implements IScheduler {
 
   private static final Set<String> LOADING_FILE_SET = new HashSet<>();
 
+  // splits TsFiles by device ranges and dispatches the pieces of each range concurrently
+  private static final ExecutorService SPLITTER_EXECUTOR =
+      IoTDBThreadPoolFactory.newFixedThreadPool(
+          CONFIG.getLoadTsFileSplitMaxThreadNum(), ThreadName.LOAD_TSFILE_SPLITTER.getName());
+
   private final MPPQueryContext queryContext;
   private final QueryStateMachine stateMachine;
   private final LoadTsFileDispatcherImpl dispatcher;
@@ -148,7 +161,7 @@ public class LoadTsFileScheduler implements IScheduler {
     this.fragmentId = distributedQueryPlan.getRootSubPlan().getPlanFragment().getId();
     this.dispatcher = new LoadTsFileDispatcherImpl(internalServiceClientManager, isGeneratedByPipe);
     this.partitionFetcher = new DataPartitionBatchFetcher(partitionFetcher);
-    this.allReplicaSets = new HashSet<>();
+    this.allReplicaSets = ConcurrentHashMap.newKeySet();
     this.isGeneratedByPipe = isGeneratedByPipe;
     this.block = LoadTsFileMemoryManager.getInstance().allocateDataCacheMemoryBlock();
 
@@ -195,7 +208,10 @@ public class LoadTsFileScheduler implements IScheduler {
                       queryContext.getSession().getUserName()))) { // do not decode, load locally
             final long startTime = System.nanoTime();
             try {
-              isLoadSingleTsFileSuccess = loadLocally(node);
+              isLoadSingleTsFileSuccess =
+                  node.getRemoteRegionReplicaSet() == null
+                      ? loadLocally(node)
+                      : loadLocallyAndRemotely(node);
             } finally {
               LOAD_TSFILE_COST_METRICS_SET.recordPhaseTimeCost(
                   LoadTsFileCostMetricsSet.LOAD_LOCALLY, System.nanoTime() - startTime);
@@ -289,10 +305,137 @@ public class LoadTsFileScheduler implements IScheduler {
   }
 
   private boolean firstPhase(LoadSingleTsFileNode node) throws RegionReplicaSetChangedException {
-    final TsFileDataManager tsFileDataManager = new TsFileDataManager(this, node, block);
+    final int parallelism = CONFIG.getLoadTsFileSplitParallelism();
+    if (parallelism > 1) {
+      final List<Predicate<IDeviceID>> deviceRanges;
+      try {
+        deviceRanges =
+            TsFileSplitter.getDeviceRanges(node.getTsFileResource().getTsFile(), parallelism);
+      } catch (IOException e) {
+        stateMachine.transitionToFailed(e);
+        LOGGER.warn(
+            String.format("Read devices of TsFile %s error.", node.getTsFileResource().getTsFile()),
+            e);
+        return false;
+      }
+      if (deviceRanges.size() > 1) {
+        return firstPhaseInParallel(node, deviceRanges);
+      }
+    }
+    return firstPhase(
+        new TsFileDataManager(
+            this, node, block, 0, SINGLE_SCHEDULER_MAX_MEMORY_SIZE, new AtomicBoolean(false), null),
+        device -> true,
+        true);
+  }
+
+  /**
+   * Split the TsFile by device ranges in parallel. All the pieces are dispatched under the uuid of
+   * the TsFile, so that the second phase executes or rolls back them as a whole, while the pieces
+   * carry the index of their device range, so that the receivers write each range into different
+   * TsFiles. The memory of the pieces not dispatched is shared by the device ranges. The deletions
+   * of the TsFile are dispatched only once, after all the device ranges are dispatched.
+   */
+  private boolean firstPhaseInParallel(
+      LoadSingleTsFileNode node, List<Predicate<IDeviceID>> deviceRanges)
+      throws RegionReplicaSetChangedException {
+    final AtomicBoolean isAnyRangeFailed = new AtomicBoolean(false);
+    final List<Future<Boolean>> futures = new ArrayList<>(deviceRanges.size());
+    for (int i = 0; i < deviceRanges.size(); i++) {
+      final TsFileDataManager tsFileDataManager =
+          new TsFileDataManager(
+              this,
+              node,
+              block,
+              i,
+              SINGLE_SCHEDULER_MAX_MEMORY_SIZE / deviceRanges.size(),
+              isAnyRangeFailed,
+              null);
+      final Predicate<IDeviceID> deviceRange = deviceRanges.get(i);
+      futures.add(
+          SPLITTER_EXECUTOR.submit(
+              () -> {
+                try {
+                  if (firstPhase(tsFileDataManager, deviceRange, false)) {
+                    return true;
+                  }
+                } catch (RegionReplicaSetChangedException e) {
+                  isAnyRangeFailed.set(true);
+                  throw e;
+                }
+                isAnyRangeFailed.set(true);
+                return false;
+              }));
+    }
+
+    boolean isSuccess = true;
+    RegionReplicaSetChangedException regionReplicaSetChangedException = null;
+    for (Future<Boolean> future : futures) {
+      try {
+        isSuccess &= future.get();
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RegionReplicaSetChangedException) {
+          regionReplicaSetChangedException = (RegionReplicaSetChangedException) e.getCause();
+        } else {
+          stateMachine.transitionToFailed(e.getCause());
+          LOGGER.warn(
+              String.format("Parse or send TsFile %s error.", node.getTsFileResource().getTsFile()),
+              e.getCause());
+          isSuccess = false;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        isAnyRangeFailed.set(true);
+        stateMachine.transitionToFailed(e);
+        LOGGER.warn("Interrupted when waiting for splitting TsFile.", e);
+        isSuccess = false;
+      }
+    }
+    if (regionReplicaSetChangedException != null) {
+      throw regionReplicaSetChangedException;
+    }
+    return isSuccess && dispatchModifications(node);
+  }
+
+  /** Dispatch the deletions of the TsFile to all the replica sets receiving its pieces. */
+  private boolean dispatchModifications(LoadSingleTsFileNode node) {
+    final File tsFile = node.getTsFileResource().getTsFile();
+    if (!ModificationFile.getExclusiveMods(tsFile).exists()) {
+      return true;
+    }
+
+    final TsFileDataManager tsFileDataManager =
+        new TsFileDataManager(
+            this, node, block, 0, SINGLE_SCHEDULER_MAX_MEMORY_SIZE, new AtomicBoolean(false), null);
+    try {
+      tsFileDataManager.addReplicaSets(new ArrayList<>(allReplicaSets));
+      new TsFileSplitter(tsFile, tsFileDataManager::addOrSendTsFileData).splitModifications();
+      if (!tsFileDataManager.sendAllTsFileData()) {
+        stateMachine.transitionToFailed(new TSStatus(TSStatusCode.LOAD_FILE_ERROR.getStatusCode()));
+        return false;
+      }
+    } catch (Exception e) {
+      stateMachine.transitionToFailed(e);
+      LOGGER.warn(String.format("Send deletions of TsFile %s error.", tsFile), e);
+      return false;
+    } finally {
+      tsFileDataManager.clear();
+    }
+    return true;
+  }
+
+  private boolean firstPhase(
+      TsFileDataManager tsFileDataManager,
+      Predicate<IDeviceID> deviceRange,
+      boolean isModificationHandled)
+      throws RegionReplicaSetChangedException {
+    final LoadSingleTsFileNode node = tsFileDataManager.singleTsFileNode;
     try {
       new TsFileSplitter(
-              node.getTsFileResource().getTsFile(), tsFileDataManager::addOrSendTsFileData)
+              node.getTsFileResource().getTsFile(),
+              tsFileDataManager::addOrSendTsFileData,
+              deviceRange,
+              isModificationHandled)
           .splitTsFileByDataPartition();
       if (!tsFileDataManager.sendAllTsFileData()) {
         stateMachine.transitionToFailed(new TSStatus(TSStatusCode.LOAD_FILE_ERROR.getStatusCode()));
@@ -376,22 +519,45 @@ public class LoadTsFileScheduler implements IScheduler {
       stateMachine.transitionToFailed(e);
       return false;
     }
+    LOAD_TSFILE_COST_METRICS_SET.recordThroughput(
+        LoadTsFileCostMetricsSet.DISPATCH, pieceNode.getDataSize());
     return true;
   }
 
   private boolean secondPhase(
       boolean isFirstPhaseSuccess, String uuid, TsFileResource tsFileResource) {
+    final ByteBuffer progressIndex;
+    try {
+      progressIndex = assignProgressIndex(tsFileResource);
+    } catch (IOException e) {
+      LOGGER.warn(
+          "Serialize Progress Index error, isFirstPhaseSuccess: {}, uuid: {}, tsFile: {}",
+          isFirstPhaseSuccess,
+          uuid,
+          tsFileResource.getTsFile().getAbsolutePath());
+      stateMachine.transitionToFailed(e);
+      return false;
+    }
+    return secondPhase(
+        isFirstPhaseSuccess, uuid, allReplicaSets, tsFileResource.getTsFile(), progressIndex);
+  }
+
+  private boolean secondPhase(
+      boolean isFirstPhaseSuccess,
+      String uuid,
+      Set<TRegionReplicaSet> replicaSets,
+      File tsFile,
+      ByteBuffer progressIndex) {
     LOGGER.info("Start dispatching Load command for uuid {}", uuid);
-    final File tsFile = tsFileResource.getTsFile();
     final TLoadCommandReq loadCommandReq =
         new TLoadCommandReq(
             (isFirstPhaseSuccess ? LoadCommand.EXECUTE : LoadCommand.ROLLBACK).ordinal(), uuid);
 
     try {
       loadCommandReq.setIsGeneratedByPipe(isGeneratedByPipe);
-      loadCommandReq.setProgressIndex(assignProgressIndex(tsFileResource));
+      loadCommandReq.setProgressIndex(progressIndex);
       Future<FragInstanceDispatchResult> dispatchResultFuture =
-          dispatcher.dispatchCommand(loadCommandReq, allReplicaSets);
+          dispatcher.dispatchCommand(loadCommandReq, replicaSets);
 
       FragInstanceDispatchResult result = dispatchResultFuture.get();
       if (!result.isSuccessful()) {
@@ -401,7 +567,7 @@ public class LoadTsFileScheduler implements IScheduler {
                 + "Result status code {}. Result status message {}.",
             loadCommandReq,
             tsFile,
-            allReplicaSets,
+            replicaSets,
             TSStatusCode.representOf(result.getFailureStatus().getCode()).name(),
             result.getFailureStatus().getMessage());
         TSStatus status = result.getFailureStatus();
@@ -410,14 +576,6 @@ public class LoadTsFileScheduler implements IScheduler {
         stateMachine.transitionToFailed(status);
         return false;
       }
-    } catch (IOException e) {
-      LOGGER.warn(
-          "Serialize Progress Index error, isFirstPhaseSuccess: {}, uuid: {}, tsFile: {}",
-          isFirstPhaseSuccess,
-          uuid,
-          tsFile.getAbsolutePath());
-      stateMachine.transitionToFailed(e);
-      return false;
     } catch (InterruptedException | ExecutionException e) {
       if (e instanceof InterruptedException) {
         Thread.currentThread().interrupt();
@@ -431,7 +589,10 @@ public class LoadTsFileScheduler implements IScheduler {
 
   private ByteBuffer assignProgressIndex(TsFileResource tsFileResource) throws IOException {
     PipeDataNodeAgent.runtime().assignProgressIndexForTsFileLoad(tsFileResource);
+    return serializeProgressIndex(tsFileResource);
+  }
 
+  private ByteBuffer serializeProgressIndex(TsFileResource tsFileResource) throws IOException {
     try (final PublicBAOS byteArrayOutputStream = new PublicBAOS();
         final DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
       tsFileResource.getMaxProgressIndex().serialize(dataOutputStream);
@@ -439,6 +600,111 @@ public class LoadTsFileScheduler implements IScheduler {
     }
   }
 
+  /**
+   * Load a TsFile belonging to one time partition of a region with a replica on this DataNode as a
+   * two-phase load task. In the first phase, the other replicas receive the pieces of the TsFile
+   * and the local replica prepares to adopt the TsFile as it is. In the second phase, the local
+   * replica executes the task only after all the other replicas execute it, and rolls it back
+   * otherwise, so that the local replica never loads the TsFile alone.
+   */
+  private boolean loadLocallyAndRemotely(LoadSingleTsFileNode node) {
+    final String uuid = UUID.randomUUID().toString();
+    dispatcher.setUuid(uuid);
+    allReplicaSets.clear();
+
+    boolean isFirstPhaseSuccess;
+    try {
+      // the chunks do not need to be decoded because the TsFile belongs to one time partition
+      isFirstPhaseSuccess =
+          firstPhase(
+              new TsFileDataManager(
+                  this,
+                  node,
+                  block,
+                  0,
+                  SINGLE_SCHEDULER_MAX_MEMORY_SIZE,
+                  new AtomicBoolean(false),
+                  node.getRemoteRegionReplicaSet()),
+              device -> true,
+              true);
+    } catch (RegionReplicaSetChangedException e) {
+      stateMachine.transitionToFailed(e);
+      isFirstPhaseSuccess = false;
+    }
+    final boolean isPreparedLocally = isFirstPhaseSuccess && prepareLocally(node, uuid);
+
+    final File tsFile = node.getTsFileResource().getTsFile();
+    final Set<TRegionReplicaSet> localReplicaSets =
+        Collections.singleton(getLocalReplicaOfRegion(node));
+    ByteBuffer progressIndex = null;
+    if (isPreparedLocally) {
+      try {
+        progressIndex = assignProgressIndex(node.getTsFileResource());
+      } catch (IOException e) {
+        LOGGER.warn(
+            "Serialize Progress Index error, uuid: {}, tsFile: {}", uuid, tsFile.getAbsolutePath());
+        stateMachine.transitionToFailed(e);
+      }
+    }
+
+    if (progressIndex == null) {
+      secondPhase(false, uuid, allReplicaSets, tsFile, null);
+      if (isPreparedLocally) {
+        secondPhase(false, uuid, localReplicaSets, tsFile, null);
+      }
+      return false;
+    }
+    if (!secondPhase(true, uuid, allReplicaSets, tsFile, progressIndex.duplicate())) {
+      secondPhase(false, uuid, localReplicaSets, tsFile, null);
+      return false;
+    }
+    if (!secondPhase(true, uuid, localReplicaSets, tsFile, progressIndex.duplicate())) {
+      return false;
+    }
+    recordLoadLocallyMetrics(node);
+    return true;
+  }
+
+  /** The replica of the region of the TsFile on this DataNode. */
+  private TRegionReplicaSet getLocalReplicaOfRegion(LoadSingleTsFileNode node) {
+    final List<TDataNodeLocation> remoteDataNodeLocations =
+        node.getRemoteRegionReplicaSet().getDataNodeLocations();
+    return new TRegionReplicaSet(
+        node.getLocalRegionReplicaSet().getRegionId(),
+        node.getLocalRegionReplicaSet().getDataNodeLocations().stream()
+            .filter(location -> !remoteDataNodeLocations.contains(location))
+            .collect(Collectors.toList()));
+  }
+
+  private boolean prepareLocally(LoadSingleTsFileNode node, String uuid) {
+    LOGGER.info(
+        "Start preparing to load TsFile {} locally for uuid {}.",
+        node.getTsFileResource().getTsFile().getPath(),
+        uuid);
+    convertTimeIndexIfNecessary(node);
+
+    final TSStatus status =
+        StorageEngine.getInstance()
+            .prepareLoadTsFileAdoption(
+                (DataRegionId)
+                    ConsensusGroupId.Factory.createFromTConsensusGroupId(
+                        node.getLocalRegionReplicaSet().getRegionId()),
+                node.getTsFileResource(),
+                node.isDeleteAfterLoad(),
+                uuid);
+    if (!RpcUtils.SUCCESS_STATUS.equals(status)) {
+      LOGGER.warn(
+          "Prepare to load TsFile {} locally error. Result status code {}. "
+              + "Result status message {}.",
+          node.getTsFileResource().getTsFile(),
+          TSStatusCode.representOf(status.getCode()).name(),
+          status.getMessage());
+      stateMachine.transitionToFailed(status);
+      return false;
+    }
+    return true;
+  }
+
   private boolean loadLocally(LoadSingleTsFileNode node) throws IoTDBException {
     LOGGER.info("Start load TsFile {} locally.", node.getTsFileResource().getTsFile().getPath());
 
@@ -446,23 +712,7 @@ public class LoadTsFileScheduler implements IScheduler {
       throw new LoadReadOnlyException();
     }
 
-    // if the time index is PlainDeviceTimeIndex, convert it to ArrayDeviceTimeIndex
-    if (node.getTsFileResource().getTimeIndex() instanceof PlainDeviceTimeIndex) {
-      final PlainDeviceTimeIndex timeIndex =
-          (PlainDeviceTimeIndex) node.getTsFileResource().getTimeIndex();
-      final Map<IDeviceID, Integer> convertedDeviceToIndex = new ConcurrentHashMap<>();
-      for (final Map.Entry<IDeviceID, Integer> entry : timeIndex.getDeviceToIndex().entrySet()) {
-        convertedDeviceToIndex.put(
-            entry.getKey() instanceof StringArrayDeviceID
-                ? entry.getKey()
-                : new StringArrayDeviceID(entry.getKey().toString()),
-            entry.getValue());
-      }
-      node.getTsFileResource()
-          .setTimeIndex(
-              new ArrayDeviceTimeIndex(
-                  convertedDeviceToIndex, timeIndex.getStartTimes(), timeIndex.getEndTimes()));
-    }
+    convertTimeIndexIfNecessary(node);
 
     try {
       FragmentInstance instance =
@@ -487,7 +737,31 @@ public class LoadTsFileScheduler implements IScheduler {
       return false;
     }
 
-    // add metrics
+    recordLoadLocallyMetrics(node);
+    return true;
+  }
+
+  private void convertTimeIndexIfNecessary(LoadSingleTsFileNode node) {
+    // if the time index is PlainDeviceTimeIndex, convert it to ArrayDeviceTimeIndex
+    if (node.getTsFileResource().getTimeIndex() instanceof PlainDeviceTimeIndex) {
+      final PlainDeviceTimeIndex timeIndex =
+          (PlainDeviceTimeIndex) node.getTsFileResource().getTimeIndex();
+      final Map<IDeviceID, Integer> convertedDeviceToIndex = new ConcurrentHashMap<>();
+      for (final Map.Entry<IDeviceID, Integer> entry : timeIndex.getDeviceToIndex().entrySet()) {
+        convertedDeviceToIndex.put(
+            entry.getKey() instanceof StringArrayDeviceID
+                ? entry.getKey()
+                : new StringArrayDeviceID(entry.getKey().toString()),
+            entry.getValue());
+      }
+      node.getTsFileResource()
+          .setTimeIndex(
+              new ArrayDeviceTimeIndex(
+                  convertedDeviceToIndex, timeIndex.getStartTimes(), timeIndex.getEndTimes()));
+    }
+  }
+
+  private void recordLoadLocallyMetrics(LoadSingleTsFileNode node) {
     DataRegion dataRegion =
         StorageEngine.getInstance()
             .getDataRegion(
@@ -530,8 +804,6 @@ public class LoadTsFileScheduler implements IScheduler {
                       Tag.TYPE.toString(),
                       Metric.LOAD_POINT_COUNT.toString());
             });
-
-    return true;
   }
 
   @Override
@@ -557,6 +829,13 @@ public class LoadTsFileScheduler implements IScheduler {
   private static class TsFileDataManager {
     private final LoadTsFileScheduler scheduler;
     private final LoadSingleTsFileNode singleTsFileNode;
+    // the index of the device range split by this manager, carried by the pieces
+    private final int deviceRangeIndex;
+    private final long maxMemorySize;
+    // set once any of the managers splitting the same TsFile in parallel fails
+    private final AtomicBoolean isFailed;
+    // if not null, all pieces are sent to it instead of the replica sets of their partitions
+    private final TRegionReplicaSet targetReplicaSet;
 
     private long dataSize;
     private final Map<TConsensusGroupId, Pair<TRegionReplicaSet, LoadTsFilePieceNode>>
@@ -567,9 +846,17 @@ public class LoadTsFileScheduler implements IScheduler {
     public TsFileDataManager(
         LoadTsFileScheduler scheduler,
         LoadSingleTsFileNode singleTsFileNode,
-        LoadTsFileDataCacheMemoryBlock block) {
+        LoadTsFileDataCacheMemoryBlock block,
+        int deviceRangeIndex,
+        long maxMemorySize,
+        AtomicBoolean isFailed,
+        TRegionReplicaSet targetReplicaSet) {
       this.scheduler = scheduler;
       this.singleTsFileNode = singleTsFileNode;
+      this.deviceRangeIndex = deviceRangeIndex;
+      this.maxMemorySize = maxMemorySize;
+      this.isFailed = isFailed;
+      this.targetReplicaSet = targetReplicaSet;
       this.dataSize = 0;
       this.regionId2ReplicaSetAndNode = new HashMap<>();
       this.nonDirectionalChunkData = new ArrayList<>();
@@ -577,6 +864,9 @@ public class LoadTsFileScheduler implements IScheduler {
     }
 
     private boolean addOrSendTsFileData(TsFileData tsFileData) throws LoadFileException {
+      if (isFailed.get()) {
+        return false;
+      }
       switch (tsFileData.getType()) {
         case CHUNK:
           return addOrSendChunkData((ChunkData) tsFileData);
@@ -589,7 +879,7 @@ public class LoadTsFileScheduler implements IScheduler {
     }
 
     private boolean isMemoryEnough() {
-      return dataSize <= SINGLE_SCHEDULER_MAX_MEMORY_SIZE && block.hasEnoughMemory();
+      return dataSize <= maxMemorySize && block.hasEnoughMemory();
     }
 
     private boolean addOrSendChunkData(ChunkData chunkData) throws LoadFileException {
@@ -625,13 +915,7 @@ public class LoadTsFileScheduler implements IScheduler {
           block.reduceMemoryUsage(pieceNode.getDataSize());
           regionId2ReplicaSetAndNode.put(
               sortedRegionId,
-              new Pair<>(
-                  replicaSet,
-                  new LoadTsFilePieceNode(
-                      singleTsFileNode.getPlanNodeId(),
-                      singleTsFileNode
-                          .getTsFileResource()
-                          .getTsFile()))); // can not just remove, because of deletion
+              new Pair<>(replicaSet, newPieceNode())); // can not just remove, because of deletion
           if (isMemoryEnough()) {
             break;
           }
@@ -647,11 +931,13 @@ public class LoadTsFileScheduler implements IScheduler {
       }
 
       List<TRegionReplicaSet> replicaSets =
-          scheduler.partitionFetcher.queryDataPartition(
-              nonDirectionalChunkData.stream()
-                  .map(data -> new Pair<>(data.getDevice(), data.getTimePartitionSlot()))
-                  .collect(Collectors.toList()),
-              scheduler.queryContext.getSession().getUserName());
+          targetReplicaSet != null
+              ? Collections.nCopies(nonDirectionalChunkData.size(), targetReplicaSet)
+              : scheduler.partitionFetcher.queryDataPartition(
+                  nonDirectionalChunkData.stream()
+                      .map(data -> new Pair<>(data.getDevice(), data.getTimePartitionSlot()))
+                      .collect(Collectors.toList()),
+                  scheduler.queryContext.getSession().getUserName());
       for (int i = 0; i < replicaSets.size(); i++) {
         final TRegionReplicaSet replicaSet = replicaSets.get(i);
         final TConsensusGroupId regionId = replicaSet.getRegionId();
@@ -663,14 +949,7 @@ public class LoadTsFileScheduler implements IScheduler {
         }
 
         regionId2ReplicaSetAndNode
-            .computeIfAbsent(
-                replicaSet.getRegionId(),
-                o ->
-                    new Pair<>(
-                        replicaSet,
-                        new LoadTsFilePieceNode(
-                            singleTsFileNode.getPlanNodeId(),
-                            singleTsFileNode.getTsFileResource().getTsFile())))
+            .computeIfAbsent(replicaSet.getRegionId(), o -> new Pair<>(replicaSet, newPieceNode()))
             .getRight()
             .addTsFileData(nonDirectionalChunkData.get(i));
       }
@@ -707,6 +986,21 @@ public class LoadTsFileScheduler implements IScheduler {
       return true;
     }
 
+    private LoadTsFilePieceNode newPieceNode() {
+      return new LoadTsFilePieceNode(
+          singleTsFileNode.getPlanNodeId(),
+          singleTsFileNode.getTsFileResource().getTsFile(),
+          deviceRangeIndex);
+    }
+
+    /** Make the deletions added later sent to the replica sets as well. */
+    private void addReplicaSets(List<TRegionReplicaSet> replicaSets) {
+      for (TRegionReplicaSet replicaSet : replicaSets) {
+        regionId2ReplicaSetAndNode.computeIfAbsent(
+            replicaSet.getRegionId(), o -> new Pair<>(replicaSet, newPieceNode()));
+      }
+    }
+
     private void clear() {
       regionId2ReplicaSetAndNode.clear();
     }
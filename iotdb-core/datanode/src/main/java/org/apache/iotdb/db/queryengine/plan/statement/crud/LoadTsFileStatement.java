@@ -65,7 +65,17 @@ public class LoadTsFileStatement extends Statement {
   private final List<Long> writePointCountList;
 
   public LoadTsFileStatement(String filePath) throws FileNotFoundException {
-    this.file = new File(filePath);
+    this(new File(filePath), processTsFile(new File(filePath)));
+  }
+
+  /** Load the given TsFiles in the same directory by one statement. */
+  public LoadTsFileStatement(List<File> tsFiles) {
+    this(tsFiles.get(0).getParentFile(), new ArrayList<>(tsFiles));
+    sortTsFiles(this.tsFiles);
+  }
+
+  private LoadTsFileStatement(File file, List<File> tsFiles) {
+    this.file = file;
     this.databaseLevel = IoTDBDescriptor.getInstance().getConfig().getDefaultStorageGroupLevel();
     this.verifySchema = true;
     this.deleteAfterLoad = false;
@@ -74,7 +84,7 @@ public class LoadTsFileStatement extends Statement {
     this.writePointCountList = new ArrayList<>();
     this.statementType = StatementType.MULTI_BATCH_INSERT;
 
-    this.tsFiles = processTsFile(file);
+    this.tsFiles = tsFiles;
   }
 
   public static List<File> processTsFile(final File file) throws FileNotFoundException {
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.transformation.dag.builder;
 
 import org.apache.iotdb.db.queryengine.common.NodeRef;
 import org.apache.iotdb.db.queryengine.plan.expression.Expression;
+import org.apache.iotdb.db.queryengine.plan.expression.leaf.LeafOperand;
 import org.apache.iotdb.db.queryengine.plan.expression.visitor.IntermediateLayerVisitor;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.InputLocation;
 import org.apache.iotdb.db.queryengine.transformation.api.LayerReader;
@@ -31,7 +32,9 @@ import org.apache.iotdb.db.queryengine.transformation.dag.udf.UDTFContext;
 
 import org.apache.tsfile.enums.TSDataType;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -51,11 +54,15 @@ public class EvaluationDAGBuilder {
 
   private final LayerMemoryAssigner memoryAssigner;
 
+  // the group of each output expression. output expressions in different groups don't share any
+  // intermediate layer, so that they can be evaluated by different threads.
+  private final int[] outputGroupIds;
+
   // all result column expressions will be split into several sub-expressions, each expression has
   // its own result point reader. different result column expressions may have the same
   // sub-expressions, but they can share the same point reader. we cache the point reader here to
-  // make sure that only one point reader will be built for one expression.
-  private final Map<Expression, IntermediateLayer> expressionIntermediateLayerMap;
+  // make sure that only one point reader will be built for one expression in each group.
+  private final List<Map<Expression, IntermediateLayer>> expressionIntermediateLayerMaps;
 
   public EvaluationDAGBuilder(
       String queryId,
@@ -65,6 +72,31 @@ public class EvaluationDAGBuilder {
       Map<NodeRef<Expression>, TSDataType> expressionTypes,
       UDTFContext udtfContext,
       float memoryBudgetInMB) {
+    this(
+        queryId,
+        inputLayer,
+        inputLocations,
+        outputExpressions,
+        expressionTypes,
+        udtfContext,
+        memoryBudgetInMB,
+        false);
+  }
+
+  /**
+   * @param splitIndependentOutputs whether to build separated intermediate layers for the groups of
+   *     output expressions that don't share any non-leaf sub-expression
+   */
+  @SuppressWarnings("squid:S107")
+  public EvaluationDAGBuilder(
+      String queryId,
+      QueryDataSetInputLayer inputLayer,
+      Map<String, List<InputLocation>> inputLocations,
+      Expression[] outputExpressions,
+      Map<NodeRef<Expression>, TSDataType> expressionTypes,
+      UDTFContext udtfContext,
+      float memoryBudgetInMB,
+      boolean splitIndependentOutputs) {
     this.queryId = queryId;
     this.inputLayer = inputLayer;
     this.inputLocations = inputLocations;
@@ -74,14 +106,69 @@ public class EvaluationDAGBuilder {
 
     outputReaders = new LayerReader[outputExpressions.length];
 
-    memoryAssigner = new LayerMemoryAssigner(memoryBudgetInMB);
+    outputGroupIds =
+        splitIndependentOutputs
+            ? groupIndependentOutputExpressions(outputExpressions)
+            : new int[outputExpressions.length];
+    int groupCount = 1;
+    for (int groupId : outputGroupIds) {
+      groupCount = Math.max(groupCount, groupId + 1);
+    }
 
-    expressionIntermediateLayerMap = new HashMap<>();
+    memoryAssigner = new LayerMemoryAssigner(memoryBudgetInMB, groupCount);
+
+    expressionIntermediateLayerMaps = new ArrayList<>(groupCount);
+    for (int i = 0; i < groupCount; ++i) {
+      expressionIntermediateLayerMaps.add(new HashMap<>());
+    }
+  }
+
+  /**
+   * Output expressions sharing a non-leaf sub-expression also share the intermediate layer of it,
+   * so they are put into the same group. Leaf operands are read from the input layer, which can be
+   * read by different threads, so they don't make output expressions dependent.
+   *
+   * @return the group id of each output expression, groups are numbered from 0 in the order of
+   *     their first output expressions
+   */
+  public static int[] groupIndependentOutputExpressions(Expression[] outputExpressions) {
+    int[] parents = new int[outputExpressions.length];
+    Map<Expression, Integer> subExpressionOwners = new HashMap<>();
+    for (int i = 0; i < outputExpressions.length; ++i) {
+      parents[i] = i;
+      Iterator<Expression> iterator = outputExpressions[i].iterator();
+      while (iterator.hasNext()) {
+        Expression subExpression = iterator.next();
+        if (subExpression instanceof LeafOperand) {
+          continue;
+        }
+        Integer owner = subExpressionOwners.putIfAbsent(subExpression, i);
+        if (owner != null) {
+          parents[findRoot(parents, i)] = findRoot(parents, owner);
+        }
+      }
+    }
+
+    int[] groupIds = new int[outputExpressions.length];
+    Map<Integer, Integer> rootToGroupId = new HashMap<>();
+    for (int i = 0; i < outputExpressions.length; ++i) {
+      groupIds[i] = rootToGroupId.computeIfAbsent(findRoot(parents, i), k -> rootToGroupId.size());
+    }
+    return groupIds;
+  }
+
+  private static int findRoot(int[] parents, int index) {
+    while (parents[index] != index) {
+      parents[index] = parents[parents[index]];
+      index = parents[index];
+    }
+    return index;
   }
 
   public EvaluationDAGBuilder buildLayerMemoryAssigner() {
-    for (Expression expression : outputExpressions) {
-      expression.updateStatisticsForMemoryAssigner(memoryAssigner);
+    for (int i = 0; i < outputExpressions.length; ++i) {
+      memoryAssigner.selectGroup(outputGroupIds[i]);
+      outputExpressions[i].updateStatisticsForMemoryAssigner(memoryAssigner);
     }
     memoryAssigner.build();
     return this;
@@ -96,15 +183,16 @@ public class EvaluationDAGBuilder {
 
   public EvaluationDAGBuilder buildResultColumnPointReaders() {
     IntermediateLayerVisitor visitor = new IntermediateLayerVisitor();
-    IntermediateLayerVisitor.IntermediateLayerVisitorContext context =
-        new IntermediateLayerVisitor.IntermediateLayerVisitorContext(
-            queryId,
-            udtfContext,
-            inputLayer,
-            expressionIntermediateLayerMap,
-            expressionTypes,
-            memoryAssigner);
     for (int i = 0; i < outputExpressions.length; ++i) {
+      memoryAssigner.selectGroup(outputGroupIds[i]);
+      IntermediateLayerVisitor.IntermediateLayerVisitorContext context =
+          new IntermediateLayerVisitor.IntermediateLayerVisitorContext(
+              queryId,
+              udtfContext,
+              inputLayer,
+              expressionIntermediateLayerMaps.get(outputGroupIds[i]),
+              expressionTypes,
+              memoryAssigner);
       outputReaders[i] = visitor.process(outputExpressions[i], context).constructReader();
     }
     return this;
@@ -113,4 +201,8 @@ public class EvaluationDAGBuilder {
   public LayerReader[] getOutputReaders() {
     return outputReaders;
   }
+
+  public int[] getOutputGroupIds() {
+    return outputGroupIds;
+  }
 }
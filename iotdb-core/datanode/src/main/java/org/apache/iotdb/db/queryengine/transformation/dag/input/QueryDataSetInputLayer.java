@@ -30,6 +30,12 @@ import org.apache.iotdb.db.queryengine.transformation.datastructure.row.ElasticS
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.enums.TSDataType;
 
+/**
+ * The input layer may be read by the independent output columns of TransformOperator from different
+ * threads, so the accesses to the row list are synchronized on the layer. In that case, the child
+ * operator is only accessed by the driver thread through {@link #fetchFromChild()}, and the readers
+ * only read the rows already fetched.
+ */
 public class QueryDataSetInputLayer {
 
   private TsBlockInputDataSet queryDataSet;
@@ -38,6 +44,11 @@ public class QueryDataSetInputLayer {
   private ElasticSerializableRowList rowList;
   private SafetyLine safetyLine;
 
+  private boolean isFetchedByDriverOnly = false;
+  // set by a reader which has read all the fetched rows, reset once a block is fetched
+  private volatile boolean isWaitingForChild = false;
+  private volatile boolean hasNoMoreData = false;
+
   public QueryDataSetInputLayer(
       String queryId, float memoryBudgetInMB, TsBlockInputDataSet queryDataSet)
       throws QueryProcessException {
@@ -54,7 +65,32 @@ public class QueryDataSetInputLayer {
     safetyLine = new SafetyLine();
   }
 
-  public void updateRowRecordListEvictionUpperBound() {
+  /**
+   * Make the readers only read the rows fetched by {@link #fetchFromChild()}, which must be called
+   * by the driver thread when {@link #isWaitingForChild()} returns true.
+   */
+  public void setFetchedByDriverOnly(boolean isFetchedByDriverOnly) {
+    this.isFetchedByDriverOnly = isFetchedByDriverOnly;
+  }
+
+  public boolean isWaitingForChild() {
+    return isWaitingForChild;
+  }
+
+  /** Fetch the next block from the child operator, only called by the driver thread. */
+  public synchronized YieldableState fetchFromChild() throws Exception {
+    YieldableState yieldableState = queryDataSet.yield();
+    if (YieldableState.YIELDABLE.equals(yieldableState)) {
+      rowList.put(queryDataSet.currentBlock());
+      isWaitingForChild = false;
+    } else if (YieldableState.NOT_YIELDABLE_NO_MORE_DATA.equals(yieldableState)) {
+      hasNoMoreData = true;
+      isWaitingForChild = false;
+    }
+    return yieldableState;
+  }
+
+  public synchronized void updateRowRecordListEvictionUpperBound() {
     rowList.setEvictionUpperBound(safetyLine.getSafetyLine());
   }
 
@@ -87,6 +123,12 @@ public class QueryDataSetInputLayer {
         return YieldableState.YIELDABLE;
       }
 
+      synchronized (QueryDataSetInputLayer.this) {
+        return yieldFromRowList();
+      }
+    }
+
+    private YieldableState yieldFromRowList() throws Exception {
       // Cache columns from row record list
       if (iterator.hasNext()) {
         iterator.next();
@@ -95,6 +137,14 @@ public class QueryDataSetInputLayer {
         return YieldableState.YIELDABLE;
       }
 
+      if (isFetchedByDriverOnly) {
+        if (hasNoMoreData) {
+          return YieldableState.NOT_YIELDABLE_NO_MORE_DATA;
+        }
+        isWaitingForChild = true;
+        return YieldableState.NOT_YIELDABLE_WAITING_FOR_DATA;
+      }
+
       // Cache columns from child operator
       YieldableState yieldableState = queryDataSet.yield();
       if (YieldableState.YIELDABLE.equals(yieldableState)) {
@@ -110,7 +160,9 @@ public class QueryDataSetInputLayer {
     @Override
     public void consumedAll() {
       int steps = cachedColumns[0].getPositionCount() - cacheConsumed;
-      safetyPile.moveForward(steps);
+      synchronized (QueryDataSetInputLayer.this) {
+        safetyPile.moveForward(steps);
+      }
 
       cacheConsumed = 0;
       cachedColumns = null;
@@ -23,21 +23,38 @@ import org.apache.iotdb.db.queryengine.plan.expression.Expression;
 import org.apache.iotdb.db.queryengine.plan.expression.leaf.ConstantOperand;
 import org.apache.iotdb.db.queryengine.plan.expression.multi.FunctionExpression;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 public class LayerMemoryAssigner {
 
   private final float memoryBudgetInMB;
 
-  private final Map<Expression, Integer> expressionReferenceCount;
+  // layers are not shared between the groups of independent output expressions, so the references
+  // are counted in each group separately
+  private final List<Map<Expression, Integer>> groupExpressionReferenceCounts;
+  private Map<Expression, Integer> expressionReferenceCount;
 
   private float memoryBudgetForSingleReference;
 
   public LayerMemoryAssigner(float memoryBudgetInMB) {
-    expressionReferenceCount = new HashMap<>();
+    this(memoryBudgetInMB, 1);
+  }
+
+  public LayerMemoryAssigner(float memoryBudgetInMB, int groupCount) {
     this.memoryBudgetInMB = memoryBudgetInMB;
+    groupExpressionReferenceCounts = new ArrayList<>(groupCount);
+    for (int i = 0; i < groupCount; ++i) {
+      groupExpressionReferenceCounts.add(new HashMap<>());
+    }
+    selectGroup(0);
+  }
+
+  /** The following references are counted in and looked up from the given group. */
+  public void selectGroup(int group) {
+    expressionReferenceCount = groupExpressionReferenceCounts.get(group);
   }
 
   public void increaseExpressionReference(Expression expression) {
@@ -50,13 +67,13 @@ public class LayerMemoryAssigner {
 
   public void build() {
     int memoryPartitions = 0;
-    for (Entry<Expression, Integer> expressionReferenceEntry :
-        expressionReferenceCount.entrySet()) {
-      Expression expression = expressionReferenceEntry.getKey();
-      if (expression instanceof FunctionExpression) {
-        memoryPartitions += 2;
-      } else if (!(expression instanceof ConstantOperand)) {
-        memoryPartitions += 1;
+    for (Map<Expression, Integer> referenceCount : groupExpressionReferenceCounts) {
+      for (Expression expression : referenceCount.keySet()) {
+        if (expression instanceof FunctionExpression) {
+          memoryPartitions += 2;
+        } else if (!(expression instanceof ConstantOperand)) {
+          memoryPartitions += 1;
+        }
       }
     }
     memoryBudgetForSingleReference =
@@ -1246,6 +1246,9 @@ public class DataNode extends ServerCommandLine implements DataNodeMBean {
     if (PipeConfig.getInstance().getPipeAirGapReceiverEnabled()) {
       registerManager.register(PipeDataNodeAgent.receiver().airGap());
     }
+    if (PipeConfig.getInstance().getPipeFileStreamReceiverEnabled()) {
+      registerManager.register(PipeDataNodeAgent.receiver().fileStream());
+    }
   }
 
   private void stopTriggerRelatedServices() {
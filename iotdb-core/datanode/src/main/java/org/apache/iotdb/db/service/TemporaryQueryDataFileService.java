@@ -32,10 +32,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class TemporaryQueryDataFileService implements IService {
@@ -59,10 +59,8 @@ public class TemporaryQueryDataFileService implements IService {
 
   public String register(SerializationRecorder recorder) throws IOException {
     String queryId = recorder.getQueryId();
-    if (!recorders.containsKey(queryId)) {
-      recorders.put(queryId, new ArrayList<>());
-    }
-    recorders.get(queryId).add(recorder);
+    // independent output columns of one query may be evaluated by different threads
+    recorders.computeIfAbsent(queryId, k -> new CopyOnWriteArrayList<>()).add(recorder);
 
     String dirName = getDirName(queryId);
     makeDirIfNecessary(dirName);
@@ -253,6 +253,8 @@ public class CompactionMetrics implements IMetricSet {
   private Counter totalDirectlyFlushChunkCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   private Counter totalDeserializedChunkCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   private Counter totalMergedChunkCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter totalDirectlyFlushDataSizeCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter totalRewriteDataSizeCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
   private void bindPerformanceInfo(AbstractMetricService metricService) {
     totalCompactedPointCounter =
@@ -270,6 +272,12 @@ public class CompactionMetrics implements IMetricSet {
     totalMergedChunkCounter =
         metricService.getOrCreateCounter(
             "merged_chunk_num", MetricLevel.NORMAL, Tag.NAME.toString(), "compaction");
+    totalDirectlyFlushDataSizeCounter =
+        metricService.getOrCreateCounter(
+            "directly_flush_data_size", MetricLevel.NORMAL, Tag.NAME.toString(), "compaction");
+    totalRewriteDataSizeCounter =
+        metricService.getOrCreateCounter(
+            "rewrite_data_size", MetricLevel.NORMAL, Tag.NAME.toString(), "compaction");
   }
 
   private void unbindPerformanceInfo(AbstractMetricService metricService) {
@@ -282,6 +290,10 @@ public class CompactionMetrics implements IMetricSet {
     metricService.remove(
         MetricType.COUNTER, "deserialized_chunk_num", Tag.NAME.toString(), "compaction");
     metricService.remove(MetricType.COUNTER, "merged_chunk_num", Tag.NAME.toString(), "compaction");
+    metricService.remove(
+        MetricType.COUNTER, "directly_flush_data_size", Tag.NAME.toString(), "compaction");
+    metricService.remove(
+        MetricType.COUNTER, "rewrite_data_size", Tag.NAME.toString(), "compaction");
   }
 
   public void recordSummaryInfo(CompactionTaskSummary summary) {
@@ -290,6 +302,8 @@ public class CompactionMetrics implements IMetricSet {
     totalDirectlyFlushChunkCounter.inc(summary.getDirectlyFlushChunkNum());
     totalDeserializedChunkCounter.inc(summary.getDeserializeChunkCount());
     totalMergedChunkCounter.inc(summary.getMergedChunkNum());
+    totalDirectlyFlushDataSizeCounter.inc(summary.getDirectlyFlushDataSize());
+    totalRewriteDataSizeCounter.inc(summary.getRewriteDataSize());
   }
 
   // endregion
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.service.metrics;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionThrottleController;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Objects;
+
+public class CompactionThrottleMetrics implements IMetricSet {
+
+  private static final String THROTTLE_RATIO = "throttle_ratio";
+  private static final String ACTIVE_WORKER_NUM = "active_worker_num";
+  private static final String QUERY_LATENCY_P99 = "query_latency_p99";
+  private static final String DISK_UTIL = "disk_util";
+
+  private final CompactionThrottleController controller;
+
+  public CompactionThrottleMetrics(CompactionThrottleController controller) {
+    this.controller = controller;
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROTTLE.toString(),
+        MetricLevel.IMPORTANT,
+        controller,
+        CompactionThrottleController::getThrottleRatio,
+        Tag.NAME.toString(),
+        THROTTLE_RATIO);
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROTTLE.toString(),
+        MetricLevel.IMPORTANT,
+        CompactionTaskManager.getInstance(),
+        CompactionTaskManager::getActiveCompactionWorkerNum,
+        Tag.NAME.toString(),
+        ACTIVE_WORKER_NUM);
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROTTLE.toString(),
+        MetricLevel.IMPORTANT,
+        controller,
+        CompactionThrottleController::getLastQueryLatencyP99InMs,
+        Tag.NAME.toString(),
+        QUERY_LATENCY_P99);
+    metricService.createAutoGauge(
+        Metric.COMPACTION_THROTTLE.toString(),
+        MetricLevel.IMPORTANT,
+        controller,
+        CompactionThrottleController::getLastMaxDiskUtil,
+        Tag.NAME.toString(),
+        DISK_UTIL);
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    for (String name :
+        new String[] {THROTTLE_RATIO, ACTIVE_WORKER_NUM, QUERY_LATENCY_P99, DISK_UTIL}) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE, Metric.COMPACTION_THROTTLE.toString(), Tag.NAME.toString(), name);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    CompactionThrottleMetrics that = (CompactionThrottleMetrics) o;
+    return Objects.equals(controller, that.controller);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(controller);
+  }
+}
@@ -66,6 +66,7 @@ public class DataNodeMetricsHelper {
     metricService.addMetricSet(new LogbackMetrics());
     metricService.addMetricSet(FileMetrics.getInstance());
     metricService.addMetricSet(CompactionMetrics.getInstance());
+    metricService.addMetricSet(DirectIOMetrics.getInstance());
     metricService.addMetricSet(new ProcessMetrics());
     metricService.addMetricSet(new DiskMetrics(IoTDBConstant.DN_ROLE));
     metricService.addMetricSet(new NetMetrics(IoTDBConstant.DN_ROLE));
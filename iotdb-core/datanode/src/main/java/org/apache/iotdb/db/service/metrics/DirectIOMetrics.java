@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.service.metrics;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics of the files read and written bypassing the page cache. The bytes of direct I/O show how
+ * much background I/O no longer evicts the page cache used by queries, and the fallback count shows
+ * how many files are still accessed by buffered I/O because direct I/O is not supported.
+ */
+public class DirectIOMetrics implements IMetricSet {
+  public static final String COMPACTION = "compaction";
+  public static final String LOAD = "load";
+  private static final List<String> MODULES = Arrays.asList(COMPACTION, LOAD);
+
+  private static final String READ = "read";
+  private static final String WRITE = "write";
+  private static final String FALLBACK = "fallback";
+
+  private static final DirectIOMetrics INSTANCE = new DirectIOMetrics();
+
+  // module -> Counter[ read size, write size, fallback file num ]
+  private final Map<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+  private DirectIOMetrics() {
+    for (String module : MODULES) {
+      counters.put(
+          module,
+          new Counter[] {
+            DoNothingMetricManager.DO_NOTHING_COUNTER,
+            DoNothingMetricManager.DO_NOTHING_COUNTER,
+            DoNothingMetricManager.DO_NOTHING_COUNTER
+          });
+    }
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    for (String module : MODULES) {
+      counters.put(
+          module,
+          new Counter[] {
+            metricService.getOrCreateCounter(
+                Metric.DIRECT_IO.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.NAME.toString(),
+                module,
+                Tag.TYPE.toString(),
+                READ),
+            metricService.getOrCreateCounter(
+                Metric.DIRECT_IO.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.NAME.toString(),
+                module,
+                Tag.TYPE.toString(),
+                WRITE),
+            metricService.getOrCreateCounter(
+                Metric.DIRECT_IO.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.NAME.toString(),
+                module,
+                Tag.TYPE.toString(),
+                FALLBACK)
+          });
+    }
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    for (String module : MODULES) {
+      for (String type : new String[] {READ, WRITE, FALLBACK}) {
+        metricService.remove(
+            MetricType.COUNTER,
+            Metric.DIRECT_IO.toString(),
+            Tag.NAME.toString(),
+            module,
+            Tag.TYPE.toString(),
+            type);
+      }
+    }
+  }
+
+  public void recordReadSize(String module, long byteNum) {
+    counters.get(module)[0].inc(byteNum);
+  }
+
+  public void recordWriteSize(String module, long byteNum) {
+    counters.get(module)[1].inc(byteNum);
+  }
+
+  public void recordFallback(String module) {
+    counters.get(module)[2].inc();
+  }
+
+  public static DirectIOMetrics getInstance() {
+    return INSTANCE;
+  }
+}
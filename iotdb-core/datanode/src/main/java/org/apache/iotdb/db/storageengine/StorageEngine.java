@@ -69,6 +69,8 @@ import org.apache.iotdb.db.storageengine.dataregion.flush.CloseFileListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy.DirectFlushPolicy;
+import org.apache.iotdb.db.storageengine.dataregion.read.lastcache.LastCacheWarmUpTask;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.recover.WALRecoverManager;
@@ -217,6 +219,10 @@ public class StorageEngine implements IService {
               LOGGER.info(
                   "Storage Engine recover cost: {}s.",
                   (System.currentTimeMillis() - startRecoverTime) / 1000);
+              if (CommonDescriptor.getInstance().getConfig().isLastCacheEnable()
+                  && CONFIG.isEnableLastCacheWarmUp()) {
+                cachedThreadPool.submit(new LastCacheWarmUpTask(getAllDataRegions()));
+              }
             },
             ThreadName.STORAGE_ENGINE_RECOVER_TRIGGER.getName());
     recoverEndTrigger.start();
@@ -928,6 +934,36 @@ public class StorageEngine implements IService {
     return RpcUtils.SUCCESS_STATUS;
   }
 
+  public TSStatus prepareLoadTsFileAdoption(
+      DataRegionId dataRegionId,
+      TsFileResource tsFileResource,
+      boolean isDeleteAfterLoad,
+      String uuid) {
+    TSStatus status = new TSStatus();
+
+    if (CommonDescriptor.getInstance().getConfig().isReadOnly()) {
+      status.setCode(TSStatusCode.SYSTEM_READ_ONLY.getStatusCode());
+      status.setMessage(LoadReadOnlyException.MESSAGE);
+      return status;
+    }
+
+    try {
+      loadTsFileManager.prepareTsFileAdoption(
+          getDataRegion(dataRegionId), tsFileResource, isDeleteAfterLoad, uuid);
+    } catch (IOException e) {
+      LOGGER.error(
+          "IO error when preparing to adopt TsFile {} by DataRegion {}.",
+          tsFileResource.getTsFile(),
+          dataRegionId,
+          e);
+      status.setCode(TSStatusCode.LOAD_FILE_ERROR.getStatusCode());
+      status.setMessage(e.getMessage());
+      return status;
+    }
+
+    return RpcUtils.SUCCESS_STATUS;
+  }
+
   public TSStatus executeLoadCommand(
       LoadTsFileScheduler.LoadCommand loadCommand,
       String uuid,
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.path.PatternTreeMap;
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.metric.ModificationCacheMetrics;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
+import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory.ModsSerializer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class caches the parsed modifications of TsFiles in a DataNode, so that queries and
+ * compactions do not read and parse the same mods files again and again after a large deletion. An
+ * entry is tagged with the lengths of the exclusive and the shared mods files it is parsed from,
+ * once any of them is appended to or the shared one is replaced, the entry is reloaded on the next
+ * access. Entries of removed TsFiles are invalidated explicitly. The caching strategy is LRU.
+ */
+@SuppressWarnings("squid:S6548")
+public class ModificationCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ModificationCache.class);
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MEMORY_THRESHOLD_IN_MODIFICATION_CACHE =
+      CONFIG.getModificationCacheSizeInBytes();
+  private static final boolean CACHE_ENABLE = MEMORY_THRESHOLD_IN_MODIFICATION_CACHE > 0;
+
+  private final Cache<TsFileID, CachedModifications> lruCache;
+
+  // caffeine counts a stale entry as a hit, so the hits are counted here
+  private final LongAdder requestCount = new LongAdder();
+  private final LongAdder hitCount = new LongAdder();
+
+  private ModificationCache() {
+    if (CACHE_ENABLE) {
+      LOGGER.info("ModificationCache size = {}", MEMORY_THRESHOLD_IN_MODIFICATION_CACHE);
+    }
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(Math.max(MEMORY_THRESHOLD_IN_MODIFICATION_CACHE, 0))
+            .weigher(
+                (Weigher<TsFileID, CachedModifications>)
+                    (key, modifications) ->
+                        (int) Math.min(Integer.MAX_VALUE, modifications.getRetainedSizeInBytes()))
+            .build();
+
+    // add metrics
+    MetricService.getInstance().addMetricSet(new ModificationCacheMetrics(this));
+  }
+
+  public static ModificationCache getInstance() {
+    return ModificationCacheHolder.INSTANCE;
+  }
+
+  /**
+   * Get the parsed modifications of the TsFile. The result is shared by all callers and must not be
+   * modified, use {@link CachedModifications#copyModificationTree()} to get a modifiable tree.
+   */
+  public CachedModifications get(TsFileResource resource) {
+    ModsVersion version = ModsVersion.of(resource);
+    if (!CACHE_ENABLE) {
+      return load(resource, version);
+    }
+
+    requestCount.increment();
+    TsFileID tsFileID = resource.getTsFileID();
+    CachedModifications modifications = lruCache.getIfPresent(tsFileID);
+    if (modifications != null && modifications.version.equals(version)) {
+      hitCount.increment();
+      return modifications;
+    }
+    // loading the same file by concurrent callers is done only once
+    return lruCache
+        .asMap()
+        .compute(
+            tsFileID,
+            (k, cached) ->
+                cached != null && cached.version.equals(version)
+                    ? cached
+                    : load(resource, version));
+  }
+
+  private static CachedModifications load(TsFileResource resource, ModsVersion version) {
+    return new CachedModifications(version, resource.getAllModEntries());
+  }
+
+  /** Invalidate the modifications of a TsFile whose mods files are removed. */
+  public void invalidate(TsFileID tsFileID) {
+    if (CACHE_ENABLE) {
+      lruCache.invalidate(tsFileID);
+    }
+  }
+
+  public double getHitRate() {
+    long requests = requestCount.sum();
+    return requests == 0 ? 0 : hitCount.sum() * 100.0d / requests;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  @TestOnly
+  public CachedModifications getIfPresent(TsFileID tsFileID) {
+    return lruCache.getIfPresent(tsFileID);
+  }
+
+  public static class CachedModifications {
+
+    private static final long INSTANCE_SIZE =
+        RamUsageEstimator.shallowSizeOfInstance(CachedModifications.class);
+    // each entry is referenced by the list and by a set in a node of the pattern tree, the nodes of
+    // the tree are shared by entries of the same path and are not counted
+    private static final long ENTRY_OVERHEAD =
+        RamUsageEstimator.NUM_BYTES_OBJECT_REF + RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY;
+
+    // the mods files when the modifications are parsed
+    private final ModsVersion version;
+    private final List<ModEntry> modEntries;
+    private final PatternTreeMap<ModEntry, ModsSerializer> modificationTree;
+    private final long retainedSizeInBytes;
+
+    private CachedModifications(ModsVersion version, Collection<ModEntry> modEntries) {
+      this.version = version;
+      this.modEntries = Collections.unmodifiableList(new ArrayList<>(modEntries));
+      this.modificationTree = PatternTreeMapFactory.getModsPatternTreeMap();
+      long size = INSTANCE_SIZE;
+      for (ModEntry modEntry : modEntries) {
+        modificationTree.append(modEntry.keyOfPatternTree(), modEntry);
+        size += modEntry.serializedSize() + ENTRY_OVERHEAD;
+      }
+      this.retainedSizeInBytes = size;
+    }
+
+    public List<ModEntry> getModEntries() {
+      return modEntries;
+    }
+
+    /** The tree is shared by all callers, so it must be used read-only. */
+    public PatternTreeMap<ModEntry, ModsSerializer> getModificationTree() {
+      return modificationTree;
+    }
+
+    public PatternTreeMap<ModEntry, ModsSerializer> copyModificationTree() {
+      PatternTreeMap<ModEntry, ModsSerializer> copy = PatternTreeMapFactory.getModsPatternTreeMap();
+      for (ModEntry modEntry : modEntries) {
+        copy.append(modEntry.keyOfPatternTree(), modEntry);
+      }
+      return copy;
+    }
+
+    public boolean isEmpty() {
+      return modEntries.isEmpty();
+    }
+
+    public long getRetainedSizeInBytes() {
+      return retainedSizeInBytes;
+    }
+  }
+
+  /**
+   * The exclusive and the shared mods files are versioned separately, so that an append to one of
+   * them is never hidden by the other one shrinking, e.g. when it is settled, and a shared mods
+   * file replaced by another one of the same length is noticed.
+   */
+  private static class ModsVersion {
+
+    private final long exclusiveModsLength;
+    // null if the TsFile has no shared mods file
+    private final File sharedModsFile;
+    private final long sharedModsLength;
+
+    private ModsVersion(long exclusiveModsLength, File sharedModsFile, long sharedModsLength) {
+      this.exclusiveModsLength = exclusiveModsLength;
+      this.sharedModsFile = sharedModsFile;
+      this.sharedModsLength = sharedModsLength;
+    }
+
+    private static ModsVersion of(TsFileResource resource) {
+      ModificationFile sharedModFile = resource.getSharedModFile();
+      return new ModsVersion(
+          resource.getExclusiveModFile().getFileLength(),
+          sharedModFile == null ? null : sharedModFile.getFile(),
+          sharedModFile == null ? 0 : sharedModFile.getFileLength());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ModsVersion)) {
+        return false;
+      }
+      ModsVersion that = (ModsVersion) o;
+      return exclusiveModsLength == that.exclusiveModsLength
+          && sharedModsLength == that.sharedModsLength
+          && Objects.equals(sharedModsFile, that.sharedModsFile);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(exclusiveModsLength, sharedModsFile, sharedModsLength);
+    }
+  }
+
+  /** singleton pattern. */
+  private static class ModificationCacheHolder {
+    private static final ModificationCache INSTANCE = new ModificationCache();
+  }
+}
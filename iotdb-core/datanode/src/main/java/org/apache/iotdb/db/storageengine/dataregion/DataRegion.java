@@ -53,6 +53,7 @@ import org.apache.iotdb.db.pipe.consensus.deletion.DeletionResource;
 import org.apache.iotdb.db.pipe.consensus.deletion.DeletionResource.Status;
 import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.listener.PipeInsertionDataNodeListener;
 import org.apache.iotdb.db.queryengine.common.DeviceContext;
+import org.apache.iotdb.db.queryengine.execution.cq.CQWriteTimeTracker;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.QueryResourceMetricSet;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
@@ -2965,6 +2966,9 @@ public class DataRegion implements IDataRegionForQuery {
                 false);
       }
 
+      CQWriteTimeTracker.getInstance()
+          .recordWrite(databaseName, newTsFileResource.getFileStartTime());
+
       logger.info("TsFile {} is successfully loaded in unsequence list.", newFileName);
     } catch (final DiskSpaceInsufficientException e) {
       logger.error(
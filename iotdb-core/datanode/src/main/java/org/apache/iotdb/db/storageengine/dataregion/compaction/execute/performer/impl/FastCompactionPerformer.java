@@ -21,10 +21,14 @@ package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performe
 
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.path.PatternTreeMap;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionLastTimeCheckFailedException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionMemoryNotEnoughException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.IllegalCompactionTaskSummaryException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.ICrossCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.ISeqCompactionPerformer;
@@ -36,11 +40,14 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.Com
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.MultiTsFileDeviceIterator;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.AbstractInnerCompactionWriter;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.FastCrossCompactionWriter;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.FastDeviceBufferCompactionWriter;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.FastInnerCompactionWriter;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
 
 import org.apache.tsfile.exception.StopReadTsFileByInterruptException;
@@ -55,9 +62,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -89,8 +99,21 @@ public class FastCompactionPerformer
   private Map<String, PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer>>
       modificationCache = new ConcurrentHashMap<>();
 
+  // tsFile name -> modifications shared with ModificationCache, which are copied into
+  // modificationCache before ttl deletions are appended to them. When devices are compacted in
+  // parallel, the trees in modificationCache may be read by the sub tasks of other devices, so the
+  // ttl deletion of a device is appended to a per-device copy instead
+  private Map<String, ModificationCache.CachedModifications> sharedModifications = new HashMap<>();
+
+  // aligned devices which are compacted into memory by sub tasks and not written to the target file
+  // yet, in the order of devices
+  private final Deque<BufferedDevice> bufferedDevices = new ArrayDeque<>();
+
   private final boolean isCrossCompaction;
 
+  private final int deviceParallelism =
+      IoTDBDescriptor.getInstance().getConfig().getCompactionDeviceParallelism();
+
   public FastCompactionPerformer(
       List<TsFileResource> seqFiles,
       List<TsFileResource> unseqFiles,
@@ -124,54 +147,11 @@ public class FastCompactionPerformer
       compactionWriter.setSchemaForAllTargetFile(schemas);
       readModification(seqFiles);
       readModification(unseqFiles);
-      while (deviceIterator.hasNextDevice()) {
-        checkThreadInterrupted();
-        Pair<IDeviceID, Boolean> deviceInfo = deviceIterator.nextDevice();
-        IDeviceID device = deviceInfo.left;
-        boolean isAligned = deviceInfo.right;
-        // sort the resources by the start time of current device from old to new, and remove
-        // resource that does not contain the current device. Notice: when the level of time index
-        // is file, there will be a false positive judgment problem, that is, the device does not
-        // actually exist but the judgment return device being existed.
-        sortedSourceFiles.addAll(seqFiles);
-        sortedSourceFiles.addAll(unseqFiles);
-        boolean isTreeModel = !isAligned || device.getTableName().startsWith("root.");
-        long ttl = deviceIterator.getTTLForCurrentDevice();
-        sortedSourceFiles.removeIf(
-            x -> x.definitelyNotContains(device) || !x.isDeviceAlive(device, ttl));
-        sortedSourceFiles.sort(Comparator.comparingLong(x -> x.getStartTime(device)));
-        if (ttl != Long.MAX_VALUE) {
-          ModEntry ttlDeletion =
-              CompactionUtils.convertTtlToDeletion(
-                  device, deviceIterator.getTimeLowerBoundForCurrentDevice());
-          for (TsFileResource sourceFile : sortedSourceFiles) {
-            modificationCache
-                .computeIfAbsent(
-                    sourceFile.getTsFile().getName(),
-                    k -> PatternTreeMapFactory.getModsPatternTreeMap())
-                .append(ttlDeletion.keyOfPatternTree(), ttlDeletion);
-          }
-        }
-
-        if (sortedSourceFiles.isEmpty()) {
-          // device is out of dated in all source files
-          continue;
-        }
-
-        compactionWriter.startChunkGroup(device, isAligned);
-
-        if (isAligned) {
-          compactAlignedSeries(device, deviceIterator, compactionWriter, isTreeModel);
-        } else {
-          compactNonAlignedSeries(device, deviceIterator, compactionWriter);
-        }
-
-        compactionWriter.endChunkGroup();
-        // check whether to flush chunk metadata or not
-        compactionWriter.checkAndMayFlushChunkMetadata();
-        // Add temp file metrics
-        subTaskSummary.setTemporaryFileSize(compactionWriter.getWriterSize());
-        sortedSourceFiles.clear();
+      try {
+        compactDevices(deviceIterator, compactionWriter);
+      } finally {
+        // stop the sub tasks of buffered devices before the readers and the writer are closed
+        abortBufferedDevices();
       }
       compactionWriter.endFile();
       CompactionUtils.updatePlanIndexes(targetFiles, seqFiles, unseqFiles);
@@ -181,21 +161,99 @@ public class FastCompactionPerformer
       sortedSourceFiles = null;
       readerCacheMap = null;
       modificationCache = null;
+      sharedModifications = null;
     }
   }
 
-  private void compactAlignedSeries(
-      IDeviceID deviceId,
-      MultiTsFileDeviceIterator deviceIterator,
-      AbstractCompactionWriter fastCrossCompactionWriter,
-      boolean ignoreAllNullRows)
-      throws PageException, IOException, WriteProcessException, IllegalPathException {
-    // measurement -> tsfile resource -> timeseries metadata <startOffset, endOffset>, including
-    // empty value chunk metadata
-    Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap =
-        new LinkedHashMap<>();
-    List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
+  private void compactDevices(
+      MultiTsFileDeviceIterator deviceIterator, AbstractCompactionWriter compactionWriter)
+      throws Exception {
+    while (deviceIterator.hasNextDevice()) {
+      checkThreadInterrupted();
+      Pair<IDeviceID, Boolean> deviceInfo = deviceIterator.nextDevice();
+      IDeviceID device = deviceInfo.left;
+      boolean isAligned = deviceInfo.right;
+      // sort the resources by the start time of current device from old to new, and remove
+      // resource that does not contain the current device. Notice: when the level of time index
+      // is file, there will be a false positive judgment problem, that is, the device does not
+      // actually exist but the judgment return device being existed.
+      sortedSourceFiles.addAll(seqFiles);
+      sortedSourceFiles.addAll(unseqFiles);
+      boolean isTreeModel = !isAligned || device.getTableName().startsWith("root.");
+      long ttl = deviceIterator.getTTLForCurrentDevice();
+      sortedSourceFiles.removeIf(
+          x -> x.definitelyNotContains(device) || !x.isDeviceAlive(device, ttl));
+      sortedSourceFiles.sort(Comparator.comparingLong(x -> x.getStartTime(device)));
+      if (sortedSourceFiles.isEmpty()) {
+        // device is out of dated in all source files
+        continue;
+      }
+      Map<String, PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer>>
+          deviceModifications = modificationCache;
+      if (ttl != Long.MAX_VALUE) {
+        long timeLowerBound = deviceIterator.getTimeLowerBoundForCurrentDevice();
+        if (isDeviceParallel()) {
+          deviceModifications = getModificationsWithTTL(device, timeLowerBound);
+        } else {
+          ModEntry ttlDeletion = CompactionUtils.convertTtlToDeletion(device, timeLowerBound);
+          for (TsFileResource sourceFile : sortedSourceFiles) {
+            getModifiableModifications(sourceFile)
+                .append(ttlDeletion.keyOfPatternTree(), ttlDeletion);
+          }
+        }
+      }
+
+      // measurement -> tsfile resource -> timeseries metadata <startOffset, endOffset>, including
+      // empty value chunk metadata
+      Map<String, Map<TsFileResource, Pair<Long, Long>>> alignedMetadataOffsetMap = null;
+      List<IMeasurementSchema> alignedMeasurementSchemas = null;
+      if (isAligned) {
+        alignedMetadataOffsetMap = new LinkedHashMap<>();
+        alignedMeasurementSchemas = new ArrayList<>();
+        collectAlignedSeries(deviceIterator, alignedMetadataOffsetMap, alignedMeasurementSchemas);
+        if (compactAlignedSeriesInParallel(
+            device,
+            alignedMetadataOffsetMap,
+            alignedMeasurementSchemas,
+            deviceModifications,
+            compactionWriter,
+            isTreeModel)) {
+          sortedSourceFiles.clear();
+          continue;
+        }
+      }
+      // the devices compacted in parallel are written to the target file before this one
+      writeBufferedDevices(compactionWriter, 0);
+
+      compactionWriter.startChunkGroup(device, isAligned);
+
+      if (isAligned) {
+        compactAlignedSeries(
+            device,
+            alignedMetadataOffsetMap,
+            alignedMeasurementSchemas,
+            deviceModifications,
+            compactionWriter,
+            isTreeModel);
+      } else {
+        compactNonAlignedSeries(device, deviceIterator, deviceModifications, compactionWriter);
+      }
+
+      compactionWriter.endChunkGroup();
+      // check whether to flush chunk metadata or not
+      compactionWriter.checkAndMayFlushChunkMetadata();
+      // Add temp file metrics
+      subTaskSummary.setTemporaryFileSize(compactionWriter.getWriterSize());
+      sortedSourceFiles.clear();
+    }
+    writeBufferedDevices(compactionWriter, 0);
+  }
 
+  private void collectAlignedSeries(
+      MultiTsFileDeviceIterator deviceIterator,
+      Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
+      List<IMeasurementSchema> measurementSchemas)
+      throws IOException {
     // Get all value measurements and their schemas of the current device. Also get start offset and
     // end offset of each timeseries metadata, in order to facilitate the reading of chunkMetadata
     // directly by this offset later. Instead of deserializing chunk metadata later, we need to
@@ -208,13 +266,22 @@ public class FastCompactionPerformer
       measurementSchemas.add(entry.getValue().left);
       timeseriesMetadataOffsetMap.put(entry.getKey(), entry.getValue().right);
     }
+  }
 
+  private void compactAlignedSeries(
+      IDeviceID deviceId,
+      Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
+      List<IMeasurementSchema> measurementSchemas,
+      Map<String, PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer>> modifications,
+      AbstractCompactionWriter fastCrossCompactionWriter,
+      boolean ignoreAllNullRows)
+      throws PageException, IOException, WriteProcessException, IllegalPathException {
     FastCompactionTaskSummary taskSummary = new FastCompactionTaskSummary();
     new FastCompactionPerformerSubTask(
             fastCrossCompactionWriter,
             timeseriesMetadataOffsetMap,
             readerCacheMap,
-            modificationCache,
+            modifications,
             sortedSourceFiles,
             measurementSchemas,
             deviceId,
@@ -224,9 +291,144 @@ public class FastCompactionPerformer
     subTaskSummary.increase(taskSummary);
   }
 
+  /**
+   * Compact an aligned device of an inner space compaction by a sub task, the compacted chunks are
+   * kept in memory until they are written to the target file by {@link #writeBufferedDevices}, so
+   * that the chunk groups are still written in the order of devices. At most
+   * compaction_device_parallelism devices are compacted at the same time. Return false if the
+   * device should be compacted by the current thread, e.g. there is not enough memory to buffer it.
+   */
+  @SuppressWarnings("squid:S107")
+  private boolean compactAlignedSeriesInParallel(
+      IDeviceID deviceId,
+      Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
+      List<IMeasurementSchema> measurementSchemas,
+      Map<String, PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer>> modifications,
+      AbstractCompactionWriter compactionWriter,
+      boolean ignoreAllNullRows)
+      throws IOException, InterruptedException {
+    if (!isDeviceParallel()) {
+      return false;
+    }
+    writeBufferedDevices(compactionWriter, deviceParallelism - 1);
+
+    // the compacted chunks are held by the chunk writers and then by the buffer
+    long memoryCost = 2 * estimateCompactedDeviceSize(timeseriesMetadataOffsetMap);
+    try {
+      SystemInfo.getInstance().addCompactionMemoryCost(getCompactionTaskType(), memoryCost, false);
+    } catch (CompactionMemoryNotEnoughException e) {
+      return false;
+    }
+    FastDeviceBufferCompactionWriter bufferWriter;
+    try {
+      bufferWriter = new FastDeviceBufferCompactionWriter(targetFiles);
+    } catch (IOException e) {
+      SystemInfo.getInstance().resetCompactionMemoryCost(getCompactionTaskType(), memoryCost);
+      throw e;
+    }
+    bufferWriter.startChunkGroup(deviceId, true);
+    BufferedDevice bufferedDevice = new BufferedDevice(deviceId, bufferWriter, memoryCost);
+    // the device is recorded before submitting, so that it is released if the task fails
+    bufferedDevices.addLast(bufferedDevice);
+    bufferedDevice.future =
+        CompactionTaskManager.getInstance()
+            .submitSubTask(
+                new FastCompactionPerformerSubTask(
+                    bufferWriter,
+                    timeseriesMetadataOffsetMap,
+                    readerCacheMap,
+                    modifications,
+                    new ArrayList<>(sortedSourceFiles),
+                    measurementSchemas,
+                    deviceId,
+                    bufferedDevice.summary,
+                    ignoreAllNullRows));
+    return true;
+  }
+
+  /** Write the buffered devices to the target file in order until at most remainingNum are left. */
+  private void writeBufferedDevices(AbstractCompactionWriter compactionWriter, int remainingNum)
+      throws IOException, InterruptedException {
+    while (bufferedDevices.size() > remainingNum) {
+      BufferedDevice bufferedDevice = bufferedDevices.peekFirst();
+      waitSubTask(bufferedDevice.future);
+      bufferedDevices.pollFirst();
+      try {
+        ((AbstractInnerCompactionWriter) compactionWriter)
+            .writeBufferedChunkGroup(bufferedDevice.deviceId, bufferedDevice.writer.getBuffer());
+        // check whether to flush chunk metadata or not
+        compactionWriter.checkAndMayFlushChunkMetadata();
+        subTaskSummary.increase(bufferedDevice.summary);
+        subTaskSummary.setTemporaryFileSize(compactionWriter.getWriterSize());
+      } finally {
+        releaseBufferedDevice(bufferedDevice);
+      }
+    }
+  }
+
+  private void abortBufferedDevices() {
+    for (BufferedDevice bufferedDevice : bufferedDevices) {
+      if (bufferedDevice.future != null) {
+        bufferedDevice.future.cancel(true);
+      }
+    }
+    for (BufferedDevice bufferedDevice : bufferedDevices) {
+      try {
+        if (bufferedDevice.future != null) {
+          bufferedDevice.future.get();
+        }
+      } catch (Exception ignored) {
+      }
+      releaseBufferedDevice(bufferedDevice);
+    }
+    bufferedDevices.clear();
+  }
+
+  private void releaseBufferedDevice(BufferedDevice bufferedDevice) {
+    try {
+      bufferedDevice.writer.close();
+    } catch (Exception e) {
+      logger.warn(
+          "[Compaction] Failed to close the buffer of device {}", bufferedDevice.deviceId, e);
+    }
+    SystemInfo.getInstance()
+        .resetCompactionMemoryCost(getCompactionTaskType(), bufferedDevice.memoryCost);
+  }
+
+  /**
+   * Estimate the size of the compacted chunks of a device, assuming that the data of a source file
+   * is distributed among the devices like its timeseries metadata.
+   */
+  private long estimateCompactedDeviceSize(
+      Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap)
+      throws IOException {
+    Map<TsFileResource, Long> metadataSizeOfEachFile = new HashMap<>();
+    for (Map<TsFileResource, Pair<Long, Long>> offsets : timeseriesMetadataOffsetMap.values()) {
+      for (Map.Entry<TsFileResource, Pair<Long, Long>> entry : offsets.entrySet()) {
+        metadataSizeOfEachFile.merge(
+            entry.getKey(), entry.getValue().right - entry.getValue().left, Long::sum);
+      }
+    }
+    long size = 0;
+    for (Map.Entry<TsFileResource, Long> entry : metadataSizeOfEachFile.entrySet()) {
+      TsFileSequenceReader reader = readerCacheMap.get(entry.getKey());
+      long dataSize = reader.readFileMetadata().getMetaOffset();
+      long metadataSize = Math.max(reader.getFileMetadataPos() - dataSize, 1);
+      size += (long) ((double) dataSize * entry.getValue() / metadataSize);
+    }
+    return size;
+  }
+
+  private CompactionTaskType getCompactionTaskType() {
+    return targetFiles.get(0).isSeq()
+        ? CompactionTaskType.INNER_SEQ
+        : CompactionTaskType.INNER_UNSEQ;
+  }
+
   private void compactNonAlignedSeries(
       IDeviceID deviceID,
       MultiTsFileDeviceIterator deviceIterator,
+      Map<String, PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer>> modifications,
       AbstractCompactionWriter fastCrossCompactionWriter)
       throws IOException, InterruptedException {
     // measurement -> tsfile resource -> timeseries metadata <startOffset, endOffset>
@@ -263,7 +465,7 @@ public class FastCompactionPerformer
                       fastCrossCompactionWriter,
                       timeseriesMetadataOffsetMap,
                       readerCacheMap,
-                      modificationCache,
+                      modifications,
                       sortedSourceFiles,
                       measurementsForEachSubTask[i],
                       deviceID,
@@ -275,17 +477,8 @@ public class FastCompactionPerformer
     // wait for all sub tasks to finish
     for (int i = 0; i < subTaskNums; i++) {
       try {
-        futures.get(i).get();
+        waitSubTask(futures.get(i));
         subTaskSummary.increase(taskSummaryList.get(i));
-      } catch (ExecutionException e) {
-        Throwable cause = e.getCause();
-        if (cause instanceof CompactionLastTimeCheckFailedException) {
-          throw (CompactionLastTimeCheckFailedException) cause;
-        }
-        if (cause instanceof StopReadTsFileByInterruptException) {
-          throw (StopReadTsFileByInterruptException) cause;
-        }
-        throw new IOException("[Compaction] SubCompactionTask meet errors ", e);
       } catch (InterruptedException e) {
         abortAllSubTasks(futures);
         throw e;
@@ -293,6 +486,21 @@ public class FastCompactionPerformer
     }
   }
 
+  private void waitSubTask(Future<Void> future) throws IOException, InterruptedException {
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof CompactionLastTimeCheckFailedException) {
+        throw (CompactionLastTimeCheckFailedException) cause;
+      }
+      if (cause instanceof StopReadTsFileByInterruptException) {
+        throw (StopReadTsFileByInterruptException) cause;
+      }
+      throw new IOException("[Compaction] SubCompactionTask meet errors ", e);
+    }
+  }
+
   private void abortAllSubTasks(List<Future<Void>> futures) {
     for (Future<Void> future : futures) {
       future.cancel(true);
@@ -357,12 +565,73 @@ public class FastCompactionPerformer
         continue;
       }
       // read mods
+      ModificationCache.CachedModifications modifications =
+          ModificationCache.getInstance().get(resource);
+      modificationCache.put(resource.getTsFile().getName(), modifications.getModificationTree());
+      sharedModifications.put(resource.getTsFile().getName(), modifications);
+    }
+  }
+
+  private boolean isDeviceParallel() {
+    return !isCrossCompaction && deviceParallelism > 1;
+  }
+
+  private PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer> getModifiableModifications(
+      TsFileResource resource) {
+    String fileName = resource.getTsFile().getName();
+    ModificationCache.CachedModifications shared = sharedModifications.remove(fileName);
+    if (shared != null) {
+      PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer> copy =
+          shared.copyModificationTree();
+      modificationCache.put(fileName, copy);
+      return copy;
+    }
+    return modificationCache.computeIfAbsent(
+        fileName, k -> PatternTreeMapFactory.getModsPatternTreeMap());
+  }
+
+  /**
+   * Get the modifications of the source files of a device with ttl, which consist of the
+   * modifications affecting the device and the ttl deletion of the device. The modifications of the
+   * device are looked up in the cached trees instead of scanning all the modifications.
+   */
+  private Map<String, PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer>>
+      getModificationsWithTTL(IDeviceID device, long timeLowerBound) throws IllegalPathException {
+    ModEntry ttlDeletion = CompactionUtils.convertTtlToDeletion(device, timeLowerBound);
+    PartialPath devicePath = new PartialPath(device);
+    Map<String, PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer>>
+        deviceModifications = new HashMap<>();
+    for (TsFileResource sourceFile : sortedSourceFiles) {
+      String fileName = sourceFile.getTsFile().getName();
       PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer> modifications =
           PatternTreeMapFactory.getModsPatternTreeMap();
-      for (ModEntry modification : resource.getAllModEntries()) {
-        modifications.append(modification.keyOfPatternTree(), modification);
+      PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer> cached =
+          modificationCache.get(fileName);
+      if (cached != null) {
+        for (ModEntry modEntry : cached.getDeviceOverlapped(devicePath)) {
+          if (modEntry.affects(device)) {
+            modifications.append(modEntry.keyOfPatternTree(), modEntry);
+          }
+        }
       }
-      modificationCache.put(resource.getTsFile().getName(), modifications);
+      modifications.append(ttlDeletion.keyOfPatternTree(), ttlDeletion);
+      deviceModifications.put(fileName, modifications);
+    }
+    return deviceModifications;
+  }
+
+  private static class BufferedDevice {
+    private final IDeviceID deviceId;
+    private final FastDeviceBufferCompactionWriter writer;
+    private final FastCompactionTaskSummary summary = new FastCompactionTaskSummary();
+    private final long memoryCost;
+    private Future<Void> future;
+
+    private BufferedDevice(
+        IDeviceID deviceId, FastDeviceBufferCompactionWriter writer, long memoryCost) {
+      this.deviceId = deviceId;
+      this.writer = writer;
+      this.memoryCost = memoryCost;
     }
   }
 
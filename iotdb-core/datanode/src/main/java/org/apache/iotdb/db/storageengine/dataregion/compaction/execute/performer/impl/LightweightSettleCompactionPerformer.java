@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.LightweightAlignedSeriesCompactionExecutor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.LightweightSingleSeriesCompactionExecutor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.ReadChunkAlignedSeriesCompactionExecutor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileWriter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.utils.Pair;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Used for settling a single sequence file with modifications. The chunks which are not touched by
+ * any deletion are copied to the target file without decoding, only the modified chunks are
+ * rewritten, so the cost of settling is proportional to the deleted data instead of the file size.
+ */
+public class LightweightSettleCompactionPerformer extends ReadChunkCompactionPerformer {
+
+  public LightweightSettleCompactionPerformer() {
+    super();
+  }
+
+  @Override
+  protected ReadChunkAlignedSeriesCompactionExecutor createAlignedSeriesCompactionExecutor(
+      IDeviceID device,
+      TsFileResource targetResource,
+      LinkedList<Pair<TsFileSequenceReader, List<AlignedChunkMetadata>>> readerAndChunkMetadataList,
+      CompactionTsFileWriter writer)
+      throws IOException {
+    return new LightweightAlignedSeriesCompactionExecutor(
+        device,
+        targetResource,
+        readerAndChunkMetadataList,
+        writer,
+        summary,
+        device.getTableName().startsWith("root."));
+  }
+
+  @Override
+  protected void compactSingleSeries(
+      IDeviceID device,
+      String measurement,
+      LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList,
+      CompactionTsFileWriter writer,
+      TsFileResource targetResource)
+      throws IOException {
+    new LightweightSingleSeriesCompactionExecutor(
+            device, measurement, readerAndChunkMetadataList, writer, targetResource, summary)
+        .execute();
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.Comp
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionTableSchemaCollector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.MultiTsFileDeviceIterator;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch.BatchedReadChunkAlignedSeriesCompactionExecutor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.ReadChunkAlignedSeriesCompactionExecutor;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.SingleSeriesCompactionExecutor;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileWriter;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
@@ -51,7 +52,7 @@ import java.util.List;
 public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
   private List<TsFileResource> seqFiles;
   private List<TsFileResource> targetResources;
-  private CompactionTaskSummary summary;
+  protected CompactionTaskSummary summary;
   private CompactionTsFileWriter currentWriter;
   private long endedFileSize = 0;
   private int currentTargetFileIndex = 0;
@@ -185,14 +186,9 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
       return;
     }
     writer.startChunkGroup(device);
-    BatchedReadChunkAlignedSeriesCompactionExecutor compactionExecutor =
-        new BatchedReadChunkAlignedSeriesCompactionExecutor(
-            device,
-            targetResource,
-            readerAndChunkMetadataList,
-            writer,
-            summary,
-            device.getTableName().startsWith("root."));
+    ReadChunkAlignedSeriesCompactionExecutor compactionExecutor =
+        createAlignedSeriesCompactionExecutor(
+            device, targetResource, readerAndChunkMetadataList, writer);
     compactionExecutor.execute();
     for (ChunkMetadata chunkMetadata : writer.getChunkMetadataListOfCurrentDeviceInMemory()) {
       if (chunkMetadata.getMeasurementUid().isEmpty()) {
@@ -204,6 +200,21 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
     writer.endChunkGroup();
   }
 
+  protected ReadChunkAlignedSeriesCompactionExecutor createAlignedSeriesCompactionExecutor(
+      IDeviceID device,
+      TsFileResource targetResource,
+      LinkedList<Pair<TsFileSequenceReader, List<AlignedChunkMetadata>>> readerAndChunkMetadataList,
+      CompactionTsFileWriter writer)
+      throws IOException {
+    return new BatchedReadChunkAlignedSeriesCompactionExecutor(
+        device,
+        targetResource,
+        readerAndChunkMetadataList,
+        writer,
+        summary,
+        device.getTableName().startsWith("root."));
+  }
+
   private void checkThreadInterrupted() throws InterruptedException {
     if (Thread.interrupted() || summary.isCancel()) {
       throw new InterruptedException(
@@ -242,14 +253,24 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
       // remove the chunk metadata whose data type not match the data type of last chunk
       readerAndChunkMetadataList =
           filterDataTypeNotMatchedChunkMetadata(readerAndChunkMetadataList);
-      SingleSeriesCompactionExecutor compactionExecutorOfCurrentTimeSeries =
-          new SingleSeriesCompactionExecutor(
-              device, measurement, readerAndChunkMetadataList, writer, targetResource, summary);
-      compactionExecutorOfCurrentTimeSeries.execute();
+      compactSingleSeries(device, measurement, readerAndChunkMetadataList, writer, targetResource);
     }
     writer.endChunkGroup();
   }
 
+  protected void compactSingleSeries(
+      IDeviceID device,
+      String measurement,
+      LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList,
+      CompactionTsFileWriter writer,
+      TsFileResource targetResource)
+      throws IOException {
+    SingleSeriesCompactionExecutor compactionExecutorOfCurrentTimeSeries =
+        new SingleSeriesCompactionExecutor(
+            device, measurement, readerAndChunkMetadataList, writer, targetResource, summary);
+    compactionExecutorOfCurrentTimeSeries.execute();
+  }
+
   private LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>>
       filterDataTypeNotMatchedChunkMetadata(
           LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList) {
@@ -35,6 +35,10 @@ public class CompactionTaskSummary {
   protected int mergedChunkNum = 0;
   protected long processPointNum = 0;
   protected long rewritePointNum = 0;
+  // size of the compressed data which is flushed to the target files without decoding
+  protected long directlyFlushDataSize = 0;
+  // size of the compressed data which is decoded and written to the target files again
+  protected long rewriteDataSize = 0;
   protected long temporalFileSize = 0;
   protected int temporalFileNum = 0;
 
@@ -105,6 +109,14 @@ public class CompactionTaskSummary {
     rewritePointNum += increment;
   }
 
+  public void increaseDirectlyFlushDataSize(long increment) {
+    directlyFlushDataSize += increment;
+  }
+
+  public void increaseRewriteDataSize(long increment) {
+    rewriteDataSize += increment;
+  }
+
   public void increaseMergedChunkNum(int increment) {
     this.mergedChunkNum += increment;
   }
@@ -165,6 +177,14 @@ public class CompactionTaskSummary {
     return rewritePointNum;
   }
 
+  public long getDirectlyFlushDataSize() {
+    return directlyFlushDataSize;
+  }
+
+  public long getRewriteDataSize() {
+    return rewriteDataSize;
+  }
+
   enum Status {
     NOT_STARTED,
     STARTED,
@@ -195,7 +215,8 @@ public class CompactionTaskSummary {
     return String.format(
         "Task start time: %s, total process chunk num: %d, "
             + "directly flush chunk num: %d, merge chunk num: %d, deserialize chunk num: %d,"
-            + " directly flush page num: %d, total process point num: %d, rewrite point num: %d",
+            + " directly flush page num: %d, total process point num: %d, rewrite point num: %d,"
+            + " directly flush data size: %d, rewrite data size: %d",
         startTimeInStr,
         processChunkNum,
         directlyFlushChunkNum,
@@ -203,6 +224,8 @@ public class CompactionTaskSummary {
         deserializeChunkCount,
         directlyFlushPageCount,
         processPointNum,
-        rewritePointNum);
+        rewritePointNum,
+        directlyFlushDataSize,
+        rewriteDataSize);
   }
 }
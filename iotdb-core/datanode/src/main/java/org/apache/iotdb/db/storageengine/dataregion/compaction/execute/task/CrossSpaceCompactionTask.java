@@ -199,6 +199,9 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
             storageGroupName + "-" + dataRegionId);
         CompactionUtils.combineModsInCrossCompaction(
             selectedSequenceFiles, selectedUnsequenceFiles, targetTsfileResourceList);
+        List<TsFileResource> sourceFiles = new ArrayList<>(selectedSequenceFiles);
+        sourceFiles.addAll(selectedUnsequenceFiles);
+        CompactionUtils.combineSketches(sourceFiles, targetTsfileResourceList);
 
         validateCompactionResult(
             selectedSequenceFiles, selectedUnsequenceFiles, targetTsfileResourceList);
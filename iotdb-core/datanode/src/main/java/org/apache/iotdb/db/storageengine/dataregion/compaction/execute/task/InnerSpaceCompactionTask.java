@@ -476,6 +476,8 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
 
     CompactionUtils.combineModsInInnerCompaction(
         filesView.sourceFilesInCompactionPerformer, filesView.targetFilesInPerformer);
+    CompactionUtils.combineSketches(
+        filesView.sourceFilesInCompactionPerformer, filesView.targetFilesInPerformer);
   }
 
   public void recover() {
@@ -45,6 +45,8 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
     this.directlyFlushChunkNum += summary.directlyFlushChunkNum;
     this.mergedChunkNum += summary.mergedChunkNum;
     this.deserializeChunkCount += summary.deserializeChunkCount;
+    this.directlyFlushDataSize += summary.directlyFlushDataSize;
+    this.rewriteDataSize += summary.rewriteDataSize;
   }
 
   @Override
@@ -53,13 +55,16 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
         "CHUNK_NONE_OVERLAP num is %d, CHUNK_NONE_OVERLAP_BUT_DESERIALIZE num is %d,"
             + " CHUNK_OVERLAP_OR_MODIFIED num is %d, PAGE_NONE_OVERLAP num is %d,"
             + " PAGE_NONE_OVERLAP_BUT_DESERIALIZE num is %d, PAGE_OVERLAP_OR_MODIFIED num is %d,"
-            + " PAGE_FAKE_OVERLAP num is %d.",
+            + " PAGE_FAKE_OVERLAP num is %d, DIRECTLY_FLUSH data size is %d,"
+            + " REWRITE data size is %d.",
         chunkNoneOverlap,
         chunkNoneOverlapButDeserialize,
         chunkOverlapOrModified,
         pageNoneOverlap,
         pageNoneOverlapButDeserialize,
         pageOverlapOrModified,
-        pageFakeOverlap);
+        pageFakeOverlap,
+        directlyFlushDataSize,
+        rewriteDataSize);
   }
 }
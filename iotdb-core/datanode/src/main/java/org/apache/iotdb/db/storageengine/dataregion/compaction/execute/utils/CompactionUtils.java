@@ -26,6 +26,7 @@ import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.metrics.CompactionMetrics;
 import org.apache.iotdb.db.service.metrics.FileMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
@@ -37,6 +38,7 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFil
 import org.apache.iotdb.db.storageengine.dataregion.modification.TableDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.SystemMetric;
@@ -52,6 +54,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -199,6 +202,50 @@ public class CompactionUtils {
     }
   }
 
+  /**
+   * Merge the sketch sidecars of the source files into the sidecars of the target files. Each
+   * target gets the sketches of the devices it contains. The merged sketches of a series are only
+   * used by queries if no point of it is deleted or overwritten by the compaction, because
+   * otherwise their count is larger than that of the series in the target file.
+   */
+  public static void combineSketches(
+      List<TsFileResource> sourceFiles, List<TsFileResource> targetFiles) {
+    if (!IoTDBDescriptor.getInstance().getConfig().isEnableTsFileSketch()) {
+      return;
+    }
+    List<TsFileSketch> sourceSketches = new ArrayList<>(sourceFiles.size());
+    for (TsFileResource sourceFile : sourceFiles) {
+      try {
+        TsFileSketch sketch = TsFileSketch.deserialize(sourceFile.getTsFile());
+        if (sketch == null) {
+          // the sketches merged without this file would not cover all the points of the targets
+          return;
+        }
+        sourceSketches.add(sketch);
+      } catch (IOException e) {
+        logger.warn("Failed to read the sketch sidecar of {}", sourceFile, e);
+        return;
+      }
+    }
+    for (TsFileResource targetFile : targetFiles) {
+      if (targetFile == null || !targetFile.getTsFile().exists()) {
+        continue;
+      }
+      TsFileSketch targetSketch = new TsFileSketch();
+      for (TsFileSketch sourceSketch : sourceSketches) {
+        targetSketch.merge(sourceSketch, targetFile::isDeviceIdExist);
+      }
+      if (targetSketch.isEmpty()) {
+        continue;
+      }
+      try {
+        targetSketch.serialize(targetFile.getTsFile());
+      } catch (IOException e) {
+        logger.warn("Failed to write the sketch sidecar of {}", targetFile, e);
+      }
+    }
+  }
+
   public static void addFilesToFileMetrics(TsFileResource resource) {
     FileMetrics.getInstance()
         .addTsFile(
@@ -25,6 +25,7 @@ import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileReader;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
@@ -434,7 +435,7 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
 
     List<ModEntry> modifications =
         modificationCache.computeIfAbsent(
-            tsFileResource, r -> new ArrayList<>(tsFileResource.getAllModEntries()));
+            tsFileResource, r -> ModificationCache.getInstance().get(r).getModEntries());
 
     // construct the input params List<List<Modification>> for QueryUtils.modifyAlignedChunkMetaData
     AlignedChunkMetadata alignedChunkMetadata = alignedChunkMetadataList.get(0);
@@ -681,7 +682,7 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
 
           List<ModEntry> modificationsInThisResource =
               modificationCache.computeIfAbsent(
-                  resource, r -> new ArrayList<>(r.getAllModEntries()));
+                  resource, r -> ModificationCache.getInstance().get(r).getModEntries());
           LinkedList<ModEntry> modificationForCurrentSeries = new LinkedList<>();
           // collect the modifications for current series
           for (ModEntry modification : modificationsInThisResource) {
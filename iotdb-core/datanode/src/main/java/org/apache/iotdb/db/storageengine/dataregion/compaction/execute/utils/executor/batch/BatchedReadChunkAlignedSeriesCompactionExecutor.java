@@ -118,15 +118,8 @@ public class BatchedReadChunkAlignedSeriesCompactionExecutor
             filterAlignedChunkMetadataList(readerAndChunkMetadataList, selectedColumnIndexList);
 
     FirstBatchedReadChunkAlignedSeriesCompactionExecutor executor =
-        new FirstBatchedReadChunkAlignedSeriesCompactionExecutor(
-            device,
-            targetResource,
-            batchedReaderAndChunkMetadataList,
-            writer,
-            summary,
-            timeSchema,
-            selectedColumnSchemaList,
-            ignoreAllNullRows);
+        createFirstBatchCompactionExecutor(
+            batchedReaderAndChunkMetadataList, selectedColumnSchemaList);
     executor.execute();
     LOGGER.debug(
         "[Batch Compaction] current device is {}, first batch compacted time chunk is {}",
@@ -134,6 +127,47 @@ public class BatchedReadChunkAlignedSeriesCompactionExecutor
         batchCompactionPlan);
   }
 
+  /**
+   * The first batch decides how each chunk is compacted, and the following batches compact their
+   * columns by the recorded {@link BatchCompactionPlan}.
+   */
+  protected FirstBatchedReadChunkAlignedSeriesCompactionExecutor createFirstBatchCompactionExecutor(
+      LinkedList<Pair<TsFileSequenceReader, List<AlignedChunkMetadata>>>
+          batchedReaderAndChunkMetadataList,
+      List<IMeasurementSchema> selectedColumnSchemaList) {
+    return new FirstBatchedReadChunkAlignedSeriesCompactionExecutor(
+        device,
+        targetResource,
+        batchedReaderAndChunkMetadataList,
+        writer,
+        summary,
+        timeSchema,
+        selectedColumnSchemaList,
+        ignoreAllNullRows);
+  }
+
+  /** The aligned chunk metadata of all the columns that the time chunk of a batch belongs to. */
+  protected AlignedChunkMetadata getOriginAlignedChunkMetadata(
+      String file, ChunkMetadata timeChunkMetadata) {
+    List<AlignedChunkMetadata> alignedChunkMetadataList = Collections.emptyList();
+    for (Pair<TsFileSequenceReader, List<AlignedChunkMetadata>> pair :
+        originReaderAndChunkMetadataList) {
+      TsFileSequenceReader reader = pair.getLeft();
+      if (reader.getFileName().equals(file)) {
+        alignedChunkMetadataList = pair.getRight();
+        break;
+      }
+    }
+
+    for (AlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
+      if (alignedChunkMetadata.getOffsetOfChunkHeader()
+          == timeChunkMetadata.getOffsetOfChunkHeader()) {
+        return alignedChunkMetadata;
+      }
+    }
+    return null;
+  }
+
   private void compactLeftBatches() throws PageException, IOException {
     while (batchColumnSelection.hasNext()) {
       batchColumnSelection.next();
@@ -222,26 +256,8 @@ public class BatchedReadChunkAlignedSeriesCompactionExecutor
       long startTime = timePage.getHeader().getStartTime();
       long endTime = timePage.getHeader().getEndTime();
       String file = timePage.getFile();
-      ChunkMetadata timeChunkMetadata = timePage.getChunkMetadata();
-
-      List<AlignedChunkMetadata> alignedChunkMetadataList = Collections.emptyList();
-      for (Pair<TsFileSequenceReader, List<AlignedChunkMetadata>> pair :
-          originReaderAndChunkMetadataList) {
-        TsFileSequenceReader reader = pair.getLeft();
-        if (reader.getFileName().equals(file)) {
-          alignedChunkMetadataList = pair.getRight();
-          break;
-        }
-      }
-
-      AlignedChunkMetadata originAlignedChunkMetadata = null;
-      for (AlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
-        if (alignedChunkMetadata.getOffsetOfChunkHeader()
-            == timeChunkMetadata.getOffsetOfChunkHeader()) {
-          originAlignedChunkMetadata = alignedChunkMetadata;
-          break;
-        }
-      }
+      AlignedChunkMetadata originAlignedChunkMetadata =
+          getOriginAlignedChunkMetadata(file, timePage.getChunkMetadata());
 
       ModifiedStatus modifiedStatus =
           AlignedSeriesBatchCompactionUtils.calculateAlignedPageModifiedStatus(
@@ -186,6 +186,7 @@ public abstract class SeriesCompactionExecutor {
     if (success) {
       // flush chunk successfully, then remove this chunk
       updateSummary(chunkMetadataElement, ChunkStatus.DIRECTORY_FLUSH);
+      summary.increaseDirectlyFlushDataSize(chunkMetadataElement.getDataSize());
       checkShouldRemoveFile(chunkMetadataElement);
     } else {
       // unsealed chunk is not large enough or chunk.endTime > file.endTime, then deserialize chunk
@@ -234,6 +235,7 @@ public abstract class SeriesCompactionExecutor {
           || firstPageElement.needForceDecoding()) {
         // has overlap or modified pages, then deserialize it
         summary.pageOverlapOrModified += 1;
+        summary.increaseRewriteDataSize(firstPageElement.getCompressedSize());
         if (pointPriorityReader.addNewPageIfPageNotEmpty(firstPageElement)) {
           compactWithOverlapPages();
         }
@@ -250,10 +252,12 @@ public abstract class SeriesCompactionExecutor {
     boolean success = flushPageToCompactionWriter(pageElement);
     if (success) {
       // flush the page successfully, then remove this page
+      summary.increaseDirectlyFlushDataSize(pageElement.getCompressedSize());
       checkShouldRemoveFile(pageElement);
     } else {
       // unsealed page is not large enough or page.endTime > file.endTime, then deserialze it
       summary.pageNoneOverlapButDeserialize += 1;
+      summary.increaseRewriteDataSize(pageElement.getCompressedSize());
       if (!pointPriorityReader.addNewPageIfPageNotEmpty(pageElement)) {
         return;
       }
@@ -335,6 +339,7 @@ public abstract class SeriesCompactionExecutor {
           || nextPageElement.needForceDecoding()) {
         // next page is overlapped or modified, then deserialize it
         summary.pageOverlapOrModified++;
+        summary.increaseRewriteDataSize(nextPageElement.getCompressedSize());
         pointPriorityReader.addNewPageIfPageNotEmpty(nextPageElement);
       } else {
         // has none overlap or modified pages, flush it to chunk writer directly
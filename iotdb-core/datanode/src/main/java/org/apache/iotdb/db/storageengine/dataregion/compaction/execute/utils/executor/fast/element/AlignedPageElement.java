@@ -88,6 +88,17 @@ public class AlignedPageElement extends PageElement {
     return timePageHeader.getEndTime();
   }
 
+  @Override
+  public long getCompressedSize() {
+    long compressedSize = timePageHeader.getCompressedSize();
+    for (PageHeader valuePageHeader : valuePageHeaders) {
+      if (valuePageHeader != null) {
+        compressedSize += valuePageHeader.getCompressedSize();
+      }
+    }
+    return compressedSize;
+  }
+
   public PageHeader getTimePageHeader() {
     return timePageHeader;
   }
@@ -55,6 +55,19 @@ public class ChunkMetadataElement {
     valueChunks = null;
   }
 
+  /** Get the size of the compressed data of the chunk and its value chunks that have been read. */
+  public long getDataSize() {
+    long dataSize = chunk == null ? 0 : chunk.getHeader().getDataSize();
+    if (valueChunks != null) {
+      for (Chunk valueChunk : valueChunks) {
+        if (valueChunk != null) {
+          dataSize += valueChunk.getHeader().getDataSize();
+        }
+      }
+    }
+    return dataSize;
+  }
+
   public MergeReaderPriority getPriority() {
     return this.fileElement.getPriority();
   }
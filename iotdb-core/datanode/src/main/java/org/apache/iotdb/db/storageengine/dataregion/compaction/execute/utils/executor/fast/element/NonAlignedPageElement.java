@@ -65,6 +65,11 @@ public class NonAlignedPageElement extends PageElement {
     return pageHeader.getEndTime();
   }
 
+  @Override
+  public long getCompressedSize() {
+    return pageHeader.getCompressedSize();
+  }
+
   public PageHeader getPageHeader() {
     return pageHeader;
   }
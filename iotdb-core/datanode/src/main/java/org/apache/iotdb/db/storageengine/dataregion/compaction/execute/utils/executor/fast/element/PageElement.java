@@ -46,6 +46,9 @@ public abstract class PageElement {
 
   public abstract long getEndTime();
 
+  /** Get the size of the compressed page data, including all value pages of an aligned page. */
+  public abstract long getCompressedSize();
+
   public ChunkMetadataElement getChunkMetadataElement() {
     return chunkMetadataElement;
   }
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.ModifiedStatus;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch.BatchedReadChunkAlignedSeriesCompactionExecutor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch.utils.AlignedSeriesBatchCompactionUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.loader.ChunkLoader;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileWriter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.exception.write.PageException;
+import org.apache.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Compact an aligned device whose chunks do not overlap with each other. Chunks are never merged
+ * with their neighbours: an aligned chunk without deletion is copied to the target file as it is,
+ * and an aligned chunk with deletion in any of its columns is rewritten into a chunk of its own, in
+ * which the unmodified pages are still flushed without decoding.
+ *
+ * <p>Devices with more columns than a batch are compacted batch by batch like in {@link
+ * BatchedReadChunkAlignedSeriesCompactionExecutor}. The first batch makes the above decision for
+ * each chunk by the deletions of all the columns, and the following batches follow it.
+ */
+public class LightweightAlignedSeriesCompactionExecutor
+    extends BatchedReadChunkAlignedSeriesCompactionExecutor {
+
+  public LightweightAlignedSeriesCompactionExecutor(
+      IDeviceID device,
+      TsFileResource targetResource,
+      LinkedList<Pair<TsFileSequenceReader, List<AlignedChunkMetadata>>> readerAndChunkMetadataList,
+      CompactionTsFileWriter writer,
+      CompactionTaskSummary summary,
+      boolean ignoreAllNullRows)
+      throws IOException {
+    super(device, targetResource, readerAndChunkMetadataList, writer, summary, ignoreAllNullRows);
+  }
+
+  @Override
+  protected void compactWithAlignedChunk(ChunkLoader timeChunk, List<ChunkLoader> valueChunks)
+      throws IOException, PageException {
+    if (!isModified(timeChunk, valueChunks)) {
+      compactAlignedChunkByFlush(timeChunk, valueChunks);
+      return;
+    }
+    compactAlignedChunkByDeserialize(timeChunk, valueChunks);
+    if (!chunkWriter.isEmpty()) {
+      flushCurrentChunkWriter();
+    }
+  }
+
+  @Override
+  protected FirstBatchedReadChunkAlignedSeriesCompactionExecutor createFirstBatchCompactionExecutor(
+      LinkedList<Pair<TsFileSequenceReader, List<AlignedChunkMetadata>>>
+          batchedReaderAndChunkMetadataList,
+      List<IMeasurementSchema> selectedColumnSchemaList) {
+    return new LightweightFirstBatchCompactionExecutor(
+        device,
+        targetResource,
+        batchedReaderAndChunkMetadataList,
+        writer,
+        summary,
+        timeSchema,
+        selectedColumnSchemaList,
+        ignoreAllNullRows);
+  }
+
+  private static boolean isModified(ChunkLoader timeChunk, List<ChunkLoader> valueChunks) {
+    if (timeChunk.getModifiedStatus() == ModifiedStatus.PARTIAL_DELETED
+        || timeChunk.getModifiedStatus() == ModifiedStatus.ALL_DELETED) {
+      return true;
+    }
+    // a value chunk which is all deleted is regarded as empty and can still be flushed directly
+    for (ChunkLoader valueChunk : valueChunks) {
+      if (valueChunk.getModifiedStatus() == ModifiedStatus.PARTIAL_DELETED) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** The same decision as above, made by the chunk metadata of all the columns. */
+  private static boolean isModified(AlignedChunkMetadata alignedChunkMetadata) {
+    if (getModifiedStatus(alignedChunkMetadata.getTimeChunkMetadata())
+        != ModifiedStatus.NONE_DELETED) {
+      return true;
+    }
+    for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+      if (valueChunkMetadata != null
+          && getModifiedStatus(valueChunkMetadata) == ModifiedStatus.PARTIAL_DELETED) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static ModifiedStatus getModifiedStatus(IChunkMetadata chunkMetadata) {
+    if (chunkMetadata.getStatistics().getCount() == 0) {
+      return ModifiedStatus.NONE_DELETED;
+    }
+    return AlignedSeriesBatchCompactionUtils.checkIsModified(
+        chunkMetadata.getStartTime(),
+        chunkMetadata.getEndTime(),
+        chunkMetadata.getDeleteIntervalList());
+  }
+
+  private class LightweightFirstBatchCompactionExecutor
+      extends FirstBatchedReadChunkAlignedSeriesCompactionExecutor {
+
+    private LightweightFirstBatchCompactionExecutor(
+        IDeviceID device,
+        TsFileResource targetResource,
+        LinkedList<Pair<TsFileSequenceReader, List<AlignedChunkMetadata>>>
+            readerAndChunkMetadataList,
+        CompactionTsFileWriter writer,
+        CompactionTaskSummary summary,
+        IMeasurementSchema timeSchema,
+        List<IMeasurementSchema> valueSchemaList,
+        boolean ignoreAllNullRows) {
+      super(
+          device,
+          targetResource,
+          readerAndChunkMetadataList,
+          writer,
+          summary,
+          timeSchema,
+          valueSchemaList,
+          ignoreAllNullRows);
+    }
+
+    @Override
+    protected void compactWithAlignedChunk(ChunkLoader timeChunk, List<ChunkLoader> valueChunks)
+        throws IOException, PageException {
+      // the batch holds some of the columns only, a deletion in any other column counts as well
+      AlignedChunkMetadata originAlignedChunkMetadata =
+          getOriginAlignedChunkMetadata(timeChunk.getFile(), timeChunk.getChunkMetadata());
+      if (!isModified(timeChunk, valueChunks)
+          && originAlignedChunkMetadata != null
+          && !isModified(originAlignedChunkMetadata)) {
+        compactAlignedChunkByFlush(timeChunk, valueChunks);
+        return;
+      }
+      compactAlignedChunkByDeserialize(timeChunk, valueChunks);
+      if (!chunkWriter.isEmpty()) {
+        flushCurrentChunkWriter();
+      }
+    }
+  }
+}
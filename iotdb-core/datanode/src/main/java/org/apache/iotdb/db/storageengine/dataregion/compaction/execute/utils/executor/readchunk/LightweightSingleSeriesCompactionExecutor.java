@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionLastTimeCheckFailedException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.ModifiedStatus;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.readchunk.loader.ChunkLoader;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileWriter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.reader.IChunkReader;
+import org.apache.tsfile.read.reader.IPointReader;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * This class is used to compact one series whose chunks do not overlap with each other, e.g. the
+ * series of a single sequence file. Different from {@link SingleSeriesCompactionExecutor}, the
+ * chunks are never merged: a chunk whose time range is not touched by any deletion is copied to the
+ * target file as it is and only a chunk partially deleted is deserialized and rewritten into a new
+ * chunk.
+ */
+@SuppressWarnings("squid:S1319")
+public class LightweightSingleSeriesCompactionExecutor {
+  private final IDeviceID device;
+  private final String measurement;
+  private final LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>>
+      readerAndChunkMetadataList;
+  private final CompactionTsFileWriter fileWriter;
+  private final TsFileResource targetResource;
+  private final CompactionTaskSummary summary;
+
+  // record the min time and max time to update the target resource
+  private long minStartTimestamp = Long.MAX_VALUE;
+  private long maxEndTimestamp = Long.MIN_VALUE;
+  private long lastWriteTimestamp = Long.MIN_VALUE;
+
+  public LightweightSingleSeriesCompactionExecutor(
+      IDeviceID device,
+      String measurement,
+      LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList,
+      CompactionTsFileWriter fileWriter,
+      TsFileResource targetResource,
+      CompactionTaskSummary summary) {
+    this.device = device;
+    this.measurement = measurement;
+    this.readerAndChunkMetadataList = readerAndChunkMetadataList;
+    this.fileWriter = fileWriter;
+    this.targetResource = targetResource;
+    this.summary = summary;
+  }
+
+  /**
+   * Copy or rewrite each chunk of the series to the target file, the number of chunks in the target
+   * file is not larger than the number of source chunks.
+   *
+   * @throws IOException if io errors occurred
+   */
+  public void execute() throws IOException {
+    while (!readerAndChunkMetadataList.isEmpty()) {
+      Pair<TsFileSequenceReader, List<ChunkMetadata>> readerListPair =
+          readerAndChunkMetadataList.removeFirst();
+      TsFileSequenceReader reader = readerListPair.left;
+      for (ChunkMetadata chunkMetadata : readerListPair.right) {
+        Chunk chunk = reader.readMemChunk(chunkMetadata);
+        summary.increaseProcessChunkNum(1);
+        summary.increaseProcessPointNum(chunkMetadata.getNumOfPoints());
+        switch (getModifiedStatus(chunkMetadata)) {
+          case NONE_DELETED:
+            summary.increaseDirectlyFlushChunkNum(1);
+            flushChunkToFileWriter(chunk, chunkMetadata);
+            break;
+          case PARTIAL_DELETED:
+            summary.increaseDeserializedChunkNum(1);
+            rewriteModifiedChunk(chunk);
+            break;
+          case ALL_DELETED:
+          default:
+            // the whole chunk is deleted, nothing is written
+            break;
+        }
+      }
+    }
+    fileWriter.checkMetadataSizeAndMayFlush();
+    if (minStartTimestamp <= maxEndTimestamp) {
+      targetResource.updateStartTime(device, minStartTimestamp);
+      targetResource.updateEndTime(device, maxEndTimestamp);
+    }
+  }
+
+  /**
+   * The deletions of the series are set to all of its chunks, so whether a chunk is modified is
+   * decided by the overlap between the deletions and the time range of the chunk, in the same way
+   * as {@link ChunkLoader} does for aligned chunks.
+   */
+  private ModifiedStatus getModifiedStatus(ChunkMetadata chunkMetadata) {
+    List<TimeRange> deleteIntervalList = chunkMetadata.getDeleteIntervalList();
+    if (deleteIntervalList == null
+        || deleteIntervalList.isEmpty()
+        || chunkMetadata.getStatistics().getCount() == 0) {
+      return ModifiedStatus.NONE_DELETED;
+    }
+    TimeRange chunkTimeRange =
+        new TimeRange(chunkMetadata.getStartTime(), chunkMetadata.getEndTime());
+    ModifiedStatus modifiedStatus = ModifiedStatus.NONE_DELETED;
+    for (TimeRange timeRange : deleteIntervalList) {
+      if (timeRange.contains(chunkTimeRange)) {
+        return ModifiedStatus.ALL_DELETED;
+      } else if (timeRange.overlaps(chunkTimeRange)) {
+        modifiedStatus = ModifiedStatus.PARTIAL_DELETED;
+      }
+    }
+    return modifiedStatus;
+  }
+
+  private void flushChunkToFileWriter(Chunk chunk, ChunkMetadata chunkMetadata) throws IOException {
+    checkAndUpdatePreviousTimestamp(chunkMetadata.getStartTime());
+    if (chunkMetadata.getStartTime() != chunkMetadata.getEndTime()) {
+      checkAndUpdatePreviousTimestamp(chunkMetadata.getEndTime());
+    }
+    minStartTimestamp = Math.min(minStartTimestamp, chunkMetadata.getStartTime());
+    maxEndTimestamp = Math.max(maxEndTimestamp, chunkMetadata.getEndTime());
+    fileWriter.writeChunk(chunk, chunkMetadata);
+  }
+
+  /** Deserialize a chunk with deletion, skip the deleted points and write the rest as a chunk. */
+  private void rewriteModifiedChunk(Chunk chunk) throws IOException {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    ChunkWriterImpl chunkWriter =
+        new ChunkWriterImpl(
+            new MeasurementSchema(
+                measurement,
+                chunkHeader.getDataType(),
+                chunkHeader.getEncodingType(),
+                chunkHeader.getCompressionType()));
+    long pointNum = 0;
+    IChunkReader chunkReader = new ChunkReader(chunk);
+    while (chunkReader.hasNextSatisfiedPage()) {
+      IPointReader batchIterator = chunkReader.nextPageData().getBatchDataIterator();
+      while (batchIterator.hasNextTimeValuePair()) {
+        TimeValuePair timeValuePair = batchIterator.nextTimeValuePair();
+        long timestamp = timeValuePair.getTimestamp();
+        checkAndUpdatePreviousTimestamp(timestamp);
+        writeTimeAndValueToChunkWriter(chunkWriter, timeValuePair);
+        minStartTimestamp = Math.min(minStartTimestamp, timestamp);
+        maxEndTimestamp = Math.max(maxEndTimestamp, timestamp);
+        pointNum++;
+      }
+    }
+    summary.increaseRewritePointNum(pointNum);
+    if (pointNum > 0) {
+      fileWriter.writeChunk(chunkWriter);
+    }
+  }
+
+  private void writeTimeAndValueToChunkWriter(
+      ChunkWriterImpl chunkWriter, TimeValuePair timeValuePair) {
+    switch (chunkWriter.getDataType()) {
+      case TEXT:
+      case BLOB:
+      case STRING:
+        chunkWriter.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBinary());
+        break;
+      case FLOAT:
+        chunkWriter.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getFloat());
+        break;
+      case DOUBLE:
+        chunkWriter.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getDouble());
+        break;
+      case BOOLEAN:
+        chunkWriter.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBoolean());
+        break;
+      case INT64:
+      case TIMESTAMP:
+        chunkWriter.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getLong());
+        break;
+      case INT32:
+      case DATE:
+        chunkWriter.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getInt());
+        break;
+      default:
+        throw new UnsupportedOperationException("Unknown data type " + chunkWriter.getDataType());
+    }
+  }
+
+  private void checkAndUpdatePreviousTimestamp(long currentWritingTimestamp) {
+    if (currentWritingTimestamp <= lastWriteTimestamp) {
+      throw new CompactionLastTimeCheckFailedException(
+          device, measurement, currentWritingTimestamp, lastWriteTimestamp);
+    } else {
+      lastWriteTimestamp = currentWritingTimestamp;
+    }
+  }
+}
@@ -232,6 +232,11 @@ public class ReadChunkAlignedSeriesCompactionExecutor {
       valueChunks.add(getChunkLoader(reader, (ChunkMetadata) chunkMetadata));
     }
     summary.increaseProcessPointNum(pointNum);
+    compactWithAlignedChunk(timeChunk, valueChunks);
+  }
+
+  protected void compactWithAlignedChunk(ChunkLoader timeChunk, List<ChunkLoader> valueChunks)
+      throws IOException, PageException {
     if (flushController.canFlushCurrentChunkWriter()) {
       flushCurrentChunkWriter();
     }
@@ -286,7 +291,7 @@ public class ReadChunkAlignedSeriesCompactionExecutor {
     writer.markEndingWritingAligned();
   }
 
-  private void compactAlignedChunkByDeserialize(
+  protected void compactAlignedChunkByDeserialize(
       ChunkLoader timeChunk, List<ChunkLoader> valueChunks) throws PageException, IOException {
     List<PageLoader> timeColumnPageList = timeChunk.getPages();
     List<List<PageLoader>> pageListOfAllValueColumns = new ArrayList<>(valueChunks.size());
@@ -109,6 +109,17 @@ public abstract class AbstractInnerCompactionWriter extends AbstractCompactionWr
     fileWriter.endChunkGroup();
   }
 
+  /**
+   * Write the chunks of a device which are compacted into a memory buffer as a chunk group of the
+   * target file.
+   */
+  public void writeBufferedChunkGroup(IDeviceID deviceId, CompactionTsFileWriter buffer)
+      throws IOException {
+    startChunkGroup(deviceId, true);
+    fileWriter.writeBufferedChunks(buffer);
+    endChunkGroup();
+  }
+
   @Override
   public void endMeasurement(int subTaskId) throws IOException {
     sealChunk(fileWriter, chunkWriters[subTaskId], subTaskId);
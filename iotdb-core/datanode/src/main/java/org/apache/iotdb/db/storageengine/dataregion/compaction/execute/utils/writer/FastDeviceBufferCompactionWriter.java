@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileWriter;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writer of a sub task which compacts an aligned device in parallel with the other devices of an
+ * inner space compaction. The chunks of the device are kept in memory, and they are written to the
+ * target file by {@link AbstractInnerCompactionWriter#writeBufferedChunkGroup} in the order of
+ * devices.
+ */
+public class FastDeviceBufferCompactionWriter extends FastInnerCompactionWriter {
+
+  public FastDeviceBufferCompactionWriter(List<TsFileResource> targetFileResources)
+      throws IOException {
+    super(targetFileResources);
+    fileWriter =
+        CompactionTsFileWriter.createMemoryBuffer(
+            targetFileResources.get(0).isSeq()
+                ? CompactionType.INNER_SEQ_COMPACTION
+                : CompactionType.INNER_UNSEQ_COMPACTION);
+  }
+
+  @Override
+  public void startChunkGroup(IDeviceID deviceId, boolean isAlign) {
+    this.isAlign = isAlign;
+    this.deviceId = deviceId;
+  }
+
+  @Override
+  public void endChunkGroup() {
+    // the chunk group is written by the writer of the target file
+  }
+
+  @Override
+  public void endFile() {
+    // the buffer is not a file
+  }
+
+  @Override
+  public void checkAndMayFlushChunkMetadata() {
+    // the chunk metadata is kept until the chunks are written to the target file
+  }
+
+  @Override
+  public long getWriterSize() throws IOException {
+    return fileWriter.getPos();
+  }
+
+  public CompactionTsFileWriter getBuffer() {
+    return fileWriter;
+  }
+}
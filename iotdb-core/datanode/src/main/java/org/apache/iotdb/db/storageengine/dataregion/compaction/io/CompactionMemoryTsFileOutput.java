@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
+
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.write.writer.TsFileOutput;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A TsFileOutput in memory, which holds the chunks of a device compacted by a sub task until they
+ * are copied into the target file.
+ */
+public class CompactionMemoryTsFileOutput extends OutputStream implements TsFileOutput {
+
+  private final PublicBAOS buffer = new PublicBAOS();
+
+  @Override
+  public void write(int b) {
+    buffer.write(b);
+  }
+
+  @Override
+  public void write(byte[] b) {
+    buffer.write(b, 0, b.length);
+  }
+
+  @Override
+  public void write(byte b) {
+    buffer.write(b);
+  }
+
+  @Override
+  public void write(ByteBuffer b) {
+    write(b.array());
+  }
+
+  @Override
+  public void write(byte[] buf, int start, int length) {
+    buffer.write(buf, start, length);
+  }
+
+  @Override
+  public long getPosition() {
+    return buffer.size();
+  }
+
+  @Override
+  public void close() {
+    buffer.reset();
+  }
+
+  @Override
+  public OutputStream wrapAsStream() {
+    return this;
+  }
+
+  @Override
+  public void flush() {
+    // nothing to flush
+  }
+
+  @Override
+  public void truncate(long size) {
+    buffer.truncate((int) size);
+  }
+
+  @Override
+  public void force() {
+    // nothing to force
+  }
+
+  public byte[] getBuf() {
+    return buffer.getBuf();
+  }
+
+  public int size() {
+    return buffer.size();
+  }
+}
@@ -19,12 +19,17 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.metrics.CompactionMetrics;
+import org.apache.iotdb.db.service.metrics.DirectIOMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+import org.apache.iotdb.db.utils.io.DirectIOUtils;
 
+import org.apache.tsfile.common.constant.TsFileConstant;
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.header.ChunkHeader;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.TableSchema;
@@ -37,9 +42,12 @@ import org.apache.tsfile.write.chunk.IChunkWriter;
 import org.apache.tsfile.write.record.Tablet.ColumnCategory;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -51,15 +59,37 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
   private boolean isEmptyTargetFile = true;
   private IDeviceID currentDeviceId;
 
+  // the writes of a memory buffer are recorded when the buffered chunks are copied into a file
+  private final boolean isMemoryBuffer;
+
   public CompactionTsFileWriter(File file, long maxMetadataSize, CompactionType type)
       throws IOException {
     super(file, maxMetadataSize);
     this.type = type;
+    this.isMemoryBuffer = false;
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableCompactionDirectIO()) {
+      super.out = DirectIOUtils.reopenOutput(super.out, file, DirectIOMetrics.COMPACTION);
+    }
     super.out =
         new CompactionTsFileOutput(
             super.out, CompactionTaskManager.getInstance().getMergeWriteRateLimiter());
   }
 
+  private CompactionTsFileWriter(CompactionMemoryTsFileOutput output, CompactionType type) {
+    super(output, false);
+    this.type = type;
+    this.isMemoryBuffer = true;
+    this.maxMetadataSize = Long.MAX_VALUE;
+  }
+
+  /**
+   * Create a writer which keeps the chunks in memory, the chunks are copied into a target file by
+   * {@link #writeBufferedChunks(CompactionTsFileWriter)}.
+   */
+  public static CompactionTsFileWriter createMemoryBuffer(CompactionType type) {
+    return new CompactionTsFileWriter(new CompactionMemoryTsFileOutput(), type);
+  }
+
   public void markStartingWritingAligned() {
     isWritingAligned = true;
   }
@@ -76,11 +106,9 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
     }
     chunkWriter.writeToFileWriter(this);
     long writtenDataSize = this.getPos() - beforeOffset;
-    CompactionMetrics.getInstance()
-        .recordWriteInfo(
-            type,
-            isAligned ? CompactionIoDataType.ALIGNED : CompactionIoDataType.NOT_ALIGNED,
-            writtenDataSize);
+    recordWriteInfo(
+        isAligned ? CompactionIoDataType.ALIGNED : CompactionIoDataType.NOT_ALIGNED,
+        writtenDataSize);
   }
 
   @Override
@@ -91,11 +119,9 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
     }
     super.writeChunk(chunk, chunkMetadata);
     long writtenDataSize = this.getPos() - beforeOffset;
-    CompactionMetrics.getInstance()
-        .recordWriteInfo(
-            type,
-            isWritingAligned ? CompactionIoDataType.ALIGNED : CompactionIoDataType.NOT_ALIGNED,
-            writtenDataSize);
+    recordWriteInfo(
+        isWritingAligned ? CompactionIoDataType.ALIGNED : CompactionIoDataType.NOT_ALIGNED,
+        writtenDataSize);
   }
 
   @Override
@@ -110,14 +136,13 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
     super.writeEmptyValueChunk(
         measurementId, compressionType, tsDataType, encodingType, statistics);
     long writtenDataSize = this.getPos() - beforeOffset;
-    CompactionMetrics.getInstance()
-        .recordWriteInfo(type, CompactionIoDataType.ALIGNED, writtenDataSize);
+    recordWriteInfo(CompactionIoDataType.ALIGNED, writtenDataSize);
   }
 
   @Override
   public int checkMetadataSizeAndMayFlush() throws IOException {
     int size = super.checkMetadataSizeAndMayFlush();
-    CompactionMetrics.getInstance().recordWriteInfo(type, CompactionIoDataType.METADATA, size);
+    recordWriteInfo(CompactionIoDataType.METADATA, size);
     return size;
   }
 
@@ -146,8 +171,40 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
     long beforeSize = this.getPos();
     super.endFile();
     long writtenDataSize = this.getPos() - beforeSize;
-    CompactionMetrics.getInstance()
-        .recordWriteInfo(type, CompactionIoDataType.METADATA, writtenDataSize);
+    recordWriteInfo(CompactionIoDataType.METADATA, writtenDataSize);
+  }
+
+  /**
+   * Copy the chunks of a memory buffer into this file in the order they are written. The chunk
+   * groups of the buffer are not copied, so this should be called between {@link
+   * #startChunkGroup(IDeviceID)} and {@link #endChunkGroup()} of the device the chunks belong to.
+   */
+  public void writeBufferedChunks(CompactionTsFileWriter buffer) throws IOException {
+    CompactionMemoryTsFileOutput bufferOutput = (CompactionMemoryTsFileOutput) buffer.out;
+    byte[] bytes = bufferOutput.getBuf();
+    int size = bufferOutput.size();
+    for (ChunkMetadata chunkMetadata : buffer.chunkMetadataList) {
+      int offset = (int) chunkMetadata.getOffsetOfChunkHeader();
+      ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes, offset, size - offset);
+      ChunkHeader chunkHeader = ChunkHeader.deserializeFrom(inputStream, (byte) inputStream.read());
+      int dataOffset = size - inputStream.available();
+      // the output writes the whole backing array of a ByteBuffer
+      ByteBuffer chunkData =
+          ByteBuffer.wrap(
+              Arrays.copyOfRange(bytes, dataOffset, dataOffset + chunkHeader.getDataSize()));
+      isWritingAligned =
+          (chunkHeader.getChunkType()
+                  & (TsFileConstant.TIME_COLUMN_MASK | TsFileConstant.VALUE_COLUMN_MASK))
+              != 0;
+      writeChunk(new Chunk(chunkHeader, chunkData), chunkMetadata);
+    }
+    isWritingAligned = false;
+  }
+
+  private void recordWriteInfo(CompactionIoDataType dataType, long writtenDataSize) {
+    if (!isMemoryBuffer) {
+      CompactionMetrics.getInstance().recordWriteInfo(type, dataType, writtenDataSize);
+    }
   }
 
   public boolean isEmptyTargetFile() {
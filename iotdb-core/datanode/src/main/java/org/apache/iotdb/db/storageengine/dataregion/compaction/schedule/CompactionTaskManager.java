@@ -97,6 +97,9 @@ public class CompactionTaskManager implements IService {
               ? Double.MAX_VALUE
               : config.getCompactionReadThroughputMbPerSec() * 1024.0 * 1024.0);
 
+  // workers whose id is not less than this number stop taking new tasks
+  private volatile int activeCompactionWorkerNum = Integer.MAX_VALUE;
+
   private volatile boolean init = false;
   private AtomicLong compactionConfigVersion = new AtomicLong(0);
 
@@ -125,6 +128,7 @@ public class CompactionTaskManager implements IService {
       candidateCompactionTaskQueue.regsitPollLastHook(AbstractCompactionTask::handleTaskCleanup);
       init = true;
     }
+    CompactionThrottleController.getInstance().start();
     logger.info("Compaction task manager started.");
   }
 
@@ -154,6 +158,7 @@ public class CompactionTaskManager implements IService {
   @Override
   public void stop() {
     stopAllCompactionWorker = true;
+    CompactionThrottleController.getInstance().stop();
     if (taskExecutionPool != null) {
       subCompactionTaskExecutionPool.shutdownNow();
       taskExecutionPool.shutdownNow();
@@ -306,6 +311,16 @@ public class CompactionTaskManager implements IService {
     setRate(compactionReadThroughputRateLimiter, throughputMbPerSec * 1024.0 * 1024.0);
   }
 
+  public int getActiveCompactionWorkerNum() {
+    return Math.min(
+        activeCompactionWorkerNum,
+        IoTDBDescriptor.getInstance().getConfig().getCompactionThreadCount());
+  }
+
+  public void setActiveCompactionWorkerNum(int activeCompactionWorkerNum) {
+    this.activeCompactionWorkerNum = activeCompactionWorkerNum;
+  }
+
   private void setRate(RateLimiter rateLimiter, double rate) {
     // if throughput = 0, disable rate limiting
     if (rate <= 0) {
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.schedule;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.metric.QueryMetricsManager;
+import org.apache.iotdb.db.service.metrics.CompactionThrottleMetrics;
+import org.apache.iotdb.db.service.metrics.FileMetrics;
+import org.apache.iotdb.db.storageengine.dataregion.flush.FlushManager;
+import org.apache.iotdb.metrics.metricsets.disk.IDiskMetricsManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CompactionThrottleController adjusts the compaction rate limits and the number of active
+ * compaction workers periodically. The configured limits are scaled by a ratio, which is halved
+ * when the p99 latency of recent queries or the disk utilization exceeds its threshold, increased
+ * when flushing or unsequence files pile up, and moved back to 1 otherwise.
+ */
+public class CompactionThrottleController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger("COMPACTION");
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final double DECREASE_FACTOR = 0.5;
+  private static final double INCREASE_STEP = 0.1;
+
+  private ScheduledExecutorService throttleExecutor;
+  private IDiskMetricsManager diskMetricsManager;
+  private boolean metricsRegistered = false;
+
+  private volatile double throttleRatio = 1.0;
+  private volatile long lastQueryLatencyP99InMs = -1;
+  private volatile double lastMaxDiskUtil = 0;
+  private long lastUnseqFileNum = 0;
+  // the baseline of the disk utilization, kept apart from the disk metrics so that sampling does
+  // not shift the intervals of the exported metrics
+  private Map<String, Long> lastIoBusyTimeForDisk = Collections.emptyMap();
+  private long lastIoBusyTimeSampleTime = 0;
+
+  private CompactionThrottleController() {}
+
+  public static CompactionThrottleController getInstance() {
+    return CompactionThrottleControllerHolder.INSTANCE;
+  }
+
+  public synchronized void start() {
+    if (!CONFIG.isEnableAdaptiveCompactionThrottle() || throttleExecutor != null) {
+      return;
+    }
+    diskMetricsManager = IDiskMetricsManager.getDiskMetricsManager();
+    lastUnseqFileNum = FileMetrics.getInstance().getFileCount(false);
+    sampleMaxDiskUtil();
+    throttleExecutor =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.COMPACTION_THROTTLE.getName());
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        throttleExecutor,
+        this::adjust,
+        CONFIG.getAdaptiveCompactionThrottleIntervalInMs(),
+        CONFIG.getAdaptiveCompactionThrottleIntervalInMs(),
+        TimeUnit.MILLISECONDS);
+    if (!metricsRegistered) {
+      MetricService.getInstance().addMetricSet(new CompactionThrottleMetrics(this));
+      metricsRegistered = true;
+    }
+    LOGGER.info("Adaptive compaction throttle started.");
+  }
+
+  public synchronized void stop() {
+    if (throttleExecutor == null) {
+      return;
+    }
+    throttleExecutor.shutdownNow();
+    throttleExecutor = null;
+    throttleRatio = 1.0;
+    apply(throttleRatio);
+    LOGGER.info("Adaptive compaction throttle stopped.");
+  }
+
+  private void adjust() {
+    long queryLatencyP99 = QueryMetricsManager.getInstance().getRecentQueryLatencyP99();
+    lastQueryLatencyP99InMs =
+        queryLatencyP99 < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(queryLatencyP99);
+
+    double maxDiskUtil = sampleMaxDiskUtil();
+    lastMaxDiskUtil = maxDiskUtil;
+
+    long unseqFileNum = FileMetrics.getInstance().getFileCount(false);
+    boolean hasBacklog =
+        FlushManager.getInstance().getNumberOfPendingTasks() > 0 || unseqFileNum > lastUnseqFileNum;
+    lastUnseqFileNum = unseqFileNum;
+
+    boolean isUnderPressure =
+        lastQueryLatencyP99InMs > CONFIG.getAdaptiveCompactionQueryLatencyThresholdInMs()
+            || maxDiskUtil > CONFIG.getAdaptiveCompactionDiskUtilThreshold();
+    double nextRatio =
+        computeNextRatio(
+            throttleRatio,
+            isUnderPressure,
+            hasBacklog,
+            CONFIG.getAdaptiveCompactionMinThrottleRatio(),
+            CONFIG.getAdaptiveCompactionMaxThrottleRatio());
+    if (nextRatio != throttleRatio) {
+      LOGGER.info(
+          "Compaction throttle ratio is adjusted from {} to {}, query latency p99: {}ms, "
+              + "max disk util: {}, has backlog: {}",
+          throttleRatio,
+          nextRatio,
+          lastQueryLatencyP99InMs,
+          maxDiskUtil,
+          hasBacklog);
+    }
+    throttleRatio = nextRatio;
+    apply(throttleRatio);
+  }
+
+  /** The max utilization of the disks since the last sample. */
+  private double sampleMaxDiskUtil() {
+    Map<String, Long> ioBusyTimeForDisk = diskMetricsManager.readIoBusyTimeForDisk();
+    long sampleTime = System.currentTimeMillis();
+    long interval = sampleTime - lastIoBusyTimeSampleTime;
+    double maxDiskUtil = 0;
+    for (Map.Entry<String, Long> entry : ioBusyTimeForDisk.entrySet()) {
+      Long lastIoBusyTime = lastIoBusyTimeForDisk.get(entry.getKey());
+      if (lastIoBusyTime != null && interval > 0) {
+        maxDiskUtil =
+            Math.max(maxDiskUtil, (double) (entry.getValue() - lastIoBusyTime) / interval);
+      }
+    }
+    lastIoBusyTimeForDisk = ioBusyTimeForDisk;
+    lastIoBusyTimeSampleTime = sampleTime;
+    return maxDiskUtil;
+  }
+
+  /**
+   * Compute the next throttle ratio. Pressure on queries or disks takes precedence over the backlog
+   * of flushing and unsequence files.
+   */
+  public static double computeNextRatio(
+      double currentRatio,
+      boolean isUnderPressure,
+      boolean hasBacklog,
+      double minRatio,
+      double maxRatio) {
+    double nextRatio;
+    if (isUnderPressure) {
+      nextRatio = currentRatio * DECREASE_FACTOR;
+    } else if (hasBacklog) {
+      nextRatio = currentRatio + INCREASE_STEP;
+    } else if (currentRatio < 1) {
+      nextRatio = Math.min(1, currentRatio + INCREASE_STEP);
+    } else {
+      nextRatio = Math.max(1, currentRatio - INCREASE_STEP);
+    }
+    return Math.max(minRatio, Math.min(maxRatio, nextRatio));
+  }
+
+  private void apply(double ratio) {
+    CompactionTaskManager compactionTaskManager = CompactionTaskManager.getInstance();
+    compactionTaskManager.setWriteMergeRate(
+        scale(CONFIG.getCompactionWriteThroughputMbPerSec(), ratio));
+    compactionTaskManager.setCompactionReadThroughputRate(
+        scale(CONFIG.getCompactionReadThroughputMbPerSec(), ratio));
+    compactionTaskManager.setCompactionReadOperationRate(
+        scale(CONFIG.getCompactionReadOperationPerSec(), ratio));
+    int threadCount = CONFIG.getCompactionThreadCount();
+    compactionTaskManager.setActiveCompactionWorkerNum(
+        Math.max(1, Math.min(threadCount, (int) Math.ceil(threadCount * ratio))));
+  }
+
+  private static double scale(double configuredRate, double ratio) {
+    // unlimited rate is kept unlimited
+    return configuredRate <= 0 ? configuredRate : configuredRate * ratio;
+  }
+
+  public double getThrottleRatio() {
+    return throttleRatio;
+  }
+
+  public long getLastQueryLatencyP99InMs() {
+    return lastQueryLatencyP99InMs;
+  }
+
+  public double getLastMaxDiskUtil() {
+    return lastMaxDiskUtil;
+  }
+
+  private static class CompactionThrottleControllerHolder {
+    private static final CompactionThrottleController INSTANCE = new CompactionThrottleController();
+  }
+}
@@ -38,6 +38,7 @@ import java.util.concurrent.TimeoutException;
 
 public class CompactionWorker implements Runnable {
   private static final Logger LOGGER = LoggerFactory.getLogger("COMPACTION");
+  private static final long PAUSED_WORKER_CHECK_INTERVAL_IN_MS = 1000L;
   private final int threadId;
   private final FixedPriorityBlockingQueue<AbstractCompactionTask> compactionTaskQueue;
 
@@ -59,6 +60,15 @@ public class CompactionWorker implements Runnable {
         }
         return;
       }
+      if (threadId >= CompactionTaskManager.getInstance().getActiveCompactionWorkerNum()) {
+        // paused by the adaptive compaction throttle
+        try {
+          TimeUnit.MILLISECONDS.sleep(PAUSED_WORKER_CHECK_INTERVAL_IN_MS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        continue;
+      }
       AbstractCompactionTask task;
       try {
         task = compactionTaskQueue.take();
@@ -57,6 +57,7 @@ public abstract class AbstractInnerSpaceEstimator extends AbstractCompactionEsti
       CompactionTaskInfo taskInfo = calculatingCompactionTaskInfo(resources);
       cost = calculatingMetadataMemoryCost(taskInfo);
       cost += calculatingDataMemoryCost(taskInfo);
+      cost += CompactionEstimateUtils.estimateSketchCostInCompaction(resources);
     } finally {
       CompactionEstimateUtils.releaseReadLock(resources);
     }
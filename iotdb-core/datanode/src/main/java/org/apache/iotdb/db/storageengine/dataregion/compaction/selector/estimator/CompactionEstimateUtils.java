@@ -23,6 +23,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionTsFileReader;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 
 import org.apache.tsfile.file.metadata.ChunkMetadata;
@@ -118,12 +119,29 @@ public class CompactionEstimateUtils {
           }
         }
       }
-      return cost + deviceMetadataSizeMap.values().stream().max(Long::compareTo).orElse(0L);
+      return cost
+          + deviceMetadataSizeMap.values().stream().max(Long::compareTo).orElse(0L)
+          + estimateSketchCostInCompaction(resources);
     } finally {
       CompactionEstimateUtils.releaseReadLock(resources);
     }
   }
 
+  /**
+   * The sketch sidecars of all the source files are read at the end of the compaction and merged
+   * into the sidecar of each target file, which is at most as large as all of them.
+   */
+  public static long estimateSketchCostInCompaction(List<TsFileResource> resources) {
+    if (!IoTDBDescriptor.getInstance().getConfig().isEnableTsFileSketch()) {
+      return 0L;
+    }
+    long cost = 0L;
+    for (TsFileResource resource : resources) {
+      cost += TsFileSketch.estimateSizeOfSidecar(resource.getTsFile());
+    }
+    return 2 * cost;
+  }
+
   public static Map<IDeviceID, Long> getDeviceMetadataSizeMap(CompactionTsFileReader reader)
       throws IOException {
     Map<IDeviceID, Long> deviceMetadataSizeMap = new HashMap<>();
@@ -222,14 +222,7 @@ public class RewriteCrossSpaceCompactionSelector implements ICrossSpaceSelector
           new ArrayList<>(taskResource.getUnseqFiles());
       newSelectedUnseqResources.add(unseqFile);
 
-      long roughEstimatedMemoryCost =
-          compactionEstimator.roughEstimateCrossCompactionMemory(
-              newSelectedSeqResources, newSelectedUnseqResources);
-      long memoryCost =
-          CompactionEstimateUtils.shouldAccurateEstimate(roughEstimatedMemoryCost)
-              ? roughEstimatedMemoryCost
-              : compactionEstimator.estimateCrossCompactionMemory(
-                  newSelectedSeqResources, newSelectedUnseqResources);
+      long memoryCost = estimateMemoryCost(newSelectedSeqResources, newSelectedUnseqResources);
       if (!canAddToTaskResource(taskResource, unseqFile, targetSeqFiles, memoryCost)) {
         break;
       }
@@ -245,6 +238,15 @@ public class RewriteCrossSpaceCompactionSelector implements ICrossSpaceSelector
     return taskResource;
   }
 
+  protected long estimateMemoryCost(
+      List<TsFileResource> seqResources, List<TsFileResource> unseqResources) throws IOException {
+    long roughEstimatedMemoryCost =
+        compactionEstimator.roughEstimateCrossCompactionMemory(seqResources, unseqResources);
+    return CompactionEstimateUtils.shouldAccurateEstimate(roughEstimatedMemoryCost)
+        ? roughEstimatedMemoryCost
+        : compactionEstimator.estimateCrossCompactionMemory(seqResources, unseqResources);
+  }
+
   private TsFileResourceCandidate getLatestSealedSeqFile(
       List<TsFileResourceCandidate> seqResourceCandidateList) {
     for (int i = seqResourceCandidateList.size() - 1; i >= 0; i--) {
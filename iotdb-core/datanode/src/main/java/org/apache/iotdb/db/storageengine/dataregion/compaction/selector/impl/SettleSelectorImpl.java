@@ -24,6 +24,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.ICompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.LightweightSettleCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.SettleCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
@@ -266,6 +267,9 @@ public class SettleSelectorImpl implements ISettleSelector {
   private List<SettleCompactionTask> createTask(
       List<TsFileResource> fullyDirtyResources,
       List<PartiallyDirtyResource> partiallyDirtyResourceList) {
+    if (isLightweightSettle()) {
+      partiallyDirtyResourceList = splitIntoSingleFileGroups(partiallyDirtyResourceList);
+    }
     List<SettleCompactionTask> tasks = new ArrayList<>();
     for (int i = 0; i < partiallyDirtyResourceList.size(); i++) {
       if (i == 0) {
@@ -300,7 +304,36 @@ public class SettleSelectorImpl implements ISettleSelector {
     return tasks;
   }
 
+  /**
+   * Each partially dirty file is settled by a task of its own in lightweight settle, so that the
+   * chunks without deletion can be copied to the target file directly. The first group is kept even
+   * if it is empty, because the fully dirty files are put into the first task.
+   */
+  private List<PartiallyDirtyResource> splitIntoSingleFileGroups(
+      List<PartiallyDirtyResource> partiallyDirtyResourceList) {
+    List<PartiallyDirtyResource> singleFileGroups = new ArrayList<>();
+    for (PartiallyDirtyResource partiallyDirtyResource : partiallyDirtyResourceList) {
+      for (TsFileResource resource : partiallyDirtyResource.getResources()) {
+        PartiallyDirtyResource singleFileGroup = new PartiallyDirtyResource();
+        singleFileGroup.resources.add(resource);
+        singleFileGroups.add(singleFileGroup);
+      }
+    }
+    if (singleFileGroups.isEmpty()) {
+      singleFileGroups.add(new PartiallyDirtyResource());
+    }
+    return singleFileGroups;
+  }
+
+  // chunks of an unsequence file may overlap with each other, so they can not be copied directly
+  private boolean isLightweightSettle() {
+    return isSeq && config.isEnableLightweightSettleCompaction();
+  }
+
   private ICompactionPerformer createCompactionPerformer() {
+    if (isLightweightSettle()) {
+      return new LightweightSettleCompactionPerformer();
+    }
     return isSeq ? context.getSeqCompactionPerformer() : context.getUnseqCompactionPerformer();
   }
 
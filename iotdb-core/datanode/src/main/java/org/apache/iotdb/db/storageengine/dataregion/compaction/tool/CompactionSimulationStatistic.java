@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.tool;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class CompactionSimulationStatistic {
+
+  private long flushedFileNum = 0;
+  private long flushedFileSize = 0;
+
+  private final Map<CompactionTaskType, Long> taskNum = new EnumMap<>(CompactionTaskType.class);
+  private final Map<CompactionTaskType, Long> writtenFileSize =
+      new EnumMap<>(CompactionTaskType.class);
+
+  private final List<Snapshot> snapshots = new ArrayList<>();
+
+  public void recordFlush(long fileSize) {
+    flushedFileNum++;
+    flushedFileSize += fileSize;
+  }
+
+  public void recordTask(CompactionTaskType taskType, long writtenSize) {
+    taskNum.merge(taskType, 1L, Long::sum);
+    writtenFileSize.merge(taskType, writtenSize, Long::sum);
+  }
+
+  public void addSnapshot(Snapshot snapshot) {
+    snapshots.add(snapshot);
+  }
+
+  public long getFlushedFileNum() {
+    return flushedFileNum;
+  }
+
+  public long getFlushedFileSize() {
+    return flushedFileSize;
+  }
+
+  public long getTaskNum(CompactionTaskType taskType) {
+    return taskNum.getOrDefault(taskType, 0L);
+  }
+
+  public long getWrittenFileSize(CompactionTaskType taskType) {
+    return writtenFileSize.getOrDefault(taskType, 0L);
+  }
+
+  public long getTotalCompactionWrittenFileSize() {
+    return writtenFileSize.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /** The bytes written by flushes and compactions divided by the bytes written by flushes. */
+  public double getWriteAmplification() {
+    return flushedFileSize == 0
+        ? 0
+        : (double) (flushedFileSize + getTotalCompactionWrittenFileSize()) / flushedFileSize;
+  }
+
+  public List<Snapshot> getSnapshots() {
+    return snapshots;
+  }
+
+  public static class Snapshot {
+    private final long step;
+    private final int seqFileNum;
+    private final int unseqFileNum;
+    private final long seqFileSize;
+    private final long unseqFileSize;
+    // the number of files to read for a query on all data of one device
+    private final double avgReadFileNum;
+    private final int maxReadFileNum;
+
+    public Snapshot(
+        long step,
+        int seqFileNum,
+        int unseqFileNum,
+        long seqFileSize,
+        long unseqFileSize,
+        double avgReadFileNum,
+        int maxReadFileNum) {
+      this.step = step;
+      this.seqFileNum = seqFileNum;
+      this.unseqFileNum = unseqFileNum;
+      this.seqFileSize = seqFileSize;
+      this.unseqFileSize = unseqFileSize;
+      this.avgReadFileNum = avgReadFileNum;
+      this.maxReadFileNum = maxReadFileNum;
+    }
+
+    public long getStep() {
+      return step;
+    }
+
+    public int getSeqFileNum() {
+      return seqFileNum;
+    }
+
+    public int getUnseqFileNum() {
+      return unseqFileNum;
+    }
+
+    public long getSeqFileSize() {
+      return seqFileSize;
+    }
+
+    public long getUnseqFileSize() {
+      return unseqFileSize;
+    }
+
+    public double getAvgReadFileNum() {
+      return avgReadFileNum;
+    }
+
+    public int getMaxReadFileNum() {
+      return maxReadFileNum;
+    }
+  }
+}
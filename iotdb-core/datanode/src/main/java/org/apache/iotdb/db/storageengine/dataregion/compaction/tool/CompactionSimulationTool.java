@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.tool;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerUnsequenceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A tool to compare the compaction settings before deploying them. It loads the TsFiles of a data
+ * region from the .resource files, replays a synthetic or recorded write pattern through the
+ * compaction selectors with {@link CompactionSimulator}, and reports the write amplification, the
+ * file number over time and the estimated read amplification. No data is read or written.
+ *
+ * <p>A line of the recorded write pattern describes a flushed TsFile as {@code
+ * seq|unseq,fileSizeInByte,startTime,endTime}, the TsFile contains all the devices.
+ */
+public class CompactionSimulationTool {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final String RESOURCE_DIRS_ARG = "resource_dirs";
+  private static final String WRITE_PATTERN_ARG = "write_pattern";
+  private static final String FLUSH_NUM_ARG = "flush_num";
+  public static final int DEFAULT_FLUSH_NUM = 1000;
+  private static final String FLUSH_FILE_SIZE_ARG = "flush_file_size_in_mb";
+  public static final int DEFAULT_FLUSH_FILE_SIZE_IN_MB = 16;
+  private static final String FLUSH_TIME_RANGE_ARG = "flush_time_range";
+  public static final long DEFAULT_FLUSH_TIME_RANGE = 3_600_000L;
+  private static final String DEVICE_NUM_ARG = "device_num";
+  public static final int DEFAULT_DEVICE_NUM = 100;
+  private static final String UNSEQ_RATIO_ARG = "unseq_ratio";
+  public static final double DEFAULT_UNSEQ_RATIO = 0.1;
+  private static final String SEED_ARG = "seed";
+  private static final String REPORT_INTERVAL_ARG = "report_interval";
+  public static final int DEFAULT_REPORT_INTERVAL = 100;
+  private static final String INNER_SEQ_SELECTOR_ARG = "inner_seq_selector";
+  private static final String INNER_UNSEQ_SELECTOR_ARG = "inner_unseq_selector";
+
+  private static final String DEFAULT_DATABASE = "root.simulation";
+  private static final String DEFAULT_DATA_REGION = "0";
+  private static final long MB = 1024 * 1024L;
+
+  private List<String> resourceDirs = Collections.emptyList();
+  private String writePatternPath;
+  private int flushNum;
+  private long flushFileSize;
+  private long flushTimeRange;
+  private int deviceNum;
+  private double unseqRatio;
+  private long seed;
+  private int reportInterval;
+
+  public static void main(String[] args) throws IOException {
+    CompactionSimulationTool tool = new CompactionSimulationTool();
+    tool.parseArgs(args);
+    long startTime = System.currentTimeMillis();
+    tool.process();
+    System.out.printf(
+        "Total time cost: %.2fs\n", ((double) System.currentTimeMillis() - startTime) / 1000);
+  }
+
+  public void parseArgs(String[] args) {
+    CommandLineParser parser = new DefaultParser();
+    CommandLine commandLine;
+    try {
+      commandLine = parser.parse(createOptions(), args);
+    } catch (ParseException e) {
+      throw new RuntimeException(e);
+    }
+    String[] resourceDirsParam = commandLine.getOptionValues(RESOURCE_DIRS_ARG);
+    if (resourceDirsParam != null) {
+      resourceDirs = Arrays.asList(resourceDirsParam);
+    }
+    writePatternPath = commandLine.getOptionValue(WRITE_PATTERN_ARG);
+    flushNum =
+        Integer.parseInt(
+            getArgOrDefault(commandLine, FLUSH_NUM_ARG, String.valueOf(DEFAULT_FLUSH_NUM)));
+    flushFileSize =
+        Long.parseLong(
+                getArgOrDefault(
+                    commandLine,
+                    FLUSH_FILE_SIZE_ARG,
+                    String.valueOf(DEFAULT_FLUSH_FILE_SIZE_IN_MB)))
+            * MB;
+    flushTimeRange =
+        Long.parseLong(
+            getArgOrDefault(
+                commandLine, FLUSH_TIME_RANGE_ARG, String.valueOf(DEFAULT_FLUSH_TIME_RANGE)));
+    deviceNum =
+        Integer.parseInt(
+            getArgOrDefault(commandLine, DEVICE_NUM_ARG, String.valueOf(DEFAULT_DEVICE_NUM)));
+    unseqRatio =
+        Double.parseDouble(
+            getArgOrDefault(commandLine, UNSEQ_RATIO_ARG, String.valueOf(DEFAULT_UNSEQ_RATIO)));
+    seed = Long.parseLong(getArgOrDefault(commandLine, SEED_ARG, "0"));
+    reportInterval =
+        Integer.parseInt(
+            getArgOrDefault(
+                commandLine, REPORT_INTERVAL_ARG, String.valueOf(DEFAULT_REPORT_INTERVAL)));
+
+    String innerSeqSelector = commandLine.getOptionValue(INNER_SEQ_SELECTOR_ARG);
+    if (innerSeqSelector != null) {
+      config.setInnerSequenceCompactionSelector(
+          InnerSequenceCompactionSelector.getInnerSequenceCompactionSelector(innerSeqSelector));
+    }
+    String innerUnseqSelector = commandLine.getOptionValue(INNER_UNSEQ_SELECTOR_ARG);
+    if (innerUnseqSelector != null) {
+      config.setInnerUnsequenceCompactionSelector(
+          InnerUnsequenceCompactionSelector.getInnerUnsequenceCompactionSelector(
+              innerUnseqSelector));
+    }
+  }
+
+  private static Options createOptions() {
+    Options options = new Options();
+    options
+        .addOption(
+            Option.builder()
+                .argName(RESOURCE_DIRS_ARG)
+                .longOpt(RESOURCE_DIRS_ARG)
+                .hasArgs()
+                .desc("Dirs of the .resource files of one data region, searched recursively")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(WRITE_PATTERN_ARG)
+                .longOpt(WRITE_PATTERN_ARG)
+                .hasArg()
+                .desc("Recorded write pattern file, a synthetic pattern is used if absent")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(FLUSH_NUM_ARG)
+                .longOpt(FLUSH_NUM_ARG)
+                .hasArg()
+                .desc("Flush num of the synthetic pattern(default: " + DEFAULT_FLUSH_NUM + ")")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(FLUSH_FILE_SIZE_ARG)
+                .longOpt(FLUSH_FILE_SIZE_ARG)
+                .hasArg()
+                .desc(
+                    "Size of a flushed file of the synthetic pattern(default: "
+                        + DEFAULT_FLUSH_FILE_SIZE_IN_MB
+                        + ")")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(FLUSH_TIME_RANGE_ARG)
+                .longOpt(FLUSH_TIME_RANGE_ARG)
+                .hasArg()
+                .desc(
+                    "Time range of a flushed file of the synthetic pattern(default: "
+                        + DEFAULT_FLUSH_TIME_RANGE
+                        + ")")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(DEVICE_NUM_ARG)
+                .longOpt(DEVICE_NUM_ARG)
+                .hasArg()
+                .desc("Device num if no TsFile is loaded(default: " + DEFAULT_DEVICE_NUM + ")")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(UNSEQ_RATIO_ARG)
+                .longOpt(UNSEQ_RATIO_ARG)
+                .hasArg()
+                .desc(
+                    "Ratio of unseq flushes of the synthetic pattern(default: "
+                        + DEFAULT_UNSEQ_RATIO
+                        + ")")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(SEED_ARG)
+                .longOpt(SEED_ARG)
+                .hasArg()
+                .desc("Random seed of the synthetic pattern(default: 0)")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(REPORT_INTERVAL_ARG)
+                .longOpt(REPORT_INTERVAL_ARG)
+                .hasArg()
+                .desc("Flush num between two reports(default: " + DEFAULT_REPORT_INTERVAL + ")")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(INNER_SEQ_SELECTOR_ARG)
+                .longOpt(INNER_SEQ_SELECTOR_ARG)
+                .hasArg()
+                .desc("Inner sequence compaction selector(default: the configured one)")
+                .build())
+        .addOption(
+            Option.builder()
+                .argName(INNER_UNSEQ_SELECTOR_ARG)
+                .longOpt(INNER_UNSEQ_SELECTOR_ARG)
+                .hasArg()
+                .desc("Inner unsequence compaction selector(default: the configured one)")
+                .build());
+    return options;
+  }
+
+  private static String getArgOrDefault(CommandLine commandLine, String arg, String defaultValue) {
+    String value = commandLine.getOptionValue(arg);
+    return value == null ? defaultValue : value;
+  }
+
+  public void process() throws IOException {
+    List<TsFileResource> resources = loadResources();
+    CompactionSimulator simulator =
+        resources.isEmpty()
+            ? new CompactionSimulator(DEFAULT_DATABASE, DEFAULT_DATA_REGION, new File("simulation"))
+            : new CompactionSimulator(
+                resources.get(0).getDatabaseName(),
+                resources.get(0).getDataRegionId(),
+                resources
+                    .get(0)
+                    .getTsFile()
+                    .getParentFile()
+                    .getParentFile()
+                    .getParentFile()
+                    .getParentFile()
+                    .getParentFile());
+    long maxEndTime = -1;
+    for (TsFileResource resource : resources) {
+      simulator.addTsFile(resource);
+      if (resource.isSeq()) {
+        maxEndTime = Math.max(maxEndTime, resource.getFileEndTime());
+      }
+    }
+    System.out.printf("Loaded %d TsFiles%n", resources.size());
+
+    // the flushed files contain the devices of the loaded files if there are any
+    Set<IDeviceID> devices = new TreeSet<>();
+    for (TsFileResource resource : resources) {
+      devices.addAll(resource.getDevices());
+    }
+    for (int i = 0; devices.isEmpty() && i < deviceNum; i++) {
+      devices.add(IDeviceID.Factory.DEFAULT_FACTORY.create(DEFAULT_DATABASE + ".d" + i));
+    }
+    List<String> writePattern =
+        writePatternPath == null
+            ? generateWritePattern(maxEndTime + 1)
+            : Files.readAllLines(Paths.get(writePatternPath), StandardCharsets.UTF_8);
+
+    System.out.println(
+        "Step\tSeqFileNum\tUnseqFileNum\tFileSize(MB)\tAvgReadFileNum\tMaxReadFileNum");
+    printSnapshot(simulator.snapshot(0));
+    long step = 0;
+    for (String line : writePattern) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split(",");
+      long startTime = Long.parseLong(fields[2].trim());
+      long endTime = Long.parseLong(fields[3].trim());
+      Map<IDeviceID, long[]> deviceTimes = new LinkedHashMap<>();
+      for (IDeviceID device : devices) {
+        deviceTimes.put(device, new long[] {startTime, endTime});
+      }
+      simulator.flush(
+          "seq".equalsIgnoreCase(fields[0].trim()), Long.parseLong(fields[1].trim()), deviceTimes);
+      simulator.compact();
+      step++;
+      if (step % reportInterval == 0) {
+        printSnapshot(simulator.snapshot(step));
+      }
+    }
+    if (step % reportInterval != 0) {
+      printSnapshot(simulator.snapshot(step));
+    }
+    printStatistic(simulator.getStatistic());
+  }
+
+  private List<TsFileResource> loadResources() throws IOException {
+    List<File> resourceFiles = new ArrayList<>();
+    for (String resourceDir : resourceDirs) {
+      collectResourceFiles(new File(resourceDir), resourceFiles);
+    }
+    List<TsFileResource> resources = new ArrayList<>(resourceFiles.size());
+    for (File resourceFile : resourceFiles) {
+      String resourcePath = resourceFile.getPath();
+      File tsFile =
+          new File(
+              resourcePath.substring(
+                  0, resourcePath.length() - TsFileResource.RESOURCE_SUFFIX.length()));
+      // only the length of the TsFile is read, the file size of a flush is used if it is absent
+      TsFileResource resource =
+          new SimulatedTsFileResource(tsFile, tsFile.exists() ? tsFile.length() : flushFileSize);
+      resource.deserialize();
+      resources.add(resource);
+    }
+    return resources;
+  }
+
+  private static void collectResourceFiles(File dir, List<File> resourceFiles) {
+    if (!dir.isDirectory()) {
+      System.out.println(dir + " is not a correct path");
+      return;
+    }
+    for (File file : Objects.requireNonNull(dir.listFiles())) {
+      if (file.isDirectory()) {
+        collectResourceFiles(file, resourceFiles);
+      } else if (file.getName()
+          .endsWith(TsFileConstant.TSFILE_SUFFIX + TsFileResource.RESOURCE_SUFFIX)) {
+        resourceFiles.add(file);
+      }
+    }
+  }
+
+  private List<String> generateWritePattern(long startTime) {
+    Random random = new Random(seed);
+    List<String> writePattern = new ArrayList<>(flushNum);
+    long seqTime = Math.max(startTime, 0);
+    long firstTime = seqTime;
+    for (int i = 0; i < flushNum; i++) {
+      if (seqTime - firstTime >= flushTimeRange && random.nextDouble() < unseqRatio) {
+        // an unseq flush contains delayed data of a random time range in the past
+        long unseqStartTime =
+            firstTime + (long) (random.nextDouble() * (seqTime - firstTime - flushTimeRange));
+        writePattern.add(
+            String.format(
+                "unseq,%d,%d,%d", flushFileSize, unseqStartTime, unseqStartTime + flushTimeRange));
+      } else {
+        writePattern.add(
+            String.format("seq,%d,%d,%d", flushFileSize, seqTime, seqTime + flushTimeRange - 1));
+        seqTime += flushTimeRange;
+      }
+    }
+    return writePattern;
+  }
+
+  private static void printSnapshot(CompactionSimulationStatistic.Snapshot snapshot) {
+    System.out.printf(
+        "%d\t%d\t%d\t%d\t%.2f\t%d%n",
+        snapshot.getStep(),
+        snapshot.getSeqFileNum(),
+        snapshot.getUnseqFileNum(),
+        (snapshot.getSeqFileSize() + snapshot.getUnseqFileSize()) / MB,
+        snapshot.getAvgReadFileNum(),
+        snapshot.getMaxReadFileNum());
+  }
+
+  private static void printStatistic(CompactionSimulationStatistic statistic) {
+    System.out.println();
+    System.out.printf(
+        "Flushed files: %d, flushed size: %dMB%n",
+        statistic.getFlushedFileNum(), statistic.getFlushedFileSize() / MB);
+    for (CompactionTaskType taskType :
+        new CompactionTaskType[] {
+          CompactionTaskType.INNER_SEQ,
+          CompactionTaskType.INNER_UNSEQ,
+          CompactionTaskType.CROSS,
+          CompactionTaskType.INSERTION
+        }) {
+      System.out.printf(
+          "%s tasks: %d, written size: %dMB%n",
+          taskType, statistic.getTaskNum(taskType), statistic.getWrittenFileSize(taskType) / MB);
+    }
+    System.out.printf("Write amplification: %.2f%n", statistic.getWriteAmplification());
+  }
+}
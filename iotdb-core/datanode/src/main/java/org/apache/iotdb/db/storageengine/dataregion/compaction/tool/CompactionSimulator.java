@@ -0,0 +1,477 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.tool;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerUnsequenceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.RewriteCrossSpaceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.CrossCompactionTaskResource;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.InsertionCrossCompactionTaskResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * CompactionSimulator replays flushes through the real compaction selectors without touching any
+ * data. The TsFiles are represented by {@link SimulatedTsFileResource}s which only carry the file
+ * name, the file size and the time index, and a selected task is applied at once by replacing its
+ * source files with the target files it would generate.
+ *
+ * <p>The memory cost of cross space compaction is not simulated, because the estimators need the
+ * chunk metadata of the TsFiles.
+ */
+public class CompactionSimulator {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private final String databaseName;
+  private final String dataRegionId;
+  private final File baseDir;
+  private final TsFileManager tsFileManager;
+  private final CompactionSimulationStatistic statistic = new CompactionSimulationStatistic();
+
+  private long nextFileTimestamp = System.currentTimeMillis();
+  private long nextFileVersion = 0;
+
+  public CompactionSimulator(String databaseName, String dataRegionId, File baseDir) {
+    this.databaseName = databaseName;
+    this.dataRegionId = dataRegionId;
+    this.baseDir = baseDir;
+    this.tsFileManager = new TsFileManager(databaseName, dataRegionId, baseDir.getPath());
+  }
+
+  /** Add an existing TsFile, such as one loaded from a .resource file. */
+  public void addTsFile(TsFileResource resource) throws IOException {
+    TsFileNameGenerator.TsFileName tsFileName =
+        TsFileNameGenerator.getTsFileName(resource.getTsFile().getName());
+    nextFileTimestamp = Math.max(nextFileTimestamp, tsFileName.getTime() + 1);
+    nextFileVersion = Math.max(nextFileVersion, tsFileName.getVersion() + 1);
+    tsFileManager.keepOrderInsert(resource, resource.isSeq());
+  }
+
+  /**
+   * Simulate a flush which generates a TsFile of the given size containing the given time range of
+   * each device.
+   */
+  public TsFileResource flush(boolean sequence, long fileSize, Map<IDeviceID, long[]> deviceTimes)
+      throws IOException {
+    long startTime = Long.MAX_VALUE;
+    ArrayDeviceTimeIndex timeIndex = new ArrayDeviceTimeIndex();
+    for (Map.Entry<IDeviceID, long[]> entry : deviceTimes.entrySet()) {
+      timeIndex.updateStartTime(entry.getKey(), entry.getValue()[0]);
+      timeIndex.updateEndTime(entry.getKey(), entry.getValue()[1]);
+      startTime = Math.min(startTime, entry.getValue()[0]);
+    }
+    File partitionDir =
+        new File(
+            baseDir,
+            (sequence ? IoTDBConstant.SEQUENCE_FOLDER_NAME : IoTDBConstant.UNSEQUENCE_FOLDER_NAME)
+                + File.separator
+                + databaseName
+                + File.separator
+                + dataRegionId
+                + File.separator
+                + TimePartitionUtils.getTimePartitionId(startTime));
+    TsFileResource resource =
+        new SimulatedTsFileResource(
+            new File(
+                partitionDir,
+                TsFileNameGenerator.generateNewTsFileName(
+                    nextFileTimestamp++, nextFileVersion++, 0, 0)),
+            fileSize);
+    resource.setTimeIndex(timeIndex);
+    tsFileManager.keepOrderInsert(resource, sequence);
+    statistic.recordFlush(fileSize);
+    return resource;
+  }
+
+  /**
+   * Run one round of compaction scheduling on each time partition in the same order as {@link
+   * org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduler}, the
+   * selected tasks are finished immediately.
+   *
+   * @return the number of executed tasks
+   */
+  public int compact() throws IOException {
+    int taskNum = 0;
+    for (long timePartition : new TreeSet<>(tsFileManager.getTimePartitions())) {
+      CompactionScheduleContext context = new CompactionScheduleContext();
+      if (config.isEnableCrossSpaceCompaction()) {
+        taskNum += selectAndExecuteInsertionTask(timePartition, context);
+      }
+      if (config.isEnableSeqSpaceCompaction()) {
+        taskNum += selectAndExecuteInnerSpaceTasks(timePartition, true, context);
+      }
+      if (config.isEnableUnseqSpaceCompaction()) {
+        taskNum += selectAndExecuteInnerSpaceTasks(timePartition, false, context);
+      }
+      if (config.isEnableCrossSpaceCompaction()) {
+        taskNum += selectAndExecuteCrossSpaceTask(timePartition, context);
+      }
+    }
+    return taskNum;
+  }
+
+  private int selectAndExecuteInsertionTask(long timePartition, CompactionScheduleContext context)
+      throws IOException {
+    List<CrossCompactionTaskResource> selectedTasks =
+        new SimulatedCrossSpaceCompactionSelector(timePartition, context)
+            .selectInsertionCrossSpaceTask(
+                tsFileManager.getOrCreateSequenceListByTimePartition(timePartition),
+                tsFileManager.getOrCreateUnsequenceListByTimePartition(timePartition));
+    for (CrossCompactionTaskResource taskResource : selectedTasks) {
+      executeInsertionTask((InsertionCrossCompactionTaskResource) taskResource);
+    }
+    return selectedTasks.size();
+  }
+
+  private int selectAndExecuteInnerSpaceTasks(
+      long timePartition, boolean sequence, CompactionScheduleContext context) throws IOException {
+    List<InnerSpaceCompactionTask> selectedTasks;
+    boolean multiTarget;
+    if (sequence) {
+      selectedTasks =
+          config
+              .getInnerSequenceCompactionSelector()
+              .createInstance(databaseName, dataRegionId, timePartition, tsFileManager, context)
+              .selectInnerSpaceTask(
+                  tsFileManager.getOrCreateSequenceListByTimePartition(timePartition));
+      multiTarget =
+          config.getInnerSequenceCompactionSelector()
+              == InnerSequenceCompactionSelector.SIZE_TIERED_MULTI_TARGET;
+    } else {
+      selectedTasks =
+          config
+              .getInnerUnsequenceCompactionSelector()
+              .createInstance(databaseName, dataRegionId, timePartition, tsFileManager, context)
+              .selectInnerSpaceTask(
+                  tsFileManager.getOrCreateUnsequenceListByTimePartition(timePartition));
+      multiTarget =
+          config.getInnerUnsequenceCompactionSelector()
+              == InnerUnsequenceCompactionSelector.SIZE_TIERED_MULTI_TARGET;
+    }
+    for (InnerSpaceCompactionTask task : selectedTasks) {
+      executeInnerSpaceTask(task.getSelectedTsFileResourceList(), sequence, multiTarget);
+    }
+    return selectedTasks.size();
+  }
+
+  private int selectAndExecuteCrossSpaceTask(long timePartition, CompactionScheduleContext context)
+      throws IOException {
+    List<CrossCompactionTaskResource> selectedTasks =
+        new SimulatedCrossSpaceCompactionSelector(timePartition, context)
+            .selectCrossSpaceTask(
+                tsFileManager.getOrCreateSequenceListByTimePartition(timePartition),
+                tsFileManager.getOrCreateUnsequenceListByTimePartition(timePartition));
+    for (CrossCompactionTaskResource taskResource : selectedTasks) {
+      executeCrossSpaceTask(taskResource.getSeqFiles(), taskResource.getUnseqFiles());
+    }
+    return selectedTasks.size();
+  }
+
+  private void executeInsertionTask(InsertionCrossCompactionTaskResource taskResource)
+      throws IOException {
+    // the unseq file is moved into the sequence space without being rewritten
+    TsFileResource unseqFile = taskResource.toInsertUnSeqFile;
+    TsFileNameGenerator.TsFileName tsFileName =
+        TsFileNameGenerator.getTsFileName(unseqFile.getTsFile().getName());
+    String path = unseqFile.getTsFile().getParentFile().getPath();
+    int pos = path.lastIndexOf(IoTDBConstant.UNSEQUENCE_FOLDER_NAME);
+    path =
+        path.substring(0, pos)
+            + IoTDBConstant.SEQUENCE_FOLDER_NAME
+            + path.substring(pos + IoTDBConstant.UNSEQUENCE_FOLDER_NAME.length());
+    TsFileResource targetFile =
+        new SimulatedTsFileResource(
+            new File(
+                path,
+                TsFileNameGenerator.generateNewTsFileName(
+                    taskResource.targetFileTimestamp,
+                    tsFileName.getVersion(),
+                    tsFileName.getInnerCompactionCnt(),
+                    0)),
+            unseqFile.getTsFileSize());
+    targetFile.setTimeIndex(unseqFile.getTimeIndex());
+    replace(
+        Collections.emptyList(),
+        Collections.singletonList(unseqFile),
+        Collections.singletonList(targetFile));
+    statistic.recordTask(CompactionTaskType.INSERTION, 0);
+  }
+
+  private void executeInnerSpaceTask(
+      List<TsFileResource> sourceFiles, boolean sequence, boolean multiTarget) throws IOException {
+    List<TsFileResource> sortedSourceFiles = new ArrayList<>(sourceFiles);
+    sortedSourceFiles.sort(TsFileResource::compareFileName);
+
+    long totalSize = 0;
+    int maxInnerCompactionCnt = 0;
+    int maxCrossCompactionCnt = 0;
+    Map<IDeviceID, long[]> deviceTimes = new TreeMap<>();
+    for (TsFileResource resource : sortedSourceFiles) {
+      totalSize += resource.getTsFileSize();
+      TsFileNameGenerator.TsFileName tsFileName =
+          TsFileNameGenerator.getTsFileName(resource.getTsFile().getName());
+      maxInnerCompactionCnt = Math.max(maxInnerCompactionCnt, tsFileName.getInnerCompactionCnt());
+      maxCrossCompactionCnt = Math.max(maxCrossCompactionCnt, tsFileName.getCrossCompactionCnt());
+      mergeDeviceTimes(deviceTimes, resource);
+    }
+
+    // the target files take the names of the last source files, the same as the multi target
+    // performer, and a single target file takes the name of the first (seq) or last (unseq) one
+    int targetFileNum =
+        multiTarget
+            ? (int)
+                Math.min(
+                    totalSize / config.getTargetCompactionFileSize() + 1, sortedSourceFiles.size())
+            : 1;
+    List<TsFileResource> namingFiles =
+        multiTarget
+            ? sortedSourceFiles.subList(
+                sortedSourceFiles.size() - targetFileNum, sortedSourceFiles.size())
+            : Collections.singletonList(
+                sequence
+                    ? sortedSourceFiles.get(0)
+                    : sortedSourceFiles.get(sortedSourceFiles.size() - 1));
+
+    List<IDeviceID> devices = new ArrayList<>(deviceTimes.keySet());
+    List<TsFileResource> targetFiles = new ArrayList<>(targetFileNum);
+    long remainingSize = totalSize;
+    for (int i = 0; i < targetFileNum; i++) {
+      // the devices are split into the target files in order
+      List<IDeviceID> targetDevices =
+          devices.subList(
+              devices.size() * i / targetFileNum, devices.size() * (i + 1) / targetFileNum);
+      long targetSize =
+          i == targetFileNum - 1
+              ? remainingSize
+              : devices.isEmpty()
+                  ? totalSize / targetFileNum
+                  : totalSize * targetDevices.size() / devices.size();
+      remainingSize -= targetSize;
+
+      TsFileResource namingFile = namingFiles.get(i);
+      TsFileNameGenerator.TsFileName tsFileName =
+          TsFileNameGenerator.getTsFileName(namingFile.getTsFile().getName());
+      TsFileResource targetFile =
+          new SimulatedTsFileResource(
+              new File(
+                  namingFile.getTsFile().getParentFile(),
+                  TsFileNameGenerator.generateNewTsFileName(
+                      tsFileName.getTime(),
+                      tsFileName.getVersion(),
+                      maxInnerCompactionCnt + 1,
+                      maxCrossCompactionCnt)),
+              targetSize);
+      ArrayDeviceTimeIndex timeIndex = new ArrayDeviceTimeIndex();
+      for (IDeviceID device : targetDevices) {
+        timeIndex.updateStartTime(device, deviceTimes.get(device)[0]);
+        timeIndex.updateEndTime(device, deviceTimes.get(device)[1]);
+      }
+      targetFile.setTimeIndex(timeIndex);
+      targetFiles.add(targetFile);
+    }
+
+    if (sequence) {
+      replace(sortedSourceFiles, Collections.emptyList(), targetFiles);
+    } else {
+      replace(Collections.emptyList(), sortedSourceFiles, targetFiles);
+    }
+    statistic.recordTask(
+        sequence ? CompactionTaskType.INNER_SEQ : CompactionTaskType.INNER_UNSEQ, totalSize);
+  }
+
+  private void executeCrossSpaceTask(List<TsFileResource> seqFiles, List<TsFileResource> unseqFiles)
+      throws IOException {
+    long seqSize = 0;
+    long unseqSize = 0;
+    List<Map<IDeviceID, long[]>> targetDeviceTimes = new ArrayList<>(seqFiles.size());
+    for (TsFileResource seqFile : seqFiles) {
+      seqSize += seqFile.getTsFileSize();
+      Map<IDeviceID, long[]> deviceTimes = new TreeMap<>();
+      mergeDeviceTimes(deviceTimes, seqFile);
+      targetDeviceTimes.add(deviceTimes);
+    }
+    // the data of an unseq file is written into the first seq file whose end time of the device is
+    // not less than the start time of it, or else the last seq file containing the device
+    for (TsFileResource unseqFile : unseqFiles) {
+      unseqSize += unseqFile.getTsFileSize();
+      for (IDeviceID device : unseqFile.getDevices()) {
+        long startTime = unseqFile.getStartTime(device);
+        long endTime = unseqFile.getEndTime(device);
+        int targetIndex = -1;
+        for (int i = 0; i < targetDeviceTimes.size(); i++) {
+          long[] times = targetDeviceTimes.get(i).get(device);
+          if (times != null) {
+            targetIndex = i;
+            if (times[1] >= startTime) {
+              break;
+            }
+          }
+        }
+        targetDeviceTimes
+            .get(targetIndex == -1 ? targetDeviceTimes.size() - 1 : targetIndex)
+            .merge(
+                device,
+                new long[] {startTime, endTime},
+                (o, n) -> new long[] {Math.min(o[0], n[0]), Math.max(o[1], n[1])});
+      }
+    }
+
+    List<TsFileResource> targetFiles = new ArrayList<>(seqFiles.size());
+    long remainingUnseqSize = unseqSize;
+    for (int i = 0; i < seqFiles.size(); i++) {
+      TsFileResource seqFile = seqFiles.get(i);
+      // the unseq data is shared by the target files in proportion to the size of seq files
+      long unseqSizeInTarget =
+          i == seqFiles.size() - 1
+              ? remainingUnseqSize
+              : seqSize == 0
+                  ? unseqSize / seqFiles.size()
+                  : unseqSize * seqFile.getTsFileSize() / seqSize;
+      remainingUnseqSize -= unseqSizeInTarget;
+
+      TsFileResource targetFile =
+          new SimulatedTsFileResource(
+              TsFileNameGenerator.increaseCrossCompactionCnt(seqFile.getTsFile()),
+              seqFile.getTsFileSize() + unseqSizeInTarget);
+      ArrayDeviceTimeIndex timeIndex = new ArrayDeviceTimeIndex();
+      for (Map.Entry<IDeviceID, long[]> entry : targetDeviceTimes.get(i).entrySet()) {
+        timeIndex.updateStartTime(entry.getKey(), entry.getValue()[0]);
+        timeIndex.updateEndTime(entry.getKey(), entry.getValue()[1]);
+      }
+      targetFile.setTimeIndex(timeIndex);
+      targetFiles.add(targetFile);
+    }
+    replace(seqFiles, unseqFiles, targetFiles);
+    statistic.recordTask(CompactionTaskType.CROSS, seqSize + unseqSize);
+  }
+
+  private static void mergeDeviceTimes(
+      Map<IDeviceID, long[]> deviceTimes, TsFileResource resource) {
+    for (IDeviceID device : resource.getDevices()) {
+      deviceTimes.merge(
+          device,
+          new long[] {resource.getStartTime(device), resource.getEndTime(device)},
+          (o, n) -> new long[] {Math.min(o[0], n[0]), Math.max(o[1], n[1])});
+    }
+  }
+
+  private void replace(
+      List<TsFileResource> seqFiles,
+      List<TsFileResource> unseqFiles,
+      List<TsFileResource> targetFiles)
+      throws IOException {
+    for (TsFileResource resource : seqFiles) {
+      tsFileManager.remove(resource, true);
+    }
+    for (TsFileResource resource : unseqFiles) {
+      tsFileManager.remove(resource, false);
+    }
+    for (TsFileResource resource : targetFiles) {
+      tsFileManager.keepOrderInsert(resource, resource.isSeq());
+    }
+  }
+
+  /** Record the files of all time partitions and the estimated read amplification. */
+  public CompactionSimulationStatistic.Snapshot snapshot(long step) {
+    int seqFileNum = 0;
+    int unseqFileNum = 0;
+    long seqFileSize = 0;
+    long unseqFileSize = 0;
+    long totalReadFileNum = 0;
+    int maxReadFileNum = 0;
+    int deviceNum = 0;
+    for (long timePartition : new TreeSet<>(tsFileManager.getTimePartitions())) {
+      Map<IDeviceID, Integer> readFileNumOfDevices = new HashMap<>();
+      for (TsFileResource resource :
+          tsFileManager.getOrCreateSequenceListByTimePartition(timePartition)) {
+        seqFileNum++;
+        seqFileSize += resource.getTsFileSize();
+        resource.getDevices().forEach(d -> readFileNumOfDevices.merge(d, 1, Integer::sum));
+      }
+      for (TsFileResource resource :
+          tsFileManager.getOrCreateUnsequenceListByTimePartition(timePartition)) {
+        unseqFileNum++;
+        unseqFileSize += resource.getTsFileSize();
+        resource.getDevices().forEach(d -> readFileNumOfDevices.merge(d, 1, Integer::sum));
+      }
+      for (int readFileNum : readFileNumOfDevices.values()) {
+        totalReadFileNum += readFileNum;
+        maxReadFileNum = Math.max(maxReadFileNum, readFileNum);
+      }
+      deviceNum += readFileNumOfDevices.size();
+    }
+    CompactionSimulationStatistic.Snapshot snapshot =
+        new CompactionSimulationStatistic.Snapshot(
+            step,
+            seqFileNum,
+            unseqFileNum,
+            seqFileSize,
+            unseqFileSize,
+            deviceNum == 0 ? 0 : (double) totalReadFileNum / deviceNum,
+            maxReadFileNum);
+    statistic.addSnapshot(snapshot);
+    return snapshot;
+  }
+
+  public CompactionSimulationStatistic getStatistic() {
+    return statistic;
+  }
+
+  public TsFileManager getTsFileManager() {
+    return tsFileManager;
+  }
+
+  /** Memory cost is not simulated because the chunk metadata of TsFiles is not available. */
+  private class SimulatedCrossSpaceCompactionSelector extends RewriteCrossSpaceCompactionSelector {
+
+    private SimulatedCrossSpaceCompactionSelector(
+        long timePartition, CompactionScheduleContext context) {
+      super(databaseName, dataRegionId, timePartition, tsFileManager, context);
+    }
+
+    @Override
+    protected long estimateMemoryCost(
+        List<TsFileResource> seqResources, List<TsFileResource> unseqResources) {
+      return 0;
+    }
+  }
+}
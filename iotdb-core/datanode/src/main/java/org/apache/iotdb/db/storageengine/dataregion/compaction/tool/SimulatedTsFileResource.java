@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.tool;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+
+import java.io.File;
+
+/**
+ * A sealed TsFileResource whose TsFile does not need to exist, the size of the TsFile is given
+ * instead of read from disk. It is used to simulate compactions without touching data.
+ */
+public class SimulatedTsFileResource extends TsFileResource {
+
+  private final long tsFileSize;
+
+  public SimulatedTsFileResource(File file, long tsFileSize) {
+    super(file, TsFileResourceStatus.NORMAL);
+    this.tsFileSize = tsFileSize;
+  }
+
+  @Override
+  public long getTsFileSize() {
+    return tsFileSize;
+  }
+
+  @Override
+  public long getTotalModSizeInByte() {
+    // modifications are not simulated
+    return 0;
+  }
+}
@@ -30,6 +30,8 @@ import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushSubTaskPoolM
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunkGroup;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.SeriesSketch;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 
@@ -81,6 +83,9 @@ public class MemTableFlushTask {
   private volatile long memSerializeTime = 0L;
   private volatile long ioTime = 0L;
 
+  // sketches of the flushed series, only filled by the encoding task if sketches are enabled
+  private final TsFileSketch sketch = config.isEnableTsFileSketch() ? new TsFileSketch() : null;
+
   /**
    * @param memTable the memTable to flush
    * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
@@ -125,6 +130,12 @@ public class MemTableFlushTask {
               : memTable.memSize()
                   / memTable.getSeriesNumber()
                   * config.getIoTaskQueueSizeForFlushing();
+    }
+    if (sketch != null) {
+      // the sketches of all the series are kept until the flush ends
+      estimatedTemporaryMemSize += memTable.getSeriesNumber() * SeriesSketch.MAX_ESTIMATED_SIZE;
+    }
+    if (estimatedTemporaryMemSize != 0) {
       SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
     long start = System.currentTimeMillis();
@@ -207,6 +218,14 @@ public class MemTableFlushTask {
             "flush");
   }
 
+  /**
+   * @return the sketches of the series in the memtable, or null if sketches are not enabled. It is
+   *     complete only after {@link #syncFlushMemTable()} returns.
+   */
+  public TsFileSketch getSketch() {
+    return sketch;
+  }
+
   /** encoding task (second task of pipeline) */
   private Runnable encodingTask =
       new Runnable() {
@@ -218,6 +237,7 @@ public class MemTableFlushTask {
               "Database {} memtable flushing to file {} starts to encoding data.",
               storageGroup,
               writer.getFile().getName());
+          IDeviceID currentDevice = null;
           while (true) {
 
             Object task;
@@ -229,6 +249,9 @@ public class MemTableFlushTask {
               break;
             }
             if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
+              if (task instanceof StartFlushGroupIOTask) {
+                currentDevice = ((StartFlushGroupIOTask) task).deviceId;
+              }
               try {
                 ioTaskQueue.put(task);
               } catch (
@@ -251,6 +274,9 @@ public class MemTableFlushTask {
               writableMemChunk.encode(seriesWriter);
               seriesWriter.sealCurrentPage();
               seriesWriter.clearPageWriter();
+              if (sketch != null) {
+                sketch.addMemChunk(currentDevice, writableMemChunk);
+              }
               try {
                 ioTaskQueue.put(seriesWriter);
               } catch (InterruptedException e) {
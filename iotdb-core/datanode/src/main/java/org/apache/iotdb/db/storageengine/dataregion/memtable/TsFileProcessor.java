@@ -63,6 +63,7 @@ import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskAlign
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskChunkHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.UnclosedFileScanHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndexCacheRecorder;
 import org.apache.iotdb.db.storageengine.dataregion.utils.SharedTimeDataBuffer;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
@@ -173,6 +174,12 @@ public class TsFileProcessor {
   /** Point count when the memtable is flushed. Used for metrics on PipeConsensus' receiver side. */
   private long memTableFlushPointCount = FLUSH_POINT_COUNT_NOT_SET;
 
+  /** Sketches of all the flushed memtables, written as the sidecar when the file is ended. */
+  private TsFileSketch tsFileSketch;
+
+  /** Memory of tsFileSketch charged to tsFileProcessorInfo, released when the file is closed. */
+  private long tsFileSketchMemCost = 0L;
+
   /** Wal node. */
   private final IWALNode walNode;
 
@@ -1516,6 +1523,16 @@ public class TsFileProcessor {
                   dataRegionInfo.getDataRegion().getDataRegionId());
           flushTask.syncFlushMemTable();
           memTableFlushPointCount = memTableToFlush.getTotalPointsNum();
+          if (flushTask.getSketch() != null) {
+            if (tsFileSketch == null) {
+              tsFileSketch = flushTask.getSketch();
+            } else {
+              tsFileSketch.merge(flushTask.getSketch());
+            }
+            long sketchMemCost = tsFileSketch.getEstimatedSize();
+            tsFileProcessorInfo.addTSPMemCost(sketchMemCost - tsFileSketchMemCost);
+            tsFileSketchMemCost = sketchMemCost;
+          }
         } catch (Throwable e) {
           if (writer == null) {
             logger.info(
@@ -1712,6 +1729,15 @@ public class TsFileProcessor {
     }
     writer.endFile();
     tsFileResource.serialize();
+    if (tsFileSketch != null && !tsFileSketch.isEmpty()) {
+      try {
+        tsFileSketch.serialize(tsFileResource.getTsFile());
+      } catch (IOException e) {
+        // approximate aggregations on this file will read raw data instead
+        logger.warn("Failed to write the sketch sidecar of {}", tsFileResource, e);
+      }
+      tsFileSketch = null;
+    }
     FileTimeIndexCacheRecorder.getInstance().logFileTimeIndex(tsFileResource);
     if (logger.isDebugEnabled()) {
       logger.debug("Ended file {}", tsFileResource);
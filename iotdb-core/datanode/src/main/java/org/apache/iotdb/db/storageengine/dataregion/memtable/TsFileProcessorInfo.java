@@ -21,46 +21,49 @@ package org.apache.iotdb.db.storageengine.dataregion.memtable;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegionInfo;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /** The TsFileProcessorInfo records the memory cost of this TsFileProcessor. */
 public class TsFileProcessorInfo {
 
   /** Once tspInfo updated, report to storageGroupInfo that this TSP belongs to. */
   private final DataRegionInfo dataRegionInfo;
 
-  /** memory occupation of unsealed TsFileResource, ChunkMetadata, WAL */
-  private long memCost;
+  /**
+   * memory occupation of unsealed TsFileResource, ChunkMetadata, WAL and the sketches, the latter
+   * are added by the flush thread
+   */
+  private final AtomicLong memCost = new AtomicLong();
 
   private final TsFileProcessorInfoMetrics metrics;
 
   public TsFileProcessorInfo(DataRegionInfo dataRegionInfo) {
     this.dataRegionInfo = dataRegionInfo;
-    this.memCost = 0L;
     this.metrics =
         new TsFileProcessorInfoMetrics(dataRegionInfo.getDataRegion().getDatabaseName(), this);
     MetricService.getInstance().addMetricSet(metrics);
   }
 
-  /** called in each insert */
+  /** called in each insert, and after each flush for the sketches */
   public void addTSPMemCost(long cost) {
-    memCost += cost;
+    memCost.addAndGet(cost);
     dataRegionInfo.addStorageGroupMemCost(cost);
   }
 
   /** called when meet exception */
   public void releaseTSPMemCost(long cost) {
     dataRegionInfo.releaseStorageGroupMemCost(cost);
-    memCost -= cost;
+    memCost.addAndGet(-cost);
   }
 
   /** called when closing TSP */
   public void clear() {
-    dataRegionInfo.releaseStorageGroupMemCost(memCost);
-    memCost = 0L;
+    dataRegionInfo.releaseStorageGroupMemCost(memCost.getAndSet(0L));
     MetricService.getInstance().removeMetricSet(metrics);
   }
 
   /** get memCost */
   public long getMemCost() {
-    return memCost;
+    return memCost.get();
   }
 }
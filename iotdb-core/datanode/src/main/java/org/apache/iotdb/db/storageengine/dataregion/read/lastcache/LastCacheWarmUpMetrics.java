@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.read.lastcache;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+public class LastCacheWarmUpMetrics implements IMetricSet {
+  private static final String LAST_CACHE_WARM_UP = "LastCacheWarmUp";
+
+  private static final String TOTAL_FILE = "total_file";
+  private static final String VISITED_FILE = "visited_file";
+  private static final String LOADED_DEVICE = "loaded_device";
+  private static final String LOADED_SERIES = "loaded_series";
+
+  private final LastCacheWarmUpTask task;
+
+  public LastCacheWarmUpMetrics(final LastCacheWarmUpTask task) {
+    this.task = task;
+  }
+
+  @Override
+  public void bindTo(final AbstractMetricService metricService) {
+    createAutoGauge(metricService, TOTAL_FILE, LastCacheWarmUpTask::getTotalFileCount);
+    createAutoGauge(metricService, VISITED_FILE, LastCacheWarmUpTask::getVisitedFileCount);
+    createAutoGauge(metricService, LOADED_DEVICE, LastCacheWarmUpTask::getLoadedDeviceCount);
+    createAutoGauge(metricService, LOADED_SERIES, LastCacheWarmUpTask::getLoadedSeriesCount);
+  }
+
+  private void createAutoGauge(
+      final AbstractMetricService metricService,
+      final String type,
+      final ToDoubleFunction<LastCacheWarmUpTask> function) {
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        task,
+        function,
+        Tag.NAME.toString(),
+        LAST_CACHE_WARM_UP,
+        Tag.TYPE.toString(),
+        type);
+  }
+
+  @Override
+  public void unbindFrom(final AbstractMetricService metricService) {
+    for (final String type :
+        new String[] {TOTAL_FILE, VISITED_FILE, LOADED_DEVICE, LOADED_SERIES}) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.CACHE.toString(),
+          Tag.NAME.toString(),
+          LAST_CACHE_WARM_UP,
+          Tag.TYPE.toString(),
+          type);
+    }
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final LastCacheWarmUpMetrics that = (LastCacheWarmUpMetrics) o;
+    return Objects.equals(task, that.task);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(task);
+  }
+}
@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.read.lastcache;
+
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.commons.utils.PathUtils;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceLastCache;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceSchemaCache;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.utils.TsPrimitiveType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the last cache from the metadata of the sequence TsFiles after restart, so that the first
+ * LAST queries do not fall back to scanning the files. The files of a data region are visited from
+ * the newest to the oldest, and a device is loaded from the newest closed file containing it, where
+ * the end time and last value of each series are in the statistics.
+ *
+ * <p>A device is skipped if the file has modifications, or if any newer sequence file, unsequence
+ * file or memtable may contain points of the device at or after its end time in the file. Like a
+ * query, the placeholders are put before these checks, so the points written concurrently either
+ * fail the checks or update the placeholders, and a stale value is never cached.
+ */
+public class LastCacheWarmUpTask implements Runnable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LastCacheWarmUpTask.class);
+
+  // Devices are put and checked in batches to check the modifications and file lists less often
+  private static final int DEVICE_BATCH_SIZE = 1000;
+
+  private final List<DataRegion> dataRegions;
+
+  private final AtomicLong totalFileCount = new AtomicLong();
+  private final AtomicLong visitedFileCount = new AtomicLong();
+  private final AtomicLong loadedDeviceCount = new AtomicLong();
+  private final AtomicLong loadedSeriesCount = new AtomicLong();
+
+  public LastCacheWarmUpTask(final List<DataRegion> dataRegions) {
+    this.dataRegions = dataRegions;
+  }
+
+  @Override
+  public void run() {
+    final long startTime = System.currentTimeMillis();
+    MetricService.getInstance().addMetricSet(new LastCacheWarmUpMetrics(this));
+    for (final DataRegion dataRegion : dataRegions) {
+      totalFileCount.addAndGet(dataRegion.getTsFileManager().getTsFileList(true).size());
+    }
+    for (final DataRegion dataRegion : dataRegions) {
+      if (Thread.currentThread().isInterrupted()) {
+        LOGGER.info("Last cache warm-up is interrupted.");
+        return;
+      }
+      warmUp(dataRegion);
+    }
+    LOGGER.info(
+        "Last cache warm-up finished, {} series of {} devices are loaded from {} files in {}ms.",
+        loadedSeriesCount.get(),
+        loadedDeviceCount.get(),
+        visitedFileCount.get(),
+        System.currentTimeMillis() - startTime);
+  }
+
+  private void warmUp(final DataRegion dataRegion) {
+    final TsFileManager tsFileManager = dataRegion.getTsFileManager();
+    final List<TsFileResource> seqResources = tsFileManager.getTsFileList(true);
+    // The devices loaded or skipped, their values in older files are stale
+    final Set<IDeviceID> visitedDevices = new HashSet<>();
+
+    for (int i = seqResources.size() - 1; i >= 0; --i) {
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+      final TsFileResource resource = seqResources.get(i);
+      try {
+        if (!resource.isClosed() || resource.isDeleted() || resource.anyModFileExists()) {
+          visitedDevices.addAll(resource.getDevices());
+        } else {
+          warmUp(dataRegion.getDatabaseName(), tsFileManager, resource, visitedDevices);
+        }
+      } catch (final Exception e) {
+        // The devices of the file may be partially visited, stop here to avoid loading their
+        // values from the older files
+        LOGGER.warn(
+            "Failed to warm up last cache from {}, skip the remaining files of data region {}",
+            resource.getTsFilePath(),
+            dataRegion.getDataRegionId(),
+            e);
+        visitedFileCount.addAndGet(i + 1L);
+        return;
+      }
+      visitedFileCount.incrementAndGet();
+    }
+  }
+
+  private void warmUp(
+      final String database,
+      final TsFileManager tsFileManager,
+      final TsFileResource resource,
+      final Set<IDeviceID> visitedDevices)
+      throws IOException {
+    try (final TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+      final List<DeviceLastValues> batch = new ArrayList<>(DEVICE_BATCH_SIZE);
+      for (final IDeviceID deviceID : reader.getAllDevices()) {
+        if (!visitedDevices.add(deviceID)) {
+          continue;
+        }
+        final DeviceLastValues lastValues =
+            new DeviceLastValues(
+                deviceID,
+                reader.getDeviceTimeseriesMetadataWithoutChunkMetadata(deviceID),
+                PathUtils.isTableModelDatabase(database));
+        if (lastValues.measurements.isEmpty()) {
+          continue;
+        }
+        batch.add(lastValues);
+        if (batch.size() == DEVICE_BATCH_SIZE) {
+          putBatch(database, tsFileManager, resource, batch);
+          batch.clear();
+        }
+      }
+      putBatch(database, tsFileManager, resource, batch);
+    }
+  }
+
+  private void putBatch(
+      final String database,
+      final TsFileManager tsFileManager,
+      final TsFileResource resource,
+      final List<DeviceLastValues> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    final TableDeviceSchemaCache cache = TableDeviceSchemaCache.getInstance();
+    for (final DeviceLastValues lastValues : batch) {
+      cache.initOrInvalidateLastCache4WarmUp(
+          database, lastValues.deviceID, lastValues.getMeasurements(), false);
+    }
+
+    // Check after the placeholders are put
+    final List<TsFileResource> laterResources =
+        resource.anyModFileExists() ? null : getLaterResources(tsFileManager, resource);
+    for (final DeviceLastValues lastValues : batch) {
+      final String[] measurements = lastValues.getMeasurements();
+      if (laterResources == null || mayBeOverwritten(lastValues, laterResources)) {
+        cache.initOrInvalidateLastCache4WarmUp(database, lastValues.deviceID, measurements, true);
+        continue;
+      }
+      cache.updateLastCache4WarmUp(
+          database,
+          lastValues.deviceID,
+          measurements,
+          lastValues.timeValuePairs.toArray(new TimeValuePair[0]));
+      loadedDeviceCount.incrementAndGet();
+      loadedSeriesCount.addAndGet(measurements.length);
+    }
+  }
+
+  /**
+   * @return the sequence files newer than the resource and the unsequence files that may overlap
+   *     it, or {@code null} if the resource is no longer in the sequence list, e.g. compacted
+   */
+  private static List<TsFileResource> getLaterResources(
+      final TsFileManager tsFileManager, final TsFileResource resource) {
+    final List<TsFileResource> seqResources = tsFileManager.getTsFileList(true);
+    final int index = seqResources.indexOf(resource);
+    if (index < 0) {
+      return null;
+    }
+    final List<TsFileResource> laterResources =
+        new ArrayList<>(seqResources.subList(index + 1, seqResources.size()));
+    for (final TsFileResource unseqResource : tsFileManager.getTsFileList(false)) {
+      if (!unseqResource.isClosed()
+          || unseqResource.getFileEndTime() >= resource.getFileStartTime()) {
+        laterResources.add(unseqResource);
+      }
+    }
+    return laterResources;
+  }
+
+  private static boolean mayBeOverwritten(
+      final DeviceLastValues lastValues, final List<TsFileResource> laterResources) {
+    for (final TsFileResource laterResource : laterResources) {
+      if (!laterResource.definitelyNotContains(lastValues.deviceID)
+          && (!laterResource.isClosed()
+              || laterResource.getEndTime(lastValues.deviceID) >= lastValues.minEndTime)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  long getTotalFileCount() {
+    return totalFileCount.get();
+  }
+
+  long getVisitedFileCount() {
+    return visitedFileCount.get();
+  }
+
+  long getLoadedDeviceCount() {
+    return loadedDeviceCount.get();
+  }
+
+  long getLoadedSeriesCount() {
+    return loadedSeriesCount.get();
+  }
+
+  private static class DeviceLastValues {
+
+    private final IDeviceID deviceID;
+    private final List<String> measurements = new ArrayList<>();
+    private final List<TimeValuePair> timeValuePairs = new ArrayList<>();
+    // A point at or after this time in another file may replace one of the last values
+    private long minEndTime = Long.MAX_VALUE;
+
+    private DeviceLastValues(
+        final IDeviceID deviceID,
+        final List<TimeseriesMetadata> timeseriesMetadataList,
+        final boolean isTableModel) {
+      this.deviceID = deviceID;
+      for (final TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+        final Statistics<?> statistics = timeseriesMetadata.getStatistics();
+        // The value column of an aligned device may be all null in this file, then its last value
+        // is in an older file
+        if (statistics == null || statistics.getCount() == 0) {
+          continue;
+        }
+        final String measurement = timeseriesMetadata.getMeasurementId();
+        if (measurement.isEmpty()) {
+          // The time column of an aligned device, only the table model caches it
+          if (isTableModel) {
+            add(
+                measurement,
+                new TimeValuePair(
+                    statistics.getEndTime(), TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE));
+          }
+          continue;
+        }
+        final TSDataType dataType = timeseriesMetadata.getTsDataType();
+        // The statistics of blob do not keep the last value
+        if (dataType == TSDataType.BLOB || dataType == TSDataType.VECTOR) {
+          continue;
+        }
+        add(
+            measurement,
+            new TimeValuePair(
+                statistics.getEndTime(),
+                TsPrimitiveType.getByType(dataType, statistics.getLastValue())));
+      }
+    }
+
+    private void add(final String measurement, final TimeValuePair timeValuePair) {
+      measurements.add(measurement);
+      timeValuePairs.add(timeValuePair);
+      minEndTime = Math.min(minEndTime, timeValuePair.getTimestamp());
+    }
+
+    private String[] getMeasurements() {
+      return measurements.toArray(new String[0]);
+    }
+  }
+}
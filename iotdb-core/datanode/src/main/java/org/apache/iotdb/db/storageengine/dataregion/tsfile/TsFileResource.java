@@ -32,6 +32,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.load.PartitionViolationException;
 import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.assigner.PipeTimePartitionProgressIndexKeeper;
 import org.apache.iotdb.db.schemaengine.schemaregion.utils.ResourceByPathUtils;
+import org.apache.iotdb.db.storageengine.buffer.ModificationCache;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.InsertionCompactionCandidateStatus;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.ReadOnlyMemChunk;
@@ -44,6 +45,7 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.v1.Deletion;
 import org.apache.iotdb.db.storageengine.dataregion.modification.v1.Modification;
 import org.apache.iotdb.db.storageengine.dataregion.modification.v1.ModificationFileV1;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch.TsFileSketch;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
@@ -386,6 +388,11 @@ public class TsFileResource implements PersistentResource {
         new File(target.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
         new File(this.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).toPath());
     linkModFile(target);
+    File sketchFile = TsFileSketch.getSketchFile(getTsFile());
+    if (sketchFile.exists()) {
+      Files.createLink(
+          TsFileSketch.getSketchFile(target.getTsFile()).toPath(), sketchFile.toPath());
+    }
   }
 
   public void linkModFile(TsFileResource target) throws IOException {
@@ -771,6 +778,7 @@ public class TsFileResource implements PersistentResource {
     if (getSharedModFile() != null && modFileManagement != null) {
       modFileManagement.releaseFor(this, sharedModFile);
     }
+    ModificationCache.getInstance().invalidate(getTsFileID());
 
     // we either remove all mod files after successful compactions,
     // or remove compaction mod file only after failed compactions,
@@ -784,6 +792,7 @@ public class TsFileResource implements PersistentResource {
    */
   public boolean remove() {
     forceMarkDeleted();
+    ModificationCache.getInstance().invalidate(getTsFileID());
     try {
       fsFactory.deleteIfExists(file);
       fsFactory.deleteIfExists(
@@ -795,6 +804,12 @@ public class TsFileResource implements PersistentResource {
     if (!removeResourceFile()) {
       return false;
     }
+    try {
+      TsFileSketch.remove(file);
+    } catch (IOException e) {
+      LOGGER.error("Sketch sidecar of {} cannot be deleted: {}", file, e.getMessage());
+      return false;
+    }
     try {
       removeModFile();
     } catch (IOException e) {
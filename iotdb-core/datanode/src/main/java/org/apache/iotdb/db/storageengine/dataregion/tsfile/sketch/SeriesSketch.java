@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch;
+
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.HyperLogLog;
+import org.apache.iotdb.db.queryengine.execution.aggregation.sketch.TDigest;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+/**
+ * Mergeable sketches of all the points of one series in one TsFile: a HyperLogLog for
+ * approx_count_distinct and, for numeric series, a t-digest for approx_percentile. The count and
+ * the time range of the points are kept as well, so that a reader can tell whether the sketches
+ * still describe exactly the data in the file.
+ */
+public class SeriesSketch {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(SeriesSketch.class);
+
+  /** Size of the sketches of a numeric series, the largest ones. */
+  public static final long MAX_ESTIMATED_SIZE =
+      new SeriesSketch(TSDataType.DOUBLE).getEstimatedSize();
+
+  // the registers of the HyperLogLog are the least a series takes in the sidecar
+  private static final long MIN_SERIALIZED_SIZE =
+      1L << HyperLogLog.precisionOf(HyperLogLog.DEFAULT_STANDARD_ERROR);
+
+  private final TSDataType dataType;
+  private long count;
+  private long startTime = Long.MAX_VALUE;
+  private long endTime = Long.MIN_VALUE;
+
+  private final HyperLogLog distinct;
+  // null if the series is not numeric
+  private final TDigest digest;
+
+  public SeriesSketch(TSDataType dataType) {
+    this(
+        dataType,
+        new HyperLogLog(HyperLogLog.DEFAULT_STANDARD_ERROR),
+        isNumeric(dataType) ? new TDigest() : null);
+  }
+
+  private SeriesSketch(TSDataType dataType, HyperLogLog distinct, TDigest digest) {
+    this.dataType = dataType;
+    this.distinct = distinct;
+    this.digest = digest;
+  }
+
+  private static boolean isNumeric(TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  // the values are hashed the same way as SketchUtils.addToHyperLogLog does for query input
+
+  public void addBoolean(long time, boolean value) {
+    updateTime(time);
+    distinct.add(value ? 1L : 0L);
+  }
+
+  public void addInt(long time, int value) {
+    updateTime(time);
+    distinct.add(value);
+    if (digest != null) {
+      digest.add(value);
+    }
+  }
+
+  public void addLong(long time, long value) {
+    updateTime(time);
+    distinct.add(value);
+    if (digest != null) {
+      digest.add(value);
+    }
+  }
+
+  public void addFloat(long time, float value) {
+    updateTime(time);
+    distinct.add((double) value);
+    digest.add(value);
+  }
+
+  public void addDouble(long time, double value) {
+    updateTime(time);
+    distinct.add(value);
+    digest.add(value);
+  }
+
+  public void addBinary(long time, Binary value) {
+    updateTime(time);
+    distinct.add(value.getValues());
+  }
+
+  private void updateTime(long time) {
+    count++;
+    startTime = Math.min(startTime, time);
+    endTime = Math.max(endTime, time);
+  }
+
+  /**
+   * @return false if the sketches cannot be merged because the data type of the series is changed
+   */
+  public boolean merge(SeriesSketch other) {
+    if (other.dataType != dataType) {
+      return false;
+    }
+    count += other.count;
+    startTime = Math.min(startTime, other.startTime);
+    endTime = Math.max(endTime, other.endTime);
+    distinct.merge(other.distinct);
+    if (digest != null) {
+      digest.merge(other.digest);
+    }
+    return true;
+  }
+
+  /**
+   * The sketches can replace the raw data only if they are built from exactly the points described
+   * by the statistics. Points removed by deletions or overwritten during compaction make the count
+   * of the sketches larger than the count of the statistics.
+   */
+  @SuppressWarnings("squid:S3740")
+  public boolean isConsistentWith(Statistics<? extends Serializable> statistics) {
+    return statistics != null
+        && statistics.getCount() == count
+        && statistics.getStartTime() == startTime
+        && statistics.getEndTime() == endTime;
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE
+        + distinct.getEstimatedSize()
+        + (digest == null ? 0 : digest.getEstimatedSize());
+  }
+
+  /** The upper bound of the memory taken by the sketches deserialized from the bytes. */
+  public static long estimateSizeOfSerialized(long serializedSize) {
+    return (serializedSize / MIN_SERIALIZED_SIZE + 1) * MAX_ESTIMATED_SIZE;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public HyperLogLog getDistinct() {
+    return distinct;
+  }
+
+  public TDigest getDigest() {
+    return digest;
+  }
+
+  public void serialize(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(dataType, outputStream);
+    ReadWriteIOUtils.write(count, outputStream);
+    ReadWriteIOUtils.write(startTime, outputStream);
+    ReadWriteIOUtils.write(endTime, outputStream);
+    byte[] distinctBytes = distinct.serialize();
+    ReadWriteIOUtils.write(distinctBytes.length, outputStream);
+    outputStream.write(distinctBytes);
+    ReadWriteIOUtils.write(digest != null, outputStream);
+    if (digest != null) {
+      outputStream.write(digest.serialize());
+    }
+  }
+
+  public static SeriesSketch deserialize(ByteBuffer buffer) {
+    TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+    long count = buffer.getLong();
+    long startTime = buffer.getLong();
+    long endTime = buffer.getLong();
+    byte[] distinctBytes = new byte[buffer.getInt()];
+    buffer.get(distinctBytes);
+    TDigest digest = ReadWriteIOUtils.readBool(buffer) ? TDigest.deserialize(buffer) : null;
+    SeriesSketch sketch =
+        new SeriesSketch(dataType, HyperLogLog.deserialize(distinctBytes), digest);
+    sketch.count = count;
+    sketch.startTime = startTime;
+    sketch.endTime = endTime;
+    return sketch;
+  }
+}
@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch;
+
+import org.apache.iotdb.db.storageengine.dataregion.memtable.AlignedWritableMemChunk;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunk;
+import org.apache.iotdb.db.utils.datastructure.AlignedTVList;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.fileSystem.fsFactory.FSFactory;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The sketch sidecar of a TsFile, stored as xxx.tsfile.sketch next to it. It holds one {@link
+ * SeriesSketch} per series, built while the memtables are flushed and merged from the sidecars of
+ * the source files by compaction. A missing or outdated sidecar only makes approximate aggregations
+ * read the raw data, so it is written on a best-effort basis.
+ */
+public class TsFileSketch {
+
+  public static final String SKETCH_SUFFIX = ".sketch";
+  private static final String TEMP_SUFFIX = ".temp";
+  private static final byte VERSION_NUMBER = 0;
+
+  private static final FSFactory fsFactory = FSFactoryProducer.getFSFactory();
+
+  private final Map<IDeviceID, Map<String, SeriesSketch>> sketches = new HashMap<>();
+  // size of the sidecar it is read from, used to weigh it in the cache
+  private long fileSize;
+
+  public static File getSketchFile(File tsFile) {
+    return fsFactory.getFile(tsFile.getPath() + SKETCH_SUFFIX);
+  }
+
+  public SeriesSketch getSketch(IDeviceID deviceID, String measurement) {
+    Map<String, SeriesSketch> deviceSketches = sketches.get(deviceID);
+    return deviceSketches == null ? null : deviceSketches.get(measurement);
+  }
+
+  public long getFileSize() {
+    return fileSize;
+  }
+
+  public boolean isEmpty() {
+    return sketches.isEmpty();
+  }
+
+  public long getEstimatedSize() {
+    long size = 0;
+    for (Map.Entry<IDeviceID, Map<String, SeriesSketch>> deviceEntry : sketches.entrySet()) {
+      size += deviceEntry.getKey().ramBytesUsed();
+      for (Map.Entry<String, SeriesSketch> entry : deviceEntry.getValue().entrySet()) {
+        size += RamUsageEstimator.sizeOf(entry.getKey()) + entry.getValue().getEstimatedSize();
+      }
+    }
+    return size;
+  }
+
+  /** The upper bound of the memory taken by the sidecar of the TsFile once it is read. */
+  public static long estimateSizeOfSidecar(File tsFile) {
+    File sketchFile = getSketchFile(tsFile);
+    if (!sketchFile.exists()) {
+      return 0;
+    }
+    long serializedSize = sketchFile.length();
+    // the devices, the measurements and the maps holding them take less than the whole sidecar
+    return SeriesSketch.estimateSizeOfSerialized(serializedSize) + serializedSize;
+  }
+
+  private SeriesSketch getOrCreateSketch(
+      IDeviceID deviceID, String measurement, TSDataType dataType) {
+    return sketches
+        .computeIfAbsent(deviceID, k -> new HashMap<>())
+        .computeIfAbsent(measurement, k -> new SeriesSketch(dataType));
+  }
+
+  /**
+   * Adds the points of a memchunk whose TVList has been sorted for flush. Only the points written
+   * into the TsFile are added, that is the last one of the points sharing a timestamp.
+   */
+  public void addMemChunk(IDeviceID deviceID, IWritableMemChunk memChunk) {
+    if (memChunk instanceof AlignedWritableMemChunk) {
+      addAlignedTVList(
+          deviceID,
+          ((AlignedWritableMemChunk) memChunk).getSchemaList(),
+          (AlignedTVList) memChunk.getTVList());
+    } else {
+      IMeasurementSchema schema = memChunk.getSchema();
+      SeriesSketch sketch =
+          getOrCreateSketch(deviceID, schema.getMeasurementName(), schema.getType());
+      TVList list = memChunk.getTVList();
+      for (int i = 0; i < list.rowCount(); i++) {
+        if (i + 1 < list.rowCount() && list.getTime(i) == list.getTime(i + 1)) {
+          continue;
+        }
+        addValue(sketch, schema.getType(), list, i);
+      }
+    }
+  }
+
+  private static void addValue(SeriesSketch sketch, TSDataType dataType, TVList list, int index) {
+    long time = list.getTime(index);
+    switch (dataType) {
+      case BOOLEAN:
+        sketch.addBoolean(time, list.getBoolean(index));
+        break;
+      case INT32:
+      case DATE:
+        sketch.addInt(time, list.getInt(index));
+        break;
+      case INT64:
+      case TIMESTAMP:
+        sketch.addLong(time, list.getLong(index));
+        break;
+      case FLOAT:
+        sketch.addFloat(time, list.getFloat(index));
+        break;
+      case DOUBLE:
+        sketch.addDouble(time, list.getDouble(index));
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        sketch.addBinary(time, list.getBinary(index));
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * When rows of an aligned device share a timestamp, the encoder fills the null values of the last
+   * row with older rows. Only the last row is added here, so in that case the sketch has fewer
+   * points than the chunk and will be ignored by queries.
+   */
+  private void addAlignedTVList(
+      IDeviceID deviceID, List<IMeasurementSchema> schemaList, AlignedTVList list) {
+    List<TSDataType> dataTypes = list.getTsDataTypes();
+    SeriesSketch[] columnSketches = new SeriesSketch[dataTypes.size()];
+    for (int column = 0; column < dataTypes.size(); column++) {
+      columnSketches[column] =
+          getOrCreateSketch(
+              deviceID, schemaList.get(column).getMeasurementName(), dataTypes.get(column));
+    }
+    for (int i = 0; i < list.rowCount(); i++) {
+      if (list.isTimeDeleted(i)) {
+        continue;
+      }
+      int next = i + 1;
+      while (next < list.rowCount() && list.isTimeDeleted(next)) {
+        next++;
+      }
+      long time = list.getTime(i);
+      if (next < list.rowCount() && list.getTime(next) == time) {
+        continue;
+      }
+      int valueIndex = list.getValueIndex(i);
+      for (int column = 0; column < dataTypes.size(); column++) {
+        if (!list.isNullValue(valueIndex, column)) {
+          addAlignedValue(
+              columnSketches[column], dataTypes.get(column), list, time, valueIndex, column);
+        }
+      }
+    }
+  }
+
+  private static void addAlignedValue(
+      SeriesSketch sketch,
+      TSDataType dataType,
+      AlignedTVList list,
+      long time,
+      int valueIndex,
+      int column) {
+    switch (dataType) {
+      case BOOLEAN:
+        sketch.addBoolean(time, list.getBooleanByValueIndex(valueIndex, column));
+        break;
+      case INT32:
+      case DATE:
+        sketch.addInt(time, list.getIntByValueIndex(valueIndex, column));
+        break;
+      case INT64:
+      case TIMESTAMP:
+        sketch.addLong(time, list.getLongByValueIndex(valueIndex, column));
+        break;
+      case FLOAT:
+        sketch.addFloat(time, list.getFloatByValueIndex(valueIndex, column));
+        break;
+      case DOUBLE:
+        sketch.addDouble(time, list.getDoubleByValueIndex(valueIndex, column));
+        break;
+      case TEXT:
+      case BLOB:
+      case STRING:
+        sketch.addBinary(time, list.getBinaryByValueIndex(valueIndex, column));
+        break;
+      default:
+        break;
+    }
+  }
+
+  /** Merges the sketches of the devices accepted by the filter. */
+  public void merge(TsFileSketch other, Predicate<IDeviceID> deviceFilter) {
+    for (Map.Entry<IDeviceID, Map<String, SeriesSketch>> deviceEntry : other.sketches.entrySet()) {
+      if (!deviceFilter.test(deviceEntry.getKey())) {
+        continue;
+      }
+      Map<String, SeriesSketch> deviceSketches =
+          sketches.computeIfAbsent(deviceEntry.getKey(), k -> new HashMap<>());
+      for (Map.Entry<String, SeriesSketch> entry : deviceEntry.getValue().entrySet()) {
+        SeriesSketch sketch = deviceSketches.get(entry.getKey());
+        if (sketch == null) {
+          // copied so that the other sidecar can be merged into more than one sidecar
+          sketch = new SeriesSketch(entry.getValue().getDataType());
+          sketch.merge(entry.getValue());
+          deviceSketches.put(entry.getKey(), sketch);
+        } else if (!sketch.merge(entry.getValue())) {
+          deviceSketches.remove(entry.getKey());
+        }
+      }
+    }
+  }
+
+  public void merge(TsFileSketch other) {
+    merge(other, deviceID -> true);
+  }
+
+  /** Writes the sidecar of the TsFile, replacing the existing one. */
+  public void serialize(File tsFile) throws IOException {
+    File sketchFile = getSketchFile(tsFile);
+    File tempFile = fsFactory.getFile(sketchFile.getPath() + TEMP_SUFFIX);
+    FileOutputStream fileOutputStream = new FileOutputStream(tempFile);
+    BufferedOutputStream outputStream = new BufferedOutputStream(fileOutputStream);
+    try {
+      ReadWriteIOUtils.write(VERSION_NUMBER, outputStream);
+      ReadWriteIOUtils.write(sketches.size(), outputStream);
+      for (Map.Entry<IDeviceID, Map<String, SeriesSketch>> deviceEntry : sketches.entrySet()) {
+        deviceEntry.getKey().serialize(outputStream);
+        ReadWriteIOUtils.write(deviceEntry.getValue().size(), outputStream);
+        for (Map.Entry<String, SeriesSketch> entry : deviceEntry.getValue().entrySet()) {
+          ReadWriteIOUtils.write(entry.getKey(), outputStream);
+          entry.getValue().serialize(outputStream);
+        }
+      }
+    } finally {
+      outputStream.flush();
+      fileOutputStream.getFD().sync();
+      outputStream.close();
+    }
+    fsFactory.deleteIfExists(sketchFile);
+    fsFactory.moveFile(tempFile, sketchFile);
+  }
+
+  /**
+   * @return the sidecar of the TsFile, or null if it does not exist
+   */
+  public static TsFileSketch deserialize(File tsFile) throws IOException {
+    File sketchFile = getSketchFile(tsFile);
+    if (!sketchFile.exists()) {
+      return null;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(sketchFile.toPath()));
+    TsFileSketch tsFileSketch = new TsFileSketch();
+    tsFileSketch.fileSize = buffer.capacity();
+    ReadWriteIOUtils.readByte(buffer);
+    int deviceCount = buffer.getInt();
+    for (int i = 0; i < deviceCount; i++) {
+      IDeviceID deviceID = IDeviceID.Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(buffer);
+      int seriesCount = buffer.getInt();
+      Map<String, SeriesSketch> deviceSketches = new HashMap<>(seriesCount);
+      for (int j = 0; j < seriesCount; j++) {
+        deviceSketches.put(ReadWriteIOUtils.readString(buffer), SeriesSketch.deserialize(buffer));
+      }
+      tsFileSketch.sketches.put(deviceID, deviceSketches);
+    }
+    return tsFileSketch;
+  }
+
+  public static void remove(File tsFile) throws IOException {
+    fsFactory.deleteIfExists(getSketchFile(tsFile));
+    TsFileSketchCache.getInstance().invalidate(tsFile);
+  }
+}
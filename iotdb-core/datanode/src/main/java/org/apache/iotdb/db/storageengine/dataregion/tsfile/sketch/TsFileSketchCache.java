@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+
+/** Caches the deserialized sketch sidecars of closed TsFiles, keyed by the path of the TsFile. */
+public class TsFileSketchCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TsFileSketchCache.class);
+
+  private static final long MEMORY_THRESHOLD_IN_SKETCH_CACHE = 32L * 1024 * 1024;
+
+  // cached for TsFiles without a sidecar, so that their absence is only checked once
+  private static final TsFileSketch ABSENT = new TsFileSketch();
+
+  private final Cache<String, TsFileSketch> lruCache;
+
+  private TsFileSketchCache() {
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(MEMORY_THRESHOLD_IN_SKETCH_CACHE)
+            .weigher(
+                (Weigher<String, TsFileSketch>)
+                    (path, sketch) ->
+                        (int) Math.min(Integer.MAX_VALUE, path.length() + sketch.getFileSize()))
+            .build();
+  }
+
+  public static TsFileSketchCache getInstance() {
+    return TsFileSketchCacheHolder.INSTANCE;
+  }
+
+  /**
+   * @return the sidecar of the TsFile, or null if the TsFile is not closed or has no sidecar
+   */
+  public TsFileSketch get(TsFileResource resource) {
+    if (!resource.isClosed()) {
+      return null;
+    }
+    TsFileSketch sketch =
+        lruCache.get(resource.getTsFilePath(), path -> load(resource.getTsFile()));
+    return sketch == ABSENT ? null : sketch;
+  }
+
+  private static TsFileSketch load(File tsFile) {
+    try {
+      TsFileSketch sketch = TsFileSketch.deserialize(tsFile);
+      return sketch == null ? ABSENT : sketch;
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Failed to read the sketch sidecar of {}, it will be ignored", tsFile, e);
+      return ABSENT;
+    }
+  }
+
+  public void invalidate(File tsFile) {
+    lruCache.invalidate(tsFile.getPath());
+  }
+
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  private static class TsFileSketchCacheHolder {
+
+    private static final TsFileSketchCache INSTANCE = new TsFileSketchCache();
+
+    private TsFileSketchCacheHolder() {}
+  }
+}
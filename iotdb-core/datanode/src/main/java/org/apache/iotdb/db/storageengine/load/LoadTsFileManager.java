@@ -39,23 +39,28 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.node.load.LoadTsFilePie
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.TableSchema;
 import org.apache.iotdb.db.queryengine.plan.scheduler.load.LoadTsFileScheduler.LoadCommand;
 import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+import org.apache.iotdb.db.service.metrics.DirectIOMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.flush.MemTableFlushTask;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.modification.v1.ModificationFileV1;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
 import org.apache.iotdb.db.storageengine.load.active.ActiveLoadAgent;
+import org.apache.iotdb.db.storageengine.load.metrics.LoadTsFileCostMetricsSet;
 import org.apache.iotdb.db.storageengine.load.splitter.ChunkData;
 import org.apache.iotdb.db.storageengine.load.splitter.DeletionData;
 import org.apache.iotdb.db.storageengine.load.splitter.TsFileData;
 import org.apache.iotdb.db.storageengine.rescon.disk.FolderManager;
 import org.apache.iotdb.db.storageengine.rescon.disk.strategy.DirectoryStrategyType;
+import org.apache.iotdb.db.utils.io.DirectIOTsFileIOWriter;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 
 import org.apache.tsfile.common.constant.TsFileConstant;
 import org.apache.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,8 +70,10 @@ import java.io.IOException;
 import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -194,57 +201,100 @@ public class LoadTsFileManager {
 
   public void writeToDataRegion(DataRegion dataRegion, LoadTsFilePieceNode pieceNode, String uuid)
       throws IOException {
-    if (!uuid2WriterManager.containsKey(uuid)) {
-      synchronized (uuid2CleanupTask) {
-        final CleanupTask cleanupTask =
-            new CleanupTask(uuid, CONFIG.getLoadCleanupTaskExecutionDelayTimeSeconds() * 1000);
-        uuid2CleanupTask.put(uuid, cleanupTask);
-        cleanupTaskQueue.add(cleanupTask);
+    registerCleanupTaskIfNecessary(uuid);
+
+    final Optional<CleanupTask> cleanupTask = Optional.of(uuid2CleanupTask.get(uuid));
+    cleanupTask.ifPresent(CleanupTask::markLoadTaskRunning);
+    try {
+      final TsFileWriterManager writerManager = getOrCreateWriterManager(uuid);
+
+      synchronized (writerManager) {
+        for (TsFileData tsFileData : pieceNode.getAllTsFileData()) {
+          switch (tsFileData.getType()) {
+            case CHUNK:
+              ChunkData chunkData = (ChunkData) tsFileData;
+              writerManager.write(
+                  new DataPartitionInfo(
+                      dataRegion,
+                      chunkData.getTimePartitionSlot(),
+                      pieceNode.getDeviceRangeIndex()),
+                  chunkData);
+              break;
+            case DELETION:
+              writerManager.writeDeletion(dataRegion, (DeletionData) tsFileData);
+              break;
+            default:
+              throw new IOException("Unsupported TsFileData type: " + tsFileData.getType());
+          }
+        }
       }
+      LoadTsFileCostMetricsSet.getInstance()
+          .recordThroughput(LoadTsFileCostMetricsSet.RECEIVE, pieceNode.getDataSize());
+    } finally {
+      cleanupTask.ifPresent(CleanupTask::markLoadTaskNotRunning);
     }
+  }
+
+  /**
+   * Prepare to load a TsFile as it is by the local replica of a data region, which is the first
+   * phase of a load task in which the other replicas receive the pieces of the TsFile. The TsFile
+   * is linked or copied into the task dir, and is loaded into the data region only when the load
+   * task is executed, or deleted when the task is rolled back.
+   */
+  public void prepareTsFileAdoption(
+      DataRegion dataRegion, TsFileResource tsFileResource, boolean isDeleteAfterLoad, String uuid)
+      throws IOException {
+    registerCleanupTaskIfNecessary(uuid);
 
     final Optional<CleanupTask> cleanupTask = Optional.of(uuid2CleanupTask.get(uuid));
     cleanupTask.ifPresent(CleanupTask::markLoadTaskRunning);
     try {
-      final AtomicReference<Exception> exception = new AtomicReference<>();
-      final TsFileWriterManager writerManager =
-          uuid2WriterManager.computeIfAbsent(
-              uuid,
-              o -> {
-                try {
-                  return new TsFileWriterManager(new File(getNextFolder(), uuid));
-                } catch (DiskSpaceInsufficientException e) {
-                  exception.set(e);
-                  return null;
-                }
-              });
-      if (exception.get() != null || writerManager == null) {
-        throw new IOException(
-            "Failed to create TsFileWriterManager for uuid "
-                + uuid
-                + " because of insufficient disk space.",
-            exception.get());
-      }
-
-      for (TsFileData tsFileData : pieceNode.getAllTsFileData()) {
-        switch (tsFileData.getType()) {
-          case CHUNK:
-            ChunkData chunkData = (ChunkData) tsFileData;
-            writerManager.write(
-                new DataPartitionInfo(dataRegion, chunkData.getTimePartitionSlot()), chunkData);
-            break;
-          case DELETION:
-            writerManager.writeDeletion(dataRegion, (DeletionData) tsFileData);
-            break;
-          default:
-            throw new IOException("Unsupported TsFileData type: " + tsFileData.getType());
-        }
+      final TsFileWriterManager writerManager = getOrCreateWriterManager(uuid);
+      synchronized (writerManager) {
+        writerManager.adopt(dataRegion, tsFileResource, isDeleteAfterLoad);
       }
     } finally {
       cleanupTask.ifPresent(CleanupTask::markLoadTaskNotRunning);
     }
   }
 
+  private void registerCleanupTaskIfNecessary(String uuid) {
+    if (!uuid2WriterManager.containsKey(uuid)) {
+      synchronized (uuid2CleanupTask) {
+        // the pieces of a TsFile split in parallel may arrive concurrently under the same uuid
+        if (!uuid2CleanupTask.containsKey(uuid)) {
+          final CleanupTask cleanupTask =
+              new CleanupTask(uuid, CONFIG.getLoadCleanupTaskExecutionDelayTimeSeconds() * 1000);
+          uuid2CleanupTask.put(uuid, cleanupTask);
+          cleanupTaskQueue.add(cleanupTask);
+        }
+      }
+    }
+  }
+
+  private TsFileWriterManager getOrCreateWriterManager(String uuid) throws IOException {
+    final AtomicReference<Exception> exception = new AtomicReference<>();
+    final TsFileWriterManager writerManager =
+        uuid2WriterManager.computeIfAbsent(
+            uuid,
+            o -> {
+              try {
+                return new TsFileWriterManager(new File(getNextFolder(), uuid));
+              } catch (DiskSpaceInsufficientException e) {
+                exception.set(e);
+                return null;
+              }
+            });
+    if (exception.get() != null || writerManager == null) {
+      throw new IOException(
+          "Failed to create TsFileWriterManager for uuid "
+              + uuid
+              + " because of insufficient disk space.",
+          exception.get());
+    }
+    return writerManager;
+  }
+
   private String getNextFolder() throws DiskSpaceInsufficientException {
     if (CONFIG.getLoadTsFileDirs() != LOAD_BASE_DIRS.get()) {
       synchronized (FOLDER_MANAGER) {
@@ -371,6 +421,8 @@ public class LoadTsFileManager {
     private Map<DataPartitionInfo, TsFileResource> dataPartition2Resource;
     private Map<DataPartitionInfo, IDeviceID> dataPartition2LastDevice;
     private Map<DataPartitionInfo, ModificationFile> dataPartition2ModificationFile;
+    // the TsFiles adopted as they are by the local replicas of the data regions
+    private final List<Pair<DataRegion, TsFileResource>> adoptedTsFileResources;
     private boolean isClosed;
 
     private TsFileWriterManager(File taskDir) {
@@ -379,6 +431,7 @@ public class LoadTsFileManager {
       this.dataPartition2Resource = new HashMap<>();
       this.dataPartition2LastDevice = new HashMap<>();
       this.dataPartition2ModificationFile = new HashMap<>();
+      this.adoptedTsFileResources = new ArrayList<>();
       this.isClosed = false;
 
       clearDir(taskDir);
@@ -415,7 +468,10 @@ public class LoadTsFileManager {
         final long chunkMetadataMaxSizeForEachWriter =
             CONFIG.getLoadChunkMetadataMemorySizeInBytes() / (dataPartition2Writer.size() + 1);
         final TsFileIOWriter writer =
-            new TsFileIOWriter(newTsFile, chunkMetadataMaxSizeForEachWriter);
+            CONFIG.isEnableLoadTsFileDirectIO()
+                ? new DirectIOTsFileIOWriter(
+                    newTsFile, chunkMetadataMaxSizeForEachWriter, DirectIOMetrics.LOAD)
+                : new TsFileIOWriter(newTsFile, chunkMetadataMaxSizeForEachWriter);
         final TsFileResource resource = new TsFileResource(writer.getFile());
         writer.addFlushListener(
             // Update time index by chunk groups going to be flushed to temp file
@@ -496,6 +552,53 @@ public class LoadTsFileManager {
       }
     }
 
+    /**
+     * The TsFile is hard linked into the task dir only if it is deleted after loading, otherwise it
+     * is copied, so that the loaded TsFile never shares its data with the origin file kept.
+     */
+    private void adopt(DataRegion dataRegion, TsFileResource tsFileResource, boolean canLink)
+        throws IOException {
+      if (isClosed) {
+        throw new IOException(String.format(MESSAGE_WRITER_MANAGER_HAS_BEEN_CLOSED, taskDir));
+      }
+      final File originTsFile = tsFileResource.getTsFile();
+      final File adoptedTsFile =
+          SystemFileFactory.INSTANCE.getFile(taskDir, originTsFile.getName());
+      linkOrCopyFile(originTsFile, adoptedTsFile, canLink);
+
+      final File originModFile = ModificationFile.getExclusiveMods(originTsFile);
+      if (originModFile.exists()) {
+        Files.copy(
+            originModFile.toPath(), ModificationFile.getExclusiveMods(adoptedTsFile).toPath());
+      }
+      final File originOldModFile = ModificationFileV1.getNormalMods(originTsFile);
+      if (originOldModFile.exists()) {
+        Files.copy(
+            originOldModFile.toPath(), ModificationFileV1.getNormalMods(adoptedTsFile).toPath());
+      }
+
+      final TsFileResource adoptedTsFileResource = new TsFileResource(adoptedTsFile);
+      adoptedTsFileResource.setTimeIndex(tsFileResource.getTimeIndex());
+      adoptedTsFileResources.add(new Pair<>(dataRegion, adoptedTsFileResource));
+    }
+
+    private void linkOrCopyFile(File originFile, File targetFile, boolean canLink)
+        throws IOException {
+      if (canLink) {
+        try {
+          Files.createLink(targetFile.toPath(), originFile.toPath());
+          return;
+        } catch (IOException | UnsupportedOperationException e) {
+          LOGGER.info(
+              "Failed to create hard link from {} to {}, copy the file instead, because {}",
+              originFile.getAbsolutePath(),
+              targetFile.getAbsolutePath(),
+              e.getMessage());
+        }
+      }
+      Files.copy(originFile.toPath(), targetFile.toPath());
+    }
+
     private void loadAll(boolean isGeneratedByPipe, ProgressIndex progressIndex)
         throws IOException, LoadFileException {
       if (isClosed) {
@@ -526,6 +629,14 @@ public class LoadTsFileManager {
                     updateWritePointCountMetrics(
                         dataRegion, databaseName, getTsFileWritePointCount(writer), false));
       }
+
+      for (final Pair<DataRegion, TsFileResource> adopted : adoptedTsFileResources) {
+        final TsFileResource tsFileResource = adopted.getRight();
+        tsFileResource.setStatus(TsFileResourceStatus.NORMAL);
+        tsFileResource.setProgressIndex(progressIndex);
+        tsFileResource.serialize();
+        adopted.getLeft().loadNewTsFile(tsFileResource, true, isGeneratedByPipe);
+      }
     }
 
     private void endTsFileResource(
@@ -586,6 +697,22 @@ public class LoadTsFileManager {
           }
         }
       }
+      // the adopted TsFiles not loaded yet are removed from the task dir
+      for (final Pair<DataRegion, TsFileResource> adopted : adoptedTsFileResources) {
+        final File adoptedTsFile = adopted.getRight().getTsFile();
+        for (final File file :
+            Arrays.asList(
+                adoptedTsFile,
+                new File(adoptedTsFile.getPath() + TsFileResource.RESOURCE_SUFFIX),
+                ModificationFile.getExclusiveMods(adoptedTsFile),
+                ModificationFileV1.getNormalMods(adoptedTsFile))) {
+          try {
+            Files.deleteIfExists(file.toPath());
+          } catch (IOException e) {
+            LOGGER.warn(MESSAGE_DELETE_FAIL, file.getPath(), e);
+          }
+        }
+      }
       try {
         Files.delete(taskDir.toPath());
       } catch (DirectoryNotEmptyException e) {
@@ -658,10 +785,15 @@ public class LoadTsFileManager {
 
     private final DataRegion dataRegion;
     private final TTimePartitionSlot timePartitionSlot;
+    // the pieces of different device ranges of a TsFile split in parallel arrive interleaved, so
+    // they are written into different TsFiles to keep the chunk groups of each writer intact
+    private final int deviceRangeIndex;
 
-    private DataPartitionInfo(DataRegion dataRegion, TTimePartitionSlot timePartitionSlot) {
+    private DataPartitionInfo(
+        DataRegion dataRegion, TTimePartitionSlot timePartitionSlot, int deviceRangeIndex) {
       this.dataRegion = dataRegion;
       this.timePartitionSlot = timePartitionSlot;
+      this.deviceRangeIndex = deviceRangeIndex;
     }
 
     public DataRegion getDataRegion() {
@@ -670,11 +802,15 @@ public class LoadTsFileManager {
 
     @Override
     public String toString() {
-      return String.join(
-          IoTDBConstant.FILE_NAME_SEPARATOR,
-          dataRegion.getDatabaseName(),
-          dataRegion.getDataRegionId(),
-          Long.toString(timePartitionSlot.getStartTime()));
+      final String partition =
+          String.join(
+              IoTDBConstant.FILE_NAME_SEPARATOR,
+              dataRegion.getDatabaseName(),
+              dataRegion.getDataRegionId(),
+              Long.toString(timePartitionSlot.getStartTime()));
+      return deviceRangeIndex == 0
+          ? partition
+          : partition + IoTDBConstant.FILE_NAME_SEPARATOR + deviceRangeIndex;
     }
 
     @Override
@@ -687,12 +823,13 @@ public class LoadTsFileManager {
       }
       DataPartitionInfo that = (DataPartitionInfo) o;
       return Objects.equals(dataRegion, that.dataRegion)
-          && timePartitionSlot.getStartTime() == that.timePartitionSlot.getStartTime();
+          && timePartitionSlot.getStartTime() == that.timePartitionSlot.getStartTime()
+          && deviceRangeIndex == that.deviceRangeIndex;
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(dataRegion, timePartitionSlot.getStartTime());
+      return Objects.hash(dataRegion, timePartitionSlot.getStartTime(), deviceRangeIndex);
     }
   }
 }
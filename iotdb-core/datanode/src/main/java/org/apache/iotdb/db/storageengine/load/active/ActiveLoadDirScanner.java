@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.storageengine.load.active;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.db.storageengine.load.metrics.ActiveLoadingFilesNumberMetricsSet;
@@ -27,19 +28,29 @@ import org.apache.iotdb.db.storageengine.load.metrics.ActiveLoadingFilesSizeMetr
 import org.apache.commons.io.FileUtils;
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.utils.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
@@ -60,6 +71,14 @@ public class ActiveLoadDirScanner extends ActiveLoadScheduledExecutorService {
 
   private final ActiveLoadTsFileLoader activeLoadTsFileLoader;
 
+  // the watched dir and the listening dir it belongs to of each watch key
+  private final Map<WatchKey, Pair<Path, String>> watchKey2Dir = new ConcurrentHashMap<>();
+  private final Set<String> watchedListeningDirs = new CopyOnWriteArraySet<>();
+  private final AtomicReference<WatchService> watchService = new AtomicReference<>();
+  private final AtomicBoolean isWatchServiceUnavailable = new AtomicBoolean(false);
+  // guarded by watchService
+  private ExecutorService watcherExecutor;
+
   public ActiveLoadDirScanner(final ActiveLoadTsFileLoader activeLoadTsFileLoader) {
     super(ThreadName.ACTIVE_LOAD_DIR_SCANNER);
     this.activeLoadTsFileLoader = activeLoadTsFileLoader;
@@ -68,7 +87,7 @@ public class ActiveLoadDirScanner extends ActiveLoadScheduledExecutorService {
     LOGGER.info("Active load dir scanner periodical job registered");
   }
 
-  private void scanSafely() {
+  void scanSafely() {
     try {
       scan();
     } catch (final Exception e) {
@@ -87,12 +106,17 @@ public class ActiveLoadDirScanner extends ActiveLoadScheduledExecutorService {
     isReadOnlyLogPrinted.set(false);
 
     hotReloadActiveLoadDirs();
+    cancelWatchingRemovedDirs();
 
     for (final String listeningDir : listeningDirs) {
       if (!checkPermission(listeningDir)) {
         continue;
       }
 
+      if (IOTDB_CONFIG.isLoadActiveListeningWatchEnable()) {
+        watchListeningDirIfNecessary(listeningDir);
+      }
+
       final int currentAllowedPendingSize = activeLoadTsFileLoader.getCurrentAllowedPendingSize();
       if (currentAllowedPendingSize <= 0) {
         return;
@@ -117,6 +141,184 @@ public class ActiveLoadDirScanner extends ActiveLoadScheduledExecutorService {
     }
   }
 
+  /**
+   * Watch the listening dir and its sub dirs, so that the files put into them are loaded once the
+   * file system notifies, while the periodical scanning only finds the files missed by the watcher.
+   */
+  private void watchListeningDirIfNecessary(final String listeningDir) {
+    if (watchedListeningDirs.contains(listeningDir) || !initWatchServiceIfNecessary()) {
+      return;
+    }
+
+    watchedListeningDirs.add(listeningDir);
+    watchDirRecursively(new File(listeningDir).toPath(), listeningDir);
+  }
+
+  private boolean initWatchServiceIfNecessary() {
+    if (watchService.get() != null) {
+      return true;
+    }
+    if (isWatchServiceUnavailable.get()) {
+      return false;
+    }
+
+    synchronized (watchService) {
+      if (watchService.get() == null) {
+        try {
+          watchService.set(FileSystems.getDefault().newWatchService());
+        } catch (final IOException | UnsupportedOperationException e) {
+          LOGGER.warn(
+              "Failed to create watch service for active load dirs, "
+                  + "only periodical scanning will be used.",
+              e);
+          isWatchServiceUnavailable.set(true);
+          return false;
+        }
+        watcherExecutor =
+            IoTDBThreadPoolFactory.newSingleThreadExecutor(
+                ThreadName.ACTIVE_LOAD_DIR_WATCHER.name());
+        final WatchService currentWatchService = watchService.get();
+        watcherExecutor.submit(() -> watchSafely(currentWatchService));
+        LOGGER.info("Active load dir watcher started");
+      }
+    }
+    return true;
+  }
+
+  private void watchDirRecursively(final Path dir, final String listeningDir) {
+    final WatchService currentWatchService = watchService.get();
+    if (currentWatchService == null) {
+      // stopped
+      return;
+    }
+    try (final Stream<Path> dirStream = Files.walk(dir)) {
+      dirStream
+          .filter(Files::isDirectory)
+          .forEach(
+              subDir -> {
+                try {
+                  watchKey2Dir.put(
+                      subDir.register(
+                          currentWatchService,
+                          StandardWatchEventKinds.ENTRY_CREATE,
+                          StandardWatchEventKinds.ENTRY_MODIFY),
+                      new Pair<>(subDir, listeningDir));
+                } catch (final IOException | ClosedWatchServiceException e) {
+                  LOGGER.warn("Failed to watch dir {} for active load.", subDir, e);
+                }
+              });
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to watch dir {} for active load.", dir, e);
+    }
+  }
+
+  private void cancelWatchingRemovedDirs() {
+    watchedListeningDirs.retainAll(listeningDirs);
+    watchKey2Dir
+        .entrySet()
+        .removeIf(
+            entry -> {
+              if (listeningDirs.contains(entry.getValue().getRight())) {
+                return false;
+              }
+              entry.getKey().cancel();
+              return true;
+            });
+  }
+
+  private void watchSafely(final WatchService currentWatchService) {
+    while (!Thread.currentThread().isInterrupted()) {
+      final WatchKey watchKey;
+      try {
+        watchKey = currentWatchService.take();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (final ClosedWatchServiceException e) {
+        return;
+      }
+
+      final Pair<Path, String> dir = watchKey2Dir.get(watchKey);
+      for (final WatchEvent<?> event : watchKey.pollEvents()) {
+        // the files of the overflowed events will be found by the periodical scanning
+        if (dir == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+          continue;
+        }
+        try {
+          onPathCreatedOrModified(
+              dir.getLeft().resolve((Path) event.context()),
+              dir.getRight(),
+              event.kind() == StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (final Exception e) {
+          LOGGER.warn("Error occurred during handling active load dir watch event.", e);
+        }
+      }
+
+      if (!watchKey.reset()) {
+        watchKey2Dir.remove(watchKey);
+        if (dir != null && dir.getLeft().equals(new File(dir.getRight()).toPath())) {
+          // the listening dir is deleted, watch it again after it is created by the scanner
+          watchedListeningDirs.remove(dir.getRight());
+        }
+      }
+    }
+  }
+
+  /** Stops the periodical scanning and the watcher, they can be started again. */
+  @Override
+  public synchronized void stop() {
+    super.stop();
+
+    synchronized (watchService) {
+      final WatchService currentWatchService = watchService.getAndSet(null);
+      if (currentWatchService != null) {
+        try {
+          // the watcher thread blocked in take() exits once the service is closed
+          currentWatchService.close();
+        } catch (final IOException e) {
+          LOGGER.warn("Failed to close the watch service for active load dirs.", e);
+        }
+      }
+      if (watcherExecutor != null) {
+        watcherExecutor.shutdownNow();
+        watcherExecutor = null;
+        LOGGER.info("Active load dir watcher stopped");
+      }
+      // the keys are invalid after the service is closed
+      watchKey2Dir.clear();
+      watchedListeningDirs.clear();
+    }
+  }
+
+  private void onPathCreatedOrModified(
+      final Path path, final String listeningDir, final boolean isCreated) {
+    if (Files.isDirectory(path)) {
+      // the files put into the dir before it is watched will be found by the periodical scanning
+      if (isCreated) {
+        watchDirRecursively(path, listeningDir);
+      }
+      return;
+    }
+
+    if (CommonDescriptor.getInstance().getConfig().isReadOnly()
+        || activeLoadTsFileLoader.getCurrentAllowedPendingSize() <= 0) {
+      return;
+    }
+
+    final String filePath = path.toFile().getAbsolutePath();
+    final String tsFilePath =
+        (filePath.endsWith(RESOURCE) || filePath.endsWith(MODS))
+            ? getTsFilePath(filePath)
+            : filePath;
+    if (activeLoadTsFileLoader.isFilePendingOrLoading(new File(tsFilePath))
+        || !isTsFileCompleted(tsFilePath)) {
+      return;
+    }
+
+    activeLoadTsFileLoader.tryTriggerTsFileLoad(
+        tsFilePath, listeningDir.equals(IOTDB_CONFIG.getLoadActiveListeningPipeDir()));
+  }
+
   private boolean checkPermission(final String listeningDir) {
     try {
       final Path listeningDirPath = new File(listeningDir).toPath();
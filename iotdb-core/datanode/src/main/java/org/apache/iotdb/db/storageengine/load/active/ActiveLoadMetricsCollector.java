@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.storageengine.load.active;
 
 import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.storageengine.load.metrics.ActiveLoadingFilesNumberMetricsSet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +35,9 @@ public class ActiveLoadMetricsCollector extends ActiveLoadScheduledExecutorServi
   private long countPendingFileRemainingSkipRound = 0;
   private long countFailedFileRemainingSkipRound = 0;
 
+  private long lastLoadedFileCount = 0;
+  private long lastReportTimeMs = System.currentTimeMillis();
+
   public ActiveLoadMetricsCollector(
       final ActiveLoadTsFileLoader activeLoadTsFileLoader,
       final ActiveLoadDirScanner activeLoadDirScanner) {
@@ -44,6 +48,7 @@ public class ActiveLoadMetricsCollector extends ActiveLoadScheduledExecutorServi
 
     register(this::countAndReportPendingFile);
     register(this::countAndReportFailedFile);
+    register(this::reportQueueDepthAndLoadingRate);
     LOGGER.info("Active load metric collector periodical jobs registered");
   }
 
@@ -71,6 +76,24 @@ public class ActiveLoadMetricsCollector extends ActiveLoadScheduledExecutorServi
     countPendingFileRemainingSkipRound = 180; // 900 seconds
   }
 
+  private void reportQueueDepthAndLoadingRate() {
+    final long currentLoadedFileCount = activeLoadTsFileLoader.getLoadedFileCount();
+    final long currentTimeMs = System.currentTimeMillis();
+
+    ActiveLoadingFilesNumberMetricsSet.getInstance()
+        .updateQueueDepth(activeLoadTsFileLoader.getQueueDepth());
+    if (currentTimeMs > lastReportTimeMs) {
+      ActiveLoadingFilesNumberMetricsSet.getInstance()
+          .updateLoadedFilesPerSecond(
+              (currentLoadedFileCount - lastLoadedFileCount)
+                  * 1000.0
+                  / (currentTimeMs - lastReportTimeMs));
+    }
+
+    lastLoadedFileCount = currentLoadedFileCount;
+    lastReportTimeMs = currentTimeMs;
+  }
+
   private void countAndReportFailedFile() {
     if (countFailedFileRemainingSkipRound > 0) {
       --countFailedFileRemainingSkipRound;
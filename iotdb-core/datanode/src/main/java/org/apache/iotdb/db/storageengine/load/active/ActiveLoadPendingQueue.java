@@ -23,7 +23,13 @@ import org.apache.iotdb.db.storageengine.load.metrics.ActiveLoadingFilesNumberMe
 
 import org.apache.tsfile.utils.Pair;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -48,15 +54,53 @@ public class ActiveLoadPendingQueue {
   public synchronized Pair<String, Boolean> dequeueFromPending() {
     final Pair<String, Boolean> pair = pendingFileQueue.poll();
     if (pair != null) {
-      pendingFileSet.remove(pair.left);
-      loadingFileSet.add(pair.left);
-
-      ActiveLoadingFilesNumberMetricsSet.getInstance().increaseLoadingFileCounter(1);
-      ActiveLoadingFilesNumberMetricsSet.getInstance().increaseQueuingFileCounter(-1);
+      markLoading(pair);
     }
     return pair;
   }
 
+  /**
+   * Dequeue the head of the pending queue together with the following pending files which can be
+   * loaded with it in one batch, i.e. the files not larger than the given threshold in the same dir
+   * as the head and generated by pipe or not as the head.
+   */
+  public synchronized List<Pair<String, Boolean>> dequeueBatchFromPending(
+      final int maxFileNum, final long fileSizeThreshold) {
+    final Pair<String, Boolean> head = dequeueFromPending();
+    if (head == null) {
+      return Collections.emptyList();
+    }
+
+    final List<Pair<String, Boolean>> batch = new ArrayList<>();
+    batch.add(head);
+    if (maxFileNum <= 1 || new File(head.left).length() > fileSizeThreshold) {
+      return batch;
+    }
+
+    final String dir = new File(head.left).getParent();
+    final Iterator<Pair<String, Boolean>> iterator = pendingFileQueue.iterator();
+    while (batch.size() < maxFileNum && iterator.hasNext()) {
+      final Pair<String, Boolean> pair = iterator.next();
+      final File file = new File(pair.left);
+      if (pair.right.equals(head.right)
+          && Objects.equals(dir, file.getParent())
+          && file.length() <= fileSizeThreshold) {
+        iterator.remove();
+        markLoading(pair);
+        batch.add(pair);
+      }
+    }
+    return batch;
+  }
+
+  private void markLoading(final Pair<String, Boolean> pair) {
+    pendingFileSet.remove(pair.left);
+    loadingFileSet.add(pair.left);
+
+    ActiveLoadingFilesNumberMetricsSet.getInstance().increaseLoadingFileCounter(1);
+    ActiveLoadingFilesNumberMetricsSet.getInstance().increaseQueuingFileCounter(-1);
+  }
+
   public synchronized void removeFromLoading(final String file) {
     loadingFileSet.remove(file);
 
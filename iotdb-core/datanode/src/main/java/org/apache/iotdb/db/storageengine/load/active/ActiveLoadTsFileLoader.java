@@ -53,12 +53,15 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
 
 public class ActiveLoadTsFileLoader {
 
@@ -73,6 +76,8 @@ public class ActiveLoadTsFileLoader {
       new AtomicReference<>();
   private final AtomicReference<String> failDir = new AtomicReference<>();
 
+  private final AtomicLong loadedFileCount = new AtomicLong(0);
+
   public int getCurrentAllowedPendingSize() {
     return MAX_PENDING_SIZE - pendingQueue.size();
   }
@@ -144,47 +149,94 @@ public class ActiveLoadTsFileLoader {
 
   private void tryLoadPendingTsFiles() {
     while (true) {
-      final Optional<Pair<String, Boolean>> filePair = tryGetNextPendingFile();
-      if (!filePair.isPresent()) {
+      final List<Pair<String, Boolean>> filePairs = tryGetNextPendingFiles();
+      if (filePairs.isEmpty()) {
         return;
       }
 
       try {
-        final TSStatus result = loadTsFile(filePair.get());
-        if (result.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()
-            || result.getCode() == TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
-          LOGGER.info(
-              "Successfully auto load tsfile {} (isGeneratedByPipe = {})",
-              filePair.get().getLeft(),
-              filePair.get().getRight());
+        if (filePairs.size() == 1) {
+          loadPendingTsFile(filePairs.get(0));
         } else {
-          handleLoadFailure(filePair.get(), result);
+          loadPendingTsFilesInBatch(filePairs);
         }
-      } catch (final FileNotFoundException e) {
-        handleFileNotFoundException(filePair.get());
-      } catch (final Exception e) {
-        handleOtherException(filePair.get(), e);
       } finally {
-        pendingQueue.removeFromLoading(filePair.get().getLeft());
+        filePairs.forEach(filePair -> pendingQueue.removeFromLoading(filePair.getLeft()));
+      }
+    }
+  }
+
+  private void loadPendingTsFile(final Pair<String, Boolean> filePair) {
+    try {
+      final TSStatus result = loadTsFile(filePair);
+      if (result.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()
+          || result.getCode() == TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
+        LOGGER.info(
+            "Successfully auto load tsfile {} (isGeneratedByPipe = {})",
+            filePair.getLeft(),
+            filePair.getRight());
+        loadedFileCount.incrementAndGet();
+      } else {
+        handleLoadFailure(filePair, result);
+      }
+    } catch (final FileNotFoundException e) {
+      handleFileNotFoundException(filePair);
+    } catch (final Exception e) {
+      handleOtherException(filePair, e);
+    }
+  }
+
+  private void loadPendingTsFilesInBatch(final List<Pair<String, Boolean>> filePairs) {
+    final List<String> filePaths =
+        filePairs.stream().map(Pair::getLeft).collect(Collectors.toList());
+    try {
+      final TSStatus result = loadTsFiles(filePaths, filePairs.get(0).getRight());
+      if (result.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()
+          || result.getCode() == TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
+        LOGGER.info(
+            "Successfully auto load {} tsfiles {} in batch (isGeneratedByPipe = {})",
+            filePaths.size(),
+            filePaths,
+            filePairs.get(0).getRight());
+        loadedFileCount.addAndGet(filePaths.size());
+        return;
+      }
+      LOGGER.info(
+          "Failed to auto load tsfiles {} in batch, status: {}. Will load them one by one.",
+          filePaths,
+          result);
+    } catch (final Exception e) {
+      LOGGER.info(
+          "Failed to auto load tsfiles {} in batch. Will load them one by one.", filePaths, e);
+    }
+
+    // the tsfiles loaded before the failure in the batch have been deleted. A missing tsfile may
+    // also have been removed by others, so it is not counted as loaded.
+    for (final Pair<String, Boolean> filePair : filePairs) {
+      if (new File(filePair.getLeft()).exists()) {
+        loadPendingTsFile(filePair);
       }
     }
   }
 
-  private Optional<Pair<String, Boolean>> tryGetNextPendingFile() {
+  private List<Pair<String, Boolean>> tryGetNextPendingFiles() {
     final long maxRetryTimes =
         Math.max(1, IOTDB_CONFIG.getLoadActiveListeningCheckIntervalSeconds() << 1);
     long currentRetryTimes = 0;
 
     while (true) {
-      final Pair<String, Boolean> filePair = pendingQueue.dequeueFromPending();
-      if (Objects.nonNull(filePair)) {
-        return Optional.of(filePair);
+      final List<Pair<String, Boolean>> filePairs =
+          pendingQueue.dequeueBatchFromPending(
+              IOTDB_CONFIG.getLoadActiveListeningBatchMaxFileNum(),
+              IOTDB_CONFIG.getLoadActiveListeningBatchFileSizeThresholdInByte());
+      if (!filePairs.isEmpty()) {
+        return filePairs;
       }
 
       LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
 
       if (currentRetryTimes++ >= maxRetryTimes) {
-        return Optional.empty();
+        return Collections.emptyList();
       }
     }
   }
@@ -197,6 +249,15 @@ public class ActiveLoadTsFileLoader {
     return executeStatement(filePair.getRight() ? new PipeEnrichedStatement(statement) : statement);
   }
 
+  private TSStatus loadTsFiles(final List<String> filePaths, final boolean isGeneratedByPipe) {
+    final LoadTsFileStatement statement =
+        new LoadTsFileStatement(filePaths.stream().map(File::new).collect(Collectors.toList()));
+    statement.setDeleteAfterLoad(true);
+    statement.setVerifySchema(true);
+    statement.setAutoCreateDatabase(false);
+    return executeStatement(isGeneratedByPipe ? new PipeEnrichedStatement(statement) : statement);
+  }
+
   private TSStatus executeStatement(final Statement statement) {
     return Coordinator.getInstance()
         .executeForTreeModel(
@@ -268,6 +329,14 @@ public class ActiveLoadTsFileLoader {
   }
 
   // Metrics
+  public int getQueueDepth() {
+    return pendingQueue.size();
+  }
+
+  public long getLoadedFileCount() {
+    return loadedFileCount.get();
+  }
+
   public long countAndReportFailedFileNumber() {
     final long[] fileCount = {0};
     final long[] fileSize = {0};
@@ -32,10 +32,16 @@ public class ActiveLoadingFilesNumberMetricsSet extends ActiveLoadingFilesMetric
   private static final String PENDING = "pending";
   private static final String QUEUING = "queuing";
   private static final String LOADING = "loading";
+  private static final String QUEUE_DEPTH = "queue_depth";
+  private static final String FILES_PER_SECOND = "files_per_second";
 
   private Counter queuingFileCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   private Counter loadingFileCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
+  // reported periodically by the active load metrics collector
+  private volatile long queueDepth = 0;
+  private volatile double loadedFilesPerSecond = 0;
+
   public void increaseQueuingFileCounter(final long number) {
     queuingFileCounter.inc(number);
   }
@@ -44,6 +50,14 @@ public class ActiveLoadingFilesNumberMetricsSet extends ActiveLoadingFilesMetric
     loadingFileCounter.inc(number);
   }
 
+  public void updateQueueDepth(final long queueDepth) {
+    this.queueDepth = queueDepth;
+  }
+
+  public void updateLoadedFilesPerSecond(final double loadedFilesPerSecond) {
+    this.loadedFilesPerSecond = loadedFilesPerSecond;
+  }
+
   @Override
   protected void bindOtherCounters(final AbstractMetricService metricService) {
     totalPendingFileCounter =
@@ -64,6 +78,20 @@ public class ActiveLoadingFilesNumberMetricsSet extends ActiveLoadingFilesMetric
             MetricLevel.IMPORTANT,
             Tag.TYPE.toString(),
             LOADING);
+    metricService.createAutoGauge(
+        Metric.ACTIVE_LOAD_PROGRESS.toString(),
+        MetricLevel.IMPORTANT,
+        this,
+        o -> o.queueDepth,
+        Tag.TYPE.toString(),
+        QUEUE_DEPTH);
+    metricService.createAutoGauge(
+        Metric.ACTIVE_LOAD_PROGRESS.toString(),
+        MetricLevel.IMPORTANT,
+        this,
+        o -> o.loadedFilesPerSecond,
+        Tag.TYPE.toString(),
+        FILES_PER_SECOND);
   }
 
   @Override
@@ -87,6 +115,16 @@ public class ActiveLoadingFilesNumberMetricsSet extends ActiveLoadingFilesMetric
         Metric.ACTIVE_LOADING_FILES_NUMBER.toString(),
         Tag.TYPE.toString(),
         LOADING);
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.ACTIVE_LOAD_PROGRESS.toString(),
+        Tag.TYPE.toString(),
+        QUEUE_DEPTH);
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.ACTIVE_LOAD_PROGRESS.toString(),
+        Tag.TYPE.toString(),
+        FILES_PER_SECOND);
   }
 
   @Override
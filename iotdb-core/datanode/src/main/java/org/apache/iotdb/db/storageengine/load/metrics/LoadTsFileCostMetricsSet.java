@@ -26,6 +26,7 @@ import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
 import org.apache.iotdb.metrics.type.Counter;
+import org.apache.iotdb.metrics.type.Rate;
 import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
@@ -41,6 +42,9 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
   public static final String SECOND_PHASE = "second_phase";
   public static final String LOAD_LOCALLY = "load_locally";
 
+  public static final String DISPATCH = "dispatch";
+  public static final String RECEIVE = "receive";
+
   private LoadTsFileCostMetricsSet() {
     // empty constructor
   }
@@ -52,6 +56,10 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
 
   private Counter diskIOCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
+  // bytes of the pieces dispatched by the first phase and written by the receivers
+  private Rate dispatchThroughputRate = DoNothingMetricManager.DO_NOTHING_RATE;
+  private Rate receiveThroughputRate = DoNothingMetricManager.DO_NOTHING_RATE;
+
   public void recordPhaseTimeCost(String stage, long costTimeInNanos) {
     switch (stage) {
       case ANALYSIS:
@@ -75,6 +83,19 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
     diskIOCounter.inc(bytes);
   }
 
+  public void recordThroughput(String stage, long bytes) {
+    switch (stage) {
+      case DISPATCH:
+        dispatchThroughputRate.mark(bytes);
+        break;
+      case RECEIVE:
+        receiveThroughputRate.mark(bytes);
+        break;
+      default:
+        throw new UnsupportedOperationException("Unsupported stage: " + stage);
+    }
+  }
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     analyzerTimer =
@@ -105,6 +126,16 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.NAME.toString(),
             "DataNode " + IoTDBDescriptor.getInstance().getConfig().getDataNodeId());
+
+    dispatchThroughputRate =
+        metricService.getOrCreateRate(
+            Metric.LOAD_THROUGHPUT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            DISPATCH);
+    receiveThroughputRate =
+        metricService.getOrCreateRate(
+            Metric.LOAD_THROUGHPUT.toString(), MetricLevel.IMPORTANT, Tag.NAME.toString(), RECEIVE);
   }
 
   @Override
@@ -123,6 +154,15 @@ public class LoadTsFileCostMetricsSet implements IMetricSet {
         Metric.LOAD_DISK_IO.toString(),
         Tag.NAME.toString(),
         String.valueOf(IoTDBDescriptor.getInstance().getConfig().getDataNodeId()));
+
+    Arrays.asList(DISPATCH, RECEIVE)
+        .forEach(
+            stage ->
+                metricService.remove(
+                    MetricType.RATE,
+                    Metric.LOAD_THROUGHPUT.toString(),
+                    Tag.NAME.toString(),
+                    stage));
   }
 
   public static LoadTsFileCostMetricsSet getInstance() {
@@ -49,27 +49,42 @@ import org.apache.tsfile.utils.TsPrimitiveType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
 
 public class TsFileSplitter {
   private static final Logger logger = LoggerFactory.getLogger(TsFileSplitter.class);
+  private static final Predicate<IDeviceID> ALL_DEVICES = device -> true;
 
   private final File tsFile;
   private final TsFileDataConsumer consumer;
+  // only the chunk groups of the devices accepted by the filter are split, the others are skipped
+  private final Predicate<IDeviceID> deviceFilter;
+  // the offsets of the chunks of the accepted devices, by which the splitter seeks over the chunk
+  // groups of the other devices instead of reading their chunk headers one by one
+  private final NavigableMap<Long, IDeviceID> chunkOffset2AcceptedDevice = new TreeMap<>();
+  // the splitters of the device ranges of a TsFile do not send its deletions, which are sent only
+  // once by splitModifications() after all the ranges are split
+  private final boolean isModificationHandled;
   private Map<Long, IChunkMetadata> offset2ChunkMetadata = new HashMap<>();
   private List<ModEntry> deletions = new ArrayList<>();
   private Map<Integer, List<AlignedChunkData>> pageIndex2ChunkData = new HashMap<>();
   private Map<Integer, long[]> pageIndex2Times = new HashMap<>();
   private boolean isTimeChunkNeedDecode = true;
   private IDeviceID curDevice = null;
+  private boolean isCurDeviceSkipped = false;
   private boolean isAligned;
   private int timeChunkIndexOfCurrentValueColumn = 0;
 
@@ -83,15 +98,63 @@ public class TsFileSplitter {
   private List<Boolean> isTimeChunkNeedDecodeList = new ArrayList<>();
 
   public TsFileSplitter(File tsFile, TsFileDataConsumer consumer) {
+    this(tsFile, consumer, ALL_DEVICES);
+  }
+
+  /**
+   * Create a splitter which only splits the chunk groups of the devices accepted by the filter, so
+   * that a TsFile can be split by several splitters in parallel, each of which handles a range of
+   * devices.
+   */
+  public TsFileSplitter(
+      File tsFile, TsFileDataConsumer consumer, Predicate<IDeviceID> deviceFilter) {
+    this(tsFile, consumer, deviceFilter, true);
+  }
+
+  public TsFileSplitter(
+      File tsFile,
+      TsFileDataConsumer consumer,
+      Predicate<IDeviceID> deviceFilter,
+      boolean isModificationHandled) {
     this.tsFile = tsFile;
     this.consumer = consumer;
+    this.deviceFilter = deviceFilter;
+    this.isModificationHandled = isModificationHandled;
+  }
+
+  /**
+   * Divide the devices in the metadata index of the TsFile into at most rangeNum contiguous ranges
+   * with the same number of devices, which are returned as device filters of splitters.
+   */
+  public static List<Predicate<IDeviceID>> getDeviceRanges(File tsFile, int rangeNum)
+      throws IOException {
+    final List<IDeviceID> devices;
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getAbsolutePath())) {
+      devices = new ArrayList<>(reader.getAllDevices());
+    }
+    Collections.sort(devices);
+
+    final int actualRangeNum = Math.max(1, Math.min(rangeNum, devices.size()));
+    final List<Predicate<IDeviceID>> deviceRanges = new ArrayList<>(actualRangeNum);
+    for (int i = 0; i < actualRangeNum; i++) {
+      final IDeviceID lowerBound = i == 0 ? null : devices.get(i * devices.size() / actualRangeNum);
+      final IDeviceID upperBound =
+          i == actualRangeNum - 1 ? null : devices.get((i + 1) * devices.size() / actualRangeNum);
+      deviceRanges.add(
+          device ->
+              (lowerBound == null || device.compareTo(lowerBound) >= 0)
+                  && (upperBound == null || device.compareTo(upperBound) < 0));
+    }
+    return deviceRanges;
   }
 
   @SuppressWarnings({"squid:S3776", "squid:S6541"})
   public void splitTsFileByDataPartition()
       throws IOException, LoadFileException, IllegalStateException {
     try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getAbsolutePath())) {
-      getAllModification(deletions);
+      if (isModificationHandled) {
+        getAllModification(deletions);
+      }
 
       if (!checkMagic(reader)) {
         throw new TsFileRuntimeException(
@@ -112,6 +175,10 @@ public class TsFileSplitter {
           case MetaMarker.TIME_CHUNK_HEADER:
           case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
           case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
+            if (isCurDeviceSkipped) {
+              skipChunk(reader, marker);
+              break;
+            }
             processTimeChunkOrNonAlignedChunk(reader, marker);
             if (isAligned) {
               storeTimeChunkContext();
@@ -119,11 +186,21 @@ public class TsFileSplitter {
             break;
           case MetaMarker.VALUE_CHUNK_HEADER:
           case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
+            if (isCurDeviceSkipped) {
+              skipChunk(reader, marker);
+              break;
+            }
             processValueChunk(reader, marker);
             break;
           case MetaMarker.CHUNK_GROUP_HEADER:
             ChunkGroupHeader chunkGroupHeader = reader.readChunkGroupHeader();
             curDevice = chunkGroupHeader.getDeviceID();
+            isCurDeviceSkipped = !deviceFilter.test(curDevice);
+            if (isCurDeviceSkipped) {
+              // the chunks of the previous chunk group are all read
+              consumeAllAlignedChunkData(reader.position(), pageIndex2ChunkData);
+              seekToNextAcceptedChunkGroup(reader);
+            }
             pageIndex2ChunkDataList = new ArrayList<>();
             pageIndex2TimesList = new ArrayList<>();
             isTimeChunkNeedDecodeList = new ArrayList<>();
@@ -143,6 +220,48 @@ public class TsFileSplitter {
     }
   }
 
+  /**
+   * Seek to the header of the next chunk group of the accepted devices, or to the end of the data
+   * if there is none, by the offsets of their chunks in the metadata index. If the header is not
+   * found right before the next accepted chunk, e.g. when a chunk has no metadata, the position is
+   * kept and the chunks in between are skipped by their headers.
+   */
+  private void seekToNextAcceptedChunkGroup(TsFileSequenceReader reader) throws IOException {
+    final long position = reader.position();
+    final Map.Entry<Long, IDeviceID> nextChunk = chunkOffset2AcceptedDevice.ceilingEntry(position);
+    if (nextChunk == null) {
+      final long separatorOffset = reader.readFileMetadata().getMetaOffset();
+      if (separatorOffset >= position) {
+        reader.position(separatorOffset);
+        if (reader.readMarker() == MetaMarker.SEPARATOR) {
+          reader.position(separatorOffset);
+          return;
+        }
+      }
+      reader.position(position);
+      return;
+    }
+
+    // compare the bytes instead of deserializing them, which may be inside a chunk without metadata
+    final ByteArrayOutputStream chunkGroupHeader = new ByteArrayOutputStream();
+    new ChunkGroupHeader(nextChunk.getValue()).serializeTo(chunkGroupHeader);
+    final long chunkGroupHeaderOffset = nextChunk.getKey() - chunkGroupHeader.size();
+    if (chunkGroupHeaderOffset >= position) {
+      reader.position(chunkGroupHeaderOffset);
+      if (ByteBuffer.wrap(chunkGroupHeader.toByteArray())
+          .equals(reader.readChunk(-1, chunkGroupHeader.size()))) {
+        reader.position(chunkGroupHeaderOffset);
+        return;
+      }
+    }
+    reader.position(position);
+  }
+
+  private void skipChunk(TsFileSequenceReader reader, byte marker) throws IOException {
+    ChunkHeader header = reader.readChunkHeader(marker);
+    reader.position(reader.position() + header.getDataSize());
+  }
+
   private void processTimeChunkOrNonAlignedChunk(TsFileSequenceReader reader, byte marker)
       throws IOException, LoadFileException {
     long chunkOffset = reader.position();
@@ -367,6 +486,13 @@ public class TsFileSplitter {
     isTimeChunkNeedDecode = isTimeChunkNeedDecodeList.get(index);
   }
 
+  /** Only send the deletions of the TsFile, without splitting its chunks. */
+  public void splitModifications() throws IOException, LoadFileException {
+    final List<ModEntry> allDeletions = new ArrayList<>();
+    getAllModification(allDeletions);
+    handleModification(allDeletions);
+  }
+
   private void getAllModification(List<ModEntry> deletions) throws IOException {
     try (ModificationFile modificationFile =
         new ModificationFile(ModificationFile.getExclusiveMods(tsFile))) {
@@ -409,9 +535,15 @@ public class TsFileSplitter {
     Map<IDeviceID, List<TimeseriesMetadata>> device2Metadata =
         reader.getAllTimeseriesMetadata(true);
     for (Map.Entry<IDeviceID, List<TimeseriesMetadata>> entry : device2Metadata.entrySet()) {
+      if (!deviceFilter.test(entry.getKey())) {
+        continue;
+      }
       for (TimeseriesMetadata timeseriesMetadata : entry.getValue()) {
         for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
           offset2ChunkMetadata.put(chunkMetadata.getOffsetOfChunkHeader(), chunkMetadata);
+          if (deviceFilter != ALL_DEVICES) {
+            chunkOffset2AcceptedDevice.put(chunkMetadata.getOffsetOfChunkHeader(), entry.getKey());
+          }
         }
       }
     }
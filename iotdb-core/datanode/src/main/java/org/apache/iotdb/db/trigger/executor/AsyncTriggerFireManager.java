@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.trigger.executor;
+
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.commons.client.exception.ClientManagerException;
+import org.apache.iotdb.commons.client.sync.SyncDataNodeInternalServiceClient;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.commons.trigger.TriggerInformation;
+import org.apache.iotdb.commons.trigger.exception.TriggerExecutionException;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.Coordinator;
+import org.apache.iotdb.db.trigger.service.TriggerManagementService;
+import org.apache.iotdb.mpp.rpc.thrift.TFireTriggerResp;
+import org.apache.iotdb.mpp.rpc.thrift.TFireTriggersReq;
+import org.apache.iotdb.trigger.api.enums.FailureStrategy;
+import org.apache.iotdb.trigger.api.enums.TriggerEvent;
+
+import org.apache.thrift.TException;
+import org.apache.tsfile.write.record.Tablet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Fires AFTER_INSERT triggers off the insert path. Tablets are queued per trigger and a shared
+ * thread pool delivers them in batches, one batch per trigger at a time so that every trigger still
+ * sees its tablets in insertion order. A stateful trigger on another DataNode receives a whole
+ * batch in one {@code fireTriggers} RPC.
+ *
+ * <p>The rows queued for one trigger, including the batch being fired, are bounded by {@link
+ * IoTDBConfig#getAsyncTriggerMaxPendingRowsPerTrigger()}. When the bound is reached the insertion
+ * either waits ({@link FullQueuePolicy#BLOCK}) or the tablet is not delivered ({@link
+ * FullQueuePolicy#DISCARD}).
+ *
+ * <p>The {@link FailureStrategy} of the trigger decides how a failure is reported. A discarded
+ * tablet fails its own insertion like a synchronous firing would. Since the insertion has completed
+ * when a batch is fired, a failed batch of an OPTIMISTIC trigger is only logged and counted, while
+ * a failed batch of a PESSIMISTIC trigger fails the next insertion submitted to the trigger.
+ */
+public class AsyncTriggerFireManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncTriggerFireManager.class);
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final int FIRE_RETRY_NUM = CONFIG.getRetryNumToFindStatefulTrigger();
+
+  public enum FullQueuePolicy {
+    BLOCK,
+    DISCARD
+  }
+
+  /** Delivers a batch of tablets to a trigger. */
+  @FunctionalInterface
+  interface TriggerBatchFirer {
+
+    TriggerFireResult fire(String triggerName, List<Tablet> tablets, TriggerEvent event);
+  }
+
+  private final int maxPendingRowsPerTrigger;
+  private final int batchSize;
+  private final FullQueuePolicy fullQueuePolicy;
+  private final ExecutorService fireExecutor;
+  private final TriggerBatchFirer batchFirer;
+  // returns null if the trigger has been dropped
+  private final Function<String, FailureStrategy> failureStrategyOf;
+
+  private final Map<String, TriggerTabletQueue> triggerNameToQueue = new ConcurrentHashMap<>();
+  private final AtomicLong pendingRows = new AtomicLong();
+  private final AsyncTriggerFireMetrics metrics;
+
+  private AsyncTriggerFireManager() {
+    this(
+        CONFIG.getAsyncTriggerMaxPendingRowsPerTrigger(),
+        CONFIG.getAsyncTriggerFireBatchSize(),
+        FullQueuePolicy.valueOf(CONFIG.getAsyncTriggerFullQueuePolicy()),
+        CONFIG.getAsyncTriggerFireThreadCount(),
+        AsyncTriggerFireManager::fire,
+        triggerName -> {
+          TriggerInformation triggerInformation =
+              TriggerManagementService.getInstance().getTriggerInformation(triggerName);
+          return triggerInformation == null ? null : triggerInformation.getFailureStrategy();
+        });
+    MetricService.getInstance().addMetricSet(metrics);
+  }
+
+  @TestOnly
+  AsyncTriggerFireManager(
+      int maxPendingRowsPerTrigger,
+      int batchSize,
+      FullQueuePolicy fullQueuePolicy,
+      int fireThreadCount,
+      TriggerBatchFirer batchFirer,
+      Function<String, FailureStrategy> failureStrategyOf) {
+    this.maxPendingRowsPerTrigger = maxPendingRowsPerTrigger;
+    this.batchSize = Math.max(1, batchSize);
+    this.fullQueuePolicy = fullQueuePolicy;
+    this.fireExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            fireThreadCount, ThreadName.TRIGGER_ASYNC_FIRE_EXECUTOR.getName());
+    this.batchFirer = batchFirer;
+    this.failureStrategyOf = failureStrategyOf;
+    this.metrics = new AsyncTriggerFireMetrics(this);
+  }
+
+  /**
+   * Queue a tablet to be fired by the trigger.
+   *
+   * @return {@link TriggerFireResult#SUCCESS} if the tablet is queued and no earlier firing of a
+   *     PESSIMISTIC trigger has failed since the last submission, otherwise the failure to report
+   *     for the insertion
+   */
+  public TriggerFireResult submit(String triggerName, Tablet tablet, TriggerEvent event) {
+    PendingTablet pendingTablet = new PendingTablet(tablet, event);
+    TriggerTabletQueue queue =
+        triggerNameToQueue.computeIfAbsent(triggerName, TriggerTabletQueue::new);
+    boolean isQueued = false;
+    try {
+      isQueued = queue.offer(pendingTablet);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!isQueued) {
+      metrics.markDiscarded(pendingTablet.rowCount);
+      return failureResultOf(triggerName);
+    }
+    // a failed firing of a pessimistic trigger terminates the next insertion instead
+    return queue.hasFailedPessimistically.getAndSet(false)
+        ? TriggerFireResult.TERMINATION
+        : TriggerFireResult.SUCCESS;
+  }
+
+  long getPendingRows() {
+    return pendingRows.get();
+  }
+
+  @TestOnly
+  void shutdown() {
+    fireExecutor.shutdownNow();
+  }
+
+  private TriggerFireResult failureResultOf(String triggerName) {
+    return FailureStrategy.PESSIMISTIC.equals(failureStrategyOf.apply(triggerName))
+        ? TriggerFireResult.TERMINATION
+        : TriggerFireResult.FAILED_NO_TERMINATION;
+  }
+
+  private static TriggerFireResult fire(
+      String triggerName, List<Tablet> tablets, TriggerEvent event) {
+    TriggerManagementService triggerManagementService = TriggerManagementService.getInstance();
+    TriggerInformation triggerInformation =
+        triggerManagementService.getTriggerInformation(triggerName);
+    // the trigger may have been dropped after the tablets were queued
+    if (triggerInformation == null) {
+      return TriggerFireResult.FAILED_NO_TERMINATION;
+    }
+    TriggerFireResult failureResult =
+        triggerInformation.getFailureStrategy().equals(FailureStrategy.PESSIMISTIC)
+            ? TriggerFireResult.TERMINATION
+            : TriggerFireResult.FAILED_NO_TERMINATION;
+    List<ByteBuffer> serializedTablets = null;
+    for (int i = 0; i < FIRE_RETRY_NUM; i++) {
+      if (!triggerManagementService.needToFireOnAnotherDataNode(triggerName)) {
+        return fireOnLocalExecutor(
+            triggerManagementService.getExecutor(triggerName), tablets, event);
+      }
+      TDataNodeLocation tDataNodeLocation =
+          triggerManagementService.getDataNodeLocationOfStatefulTrigger(triggerName);
+      try (SyncDataNodeInternalServiceClient client =
+          Coordinator.getInstance()
+              .getInternalServiceClientManager()
+              .borrowClient(tDataNodeLocation.getInternalEndPoint())) {
+        if (serializedTablets == null) {
+          serializedTablets = serialize(tablets);
+        }
+        TFireTriggerResp resp =
+            client.fireTriggers(
+                new TFireTriggersReq(triggerName, serializedTablets, event.getId()));
+        if (resp.foundExecutor) {
+          return TriggerFireResult.construct(resp.getFireResult());
+        }
+        // update TDataNodeLocation of stateful trigger through config node
+        if (!TriggerFireVisitor.updateLocationOfStatefulTrigger(
+            triggerName, tDataNodeLocation.getDataNodeId())) {
+          Thread.sleep(4000);
+        }
+      } catch (ClientManagerException | TException e) {
+        LOGGER.warn(
+            "Error occurred when trying to fire trigger({}) on TEndPoint: {}, the cause is: {}",
+            triggerName,
+            tDataNodeLocation.getInternalEndPoint(),
+            e);
+        TriggerFireVisitor.updateLocationOfStatefulTrigger(
+            triggerName, tDataNodeLocation.getDataNodeId());
+      } catch (InterruptedException e) {
+        LOGGER.warn("{} interrupted when sleep", triggerName);
+        Thread.currentThread().interrupt();
+        return failureResult;
+      } catch (Exception e) {
+        LOGGER.warn(
+            "Error occurred when trying to fire trigger({}) on TEndPoint: {}, the cause is: {}",
+            triggerName,
+            tDataNodeLocation.getInternalEndPoint(),
+            e);
+        return failureResult;
+      }
+    }
+    return failureResult;
+  }
+
+  private static List<ByteBuffer> serialize(List<Tablet> tablets) throws IOException {
+    List<ByteBuffer> serializedTablets = new ArrayList<>(tablets.size());
+    for (Tablet tablet : tablets) {
+      serializedTablets.add(tablet.serialize());
+    }
+    return serializedTablets;
+  }
+
+  private static TriggerFireResult fireOnLocalExecutor(
+      TriggerExecutor executor, List<Tablet> tablets, TriggerEvent event) {
+    if (executor == null) {
+      return TriggerFireResult.FAILED_NO_TERMINATION;
+    }
+    TriggerFireResult failureResult =
+        executor.getFailureStrategy().equals(FailureStrategy.PESSIMISTIC)
+            ? TriggerFireResult.TERMINATION
+            : TriggerFireResult.FAILED_NO_TERMINATION;
+    TriggerFireResult result = TriggerFireResult.SUCCESS;
+    for (Tablet tablet : tablets) {
+      try {
+        if (!executor.fire(tablet, event)) {
+          result = failureResult;
+        }
+      } catch (TriggerExecutionException e) {
+        result = failureResult;
+      }
+    }
+    return result;
+  }
+
+  private static class PendingTablet {
+
+    private final Tablet tablet;
+    private final TriggerEvent event;
+    private final int rowCount;
+    private final long enqueueTime = System.nanoTime();
+
+    private PendingTablet(Tablet tablet, TriggerEvent event) {
+      this.tablet = tablet;
+      this.event = event;
+      this.rowCount = Math.max(1, tablet.getRowSize());
+    }
+  }
+
+  /** Tablets waiting for one trigger, drained by at most one fire thread at a time. */
+  private class TriggerTabletQueue {
+
+    private final String triggerName;
+    private final Deque<PendingTablet> tablets = new ArrayDeque<>();
+    private int queuedRows = 0;
+    private boolean scheduled = false;
+    private final AtomicBoolean hasFailedPessimistically = new AtomicBoolean(false);
+
+    private TriggerTabletQueue(String triggerName) {
+      this.triggerName = triggerName;
+    }
+
+    private synchronized boolean offer(PendingTablet pendingTablet) throws InterruptedException {
+      // a tablet larger than the bound is still accepted by an empty queue
+      while (queuedRows > 0 && queuedRows + pendingTablet.rowCount > maxPendingRowsPerTrigger) {
+        if (fullQueuePolicy == FullQueuePolicy.DISCARD) {
+          return false;
+        }
+        wait();
+      }
+      tablets.add(pendingTablet);
+      queuedRows += pendingTablet.rowCount;
+      pendingRows.addAndGet(pendingTablet.rowCount);
+      if (!scheduled) {
+        scheduled = true;
+        schedule();
+      }
+      return true;
+    }
+
+    private void schedule() {
+      try {
+        fireExecutor.submit(this::fireNextBatch);
+      } catch (RejectedExecutionException e) {
+        LOGGER.warn("Failed to schedule the asynchronous firing of trigger {}", triggerName, e);
+        scheduled = false;
+      }
+    }
+
+    private void fireNextBatch() {
+      List<PendingTablet> batch = new ArrayList<>(batchSize);
+      synchronized (this) {
+        while (batch.size() < batchSize && !tablets.isEmpty()) {
+          batch.add(tablets.poll());
+        }
+      }
+
+      int batchRows = 0;
+      List<Tablet> batchTablets = new ArrayList<>(batch.size());
+      for (PendingTablet pendingTablet : batch) {
+        batchRows += pendingTablet.rowCount;
+        batchTablets.add(pendingTablet.tablet);
+      }
+      TriggerFireResult result;
+      try {
+        result =
+            batch.isEmpty()
+                ? TriggerFireResult.SUCCESS
+                : batchFirer.fire(triggerName, batchTablets, batch.get(0).event);
+      } catch (Exception e) {
+        LOGGER.warn("Error occurred when firing trigger {} asynchronously", triggerName, e);
+        result = failureResultOf(triggerName);
+      }
+      long now = System.nanoTime();
+      for (PendingTablet pendingTablet : batch) {
+        metrics.recordLag(now - pendingTablet.enqueueTime);
+      }
+      if (result == TriggerFireResult.SUCCESS) {
+        metrics.markFired(batchRows);
+      } else {
+        LOGGER.warn(
+            "Failed to fire trigger {} asynchronously with {} rows after the insertion",
+            triggerName,
+            batchRows);
+        metrics.markFailed(batchRows);
+        if (result == TriggerFireResult.TERMINATION) {
+          hasFailedPessimistically.set(true);
+        }
+      }
+
+      synchronized (this) {
+        queuedRows -= batchRows;
+        pendingRows.addAndGet(-batchRows);
+        notifyAll();
+        if (!tablets.isEmpty()) {
+          schedule();
+          return;
+        }
+        scheduled = false;
+        if (failureStrategyOf.apply(triggerName) == null) {
+          triggerNameToQueue.remove(triggerName, this);
+        }
+      }
+    }
+  }
+
+  public static AsyncTriggerFireManager getInstance() {
+    return AsyncTriggerFireManagerHolder.INSTANCE;
+  }
+
+  private static class AsyncTriggerFireManagerHolder {
+
+    private static final AsyncTriggerFireManager INSTANCE = new AsyncTriggerFireManager();
+
+    private AsyncTriggerFireManagerHolder() {
+      // empty constructor
+    }
+  }
+}
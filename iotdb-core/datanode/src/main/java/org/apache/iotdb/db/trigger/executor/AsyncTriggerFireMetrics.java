@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.trigger.executor;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
+import org.apache.iotdb.metrics.type.Timer;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+public class AsyncTriggerFireMetrics implements IMetricSet {
+
+  private static final String FIRED = "fired";
+  private static final String FAILED = "failed";
+  private static final String DISCARDED = "discarded";
+
+  private final AsyncTriggerFireManager manager;
+
+  private Timer lagTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Counter firedRowsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter failedRowsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter discardedRowsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+
+  AsyncTriggerFireMetrics(AsyncTriggerFireManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * @param lagNanos time between queuing a tablet and the end of its firing
+   */
+  public void recordLag(long lagNanos) {
+    lagTimer.updateNanos(lagNanos);
+  }
+
+  public void markFired(int rowCount) {
+    firedRowsCounter.inc(rowCount);
+  }
+
+  public void markFailed(int rowCount) {
+    failedRowsCounter.inc(rowCount);
+  }
+
+  public void markDiscarded(int rowCount) {
+    discardedRowsCounter.inc(rowCount);
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    metricService.createAutoGauge(
+        Metric.TRIGGER_ASYNC_FIRE_PENDING_ROWS.toString(),
+        MetricLevel.IMPORTANT,
+        manager,
+        AsyncTriggerFireManager::getPendingRows);
+    lagTimer =
+        metricService.getOrCreateTimer(
+            Metric.TRIGGER_ASYNC_FIRE_LAG.toString(), MetricLevel.IMPORTANT);
+    firedRowsCounter =
+        metricService.getOrCreateCounter(
+            Metric.TRIGGER_ASYNC_FIRE_ROWS.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            FIRED);
+    failedRowsCounter =
+        metricService.getOrCreateCounter(
+            Metric.TRIGGER_ASYNC_FIRE_ROWS.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            FAILED);
+    discardedRowsCounter =
+        metricService.getOrCreateCounter(
+            Metric.TRIGGER_ASYNC_FIRE_ROWS.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            DISCARDED);
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    lagTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    firedRowsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    failedRowsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    discardedRowsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    metricService.remove(MetricType.AUTO_GAUGE, Metric.TRIGGER_ASYNC_FIRE_PENDING_ROWS.toString());
+    metricService.remove(MetricType.TIMER, Metric.TRIGGER_ASYNC_FIRE_LAG.toString());
+    for (String type : new String[] {FIRED, FAILED, DISCARDED}) {
+      metricService.remove(
+          MetricType.COUNTER, Metric.TRIGGER_ASYNC_FIRE_ROWS.toString(), Tag.TYPE.toString(), type);
+    }
+  }
+}
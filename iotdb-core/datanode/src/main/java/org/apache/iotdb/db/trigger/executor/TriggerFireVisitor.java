@@ -80,6 +80,10 @@ public class TriggerFireVisitor extends PlanVisitor<TriggerFireResult, TriggerEv
   private static final int FIRE_RETRY_NUM =
       IoTDBDescriptor.getInstance().getConfig().getRetryNumToFindStatefulTrigger();
 
+  /** Whether AFTER_INSERT triggers are handed to {@link AsyncTriggerFireManager}. */
+  private static final boolean ASYNC_AFTER_INSERT =
+      IoTDBDescriptor.getInstance().getConfig().isEnableAsyncAfterInsertTrigger();
+
   @Override
   public TriggerFireResult process(PlanNode node, TriggerEvent context) {
     if (TriggerManagementService.getInstance().isTriggerTableEmpty()) {
@@ -121,7 +125,7 @@ public class TriggerFireVisitor extends PlanVisitor<TriggerFireResult, TriggerEv
       for (String measurement : entry.getValue()) {
         tablet.addValue(measurement, 0, values[measurementToSchemaIndexMap.get(measurement)]);
       }
-      TriggerFireResult result = fire(entry.getKey(), tablet, context);
+      TriggerFireResult result = fireOrSubmit(entry.getKey(), tablet, context);
       // Terminate if a trigger with pessimistic strategy messes up
       if (result.equals(TriggerFireResult.TERMINATION)) {
         return result;
@@ -199,7 +203,7 @@ public class TriggerFireVisitor extends PlanVisitor<TriggerFireResult, TriggerEv
                 rowCount);
       }
 
-      TriggerFireResult result = fire(entry.getKey(), tablet, context);
+      TriggerFireResult result = fireOrSubmit(entry.getKey(), tablet, context);
       // Terminate if a trigger with pessimistic strategy messes up
       if (result.equals(TriggerFireResult.TERMINATION)) {
         return result;
@@ -327,6 +331,14 @@ public class TriggerFireVisitor extends PlanVisitor<TriggerFireResult, TriggerEv
     return triggerNameToPaths;
   }
 
+  private TriggerFireResult fireOrSubmit(String triggerName, Tablet tablet, TriggerEvent event) {
+    if (ASYNC_AFTER_INSERT && event.equals(TriggerEvent.AFTER_INSERT)) {
+      // the trigger is fired later, a failure is reported to a following insertion
+      return AsyncTriggerFireManager.getInstance().submit(triggerName, tablet, event);
+    }
+    return fire(triggerName, tablet, event);
+  }
+
   private TriggerFireResult fire(String triggerName, Tablet tablet, TriggerEvent event) {
     TriggerFireResult result = TriggerFireResult.SUCCESS;
     for (int i = 0; i < FIRE_RETRY_NUM; i++) {
@@ -411,7 +423,7 @@ public class TriggerFireVisitor extends PlanVisitor<TriggerFireResult, TriggerEv
   }
 
   /** Return true if the config node returns a new TDataNodeLocation. */
-  private boolean updateLocationOfStatefulTrigger(String triggerName, int currentDataNodeId) {
+  static boolean updateLocationOfStatefulTrigger(String triggerName, int currentDataNodeId) {
     try (ConfigNodeClient configNodeClient =
         CONFIG_NODE_CLIENT_MANAGER.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
       TDataNodeLocation newTDataNodeLocation =
@@ -27,6 +27,7 @@ import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.exception.sql.SemanticException;
 import org.apache.iotdb.db.protocol.thrift.OperationType;
+import org.apache.iotdb.db.queryengine.metric.QueryMetricsManager;
 import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
 import org.apache.iotdb.db.queryengine.plan.statement.StatementType;
 import org.apache.iotdb.db.queryengine.plan.statement.literal.BinaryLiteral;
@@ -438,5 +439,6 @@ public class CommonUtils {
             OperationType.QUERY_LATENCY.toString(),
             Tag.TYPE.toString(),
             statementType.name());
+    QueryMetricsManager.getInstance().recordQueryLatency(costTimeInNanos);
   }
 }
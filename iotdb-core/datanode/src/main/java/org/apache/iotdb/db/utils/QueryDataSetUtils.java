@@ -21,6 +21,7 @@ package org.apache.iotdb.db.utils;
 
 import org.apache.iotdb.commons.exception.IoTDBException;
 import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
+import org.apache.iotdb.rpc.ArrowTsBlockSerde;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 
 import org.apache.tsfile.block.column.Column;
@@ -636,6 +637,30 @@ public class QueryDataSetUtils {
     return new Pair<>(res, !queryExecution.hasNextResult());
   }
 
+  /**
+   * Same as {@link #convertQueryResultByFetchSize(IQueryExecution, int)}, but encodes the TsBlocks
+   * as columnar record batches for sessions which asked for the arrow result format, see {@link
+   * ArrowTsBlockSerde}.
+   */
+  public static Pair<List<ByteBuffer>, Boolean> convertQueryResultToArrowByFetchSize(
+      IQueryExecution queryExecution, int fetchSize) throws IoTDBException {
+    fetchSize = fetchSize > 0 ? fetchSize : TSFLE_CONFIG.getMaxTsBlockLineNumber();
+    int rowCount = 0;
+    List<ByteBuffer> res = new ArrayList<>();
+    while (rowCount < fetchSize) {
+      Optional<TsBlock> optionalTsBlock = queryExecution.getBatchResult();
+      if (!optionalTsBlock.isPresent()) {
+        break;
+      }
+      TsBlock tsBlock = optionalTsBlock.get();
+      if (!tsBlock.isEmpty()) {
+        res.add(ArrowTsBlockSerde.serialize(tsBlock));
+      }
+      rowCount += tsBlock.getPositionCount();
+    }
+    return new Pair<>(res, !queryExecution.hasNextResult());
+  }
+
   public static long[] readTimesFromBuffer(ByteBuffer buffer, int size) {
     long[] times = new long[size];
     for (int i = 0; i < size; i++) {
@@ -79,6 +79,7 @@ public class SchemaUtils {
       case SqlConstant.COUNT:
       case SqlConstant.TIME_DURATION:
       case SqlConstant.COUNT_TIME:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         return TSDataType.INT64;
       case SqlConstant.AVG:
       case SqlConstant.SUM:
@@ -88,7 +89,10 @@ public class SchemaUtils {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return TSDataType.DOUBLE;
+      case SqlConstant.APPROX_MOST_FREQUENT:
+        return TSDataType.TEXT;
         // Partial aggregation names
       case SqlConstant.STDDEV + "_partial":
       case SqlConstant.STDDEV_POP + "_partial":
@@ -98,6 +102,9 @@ public class SchemaUtils {
       case SqlConstant.VAR_SAMP + "_partial":
       case SqlConstant.MAX_BY + "_partial":
       case SqlConstant.MIN_BY + "_partial":
+      case SqlConstant.APPROX_COUNT_DISTINCT + "_partial":
+      case SqlConstant.APPROX_PERCENTILE + "_partial":
+      case SqlConstant.APPROX_MOST_FREQUENT + "_partial":
         return TSDataType.TEXT;
       case SqlConstant.LAST_VALUE:
       case SqlConstant.FIRST_VALUE:
@@ -163,6 +170,12 @@ public class SchemaUtils {
         return SqlConstant.VAR_POP;
       case VAR_SAMP:
         return SqlConstant.VAR_SAMP;
+      case APPROX_COUNT_DISTINCT:
+        return SqlConstant.APPROX_COUNT_DISTINCT;
+      case APPROX_PERCENTILE:
+        return SqlConstant.APPROX_PERCENTILE;
+      case APPROX_MOST_FREQUENT:
+        return SqlConstant.APPROX_MOST_FREQUENT;
       default:
         return null;
     }
@@ -198,6 +211,9 @@ public class SchemaUtils {
       case VAR_SAMP:
       case MAX_BY:
       case MIN_BY:
+      case APPROX_COUNT_DISTINCT:
+      case APPROX_PERCENTILE:
+      case APPROX_MOST_FREQUENT:
       case UDAF:
         return true;
       default:
@@ -236,6 +252,12 @@ public class SchemaUtils {
         return Collections.singletonList(addPartialSuffix(SqlConstant.MAX_BY));
       case MIN_BY:
         return Collections.singletonList(addPartialSuffix(SqlConstant.MIN_BY));
+      case APPROX_COUNT_DISTINCT:
+        return Collections.singletonList(addPartialSuffix(SqlConstant.APPROX_COUNT_DISTINCT));
+      case APPROX_PERCENTILE:
+        return Collections.singletonList(addPartialSuffix(SqlConstant.APPROX_PERCENTILE));
+      case APPROX_MOST_FREQUENT:
+        return Collections.singletonList(addPartialSuffix(SqlConstant.APPROX_MOST_FREQUENT));
       case AVG:
         return Arrays.asList(SqlConstant.COUNT, SqlConstant.SUM);
       case TIME_DURATION:
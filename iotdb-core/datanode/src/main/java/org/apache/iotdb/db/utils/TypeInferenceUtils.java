@@ -136,6 +136,7 @@ public class TypeInferenceUtils {
       case SqlConstant.COUNT_TIME:
       case SqlConstant.COUNT_IF:
       case SqlConstant.TIME_DURATION:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         return TSDataType.INT64;
       case SqlConstant.MIN_VALUE:
       case SqlConstant.LAST_VALUE:
@@ -154,7 +155,10 @@ public class TypeInferenceUtils {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return TSDataType.DOUBLE;
+      case SqlConstant.APPROX_MOST_FREQUENT:
+        return TSDataType.TEXT;
       default:
         throw new IllegalArgumentException(
             "Invalid Aggregation function: " + aggregationFunctionName);
@@ -191,6 +195,12 @@ public class TypeInferenceUtils {
         }
         throw new SemanticException(
             "Aggregate functions [AVG, SUM, EXTREME, STDDEV, STDDEV_POP, STDDEV_SAMP, VARIANCE, VAR_POP, VAR_SAMP] only support numeric data types [INT32, INT64, FLOAT, DOUBLE]");
+      case SqlConstant.APPROX_PERCENTILE:
+        if (dataType.isNumeric()) {
+          return;
+        }
+        throw new SemanticException(
+            "Aggregate function [APPROX_PERCENTILE] only supports numeric data types [INT32, INT64, FLOAT, DOUBLE]");
       case SqlConstant.COUNT:
       case SqlConstant.COUNT_TIME:
       case SqlConstant.MIN_TIME:
@@ -201,6 +211,8 @@ public class TypeInferenceUtils {
       case SqlConstant.MODE:
       case SqlConstant.MAX_BY:
       case SqlConstant.MIN_BY:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
+      case SqlConstant.APPROX_MOST_FREQUENT:
         return;
       case SqlConstant.COUNT_IF:
         if (dataType != TSDataType.BOOLEAN) {
@@ -247,6 +259,9 @@ public class TypeInferenceUtils {
       case SqlConstant.VAR_SAMP:
       case SqlConstant.MAX_BY:
       case SqlConstant.MIN_BY:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
+      case SqlConstant.APPROX_PERCENTILE:
+      case SqlConstant.APPROX_MOST_FREQUENT:
         return;
       case SqlConstant.COUNT_IF:
         Expression keepExpression = inputExpressions.get(1);
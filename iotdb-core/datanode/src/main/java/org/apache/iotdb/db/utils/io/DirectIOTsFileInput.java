@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.io;
+
+import org.apache.iotdb.db.service.metrics.DirectIOMetrics;
+
+import org.apache.tsfile.read.reader.TsFileInput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A TsFileInput reading with direct I/O. The file is read block by block into an aligned buffer,
+ * and the blocks in the buffer are kept so that the small reads of adjacent headers do not read the
+ * same block from the disk repeatedly.
+ */
+public class DirectIOTsFileInput implements TsFileInput {
+
+  private final String filePath;
+  private final FileChannel channel;
+  private final int blockSize;
+  private final String module;
+  private long position = 0;
+
+  // the blocks read last time, the first of which is at bufferStartPosition of the file
+  private final ByteBuffer buffer;
+  private long bufferStartPosition = 0;
+
+  DirectIOTsFileInput(
+      String filePath, FileChannel channel, int blockSize, int bufferSize, String module) {
+    this.filePath = filePath;
+    this.channel = channel;
+    this.blockSize = blockSize;
+    this.module = module;
+    this.buffer =
+        DirectIOUtils.allocateAlignedBuffer(
+            Math.max(bufferSize / blockSize, 1) * blockSize, blockSize);
+    this.buffer.limit(0);
+  }
+
+  @Override
+  public long size() throws IOException {
+    return channel.size();
+  }
+
+  @Override
+  public long position() {
+    return position;
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) {
+    this.position = newPosition;
+    return this;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position += readSize;
+    }
+    return readSize;
+  }
+
+  @Override
+  public synchronized int read(ByteBuffer dst, long position) throws IOException {
+    if (!dst.hasRemaining()) {
+      return 0;
+    }
+    int totalReadSize = 0;
+    while (dst.hasRemaining()) {
+      if (position < bufferStartPosition || position >= bufferStartPosition + buffer.limit()) {
+        readBlocks(position - position % blockSize);
+        if (position >= bufferStartPosition + buffer.limit()) {
+          // the end of the file
+          break;
+        }
+      }
+      ByteBuffer blocks = buffer.duplicate();
+      blocks.position((int) (position - bufferStartPosition));
+      blocks.limit(Math.min(blocks.limit(), blocks.position() + dst.remaining()));
+      int readSize = blocks.remaining();
+      dst.put(blocks);
+      position += readSize;
+      totalReadSize += readSize;
+    }
+    return totalReadSize == 0 ? -1 : totalReadSize;
+  }
+
+  private void readBlocks(long alignedPosition) throws IOException {
+    buffer.clear();
+    bufferStartPosition = alignedPosition;
+    while (buffer.hasRemaining()) {
+      int readSize = channel.read(buffer, bufferStartPosition + buffer.position());
+      // the last block of the file may be partially read, which ends the reading
+      if (readSize <= 0 || buffer.position() % blockSize != 0) {
+        break;
+      }
+    }
+    buffer.flip();
+    DirectIOMetrics.getInstance().recordReadSize(module, buffer.limit());
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return new InputStream() {
+      @Override
+      public int read() throws IOException {
+        ByteBuffer oneByte = ByteBuffer.allocate(1);
+        int readSize = DirectIOTsFileInput.this.read(oneByte);
+        return readSize <= 0 ? -1 : oneByte.get(0) & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        return DirectIOTsFileInput.this.read(ByteBuffer.wrap(b, off, len));
+      }
+    };
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.io;
+
+import org.apache.iotdb.db.service.metrics.DirectIOMetrics;
+
+import org.apache.tsfile.write.writer.TsFileOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A TsFileOutput writing with direct I/O. The written bytes are collected in a buffer whose size is
+ * a multiple of the block size, and only whole blocks are written to aligned positions of the file.
+ * The last incomplete block is padded when the output is flushed, forced or closed, and the padding
+ * is removed by truncating the file to the real length, so the file holds all the written bytes
+ * afterwards.
+ */
+public class DirectIOTsFileOutput extends OutputStream implements TsFileOutput {
+
+  private final FileChannel channel;
+  private final int blockSize;
+  private final String module;
+  private final ByteBuffer buffer;
+
+  // the position in the file of the first byte in the buffer, which is always aligned
+  private long bufferStartPosition;
+
+  DirectIOTsFileOutput(FileChannel channel, int blockSize, int bufferSize, String module)
+      throws IOException {
+    this.channel = channel;
+    this.blockSize = blockSize;
+    this.module = module;
+    this.buffer =
+        DirectIOUtils.allocateAlignedBuffer(
+            Math.max(bufferSize / blockSize, 1) * blockSize, blockSize);
+    loadLastBlock(channel.size());
+  }
+
+  /**
+   * Make the output continue from the given size of the file, the incomplete last block before the
+   * size is read into the buffer so that it can be rewritten as a whole block.
+   */
+  private void loadLastBlock(long size) throws IOException {
+    bufferStartPosition = size - size % blockSize;
+    buffer.clear();
+    if (size == bufferStartPosition) {
+      return;
+    }
+    buffer.limit(blockSize);
+    while (buffer.hasRemaining()) {
+      int readSize = channel.read(buffer, bufferStartPosition + buffer.position());
+      if (readSize <= 0 || buffer.position() % blockSize != 0) {
+        break;
+      }
+    }
+    if (buffer.position() < size - bufferStartPosition) {
+      throw new IOException(
+          String.format(
+              "Cannot read the last block of %d bytes, only %d bytes are read",
+              size - bufferStartPosition, buffer.position()));
+    }
+    buffer.limit(buffer.capacity());
+    buffer.position((int) (size - bufferStartPosition));
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    buffer.put((byte) b);
+    if (!buffer.hasRemaining()) {
+      writeWholeBlocks();
+    }
+  }
+
+  @Override
+  public void write(byte b) throws IOException {
+    write((int) b);
+  }
+
+  @Override
+  public void write(byte[] b) throws IOException {
+    write(b, 0, b.length);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      int writeSize = Math.min(len, buffer.remaining());
+      buffer.put(b, off, writeSize);
+      off += writeSize;
+      len -= writeSize;
+      if (!buffer.hasRemaining()) {
+        writeWholeBlocks();
+      }
+    }
+  }
+
+  @Override
+  public void write(ByteBuffer b) throws IOException {
+    // keep consistent with LocalTsFileOutput, which writes the whole backing array
+    write(b.array());
+  }
+
+  @Override
+  public long getPosition() {
+    return bufferStartPosition + buffer.position();
+  }
+
+  /** Write the whole blocks in the buffer and keep the incomplete last block in the buffer. */
+  private void writeWholeBlocks() throws IOException {
+    int wholeBlocksSize = buffer.position() - buffer.position() % blockSize;
+    if (wholeBlocksSize == 0) {
+      return;
+    }
+    ByteBuffer wholeBlocks = buffer.duplicate();
+    wholeBlocks.position(0);
+    wholeBlocks.limit(wholeBlocksSize);
+    writeFully(wholeBlocks, bufferStartPosition);
+    bufferStartPosition += wholeBlocksSize;
+    buffer.limit(buffer.position());
+    buffer.position(wholeBlocksSize);
+    buffer.compact();
+  }
+
+  /** Write the incomplete last block with padding and truncate the padding. */
+  private void writeLastBlock() throws IOException {
+    int size = buffer.position();
+    if (size == 0) {
+      channel.truncate(bufferStartPosition);
+      return;
+    }
+    ByteBuffer lastBlock = buffer.duplicate();
+    lastBlock.position(0);
+    lastBlock.limit(blockSize);
+    writeFully(lastBlock, bufferStartPosition);
+    channel.truncate(bufferStartPosition + size);
+  }
+
+  private void writeFully(ByteBuffer src, long position) throws IOException {
+    int size = src.remaining();
+    while (src.hasRemaining()) {
+      position += channel.write(src, position);
+    }
+    DirectIOMetrics.getInstance().recordWriteSize(module, size);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!channel.isOpen()) {
+      return;
+    }
+    try {
+      writeWholeBlocks();
+      writeLastBlock();
+    } finally {
+      channel.close();
+    }
+  }
+
+  @Override
+  public OutputStream wrapAsStream() {
+    return this;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writeWholeBlocks();
+    writeLastBlock();
+  }
+
+  @Override
+  public void truncate(long size) throws IOException {
+    if (size >= bufferStartPosition && size <= getPosition()) {
+      buffer.position((int) (size - bufferStartPosition));
+      return;
+    }
+    writeWholeBlocks();
+    writeLastBlock();
+    channel.truncate(size);
+    loadLastBlock(Math.min(size, channel.size()));
+  }
+
+  @Override
+  public void force() throws IOException {
+    flush();
+    channel.force(true);
+  }
+}
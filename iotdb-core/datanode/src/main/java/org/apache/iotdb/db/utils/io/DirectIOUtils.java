@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.io;
+
+import org.apache.iotdb.db.service.metrics.DirectIOMetrics;
+
+import org.apache.tsfile.read.reader.TsFileInput;
+import org.apache.tsfile.write.writer.TsFileOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Utilities to access files with direct I/O, which bypasses the page cache of the operating system
+ * so that background I/O such as compaction and loading does not evict the data cached for queries.
+ *
+ * <p>Direct I/O relies on {@code com.sun.nio.file.ExtendedOpenOption.DIRECT} which is provided
+ * since JDK 10 and on the support of the file system. When either is missing, null is returned by
+ * the open methods and the caller should keep using buffered I/O.
+ */
+public class DirectIOUtils {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DirectIOUtils.class);
+
+  private static final int DEFAULT_BLOCK_SIZE = 4096;
+  private static final int READ_BUFFER_SIZE = 128 * 1024;
+  private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+
+  private static final OpenOption DIRECT_OPEN_OPTION = loadDirectOpenOption();
+  private static final Method ALIGNED_SLICE_METHOD = loadAlignedSliceMethod();
+
+  private DirectIOUtils() {}
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static OpenOption loadDirectOpenOption() {
+    try {
+      Class optionClass = Class.forName("com.sun.nio.file.ExtendedOpenOption");
+      return (OpenOption) Enum.valueOf(optionClass, "DIRECT");
+    } catch (ClassNotFoundException | IllegalArgumentException e) {
+      LOGGER.info("Direct I/O is not supported by the current JVM, buffered I/O will be used.");
+      return null;
+    }
+  }
+
+  private static Method loadAlignedSliceMethod() {
+    try {
+      return ByteBuffer.class.getMethod("alignedSlice", int.class);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  public static boolean isDirectIOSupported() {
+    return DIRECT_OPEN_OPTION != null;
+  }
+
+  /**
+   * Open a file for reading with direct I/O.
+   *
+   * @return the input, or null if direct I/O is not supported for the file
+   */
+  public static TsFileInput openInput(File file, String module) {
+    FileChannel channel = openChannel(file, module, StandardOpenOption.READ);
+    return channel == null
+        ? null
+        : new DirectIOTsFileInput(
+            file.getPath(), channel, getBlockSize(file), READ_BUFFER_SIZE, module);
+  }
+
+  /**
+   * Replace a buffered output of a file with a direct I/O output which continues from the current
+   * position of the buffered one. The buffered output is closed if it is replaced.
+   *
+   * @return the direct I/O output, or the given output if direct I/O is not supported for the file
+   */
+  public static TsFileOutput reopenOutput(TsFileOutput output, File file, String module)
+      throws IOException {
+    FileChannel channel =
+        openChannel(file, module, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    if (channel == null) {
+      return output;
+    }
+    try {
+      output.flush();
+      output.close();
+      return new DirectIOTsFileOutput(channel, getBlockSize(file), WRITE_BUFFER_SIZE, module);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static FileChannel openChannel(File file, String module, OpenOption... options) {
+    if (DIRECT_OPEN_OPTION == null) {
+      DirectIOMetrics.getInstance().recordFallback(module);
+      return null;
+    }
+    Set<OpenOption> optionSet = new HashSet<>(Arrays.asList(options));
+    optionSet.add(DIRECT_OPEN_OPTION);
+    try {
+      return FileChannel.open(file.toPath(), optionSet);
+    } catch (UnsupportedOperationException | IOException e) {
+      LOGGER.debug("Cannot open {} with direct I/O, buffered I/O will be used.", file, e);
+      if (isDirectIOUnsupported(e)) {
+        DirectIOMetrics.getInstance().recordFallback(module);
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Whether the failure of opening a file is caused by the missing support of O_DIRECT, rather than
+   * e.g. a missing file or the lack of permission, which the buffered I/O meets as well.
+   */
+  private static boolean isDirectIOUnsupported(Exception e) {
+    // open(2) fails with EINVAL if the file system does not support O_DIRECT
+    return e instanceof UnsupportedOperationException
+        || (e instanceof FileSystemException
+            && "Invalid argument".equals(((FileSystemException) e).getReason()));
+  }
+
+  /**
+   * Allocate a direct buffer whose address is aligned, which is required by direct I/O. Heap
+   * buffers must not be used for direct I/O, because the temporary direct buffers the JDK creates
+   * for them are not released properly by some JDK versions.
+   */
+  static ByteBuffer allocateAlignedBuffer(int capacity, int alignment) {
+    if (ALIGNED_SLICE_METHOD == null) {
+      // direct I/O is not supported before JDK 10, so any buffer works
+      return ByteBuffer.allocateDirect(capacity);
+    }
+    try {
+      ByteBuffer alignedBuffer =
+          (ByteBuffer)
+              ALIGNED_SLICE_METHOD.invoke(
+                  ByteBuffer.allocateDirect(capacity + alignment), alignment);
+      alignedBuffer.limit(capacity);
+      return alignedBuffer.slice();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Cannot allocate an aligned buffer", e);
+    }
+  }
+
+  /**
+   * The alignment of positions and sizes of direct I/O, which is the block size of the file store
+   * provided by {@code FileStore.getBlockSize()} since JDK 10.
+   */
+  static int getBlockSize(File file) {
+    try {
+      FileStore fileStore = Files.getFileStore(file.toPath());
+      Method method = FileStore.class.getMethod("getBlockSize");
+      long blockSize = (long) method.invoke(fileStore);
+      if (blockSize > 0 && blockSize <= WRITE_BUFFER_SIZE) {
+        return (int) blockSize;
+      }
+    } catch (Exception e) {
+      LOGGER.debug("Cannot get the block size of {}, use {}.", file, DEFAULT_BLOCK_SIZE, e);
+    }
+    return DEFAULT_BLOCK_SIZE;
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.connector;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+import org.apache.iotdb.db.pipe.connector.payload.evolvable.batch.PipeAdaptiveBatchController;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class PipeAdaptiveBatchControllerTest {
+
+  private static final long MAX_BATCH_SIZE = 16 * 1024 * 1024;
+  private static final long MAX_DELAY = 1000;
+
+  @Test
+  public void testBackPressureAndRecovery() throws InterruptedException {
+    final PipeAdaptiveBatchController controller =
+        new PipeAdaptiveBatchController(
+            new TEndPoint("127.0.0.1", 6667), MAX_BATCH_SIZE, MAX_DELAY);
+    final int maxInFlightLimit =
+        Math.max(1, PipeConfig.getInstance().getPipeAsyncConnectorMaxClientNumber());
+    Assert.assertEquals(MAX_BATCH_SIZE, controller.getBatchSizeInBytes());
+    Assert.assertEquals(maxInFlightLimit, controller.getInFlightLimit());
+
+    controller.onTransferStart();
+    controller.onTransferBackPressure();
+    Assert.assertEquals(MAX_BATCH_SIZE / 2, controller.getBatchSizeInBytes());
+    Assert.assertEquals(MAX_DELAY / 2, controller.getBatchDelayInMs());
+    Assert.assertEquals(Math.max(1, maxInFlightLimit / 2), controller.getInFlightLimit());
+
+    // Back pressure in the same window does not decrease again
+    controller.onTransferStart();
+    controller.onTransferBackPressure();
+    Assert.assertEquals(MAX_BATCH_SIZE / 2, controller.getBatchSizeInBytes());
+
+    Thread.sleep(150);
+    controller.onTransferStart();
+    controller.onTransferBackPressure();
+    Assert.assertEquals(MAX_BATCH_SIZE / 4, controller.getBatchSizeInBytes());
+
+    // Steady latency increases the settings additively up to the configured values
+    for (int i = 0; i < 200; i++) {
+      controller.onTransferStart();
+      controller.onTransferComplete(1024 * 1024, TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    Assert.assertEquals(MAX_BATCH_SIZE, controller.getBatchSizeInBytes());
+    Assert.assertEquals(maxInFlightLimit, controller.getInFlightLimit());
+    Assert.assertEquals(0, controller.getInFlightCount());
+  }
+
+  @Test
+  public void testLatencyRising() {
+    final PipeAdaptiveBatchController controller =
+        new PipeAdaptiveBatchController(null, MAX_BATCH_SIZE, MAX_DELAY);
+    for (int i = 0; i < 10; i++) {
+      controller.onTransferStart();
+      controller.onTransferComplete(1024 * 1024, TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    Assert.assertEquals(MAX_BATCH_SIZE, controller.getBatchSizeInBytes());
+
+    // The latency per KB is 10 times higher than the baseline
+    for (int i = 0; i < 10; i++) {
+      controller.onTransferStart();
+      controller.onTransferComplete(1024 * 1024, TimeUnit.MILLISECONDS.toNanos(100));
+    }
+    Assert.assertTrue(controller.getBatchSizeInBytes() < MAX_BATCH_SIZE);
+    Assert.assertEquals("default", controller.getEndPointString());
+  }
+
+  @Test
+  public void testInFlightLimit() {
+    final PipeAdaptiveBatchController controller =
+        new PipeAdaptiveBatchController(null, MAX_BATCH_SIZE, MAX_DELAY);
+    for (int i = 0; i < controller.getInFlightLimit(); i++) {
+      Assert.assertFalse(controller.isInFlightLimitReached());
+      controller.onTransferStart();
+    }
+    Assert.assertTrue(controller.isInFlightLimitReached());
+    controller.onTransferAbort();
+    Assert.assertFalse(controller.isInFlightLimitReached());
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.pipe.event;
 
+import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.pipe.datastructure.pattern.IoTDBTreePattern;
@@ -33,6 +34,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionT
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
 import org.apache.iotdb.pipe.api.access.Row;
+import org.apache.iotdb.pipe.api.event.dml.insertion.TabletInsertionEvent;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.enums.TSDataType;
@@ -110,6 +112,86 @@ public class TsFileInsertionEventParserTest {
     System.out.println(System.currentTimeMillis() - startTime);
   }
 
+  @Test
+  public void testParallelScanContainer() throws Exception {
+    final int parallelism =
+        CommonDescriptor.getInstance().getConfig().getPipeTsFileScanParsingParallelism();
+    CommonDescriptor.getInstance().getConfig().setPipeTsFileScanParsingParallelism(4);
+    try {
+      testToTabletInsertionEvents(false);
+    } finally {
+      CommonDescriptor.getInstance().getConfig().setPipeTsFileScanParsingParallelism(parallelism);
+    }
+  }
+
+  @Test
+  public void testParallelScanKeepsTabletOrder() throws Exception {
+    final File tsFile = new File("0-0-3-0.tsfile");
+    resource = new TsFileResource(tsFile);
+    resource.updatePlanIndexes(0);
+    resource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    try (final CompactionTestFileWriter writer = new CompactionTestFileWriter(resource)) {
+      for (int i = 0; i < 4; i++) {
+        writer.startChunkGroup("d" + i);
+        final TimeRange[] chunkTimeRanges =
+            new TimeRange[] {
+              new TimeRange(i * 1000L, i * 1000L + 99),
+              new TimeRange(i * 1000L + 100, i * 1000L + 349),
+              new TimeRange(i * 1000L + 350, i * 1000L + 359)
+            };
+        if (i % 2 == 0) {
+          writer.generateSimpleAlignedSeriesToCurrentDevice(
+              Arrays.asList("s0", "s1"), chunkTimeRanges, TSEncoding.PLAIN, CompressionType.LZ4);
+        } else {
+          writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+              "s0", chunkTimeRanges, TSEncoding.PLAIN, CompressionType.LZ4);
+          writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+              "s1", chunkTimeRanges, TSEncoding.PLAIN, CompressionType.LZ4);
+        }
+        writer.endChunkGroup();
+      }
+      writer.endFile();
+    }
+
+    final int parallelism =
+        CommonDescriptor.getInstance().getConfig().getPipeTsFileScanParsingParallelism();
+    try {
+      CommonDescriptor.getInstance().getConfig().setPipeTsFileScanParsingParallelism(1);
+      final List<String> sequentialTablets = scanTablets(tsFile);
+      CommonDescriptor.getInstance().getConfig().setPipeTsFileScanParsingParallelism(4);
+      final List<String> parallelTablets = scanTablets(tsFile);
+
+      Assert.assertFalse(sequentialTablets.isEmpty());
+      Assert.assertEquals(sequentialTablets, parallelTablets);
+    } finally {
+      CommonDescriptor.getInstance().getConfig().setPipeTsFileScanParsingParallelism(parallelism);
+      resource.remove();
+      resource = null;
+    }
+  }
+
+  private List<String> scanTablets(final File tsFile) throws IOException {
+    final List<String> tablets = new ArrayList<>();
+    try (final TsFileInsertionEventScanParser parser =
+        new TsFileInsertionEventScanParser(
+            tsFile, new PrefixTreePattern("root"), Long.MIN_VALUE, Long.MAX_VALUE, null, null)) {
+      for (final TabletInsertionEvent event : parser.toTabletInsertionEvents()) {
+        final PipeRawTabletInsertionEvent rawEvent = (PipeRawTabletInsertionEvent) event;
+        final Tablet tablet = rawEvent.convertToTablet();
+        final StringBuilder builder =
+            new StringBuilder()
+                .append(tablet.getDeviceId())
+                .append(rawEvent.isAligned())
+                .append(tablet.getSchemas().size());
+        for (int i = 0; i < tablet.getRowSize(); i++) {
+          builder.append(',').append(tablet.getTimestamps()[i]);
+        }
+        tablets.add(builder.toString());
+      }
+    }
+    return tablets;
+  }
+
   public void testToTabletInsertionEvents(final boolean isQuery) throws Exception {
     // Test empty chunk
     testMixedTsFileWithEmptyChunk(isQuery);
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import org.apache.tsfile.write.record.Tablet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Benchmark of parsing a multi-MB batched JSON payload. Compares building a Gson tree and
+ * converting it into lists of strings, which is what the MQTT payload formatter used to do, with
+ * decoding the payload straight into a tablet.
+ */
+public class JsonTabletParserBenchmark {
+
+  private static int numOfColumn = 10;
+  private static int numOfRow = 100_000;
+  private static int numOfRound = 20;
+
+  public static void main(String[] args) {
+    StringBuilder builder = new StringBuilder();
+    builder.append("{\"device\":\"root.sg.d1\",\"measurements\":[");
+    for (int i = 0; i < numOfColumn; i++) {
+      builder.append(i == 0 ? "" : ",").append("\"s").append(i).append('"');
+    }
+    builder.append("],\"data_types\":[");
+    for (int i = 0; i < numOfColumn; i++) {
+      builder.append(i == 0 ? "" : ",").append("\"DOUBLE\"");
+    }
+    builder.append("],\"timestamps\":[");
+    for (int row = 0; row < numOfRow; row++) {
+      builder.append(row == 0 ? "" : ",").append(1700000000000L + row);
+    }
+    builder.append("],\"values\":[");
+    for (int row = 0; row < numOfRow; row++) {
+      builder.append(row == 0 ? "[" : ",[");
+      for (int i = 0; i < numOfColumn; i++) {
+        builder.append(i == 0 ? "" : ",").append(row * 0.001 + i);
+      }
+      builder.append(']');
+    }
+    builder.append("]}");
+    byte[] payload = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+    Gson gson = new Gson();
+    long startTime = System.currentTimeMillis();
+    double treeSum = 0;
+    for (int round = 0; round < numOfRound; round++) {
+      JsonObject object =
+          gson.fromJson(new String(payload, StandardCharsets.UTF_8), JsonObject.class);
+      List<Long> timestamps =
+          gson.fromJson(object.get("timestamps"), new TypeToken<List<Long>>() {}.getType());
+      List<List<String>> values =
+          gson.fromJson(object.get("values"), new TypeToken<List<List<String>>>() {}.getType());
+      treeSum += timestamps.size() + Double.parseDouble(values.get(numOfRow - 1).get(0));
+    }
+    long treeCost = System.currentTimeMillis() - startTime;
+
+    startTime = System.currentTimeMillis();
+    double tabletSum = 0;
+    for (int round = 0; round < numOfRound; round++) {
+      Tablet tablet = new JsonTabletParser(new JsonTokenReader(payload), true).parseTablet();
+      tabletSum += tablet.getRowSize() + ((double[]) tablet.getValues()[0])[numOfRow - 1];
+    }
+    long tabletCost = System.currentTimeMillis() - startTime;
+
+    System.out.println(
+        String.format(
+            "Payload size: %d bytes, Num of rows: %d, Num of columns: %d, Rounds: %d, "
+                + "Gson tree: %d ms, Streaming tablet: %d ms, checksum equal: %b",
+            payload.length,
+            numOfRow,
+            numOfColumn,
+            numOfRound,
+            treeCost,
+            tabletCost,
+            treeSum == tabletSum));
+  }
+}
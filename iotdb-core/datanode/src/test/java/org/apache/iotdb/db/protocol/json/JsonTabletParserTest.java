@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.record.Tablet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+public class JsonTabletParserTest {
+
+  private static JsonTokenReader reader(String json) {
+    return new JsonTokenReader(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testTokenReader() {
+    JsonTokenReader reader =
+        reader(
+            "[1, -23, 1.5, -0.25e2, 1e400, 0.1234567890123456789, \"a\\\"b\\u4e2d\", "
+                + "\"中文\", true, null, {\"k\": [1, {\"x\": 2}]}, \"12\"]");
+    reader.beginArray();
+    Assert.assertEquals(1, reader.nextInt());
+    Assert.assertEquals(-23L, reader.nextLong());
+    Assert.assertEquals(1.5d, reader.nextDouble(), 0);
+    Assert.assertEquals(-25d, reader.nextDouble(), 0);
+    Assert.assertEquals(Double.POSITIVE_INFINITY, reader.nextDouble(), 0);
+    Assert.assertEquals(0.1234567890123456789d, reader.nextDouble(), 0);
+    Assert.assertEquals("a\"b中", reader.nextString());
+    Assert.assertArrayEquals("中文".getBytes(StandardCharsets.UTF_8), reader.nextBytes());
+    Assert.assertTrue(reader.nextBoolean());
+    Assert.assertTrue(reader.nextNullIfPresent());
+    reader.skipValue();
+    Assert.assertEquals(12L, reader.nextLong());
+    Assert.assertFalse(reader.hasNext());
+    reader.endArray();
+    Assert.assertEquals(JsonTokenReader.Token.END_DOCUMENT, reader.peek());
+  }
+
+  @Test
+  public void testDoubleFastPath() {
+    String[] values = {
+      "0", "-0", "3.141592653589793", "123456789012345", "1.7976931348623157e308", "4.9e-324",
+      "2.2250738585072014E-308", "0.000001", "9007199254740993", "1E22", "1E23", "-7.25e-3"
+    };
+    for (String value : values) {
+      Assert.assertEquals(
+          value,
+          Double.doubleToLongBits(Double.parseDouble(value)),
+          Double.doubleToLongBits(reader(value).nextDouble()));
+    }
+  }
+
+  @Test
+  public void testRowMajorTablet() {
+    String json =
+        "{\"values\":[[1, 1.5, \"a\", true, 20240101], [null, 2.5, null, false, null], "
+            + "[3, 3.5, \"c\", \"1\", 20240103]],"
+            + " \"device\":\"root.sg.d1\", \"measurements\":[\"s1\",\"s2\",\"s3\",\"s4\",\"s5\"],"
+            + " \"timestamps\":[30, 10, 20], \"unknown\": {\"a\": [1, 2]},"
+            + " \"data_types\":[\"int32\",\"DOUBLE\",\"TEXT\",\"BOOLEAN\",\"DATE\"]}";
+    List<Tablet> tablets = new JsonTabletParser(reader(json), true).parseTablets();
+    Assert.assertEquals(1, tablets.size());
+    Tablet tablet = tablets.get(0);
+    Assert.assertEquals("root.sg.d1", tablet.getDeviceId());
+    Assert.assertEquals(3, tablet.getRowSize());
+    Assert.assertEquals(TSDataType.INT32, tablet.getSchemas().get(0).getType());
+
+    // sorted by time, the values move along
+    Assert.assertArrayEquals(new long[] {10, 20, 30}, tablet.getTimestamps());
+    Assert.assertTrue(tablet.getBitMaps()[0].isMarked(0));
+    Assert.assertEquals(3, ((int[]) tablet.getValues()[0])[1]);
+    Assert.assertEquals(1, ((int[]) tablet.getValues()[0])[2]);
+    Assert.assertArrayEquals(new double[] {2.5, 3.5, 1.5}, (double[]) tablet.getValues()[1], 0);
+    Assert.assertTrue(tablet.getBitMaps()[2].isMarked(0));
+    Assert.assertEquals(
+        new Binary("c", StandardCharsets.UTF_8), ((Binary[]) tablet.getValues()[2])[1]);
+    Assert.assertArrayEquals(new boolean[] {false, true, true}, (boolean[]) tablet.getValues()[3]);
+    Assert.assertEquals(LocalDate.of(2024, 1, 3), ((LocalDate[]) tablet.getValues()[4])[1]);
+    Assert.assertFalse(tablet.getBitMaps()[1].isMarked(0));
+  }
+
+  @Test
+  public void testColumnMajorTablet() {
+    String json =
+        "{\"device\":\"root.sg.d1\", \"is_aligned\":true, \"measurements\":[\"s1\",\"s2\"],"
+            + " \"data_types\":[\"INT64\",\"FLOAT\"], \"timestamps\":[1, 2],"
+            + " \"values\":[[10, 20], [\"1.5\", 2]]}";
+    JsonTabletParser parser = new JsonTabletParser(reader(json), false);
+    Tablet tablet = parser.parseTablet();
+    Assert.assertTrue(parser.isAligned());
+    Assert.assertArrayEquals(new long[] {10, 20}, (long[]) tablet.getValues()[0]);
+    Assert.assertArrayEquals(new float[] {1.5f, 2f}, (float[]) tablet.getValues()[1], 0);
+  }
+
+  @Test
+  public void testNotTablet() {
+    // no data types, the caller falls back to the message based format
+    String json =
+        "[{\"device\":\"root.sg.d1\", \"timestamps\":[1], \"measurements\":[\"s1\"],"
+            + " \"data_types\":[\"INT64\"], \"values\":[[1]]},"
+            + " {\"device\":\"root.sg.d1\", \"timestamp\":1, \"measurements\":[\"s1\"],"
+            + " \"values\":[1]}]";
+    Assert.assertNull(new JsonTabletParser(reader(json), true).parseTablets());
+  }
+
+  @Test
+  public void testLargePayload() {
+    // a batched payload of several MB, the tablet must hold what a Gson tree holds
+    int numOfColumn = 10;
+    int numOfRow = 50_000;
+    StringBuilder builder = new StringBuilder();
+    builder.append("{\"device\":\"root.sg.d1\",\"measurements\":[");
+    for (int i = 0; i < numOfColumn; i++) {
+      builder.append(i == 0 ? "" : ",").append("\"s").append(i).append('"');
+    }
+    builder.append("],\"data_types\":[");
+    for (int i = 0; i < numOfColumn; i++) {
+      builder.append(i == 0 ? "" : ",").append("\"DOUBLE\"");
+    }
+    builder.append("],\"timestamps\":[");
+    for (int row = 0; row < numOfRow; row++) {
+      builder.append(row == 0 ? "" : ",").append(1700000000000L + row);
+    }
+    builder.append("],\"values\":[");
+    for (int row = 0; row < numOfRow; row++) {
+      builder.append(row == 0 ? "[" : ",[");
+      for (int i = 0; i < numOfColumn; i++) {
+        builder.append(i == 0 ? "" : ",").append(row * 0.001 + i);
+      }
+      builder.append(']');
+    }
+    builder.append("]}");
+    String json = builder.toString();
+
+    Tablet tablet = new JsonTabletParser(reader(json), true).parseTablet();
+    JsonObject object = new Gson().fromJson(json, JsonObject.class);
+    JsonArray timestamps = object.getAsJsonArray("timestamps");
+    JsonArray values = object.getAsJsonArray("values");
+    Assert.assertEquals(numOfRow, tablet.getRowSize());
+    for (int row = 0; row < numOfRow; row++) {
+      Assert.assertEquals(timestamps.get(row).getAsLong(), tablet.getTimestamps()[row]);
+      JsonArray rowValues = values.get(row).getAsJsonArray();
+      for (int i = 0; i < numOfColumn; i++) {
+        Assert.assertEquals(
+            Double.doubleToLongBits(rowValues.get(i).getAsDouble()),
+            Double.doubleToLongBits(((double[]) tablet.getValues()[i])[row]));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingValues() {
+    String json =
+        "{\"device\":\"root.sg.d1\", \"timestamps\":[1, 2], \"measurements\":[\"s1\"],"
+            + " \"data_types\":[\"INT64\"], \"values\":[[1]]}";
+    new JsonTabletParser(reader(json), true).parseTablet();
+  }
+
+  @Test
+  public void testFieldsOfInvalidTablet() {
+    // the fields stay readable for the validation of the request
+    String json =
+        "{\"device\":\"root.sg.d1\", \"timestamps\":[1], \"measurements\":[\"s1\", \"s2\"],"
+            + " \"data_types\":[\"INT64\", \"LONG\"], \"values\":[[1], [2]]}";
+    JsonTabletParser parser = new JsonTabletParser(reader(json), false);
+    try {
+      parser.parseTablet();
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // LONG is not a data type
+    }
+    Assert.assertEquals("root.sg.d1", parser.getDevice());
+    Assert.assertEquals(Arrays.asList("s1", "s2"), parser.getMeasurements());
+    Assert.assertEquals(Arrays.asList("INT64", "LONG"), parser.getDataTypes());
+    Assert.assertNull(parser.isAligned());
+  }
+}
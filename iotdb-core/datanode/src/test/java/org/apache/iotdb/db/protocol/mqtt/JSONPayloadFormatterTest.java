@@ -19,11 +19,17 @@ package org.apache.iotdb.db.protocol.mqtt;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class JSONPayloadFormatterTest {
 
@@ -126,4 +132,83 @@ public class JSONPayloadFormatterTest {
     assertEquals("s4", message.getMeasurements().get(1));
     assertEquals(0.530695D, Double.parseDouble(message.getValues().get(1)), 0);
   }
+
+  @Test
+  public void formatBatchJsonWithDataTypesToTablets() {
+    String payload =
+        " {\n"
+            + "      \"device\":\"root.sg.d1\",\n"
+            + "      \"timestamps\":[1586076065526,1586076045524],\n"
+            + "      \"measurements\":[\"s1\",\"s2\"],\n"
+            + "      \"data_types\":[\"INT64\",\"DOUBLE\"],\n"
+            + "      \"values\":[[1,0.530635], [2,null]]\n"
+            + "  }";
+
+    ByteBuf buf = Unpooled.copiedBuffer(payload, StandardCharsets.UTF_8);
+
+    JSONPayloadFormatter formatter = new JSONPayloadFormatter();
+    List<Tablet> tablets = new ArrayList<>();
+    assertTrue(formatter.format(buf, tablets).isEmpty());
+    Tablet tablet = tablets.get(0);
+
+    assertEquals("root.sg.d1", tablet.getDeviceId());
+    assertEquals(2, tablet.getRowSize());
+    assertEquals(1586076045524L, tablet.getTimestamps()[0]);
+    assertEquals(TSDataType.DOUBLE, tablet.getSchemas().get(1).getType());
+    assertEquals(2L, ((long[]) tablet.getValues()[0])[0]);
+    assertTrue(tablet.getBitMaps()[1].isMarked(0));
+    assertEquals(0.530635D, ((double[]) tablet.getValues()[1])[1], 0);
+
+    Message message = formatter.format(buf).get(1);
+    assertEquals(TSDataType.INT64, message.getDataTypes().get(0));
+    assertNull(message.getValues().get(1));
+  }
+
+  @Test
+  public void formatJsonWithoutDataTypesToTablets() {
+    String payload =
+        " {\n"
+            + "      \"device\":\"root.sg.d1\",\n"
+            + "      \"timestamps\":[1586076045524,1586076065526],\n"
+            + "      \"measurements\":[\"s1\",\"s2\"],\n"
+            + "      \"values\":[[0.530635,0.530635], [0.530655,0.530695]]\n"
+            + "  }";
+
+    ByteBuf buf = Unpooled.copiedBuffer(payload, StandardCharsets.UTF_8);
+
+    // the data types have to be inferred, which is done for each message
+    List<Tablet> tablets = new ArrayList<>();
+    assertEquals(2, new JSONPayloadFormatter().format(buf, tablets).size());
+    assertTrue(tablets.isEmpty());
+  }
+
+  @Test
+  public void formatMixedJsonArrayToTabletsAndMessages() {
+    String payload =
+        "[\n"
+            + "  {\n"
+            + "      \"device\":\"root.sg.d1\",\n"
+            + "      \"timestamp\":1586076045524,\n"
+            + "      \"measurements\":[\"s1\"],\n"
+            + "      \"values\":[0.530635]\n"
+            + "  },\n"
+            + "  {\n"
+            + "      \"device\":\"root.sg.d2\",\n"
+            + "      \"timestamps\":[1586076045524,1586076065526],\n"
+            + "      \"measurements\":[\"s1\"],\n"
+            + "      \"data_types\":[\"DOUBLE\"],\n"
+            + "      \"values\":[[0.530635], [0.530655]]\n"
+            + "  }\n"
+            + "]";
+
+    ByteBuf buf = Unpooled.copiedBuffer(payload, StandardCharsets.UTF_8);
+
+    List<Tablet> tablets = new ArrayList<>();
+    List<Message> messages = new JSONPayloadFormatter().format(buf, tablets);
+    assertEquals(1, messages.size());
+    assertEquals("root.sg.d1", messages.get(0).getDevice());
+    assertEquals(1, tablets.size());
+    assertEquals("root.sg.d2", tablets.get(0).getDeviceId());
+    assertEquals(2, tablets.get(0).getRowSize());
+  }
 }
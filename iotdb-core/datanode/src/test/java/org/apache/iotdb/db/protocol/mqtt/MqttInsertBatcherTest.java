@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.protocol.session.MqttClientSession;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class MqttInsertBatcherTest {
+
+  private final LinkedBlockingQueue<InsertRowsStatement> committed = new LinkedBlockingQueue<>();
+
+  private TSStatus execute(MqttClientSession session, InsertRowsStatement statement) {
+    committed.add(statement);
+    return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
+  }
+
+  private static InsertRowStatement row(String device, long time) throws IllegalPathException {
+    InsertRowStatement statement = new InsertRowStatement();
+    statement.setDevicePath(new PartialPath(device));
+    statement.setTime(time);
+    return statement;
+  }
+
+  private static List<String> devicesOf(InsertRowsStatement statement) {
+    return statement.getInsertRowStatementList().stream()
+        .map(row -> row.getDevicePath().getFullPath())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testFlushOnBatchSize() throws Exception {
+    MqttClientSession session = new MqttClientSession("client");
+    try (MqttInsertBatcher batcher = new MqttInsertBatcher(3, 60_000, 1, this::execute)) {
+      batcher.add(session, row("root.sg.d1", 1));
+      batcher.add(session, row("root.sg.d2", 1));
+      Assert.assertTrue(committed.isEmpty());
+
+      batcher.add(session, row("root.sg.d1", 2));
+      InsertRowsStatement statement = committed.poll();
+      Assert.assertNotNull(statement);
+      // rows of the same device are adjacent
+      Assert.assertEquals(
+          Arrays.asList("root.sg.d1", "root.sg.d1", "root.sg.d2"), devicesOf(statement));
+      Assert.assertEquals(1, statement.getInsertRowStatementList().get(0).getTime());
+      Assert.assertEquals(2, statement.getInsertRowStatementList().get(1).getTime());
+
+      // rows of a disconnected client are committed at once
+      batcher.add(session, row("root.sg.d3", 3));
+      batcher.flush(session);
+      statement = committed.poll();
+      Assert.assertNotNull(statement);
+      Assert.assertEquals(1, statement.getInsertRowStatementList().size());
+    }
+  }
+
+  @Test
+  public void testFlushOnBatchDelay() throws Exception {
+    MqttClientSession session1 = new MqttClientSession("client1");
+    MqttClientSession session2 = new MqttClientSession("client2");
+    try (MqttInsertBatcher batcher = new MqttInsertBatcher(100, 20, 2, this::execute)) {
+      batcher.add(session1, row("root.sg.d1", 1));
+      batcher.add(session2, row("root.sg.d1", 2));
+
+      // each client is committed separately
+      Assert.assertNotNull(committed.poll(10, TimeUnit.SECONDS));
+      Assert.assertNotNull(committed.poll(10, TimeUnit.SECONDS));
+      Assert.assertNull(committed.poll(100, TimeUnit.MILLISECONDS));
+    }
+  }
+
+  @Test
+  public void testNoRowLostWhenFlushedConcurrently() throws Exception {
+    MqttClientSession session = new MqttClientSession("client");
+    int threadNum = 4;
+    int rowNumPerThread = 10_000;
+    try (MqttInsertBatcher batcher = new MqttInsertBatcher(7, 60_000, 1, this::execute)) {
+      ExecutorService publishers = Executors.newFixedThreadPool(threadNum);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        String device = "root.sg.d" + i;
+        futures.add(
+            publishers.submit(
+                () -> {
+                  for (int time = 0; time < rowNumPerThread; time++) {
+                    batcher.add(session, row(device, time));
+                  }
+                  return null;
+                }));
+      }
+      // the client keeps reconnecting while its rows are published
+      while (!futures.stream().allMatch(Future::isDone)) {
+        batcher.flush(session);
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      publishers.shutdown();
+      batcher.flush(session);
+    }
+    int rowNum = 0;
+    for (InsertRowsStatement statement : committed) {
+      rowNum += statement.getInsertRowStatementList().size();
+    }
+    Assert.assertEquals(threadNum * rowNumPerThread, rowNum);
+  }
+}
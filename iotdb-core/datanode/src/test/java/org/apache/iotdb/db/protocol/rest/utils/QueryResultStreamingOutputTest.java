@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.rest.utils;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.commons.schema.column.ColumnHeader;
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput.Format;
+import org.apache.iotdb.db.protocol.rest.utils.QueryResultStreamingOutput.JsonLayout;
+import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
+import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class QueryResultStreamingOutputTest {
+
+  private static final JsonLayout ROW_LAYOUT = new JsonLayout("column_names", true, false, false);
+
+  private IQueryExecution queryExecution;
+
+  @Before
+  public void setUp() throws IoTDBException {
+    DatasetHeader header =
+        new DatasetHeader(
+            Arrays.asList(
+                new ColumnHeader("root.sg.d.s1", TSDataType.DOUBLE),
+                new ColumnHeader("root.sg.d.s2", TSDataType.TEXT)),
+            false);
+    // the TsBlock columns are in a different order than the header
+    header.setTreeColumnToTsBlockIndexMap(Arrays.asList("root.sg.d.s2", "root.sg.d.s1"));
+
+    queryExecution = Mockito.mock(IQueryExecution.class);
+    Mockito.when(queryExecution.getQueryId()).thenReturn("query");
+    Mockito.when(queryExecution.getDatasetHeader()).thenReturn(header);
+    Mockito.when(queryExecution.getBatchResult())
+        .thenReturn(Optional.of(buildTsBlock(0, 1.5)))
+        .thenReturn(Optional.of(buildTsBlock(10, Double.NaN)))
+        .thenReturn(Optional.empty());
+  }
+
+  private static TsBlock buildTsBlock(long startTime, double value) {
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.TEXT, TSDataType.DOUBLE));
+    for (int row = 0; row < 2; row++) {
+      builder.getTimeColumnBuilder().writeLong(startTime + row);
+      builder
+          .getColumnBuilder(0)
+          .writeBinary(new Binary("a,\"b\"" + row, TSFileConfig.STRING_CHARSET));
+      if (row == 1) {
+        builder.getColumnBuilder(1).appendNull();
+      } else {
+        builder.getColumnBuilder(1).writeDouble(value);
+      }
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  private String write(Format format, int rowLimit, AtomicBoolean completed) throws IOException {
+    return write(format, ROW_LAYOUT, rowLimit, completed);
+  }
+
+  private String write(Format format, JsonLayout jsonLayout, int rowLimit, AtomicBoolean completed)
+      throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    new QueryResultStreamingOutput(
+            queryExecution, format, jsonLayout, rowLimit, 16, () -> completed.set(true))
+        .write(outputStream);
+    return new String(outputStream.toByteArray(), TSFileConfig.STRING_CHARSET);
+  }
+
+  @Test
+  public void testJson() throws IOException {
+    AtomicBoolean completed = new AtomicBoolean();
+    Assert.assertEquals(
+        "{\"column_names\":[\"root.sg.d.s1\",\"root.sg.d.s2\"],"
+            + "\"data_types\":[\"DOUBLE\",\"TEXT\"],"
+            + "\"values\":[[1.5,\"a,\\\"b\\\"0\"],[null,\"a,\\\"b\\\"1\"],"
+            + "[\"NaN\",\"a,\\\"b\\\"0\"],[null,\"a,\\\"b\\\"1\"]]}",
+        write(Format.JSON, 0, completed));
+    Assert.assertTrue(completed.get());
+  }
+
+  @Test
+  public void testColumnMajorJson() throws IOException {
+    AtomicBoolean completed = new AtomicBoolean();
+    Assert.assertEquals(
+        "{\"expressions\":[\"root.sg.d.s1\",\"root.sg.d.s2\"],"
+            + "\"data_types\":[\"DOUBLE\",\"TEXT\"],"
+            + "\"timestamps\":[0,1,10],"
+            + "\"values\":[[1.5,null,\"NaN\"],"
+            + "[\"a,\\\"b\\\"0\",\"a,\\\"b\\\"1\",\"a,\\\"b\\\"0\"]]}",
+        write(Format.JSON, new JsonLayout("expressions", true, true, true), 3, completed));
+    Assert.assertTrue(completed.get());
+  }
+
+  @Test
+  public void testEmptyColumnMajorJson() throws IOException, IoTDBException {
+    Mockito.when(queryExecution.getBatchResult()).thenReturn(Optional.empty());
+    AtomicBoolean completed = new AtomicBoolean();
+    Assert.assertEquals(
+        "{\"expressions\":[\"root.sg.d.s1\",\"root.sg.d.s2\"],\"timestamps\":[],\"values\":[]}",
+        write(Format.JSON, new JsonLayout("expressions", false, true, true), 0, completed));
+    Assert.assertTrue(completed.get());
+  }
+
+  @Test
+  public void testNdjsonWithRowLimit() throws IOException {
+    AtomicBoolean completed = new AtomicBoolean();
+    Assert.assertEquals(
+        "{\"column_names\":[\"Time\",\"root.sg.d.s1\",\"root.sg.d.s2\"],"
+            + "\"data_types\":[\"TIMESTAMP\",\"DOUBLE\",\"TEXT\"]}\n"
+            + "[0,1.5,\"a,\\\"b\\\"0\"]\n"
+            + "[1,null,\"a,\\\"b\\\"1\"]\n"
+            + "[10,\"NaN\",\"a,\\\"b\\\"0\"]\n",
+        write(Format.NDJSON, 3, completed));
+    Assert.assertTrue(completed.get());
+  }
+
+  @Test
+  public void testCsv() throws IOException {
+    AtomicBoolean completed = new AtomicBoolean();
+    Assert.assertEquals(
+        "Time,root.sg.d.s1,root.sg.d.s2\n"
+            + "0,1.5,\"a,\"\"b\"\"0\"\n"
+            + "1,,\"a,\"\"b\"\"1\"\n"
+            + "10,NaN,\"a,\"\"b\"\"0\"\n"
+            + "11,,\"a,\"\"b\"\"1\"\n",
+        write(Format.CSV, 0, completed));
+    Assert.assertTrue(completed.get());
+  }
+
+  @Test
+  public void testQueryReleasedOnFailure() throws IoTDBException {
+    Mockito.when(queryExecution.getBatchResult())
+        .thenThrow(new IoTDBException("failed", TSStatusCode.QUERY_PROCESS_ERROR.getStatusCode()));
+    AtomicBoolean completed = new AtomicBoolean();
+    try {
+      write(Format.CSV, 0, completed);
+      Assert.fail();
+    } catch (IOException e) {
+      Assert.assertTrue(e.getCause() instanceof IoTDBException);
+    }
+    Assert.assertTrue(completed.get());
+  }
+
+  @Test
+  public void testQueryReleasedWithoutWriting() {
+    AtomicBoolean completed = new AtomicBoolean();
+    QueryResultStreamingOutput output =
+        new QueryResultStreamingOutput(
+            queryExecution, Format.CSV, ROW_LAYOUT, 0, 16, () -> completed.set(true));
+    output.toResponse();
+    QueryResultStreamingOutput.releaseUnwritten();
+    Assert.assertTrue(completed.get());
+    try {
+      output.write(new ByteArrayOutputStream());
+      Assert.fail();
+    } catch (IOException e) {
+      // the query has been released
+    }
+  }
+
+  @Test
+  public void testFormat() {
+    Assert.assertEquals(Format.NDJSON, Format.of("ndjson"));
+    Assert.assertTrue(Format.isSupported("CSV"));
+    Assert.assertFalse(Format.isSupported("xml"));
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation.sketch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class SketchTest {
+
+  @Test
+  public void testHyperLogLogMerge() {
+    HyperLogLog whole = new HyperLogLog(HyperLogLog.DEFAULT_STANDARD_ERROR);
+    HyperLogLog left = new HyperLogLog(HyperLogLog.DEFAULT_STANDARD_ERROR);
+    HyperLogLog right = new HyperLogLog(HyperLogLog.DEFAULT_STANDARD_ERROR);
+    for (long i = 0; i < 100_000; i++) {
+      whole.add(i);
+      // the two halves overlap on [40000, 60000)
+      if (i < 60_000) {
+        left.add(i);
+      }
+      if (i >= 40_000) {
+        right.add(i);
+      }
+    }
+    HyperLogLog merged = HyperLogLog.deserialize(left.serialize());
+    merged.merge(HyperLogLog.deserialize(right.serialize()));
+
+    Assert.assertEquals(whole.cardinality(), merged.cardinality());
+    Assert.assertEquals(100_000, merged.cardinality(), 100_000 * 0.023 * 3);
+  }
+
+  @Test
+  public void testHyperLogLogSmallCardinality() {
+    HyperLogLog hyperLogLog = new HyperLogLog(0.01);
+    for (int i = 0; i < 1000; i++) {
+      hyperLogLog.add(i % 10);
+      hyperLogLog.add(("v" + i % 10).getBytes());
+    }
+    Assert.assertEquals(20, hyperLogLog.cardinality());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHyperLogLogMergeDifferentPrecision() {
+    new HyperLogLog(0.01).merge(new HyperLogLog(0.1));
+  }
+
+  @Test
+  public void testHyperLogLogMergeHigherPrecision() {
+    HyperLogLog lower = new HyperLogLog(0.05);
+    HyperLogLog higher = new HyperLogLog(0.01);
+    for (long i = 0; i < 50_000; i++) {
+      lower.add(i);
+      higher.add(i);
+    }
+    HyperLogLog folded = new HyperLogLog(0.05);
+    folded.merge(higher);
+    Assert.assertArrayEquals(lower.serialize(), folded.serialize());
+  }
+
+  @Test
+  public void testTDigestMerge() {
+    Random random = new Random(1);
+    TDigest merged = new TDigest();
+    for (int part = 0; part < 10; part++) {
+      TDigest digest = new TDigest();
+      for (int i = 0; i < 10_000; i++) {
+        digest.add(random.nextDouble() * 1000);
+      }
+      merged.merge(TDigest.deserialize(digest.serialize()));
+    }
+    Assert.assertEquals(500, merged.quantile(0.5), 10);
+    Assert.assertEquals(990, merged.quantile(0.99), 2);
+    Assert.assertEquals(10, merged.quantile(0.01), 2);
+    Assert.assertTrue(merged.quantile(0) >= 0);
+    Assert.assertTrue(merged.quantile(1) <= 1000);
+  }
+
+  @Test
+  public void testTDigestSmallInput() {
+    TDigest digest = new TDigest();
+    Assert.assertTrue(Double.isNaN(digest.quantile(0.5)));
+    digest.add(3);
+    Assert.assertEquals(3, digest.quantile(0.5), 0);
+    digest.add(1);
+    digest.add(2);
+    Assert.assertEquals(1, digest.quantile(0), 0);
+    Assert.assertEquals(2, digest.quantile(0.5), 0);
+    Assert.assertEquals(3, digest.quantile(1), 0);
+  }
+
+  @Test
+  public void testSpaceSaving() {
+    SpaceSaving left = new SpaceSaving(10);
+    SpaceSaving right = new SpaceSaving(10);
+    for (int i = 0; i < 100; i++) {
+      left.add("a");
+      left.add("c");
+      right.add("b");
+      right.add("c");
+      // noise shares the remaining slots and keeps evicting itself
+      left.add("x" + i);
+      right.add("y" + i);
+    }
+    SpaceSaving merged = SpaceSaving.deserialize(left.serialize());
+    merged.merge(SpaceSaving.deserialize(right.serialize()));
+
+    Assert.assertEquals(10, merged.getCapacity());
+    Assert.assertEquals("{\"c\":200,\"a\":100,\"b\":100}", merged.toJsonString(3));
+  }
+
+  @Test
+  public void testSpaceSavingJson() {
+    SpaceSaving spaceSaving = new SpaceSaving(10);
+    spaceSaving.add("q\"uote");
+    spaceSaving.add("b");
+    spaceSaving.add("b");
+    Assert.assertEquals("{\"b\":2,\"q\\\"uote\":1}", spaceSaving.toJsonString(10));
+    Assert.assertEquals("{\"b\":2}", spaceSaving.toJsonString(1));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.cq;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.queryengine.plan.statement.component.FillComponent;
+import org.apache.iotdb.db.queryengine.plan.statement.component.FromComponent;
+import org.apache.iotdb.db.queryengine.plan.statement.component.GroupByTimeComponent;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
+
+import org.apache.tsfile.utils.TimeDuration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class IncrementalCQUtilsTest {
+
+  private static QueryStatement buildStatement(long interval, long slidingStep)
+      throws IllegalPathException {
+    QueryStatement queryStatement = new QueryStatement();
+    FromComponent fromComponent = new FromComponent();
+    fromComponent.addPrefixPath(new PartialPath("root.sg.d1"));
+    queryStatement.setFromComponent(fromComponent);
+    GroupByTimeComponent groupByTimeComponent = new GroupByTimeComponent();
+    groupByTimeComponent.setInterval(new TimeDuration(0, interval));
+    groupByTimeComponent.setSlidingStep(new TimeDuration(0, slidingStep));
+    queryStatement.setGroupByTimeComponent(groupByTimeComponent);
+    return queryStatement;
+  }
+
+  @Test
+  public void testTumblingWindow() throws IllegalPathException {
+    QueryStatement queryStatement = buildStatement(10, 10);
+    // nothing written, only the windows after the last execution
+    Assert.assertEquals(
+        150,
+        IncrementalCQUtils.getRecomputeStartTime(
+            queryStatement, 100, 20, 150, Collections.emptyMap()));
+    // the last window of the last execution is not complete
+    Assert.assertEquals(
+        150,
+        IncrementalCQUtils.getRecomputeStartTime(
+            queryStatement, 100, 20, 155, Collections.emptyMap()));
+
+    Map<String, Long> minWriteTimes = new HashMap<>();
+    minWriteTimes.put("root.agg", 101L);
+    minWriteTimes.put("root.sg", 123L);
+    Assert.assertEquals(
+        120, IncrementalCQUtils.getRecomputeStartTime(queryStatement, 100, 20, 150, minWriteTimes));
+
+    // late data before the time range of this execution
+    minWriteTimes.put("root.sg", 10L);
+    Assert.assertEquals(
+        100, IncrementalCQUtils.getRecomputeStartTime(queryStatement, 100, 20, 150, minWriteTimes));
+  }
+
+  @Test
+  public void testSlidingWindow() throws IllegalPathException {
+    QueryStatement queryStatement = buildStatement(20, 10);
+    Assert.assertEquals(
+        140,
+        IncrementalCQUtils.getRecomputeStartTime(
+            queryStatement, 100, 20, 150, Collections.emptyMap()));
+    Assert.assertEquals(
+        100,
+        IncrementalCQUtils.getRecomputeStartTime(
+            queryStatement, 100, 20, 150, Collections.singletonMap("root.sg", 115L)));
+  }
+
+  @Test
+  public void testFullExecution() throws IllegalPathException {
+    // windows of two executions are not aligned
+    QueryStatement queryStatement = buildStatement(15, 15);
+    Assert.assertEquals(
+        100,
+        IncrementalCQUtils.getRecomputeStartTime(
+            queryStatement, 100, 20, 150, Collections.emptyMap()));
+
+    // one window may be filled by the values of the others
+    queryStatement = buildStatement(10, 10);
+    queryStatement.setFillComponent(new FillComponent());
+    Assert.assertEquals(
+        100,
+        IncrementalCQUtils.getRecomputeStartTime(
+            queryStatement, 100, 20, 150, Collections.emptyMap()));
+
+    // raw data query
+    queryStatement = buildStatement(10, 10);
+    queryStatement.setGroupByTimeComponent(null);
+    Assert.assertEquals(
+        100,
+        IncrementalCQUtils.getRecomputeStartTime(
+            queryStatement, 100, 20, 150, Collections.emptyMap()));
+  }
+}
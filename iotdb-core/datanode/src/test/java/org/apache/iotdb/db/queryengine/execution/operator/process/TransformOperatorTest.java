@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.udf.service.UDFClassLoaderManager;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.NodeRef;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.plan.expression.Expression;
+import org.apache.iotdb.db.queryengine.plan.expression.binary.AdditionExpression;
+import org.apache.iotdb.db.queryengine.plan.expression.binary.MultiplicationExpression;
+import org.apache.iotdb.db.queryengine.plan.expression.binary.SubtractionExpression;
+import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimeSeriesOperand;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.InputLocation;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.IntColumn;
+import org.apache.tsfile.read.common.block.column.TimeColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+
+public class TransformOperatorTest {
+
+  private static final int BLOCK_NUM = 10;
+  private static final int BLOCK_SIZE = 100;
+
+  @Test
+  public void testEvaluateIndependentOutputColumnsInParallel() throws Exception {
+    UDFClassLoaderManager.setupAndGetInstance();
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    ExecutorService udfEvaluationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(2, "test-udf-evaluation");
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+      driverContext.addOperatorContext(1, new PlanNodeId("1"), "DriverThreadOnlyOperator");
+      driverContext.addOperatorContext(
+          2, new PlanNodeId("2"), TransformOperator.class.getSimpleName());
+
+      DriverThreadOnlyOperator child =
+          new DriverThreadOnlyOperator(driverContext.getOperatorContexts().get(0));
+
+      Expression s1 = new TimeSeriesOperand(new PartialPath("root.sg.d1.s1"));
+      Expression s2 = new TimeSeriesOperand(new PartialPath("root.sg.d1.s2"));
+      // three independent groups of output columns
+      Expression[] outputExpressions =
+          new Expression[] {
+            new AdditionExpression(s1, s2),
+            new MultiplicationExpression(s1, s2),
+            new SubtractionExpression(s1, s2)
+          };
+      Map<NodeRef<Expression>, TSDataType> expressionTypes = new HashMap<>();
+      expressionTypes.put(NodeRef.of(s1), TSDataType.INT32);
+      expressionTypes.put(NodeRef.of(s2), TSDataType.INT32);
+      for (Expression outputExpression : outputExpressions) {
+        expressionTypes.put(NodeRef.of(outputExpression), TSDataType.DOUBLE);
+      }
+      Map<String, List<InputLocation>> inputLocations = new HashMap<>();
+      inputLocations.put(
+          s1.getExpressionString(), Collections.singletonList(new InputLocation(0, 0)));
+      inputLocations.put(
+          s2.getExpressionString(), Collections.singletonList(new InputLocation(0, 1)));
+
+      TransformOperator transformOperator =
+          new TransformOperator(
+              driverContext.getOperatorContexts().get(1),
+              child,
+              Arrays.asList(TSDataType.INT32, TSDataType.INT32),
+              inputLocations,
+              outputExpressions,
+              false,
+              ZoneId.systemDefault(),
+              expressionTypes,
+              true,
+              udfEvaluationExecutor);
+
+      long expectedTime = 0;
+      while (transformOperator.isBlocked().isDone() && transformOperator.hasNext()) {
+        TsBlock tsBlock = transformOperator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        for (int i = 0; i < tsBlock.getPositionCount(); i++, expectedTime++) {
+          Assert.assertEquals(expectedTime, tsBlock.getTimeByIndex(i));
+          // s1 = time, s2 = 2 * time
+          Assert.assertEquals(3.0 * expectedTime, tsBlock.getColumn(0).getDouble(i), 0);
+          Assert.assertEquals(
+              2.0 * expectedTime * expectedTime, tsBlock.getColumn(1).getDouble(i), 0);
+          Assert.assertEquals(-1.0 * expectedTime, tsBlock.getColumn(2).getDouble(i), 0);
+        }
+      }
+      Assert.assertEquals((long) BLOCK_NUM * BLOCK_SIZE, expectedTime);
+      Assert.assertFalse(child.isAccessedByOtherThreads);
+      transformOperator.close();
+    } finally {
+      udfEvaluationExecutor.shutdown();
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  /** An operator which records whether it is accessed by a thread other than the driver thread. */
+  private static class DriverThreadOnlyOperator implements ProcessOperator {
+
+    private final OperatorContext operatorContext;
+    private final Thread driverThread = Thread.currentThread();
+    private volatile boolean isAccessedByOtherThreads = false;
+    private int blockIndex = 0;
+
+    private DriverThreadOnlyOperator(OperatorContext operatorContext) {
+      this.operatorContext = operatorContext;
+    }
+
+    private void checkThread() {
+      if (Thread.currentThread() != driverThread) {
+        isAccessedByOtherThreads = true;
+      }
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return operatorContext;
+    }
+
+    @Override
+    public TsBlock next() {
+      checkThread();
+      long[] times = new long[BLOCK_SIZE];
+      int[] s1 = new int[BLOCK_SIZE];
+      int[] s2 = new int[BLOCK_SIZE];
+      for (int i = 0; i < BLOCK_SIZE; i++) {
+        times[i] = (long) blockIndex * BLOCK_SIZE + i;
+        s1[i] = (int) times[i];
+        s2[i] = 2 * s1[i];
+      }
+      blockIndex++;
+      return new TsBlock(
+          new TimeColumn(BLOCK_SIZE, times),
+          new IntColumn(BLOCK_SIZE, Optional.empty(), s1),
+          new IntColumn(BLOCK_SIZE, Optional.empty(), s2));
+    }
+
+    @Override
+    public boolean hasNext() {
+      checkThread();
+      return blockIndex < BLOCK_NUM;
+    }
+
+    @Override
+    public void close() {
+      // do nothing
+    }
+
+    @Override
+    public boolean isFinished() {
+      checkThread();
+      return blockIndex >= BLOCK_NUM;
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
+import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.confignode.rpc.thrift.TDataPartitionReq;
+import org.apache.iotdb.confignode.rpc.thrift.TDataPartitionTableResp;
+import org.apache.iotdb.confignode.rpc.thrift.TTimeSlotList;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.partition.PartitionCache;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClusterPartitionFetcherTest {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final String DATABASE = "root.sg";
+  private static final IDeviceID DEVICE = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d1");
+  private static final TConsensusGroupId DATA_REGION_ID =
+      new TConsensusGroupId(TConsensusGroupType.DataRegion, 1);
+  private static final int WRITER_NUM = 8;
+
+  private final AtomicInteger fetchCount = new AtomicInteger();
+  private final CountDownLatch fetchStarted = new CountDownLatch(1);
+  private final CountDownLatch fetchReleased = new CountDownLatch(1);
+
+  private PartitionCache partitionCache;
+  private TSeriesPartitionSlot seriesPartitionSlot;
+  private ExecutorService writers;
+
+  @Before
+  public void setUp() {
+    partitionCache = new PartitionCache();
+    // avoid asking ConfigNode for the replica set of the data region
+    partitionCache.updateGroupIdToReplicaSetMap(
+        Long.MAX_VALUE,
+        Collections.singletonMap(
+            DATA_REGION_ID, new TRegionReplicaSet(DATA_REGION_ID, Collections.emptyList())));
+    seriesPartitionSlot =
+        SeriesPartitionExecutor.getSeriesPartitionExecutor(
+                config.getSeriesPartitionExecutorClass(), config.getSeriesPartitionSlotNum())
+            .getSeriesPartitionSlot(DEVICE);
+    writers = Executors.newFixedThreadPool(WRITER_NUM);
+  }
+
+  @After
+  public void tearDown() {
+    fetchReleased.countDown();
+    writers.shutdownNow();
+    partitionCache.invalidAllCache();
+  }
+
+  @Test
+  public void testConcurrentMissesOnSameSlotAreCoalesced() throws Exception {
+    final ClusterPartitionFetcher fetcher =
+        new ClusterPartitionFetcher(partitionCache, this::blockingFetch, 0);
+    final TTimePartitionSlot timePartitionSlot = TimePartitionUtils.getTimePartitionSlot(0);
+
+    final List<Future<DataPartition>> results = new ArrayList<>();
+    for (int i = 0; i < WRITER_NUM; i++) {
+      results.add(
+          writers.submit(() -> fetcher.getOrCreateDataPartition(queryParamsOf(timePartitionSlot))));
+    }
+    Assert.assertTrue(fetchStarted.await(10, TimeUnit.SECONDS));
+    // let the other writers find the fetch in flight
+    Thread.sleep(100);
+    fetchReleased.countDown();
+
+    for (final Future<DataPartition> result : results) {
+      assertContainsSlot(result.get(10, TimeUnit.SECONDS), timePartitionSlot);
+    }
+    Assert.assertEquals(1, fetchCount.get());
+  }
+
+  @Test
+  public void testWritersWaitForPreAllocation() throws Exception {
+    final ClusterPartitionFetcher fetcher =
+        new ClusterPartitionFetcher(partitionCache, this::blockingFetch, Long.MAX_VALUE);
+    final long currentTime = TimePartitionUtils.getTimePartitionInterval() - 1;
+    final TTimePartitionSlot nextTimePartitionSlot =
+        new TTimePartitionSlot(TimePartitionUtils.getTimePartitionUpperBound(currentTime));
+    // the device has been written in the current time partition
+    partitionCache.updateDataPartitionCache(
+        partitionTableOf(TimePartitionUtils.getTimePartitionSlot(currentTime)));
+
+    final Future<?> preAllocation =
+        writers.submit(() -> fetcher.preAllocateNextTimePartition(currentTime));
+    Assert.assertTrue(fetchStarted.await(10, TimeUnit.SECONDS));
+
+    // the writers enter the next time partition during the pre-allocation
+    final List<Future<DataPartition>> results = new ArrayList<>();
+    for (int i = 0; i < WRITER_NUM - 1; i++) {
+      results.add(
+          writers.submit(
+              () -> fetcher.getOrCreateDataPartition(queryParamsOf(nextTimePartitionSlot))));
+    }
+    Thread.sleep(100);
+    fetchReleased.countDown();
+
+    preAllocation.get(10, TimeUnit.SECONDS);
+    for (final Future<DataPartition> result : results) {
+      assertContainsSlot(result.get(10, TimeUnit.SECONDS), nextTimePartitionSlot);
+    }
+    Assert.assertEquals(1, fetchCount.get());
+
+    // the next time partition is pre-allocated only once
+    fetcher.preAllocateNextTimePartition(currentTime);
+    Assert.assertEquals(1, fetchCount.get());
+  }
+
+  private TDataPartitionTableResp blockingFetch(final TDataPartitionReq req) {
+    fetchCount.incrementAndGet();
+    fetchStarted.countDown();
+    try {
+      fetchReleased.await();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    final Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>>
+        dataPartitionTable = new HashMap<>();
+    for (final Map.Entry<String, Map<TSeriesPartitionSlot, TTimeSlotList>> databaseEntry :
+        req.getPartitionSlotsMap().entrySet()) {
+      for (final Map.Entry<TSeriesPartitionSlot, TTimeSlotList> seriesEntry :
+          databaseEntry.getValue().entrySet()) {
+        for (final TTimePartitionSlot timePartitionSlot :
+            seriesEntry.getValue().getTimePartitionSlots()) {
+          dataPartitionTable
+              .computeIfAbsent(databaseEntry.getKey(), k -> new HashMap<>())
+              .computeIfAbsent(seriesEntry.getKey(), k -> new HashMap<>())
+              .put(timePartitionSlot, Collections.singletonList(DATA_REGION_ID));
+        }
+      }
+    }
+    return new TDataPartitionTableResp(new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode()))
+        .setDataPartitionTable(dataPartitionTable);
+  }
+
+  private Map<String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>>
+      partitionTableOf(final TTimePartitionSlot timePartitionSlot) {
+    final Map<TTimePartitionSlot, List<TConsensusGroupId>> timeSlotMap = new HashMap<>();
+    timeSlotMap.put(timePartitionSlot, Collections.singletonList(DATA_REGION_ID));
+    final Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>
+        seriesSlotMap = new HashMap<>();
+    seriesSlotMap.put(seriesPartitionSlot, timeSlotMap);
+    return Collections.singletonMap(DATABASE, seriesSlotMap);
+  }
+
+  private static Map<String, List<DataPartitionQueryParam>> queryParamsOf(
+      final TTimePartitionSlot timePartitionSlot) {
+    return Collections.singletonMap(
+        DATABASE,
+        Collections.singletonList(
+            new DataPartitionQueryParam(DEVICE, Collections.singletonList(timePartitionSlot))));
+  }
+
+  private static void assertContainsSlot(
+      final DataPartition dataPartition, final TTimePartitionSlot timePartitionSlot) {
+    Assert.assertNotNull(dataPartition);
+    Assert.assertEquals(
+        DATA_REGION_ID,
+        dataPartition
+            .getDataRegionReplicaSetForWriting(DEVICE, timePartitionSlot, DATABASE)
+            .getRegionId());
+  }
+}
@@ -53,6 +53,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class PartitionCacheTest {
@@ -447,6 +448,27 @@ public class PartitionCacheTest {
     }
   }
 
+  @Test
+  public void testGetCachedSeriesPartitionSlots() {
+    Map<String, List<TSeriesPartitionSlot>> result =
+        partitionCache.getCachedSeriesPartitionSlots(new TTimePartitionSlot(0));
+    assertEquals(STORAGE_GROUP_NUMBER.intValue(), result.size());
+    for (Map.Entry<
+            String, Map<TSeriesPartitionSlot, Map<TTimePartitionSlot, List<TConsensusGroupId>>>>
+        entry : dataPartitionTable.entrySet()) {
+      assertEquals(entry.getValue().keySet(), new HashSet<>(result.get(entry.getKey())));
+    }
+
+    // no series partition slot has a time partition slot beyond the cached ones
+    assertTrue(
+        partitionCache
+            .getCachedSeriesPartitionSlots(new TTimePartitionSlot(TIME_PARTITION_PER_STORAGE_GROUP))
+            .isEmpty());
+
+    partitionCache.invalidAllDataPartitionCache();
+    assertTrue(partitionCache.getCachedSeriesPartitionSlots(new TTimePartitionSlot(0)).isEmpty());
+  }
+
   /**
    * get StorageGroupToQueryParamsMap
    *
@@ -19,6 +19,13 @@
 
 package org.apache.iotdb.db.queryengine.plan.planner.node.load;
 
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.plan.analyze.Analysis;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.load.LoadSingleTsFileNode;
@@ -26,12 +33,15 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.node.load.LoadTsFilePie
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
 import org.apache.tsfile.exception.NotImplementedException;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 
 public class LoadTsFileNodeTest {
@@ -64,6 +74,50 @@ public class LoadTsFileNodeTest {
     node.clean();
   }
 
+  @Test
+  public void testLoadSingleTsFileNodeAdoptedByLocalReplica() throws IOException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    boolean originEnableDirectAdoption = config.isEnableLoadTsFileDirectAdoption();
+
+    TsFileResource resource = new TsFileResource(new File("1"));
+    IDeviceID device = IDeviceID.Factory.DEFAULT_FACTORY.create("root.db.d1");
+    resource.updateStartTime(device, 1);
+    resource.updateEndTime(device, 100);
+    TDataNodeLocation localLocation =
+        new TDataNodeLocation()
+            .setDataNodeId(1)
+            .setInternalEndPoint(
+                new TEndPoint(config.getInternalAddress(), config.getInternalPort()));
+    TDataNodeLocation remoteLocation =
+        new TDataNodeLocation()
+            .setDataNodeId(2)
+            .setInternalEndPoint(new TEndPoint("remote", config.getInternalPort()));
+    TRegionReplicaSet replicaSet =
+        new TRegionReplicaSet(
+            new TConsensusGroupId(TConsensusGroupType.DataRegion, 1),
+            Arrays.asList(localLocation, remoteLocation));
+
+    try {
+      config.setEnableLoadTsFileDirectAdoption(false);
+      LoadSingleTsFileNode node =
+          new LoadSingleTsFileNode(new PlanNodeId(""), resource, false, "root.db", false, 0L);
+      Assert.assertTrue(
+          node.needDecodeTsFile(slotList -> Collections.nCopies(slotList.size(), replicaSet)));
+      Assert.assertNull(node.getRemoteRegionReplicaSet());
+
+      config.setEnableLoadTsFileDirectAdoption(true);
+      node = new LoadSingleTsFileNode(new PlanNodeId(""), resource, false, "root.db", false, 0L);
+      Assert.assertFalse(
+          node.needDecodeTsFile(slotList -> Collections.nCopies(slotList.size(), replicaSet)));
+      Assert.assertEquals(replicaSet, node.getLocalRegionReplicaSet());
+      Assert.assertEquals(
+          Collections.singletonList(remoteLocation),
+          node.getRemoteRegionReplicaSet().getDataNodeLocations());
+    } finally {
+      config.setEnableLoadTsFileDirectAdoption(originEnableDirectAdoption);
+    }
+  }
+
   @Test
   public void testLoadTsFilePieceNode() {
     LoadTsFilePieceNode node = new LoadTsFilePieceNode(new PlanNodeId(""), new File("1"));
@@ -88,5 +142,13 @@ public class LoadTsFileNodeTest {
     node.serialize(buffer);
     LoadTsFilePieceNode node1 = (LoadTsFilePieceNode) LoadTsFilePieceNode.deserialize(buffer);
     Assert.assertEquals(node.getTsFile(), node1.getTsFile());
+    Assert.assertEquals(0, node1.getDeviceRangeIndex());
+
+    LoadTsFilePieceNode rangeNode = new LoadTsFilePieceNode(new PlanNodeId(""), new File("1"), 2);
+    buffer = ByteBuffer.allocate(1024);
+    rangeNode.serialize(buffer);
+    LoadTsFilePieceNode rangeNode1 = (LoadTsFilePieceNode) LoadTsFilePieceNode.deserialize(buffer);
+    Assert.assertEquals(rangeNode.getTsFile(), rangeNode1.getTsFile());
+    Assert.assertEquals(2, rangeNode1.getDeviceRangeIndex());
   }
 }
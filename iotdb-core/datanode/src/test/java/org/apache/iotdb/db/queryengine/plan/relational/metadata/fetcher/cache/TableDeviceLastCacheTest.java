@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.TsPrimitiveType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TableDeviceLastCacheTest {
+
+  @Test
+  public void testAllValueKinds() {
+    final TableDeviceLastCache cache = new TableDeviceLastCache();
+    final String[] measurements = new String[] {"s5", "s4", "s3", "s2", "s1", "s0"};
+    final TimeValuePair[] timeValuePairs =
+        new TimeValuePair[] {
+          new TimeValuePair(1L, new TsPrimitiveType.TsBoolean(true)),
+          new TimeValuePair(2L, new TsPrimitiveType.TsInt(-2)),
+          new TimeValuePair(3L, new TsPrimitiveType.TsLong(Long.MAX_VALUE)),
+          new TimeValuePair(4L, new TsPrimitiveType.TsFloat(-4.5f)),
+          new TimeValuePair(5L, new TsPrimitiveType.TsDouble(Double.MIN_VALUE)),
+          new TimeValuePair(
+              6L, new TsPrimitiveType.TsBinary(new Binary("v", TSFileConfig.STRING_CHARSET)))
+        };
+
+    cache.initOrInvalidate(null, null, measurements, false, false);
+    for (final String measurement : measurements) {
+      Assert.assertNull(cache.getTimeValuePair(measurement));
+    }
+    cache.tryUpdate(measurements, timeValuePairs);
+    for (int i = 0; i < measurements.length; ++i) {
+      Assert.assertEquals(timeValuePairs[i], cache.getTimeValuePair(measurements[i]));
+    }
+
+    // Older values are ignored and a binary can be replaced by other kinds
+    cache.tryUpdate(
+        new String[] {"s0", "s1"},
+        new TimeValuePair[] {
+          new TimeValuePair(7L, TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE),
+          new TimeValuePair(1L, new TsPrimitiveType.TsDouble(1))
+        });
+    Assert.assertEquals(7L, cache.getTimeValuePair("s0").getTimestamp());
+    Assert.assertSame(
+        TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE, cache.getTimeValuePair("s0").getValue());
+    Assert.assertEquals(timeValuePairs[4], cache.getTimeValuePair("s1"));
+  }
+
+  @Test
+  public void testEstimateSize() {
+    final TableDeviceLastCache cache = new TableDeviceLastCache();
+    int size = TableDeviceLastCache.INSTANCE_SIZE;
+    Assert.assertEquals(size, cache.estimateSize());
+
+    size += cache.initOrInvalidate(null, null, new String[] {"s1", "", "s0", "s1"}, false, false);
+    Assert.assertEquals(size, cache.estimateSize());
+
+    size +=
+        cache.tryUpdate(
+            new String[] {"s0", "s1"},
+            new TimeValuePair[] {
+              new TimeValuePair(
+                  1L, new TsPrimitiveType.TsBinary(new Binary("v", TSFileConfig.STRING_CHARSET))),
+              new TimeValuePair(2L, new TsPrimitiveType.TsInt(1))
+            });
+    Assert.assertEquals(size, cache.estimateSize());
+    Assert.assertEquals(2L, cache.getTimeValuePair("").getTimestamp());
+
+    // Invalidating a tree model measurement also invalidates the device's last time
+    size += cache.invalidate("s1", false);
+    Assert.assertEquals(size, cache.estimateSize());
+    Assert.assertNull(cache.getTimeValuePair(""));
+
+    size += cache.initOrInvalidate(null, null, new String[] {"s0"}, true, false);
+    Assert.assertEquals(TableDeviceLastCache.INSTANCE_SIZE, size);
+    Assert.assertEquals(size, cache.estimateSize());
+  }
+
+  @Test
+  public void testLastRow() {
+    final TableDeviceLastCache cache = new TableDeviceLastCache();
+    cache.initOrInvalidate(null, null, new String[] {"", "s0", "s1", "s2"}, false, false);
+    cache.tryUpdate(
+        new String[] {"s0", "s1", "s2"},
+        new TimeValuePair[] {
+          new TimeValuePair(2L, new TsPrimitiveType.TsInt(1)),
+          new TimeValuePair(1L, new TsPrimitiveType.TsInt(2)),
+          TableDeviceLastCache.EMPTY_TIME_VALUE_PAIR
+        });
+
+    Assert.assertArrayEquals(
+        new TsPrimitiveType[] {
+          new TsPrimitiveType.TsLong(2L),
+          new TsPrimitiveType.TsInt(1),
+          TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE,
+          TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE,
+          null
+        },
+        cache.getLastRow("", Arrays.asList("", "s0", "s1", "s2", "s3")).get().getRight());
+    Assert.assertFalse(
+        cache.getLastRow("s2", Arrays.asList("s0", "s1")).get().getLeft().isPresent());
+    Assert.assertFalse(cache.getLastRow("s3", Arrays.asList("s0", "s1")).isPresent());
+  }
+
+  @Test
+  public void testConcurrentReads() throws Exception {
+    final TableDeviceLastCache cache = new TableDeviceLastCache();
+    final String[] measurements = new String[] {"s0", "s1"};
+    cache.initOrInvalidate(null, null, new String[] {"", "s0", "s1"}, false, false);
+
+    final AtomicBoolean isWriting = new AtomicBoolean(true);
+    final Thread writer =
+        new Thread(
+            () -> {
+              for (long time = 1; time <= 100_000; ++time) {
+                cache.tryUpdate(
+                    measurements,
+                    new TimeValuePair[] {
+                      new TimeValuePair(time, new TsPrimitiveType.TsLong(time)),
+                      new TimeValuePair(time, new TsPrimitiveType.TsLong(-time))
+                    });
+              }
+              isWriting.set(false);
+            });
+    writer.start();
+
+    // The row read without locking is always written by one update
+    final List<String> targetMeasurements = Arrays.asList("", "s0", "s1");
+    while (isWriting.get()) {
+      final TsPrimitiveType[] row =
+          cache.getLastRow("", targetMeasurements).map(pair -> pair.getRight()).orElse(null);
+      if (row == null) {
+        continue;
+      }
+      final long time = row[0].getLong();
+      Assert.assertEquals(time, row[1].getLong());
+      Assert.assertEquals(-time, row[2].getLong());
+    }
+    writer.join();
+    Assert.assertEquals(100_000L, cache.getTimeValuePair("").getTimestamp());
+  }
+}
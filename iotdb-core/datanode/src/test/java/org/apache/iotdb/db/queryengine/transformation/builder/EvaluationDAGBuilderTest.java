@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.transformation.builder;
 
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.udf.service.UDFClassLoaderManager;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.protocol.session.IClientSession.SqlDialect;
@@ -39,6 +40,10 @@ import org.apache.iotdb.db.queryengine.plan.analyze.Analysis;
 import org.apache.iotdb.db.queryengine.plan.analyze.Analyzer;
 import org.apache.iotdb.db.queryengine.plan.analyze.FakePartitionFetcherImpl;
 import org.apache.iotdb.db.queryengine.plan.analyze.FakeSchemaFetcherImpl;
+import org.apache.iotdb.db.queryengine.plan.expression.Expression;
+import org.apache.iotdb.db.queryengine.plan.expression.binary.AdditionExpression;
+import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimeSeriesOperand;
+import org.apache.iotdb.db.queryengine.plan.expression.multi.FunctionExpression;
 import org.apache.iotdb.db.queryengine.plan.parser.StatementGenerator;
 import org.apache.iotdb.db.queryengine.plan.planner.LocalExecutionPlanner;
 import org.apache.iotdb.db.queryengine.plan.planner.LogicalPlanner;
@@ -48,6 +53,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.LogicalQueryPlan;
 import org.apache.iotdb.db.queryengine.plan.statement.Statement;
 import org.apache.iotdb.db.queryengine.transformation.api.LayerReader;
+import org.apache.iotdb.db.queryengine.transformation.dag.builder.EvaluationDAGBuilder;
 import org.apache.iotdb.db.queryengine.transformation.dag.transformer.multi.UDFQueryRowWindowTransformer;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.IDataRegionForQuery;
@@ -58,6 +64,8 @@ import org.mockito.Mockito;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -85,6 +93,25 @@ public class EvaluationDAGBuilderTest {
     }
   }
 
+  @Test
+  public void testGroupIndependentOutputExpressions() throws Exception {
+    Expression s1 = new TimeSeriesOperand(new PartialPath("root.sg.d1.s1"));
+    Expression s2 = new TimeSeriesOperand(new PartialPath("root.sg.d1.s2"));
+    Expression[] outputExpressions =
+        new Expression[] {
+          new FunctionExpression("sin", new LinkedHashMap<>(), Collections.singletonList(s1)),
+          new FunctionExpression("m4", new LinkedHashMap<>(), Collections.singletonList(s1)),
+          new AdditionExpression(
+              new FunctionExpression("sin", new LinkedHashMap<>(), Collections.singletonList(s1)),
+              s2),
+          s2
+        };
+    // the first and the third expressions share sin(s1), leaf operands don't make dependencies
+    Assert.assertArrayEquals(
+        new int[] {0, 1, 0, 2},
+        EvaluationDAGBuilder.groupIndependentOutputExpressions(outputExpressions));
+  }
+
   private Operator generateOperatorTree(String sql) {
     try {
       UDFClassLoaderManager.setupAndGetInstance();
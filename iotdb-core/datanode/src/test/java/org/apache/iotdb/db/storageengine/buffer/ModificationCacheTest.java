@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+public class ModificationCacheTest {
+
+  private static final String DIR =
+      "target"
+          .concat(File.separator)
+          .concat("data")
+          .concat(File.separator)
+          .concat("sequence")
+          .concat(File.separator)
+          .concat("root.sg1")
+          .concat(File.separator)
+          .concat("1")
+          .concat(File.separator)
+          .concat("0");
+
+  private final ModificationCache modificationCache = ModificationCache.getInstance();
+  private TsFileResource resource;
+
+  @Before
+  public void setUp() throws IOException {
+    File dir = new File(DIR);
+    FileUtils.forceMkdir(dir);
+    resource = new TsFileResource(new File(dir, "1-1-0-0.tsfile"));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    resource.removeModFile();
+    modificationCache.clear();
+    FileUtils.deleteDirectory(new File(DIR));
+  }
+
+  @Test
+  public void testReloadAfterAppend() throws Exception {
+    resource
+        .getModFileForWrite()
+        .write(new TreeDeletionEntry(new MeasurementPath("root.sg1.d1.s1"), 1, 10));
+
+    ModificationCache.CachedModifications modifications = modificationCache.get(resource);
+    Assert.assertEquals(1, modifications.getModEntries().size());
+    // the same version is shared
+    Assert.assertSame(modifications, modificationCache.get(resource));
+
+    resource
+        .getModFileForWrite()
+        .write(new TreeDeletionEntry(new MeasurementPath("root.sg1.d2.**"), 5, 20));
+    modifications = modificationCache.get(resource);
+    Assert.assertEquals(2, modifications.getModEntries().size());
+    Assert.assertEquals(
+        1,
+        modifications
+            .getModificationTree()
+            .getOverlapped(IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg1.d2"), "s1")
+            .size());
+    Assert.assertSame(modifications, modificationCache.getIfPresent(resource.getTsFileID()));
+  }
+
+  @Test
+  public void testInvalidateAfterRemove() throws Exception {
+    resource
+        .getModFileForWrite()
+        .write(new TreeDeletionEntry(new MeasurementPath("root.sg1.d1.s1"), 1, 10));
+    modificationCache.get(resource);
+    Assert.assertNotNull(modificationCache.getIfPresent(resource.getTsFileID()));
+
+    resource.removeModFile();
+    Assert.assertNull(modificationCache.getIfPresent(resource.getTsFileID()));
+    Assert.assertTrue(modificationCache.get(resource).isEmpty());
+  }
+
+  @Test
+  public void testCopyModificationTree() throws Exception {
+    resource
+        .getModFileForWrite()
+        .write(new TreeDeletionEntry(new MeasurementPath("root.sg1.d1.s1"), 1, 10));
+    ModificationCache.CachedModifications modifications = modificationCache.get(resource);
+
+    TreeDeletionEntry ttlDeletion =
+        new TreeDeletionEntry(new MeasurementPath("root.sg1.d1.**"), Long.MIN_VALUE, 0);
+    modifications.copyModificationTree().append(ttlDeletion.keyOfPatternTree(), ttlDeletion);
+
+    // the shared tree is not affected by the copy
+    Assert.assertEquals(
+        1,
+        modifications
+            .getModificationTree()
+            .getOverlapped(IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg1.d1"), "s1")
+            .size());
+  }
+}
@@ -60,6 +60,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 public class BatchedCompactionWithTsFileSplitterTest extends AbstractCompactionTest {
 
@@ -263,46 +264,77 @@ public class BatchedCompactionWithTsFileSplitterTest extends AbstractCompactionT
     return targetResource;
   }
 
+  @Test
+  public void testSplitByDeviceRanges()
+      throws IOException,
+          WriteProcessException,
+          MetadataException,
+          IllegalPathException,
+          LoadFileException {
+    createFiles(1, 4, 3, 100, 0, 0, 0, 0, true, true);
+    TsFileResource resource = seqResources.get(0);
+
+    List<Predicate<IDeviceID>> deviceRanges =
+        TsFileSplitter.getDeviceRanges(resource.getTsFile(), 3);
+    Assert.assertEquals(3, deviceRanges.size());
+    consumeChunkDataAndValidate(resource, deviceRanges);
+  }
+
   private void consumeChunkDataAndValidate(TsFileResource resource)
       throws IOException, IllegalPathException, LoadFileException {
+    consumeChunkDataAndValidate(resource, Collections.singletonList(device -> true));
+  }
+
+  private void consumeChunkDataAndValidate(
+      TsFileResource resource, List<Predicate<IDeviceID>> deviceRanges)
+      throws IOException, IllegalPathException, LoadFileException {
     Map<TTimePartitionSlot, TestLoadTsFileIOWriter> writerMap = new HashMap<>();
 
-    TsFileSplitter splitter =
-        new TsFileSplitter(
-            resource.getTsFile(),
-            tsFileData -> {
-              AlignedChunkData alignedChunkData = (AlignedChunkData) tsFileData;
-              TestLoadTsFileIOWriter writer =
-                  writerMap.computeIfAbsent(
-                      alignedChunkData.getTimePartitionSlot(),
-                      slot -> {
-                        try {
-                          return new TestLoadTsFileIOWriter(createEmptyFileAndResource(false));
-                        } catch (IOException e) {
-                          throw new RuntimeException(e);
-                        }
-                      });
-              try {
-                final IDeviceID deviceID = alignedChunkData.getDevice();
-                if (!deviceID.equals(writer.currentDevice)) {
-                  if (writer.currentDevice != null) {
-                    writer.endChunkGroup();
+    for (Predicate<IDeviceID> deviceRange : deviceRanges) {
+      TsFileSplitter splitter =
+          new TsFileSplitter(
+              resource.getTsFile(),
+              tsFileData -> {
+                AlignedChunkData alignedChunkData = (AlignedChunkData) tsFileData;
+                Assert.assertTrue(deviceRange.test(alignedChunkData.getDevice()));
+                Assert.assertEquals(
+                    1,
+                    deviceRanges.stream()
+                        .filter(range -> range.test(alignedChunkData.getDevice()))
+                        .count());
+                TestLoadTsFileIOWriter writer =
+                    writerMap.computeIfAbsent(
+                        alignedChunkData.getTimePartitionSlot(),
+                        slot -> {
+                          try {
+                            return new TestLoadTsFileIOWriter(createEmptyFileAndResource(false));
+                          } catch (IOException e) {
+                            throw new RuntimeException(e);
+                          }
+                        });
+                try {
+                  final IDeviceID deviceID = alignedChunkData.getDevice();
+                  if (!deviceID.equals(writer.currentDevice)) {
+                    if (writer.currentDevice != null) {
+                      writer.endChunkGroup();
+                    }
+                    writer.startChunkGroup(deviceID);
                   }
-                  writer.startChunkGroup(deviceID);
+                  ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                  DataOutputStream dos = new DataOutputStream(baos);
+                  alignedChunkData.serialize(dos);
+                  AlignedChunkData newAlignedChunkData =
+                      (AlignedChunkData)
+                          TsFileData.deserialize(new ByteArrayInputStream(baos.toByteArray()));
+                  newAlignedChunkData.writeToFileWriter(writer);
+                } catch (IOException | PageException | IllegalPathException e) {
+                  throw new RuntimeException(e);
                 }
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                DataOutputStream dos = new DataOutputStream(baos);
-                alignedChunkData.serialize(dos);
-                AlignedChunkData newAlignedChunkData =
-                    (AlignedChunkData)
-                        TsFileData.deserialize(new ByteArrayInputStream(baos.toByteArray()));
-                newAlignedChunkData.writeToFileWriter(writer);
-              } catch (IOException | PageException | IllegalPathException e) {
-                throw new RuntimeException(e);
-              }
-              return true;
-            });
-    splitter.splitTsFileByDataPartition();
+                return true;
+              },
+              deviceRange);
+      splitter.splitTsFileByDataPartition();
+    }
     List<TsFileResource> splitResources = new ArrayList<>();
     for (Map.Entry<TTimePartitionSlot, TestLoadTsFileIOWriter> entry : writerMap.entrySet()) {
       TestLoadTsFileIOWriter writer = entry.getValue();
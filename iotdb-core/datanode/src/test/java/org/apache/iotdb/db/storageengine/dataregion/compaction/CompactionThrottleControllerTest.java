@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction;
+
+import org.apache.iotdb.db.queryengine.metric.QueryMetricsManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionThrottleController;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactionThrottleControllerTest {
+
+  private static final double DELTA = 0.0001;
+
+  @Test
+  public void testComputeNextRatio() {
+    // pressure halves the ratio even if there is a backlog
+    Assert.assertEquals(
+        0.5, CompactionThrottleController.computeNextRatio(1.0, true, true, 0.1, 2.0), DELTA);
+    Assert.assertEquals(
+        0.1, CompactionThrottleController.computeNextRatio(0.15, true, false, 0.1, 2.0), DELTA);
+
+    // backlog speeds compaction up to the max ratio
+    Assert.assertEquals(
+        1.1, CompactionThrottleController.computeNextRatio(1.0, false, true, 0.1, 2.0), DELTA);
+    Assert.assertEquals(
+        2.0, CompactionThrottleController.computeNextRatio(1.95, false, true, 0.1, 2.0), DELTA);
+
+    // otherwise the ratio moves back to 1
+    Assert.assertEquals(
+        0.6, CompactionThrottleController.computeNextRatio(0.5, false, false, 0.1, 2.0), DELTA);
+    Assert.assertEquals(
+        1.0, CompactionThrottleController.computeNextRatio(0.95, false, false, 0.1, 2.0), DELTA);
+    Assert.assertEquals(
+        1.4, CompactionThrottleController.computeNextRatio(1.5, false, false, 0.1, 2.0), DELTA);
+    Assert.assertEquals(
+        1.0, CompactionThrottleController.computeNextRatio(1.0, false, false, 0.1, 2.0), DELTA);
+  }
+
+  @Test
+  public void testRecentQueryLatencyP99() {
+    QueryMetricsManager queryMetricsManager = QueryMetricsManager.getInstance();
+    // drop the latencies recorded before
+    queryMetricsManager.getRecentQueryLatencyP99();
+    Assert.assertEquals(-1, queryMetricsManager.getRecentQueryLatencyP99());
+
+    for (int i = 1; i <= 100; i++) {
+      queryMetricsManager.recordQueryLatency(i);
+    }
+    Assert.assertEquals(99, queryMetricsManager.getRecentQueryLatencyP99());
+    // the latencies are collected only once
+    Assert.assertEquals(-1, queryMetricsManager.getRecentQueryLatencyP99());
+
+    // only the latest queries are counted
+    for (int i = 0; i < 2500; i++) {
+      queryMetricsManager.recordQueryLatency(i < 1000 ? 1_000_000 : 10);
+    }
+    Assert.assertEquals(10, queryMetricsManager.getRecentQueryLatencyP99());
+  }
+}
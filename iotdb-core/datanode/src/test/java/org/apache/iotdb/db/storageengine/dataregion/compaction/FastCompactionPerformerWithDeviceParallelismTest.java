@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.IFullPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.FastCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.subtask.FastCompactionTaskSummary;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionCheckerUtils;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.utils.TsFileResourceUtils;
+import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
+
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class FastCompactionPerformerWithDeviceParallelismTest extends AbstractCompactionTest {
+
+  private int originDeviceParallelism;
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    super.setUp();
+    originDeviceParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionDeviceParallelism();
+    IoTDBDescriptor.getInstance().getConfig().setCompactionDeviceParallelism(3);
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    super.tearDown();
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setCompactionDeviceParallelism(originDeviceParallelism);
+  }
+
+  @Test
+  public void testSeqInnerCompactionOfAlignedDevices() throws Exception {
+    createFiles(3, 6, 3, 100, 0, 0, 50, 50, true, true);
+    TsFileResource targetResource = performCompaction(seqResources, true);
+    assertDevicesInOrder(targetResource, 6);
+  }
+
+  @Test
+  public void testUnseqInnerCompactionWithMods() throws Exception {
+    createFiles(2, 5, 3, 100, 0, 0, 50, 50, true, false);
+    createFiles(2, 5, 3, 100, 50, 50, 50, 50, true, false);
+    generateModsFile(2, 2, unseqResources, 20, 80);
+    TsFileResource targetResource = performCompaction(unseqResources, false);
+    assertDevicesInOrder(targetResource, 5);
+  }
+
+  private TsFileResource performCompaction(List<TsFileResource> sourceFiles, boolean isSeq)
+      throws Exception {
+    tsFileManager.addAll(sourceFiles, isSeq);
+    List<IFullPath> paths = getPaths(sourceFiles);
+    Map<IFullPath, List<TimeValuePair>> sourceData =
+        CompactionCheckerUtils.getDataByQuery(paths, seqResources, unseqResources);
+    long memoryCostBeforeCompaction = SystemInfo.getInstance().getCompactionMemoryCost().get();
+
+    TsFileResource targetResource =
+        TsFileNameGenerator.getInnerCompactionTargetFileResource(sourceFiles, isSeq);
+    FastCompactionPerformer performer = new FastCompactionPerformer(false);
+    performer.setSummary(new FastCompactionTaskSummary());
+    performer.setSourceFiles(sourceFiles);
+    performer.setTargetFiles(Collections.singletonList(targetResource));
+    performer.perform();
+    CompactionUtils.moveTargetFile(
+        Collections.singletonList(targetResource),
+        isSeq ? CompactionTaskType.INNER_SEQ : CompactionTaskType.INNER_UNSEQ,
+        COMPACTION_TEST_SG);
+
+    // the memory of buffered devices is released
+    Assert.assertEquals(
+        memoryCostBeforeCompaction, SystemInfo.getInstance().getCompactionMemoryCost().get());
+    TsFileResourceUtils.validateTsFileDataCorrectness(targetResource);
+    Assert.assertTrue(
+        CompactionCheckerUtils.compareSourceDataAndTargetData(
+            sourceData,
+            CompactionCheckerUtils.getDataByQuery(
+                paths, Collections.singletonList(targetResource), Collections.emptyList())));
+    return targetResource;
+  }
+
+  private void assertDevicesInOrder(TsFileResource targetResource, int deviceNum)
+      throws IOException {
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(targetResource.getTsFile().getAbsolutePath())) {
+      // the devices are sorted in the metadata index, their chunk groups should be in the same
+      // order
+      List<IDeviceID> devices = reader.getAllDevices();
+      Assert.assertEquals(deviceNum, devices.size());
+      long lastChunkGroupOffset = -1;
+      for (IDeviceID device : devices) {
+        long chunkGroupOffset = Long.MAX_VALUE;
+        for (List<ChunkMetadata> chunkMetadataList :
+            reader.readChunkMetadataInDevice(device).values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            chunkGroupOffset = Math.min(chunkGroupOffset, chunkMetadata.getOffsetOfChunkHeader());
+          }
+        }
+        Assert.assertTrue(chunkGroupOffset > lastChunkGroupOffset);
+        lastChunkGroupOffset = chunkGroupOffset;
+        Assert.assertTrue(targetResource.getStartTime(device) <= targetResource.getEndTime(device));
+      }
+    }
+  }
+}
@@ -38,6 +38,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionWorker;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.DefaultCompactionTaskComparatorImpl;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionFileGeneratorUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionTestFileWriter;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.utils.TsFileResourceUtils;
@@ -50,7 +51,10 @@ import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.write.WriteProcessException;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.read.common.IBatchDataIterator;
+import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.utils.TsFileGeneratorUtils;
 import org.apache.tsfile.utils.TsPrimitiveType;
@@ -64,6 +68,7 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -4703,6 +4708,75 @@ public class FastCrossCompactionPerformerTest extends AbstractCompactionTest {
     }
   }
 
+  @Test
+  public void testDirectlyFlushNonOverlappedChunksInCrossSpaceCompaction() throws Exception {
+    IDeviceID d1 = IDeviceID.Factory.DEFAULT_FACTORY.create(COMPACTION_TEST_SG + ".d1");
+    IDeviceID d2 = IDeviceID.Factory.DEFAULT_FACTORY.create(COMPACTION_TEST_SG + ".d2");
+    TsFileResource seqFile = createEmptyFileAndResource(true);
+    try (CompactionTestFileWriter writer = new CompactionTestFileWriter(seqFile)) {
+      writer.startChunkGroup("d1");
+      writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+          "s1",
+          new TimeRange[] {new TimeRange(0, 999), new TimeRange(1000, 1999)},
+          TSEncoding.PLAIN,
+          CompressionType.UNCOMPRESSED);
+      writer.endChunkGroup();
+      writer.startChunkGroup("d2");
+      writer.generateSimpleAlignedSeriesToCurrentDevice(
+          Arrays.asList("s1", "s2"),
+          new TimeRange[] {new TimeRange(0, 999), new TimeRange(1000, 1999)},
+          TSEncoding.PLAIN,
+          CompressionType.UNCOMPRESSED);
+      writer.endChunkGroup();
+      writer.endFile();
+    }
+    seqFile.updateStartTime(d1, 0);
+    seqFile.updateEndTime(d1, 1999);
+    seqFile.updateStartTime(d2, 0);
+    seqFile.updateEndTime(d2, 1999);
+    seqFile.serialize();
+    seqResources.add(seqFile);
+
+    // only the second chunk of each series overlaps with the unseq file
+    TsFileResource unseqFile = createEmptyFileAndResource(false);
+    try (CompactionTestFileWriter writer = new CompactionTestFileWriter(unseqFile)) {
+      writer.startChunkGroup("d1");
+      writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+          "s1",
+          new TimeRange[] {new TimeRange(1500, 1510)},
+          TSEncoding.PLAIN,
+          CompressionType.UNCOMPRESSED);
+      writer.endChunkGroup();
+      writer.startChunkGroup("d2");
+      writer.generateSimpleAlignedSeriesToCurrentDevice(
+          Arrays.asList("s1", "s2"),
+          new TimeRange[] {new TimeRange(1500, 1510)},
+          TSEncoding.PLAIN,
+          CompressionType.UNCOMPRESSED);
+      writer.endChunkGroup();
+      writer.endFile();
+    }
+    unseqFile.updateStartTime(d1, 1500);
+    unseqFile.updateEndTime(d1, 1510);
+    unseqFile.updateStartTime(d2, 1500);
+    unseqFile.updateEndTime(d2, 1510);
+    unseqFile.serialize();
+    unseqResources.add(unseqFile);
+
+    targetResources.addAll(
+        CompactionFileGeneratorUtils.getCrossCompactionTargetTsFileResources(seqResources));
+    FastCompactionPerformer performer =
+        new FastCompactionPerformer(seqResources, unseqResources, targetResources);
+    FastCompactionTaskSummary summary = new FastCompactionTaskSummary();
+    performer.setSummary(summary);
+    performer.perform();
+    CompactionUtils.moveTargetFile(targetResources, CompactionTaskType.CROSS, COMPACTION_TEST_SG);
+
+    Assert.assertTrue(summary.chunkNoneOverlap > 0);
+    Assert.assertTrue(summary.getDirectlyFlushDataSize() > 0);
+    Assert.assertTrue(summary.getRewriteDataSize() > 0);
+  }
+
   private void validateSeqFiles() {
     TsFileValidationTool.clearMap(true);
     List<File> files = new ArrayList<>();
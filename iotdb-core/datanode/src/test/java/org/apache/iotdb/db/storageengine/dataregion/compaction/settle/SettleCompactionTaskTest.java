@@ -24,7 +24,9 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.AlignedFullPath;
 import org.apache.iotdb.commons.path.IFullPath;
+import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
@@ -34,12 +36,16 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.constant.InnerSeqCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.constant.InnerUnseqCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.FastCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.LightweightSettleCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.ReadChunkCompactionPerformer;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.impl.ReadPointCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.SettleCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.SettleSelectorImpl;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionTestFileWriter;
+import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
 
@@ -47,7 +53,10 @@ import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.write.WriteProcessException;
 import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.utils.TsFileGeneratorUtils;
 import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.junit.After;
@@ -282,6 +291,167 @@ public class SettleCompactionTaskTest extends AbstractCompactionTest {
     validateTargetDatas(sourceDatas, Collections.emptyList());
   }
 
+  @Test
+  public void settleWithLightweightPerformer()
+      throws IOException, MetadataException, WriteProcessException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    boolean originEnableLightweightSettle = config.isEnableLightweightSettleCompaction();
+    long originModsFileThreshold = config.getInnerCompactionTaskSelectionModsFileThreshold();
+    config.setEnableLightweightSettleCompaction(true);
+    config.setInnerCompactionTaskSelectionModsFileThreshold(1);
+    try {
+      createFiles(3, 3, 5, 100, 0, 0, 0, 0, isAligned, true);
+      // the first and the last file are partially deleted, the second file is all deleted
+      generateModsFile(1, 3, seqResources, 50, 250, isAligned);
+
+      tsFileManager.addAll(seqResources, true);
+
+      Map<IFullPath, List<TimeValuePair>> sourceDatas =
+          readSourceFiles(createTimeseries(3, 5, isAligned), Collections.emptyList());
+
+      SettleSelectorImpl settleSelector =
+          new SettleSelectorImpl(
+              false, COMPACTION_TEST_SG, "0", 0, tsFileManager, new CompactionScheduleContext());
+      List<SettleCompactionTask> tasks = settleSelector.selectSettleTask(seqResources);
+      Assert.assertEquals(3, tasks.size());
+      int directlyFlushChunkNum = 0;
+      for (SettleCompactionTask task : tasks) {
+        Assert.assertEquals(1, task.getPartiallyDirtyFiles().size());
+        Assert.assertTrue(task.start());
+        directlyFlushChunkNum += task.getSummary().getDirectlyFlushChunkNum();
+      }
+      // the chunks of the devices and measurements without deletion are copied directly
+      Assert.assertTrue(directlyFlushChunkNum > 0);
+
+      for (TsFileResource tsFileResource : seqResources) {
+        Assert.assertEquals(TsFileResourceStatus.DELETED, tsFileResource.getStatus());
+      }
+      Assert.assertEquals(3, tsFileManager.getTsFileList(true).size());
+      validateSeqFiles(true);
+      validateTargetDatas(sourceDatas, Collections.emptyList());
+    } finally {
+      config.setEnableLightweightSettleCompaction(originEnableLightweightSettle);
+      config.setInnerCompactionTaskSelectionModsFileThreshold(originModsFileThreshold);
+    }
+  }
+
+  @Test
+  public void settleWithLightweightPerformerAndPartiallyDeletedChunks()
+      throws IOException, IllegalPathException {
+    TsFileResource resource = createEmptyFileAndResource(true);
+    try (CompactionTestFileWriter writer = new CompactionTestFileWriter(resource)) {
+      writer.startChunkGroup("d1");
+      TimeRange[] chunkTimeRanges =
+          new TimeRange[] {new TimeRange(0, 99), new TimeRange(100, 199), new TimeRange(200, 299)};
+      if (isAligned) {
+        writer.generateSimpleAlignedSeriesToCurrentDevice(
+            Arrays.asList("s1", "s2"),
+            chunkTimeRanges,
+            TSEncoding.PLAIN,
+            CompressionType.UNCOMPRESSED);
+      } else {
+        writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+            "s1", chunkTimeRanges, TSEncoding.PLAIN, CompressionType.UNCOMPRESSED);
+        writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+            "s2", chunkTimeRanges, TSEncoding.PLAIN, CompressionType.UNCOMPRESSED);
+      }
+      writer.endChunkGroup();
+      writer.endFile();
+    }
+    // the deletion only covers a part of the second chunk of each series
+    resource
+        .getModFileForWrite()
+        .write(new TreeDeletionEntry(new MeasurementPath("root.testsg.d1.**"), 120, 149));
+    resource.getModFileForWrite().close();
+    seqResources.add(resource);
+    tsFileManager.addAll(seqResources, true);
+
+    SettleCompactionTask task =
+        new SettleCompactionTask(
+            0,
+            tsFileManager,
+            Collections.emptyList(),
+            new ArrayList<>(seqResources),
+            true,
+            new LightweightSettleCompactionPerformer(),
+            0);
+    Assert.assertTrue(task.start());
+
+    CompactionTaskSummary summary = task.getSummary();
+    if (isAligned) {
+      // an aligned chunk is counted as the time chunk and the two value chunks
+      Assert.assertEquals(6, summary.getDirectlyFlushChunkNum());
+      Assert.assertEquals(3, summary.getDeserializeChunkCount());
+    } else {
+      Assert.assertEquals(4, summary.getDirectlyFlushChunkNum());
+      Assert.assertEquals(2, summary.getDeserializeChunkCount());
+    }
+    Assert.assertEquals(TsFileResourceStatus.DELETED, resource.getStatus());
+    Assert.assertEquals(1, tsFileManager.getTsFileList(true).size());
+    TsFileResource targetResource = tsFileManager.getTsFileList(true).get(0);
+    IDeviceID device = IDeviceID.Factory.DEFAULT_FACTORY.create("root.testsg.d1");
+    Assert.assertEquals(0, targetResource.getStartTime(device));
+    Assert.assertEquals(299, targetResource.getEndTime(device));
+  }
+
+  @Test
+  public void settleAlignedDeviceInBatchesWithLightweightPerformer()
+      throws IOException, IllegalPathException {
+    if (!isAligned) {
+      return;
+    }
+    int originBatchSize =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionMaxAlignedSeriesNumInOneBatch();
+    IoTDBDescriptor.getInstance().getConfig().setCompactionMaxAlignedSeriesNumInOneBatch(2);
+    try {
+      TsFileResource resource = createEmptyFileAndResource(true);
+      try (CompactionTestFileWriter writer = new CompactionTestFileWriter(resource)) {
+        writer.startChunkGroup("d1");
+        writer.generateSimpleAlignedSeriesToCurrentDevice(
+            Arrays.asList("s1", "s2", "s3"),
+            new TimeRange[] {
+              new TimeRange(0, 99), new TimeRange(100, 199), new TimeRange(200, 299)
+            },
+            TSEncoding.PLAIN,
+            CompressionType.UNCOMPRESSED);
+        writer.endChunkGroup();
+        writer.endFile();
+      }
+      // only one column of the second chunk is partially deleted, which the batch holding the
+      // other two columns has to take into account as well
+      resource
+          .getModFileForWrite()
+          .write(new TreeDeletionEntry(new MeasurementPath("root.testsg.d1.s3"), 120, 149));
+      resource.getModFileForWrite().close();
+      seqResources.add(resource);
+      tsFileManager.addAll(seqResources, true);
+
+      SettleCompactionTask task =
+          new SettleCompactionTask(
+              0,
+              tsFileManager,
+              Collections.emptyList(),
+              new ArrayList<>(seqResources),
+              true,
+              new LightweightSettleCompactionPerformer(),
+              0);
+      Assert.assertTrue(task.start());
+
+      // the first batch copies the time chunk and two value chunks of the first and the last
+      // chunk, the following batch copies the remaining value chunk of them, and both batches
+      // rewrite the second chunk, counting the time chunk once for each batch
+      CompactionTaskSummary summary = task.getSummary();
+      Assert.assertEquals(8, summary.getDirectlyFlushChunkNum());
+      Assert.assertEquals(5, summary.getDeserializeChunkCount());
+      Assert.assertEquals(1, tsFileManager.getTsFileList(true).size());
+      validateSeqFiles(true);
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setCompactionMaxAlignedSeriesNumInOneBatch(originBatchSize);
+    }
+  }
+
   @Test
   public void settleWithOnlyAllDirtyFilesByTTL()
       throws MetadataException, IOException, WriteProcessException {
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.tools;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.tool.CompactionSimulationStatistic;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.tool.CompactionSimulator;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+public class CompactionSimulatorTest {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MB = 1024 * 1024;
+  private static final IDeviceID DEVICE = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sim.d1");
+
+  private InnerSequenceCompactionSelector oldInnerSeqSelector;
+  private int oldCandidateFileNum;
+  private int oldMinCrossCompactionUnseqFileLevel;
+
+  @Before
+  public void setUp() {
+    oldInnerSeqSelector = config.getInnerSequenceCompactionSelector();
+    oldCandidateFileNum = config.getInnerCompactionCandidateFileNum();
+    oldMinCrossCompactionUnseqFileLevel = config.getMinCrossCompactionUnseqFileLevel();
+    config.setInnerSequenceCompactionSelector(
+        InnerSequenceCompactionSelector.SIZE_TIERED_SINGLE_TARGET);
+    config.setInnerCompactionCandidateFileNum(10);
+  }
+
+  @After
+  public void tearDown() {
+    config.setInnerSequenceCompactionSelector(oldInnerSeqSelector);
+    config.setInnerCompactionCandidateFileNum(oldCandidateFileNum);
+    config.setMinCrossCompactionUnseqFileLevel(oldMinCrossCompactionUnseqFileLevel);
+  }
+
+  @Test
+  public void testInnerSpaceCompaction() throws IOException {
+    CompactionSimulator simulator =
+        new CompactionSimulator("root.sim", "0", new File("target/simulation"));
+    for (int i = 0; i < 25; i++) {
+      simulator.flush(true, MB, deviceTimes(i * 100L, i * 100L + 99));
+      simulator.compact();
+    }
+    CompactionSimulationStatistic.Snapshot snapshot = simulator.snapshot(25);
+    CompactionSimulationStatistic statistic = simulator.getStatistic();
+
+    // two tasks of level 0 after the 10th and the 20th flush, one task of level 1 after the 21st
+    Assert.assertEquals(3, statistic.getTaskNum(CompactionTaskType.INNER_SEQ));
+    Assert.assertEquals(40 * MB, statistic.getWrittenFileSize(CompactionTaskType.INNER_SEQ));
+    Assert.assertEquals(2.6, statistic.getWriteAmplification(), 0.0001);
+    Assert.assertEquals(6, snapshot.getSeqFileNum());
+    Assert.assertEquals(25 * MB, snapshot.getSeqFileSize());
+    Assert.assertEquals(6, snapshot.getMaxReadFileNum());
+  }
+
+  @Test
+  public void testCrossSpaceCompaction() throws IOException {
+    config.setMinCrossCompactionUnseqFileLevel(0);
+    CompactionSimulator simulator =
+        new CompactionSimulator("root.sim", "0", new File("target/simulation"));
+    for (int i = 0; i < 3; i++) {
+      simulator.flush(true, MB, deviceTimes(i * 100L, i * 100L + 99));
+    }
+    simulator.flush(false, MB, deviceTimes(150, 160));
+    Assert.assertEquals(1, simulator.compact());
+    CompactionSimulationStatistic.Snapshot snapshot = simulator.snapshot(4);
+    CompactionSimulationStatistic statistic = simulator.getStatistic();
+
+    Assert.assertEquals(1, statistic.getTaskNum(CompactionTaskType.CROSS));
+    Assert.assertEquals(2 * MB, statistic.getWrittenFileSize(CompactionTaskType.CROSS));
+    Assert.assertEquals(3, snapshot.getSeqFileNum());
+    Assert.assertEquals(0, snapshot.getUnseqFileNum());
+    Assert.assertEquals(4 * MB, snapshot.getSeqFileSize());
+  }
+
+  private static Map<IDeviceID, long[]> deviceTimes(long startTime, long endTime) {
+    return Collections.singletonMap(DEVICE, new long[] {startTime, endTime});
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.sketch;
+
+import org.apache.iotdb.db.storageengine.dataregion.memtable.WritableMemChunk;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+
+public class TsFileSketchTest {
+
+  private static final IDeviceID DEVICE_1 = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d1");
+  private static final IDeviceID DEVICE_2 = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d2");
+
+  private final File file =
+      new File(
+          TsFileNameGenerator.generateNewTsFilePath(TestConstant.BASE_OUTPUT_PATH, 1, 1, 1, 1));
+
+  @After
+  public void tearDown() throws IOException {
+    TsFileSketch.remove(file);
+  }
+
+  private static WritableMemChunk createMemChunk(long startTime, long endTime) {
+    WritableMemChunk memChunk = new WritableMemChunk(new MeasurementSchema("s1", TSDataType.INT64));
+    for (long time = startTime; time < endTime; time++) {
+      memChunk.putLongWithFlushCheck(time, time % 100);
+    }
+    return memChunk;
+  }
+
+  @SuppressWarnings("squid:S3740")
+  private static Statistics<? extends Serializable> createStatistics(long startTime, long endTime) {
+    Statistics<? extends Serializable> statistics = Statistics.getStatsByType(TSDataType.INT64);
+    for (long time = startTime; time < endTime; time++) {
+      statistics.update(time, time % 100);
+    }
+    return statistics;
+  }
+
+  @Test
+  public void testOverwrittenPointsAreSkipped() {
+    WritableMemChunk memChunk = createMemChunk(0, 10);
+    // overwrite the point at time 5
+    memChunk.putLongWithFlushCheck(5, 1000);
+    memChunk.sortTvListForFlush();
+
+    TsFileSketch tsFileSketch = new TsFileSketch();
+    tsFileSketch.addMemChunk(DEVICE_1, memChunk);
+
+    SeriesSketch sketch = tsFileSketch.getSketch(DEVICE_1, "s1");
+    Assert.assertEquals(10, sketch.getCount());
+    Assert.assertEquals(10, sketch.getDistinct().cardinality());
+    Assert.assertEquals(1000, sketch.getDigest().quantile(1), 0);
+    Assert.assertNull(tsFileSketch.getSketch(DEVICE_2, "s1"));
+  }
+
+  @Test
+  public void testSerializeAndMerge() throws IOException {
+    TsFileSketch first = new TsFileSketch();
+    WritableMemChunk memChunk = createMemChunk(0, 1000);
+    memChunk.sortTvListForFlush();
+    first.addMemChunk(DEVICE_1, memChunk);
+    memChunk = createMemChunk(0, 1000);
+    memChunk.sortTvListForFlush();
+    first.addMemChunk(DEVICE_2, memChunk);
+    first.serialize(file);
+
+    TsFileSketch second = new TsFileSketch();
+    memChunk = createMemChunk(1000, 2000);
+    memChunk.sortTvListForFlush();
+    second.addMemChunk(DEVICE_1, memChunk);
+
+    TsFileSketch merged = new TsFileSketch();
+    merged.merge(TsFileSketch.deserialize(file), DEVICE_1::equals);
+    merged.merge(second, DEVICE_1::equals);
+
+    Assert.assertNull(merged.getSketch(DEVICE_2, "s1"));
+    SeriesSketch sketch = merged.getSketch(DEVICE_1, "s1");
+    Assert.assertTrue(sketch.isConsistentWith(createStatistics(0, 2000)));
+    // points deleted or overwritten by compaction make the merged sketch unusable
+    Assert.assertFalse(sketch.isConsistentWith(createStatistics(0, 1999)));
+    Assert.assertEquals(100, sketch.getDistinct().cardinality(), 3);
+    Assert.assertEquals(50, sketch.getDigest().quantile(0.5), 2);
+
+    // the sources are not changed by the merge
+    Assert.assertEquals(1000, second.getSketch(DEVICE_1, "s1").getCount());
+  }
+
+  @Test
+  public void testEstimatedSizeOfSidecar() throws IOException {
+    Assert.assertEquals(0, TsFileSketch.estimateSizeOfSidecar(file));
+
+    TsFileSketch tsFileSketch = new TsFileSketch();
+    WritableMemChunk memChunk = createMemChunk(0, 1000);
+    memChunk.sortTvListForFlush();
+    tsFileSketch.addMemChunk(DEVICE_1, memChunk);
+    memChunk = createMemChunk(0, 1000);
+    memChunk.sortTvListForFlush();
+    tsFileSketch.addMemChunk(DEVICE_2, memChunk);
+    tsFileSketch.serialize(file);
+
+    // the memory charged to compaction before reading the sidecar covers what it takes
+    long estimatedSize = TsFileSketch.estimateSizeOfSidecar(file);
+    Assert.assertTrue(estimatedSize >= TsFileSketch.deserialize(file).getEstimatedSize());
+    Assert.assertTrue(estimatedSize >= tsFileSketch.getEstimatedSize());
+  }
+}
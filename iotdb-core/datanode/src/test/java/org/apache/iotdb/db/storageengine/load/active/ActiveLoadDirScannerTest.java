@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.load.active;
+
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ActiveLoadDirScannerTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final File baseDir = new File("target" + File.separator + "active-load-scanner");
+  private final File listeningDir = new File(baseDir, "listening");
+  private final File pipeDir = new File(baseDir, "pipe");
+  private final File stagingDir = new File(baseDir, "staging");
+
+  private final LinkedBlockingQueue<String> triggeredFiles = new LinkedBlockingQueue<>();
+
+  private boolean originalListeningEnable;
+  private String[] originalListeningDirs;
+  private String originalPipeDir;
+  private boolean originalWatchEnable;
+
+  private ActiveLoadDirScanner scanner;
+
+  @Before
+  public void setUp() throws IOException {
+    FileUtils.forceMkdir(listeningDir);
+    FileUtils.forceMkdir(pipeDir);
+    FileUtils.forceMkdir(stagingDir);
+
+    originalListeningEnable = CONFIG.getLoadActiveListeningEnable();
+    originalListeningDirs = CONFIG.getLoadActiveListeningDirs();
+    originalPipeDir = CONFIG.getLoadActiveListeningPipeDir();
+    originalWatchEnable = CONFIG.isLoadActiveListeningWatchEnable();
+    CONFIG.setLoadActiveListeningEnable(true);
+    CONFIG.setLoadActiveListeningDirs(new String[] {listeningDir.getAbsolutePath()});
+    CONFIG.setLoadActiveListeningPipeDir(pipeDir.getAbsolutePath());
+    CONFIG.setLoadActiveListeningWatchEnable(true);
+
+    scanner =
+        new ActiveLoadDirScanner(
+            new ActiveLoadTsFileLoader() {
+              @Override
+              public void tryTriggerTsFileLoad(String absolutePath, boolean isGeneratedByPipe) {
+                triggeredFiles.add(absolutePath);
+              }
+            });
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    scanner.stop();
+    CONFIG.setLoadActiveListeningEnable(originalListeningEnable);
+    CONFIG.setLoadActiveListeningDirs(originalListeningDirs);
+    CONFIG.setLoadActiveListeningPipeDir(originalPipeDir);
+    CONFIG.setLoadActiveListeningWatchEnable(originalWatchEnable);
+    FileUtils.deleteDirectory(baseDir);
+  }
+
+  @Test
+  public void testWatcherLoadsNewFiles() throws Exception {
+    // the first scanning starts watching the listening dir
+    scanner.scanSafely();
+
+    final File tsFile = moveTsFileIntoListeningDir("1-1-0-0.tsfile");
+    Assert.assertEquals(tsFile.getAbsolutePath(), triggeredFiles.poll(30, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testWatcherIsClosedOnStop() throws Exception {
+    scanner.scanSafely();
+    Assert.assertTrue(isWatcherThreadAlive());
+
+    scanner.stop();
+    final long deadline = System.currentTimeMillis() + 10_000;
+    while (isWatcherThreadAlive()) {
+      Assert.assertTrue(System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+
+    moveTsFileIntoListeningDir("2-2-0-0.tsfile");
+    Assert.assertNull(triggeredFiles.poll(500, TimeUnit.MILLISECONDS));
+
+    // the watcher is started again by the next scanning, which also finds the missed file
+    scanner.scanSafely();
+    Assert.assertTrue(isWatcherThreadAlive());
+    Assert.assertNotNull(triggeredFiles.poll(10, TimeUnit.SECONDS));
+  }
+
+  private File moveTsFileIntoListeningDir(final String fileName) throws IOException {
+    final File stagingFile = new File(stagingDir, fileName);
+    final TsFileIOWriter writer = new TsFileIOWriter(stagingFile);
+    writer.endFile();
+    final File tsFile = new File(listeningDir, fileName);
+    // the watcher sees a completed file at once
+    Files.move(stagingFile.toPath(), tsFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    return tsFile;
+  }
+
+  private static boolean isWatcherThreadAlive() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .anyMatch(
+            thread ->
+                thread.isAlive()
+                    && thread.getName().contains(ThreadName.ACTIVE_LOAD_DIR_WATCHER.name()));
+  }
+}
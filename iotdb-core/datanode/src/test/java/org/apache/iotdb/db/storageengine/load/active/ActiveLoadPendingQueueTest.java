@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.load.active;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.utils.Pair;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ActiveLoadPendingQueueTest {
+
+  private final File dir1 =
+      new File("target" + File.separator + "active-load" + File.separator + "1");
+  private final File dir2 =
+      new File("target" + File.separator + "active-load" + File.separator + "2");
+
+  @Before
+  public void setUp() throws IOException {
+    FileUtils.forceMkdir(dir1);
+    FileUtils.forceMkdir(dir2);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(dir1.getParentFile());
+  }
+
+  @Test
+  public void testDequeueBatchFromPending() throws IOException {
+    final ActiveLoadPendingQueue queue = new ActiveLoadPendingQueue();
+    final String small1 = createFile(dir1, "1-1-0-0.tsfile", 10);
+    final String large = createFile(dir1, "2-2-0-0.tsfile", 100);
+    final String otherDir = createFile(dir2, "3-3-0-0.tsfile", 10);
+    final String pipe = createFile(dir1, "4-4-0-0.tsfile", 10);
+    final String small2 = createFile(dir1, "5-5-0-0.tsfile", 10);
+    final String small3 = createFile(dir1, "6-6-0-0.tsfile", 10);
+    Assert.assertTrue(queue.enqueue(small1, false));
+    Assert.assertTrue(queue.enqueue(large, false));
+    Assert.assertTrue(queue.enqueue(otherDir, false));
+    Assert.assertTrue(queue.enqueue(pipe, true));
+    Assert.assertTrue(queue.enqueue(small2, false));
+    Assert.assertTrue(queue.enqueue(small3, false));
+
+    // only the small files in the same dir not generated by pipe are batched, at most 2 files
+    List<String> batch = getFilePaths(queue.dequeueBatchFromPending(2, 50));
+    Assert.assertEquals(2, batch.size());
+    Assert.assertEquals(small1, batch.get(0));
+    Assert.assertEquals(small2, batch.get(1));
+    Assert.assertTrue(queue.isFilePendingOrLoading(small2));
+
+    // a large file is loaded alone
+    batch = getFilePaths(queue.dequeueBatchFromPending(2, 50));
+    Assert.assertEquals(1, batch.size());
+    Assert.assertEquals(large, batch.get(0));
+
+    Assert.assertEquals(otherDir, queue.dequeueBatchFromPending(2, 50).get(0).getLeft());
+    Assert.assertEquals(pipe, queue.dequeueBatchFromPending(2, 50).get(0).getLeft());
+    Assert.assertEquals(small3, queue.dequeueBatchFromPending(2, 50).get(0).getLeft());
+    Assert.assertTrue(queue.dequeueBatchFromPending(2, 50).isEmpty());
+
+    for (final String file : new String[] {small1, large, otherDir, pipe, small2, small3}) {
+      queue.removeFromLoading(file);
+    }
+    Assert.assertTrue(queue.isEmpty());
+  }
+
+  private static String createFile(final File dir, final String name, final int size)
+      throws IOException {
+    final File file = new File(dir, name);
+    Files.write(file.toPath(), new byte[size]);
+    return file.getAbsolutePath();
+  }
+
+  private static List<String> getFilePaths(final List<Pair<String, Boolean>> filePairs) {
+    return filePairs.stream().map(Pair::getLeft).collect(Collectors.toList());
+  }
+}
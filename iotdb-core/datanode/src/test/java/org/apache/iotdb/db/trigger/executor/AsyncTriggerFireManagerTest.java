@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.trigger.executor;
+
+import org.apache.iotdb.db.trigger.executor.AsyncTriggerFireManager.FullQueuePolicy;
+import org.apache.iotdb.trigger.api.enums.FailureStrategy;
+import org.apache.iotdb.trigger.api.enums.TriggerEvent;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AsyncTriggerFireManagerTest {
+
+  private static final String TRIGGER_NAME = "trigger";
+
+  private final LinkedBlockingQueue<List<Tablet>> firedBatches = new LinkedBlockingQueue<>();
+  private final CountDownLatch fireReleased = new CountDownLatch(1);
+
+  private AsyncTriggerFireManager manager;
+
+  @After
+  public void tearDown() {
+    fireReleased.countDown();
+    if (manager != null) {
+      manager.shutdown();
+    }
+  }
+
+  private static Tablet tablet(long time) {
+    List<IMeasurementSchema> schemas =
+        Collections.singletonList(new MeasurementSchema("s1", TSDataType.INT64));
+    Tablet tablet = new Tablet("root.sg.d1", schemas, 1);
+    tablet.addTimestamp(0, time);
+    tablet.addValue("s1", 0, time);
+    return tablet;
+  }
+
+  private AsyncTriggerFireManager newManager(
+      int maxPendingRows,
+      int batchSize,
+      FullQueuePolicy fullQueuePolicy,
+      FailureStrategy failureStrategy,
+      AsyncTriggerFireManager.TriggerBatchFirer firer) {
+    manager =
+        new AsyncTriggerFireManager(
+            maxPendingRows, batchSize, fullQueuePolicy, 2, firer, name -> failureStrategy);
+    return manager;
+  }
+
+  private TriggerFireResult recordFire(
+      String triggerName, List<Tablet> tablets, TriggerEvent event) {
+    firedBatches.add(tablets);
+    return TriggerFireResult.SUCCESS;
+  }
+
+  private TriggerFireResult blockingFire(
+      String triggerName, List<Tablet> tablets, TriggerEvent event) {
+    try {
+      fireReleased.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return recordFire(triggerName, tablets, event);
+  }
+
+  private void awaitFiredRows(int rowNum) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (manager.getPendingRows() > 0 || firedRowNum() < rowNum) {
+      Assert.assertTrue(System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private int firedRowNum() {
+    int rowNum = 0;
+    for (List<Tablet> batch : firedBatches) {
+      rowNum += batch.size();
+    }
+    return rowNum;
+  }
+
+  @Test
+  public void testFiringOrder() throws Exception {
+    int batchSize = 8;
+    newManager(
+        1000, batchSize, FullQueuePolicy.BLOCK, FailureStrategy.OPTIMISTIC, this::recordFire);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(
+          TriggerFireResult.SUCCESS,
+          manager.submit(TRIGGER_NAME, tablet(i), TriggerEvent.AFTER_INSERT));
+    }
+    awaitFiredRows(100);
+
+    long expectedTime = 0;
+    for (List<Tablet> batch : firedBatches) {
+      Assert.assertTrue(batch.size() <= batchSize);
+      for (Tablet tablet : batch) {
+        Assert.assertEquals(expectedTime++, tablet.getTimestamp(0));
+      }
+    }
+    Assert.assertEquals(100, expectedTime);
+  }
+
+  @Test
+  public void testDiscardWhenQueueFull() throws Exception {
+    testDiscardWhenQueueFull(FailureStrategy.OPTIMISTIC, TriggerFireResult.FAILED_NO_TERMINATION);
+  }
+
+  @Test
+  public void testDiscardWhenQueueFullWithPessimisticTrigger() throws Exception {
+    testDiscardWhenQueueFull(FailureStrategy.PESSIMISTIC, TriggerFireResult.TERMINATION);
+  }
+
+  private void testDiscardWhenQueueFull(
+      FailureStrategy failureStrategy, TriggerFireResult expectedResult) throws Exception {
+    newManager(2, 1, FullQueuePolicy.DISCARD, failureStrategy, this::blockingFire);
+    Assert.assertEquals(
+        TriggerFireResult.SUCCESS,
+        manager.submit(TRIGGER_NAME, tablet(0), TriggerEvent.AFTER_INSERT));
+    Assert.assertEquals(
+        TriggerFireResult.SUCCESS,
+        manager.submit(TRIGGER_NAME, tablet(1), TriggerEvent.AFTER_INSERT));
+    // the first tablet is being fired and the second one is queued
+    Assert.assertEquals(
+        expectedResult, manager.submit(TRIGGER_NAME, tablet(2), TriggerEvent.AFTER_INSERT));
+
+    fireReleased.countDown();
+    awaitFiredRows(2);
+    Assert.assertEquals(2, firedRowNum());
+  }
+
+  @Test
+  public void testBlockWhenQueueFull() throws Exception {
+    newManager(2, 1, FullQueuePolicy.BLOCK, FailureStrategy.OPTIMISTIC, this::blockingFire);
+    manager.submit(TRIGGER_NAME, tablet(0), TriggerEvent.AFTER_INSERT);
+    manager.submit(TRIGGER_NAME, tablet(1), TriggerEvent.AFTER_INSERT);
+
+    ExecutorService writer = Executors.newSingleThreadExecutor();
+    try {
+      Future<TriggerFireResult> blocked =
+          writer.submit(() -> manager.submit(TRIGGER_NAME, tablet(2), TriggerEvent.AFTER_INSERT));
+      try {
+        blocked.get(200, TimeUnit.MILLISECONDS);
+        Assert.fail("the insertion should wait for the trigger");
+      } catch (TimeoutException e) {
+        // expected
+      }
+
+      fireReleased.countDown();
+      Assert.assertEquals(TriggerFireResult.SUCCESS, blocked.get(10, TimeUnit.SECONDS));
+      awaitFiredRows(3);
+      Assert.assertEquals(3, firedRowNum());
+    } finally {
+      writer.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testFailureOfOptimisticTrigger() throws Exception {
+    newManager(
+        1000,
+        1,
+        FullQueuePolicy.BLOCK,
+        FailureStrategy.OPTIMISTIC,
+        (triggerName, tablets, event) -> {
+          firedBatches.add(tablets);
+          return TriggerFireResult.FAILED_NO_TERMINATION;
+        });
+    Assert.assertEquals(
+        TriggerFireResult.SUCCESS,
+        manager.submit(TRIGGER_NAME, tablet(0), TriggerEvent.AFTER_INSERT));
+    awaitFiredRows(1);
+    // the failure is only logged and counted
+    Assert.assertEquals(
+        TriggerFireResult.SUCCESS,
+        manager.submit(TRIGGER_NAME, tablet(1), TriggerEvent.AFTER_INSERT));
+  }
+
+  @Test
+  public void testFailureOfPessimisticTrigger() throws Exception {
+    AtomicBoolean isFirstFiring = new AtomicBoolean(true);
+    newManager(
+        1000,
+        1,
+        FullQueuePolicy.BLOCK,
+        FailureStrategy.PESSIMISTIC,
+        (triggerName, tablets, event) -> {
+          blockingFire(triggerName, tablets, event);
+          return isFirstFiring.getAndSet(false)
+              ? TriggerFireResult.TERMINATION
+              : TriggerFireResult.SUCCESS;
+        });
+    Assert.assertEquals(
+        TriggerFireResult.SUCCESS,
+        manager.submit(TRIGGER_NAME, tablet(0), TriggerEvent.AFTER_INSERT));
+    fireReleased.countDown();
+    awaitFiredRows(1);
+    // the failed firing is reported to the next insertion, only once
+    Assert.assertEquals(
+        TriggerFireResult.TERMINATION,
+        manager.submit(TRIGGER_NAME, tablet(1), TriggerEvent.AFTER_INSERT));
+    awaitFiredRows(2);
+    Assert.assertEquals(
+        TriggerFireResult.SUCCESS,
+        manager.submit(TRIGGER_NAME, tablet(2), TriggerEvent.AFTER_INSERT));
+    awaitFiredRows(3);
+  }
+}
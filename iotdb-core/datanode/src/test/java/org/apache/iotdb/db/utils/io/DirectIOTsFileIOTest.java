@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.io;
+
+import org.apache.iotdb.db.service.metrics.DirectIOMetrics;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+public class DirectIOTsFileIOTest {
+
+  private static final int BLOCK_SIZE = 512;
+
+  private final File file = new File("target", "direct_io_test.tsfile");
+  private final Random random = new Random(0);
+
+  @Before
+  public void setUp() throws IOException {
+    Files.deleteIfExists(file.toPath());
+    Files.createDirectories(file.getParentFile().toPath());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Test
+  public void testWriteTruncateAndAppend() throws IOException {
+    byte[] data = new byte[10000];
+    random.nextBytes(data);
+
+    DirectIOTsFileOutput output = openOutput();
+    output.write(data[0]);
+    output.write(Arrays.copyOfRange(data, 1, 3000));
+    output.write(data, 3000, 4000);
+    Assert.assertEquals(7000, output.getPosition());
+    // truncate to a position in a block already written to the file
+    output.truncate(1000);
+    Assert.assertEquals(1000, output.getPosition());
+    output.write(data, 1000, 5000);
+    output.force();
+    Assert.assertEquals(6000, file.length());
+    output.write(data, 6000, 500);
+    output.flush();
+    Assert.assertArrayEquals(Arrays.copyOf(data, 6500), Files.readAllBytes(file.toPath()));
+    output.write(data, 6500, 500);
+    output.close();
+    Assert.assertArrayEquals(Arrays.copyOf(data, 7000), Files.readAllBytes(file.toPath()));
+
+    // append to the incomplete last block of an existing file
+    output = openOutput();
+    Assert.assertEquals(7000, output.getPosition());
+    output.write(data, 7000, 3000);
+    output.close();
+    Assert.assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+  }
+
+  @Test
+  public void testRead() throws IOException {
+    byte[] data = new byte[10000];
+    random.nextBytes(data);
+    Files.write(file.toPath(), data);
+
+    DirectIOTsFileInput input =
+        new DirectIOTsFileInput(
+            file.getPath(),
+            FileChannel.open(file.toPath(), StandardOpenOption.READ),
+            BLOCK_SIZE,
+            4 * BLOCK_SIZE,
+            DirectIOMetrics.COMPACTION);
+    try {
+      Assert.assertEquals(10000, input.size());
+      for (int i = 0; i < 100; i++) {
+        int position = random.nextInt(10000);
+        int length = random.nextInt(2000) + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        int readSize = input.read(buffer, position);
+        Assert.assertEquals(Math.min(length, 10000 - position), readSize);
+        Assert.assertArrayEquals(
+            Arrays.copyOfRange(data, position, position + readSize),
+            Arrays.copyOf(buffer.array(), readSize));
+      }
+
+      input.position(9990);
+      ByteBuffer buffer = ByteBuffer.allocate(20);
+      Assert.assertEquals(10, input.read(buffer));
+      Assert.assertEquals(10000, input.position());
+      Assert.assertEquals(-1, input.read(ByteBuffer.allocate(1)));
+
+      input.position(0);
+      byte[] bytes = new byte[100];
+      Assert.assertEquals(100, input.wrapAsInputStream().read(bytes));
+      Assert.assertArrayEquals(Arrays.copyOf(data, 100), bytes);
+    } finally {
+      input.close();
+    }
+  }
+
+  private DirectIOTsFileOutput openOutput() throws IOException {
+    return new DirectIOTsFileOutput(
+        FileChannel.open(
+            file.toPath(),
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE),
+        BLOCK_SIZE,
+        4 * BLOCK_SIZE,
+        DirectIOMetrics.COMPACTION);
+  }
+}
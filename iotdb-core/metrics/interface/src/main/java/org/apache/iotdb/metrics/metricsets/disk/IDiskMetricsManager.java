@@ -63,6 +63,14 @@ public interface IDiskMetricsManager {
     return Collections.emptyMap();
   }
 
+  /**
+   * Read the accumulated time in ms that each disk has spent doing IO, without updating the
+   * collected metrics, so that a caller can compute the utilization over intervals of its own.
+   */
+  default Map<String, Long> readIoBusyTimeForDisk() {
+    return Collections.emptyMap();
+  }
+
   default Map<String, Double> getAvgReadCostTimeOfEachOpsForDisk() {
     return Collections.emptyMap();
   }
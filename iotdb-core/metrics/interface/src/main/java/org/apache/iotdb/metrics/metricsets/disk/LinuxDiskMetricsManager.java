@@ -193,6 +193,27 @@ public class LinuxDiskMetricsManager implements IDiskMetricsManager {
     return utilsMap;
   }
 
+  @Override
+  public Map<String, Long> readIoBusyTimeForDisk() {
+    Map<String, Long> ioBusyTimeMap = new HashMap<>(diskIdSet.size());
+    File diskStatsFile = new File(DISK_STATUS_FILE_PATH);
+    if (!diskStatsFile.exists()) {
+      return ioBusyTimeMap;
+    }
+    try (Scanner diskStatsScanner = new Scanner(Files.newInputStream(diskStatsFile.toPath()))) {
+      while (diskStatsScanner.hasNextLine()) {
+        String[] diskInfo = diskStatsScanner.nextLine().split("\\s+");
+        String diskId = diskInfo[DISK_ID_OFFSET];
+        if (diskIdSet.contains(diskId)) {
+          ioBusyTimeMap.put(diskId, Long.parseLong(diskInfo[DISK_IO_TOTAL_TIME_OFFSET]));
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.error("Meets error while reading disk io busy time", e);
+    }
+    return ioBusyTimeMap;
+  }
+
   @Override
   public Map<String, Double> getAvgReadCostTimeOfEachOpsForDisk() {
     Map<String, Double> avgReadTimeCostMap = new HashMap<>(diskIdSet.size());
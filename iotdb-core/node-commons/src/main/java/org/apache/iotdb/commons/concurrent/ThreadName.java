@@ -34,6 +34,7 @@ public enum ThreadName {
   FRAGMENT_INSTANCE_MANAGEMENT("Fragment-Instance-Management"),
   FRAGMENT_INSTANCE_NOTIFICATION("Fragment-Instance-Notification"),
   DRIVER_TASK_SCHEDULER_NOTIFICATION("Driver-Task-Scheduler-Notification"),
+  DATA_PARTITION_PRE_ALLOCATE("Data-Partition-Pre-Allocate"),
   // -------------------------- MPP --------------------------
   MPP_COORDINATOR_SCHEDULED_EXECUTOR("MPP-Coordinator-Scheduled-Executor"),
   MPP_DATA_EXCHANGE_TASK_EXECUTOR("MPP-Data-Exchange-Task-Executors"),
@@ -49,6 +50,7 @@ public enum ThreadName {
   COMPACTION_WORKER("Compaction-Worker"),
   COMPACTION_SUB_TASK("Compaction-Sub-Task"),
   COMPACTION_SCHEDULE("Compaction-Schedule"),
+  COMPACTION_THROTTLE("Compaction-Throttle"),
   // -------------------------- Wal --------------------------
   WAL_SERIALIZE("WAL-Serialize"),
   WAL_SYNC("WAL-Sync"),
@@ -72,6 +74,7 @@ public enum ThreadName {
   // -------------------------- ClientService --------------------------
   CLIENT_RPC_SERVICE("ClientRPC-Service"),
   CLIENT_RPC_PROCESSOR("ClientRPC-Processor"),
+  MQTT_INSERT_BATCH_FLUSHER("MQTT-Insert-Batch-Flusher"),
   // -------------------------- ConfigNode-RPC --------------------------
   CONFIGNODE_RPC_SERVICE("ConfigNodeRPC-Service"),
   CONFIGNODE_RPC_PROCESSOR("ConfigNodeRPC-Processor"),
@@ -136,6 +139,7 @@ public enum ThreadName {
   PIPE_CONSENSUS_EXECUTOR_POOL("Pipe-Consensus-Executor-Pool"),
   PIPE_CONFIGNODE_EXECUTOR_POOL("Pipe-ConfigNode-Executor-Pool"),
   PIPE_SUBTASK_CALLBACK_EXECUTOR_POOL("Pipe-SubTask-Callback-Executor-Pool"),
+  PIPE_TSFILE_PARSER_EXECUTOR_POOL("Pipe-TsFile-Parser-Executor-Pool"),
   PIPE_RUNTIME_META_SYNCER("Pipe-Runtime-Meta-Syncer"),
   PIPE_RUNTIME_HEARTBEAT("Pipe-Runtime-Heartbeat"),
   PIPE_RUNTIME_PROCEDURE_SUBMITTER("Pipe-Runtime-Procedure-Submitter"),
@@ -145,10 +149,13 @@ public enum ThreadName {
   PIPE_ASYNC_CONNECTOR_CLIENT_POOL("Pipe-Async-Connector-Client-Pool"),
   PIPE_RECEIVER_AIR_GAP_AGENT("Pipe-Receiver-Air-Gap-Agent"),
   PIPE_AIR_GAP_RECEIVER("Pipe-Air-Gap-Receiver"),
+  PIPE_RECEIVER_FILE_STREAM_AGENT("Pipe-Receiver-File-Stream-Agent"),
+  PIPE_FILE_STREAM_RECEIVER("Pipe-File-Stream-Receiver"),
   SUBSCRIPTION_EXECUTOR_POOL("Subscription-Executor-Pool"),
   SUBSCRIPTION_RUNTIME_META_SYNCER("Subscription-Runtime-Meta-Syncer"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
   STATEFUL_TRIGGER_INFORMATION_UPDATER("Stateful-Trigger-Information-Updater"),
+  TRIGGER_ASYNC_FIRE_EXECUTOR("Trigger-Async-Fire-Executor"),
   // -------------------------- JVM --------------------------
   // NOTICE: The thread name of jvm cannot be edited here!
   // We list the thread name here just for distinguishing what module the thread belongs to.
@@ -179,7 +186,9 @@ public enum ThreadName {
   // -------------------------- Other --------------------------
   ACTIVE_LOAD_TSFILE_LOADER("Active-Load-TsFile-Loader"),
   ACTIVE_LOAD_DIR_SCANNER("Active-Load-Dir-Scanner"),
+  ACTIVE_LOAD_DIR_WATCHER("Active-Load-Dir-Watcher"),
   ACTIVE_LOAD_METRICS_COLLECTOR("Active-Load-Metrics-Collector"),
+  LOAD_TSFILE_SPLITTER("Load-TsFile-Splitter"),
   SETTLE("Settle"),
   INFLUXDB_RPC_SERVICE("InfluxdbRPC-Service"),
   INFLUXDB_RPC_PROCESSOR("InfluxdbRPC-Processor"),
@@ -206,7 +215,8 @@ public enum ThreadName {
               TIMED_QUERY_SQL_COUNT,
               FRAGMENT_INSTANCE_MANAGEMENT,
               FRAGMENT_INSTANCE_NOTIFICATION,
-              DRIVER_TASK_SCHEDULER_NOTIFICATION));
+              DRIVER_TASK_SCHEDULER_NOTIFICATION,
+              DATA_PARTITION_PRE_ALLOCATE));
   private static final Set<ThreadName> mppThreadNames =
       new HashSet<>(
           Arrays.asList(
@@ -221,7 +231,9 @@ public enum ThreadName {
               MPP_COORDINATOR_WRITE_EXECUTOR,
               ASYNC_DATANODE_MPP_DATA_EXCHANGE_CLIENT_POOL));
   private static final Set<ThreadName> compactionThreadNames =
-      new HashSet<>(Arrays.asList(COMPACTION_WORKER, COMPACTION_SUB_TASK, COMPACTION_SCHEDULE));
+      new HashSet<>(
+          Arrays.asList(
+              COMPACTION_WORKER, COMPACTION_SUB_TASK, COMPACTION_SCHEDULE, COMPACTION_THROTTLE));
 
   private static final Set<ThreadName> walThreadNames =
       new HashSet<>(
@@ -247,7 +259,8 @@ public enum ThreadName {
               GENERAL_REGION_ATTRIBUTE_SECURITY_SERVICE));
 
   private static final Set<ThreadName> clientServiceThreadNames =
-      new HashSet<>(Arrays.asList(CLIENT_RPC_SERVICE, CLIENT_RPC_PROCESSOR));
+      new HashSet<>(
+          Arrays.asList(CLIENT_RPC_SERVICE, CLIENT_RPC_PROCESSOR, MQTT_INSERT_BATCH_FLUSHER));
 
   private static final Set<ThreadName> iotConsensusThreadNames =
       new HashSet<>(
@@ -292,6 +305,7 @@ public enum ThreadName {
               PIPE_CONSENSUS_EXECUTOR_POOL,
               PIPE_CONFIGNODE_EXECUTOR_POOL,
               PIPE_SUBTASK_CALLBACK_EXECUTOR_POOL,
+              PIPE_TSFILE_PARSER_EXECUTOR_POOL,
               PIPE_RUNTIME_META_SYNCER,
               PIPE_RUNTIME_HEARTBEAT,
               PIPE_RUNTIME_PROCEDURE_SUBMITTER,
@@ -300,10 +314,13 @@ public enum ThreadName {
               PIPE_ASYNC_CONNECTOR_CLIENT_POOL,
               PIPE_RECEIVER_AIR_GAP_AGENT,
               PIPE_AIR_GAP_RECEIVER,
+              PIPE_RECEIVER_FILE_STREAM_AGENT,
+              PIPE_FILE_STREAM_RECEIVER,
               SUBSCRIPTION_EXECUTOR_POOL,
               SUBSCRIPTION_RUNTIME_META_SYNCER,
               WINDOW_EVALUATION_SERVICE,
-              STATEFUL_TRIGGER_INFORMATION_UPDATER));
+              STATEFUL_TRIGGER_INFORMATION_UPDATER,
+              TRIGGER_ASYNC_FIRE_EXECUTOR));
 
   private static final Set<ThreadName> jvmThreadNames =
       new HashSet<>(
@@ -373,7 +390,9 @@ public enum ThreadName {
           Arrays.asList(
               ACTIVE_LOAD_TSFILE_LOADER,
               ACTIVE_LOAD_DIR_SCANNER,
+              ACTIVE_LOAD_DIR_WATCHER,
               ACTIVE_LOAD_METRICS_COLLECTOR,
+              LOAD_TSFILE_SPLITTER,
               SETTLE,
               INFLUXDB_RPC_SERVICE,
               INFLUXDB_RPC_PROCESSOR,
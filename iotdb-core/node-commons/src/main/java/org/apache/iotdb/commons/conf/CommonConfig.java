@@ -248,6 +248,10 @@ public class CommonConfig {
   private boolean pipeAirGapReceiverEnabled = false;
   private int pipeAirGapReceiverPort = 9780;
 
+  private boolean pipeFileStreamReceiverEnabled = false;
+  private int pipeFileStreamReceiverPort = 9781;
+  private int pipeFileStreamReceiverMaxThreadNum = 5;
+
   private int pipeMaxAllowedHistoricalTsFilePerDataRegion = 100;
   private int pipeMaxAllowedPendingTsFileEpochPerDataRegion = 2;
   private int pipeMaxAllowedPinnedMemTableCount = 50;
@@ -277,6 +281,7 @@ public class CommonConfig {
   private PipeRemainingTimeRateAverageTime pipeRemainingTimeCommitRateAverageTime =
       PipeRemainingTimeRateAverageTime.MEAN;
   private double pipeTsFileScanParsingThreshold = 0.05;
+  private int pipeTsFileScanParsingParallelism = 1;
 
   private long twoStageAggregateMaxCombinerLiveTimeInMs = 8 * 60 * 1000L; // 8 minutes
   private long twoStageAggregateDataRegionInfoCacheTimeInMs = 3 * 60 * 1000L; // 3 minutes
@@ -981,6 +986,30 @@ public class CommonConfig {
     return pipeAirGapReceiverPort;
   }
 
+  public void setPipeFileStreamReceiverEnabled(boolean pipeFileStreamReceiverEnabled) {
+    this.pipeFileStreamReceiverEnabled = pipeFileStreamReceiverEnabled;
+  }
+
+  public boolean getPipeFileStreamReceiverEnabled() {
+    return pipeFileStreamReceiverEnabled;
+  }
+
+  public void setPipeFileStreamReceiverPort(int pipeFileStreamReceiverPort) {
+    this.pipeFileStreamReceiverPort = pipeFileStreamReceiverPort;
+  }
+
+  public int getPipeFileStreamReceiverPort() {
+    return pipeFileStreamReceiverPort;
+  }
+
+  public void setPipeFileStreamReceiverMaxThreadNum(int pipeFileStreamReceiverMaxThreadNum) {
+    this.pipeFileStreamReceiverMaxThreadNum = pipeFileStreamReceiverMaxThreadNum;
+  }
+
+  public int getPipeFileStreamReceiverMaxThreadNum() {
+    return pipeFileStreamReceiverMaxThreadNum;
+  }
+
   public int getPipeMaxAllowedHistoricalTsFilePerDataRegion() {
     return pipeMaxAllowedHistoricalTsFilePerDataRegion;
   }
@@ -1201,6 +1230,14 @@ public class CommonConfig {
     this.pipeTsFileScanParsingThreshold = pipeTsFileScanParsingThreshold;
   }
 
+  public int getPipeTsFileScanParsingParallelism() {
+    return pipeTsFileScanParsingParallelism;
+  }
+
+  public void setPipeTsFileScanParsingParallelism(int pipeTsFileScanParsingParallelism) {
+    this.pipeTsFileScanParsingParallelism = pipeTsFileScanParsingParallelism;
+  }
+
   public double getPipeAllSinksRateLimitBytesPerSecond() {
     return pipeAllSinksRateLimitBytesPerSecond;
   }
@@ -474,6 +474,22 @@ public class CommonDescriptor {
                 "pipe_air_gap_receiver_port",
                 Integer.toString(config.getPipeAirGapReceiverPort()))));
 
+    config.setPipeFileStreamReceiverEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "pipe_file_stream_receiver_enabled",
+                Boolean.toString(config.getPipeFileStreamReceiverEnabled()))));
+    config.setPipeFileStreamReceiverPort(
+        Integer.parseInt(
+            properties.getProperty(
+                "pipe_file_stream_receiver_port",
+                Integer.toString(config.getPipeFileStreamReceiverPort()))));
+    config.setPipeFileStreamReceiverMaxThreadNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "pipe_file_stream_receiver_max_thread_num",
+                Integer.toString(config.getPipeFileStreamReceiverMaxThreadNum()))));
+
     config.setPipeMaxAllowedHistoricalTsFilePerDataRegion(
         Integer.parseInt(
             properties.getProperty(
@@ -609,6 +625,11 @@ public class CommonDescriptor {
             properties.getProperty(
                 "pipe_tsfile_scan_parsing_threshold",
                 String.valueOf(config.getPipeTsFileScanParsingThreshold()))));
+    config.setPipeTsFileScanParsingParallelism(
+        Integer.parseInt(
+            properties.getProperty(
+                "pipe_tsfile_scan_parsing_parallelism",
+                String.valueOf(config.getPipeTsFileScanParsingParallelism()))));
 
     config.setTwoStageAggregateMaxCombinerLiveTimeInMs(
         Long.parseLong(
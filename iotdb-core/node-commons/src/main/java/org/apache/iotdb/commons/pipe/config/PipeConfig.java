@@ -188,6 +188,10 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeTsFileScanParsingThreshold();
   }
 
+  public int getPipeTsFileScanParsingParallelism() {
+    return COMMON_CONFIG.getPipeTsFileScanParsingParallelism();
+  }
+
   /////////////////////////////// Meta Consistency ///////////////////////////////
 
   public boolean isSeperatedPipeHeartbeatEnabled() {
@@ -224,6 +228,20 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeAirGapReceiverPort();
   }
 
+  /////////////////////////////// File Stream Receiver ///////////////////////////////
+
+  public boolean getPipeFileStreamReceiverEnabled() {
+    return COMMON_CONFIG.getPipeFileStreamReceiverEnabled();
+  }
+
+  public int getPipeFileStreamReceiverPort() {
+    return COMMON_CONFIG.getPipeFileStreamReceiverPort();
+  }
+
+  public int getPipeFileStreamReceiverMaxThreadNum() {
+    return COMMON_CONFIG.getPipeFileStreamReceiverMaxThreadNum();
+  }
+
   /////////////////////////////// Hybrid Mode ///////////////////////////////
 
   public int getPipeMaxAllowedHistoricalTsFilePerDataRegion() {
@@ -405,6 +423,7 @@ public class PipeConfig {
     LOGGER.info(
         "PipeRemainingTimeCommitRateAverageTime: {}", getPipeRemainingTimeCommitRateAverageTime());
     LOGGER.info("PipeTsFileScanParsingThreshold(): {}", getPipeTsFileScanParsingThreshold());
+    LOGGER.info("PipeTsFileScanParsingParallelism: {}", getPipeTsFileScanParsingParallelism());
 
     LOGGER.info("PipeAsyncConnectorSelectorNumber: {}", getPipeAsyncConnectorSelectorNumber());
     LOGGER.info("PipeAsyncConnectorMaxClientNumber: {}", getPipeAsyncConnectorMaxClientNumber());
@@ -434,6 +453,10 @@ public class PipeConfig {
     LOGGER.info("PipeAirGapReceiverEnabled: {}", getPipeAirGapReceiverEnabled());
     LOGGER.info("PipeAirGapReceiverPort: {}", getPipeAirGapReceiverPort());
 
+    LOGGER.info("PipeFileStreamReceiverEnabled: {}", getPipeFileStreamReceiverEnabled());
+    LOGGER.info("PipeFileStreamReceiverPort: {}", getPipeFileStreamReceiverPort());
+    LOGGER.info("PipeFileStreamReceiverMaxThreadNum: {}", getPipeFileStreamReceiverMaxThreadNum());
+
     LOGGER.info(
         "PipeMaxAllowedHistoricalTsFilePerDataRegion: {}",
         getPipeMaxAllowedHistoricalTsFilePerDataRegion());
@@ -73,6 +73,11 @@ public class PipeConnectorConstant {
   public static final long CONNECTOR_IOTDB_PLAIN_BATCH_SIZE_DEFAULT_VALUE = 16 * MB;
   public static final long CONNECTOR_IOTDB_TS_FILE_BATCH_SIZE_DEFAULT_VALUE = 80 * MB;
 
+  public static final String CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY =
+      "connector.batch.adaptive.enable";
+  public static final String SINK_IOTDB_BATCH_ADAPTIVE_ENABLE_KEY = "sink.batch.adaptive.enable";
+  public static final boolean CONNECTOR_IOTDB_BATCH_ADAPTIVE_ENABLE_DEFAULT_VALUE = false;
+
   public static final String CONNECTOR_IOTDB_USER_KEY = "connector.user";
   public static final String SINK_IOTDB_USER_KEY = "sink.user";
   public static final String CONNECTOR_IOTDB_USERNAME_KEY = "connector.username";
@@ -120,6 +125,10 @@ public class PipeConnectorConstant {
       "sink.exception.others.record-ignored-data";
   public static final boolean CONNECTOR_EXCEPTION_OTHERS_RECORD_IGNORED_DATA_DEFAULT_VALUE = true;
 
+  public static final String CONNECTOR_FILE_STREAM_ENABLE_KEY = "connector.file-stream.enable";
+  public static final String SINK_FILE_STREAM_ENABLE_KEY = "sink.file-stream.enable";
+  public static final boolean CONNECTOR_FILE_STREAM_ENABLE_DEFAULT_VALUE = false;
+
   public static final String CONNECTOR_AIR_GAP_E_LANGUAGE_ENABLE_KEY =
       "connector.air-gap.e-language.enable";
   public static final String SINK_AIR_GAP_E_LANGUAGE_ENABLE_KEY = "sink.air-gap.e-language.enable";
@@ -197,6 +206,7 @@ public class PipeConnectorConstant {
   public static final String CONNECTOR_COMPRESSOR_LZ4 = "lz4";
   public static final String CONNECTOR_COMPRESSOR_ZSTD = "zstd";
   public static final String CONNECTOR_COMPRESSOR_LZMA2 = "lzma2";
+  public static final String CONNECTOR_COMPRESSOR_ZSTD_DICT = "zstd-dict";
   public static final Set<String> CONNECTOR_COMPRESSOR_SET =
       Collections.unmodifiableSet(
           new HashSet<>(
@@ -205,7 +215,8 @@ public class PipeConnectorConstant {
                   CONNECTOR_COMPRESSOR_GZIP,
                   CONNECTOR_COMPRESSOR_LZ4,
                   CONNECTOR_COMPRESSOR_ZSTD,
-                  CONNECTOR_COMPRESSOR_LZMA2)));
+                  CONNECTOR_COMPRESSOR_LZMA2,
+                  CONNECTOR_COMPRESSOR_ZSTD_DICT)));
 
   public static final String CONNECTOR_COMPRESSOR_ZSTD_LEVEL_KEY =
       "connector.compressor.zstd.level";
@@ -215,6 +226,19 @@ public class PipeConnectorConstant {
   public static final int CONNECTOR_COMPRESSOR_ZSTD_LEVEL_MIN_VALUE = Zstd.minCompressionLevel();
   public static final int CONNECTOR_COMPRESSOR_ZSTD_LEVEL_MAX_VALUE = Zstd.maxCompressionLevel();
 
+  public static final String CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_KEY =
+      "connector.compressor.zstd-dict.size";
+  public static final String SINK_COMPRESSOR_ZSTD_DICT_SIZE_KEY = "sink.compressor.zstd-dict.size";
+  public static final int CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_DEFAULT_VALUE = 16 * 1024;
+  public static final int CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_MIN_VALUE = 1024;
+  public static final int CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_MAX_VALUE = 1024 * 1024;
+
+  public static final String CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_KEY =
+      "connector.compressor.zstd-dict.sample-count";
+  public static final String SINK_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_KEY =
+      "sink.compressor.zstd-dict.sample-count";
+  public static final int CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_DEFAULT_VALUE = 1000;
+
   public static final String CONNECTOR_RATE_LIMIT_KEY = "connector.rate-limit-bytes-per-second";
   public static final String SINK_RATE_LIMIT_KEY = "sink.rate-limit-bytes-per-second";
   public static final double CONNECTOR_RATE_LIMIT_DEFAULT_VALUE = -1;
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.connector.client;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.pipe.receiver.filestream.PipeFileStreamReceiverAgent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Sender side of the zero-copy file transfer. The file is sent in segments with {@link
+ * FileChannel#transferTo}, so that the kernel moves the bytes from the page cache to the socket
+ * without copying them into the java heap. Each segment is followed by its CRC32, computed over a
+ * mapped view of the file.
+ */
+public class IoTDBFileStreamClient implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IoTDBFileStreamClient.class);
+
+  private static final long SEGMENT_SIZE = 16L * 1024 * 1024;
+  private static final int MAX_SEGMENT_RETRY_TIMES = 3;
+
+  private final TEndPoint endPoint;
+  private final SocketChannel socketChannel;
+
+  private final ByteBuffer headerBuffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+  private final ByteBuffer longBuffer = ByteBuffer.allocate(Long.BYTES);
+  private final ByteBuffer replyBuffer = ByteBuffer.allocate(Byte.BYTES + Long.BYTES);
+
+  public IoTDBFileStreamClient(final TEndPoint endPoint, final int connectionTimeoutMs)
+      throws IOException {
+    this.endPoint = endPoint;
+    socketChannel = SocketChannel.open();
+    try {
+      socketChannel.socket().setKeepAlive(true);
+      socketChannel.socket().setTcpNoDelay(true);
+      socketChannel
+          .socket()
+          .connect(
+              new InetSocketAddress(endPoint.getIp(), endPoint.getPort()), connectionTimeoutMs);
+    } catch (final IOException e) {
+      socketChannel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Transfer the file to the receiver file registered with the ticket, starting from the length the
+   * receiver already has.
+   *
+   * @param rateLimiter called with the size of each segment before it is sent
+   * @return the length of the receiver file after the transfer
+   * @throws IOException if the transfer can not be completed, the receiver file is left at the last
+   *     verified segment and the transfer can be resumed from there
+   */
+  public long transfer(final File file, final long ticket, final LongConsumer rateLimiter)
+      throws IOException {
+    headerBuffer.clear();
+    headerBuffer.putInt(PipeFileStreamReceiverAgent.MAGIC).putLong(ticket).flip();
+    writeFully(headerBuffer);
+
+    long position = readReply(file, -1);
+    try (final FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      final long fileLength = fileChannel.size();
+      if (position > fileLength) {
+        throw new IOException(
+            String.format(
+                "Receiver %s has %s bytes of file %s, which is longer than the file (%s bytes).",
+                endPoint, position, file.getPath(), fileLength));
+      }
+
+      int retryTimes = 0;
+      while (position < fileLength) {
+        final long segmentLength = Math.min(SEGMENT_SIZE, fileLength - position);
+        rateLimiter.accept(segmentLength);
+
+        writeLong(segmentLength);
+        long sentLength = 0;
+        while (sentLength < segmentLength) {
+          sentLength +=
+              fileChannel.transferTo(
+                  position + sentLength, segmentLength - sentLength, socketChannel);
+        }
+        writeLong(PipeFileStreamReceiverAgent.checksum(fileChannel, position, segmentLength));
+
+        final long nextPosition = readReply(file, position);
+        if (nextPosition == position) {
+          if (++retryTimes > MAX_SEGMENT_RETRY_TIMES) {
+            throw new IOException(
+                String.format(
+                    "Checksum of the segment at %s of file %s mismatched %s times on receiver %s.",
+                    position, file.getPath(), retryTimes, endPoint));
+          }
+          continue;
+        }
+        retryTimes = 0;
+        position = nextPosition;
+      }
+
+      writeLong(0);
+      position = readReply(file, position);
+      LOGGER.debug("Streamed file {} to receiver {}, length {}.", file, endPoint, position);
+      return position;
+    }
+  }
+
+  /**
+   * @return the receiver file length in the reply, which equals the segment start if the receiver
+   *     asks to resend the segment
+   */
+  private long readReply(final File file, final long segmentStart) throws IOException {
+    replyBuffer.clear();
+    while (replyBuffer.hasRemaining()) {
+      if (socketChannel.read(replyBuffer) < 0) {
+        throw new EOFException(
+            String.format(
+                "Connection closed by receiver %s when transferring %s.", endPoint, file));
+      }
+    }
+    replyBuffer.flip();
+
+    final byte status = replyBuffer.get();
+    final long fileLength = replyBuffer.getLong();
+    switch (status) {
+      case PipeFileStreamReceiverAgent.STATUS_OK:
+        return fileLength;
+      case PipeFileStreamReceiverAgent.STATUS_CHECKSUM_MISMATCH:
+        if (fileLength == segmentStart) {
+          return fileLength;
+        }
+        // Fall through
+      default:
+        throw new IOException(
+            String.format(
+                "Receiver %s rejected the file stream of %s, status %s, length %s.",
+                endPoint, file, status, fileLength));
+    }
+  }
+
+  private void writeLong(final long value) throws IOException {
+    longBuffer.clear();
+    longBuffer.putLong(value).flip();
+    writeFully(longBuffer);
+  }
+
+  private void writeFully(final ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      socketChannel.write(buffer);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    socketChannel.close();
+  }
+}
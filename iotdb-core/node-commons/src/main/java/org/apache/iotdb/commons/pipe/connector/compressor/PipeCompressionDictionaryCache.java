@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.connector.compressor;
+
+import com.github.luben.zstd.ZstdDictDecompress;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Node level cache of the zstd dictionaries received by {@link PipeZSTDDictionaryCompressor}. The
+ * dictionaries are shared by all the receivers of the node, so that a sender whose requests are
+ * balanced among several connections only has to embed each dictionary once per node. The least
+ * recently used dictionaries are evicted when the cache is full.
+ *
+ * <p>Dictionaries trained by different senders may carry the same zstd dictionary id, so they are
+ * keyed by a hash of their content (see {@link #computeKey(byte[])}) instead.
+ */
+public class PipeCompressionDictionaryCache {
+
+  private static final int MAX_DICTIONARY_COUNT = 128;
+
+  private final Map<Long, ZstdDictDecompress> keyToDictDecompress =
+      new LinkedHashMap<Long, ZstdDictDecompress>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, ZstdDictDecompress> eldest) {
+          return size() > MAX_DICTIONARY_COUNT;
+        }
+      };
+
+  /** The first 8 bytes of the SHA-256 digest of the dictionary. */
+  public static long computeKey(final byte[] dictionary) {
+    try {
+      return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(dictionary)).getLong();
+    } catch (final NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public synchronized ZstdDictDecompress register(final long key, final byte[] dictionary) {
+    return keyToDictDecompress.computeIfAbsent(key, k -> new ZstdDictDecompress(dictionary));
+  }
+
+  public synchronized ZstdDictDecompress get(final long key) {
+    return keyToDictDecompress.get(key);
+  }
+
+  public synchronized int size() {
+    return keyToDictDecompress.size();
+  }
+
+  public synchronized void clear() {
+    keyToDictDecompress.clear();
+  }
+
+  /////////////////////////////// Singleton ///////////////////////////////
+
+  private PipeCompressionDictionaryCache() {
+    // Empty constructor
+  }
+
+  public static PipeCompressionDictionaryCache getInstance() {
+    return PipeCompressionDictionaryCacheHolder.INSTANCE;
+  }
+
+  private static class PipeCompressionDictionaryCacheHolder {
+    private static final PipeCompressionDictionaryCache INSTANCE =
+        new PipeCompressionDictionaryCache();
+  }
+}
@@ -28,7 +28,8 @@ public abstract class PipeCompressor {
     GZIP((byte) 1),
     LZ4((byte) 2),
     ZSTD((byte) 3),
-    LZMA2((byte) 4);
+    LZMA2((byte) 4),
+    ZSTD_DICT((byte) 5);
 
     final byte index;
 
@@ -70,6 +71,14 @@ public abstract class PipeCompressor {
    */
   public abstract byte[] decompress(byte[] byteArray, int decompressedLength) throws IOException;
 
+  /**
+   * Called when the receiver answers that it is temporarily unavailable, e.g. because it has
+   * restarted and lost the state the compressor relies on.
+   */
+  public void onReceiverTemporarilyUnavailable() {
+    // Do nothing by default
+  }
+
   public byte serialize() {
     return compressionType.getIndex();
   }
@@ -19,14 +19,33 @@
 
 package org.apache.iotdb.commons.pipe.connector.compressor;
 
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_DEFAULT_VALUE;
+
 public class PipeCompressorConfig {
 
   private final String name;
   private final int zstdCompressionLevel;
+  private final int zstdDictionarySize;
+  private final int zstdDictionarySampleCount;
 
   public PipeCompressorConfig(String name, int zstdCompressionLevel) {
+    this(
+        name,
+        zstdCompressionLevel,
+        CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_DEFAULT_VALUE,
+        CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_DEFAULT_VALUE);
+  }
+
+  public PipeCompressorConfig(
+      String name,
+      int zstdCompressionLevel,
+      int zstdDictionarySize,
+      int zstdDictionarySampleCount) {
     this.name = name;
     this.zstdCompressionLevel = zstdCompressionLevel;
+    this.zstdDictionarySize = zstdDictionarySize;
+    this.zstdDictionarySampleCount = zstdDictionarySampleCount;
   }
 
   public String getName() {
@@ -36,4 +55,12 @@ public class PipeCompressorConfig {
   public int getZstdCompressionLevel() {
     return zstdCompressionLevel;
   }
+
+  public int getZstdDictionarySize() {
+    return zstdDictionarySize;
+  }
+
+  public int getZstdDictionarySampleCount() {
+    return zstdDictionarySampleCount;
+  }
 }
@@ -32,6 +32,9 @@ import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstan
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_LZMA2;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_SNAPPY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_LEVEL_DEFAULT_VALUE;
 
 public class PipeCompressorFactory {
@@ -49,6 +52,13 @@ public class PipeCompressorFactory {
         CONNECTOR_COMPRESSOR_ZSTD,
         new PipeZSTDCompressor(CONNECTOR_COMPRESSOR_ZSTD_LEVEL_DEFAULT_VALUE));
     COMPRESSOR_NAME_TO_INSTANCE.put(CONNECTOR_COMPRESSOR_LZMA2, new PipeLZMA2Compressor());
+    // Only used by receivers to decompress, senders always create their own instances
+    COMPRESSOR_NAME_TO_INSTANCE.put(
+        CONNECTOR_COMPRESSOR_ZSTD_DICT,
+        new PipeZSTDDictionaryCompressor(
+            CONNECTOR_COMPRESSOR_ZSTD_LEVEL_DEFAULT_VALUE,
+            CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_DEFAULT_VALUE,
+            CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_DEFAULT_VALUE));
   }
 
   public static PipeCompressor getCompressor(PipeCompressorConfig config) {
@@ -72,6 +82,15 @@ public class PipeCompressorFactory {
           });
     }
 
+    // For ZSTD dictionary compressor, the trained dictionary belongs to one connector, so the
+    // instance can not be shared
+    if (compressorName.equals(CONNECTOR_COMPRESSOR_ZSTD_DICT)) {
+      return new PipeZSTDDictionaryCompressor(
+          config.getZstdCompressionLevel(),
+          config.getZstdDictionarySize(),
+          config.getZstdDictionarySampleCount());
+    }
+
     // For other compressors, we can directly get the instance by name
     final PipeCompressor compressor = COMPRESSOR_NAME_TO_INSTANCE.get(compressorName);
     if (compressor != null) {
@@ -99,6 +118,9 @@ public class PipeCompressorFactory {
     COMPRESSOR_INDEX_TO_INSTANCE.put(
         PipeCompressor.PipeCompressionType.LZMA2.getIndex(),
         COMPRESSOR_NAME_TO_INSTANCE.get(CONNECTOR_COMPRESSOR_LZMA2));
+    COMPRESSOR_INDEX_TO_INSTANCE.put(
+        PipeCompressor.PipeCompressionType.ZSTD_DICT.getIndex(),
+        COMPRESSOR_NAME_TO_INSTANCE.get(CONNECTOR_COMPRESSOR_ZSTD_DICT));
     COMPRESSOR_INDEX_TO_INSTANCE = Collections.unmodifiableMap(COMPRESSOR_INDEX_TO_INSTANCE);
   }
 
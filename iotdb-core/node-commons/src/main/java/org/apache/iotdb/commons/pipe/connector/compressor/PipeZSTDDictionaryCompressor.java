@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.connector.compressor;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ZSTD compressor with a dictionary trained on the payloads of one connector. Small tablet batches
+ * of many devices repeat the same device paths and measurement names, which a trained dictionary
+ * captures so that they do not need to be repeated in every request.
+ *
+ * <p>Before the dictionary is trained, the first payloads are sampled and compressed with plain
+ * ZSTD. After that, the dictionary is embedded in the first request and then once every {@link
+ * #DICTIONARY_RESEND_INTERVAL} requests, while all the other requests only carry the key of the
+ * dictionary. Receivers keep the dictionaries in {@link PipeCompressionDictionaryCache}, and a
+ * receiver which has not seen the dictionary yet (e.g. after a restart) asks the sender to retry,
+ * upon which the dictionary is embedded in the next request.
+ */
+public class PipeZSTDDictionaryCompressor extends PipeCompressor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipeZSTDDictionaryCompressor.class);
+
+  // The compressed bytes consist of:
+  //   (byte) mode
+  //   (long) dictionary key, if mode is not PLAIN
+  //   (int) length of dictionary + (bytes) dictionary, if mode is DICTIONARY_EMBEDDED
+  //   (bytes) zstd frame
+  private static final byte PLAIN = 0;
+  private static final byte DICTIONARY_REFERENCED = 1;
+  private static final byte DICTIONARY_EMBEDDED = 2;
+
+  static final int DICTIONARY_RESEND_INTERVAL = 64;
+
+  private static final int MAX_SAMPLE_SIZE = 128 * 1024;
+  private static final int MAX_SAMPLE_BUFFER_SIZE = 16 * 1024 * 1024;
+
+  private final int compressionLevel;
+  private final int dictionarySize;
+  private final int sampleCount;
+
+  private ZstdDictTrainer trainer;
+  private int sampledCount = 0;
+  private boolean isTrainingFinished = false;
+
+  private volatile ZstdDictCompress dictCompress;
+  private volatile byte[] dictionary;
+  private volatile long dictionaryKey;
+  private final AtomicLong compressedCountWithDictionary = new AtomicLong(0);
+
+  public PipeZSTDDictionaryCompressor(
+      final int compressionLevel, final int dictionarySize, final int sampleCount) {
+    super(PipeCompressionType.ZSTD_DICT);
+    this.compressionLevel = compressionLevel;
+    this.dictionarySize = dictionarySize;
+    this.sampleCount = sampleCount;
+  }
+
+  @Override
+  public byte[] compress(final byte[] data) throws IOException {
+    final ZstdDictCompress currentDictCompress = dictCompress;
+    if (currentDictCompress == null) {
+      sample(data);
+      return compress(data, PLAIN, 0, null, null);
+    }
+
+    final boolean shouldEmbedDictionary =
+        compressedCountWithDictionary.getAndIncrement() % DICTIONARY_RESEND_INTERVAL == 0;
+    return compress(
+        data,
+        shouldEmbedDictionary ? DICTIONARY_EMBEDDED : DICTIONARY_REFERENCED,
+        dictionaryKey,
+        shouldEmbedDictionary ? dictionary : null,
+        currentDictCompress);
+  }
+
+  private byte[] compress(
+      final byte[] data,
+      final byte mode,
+      final long key,
+      final byte[] embeddedDictionary,
+      final ZstdDictCompress currentDictCompress)
+      throws IOException {
+    final int headerSize =
+        Byte.BYTES
+            + (mode == PLAIN ? 0 : Long.BYTES)
+            + (mode == DICTIONARY_EMBEDDED ? Integer.BYTES + embeddedDictionary.length : 0);
+    final byte[] compressed = new byte[headerSize + (int) Zstd.compressBound(data.length)];
+
+    final ByteBuffer header = ByteBuffer.wrap(compressed, 0, headerSize);
+    header.put(mode);
+    if (mode != PLAIN) {
+      header.putLong(key);
+    }
+    if (mode == DICTIONARY_EMBEDDED) {
+      header.putInt(embeddedDictionary.length);
+      header.put(embeddedDictionary);
+    }
+
+    final long frameSize =
+        mode == PLAIN
+            ? Zstd.compressByteArray(
+                compressed,
+                headerSize,
+                compressed.length - headerSize,
+                data,
+                0,
+                data.length,
+                compressionLevel)
+            : Zstd.compressFastDict(
+                compressed, headerSize, data, 0, data.length, currentDictCompress);
+    if (Zstd.isError(frameSize)) {
+      throw new IOException("Failed to compress with zstd: " + Zstd.getErrorName(frameSize));
+    }
+    return Arrays.copyOf(compressed, headerSize + (int) frameSize);
+  }
+
+  private synchronized void sample(final byte[] data) {
+    if (isTrainingFinished) {
+      return;
+    }
+
+    if (trainer == null) {
+      trainer =
+          new ZstdDictTrainer(
+              (int) Math.min((long) dictionarySize * 100, MAX_SAMPLE_BUFFER_SIZE), dictionarySize);
+    }
+    final boolean isAdded =
+        trainer.addSample(
+            data.length > MAX_SAMPLE_SIZE ? Arrays.copyOf(data, MAX_SAMPLE_SIZE) : data);
+    if (isAdded && ++sampledCount < sampleCount) {
+      return;
+    }
+
+    isTrainingFinished = true;
+    try {
+      final byte[] trainedDictionary = trainer.trainSamples();
+      final int trainedDictionaryId = (int) Zstd.getDictIdFromDict(trainedDictionary);
+      if (trainedDictionaryId == 0) {
+        LOGGER.warn("Trained zstd dictionary has no id, will keep compressing without it.");
+        return;
+      }
+      dictionary = trainedDictionary;
+      dictionaryKey = PipeCompressionDictionaryCache.computeKey(trainedDictionary);
+      dictCompress = new ZstdDictCompress(trainedDictionary, compressionLevel);
+      LOGGER.info(
+          "Trained zstd dictionary {} of {} bytes from {} samples.",
+          trainedDictionaryId,
+          trainedDictionary.length,
+          sampledCount);
+    } catch (final Exception e) {
+      LOGGER.warn(
+          "Failed to train zstd dictionary from {} samples, will keep compressing without it.",
+          sampledCount,
+          e);
+    } finally {
+      trainer = null;
+    }
+  }
+
+  @Override
+  public byte[] decompress(final byte[] byteArray) throws IOException {
+    return decompress(byteArray, -1);
+  }
+
+  @Override
+  public byte[] decompress(final byte[] byteArray, final int decompressedLength)
+      throws IOException {
+    final ByteBuffer header = ByteBuffer.wrap(byteArray);
+    final byte mode = header.get();
+
+    ZstdDictDecompress dictDecompress = null;
+    if (mode != PLAIN) {
+      final long key = header.getLong();
+      if (mode == DICTIONARY_EMBEDDED) {
+        final byte[] embeddedDictionary = new byte[header.getInt()];
+        header.get(embeddedDictionary);
+        if (PipeCompressionDictionaryCache.computeKey(embeddedDictionary) != key) {
+          throw new IOException("The embedded compression dictionary does not match its key.");
+        }
+        dictDecompress =
+            PipeCompressionDictionaryCache.getInstance().register(key, embeddedDictionary);
+      } else {
+        dictDecompress = PipeCompressionDictionaryCache.getInstance().get(key);
+        if (dictDecompress == null) {
+          throw new PipeCompressionDictionaryNotFoundException(key);
+        }
+      }
+    }
+
+    final int frameOffset = header.position();
+    final int frameSize = byteArray.length - frameOffset;
+    final int length =
+        decompressedLength >= 0
+            ? decompressedLength
+            : (int) Zstd.decompressedSize(byteArray, frameOffset, frameSize);
+    final byte[] decompressed = new byte[length];
+    final long size =
+        dictDecompress == null
+            ? Zstd.decompressByteArray(decompressed, 0, length, byteArray, frameOffset, frameSize)
+            : Zstd.decompressFastDict(
+                decompressed, 0, byteArray, frameOffset, frameSize, dictDecompress);
+    if (Zstd.isError(size)) {
+      throw new IOException("Failed to decompress with zstd: " + Zstd.getErrorName(size));
+    }
+    return decompressed;
+  }
+
+  @Override
+  public void onReceiverTemporarilyUnavailable() {
+    // The receiver may have lost the dictionary, so embed it in the retried request instead of
+    // letting the receiver reject the requests until the resend interval is over
+    compressedCountWithDictionary.set(0);
+  }
+
+  public boolean isDictionaryTrained() {
+    return dictCompress != null;
+  }
+}
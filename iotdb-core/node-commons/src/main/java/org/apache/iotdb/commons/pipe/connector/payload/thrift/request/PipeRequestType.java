@@ -61,6 +61,9 @@ public enum PipeRequestType {
 
   // Fallback Handling
   TRANSFER_SLICE((short) 400),
+
+  // Zero-copy File Transfer
+  TRANSFER_FILE_STREAM_OPEN((short) 500),
   ;
 
   private final short type;
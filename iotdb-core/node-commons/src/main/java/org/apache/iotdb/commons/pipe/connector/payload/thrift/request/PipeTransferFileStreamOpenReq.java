@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.connector.payload.thrift.request;
+
+import org.apache.iotdb.service.rpc.thrift.TPipeTransferReq;
+
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Asks the receiver to prepare the file for a zero-copy transfer over the file stream socket. The
+ * receiver answers with a {@link
+ * org.apache.iotdb.commons.pipe.connector.payload.thrift.response.PipeTransferFileStreamOpenResp}.
+ */
+public class PipeTransferFileStreamOpenReq extends TPipeTransferReq {
+
+  private transient String fileName;
+  private transient boolean isSingleFile;
+
+  private PipeTransferFileStreamOpenReq() {
+    // Empty constructor
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public boolean isSingleFile() {
+    return isSingleFile;
+  }
+
+  /////////////////////////////// Thrift ///////////////////////////////
+
+  public static PipeTransferFileStreamOpenReq toTPipeTransferReq(
+      final String fileName, final boolean isSingleFile) throws IOException {
+    final PipeTransferFileStreamOpenReq req = new PipeTransferFileStreamOpenReq();
+
+    req.fileName = fileName;
+    req.isSingleFile = isSingleFile;
+
+    req.version = IoTDBConnectorRequestVersion.VERSION_1.getVersion();
+    req.type = PipeRequestType.TRANSFER_FILE_STREAM_OPEN.getType();
+    try (final PublicBAOS byteArrayOutputStream = new PublicBAOS();
+        final DataOutputStream outputStream = new DataOutputStream(byteArrayOutputStream)) {
+      ReadWriteIOUtils.write(fileName, outputStream);
+      ReadWriteIOUtils.write(isSingleFile, outputStream);
+      req.body = ByteBuffer.wrap(byteArrayOutputStream.getBuf(), 0, byteArrayOutputStream.size());
+    }
+
+    return req;
+  }
+
+  public static PipeTransferFileStreamOpenReq fromTPipeTransferReq(
+      final TPipeTransferReq transferReq) {
+    final PipeTransferFileStreamOpenReq req = new PipeTransferFileStreamOpenReq();
+
+    req.fileName = ReadWriteIOUtils.readString(transferReq.body);
+    req.isSingleFile = ReadWriteIOUtils.readBool(transferReq.body);
+
+    req.version = transferReq.version;
+    req.type = transferReq.type;
+    req.body = transferReq.body;
+
+    return req;
+  }
+
+  /////////////////////////////// Object ///////////////////////////////
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    final PipeTransferFileStreamOpenReq that = (PipeTransferFileStreamOpenReq) obj;
+    return fileName.equals(that.fileName)
+        && isSingleFile == that.isSingleFile
+        && version == that.version
+        && type == that.type
+        && body.equals(that.body);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(fileName, isSingleFile, version, type, body);
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.connector.payload.thrift.response;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.service.rpc.thrift.TPipeTransferResp;
+
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+public class PipeTransferFileStreamOpenResp extends TPipeTransferResp {
+
+  private long ticket;
+  private int port;
+  private long endWritingOffset;
+
+  private PipeTransferFileStreamOpenResp() {
+    // Empty constructor
+  }
+
+  /** The ticket to present on the file stream socket, valid for one transfer. */
+  public long getTicket() {
+    return ticket;
+  }
+
+  /** The port of the receiver's file stream socket. */
+  public int getPort() {
+    return port;
+  }
+
+  /** The length of the receiver's writing file, i.e. the offset to resume the transfer from. */
+  public long getEndWritingOffset() {
+    return endWritingOffset;
+  }
+
+  /////////////////////////////// Thrift ///////////////////////////////
+
+  public static PipeTransferFileStreamOpenResp toTPipeTransferResp(
+      final TSStatus status, final long ticket, final int port, final long endWritingOffset)
+      throws IOException {
+    final PipeTransferFileStreamOpenResp resp = new PipeTransferFileStreamOpenResp();
+
+    resp.status = status;
+
+    resp.ticket = ticket;
+    resp.port = port;
+    resp.endWritingOffset = endWritingOffset;
+    try (final PublicBAOS byteArrayOutputStream = new PublicBAOS();
+        final DataOutputStream outputStream = new DataOutputStream(byteArrayOutputStream)) {
+      ReadWriteIOUtils.write(ticket, outputStream);
+      ReadWriteIOUtils.write(port, outputStream);
+      ReadWriteIOUtils.write(endWritingOffset, outputStream);
+      resp.body = ByteBuffer.wrap(byteArrayOutputStream.getBuf(), 0, byteArrayOutputStream.size());
+    }
+
+    return resp;
+  }
+
+  public static PipeTransferFileStreamOpenResp toTPipeTransferResp(final TSStatus status) {
+    final PipeTransferFileStreamOpenResp resp = new PipeTransferFileStreamOpenResp();
+
+    resp.status = status;
+
+    return resp;
+  }
+
+  public static PipeTransferFileStreamOpenResp fromTPipeTransferResp(
+      final TPipeTransferResp transferResp) {
+    final PipeTransferFileStreamOpenResp resp = new PipeTransferFileStreamOpenResp();
+
+    resp.status = transferResp.status;
+
+    if (transferResp.isSetBody()) {
+      resp.ticket = ReadWriteIOUtils.readLong(transferResp.body);
+      resp.port = ReadWriteIOUtils.readInt(transferResp.body);
+      resp.endWritingOffset = ReadWriteIOUtils.readLong(transferResp.body);
+      resp.body = transferResp.body;
+    }
+
+    return resp;
+  }
+
+  /////////////////////////////// Object ///////////////////////////////
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    final PipeTransferFileStreamOpenResp that = (PipeTransferFileStreamOpenResp) obj;
+    return ticket == that.ticket
+        && port == that.port
+        && endWritingOffset == that.endWritingOffset
+        && status.equals(that.status)
+        && Objects.equals(body, that.body);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(ticket, port, endWritingOffset, status, body);
+  }
+}
@@ -52,6 +52,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_SET;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_MAX_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_MIN_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_LEVEL_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_LEVEL_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_COMPRESSOR_ZSTD_LEVEL_MAX_VALUE;
@@ -94,6 +100,8 @@ import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstan
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_RATE_LIMIT_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_RATE_LIMIT_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_COMPRESSOR_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_COMPRESSOR_ZSTD_DICT_SIZE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_COMPRESSOR_ZSTD_LEVEL_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_EXCEPTION_CONFLICT_RECORD_IGNORED_DATA_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_EXCEPTION_CONFLICT_RESOLVE_STRATEGY_KEY;
@@ -242,6 +250,35 @@ public abstract class IoTDBConnector implements PipeConnector {
             zstdCompressionLevel),
         zstdCompressionLevel);
 
+    final int zstdDictionarySize =
+        parameters.getIntOrDefault(
+            Arrays.asList(
+                CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_KEY, SINK_COMPRESSOR_ZSTD_DICT_SIZE_KEY),
+            CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_DEFAULT_VALUE);
+    validator.validate(
+        arg ->
+            (int) arg >= CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_MIN_VALUE
+                && (int) arg <= CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_MAX_VALUE,
+        String.format(
+            "Zstd dictionary size should be in the range [%d, %d], but got %d.",
+            CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_MIN_VALUE,
+            CONNECTOR_COMPRESSOR_ZSTD_DICT_SIZE_MAX_VALUE,
+            zstdDictionarySize),
+        zstdDictionarySize);
+
+    final int zstdDictionarySampleCount =
+        parameters.getIntOrDefault(
+            Arrays.asList(
+                CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_KEY,
+                SINK_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_KEY),
+            CONNECTOR_COMPRESSOR_ZSTD_DICT_SAMPLE_COUNT_DEFAULT_VALUE);
+    validator.validate(
+        arg -> (int) arg > 0,
+        String.format(
+            "Zstd dictionary sample count should be greater than 0, but got %d.",
+            zstdDictionarySampleCount),
+        zstdDictionarySampleCount);
+
     final String compressionTypes =
         parameters
             .getStringOrDefault(
@@ -263,7 +300,11 @@ public abstract class IoTDBConnector implements PipeConnector {
             trimmedCompressionType);
         compressors.add(
             PipeCompressorFactory.getCompressor(
-                new PipeCompressorConfig(trimmedCompressionType, zstdCompressionLevel)));
+                new PipeCompressorConfig(
+                    trimmedCompressionType,
+                    zstdCompressionLevel,
+                    zstdDictionarySize,
+                    zstdDictionarySampleCount)));
       }
     }
     validator.validate(
@@ -360,7 +401,8 @@ public abstract class IoTDBConnector implements PipeConnector {
                 Arrays.asList(
                     CONNECTOR_EXCEPTION_OTHERS_RECORD_IGNORED_DATA_KEY,
                     SINK_EXCEPTION_OTHERS_RECORD_IGNORED_DATA_KEY),
-                CONNECTOR_EXCEPTION_OTHERS_RECORD_IGNORED_DATA_DEFAULT_VALUE));
+                CONNECTOR_EXCEPTION_OTHERS_RECORD_IGNORED_DATA_DEFAULT_VALUE),
+            () -> compressors.forEach(PipeCompressor::onReceiverTemporarilyUnavailable));
     shouldReceiverConvertOnTypeMismatch =
         parameters.getBooleanOrDefault(
             Arrays.asList(
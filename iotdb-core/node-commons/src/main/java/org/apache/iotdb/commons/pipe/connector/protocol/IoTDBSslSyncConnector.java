@@ -22,10 +22,13 @@ package org.apache.iotdb.commons.pipe.connector.protocol;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.pipe.config.PipeConfig;
+import org.apache.iotdb.commons.pipe.connector.client.IoTDBFileStreamClient;
 import org.apache.iotdb.commons.pipe.connector.client.IoTDBSyncClient;
 import org.apache.iotdb.commons.pipe.connector.client.IoTDBSyncClientManager;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFilePieceReq;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileStreamOpenReq;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.response.PipeTransferFilePieceResp;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.response.PipeTransferFileStreamOpenResp;
 import org.apache.iotdb.pipe.api.customizer.configuration.PipeConnectorRuntimeConfiguration;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameterValidator;
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameters;
@@ -45,13 +48,19 @@ import java.io.RandomAccessFile;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.iotdb.commons.pipe.agent.plugin.builtin.BuiltinPipePlugin.IOTDB_THRIFT_CONNECTOR;
 import static org.apache.iotdb.commons.pipe.agent.plugin.builtin.BuiltinPipePlugin.IOTDB_THRIFT_SSL_CONNECTOR;
 import static org.apache.iotdb.commons.pipe.agent.plugin.builtin.BuiltinPipePlugin.IOTDB_THRIFT_SSL_SINK;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_FILE_STREAM_ENABLE_DEFAULT_VALUE;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_FILE_STREAM_ENABLE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_LEADER_CACHE_ENABLE_DEFAULT_VALUE;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.CONNECTOR_LEADER_CACHE_ENABLE_KEY;
+import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_FILE_STREAM_ENABLE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_IOTDB_SSL_ENABLE_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_IOTDB_SSL_TRUST_STORE_PATH_KEY;
 import static org.apache.iotdb.commons.pipe.config.constant.PipeConnectorConstant.SINK_IOTDB_SSL_TRUST_STORE_PWD_KEY;
@@ -64,6 +73,13 @@ public abstract class IoTDBSslSyncConnector extends IoTDBConnector {
 
   protected IoTDBSyncClientManager clientManager;
 
+  // Zero-copy file transfer, only used for plain transport
+  private boolean isFileStreamEnabled;
+  // Receivers which replied that they can not receive file streams, and the time they replied. They
+  // are asked again after a while in case the file stream receiver is enabled or upgraded.
+  private static final long FILE_STREAM_UNSUPPORTED_EXPIRE_TIME_MS = TimeUnit.MINUTES.toMillis(5);
+  private final Map<TEndPoint, Long> fileStreamUnsupportedEndPoint2Time = new ConcurrentHashMap<>();
+
   @Override
   public void validate(final PipeParameterValidator validator) throws Exception {
     super.validate(validator);
@@ -109,6 +125,17 @@ public abstract class IoTDBSslSyncConnector extends IoTDBConnector {
     final String trustStorePath = parameters.getString(SINK_IOTDB_SSL_TRUST_STORE_PATH_KEY);
     final String trustStorePwd = parameters.getString(SINK_IOTDB_SSL_TRUST_STORE_PWD_KEY);
 
+    // file stream configuration
+    isFileStreamEnabled =
+        parameters.getBooleanOrDefault(
+            Arrays.asList(SINK_FILE_STREAM_ENABLE_KEY, CONNECTOR_FILE_STREAM_ENABLE_KEY),
+            CONNECTOR_FILE_STREAM_ENABLE_DEFAULT_VALUE);
+    if (isFileStreamEnabled && useSSL) {
+      LOGGER.warn(
+          "File stream transfer is not encrypted, it is disabled because ssl transport is enabled.");
+      isFileStreamEnabled = false;
+    }
+
     // leader cache configuration
     final boolean useLeaderCache =
         parameters.getBooleanOrDefault(
@@ -166,6 +193,11 @@ public abstract class IoTDBSslSyncConnector extends IoTDBConnector {
       final Pair<IoTDBSyncClient, Boolean> clientAndStatus,
       final boolean isMultiFile)
       throws PipeException, IOException {
+    if (isFileStreamEnabled
+        && transferFileStreamIfPossible(pipe2WeightMap, file, clientAndStatus, isMultiFile)) {
+      return;
+    }
+
     final int readFileBufferSize = PipeConfig.getInstance().getPipeConnectorReadFileBufferSize();
     final byte[] readBuffer = new byte[readFileBufferSize];
     long position = 0;
@@ -234,6 +266,88 @@ public abstract class IoTDBSslSyncConnector extends IoTDBConnector {
     }
   }
 
+  /**
+   * Transfer the file through the receiver's file stream socket, which sends the file with {@link
+   * java.nio.channels.FileChannel#transferTo} instead of reading it into file pieces.
+   *
+   * @return {@code true} if the file is transferred, {@code false} if the caller should transfer
+   *     the file by pieces, which resume from the length the receiver already has
+   */
+  private boolean transferFileStreamIfPossible(
+      final Map<Pair<String, Long>, Double> pipe2WeightMap,
+      final File file,
+      final Pair<IoTDBSyncClient, Boolean> clientAndStatus,
+      final boolean isMultiFile)
+      throws PipeException {
+    final TEndPoint endPoint = clientAndStatus.getLeft().getEndPoint();
+    final Long unsupportedTime = fileStreamUnsupportedEndPoint2Time.get(endPoint);
+    if (Objects.nonNull(unsupportedTime)) {
+      if (System.currentTimeMillis() - unsupportedTime < FILE_STREAM_UNSUPPORTED_EXPIRE_TIME_MS) {
+        return false;
+      }
+      fileStreamUnsupportedEndPoint2Time.remove(endPoint, unsupportedTime);
+    }
+
+    final PipeTransferFileStreamOpenResp resp;
+    try {
+      resp =
+          PipeTransferFileStreamOpenResp.fromTPipeTransferResp(
+              clientAndStatus
+                  .getLeft()
+                  .pipeTransfer(
+                      compressIfNeeded(
+                          PipeTransferFileStreamOpenReq.toTPipeTransferReq(
+                              file.getName(), !isMultiFile))));
+    } catch (final Exception e) {
+      clientAndStatus.setRight(false);
+      throw new PipeConnectionException(
+          String.format(
+              "Network error when opening file stream of %s, because %s.", file, e.getMessage()),
+          e);
+    }
+
+    final TSStatus status = resp.getStatus();
+    if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      // Receivers of older versions or without the file stream receiver enabled can only receive
+      // file pieces. Other errors only make this file fall back to pieces, and will be handled
+      // when transferring the pieces.
+      if (status.getCode() == TSStatusCode.PIPE_TYPE_ERROR.getStatusCode()
+          || status.getCode() == TSStatusCode.UNSUPPORTED_OPERATION.getStatusCode()) {
+        fileStreamUnsupportedEndPoint2Time.put(endPoint, System.currentTimeMillis());
+        LOGGER.info(
+            "Receiver {} does not support file stream, transfer files by pieces instead. Status: {}",
+            endPoint,
+            status);
+      }
+      return false;
+    }
+
+    try (final IoTDBFileStreamClient fileStreamClient =
+        new IoTDBFileStreamClient(
+            new TEndPoint(endPoint.getIp(), resp.getPort()),
+            PipeConfig.getInstance().getPipeConnectorHandshakeTimeoutMs())) {
+      fileStreamClient.transfer(
+          file,
+          resp.getTicket(),
+          segmentLength ->
+              pipe2WeightMap.forEach(
+                  (namePair, weight) ->
+                      rateLimitIfNeeded(
+                          namePair.getLeft(),
+                          namePair.getRight(),
+                          endPoint,
+                          (long) (segmentLength * weight))));
+      return true;
+    } catch (final IOException e) {
+      LOGGER.warn(
+          "Failed to stream file {} to receiver {}, transfer the rest by pieces instead.",
+          file,
+          endPoint,
+          e);
+      return false;
+    }
+  }
+
   protected abstract PipeTransferFilePieceReq getTransferSingleFilePieceReq(
       final String fileName, final long position, final byte[] payLoad) throws IOException;
 
@@ -30,9 +30,12 @@ import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeReques
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFilePieceReq;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileSealReqV1;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileSealReqV2;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileStreamOpenReq;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferHandshakeV1Req;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferHandshakeV2Req;
 import org.apache.iotdb.commons.pipe.connector.payload.thrift.response.PipeTransferFilePieceResp;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.response.PipeTransferFileStreamOpenResp;
+import org.apache.iotdb.commons.pipe.receiver.filestream.PipeFileStreamReceiverAgent;
 import org.apache.iotdb.commons.utils.StatusUtils;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
@@ -328,6 +331,9 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
         return PipeTransferFilePieceResp.toTPipeTransferResp(status, writingFileWriter.length());
       }
 
+      // The file may have been written by the file stream connection before the sender fell back
+      // to file pieces, so the file pointer of the writer can be behind the end of the file
+      writingFileWriter.seek(writingFileWriter.length());
       writingFileWriter.write(req.getFilePiece());
       return PipeTransferFilePieceResp.toTPipeTransferResp(
           RpcUtils.SUCCESS_STATUS, writingFileWriter.length());
@@ -347,6 +353,45 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
     }
   }
 
+  /**
+   * Prepare the writing file for a zero-copy transfer through {@link PipeFileStreamReceiverAgent}.
+   * The file content is then written by the file stream connection, and the file is sealed by the
+   * usual seal request.
+   */
+  protected final TPipeTransferResp handleTransferFileStreamOpen(
+      final PipeTransferFileStreamOpenReq req) {
+    final PipeFileStreamReceiverAgent fileStreamAgent = PipeFileStreamReceiverAgent.getInstance();
+    if (!fileStreamAgent.isRunning()) {
+      // The sender will fall back to transferring file pieces
+      return PipeTransferFileStreamOpenResp.toTPipeTransferResp(
+          RpcUtils.getStatus(
+              TSStatusCode.UNSUPPORTED_OPERATION,
+              "File stream receiver is not enabled on this node."));
+    }
+
+    try {
+      updateWritingFileIfNeeded(req.getFileName(), req.isSingleFile());
+
+      if (!writingFile.getName().endsWith(TsFileConstant.TSFILE_SUFFIX)) {
+        // Same as file pieces, files other than tsFile must be rewritten from the beginning
+        writingFileWriter.setLength(0);
+      }
+
+      return PipeTransferFileStreamOpenResp.toTPipeTransferResp(
+          RpcUtils.SUCCESS_STATUS,
+          fileStreamAgent.registerTicket(writingFile),
+          fileStreamAgent.getPort(),
+          writingFileWriter.length());
+    } catch (final Exception e) {
+      LOGGER.warn(
+          "Receiver id = {}: Failed to open file stream from req {}.", receiverId.get(), req, e);
+      return PipeTransferFileStreamOpenResp.toTPipeTransferResp(
+          RpcUtils.getStatus(
+              TSStatusCode.PIPE_TRANSFER_FILE_ERROR,
+              String.format("Failed to open file stream, because %s", e.getMessage())));
+    }
+  }
+
   protected final void updateWritingFileIfNeeded(final String fileName, final boolean isSingleFile)
       throws IOException {
     if (isFileExistedAndNameCorrect(fileName)) {
@@ -55,12 +55,34 @@ public class PipeReceiverStatusHandler {
   private final AtomicBoolean exceptionEventHasBeenRetried = new AtomicBoolean(false);
   private final AtomicReference<String> exceptionRecordedMessage = new AtomicReference<>("");
 
+  private final Runnable onTemporaryUnavailable;
+
   public PipeReceiverStatusHandler(
       final boolean isRetryAllowedWhenConflictOccurs,
       final long retryMaxSecondsWhenConflictOccurs,
       final boolean shouldRecordIgnoredDataWhenConflictOccurs,
       final long retryMaxSecondsWhenOtherExceptionsOccur,
       final boolean shouldRecordIgnoredDataWhenOtherExceptionsOccur) {
+    this(
+        isRetryAllowedWhenConflictOccurs,
+        retryMaxSecondsWhenConflictOccurs,
+        shouldRecordIgnoredDataWhenConflictOccurs,
+        retryMaxSecondsWhenOtherExceptionsOccur,
+        shouldRecordIgnoredDataWhenOtherExceptionsOccur,
+        () -> {});
+  }
+
+  /**
+   * @param onTemporaryUnavailable invoked before the {@link Event} is retried because the receiver
+   *     is temporarily unavailable
+   */
+  public PipeReceiverStatusHandler(
+      final boolean isRetryAllowedWhenConflictOccurs,
+      final long retryMaxSecondsWhenConflictOccurs,
+      final boolean shouldRecordIgnoredDataWhenConflictOccurs,
+      final long retryMaxSecondsWhenOtherExceptionsOccur,
+      final boolean shouldRecordIgnoredDataWhenOtherExceptionsOccur,
+      final Runnable onTemporaryUnavailable) {
     this.isRetryAllowedWhenConflictOccurs = isRetryAllowedWhenConflictOccurs;
     this.retryMaxMillisWhenConflictOccurs =
         retryMaxSecondsWhenConflictOccurs < 0
@@ -74,6 +96,7 @@ public class PipeReceiverStatusHandler {
             : retryMaxSecondsWhenOtherExceptionsOccur * 1000;
     this.shouldRecordIgnoredDataWhenOtherExceptionsOccur =
         shouldRecordIgnoredDataWhenOtherExceptionsOccur;
+    this.onTemporaryUnavailable = onTemporaryUnavailable;
   }
 
   /**
@@ -106,6 +129,7 @@ public class PipeReceiverStatusHandler {
       case 1808: // PIPE_RECEIVER_TEMPORARY_UNAVAILABLE_EXCEPTION
         {
           LOGGER.info("Temporary unavailable exception: will retry forever. status: {}", status);
+          onTemporaryUnavailable.run();
           throw new PipeRuntimeConnectorCriticalException(exceptionMessage);
         }
 
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.receiver.filestream;
+
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import static org.apache.iotdb.commons.pipe.receiver.filestream.PipeFileStreamReceiverAgent.MAGIC;
+import static org.apache.iotdb.commons.pipe.receiver.filestream.PipeFileStreamReceiverAgent.STATUS_CHECKSUM_MISMATCH;
+import static org.apache.iotdb.commons.pipe.receiver.filestream.PipeFileStreamReceiverAgent.STATUS_INVALID_TICKET;
+import static org.apache.iotdb.commons.pipe.receiver.filestream.PipeFileStreamReceiverAgent.STATUS_OK;
+
+/**
+ * Handles one file stream connection. The protocol is:
+ *
+ * <ol>
+ *   <li>sender: magic (int), ticket (long); receiver: status (byte), current file length (long).
+ *   <li>sender: segment length (long), segment bytes, CRC32 of the segment (long); receiver: status
+ *       (byte), file length after the segment (long). Repeated until the sender sends a segment
+ *       length of 0, which is answered after the file is forced to disk.
+ * </ol>
+ *
+ * <p>Segments are appended with {@link FileChannel#transferFrom}. A segment with mismatched
+ * checksum is truncated and the sender can resend it. A connection which stays silent longer than
+ * the pipe connector transfer timeout is closed.
+ */
+class PipeFileStreamReceiver implements Runnable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipeFileStreamReceiver.class);
+
+  private final PipeFileStreamReceiverAgent agent;
+  private final SocketChannel socketChannel;
+  private final long receiverId;
+
+  // The read timeout of the socket only applies to the reads through its input stream, not to the
+  // reads on the socket channel
+  private ReadableByteChannel readChannel;
+
+  private final ByteBuffer headerBuffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+  private final ByteBuffer longBuffer = ByteBuffer.allocate(Long.BYTES);
+  private final ByteBuffer replyBuffer = ByteBuffer.allocate(Byte.BYTES + Long.BYTES);
+
+  PipeFileStreamReceiver(
+      final PipeFileStreamReceiverAgent agent,
+      final SocketChannel socketChannel,
+      final long receiverId) {
+    this.agent = agent;
+    this.socketChannel = socketChannel;
+    this.receiverId = receiverId;
+  }
+
+  @Override
+  public void run() {
+    try (final SocketChannel channel = socketChannel) {
+      channel.socket().setKeepAlive(true);
+      channel.socket().setSoTimeout(PipeConfig.getInstance().getPipeConnectorTransferTimeoutMs());
+      readChannel = Channels.newChannel(channel.socket().getInputStream());
+
+      readFully(headerBuffer);
+      if (headerBuffer.getInt() != MAGIC) {
+        LOGGER.warn(
+            "Pipe file stream receiver {}: Unknown magic number from {}, close the connection.",
+            receiverId,
+            channel.getRemoteAddress());
+        return;
+      }
+
+      final File file = agent.consumeTicket(headerBuffer.getLong());
+      if (Objects.isNull(file)) {
+        LOGGER.warn(
+            "Pipe file stream receiver {}: Invalid or expired ticket from {}.",
+            receiverId,
+            channel.getRemoteAddress());
+        reply(STATUS_INVALID_TICKET, -1);
+        return;
+      }
+
+      receive(file);
+    } catch (final Exception e) {
+      LOGGER.warn("Pipe file stream receiver {}: Failed to receive file.", receiverId, e);
+    }
+  }
+
+  private void receive(final File file) throws IOException {
+    try (final FileChannel fileChannel =
+        FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      reply(STATUS_OK, fileChannel.size());
+
+      while (true) {
+        final long segmentLength = readLong();
+        if (segmentLength <= 0) {
+          fileChannel.force(false);
+          reply(STATUS_OK, fileChannel.size());
+          LOGGER.info(
+              "Pipe file stream receiver {}: Received file {}, length {}.",
+              receiverId,
+              file.getPath(),
+              fileChannel.size());
+          return;
+        }
+
+        final long segmentStart = fileChannel.size();
+        long receivedLength = 0;
+        while (receivedLength < segmentLength) {
+          final long transferredLength =
+              fileChannel.transferFrom(
+                  readChannel, segmentStart + receivedLength, segmentLength - receivedLength);
+          if (transferredLength <= 0) {
+            throw new EOFException(
+                String.format(
+                    "Connection closed after %s of %s bytes of the segment at %s of file %s.",
+                    receivedLength, segmentLength, segmentStart, file.getPath()));
+          }
+          receivedLength += transferredLength;
+        }
+
+        final long expectedChecksum = readLong();
+        if (PipeFileStreamReceiverAgent.checksum(fileChannel, segmentStart, segmentLength)
+            != expectedChecksum) {
+          LOGGER.warn(
+              "Pipe file stream receiver {}: Checksum mismatch of the segment at {} of file {}, "
+                  + "request sender to resend it.",
+              receiverId,
+              segmentStart,
+              file.getPath());
+          fileChannel.truncate(segmentStart);
+          reply(STATUS_CHECKSUM_MISMATCH, segmentStart);
+          continue;
+        }
+
+        reply(STATUS_OK, fileChannel.size());
+      }
+    }
+  }
+
+  private long readLong() throws IOException {
+    readFully(longBuffer);
+    return longBuffer.getLong();
+  }
+
+  private void readFully(final ByteBuffer buffer) throws IOException {
+    buffer.clear();
+    while (buffer.hasRemaining()) {
+      if (readChannel.read(buffer) < 0) {
+        throw new EOFException("Connection closed by the sender.");
+      }
+    }
+    buffer.flip();
+  }
+
+  private void reply(final byte status, final long fileLength) throws IOException {
+    replyBuffer.clear();
+    replyBuffer.put(status).putLong(fileLength).flip();
+    while (replyBuffer.hasRemaining()) {
+      socketChannel.write(replyBuffer);
+    }
+  }
+}
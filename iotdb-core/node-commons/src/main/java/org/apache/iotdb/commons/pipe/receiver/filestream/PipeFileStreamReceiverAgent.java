@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.receiver.filestream;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.IoTThreadFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.exception.StartupException;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+import org.apache.iotdb.commons.service.IService;
+import org.apache.iotdb.commons.service.ServiceType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Accepts zero-copy file transfers on a plain socket. The thrift receiver prepares the writing file
+ * and hands out a one-shot ticket for it in {@link #registerTicket(File)}, then the sender streams
+ * the file content to this socket with the ticket, and finally seals the file through thrift as
+ * usual.
+ */
+public class PipeFileStreamReceiverAgent implements IService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipeFileStreamReceiverAgent.class);
+
+  public static final int MAGIC = 0x50465331;
+
+  public static final byte STATUS_OK = 0;
+  public static final byte STATUS_INVALID_TICKET = 1;
+  public static final byte STATUS_CHECKSUM_MISMATCH = 2;
+
+  private static final long TICKET_EXPIRE_TIME_MS = TimeUnit.MINUTES.toMillis(10);
+  private static final int CHECKSUM_BUFFER_SIZE = 64 * 1024;
+
+  private ExecutorService listenExecutor;
+  private ExecutorService receiverExecutor;
+  private final AtomicBoolean allowSubmitListen = new AtomicBoolean(false);
+
+  private ServerSocketChannel serverSocketChannel;
+
+  private final AtomicLong receiverId = new AtomicLong(0);
+
+  private final SecureRandom ticketGenerator = new SecureRandom();
+  private final Map<Long, FileStreamTicket> ticket2FileMap = new ConcurrentHashMap<>();
+
+  private PipeFileStreamReceiverAgent() {
+    // Empty constructor
+  }
+
+  public boolean isRunning() {
+    return allowSubmitListen.get();
+  }
+
+  public int getPort() {
+    return PipeConfig.getInstance().getPipeFileStreamReceiverPort();
+  }
+
+  /////////////////////////////// Ticket ///////////////////////////////
+
+  /**
+   * Register the file to be written by the next file stream connection presenting the returned
+   * ticket. Previously registered tickets for the same file become invalid.
+   */
+  public long registerTicket(final File file) {
+    final long currentTime = System.currentTimeMillis();
+    ticket2FileMap
+        .entrySet()
+        .removeIf(
+            entry ->
+                entry.getValue().file.equals(file)
+                    || currentTime - entry.getValue().registerTime > TICKET_EXPIRE_TIME_MS);
+
+    long ticket;
+    do {
+      ticket = ticketGenerator.nextLong();
+    } while (Objects.nonNull(ticket2FileMap.putIfAbsent(ticket, new FileStreamTicket(file))));
+    return ticket;
+  }
+
+  /**
+   * @return the file registered with the ticket, or {@code null} if the ticket is invalid
+   */
+  File consumeTicket(final long ticket) {
+    final FileStreamTicket fileStreamTicket = ticket2FileMap.remove(ticket);
+    if (Objects.isNull(fileStreamTicket)
+        || System.currentTimeMillis() - fileStreamTicket.registerTime > TICKET_EXPIRE_TIME_MS) {
+      return null;
+    }
+    return fileStreamTicket.file;
+  }
+
+  private static class FileStreamTicket {
+
+    private final File file;
+    private final long registerTime;
+
+    private FileStreamTicket(final File file) {
+      this.file = file;
+      this.registerTime = System.currentTimeMillis();
+    }
+  }
+
+  /////////////////////////////// Service ///////////////////////////////
+
+  private void listen() {
+    try {
+      final SocketChannel socketChannel = serverSocketChannel.accept();
+      final long fileStreamReceiverId = receiverId.incrementAndGet();
+      try {
+        receiverExecutor.submit(
+            new PipeFileStreamReceiver(this, socketChannel, fileStreamReceiverId));
+      } catch (final RejectedExecutionException e) {
+        // The sender will transfer the file by pieces after the connection is closed
+        LOGGER.info(
+            "Pipe file stream receiver {}: Too many file stream connections, reject {}.",
+            fileStreamReceiverId,
+            socketChannel.getRemoteAddress());
+        socketChannel.close();
+      }
+    } catch (final IOException e) {
+      if (allowSubmitListen.get()) {
+        LOGGER.warn("Unhandled exception during pipe file stream receiver listening", e);
+      }
+    }
+
+    if (allowSubmitListen.get()) {
+      listenExecutor.submit(this::listen);
+    }
+  }
+
+  @Override
+  public void start() throws StartupException {
+    try {
+      serverSocketChannel = ServerSocketChannel.open();
+      serverSocketChannel.bind(new InetSocketAddress(getPort()));
+    } catch (final IOException e) {
+      throw new StartupException(e);
+    }
+
+    listenExecutor =
+        IoTDBThreadPoolFactory.newSingleThreadExecutor(
+            ThreadName.PIPE_RECEIVER_FILE_STREAM_AGENT.getName());
+    // Connections are not queued, so that the senders fall back to file pieces at once when all
+    // the receiver threads are busy
+    final int maxThreadNum =
+        Math.max(1, PipeConfig.getInstance().getPipeFileStreamReceiverMaxThreadNum());
+    receiverExecutor =
+        IoTDBThreadPoolFactory.newThreadPool(
+            maxThreadNum,
+            maxThreadNum,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            new IoTThreadFactory(ThreadName.PIPE_FILE_STREAM_RECEIVER.getName()),
+            ThreadName.PIPE_FILE_STREAM_RECEIVER.getName());
+    allowSubmitListen.set(true);
+    listenExecutor.submit(this::listen);
+
+    LOGGER.info("PipeFileStreamReceiverAgent {} started.", serverSocketChannel);
+  }
+
+  @Override
+  public void stop() {
+    allowSubmitListen.set(false);
+
+    try {
+      serverSocketChannel.close();
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to close PipeFileStreamReceiverAgent's server socket", e);
+    }
+
+    listenExecutor.shutdown();
+    receiverExecutor.shutdownNow();
+    ticket2FileMap.clear();
+
+    LOGGER.info("PipeFileStreamReceiverAgent {} stopped.", serverSocketChannel);
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.PIPE_FILE_STREAM_SERVICE;
+  }
+
+  /**
+   * The CRC32 of a segment of the file, read through a small buffer rather than a memory mapping,
+   * which would pin the segment in the page cache and may prevent the file from being truncated or
+   * deleted until it is unmapped by the GC.
+   */
+  public static long checksum(final FileChannel fileChannel, final long position, final long length)
+      throws IOException {
+    final CRC32 crc32 = new CRC32();
+    final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, CHECKSUM_BUFFER_SIZE));
+    long readPosition = position;
+    final long endPosition = position + length;
+    while (readPosition < endPosition) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), endPosition - readPosition));
+      final int readLength = fileChannel.read(buffer, readPosition);
+      if (readLength < 0) {
+        throw new EOFException(
+            String.format(
+                "File ended at %s before the end of the segment %s", readPosition, endPosition));
+      }
+      buffer.flip();
+      crc32.update(buffer);
+      readPosition += readLength;
+    }
+    return crc32.getValue();
+  }
+
+  /////////////////////////////// Singleton ///////////////////////////////
+
+  private static class PipeFileStreamReceiverAgentHolder {
+
+    private static final PipeFileStreamReceiverAgent INSTANCE = new PipeFileStreamReceiverAgent();
+
+    private PipeFileStreamReceiverAgentHolder() {
+      // Empty constructor
+    }
+  }
+
+  public static PipeFileStreamReceiverAgent getInstance() {
+    return PipeFileStreamReceiverAgentHolder.INSTANCE;
+  }
+}
@@ -27,6 +27,7 @@ public enum ServiceType {
   INFLUX_SERVICE("InfluxDB Protocol Service", "InfluxDB Protocol"),
   MQTT_SERVICE("MQTTService", "MqttService"),
   AIR_GAP_SERVICE("AirGapService", "AirGapService"),
+  PIPE_FILE_STREAM_SERVICE("PipeFileStreamService", "PipeFileStreamService"),
   MONITOR_SERVICE("Monitor ServerService", "Monitor"),
   STAT_MONITOR_SERVICE("Statistics ServerService", "StatMonitorService"),
   WAL_SERVICE("WAL ServerService", "WalService"),
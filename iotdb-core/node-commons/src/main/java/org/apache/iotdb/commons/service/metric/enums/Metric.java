@@ -50,6 +50,8 @@ public enum Metric {
   THRIFT_CONNECTIONS("thrift_connections"),
   THRIFT_ACTIVE_THREADS("thrift_active_threads"),
   CLIENT_MANAGER("client_manager"),
+  MQTT_INSERT_BATCH("mqtt_insert_batch"),
+  MQTT_INSERT_LATENCY("mqtt_insert_latency"),
   // consensus related
   STAGE("stage"),
   IOT_CONSENSUS("iot_consensus"),
@@ -93,6 +95,8 @@ public enum Metric {
   COMPACTION_TASK_SELECTION_COST("compaction_task_selection_cost"),
   COMPACTION_TASK_SELECTED_FILE("compaction_task_selected_file"),
   COMPACTION_TASK_SELECTED_FILE_SIZE("compaction_task_selected_file_size"),
+  COMPACTION_THROTTLE("compaction_throttle"),
+  DIRECT_IO("direct_io"),
   // schema engine related
   MEM("mem"),
   CACHE("cache"),
@@ -173,17 +177,28 @@ public enum Metric {
   PIPE_CONFIGNODE_REMAINING_TIME("pipe_confignode_remaining_time"),
   PIPE_GLOBAL_REMAINING_EVENT_COUNT("pipe_global_remaining_event_count"),
   PIPE_GLOBAL_REMAINING_TIME("pipe_global_remaining_time"),
+  PIPE_CONNECTOR_ADAPTIVE_BATCH_SIZE("pipe_connector_adaptive_batch_size"),
+  PIPE_CONNECTOR_ADAPTIVE_BATCH_DELAY("pipe_connector_adaptive_batch_delay"),
+  PIPE_CONNECTOR_ADAPTIVE_IN_FLIGHT_LIMIT("pipe_connector_adaptive_in_flight_limit"),
+  PIPE_CONNECTOR_ADAPTIVE_IN_FLIGHT_COUNT("pipe_connector_adaptive_in_flight_count"),
+  PIPE_CONNECTOR_ADAPTIVE_LATENCY_PER_KB("pipe_connector_adaptive_latency_per_kb"),
   // subscription related
   SUBSCRIPTION_UNCOMMITTED_EVENT_COUNT("subscription_uncommitted_event_count"),
   SUBSCRIPTION_CURRENT_COMMIT_ID("subscription_current_commit_id"),
   SUBSCRIPTION_EVENT_TRANSFER("subscription_event_transfer"),
+  // trigger related
+  TRIGGER_ASYNC_FIRE_PENDING_ROWS("trigger_async_fire_pending_rows"),
+  TRIGGER_ASYNC_FIRE_LAG("trigger_async_fire_lag"),
+  TRIGGER_ASYNC_FIRE_ROWS("trigger_async_fire_rows"),
   // load related
   ACTIVE_LOADING_FILES_NUMBER("active_loading_files_number"),
   ACTIVE_LOADING_FILES_SIZE("active_loading_files_size"),
+  ACTIVE_LOAD_PROGRESS("active_load_progress"),
   LOAD_MEM("load_mem"),
   LOAD_DISK_IO("load_disk_io"),
   LOAD_TIME_COST("load_time_cost"),
   LOAD_POINT_COUNT("load_point_count"),
+  LOAD_THROUGHPUT("load_throughput"),
   MEMTABLE_POINT_COUNT("memtable_point_count"),
   BINARY_ALLOCATOR("binary_allocator"),
   // memory related
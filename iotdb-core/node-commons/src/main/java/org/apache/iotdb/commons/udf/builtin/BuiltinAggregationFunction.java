@@ -46,7 +46,10 @@ public enum BuiltinAggregationFunction {
   VAR_POP("var_pop"),
   VAR_SAMP("var_samp"),
   MAX_BY("max_by"),
-  MIN_BY("min_by");
+  MIN_BY("min_by"),
+  APPROX_COUNT_DISTINCT("approx_count_distinct"),
+  APPROX_PERCENTILE("approx_percentile"),
+  APPROX_MOST_FREQUENT("approx_most_frequent");
 
   private final String functionName;
 
@@ -97,6 +100,9 @@ public enum BuiltinAggregationFunction {
       case "var_samp":
       case "max_by":
       case "min_by":
+      case "approx_count_distinct":
+      case "approx_percentile":
+      case "approx_most_frequent":
         return false;
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + name);
@@ -131,6 +137,9 @@ public enum BuiltinAggregationFunction {
       case "var_samp":
       case "max_by":
       case "min_by":
+      case "approx_count_distinct":
+      case "approx_percentile":
+      case "approx_most_frequent":
         return true;
       case "count_if":
       case "count_time":
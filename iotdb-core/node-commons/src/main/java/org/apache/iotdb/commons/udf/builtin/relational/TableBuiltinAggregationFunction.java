@@ -55,6 +55,9 @@ public enum TableBuiltinAggregationFunction {
   VARIANCE("variance"),
   VAR_POP("var_pop"),
   VAR_SAMP("var_samp"),
+  APPROX_COUNT_DISTINCT("approx_count_distinct"),
+  APPROX_PERCENTILE("approx_percentile"),
+  APPROX_MOST_FREQUENT("approx_most_frequent"),
   ;
 
   private final String functionName;
@@ -98,6 +101,9 @@ public enum TableBuiltinAggregationFunction {
       case "variance":
       case "var_pop":
       case "var_samp":
+      case "approx_count_distinct":
+      case "approx_percentile":
+      case "approx_most_frequent":
         return RowType.anonymous(Collections.emptyList());
       case "extreme":
       case "max":
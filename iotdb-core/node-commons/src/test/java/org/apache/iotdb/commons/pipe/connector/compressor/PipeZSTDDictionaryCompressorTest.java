@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.connector.compressor;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class PipeZSTDDictionaryCompressorTest {
+
+  @After
+  public void tearDown() {
+    PipeCompressionDictionaryCache.getInstance().clear();
+  }
+
+  private static byte[] generatePayload(final int index) {
+    final StringBuilder builder = new StringBuilder();
+    for (int device = 0; device < 10; device++) {
+      builder
+          .append("root.factory_")
+          .append((index + device) % 50)
+          .append(".workshop.device_")
+          .append(device)
+          .append(".temperature,humidity,pressure,voltage:")
+          .append(index * 31 + device);
+    }
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testCompressWithTrainedDictionary() throws IOException {
+    final PipeZSTDDictionaryCompressor sender = new PipeZSTDDictionaryCompressor(3, 4096, 200);
+    final PipeCompressor receiver =
+        PipeCompressorFactory.getCompressor(
+            PipeCompressor.PipeCompressionType.ZSTD_DICT.getIndex());
+
+    for (int i = 0; i < 200; i++) {
+      final byte[] payload = generatePayload(i);
+      Assert.assertArrayEquals(
+          payload, receiver.decompress(sender.compress(payload), payload.length));
+    }
+    Assert.assertTrue(sender.isDictionaryTrained());
+
+    long plainSize = 0;
+    long dictionarySize = 0;
+    for (int i = 200; i < 200 + PipeZSTDDictionaryCompressor.DICTIONARY_RESEND_INTERVAL; i++) {
+      final byte[] payload = generatePayload(i);
+      final byte[] compressed = sender.compress(payload);
+      Assert.assertArrayEquals(payload, receiver.decompress(compressed));
+      if (i > 200) {
+        dictionarySize += compressed.length;
+        plainSize += new PipeZSTDCompressor(3).compress(payload).length;
+      }
+    }
+    Assert.assertEquals(1, PipeCompressionDictionaryCache.getInstance().size());
+    Assert.assertTrue(dictionarySize < plainSize);
+  }
+
+  @Test
+  public void testMissingDictionary() throws IOException {
+    final PipeZSTDDictionaryCompressor sender = new PipeZSTDDictionaryCompressor(3, 4096, 200);
+    for (int i = 0; i < 200; i++) {
+      sender.compress(generatePayload(i));
+    }
+    Assert.assertTrue(sender.isDictionaryTrained());
+
+    // The first request embeds the dictionary, the following ones only reference it
+    final byte[] embedded = sender.compress(generatePayload(0));
+    final byte[] referenced = sender.compress(generatePayload(1));
+
+    final PipeCompressor receiver =
+        PipeCompressorFactory.getCompressor(
+            PipeCompressor.PipeCompressionType.ZSTD_DICT.getIndex());
+    try {
+      receiver.decompress(referenced);
+      Assert.fail();
+    } catch (final PipeCompressionDictionaryNotFoundException e) {
+      // Expected
+    }
+
+    Assert.assertArrayEquals(generatePayload(0), receiver.decompress(embedded));
+    Assert.assertArrayEquals(generatePayload(1), receiver.decompress(referenced));
+  }
+
+  @Test
+  public void testReceiverRestart() throws IOException {
+    final PipeZSTDDictionaryCompressor sender = new PipeZSTDDictionaryCompressor(3, 4096, 200);
+    for (int i = 0; i < 200; i++) {
+      sender.compress(generatePayload(i));
+    }
+    Assert.assertTrue(sender.isDictionaryTrained());
+
+    final PipeCompressor receiver =
+        PipeCompressorFactory.getCompressor(
+            PipeCompressor.PipeCompressionType.ZSTD_DICT.getIndex());
+    for (int i = 0; i < 10; i++) {
+      Assert.assertArrayEquals(
+          generatePayload(i), receiver.decompress(sender.compress(generatePayload(i))));
+    }
+
+    // The restarted receiver has lost the dictionary and rejects the referenced request
+    PipeCompressionDictionaryCache.getInstance().clear();
+    try {
+      receiver.decompress(sender.compress(generatePayload(10)));
+      Assert.fail();
+    } catch (final PipeCompressionDictionaryNotFoundException e) {
+      // Expected
+    }
+
+    // The sender sees the receiver temporarily unavailable and embeds the dictionary right away
+    sender.onReceiverTemporarilyUnavailable();
+    for (int i = 10; i < 20; i++) {
+      Assert.assertArrayEquals(
+          generatePayload(i), receiver.decompress(sender.compress(generatePayload(i))));
+    }
+    Assert.assertEquals(1, PipeCompressionDictionaryCache.getInstance().size());
+  }
+
+  @Test
+  public void testDictionariesOfDifferentSenders() throws IOException {
+    final PipeZSTDDictionaryCompressor sender1 = new PipeZSTDDictionaryCompressor(3, 4096, 200);
+    final PipeZSTDDictionaryCompressor sender2 = new PipeZSTDDictionaryCompressor(3, 4096, 200);
+    for (int i = 0; i < 200; i++) {
+      sender1.compress(generatePayload(i));
+      sender2.compress(generatePayload(i + 1000));
+    }
+    Assert.assertTrue(sender1.isDictionaryTrained());
+    Assert.assertTrue(sender2.isDictionaryTrained());
+
+    // The dictionaries are cached by their content, so the referenced requests of both senders
+    // are decompressed by their own dictionary on the shared receiver cache
+    final PipeCompressor receiver =
+        PipeCompressorFactory.getCompressor(
+            PipeCompressor.PipeCompressionType.ZSTD_DICT.getIndex());
+    for (int i = 0; i < 10; i++) {
+      Assert.assertArrayEquals(
+          generatePayload(i), receiver.decompress(sender1.compress(generatePayload(i))));
+      Assert.assertArrayEquals(
+          generatePayload(i + 1000),
+          receiver.decompress(sender2.compress(generatePayload(i + 1000))));
+    }
+    Assert.assertEquals(2, PipeCompressionDictionaryCache.getInstance().size());
+  }
+}
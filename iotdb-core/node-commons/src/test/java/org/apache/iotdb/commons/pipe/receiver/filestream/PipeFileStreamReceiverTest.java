@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.receiver.filestream;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.pipe.connector.client.IoTDBFileStreamClient;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeRequestType;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFilePieceReq;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileSealReqV1;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileSealReqV2;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.request.PipeTransferFileStreamOpenReq;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.response.PipeTransferFilePieceResp;
+import org.apache.iotdb.commons.pipe.connector.payload.thrift.response.PipeTransferFileStreamOpenResp;
+import org.apache.iotdb.commons.pipe.receiver.IoTDBFileReceiver;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.TPipeTransferReq;
+import org.apache.iotdb.service.rpc.thrift.TPipeTransferResp;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PipeFileStreamReceiverTest {
+
+  private final PipeFileStreamReceiverAgent agent = PipeFileStreamReceiverAgent.getInstance();
+
+  private int originalPort;
+  private File dir;
+
+  @Before
+  public void setUp() throws Exception {
+    originalPort = CommonDescriptor.getInstance().getConfig().getPipeFileStreamReceiverPort();
+    try (final ServerSocket socket = new ServerSocket(0)) {
+      CommonDescriptor.getInstance()
+          .getConfig()
+          .setPipeFileStreamReceiverPort(socket.getLocalPort());
+    }
+    agent.start();
+    dir = Files.createTempDirectory("pipe-file-stream").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    agent.stop();
+    CommonDescriptor.getInstance().getConfig().setPipeFileStreamReceiverPort(originalPort);
+    final File[] files = dir.listFiles();
+    if (files != null) {
+      for (final File file : files) {
+        Assert.assertTrue(file.delete());
+      }
+    }
+    Assert.assertTrue(dir.delete());
+  }
+
+  @Test
+  public void testTransferAndResume() throws IOException {
+    final byte[] content = new byte[40 * 1024 * 1024 + 123];
+    new Random(0).nextBytes(content);
+    final File source = new File(dir, "source.tsfile");
+    Files.write(source.toPath(), content);
+
+    // The receiver already has the first part of the file from an interrupted transfer
+    final File target = new File(dir, "target.tsfile");
+    try (final RandomAccessFile writer = new RandomAccessFile(target, "rw")) {
+      writer.write(content, 0, 1024 * 1024);
+    }
+
+    final AtomicLong rateLimitedBytes = new AtomicLong(0);
+    try (final IoTDBFileStreamClient client =
+        new IoTDBFileStreamClient(new TEndPoint("127.0.0.1", agent.getPort()), 5000)) {
+      Assert.assertEquals(
+          content.length,
+          client.transfer(source, agent.registerTicket(target), rateLimitedBytes::addAndGet));
+    }
+
+    Assert.assertEquals(content.length - 1024 * 1024, rateLimitedBytes.get());
+    Assert.assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+  }
+
+  @Test
+  public void testInvalidTicket() throws IOException {
+    final File source = new File(dir, "source.tsfile");
+    Files.write(source.toPath(), new byte[] {1, 2, 3});
+    final File target = new File(dir, "target.tsfile");
+    Assert.assertTrue(target.createNewFile());
+    final long ticket = agent.registerTicket(target);
+
+    try (final IoTDBFileStreamClient client =
+        new IoTDBFileStreamClient(new TEndPoint("127.0.0.1", agent.getPort()), 5000)) {
+      client.transfer(source, ticket + 1, length -> {});
+      Assert.fail();
+    } catch (final IOException e) {
+      Assert.assertEquals(0, target.length());
+    }
+
+    // Registering the file again invalidates the previous ticket
+    Assert.assertNotEquals(ticket, agent.registerTicket(target));
+    Assert.assertNull(agent.consumeTicket(ticket));
+  }
+
+  @Test(timeout = 30000)
+  public void testSilentConnectionTimeout() throws IOException {
+    final int originalTimeoutMs =
+        CommonDescriptor.getInstance().getConfig().getPipeConnectorTransferTimeoutMs();
+    CommonDescriptor.getInstance().getConfig().setPipeConnectorTransferTimeoutMs(500);
+    try (final Socket socket = new Socket("127.0.0.1", agent.getPort())) {
+      // The receiver closes the connection after the sender stays silent for the timeout
+      Assert.assertEquals(-1, socket.getInputStream().read());
+    } finally {
+      CommonDescriptor.getInstance()
+          .getConfig()
+          .setPipeConnectorTransferTimeoutMs(originalTimeoutMs);
+    }
+  }
+
+  @Test
+  public void testFallBackToFilePieces() throws IOException {
+    final byte[] content = new byte[3 * 1024 * 1024 + 45];
+    new Random(0).nextBytes(content);
+    final int streamedLength = 2 * 1024 * 1024;
+    final File source = new File(dir, "source.tsfile");
+    Files.write(source.toPath(), Arrays.copyOf(content, streamedLength));
+
+    final File receiverDir = new File(dir, "receiver");
+    Assert.assertTrue(receiverDir.mkdirs());
+    final TestFileReceiver receiver = new TestFileReceiver(receiverDir);
+    final PipeTransferFileStreamOpenResp openResp =
+        PipeTransferFileStreamOpenResp.fromTPipeTransferResp(
+            receiver.openFileStream(
+                PipeTransferFileStreamOpenReq.toTPipeTransferReq("target.tsfile", true)));
+    Assert.assertEquals(
+        TSStatusCode.SUCCESS_STATUS.getStatusCode(), openResp.getStatus().getCode());
+    Assert.assertEquals(0, openResp.getEndWritingOffset());
+
+    // The stream is interrupted after the first part, then the sender falls back to file pieces
+    try (final IoTDBFileStreamClient client =
+        new IoTDBFileStreamClient(new TEndPoint("127.0.0.1", agent.getPort()), 5000)) {
+      Assert.assertEquals(
+          streamedLength, client.transfer(source, openResp.getTicket(), length -> {}));
+    }
+    for (int offset = streamedLength; offset < content.length; offset += 512 * 1024) {
+      final byte[] piece =
+          Arrays.copyOfRange(content, offset, Math.min(offset + 512 * 1024, content.length));
+      final PipeTransferFilePieceResp pieceResp =
+          PipeTransferFilePieceResp.fromTPipeTransferResp(
+              receiver.transferFilePiece(new TestFilePieceReq("target.tsfile", offset, piece)));
+      Assert.assertEquals(
+          TSStatusCode.SUCCESS_STATUS.getStatusCode(), pieceResp.getStatus().getCode());
+      Assert.assertEquals(offset + piece.length, pieceResp.getEndWritingOffset());
+    }
+
+    Assert.assertArrayEquals(
+        content, Files.readAllBytes(new File(receiverDir, "target.tsfile").toPath()));
+    receiver.handleExit();
+  }
+
+  private static class TestFilePieceReq extends PipeTransferFilePieceReq {
+
+    private TestFilePieceReq(final String fileName, final long offset, final byte[] piece)
+        throws IOException {
+      convertToTPipeTransferReq(fileName, offset, piece);
+    }
+
+    @Override
+    protected PipeRequestType getPlanType() {
+      return PipeRequestType.TRANSFER_TS_FILE_PIECE;
+    }
+  }
+
+  private static class TestFileReceiver extends IoTDBFileReceiver {
+
+    private TestFileReceiver(final File dir) {
+      receiverFileDirWithIdSuffix.set(dir);
+    }
+
+    private TPipeTransferResp openFileStream(final PipeTransferFileStreamOpenReq req) {
+      return handleTransferFileStreamOpen(req);
+    }
+
+    private TPipeTransferResp transferFilePiece(final PipeTransferFilePieceReq req) {
+      return handleTransferFilePiece(req, false, true);
+    }
+
+    @Override
+    public TPipeTransferResp receive(final TPipeTransferReq req) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected String getReceiverFileBaseDir() {
+      return receiverFileDirWithIdSuffix.get().getPath();
+    }
+
+    @Override
+    protected String getSenderHost() {
+      return "127.0.0.1";
+    }
+
+    @Override
+    protected String getSenderPort() {
+      return "0";
+    }
+
+    @Override
+    protected String getClusterId() {
+      return "";
+    }
+
+    @Override
+    protected TSStatus tryLogin() {
+      return RpcUtils.SUCCESS_STATUS;
+    }
+
+    @Override
+    protected TSStatus loadFileV1(
+        final PipeTransferFileSealReqV1 req, final String fileAbsolutePath) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected TSStatus loadFileV2(
+        final PipeTransferFileSealReqV2 req, final List<String> fileAbsolutePaths) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void closeSession() {
+      // Do nothing
+    }
+  }
+}
@@ -281,7 +281,10 @@ enum TAggregationType {
   FIRST_BY,
   LAST_BY,
   MIN,
-  MAX
+  MAX,
+  APPROX_COUNT_DISTINCT,
+  APPROX_PERCENTILE,
+  APPROX_MOST_FREQUENT
 }
 
 struct TShowConfigurationTemplateResp {
@@ -97,6 +97,7 @@ struct TRatisConfig {
 
 struct TCQConfig {
   1: required i64 cqMinEveryIntervalInMs
+  2: optional bool enableIncrementalCQ
 }
 
 struct TRuntimeConfiguration {
@@ -245,6 +245,12 @@ struct TFireTriggerResp {
   2: required i32 fireResult
 }
 
+struct TFireTriggersReq {
+  1: required string triggerName
+  2: required list<binary> tablets
+  3: required byte triggerEvent
+}
+
 struct TCreatePipePluginInstanceReq {
   1: required binary pipePluginMeta
   2: required binary jarFile
@@ -272,6 +278,8 @@ struct TDataNodeHeartbeatReq {
   9: optional i64 deviceQuotaRemain
   10: optional TDataNodeActivation activation
   11: optional set<common.TEndPoint> configNodeEndPoints
+  // id of the last cq write time report received from this DataNode
+  12: optional i64 cqWriteTimeReportAck
 }
 
 struct TDataNodeActivation {
@@ -298,6 +306,9 @@ struct TDataNodeHeartbeatResp {
   14: optional list<bool> pipeCompletedList
   15: optional list<i64> pipeRemainingEventCountList
   16: optional list<double> pipeRemainingTimeList
+  // minimum data time written into each database since the last acknowledged report
+  17: optional i64 cqWriteTimeReportId
+  18: optional map<string, i64> cqMinWriteTimes
 }
 
 struct TPipeHeartbeatReq {
@@ -588,6 +599,10 @@ struct TExecuteCQ {
   5: required string zoneId
   6: required string cqId
   7: required string username
+  // end time of the last successful execution, only set for incremental execution
+  8: optional i64 lastEndTime
+  // minimum data time written into each database since the last execution was dispatched
+  9: optional map<string, i64> minWriteTimes
 }
 
 // ====================================================
@@ -925,6 +940,14 @@ service IDataNodeRPCService {
    **/
   TFireTriggerResp fireTrigger(TFireTriggerReq req)
 
+  /**
+   * Fire a stateful trigger with a batch of tablets on current data node, the fire result is the
+   * worst result among the tablets.
+   *
+   * @param trigger name, tablets and event
+   **/
+  TFireTriggerResp fireTriggers(TFireTriggersReq req)
+
   /**
    * Config node will invalidate permission Info cache.
    *